@@ -63,6 +63,8 @@ public enum Group {
     INDEX_POPULATION_WORK("IndexPopulationWork", ExecutorServiceFactory.cached()),
     /** Background index sampling */
     INDEX_SAMPLING("IndexSampling"),
+    /** Background index compaction. */
+    INDEX_COMPACTION("IndexCompaction"),
     /** Background index update applier, for eventually consistent indexes. */
     INDEX_UPDATING(
             "IndexUpdating",
@@ -169,6 +169,26 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         return delegate.snapshotsLoaded();
     }
 
+    @Override
+    public long checksumsComputed() {
+        return delegate.checksumsComputed();
+    }
+
+    @Override
+    public long checksumsVerified() {
+        return delegate.checksumsVerified();
+    }
+
+    @Override
+    public long checksumMismatches() {
+        return delegate.checksumMismatches();
+    }
+
+    @Override
+    public long checksumNanos() {
+        return delegate.checksumNanos();
+    }
+
     @Override
     public long closedCursors() {
         return delegate.closedCursors();
@@ -304,6 +324,16 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         delegate.closedCursors(closedCursors);
     }
 
+    @Override
+    public void checksumsComputed(long pages, long nanos) {
+        delegate.checksumsComputed(pages, nanos);
+    }
+
+    @Override
+    public void checksumsVerified(long pages, long mismatches, long nanos) {
+        delegate.checksumsVerified(pages, mismatches, nanos);
+    }
+
     @Override
     public long filesMapped() {
         return delegate.filesMapped();
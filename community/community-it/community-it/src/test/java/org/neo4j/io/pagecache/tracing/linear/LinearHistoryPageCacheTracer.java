@@ -253,6 +253,26 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer {
         return 0;
     }
 
+    @Override
+    public long checksumsComputed() {
+        return 0;
+    }
+
+    @Override
+    public long checksumsVerified() {
+        return 0;
+    }
+
+    @Override
+    public long checksumMismatches() {
+        return 0;
+    }
+
+    @Override
+    public long checksumNanos() {
+        return 0;
+    }
+
     @Override
     public void pins(long pins) {}
 
@@ -330,4 +350,10 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer {
 
     @Override
     public void closedCursors(long closedCursors) {}
+
+    @Override
+    public void checksumsComputed(long pages, long nanos) {}
+
+    @Override
+    public void checksumsVerified(long pages, long mismatches, long nanos) {}
 }
@@ -264,6 +264,26 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long checksumsComputed() {
+        return 0;
+    }
+
+    @Override
+    public long checksumsVerified() {
+        return 0;
+    }
+
+    @Override
+    public long checksumMismatches() {
+        return 0;
+    }
+
+    @Override
+    public long checksumNanos() {
+        return 0;
+    }
+
     @Override
     public void pins(long pins) {
         this.pins.getAndAdd(pins);
@@ -348,6 +368,12 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     @Override
     public void closedCursors(long closedCursors) {}
 
+    @Override
+    public void checksumsComputed(long pages, long nanos) {}
+
+    @Override
+    public void checksumsVerified(long pages, long mismatches, long nanos) {}
+
     private void evicted(long filePageId, PageSwapper swapper) {
         record(new Evict(swapper, filePageId));
     }
@@ -36,6 +36,7 @@ import org.neo4j.graphdb.Transaction;
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.TokenSet;
 import org.neo4j.internal.kernel.api.exceptions.InvalidTransactionTypeKernelException;
+import org.neo4j.storageengine.api.NodeBatch;
 
 public abstract class NodeCursorTestBase<G extends KernelAPIReadTestSupport> extends KernelAPIReadTestBase<G> {
     private static List<Long> NODE_IDS;
@@ -87,6 +88,38 @@ public abstract class NodeCursorTestBase<G extends KernelAPIReadTestSupport> ext
         assertEquals(NODE_IDS, ids);
     }
 
+    @Test
+    void shouldScanNodesInBatches() {
+        // given
+        int barLabel = token.nodeLabel("Bar");
+        int bazLabel = token.nodeLabel("Baz");
+        List<Long> ids = new ArrayList<>();
+        List<Long> withBar = new ArrayList<>();
+        List<Long> withBarAndBaz = new ArrayList<>();
+        try (NodeCursor nodes = cursors.allocateNodeCursor(NULL_CONTEXT)) {
+            // when
+            NodeBatch batch = new NodeBatch(4, barLabel, bazLabel);
+            read.allNodesScan(nodes);
+            while (nodes.nextBatch(batch) > 0) {
+                for (int i = 0; i < batch.size(); i++) {
+                    ids.add(batch.id(i));
+                    if (batch.hasLabel(i, 0)) {
+                        withBar.add(batch.id(i));
+                        if (batch.hasLabel(i, 1)) {
+                            withBarAndBaz.add(batch.id(i));
+                        }
+                    }
+                }
+                batch.clear();
+            }
+        }
+
+        // then
+        assertEquals(NODE_IDS, ids);
+        assertEquals(List.of(bar, barbaz), withBar);
+        assertEquals(List.of(barbaz), withBarAndBaz);
+    }
+
     @Test
     void shouldAccessNodesByReference() {
         // given
@@ -19,10 +19,14 @@
  */
 package org.neo4j.kernel.impl.newapi;
 
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
 import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unordered;
 
+import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.schema.IndexType;
@@ -39,6 +43,52 @@ import org.neo4j.values.storable.Values;
 public class NodeIndexTransactionStateTest extends IndexTransactionStateTestBase {
     private static final String DEFAULT_LABEL = "Node";
 
+    @ParameterizedTest
+    @EnumSource(
+            value = IndexType.class,
+            names = {"RANGE", "TEXT"})
+    void shouldPerformBatchOfEqualitySeeks(IndexType indexType) throws Exception {
+        // given
+        Set<Pair<Long, Value>> expected = new HashSet<>();
+        long nodeToDelete;
+        long nodeToChange;
+        try (KernelTransaction tx = beginTransaction()) {
+            expected.add(entityWithProp(tx, "banana"));
+            expected.add(entityWithProp(tx, "cherry"));
+            entityWithProp(tx, "apple");
+            nodeToDelete = entityWithPropId(tx, "banana");
+            nodeToChange = entityWithPropId(tx, "cherry");
+            tx.commit();
+        }
+
+        createIndex(indexType);
+
+        // when
+        try (KernelTransaction tx = beginTransaction()) {
+            expected.add(entityWithProp(tx, "banana"));
+            expected.add(entityWithProp(tx, "cherry"));
+            entityWithProp(tx, "dragonfruit");
+            deleteEntity(tx, nodeToDelete);
+            setProperty(tx, nodeToChange, Values.stringValue("apple"));
+            IndexDescriptor index = tx.schemaRead().indexGetForName(INDEX_NAME);
+            int prop = tx.tokenRead().propertyKey(DEFAULT_PROPERTY_NAME);
+            try (NodeValueIndexCursor nodes =
+                    tx.cursors().allocateNodeValueIndexCursor(tx.cursorContext(), tx.memoryTracker())) {
+                IndexReadSession indexSession = tx.dataRead().indexReadSession(index);
+                tx.dataRead()
+                        .nodeIndexSeekBatch(
+                                tx.queryContext(),
+                                indexSession,
+                                nodes,
+                                unconstrained(),
+                                new PropertyIndexQuery.ExactPredicate[] {PropertyIndexQuery.exact(prop, "banana")},
+                                new PropertyIndexQuery.ExactPredicate[] {PropertyIndexQuery.exact(prop, "cherry")},
+                                new PropertyIndexQuery.ExactPredicate[] {PropertyIndexQuery.exact(prop, "banana")});
+                assertEntityAndValue(expected, tx, false, "banana", new NodeCursorAdapter(nodes));
+            }
+        }
+    }
+
     @Override
     Pair<Long, Value> entityWithProp(KernelTransaction tx, Object value) throws Exception {
         Write write = tx.dataWrite();
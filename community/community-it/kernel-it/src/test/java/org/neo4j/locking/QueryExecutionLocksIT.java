@@ -581,6 +581,15 @@ class QueryExecutionLocksIT {
             delegate.acquireExclusiveNodeLock(ids);
         }
 
+        @Override
+        public boolean tryExclusiveNodeLock(long id) {
+            boolean acquired = delegate.tryExclusiveNodeLock(id);
+            if (acquired) {
+                record(true, true, ResourceType.NODE, id);
+            }
+            return acquired;
+        }
+
         @Override
         public void acquireExclusiveRelationshipLock(long... ids) {
             record(true, true, ResourceType.RELATIONSHIP, ids);
@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.store.counts;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
@@ -72,6 +74,7 @@ import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
 import org.neo4j.kernel.impl.store.CountsComputer;
+import org.neo4j.kernel.impl.store.CountsRebuildCheckpoint;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
@@ -406,6 +409,97 @@ class CountsComputerTest {
         }
     }
 
+    @Test
+    void shouldCreateACountsStoreWhenCountingRelationshipsInCheckpointedRanges() throws IOException {
+        DatabaseManagementService managementService = dbBuilder.build();
+        final GraphDatabaseAPI db = (GraphDatabaseAPI) managementService.database(DEFAULT_DATABASE_NAME);
+        int[] tokens = createRelationships(db, 10);
+        long lastCommittedTransactionId = getLastTxId(db);
+        managementService.shutdown();
+
+        rebuildCounts(lastCommittedTransactionId, ProgressMonitorFactory.NONE, 3);
+
+        assertRelationshipCounts(db, lastCommittedTransactionId, tokens, 10);
+        softly.assertThat(fileSystem.fileExists(checkpointFile()))
+                .as("checkpoint file deleted")
+                .isFalse();
+    }
+
+    @Test
+    void shouldContinueInterruptedRebuildFromCheckpoint() throws IOException {
+        DatabaseManagementService managementService = dbBuilder.build();
+        final GraphDatabaseAPI db = (GraphDatabaseAPI) managementService.database(DEFAULT_DATABASE_NAME);
+        int[] tokens = createRelationships(db, 10);
+        long lastCommittedTransactionId = getLastTxId(db);
+        managementService.shutdown();
+
+        // A rebuild that gets interrupted right after its first range of relationships has been checkpointed
+        cleanupCountsForRebuilding();
+        try (NeoStores neoStores = openNeoStores()) {
+            CountsComputer countsComputer =
+                    newCountsComputer(neoStores, lastCommittedTransactionId, ProgressMonitorFactory.NONE, 3);
+            CountsUpdater interruptingUpdater = new CountsUpdater() {
+                @Override
+                public void incrementNodeCount(int labelId, long delta) {}
+
+                @Override
+                public void incrementRelationshipCount(int startLabelId, int typeId, int endLabelId, long delta) {
+                    throw new IllegalStateException("Interrupted");
+                }
+
+                @Override
+                public void close() {}
+            };
+            assertThatThrownBy(() -> countsComputer.initialize(interruptingUpdater, NULL_CONTEXT, INSTANCE))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(fileSystem.fileExists(checkpointFile())).isTrue();
+
+        rebuildCounts(lastCommittedTransactionId, ProgressMonitorFactory.NONE, 3);
+
+        assertRelationshipCounts(db, lastCommittedTransactionId, tokens, 10);
+        softly.assertThat(fileSystem.fileExists(checkpointFile()))
+                .as("checkpoint file deleted")
+                .isFalse();
+    }
+
+    /**
+     * @return ids of the start label, relationship type and end label of the created relationships.
+     */
+    private static int[] createRelationships(GraphDatabaseAPI db, int count) {
+        try (Transaction tx = db.beginTx()) {
+            Node start = tx.createNode(Label.label("Start"));
+            Node end = tx.createNode(Label.label("End"));
+            for (int i = 0; i < count; i++) {
+                start.createRelationshipTo(end, RelationshipType.withName("LINK"));
+            }
+            var tokenRead = ((InternalTransaction) tx).kernelTransaction().tokenRead();
+            int[] tokens = {tokenRead.nodeLabel("Start"), tokenRead.relationshipType("LINK"), tokenRead.nodeLabel("End")
+            };
+            tx.commit();
+            return tokens;
+        }
+    }
+
+    private void assertRelationshipCounts(
+            GraphDatabaseAPI db, long lastCommittedTransactionId, int[] tokens, long count) throws IOException {
+        int startLabelId = tokens[0];
+        int typeId = tokens[1];
+        int endLabelId = tokens[2];
+        try (var store = createCountsStore(getDBOpenOptions(db))) {
+            softly.assertThat(store.txId()).as("Store Transaction id").isEqualTo(lastCommittedTransactionId);
+            softly.assertThat(store.relationshipCount(ANY_LABEL, ANY_RELATIONSHIP_TYPE, ANY_LABEL, NULL_CONTEXT))
+                    .as("()-[]->()")
+                    .isEqualTo(count);
+            softly.assertThat(store.relationshipCount(startLabelId, typeId, ANY_LABEL, NULL_CONTEXT))
+                    .as("(:Start)-[:LINK]->()")
+                    .isEqualTo(count);
+            softly.assertThat(store.relationshipCount(ANY_LABEL, typeId, endLabelId, NULL_CONTEXT))
+                    .as("()-[:LINK]->(:End)")
+                    .isEqualTo(count);
+        }
+    }
+
     @Test
     void shouldCreateACountStoreWhenDBContainsDenseNodes() throws IOException, KernelException {
         DatabaseManagementService managementService = dbBuilder
@@ -580,8 +674,27 @@ class CountsComputerTest {
 
     private void rebuildCounts(long lastCommittedTransactionId, ProgressMonitorFactory progressMonitorFactory)
             throws IOException {
+        rebuildCounts(lastCommittedTransactionId, progressMonitorFactory, 0);
+    }
+
+    private void rebuildCounts(
+            long lastCommittedTransactionId, ProgressMonitorFactory progressMonitorFactory, long checkpointInterval)
+            throws IOException {
         cleanupCountsForRebuilding();
 
+        try (NeoStores neoStores = openNeoStores()) {
+            CountsComputer countsComputer = newCountsComputer(
+                    neoStores, lastCommittedTransactionId, progressMonitorFactory, checkpointInterval);
+            try (var countsStore = createCountsStore(countsComputer, neoStores.getOpenOptions())) {
+                countsStore.start(NULL_CONTEXT, INSTANCE);
+                countsStore.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private NeoStores openNeoStores() {
         IdGeneratorFactory idGenFactory = new DefaultIdGeneratorFactory(
                 fileSystem, immediate(), PAGE_CACHE_TRACER, databaseLayout.getDatabaseName());
         StoreFactory storeFactory = new StoreFactory(
@@ -595,33 +708,38 @@ class CountsComputerTest {
                 CONTEXT_FACTORY,
                 false,
                 LogTailLogVersionsMetadata.EMPTY_LOG_TAIL);
+        return storeFactory.openAllNeoStores();
+    }
 
-        try (NeoStores neoStores = storeFactory.openAllNeoStores()) {
-            NodeStore nodeStore = neoStores.getNodeStore();
-            RelationshipStore relationshipStore = neoStores.getRelationshipStore();
-            var labelTokenStore = neoStores.getLabelTokenStore();
-            int highLabelId = (int) labelTokenStore.getIdGenerator().getHighId();
-            var relTypeTokenStore = neoStores.getRelationshipTypeTokenStore();
-            int highRelationshipTypeId =
-                    (int) relTypeTokenStore.getIdGenerator().getHighId();
-            CountsComputer countsComputer = new CountsComputer(
-                    neoStores,
-                    lastCommittedTransactionId,
-                    nodeStore,
-                    relationshipStore,
-                    highLabelId,
-                    highRelationshipTypeId,
-                    NumberArrayFactories.AUTO_WITHOUT_PAGECACHE,
-                    progressMonitorFactory,
-                    CONTEXT_FACTORY,
-                    INSTANCE);
-            try (var countsStore = createCountsStore(countsComputer, neoStores.getOpenOptions())) {
-                countsStore.start(NULL_CONTEXT, INSTANCE);
-                countsStore.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        }
+    private CountsComputer newCountsComputer(
+            NeoStores neoStores,
+            long lastCommittedTransactionId,
+            ProgressMonitorFactory progressMonitorFactory,
+            long checkpointInterval) {
+        NodeStore nodeStore = neoStores.getNodeStore();
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        var labelTokenStore = neoStores.getLabelTokenStore();
+        int highLabelId = (int) labelTokenStore.getIdGenerator().getHighId();
+        var relTypeTokenStore = neoStores.getRelationshipTypeTokenStore();
+        int highRelationshipTypeId = (int) relTypeTokenStore.getIdGenerator().getHighId();
+        return new CountsComputer(
+                neoStores,
+                lastCommittedTransactionId,
+                nodeStore,
+                relationshipStore,
+                highLabelId,
+                highRelationshipTypeId,
+                NumberArrayFactories.AUTO_WITHOUT_PAGECACHE,
+                progressMonitorFactory,
+                CONTEXT_FACTORY,
+                INSTANCE,
+                fileSystem,
+                checkpointFile(),
+                checkpointInterval);
+    }
+
+    private Path checkpointFile() {
+        return CountsRebuildCheckpoint.checkpointFileFor(countsStoreFile());
     }
 
     private CountsBuilder matchingBuilder(long lastCommittedTransactionId) {
@@ -28,6 +28,7 @@ import org.neo4j.kernel.impl.store.format.RecordFormat;
 import org.neo4j.kernel.impl.store.format.RecordFormatFamilyCapability;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
 import org.neo4j.kernel.impl.store.format.aligned.PageAlignedV5_0;
+import org.neo4j.kernel.impl.store.format.aligned.PageAlignedV5_17;
 import org.neo4j.kernel.impl.store.format.standard.DynamicRecordFormat;
 import org.neo4j.kernel.impl.store.format.standard.LabelTokenRecordFormat;
 import org.neo4j.kernel.impl.store.format.standard.NodeRecordFormat;
@@ -135,8 +136,8 @@ public abstract class PageAlignedTestFormat extends BaseRecordFormats {
         private WithMinorVersionBump() {
             super(
                     NAME,
-                    PageAlignedV5_0.RECORD_FORMATS.majorVersion(),
-                    PageAlignedV5_0.RECORD_FORMATS.minorVersion() + 1);
+                    PageAlignedV5_17.RECORD_FORMATS.majorVersion(),
+                    PageAlignedV5_17.RECORD_FORMATS.minorVersion() + 1);
         }
 
         @ServiceProvider
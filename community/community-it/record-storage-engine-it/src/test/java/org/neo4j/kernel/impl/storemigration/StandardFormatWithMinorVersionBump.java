@@ -21,8 +21,8 @@ package org.neo4j.kernel.impl.storemigration;
 
 import org.neo4j.annotations.service.ServiceProvider;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
-import org.neo4j.kernel.impl.store.format.standard.Standard;
 import org.neo4j.kernel.impl.store.format.standard.StandardV5_0;
+import org.neo4j.kernel.impl.store.format.standard.StandardV5_17;
 
 public class StandardFormatWithMinorVersionBump extends StandardV5_0 {
     public static final RecordFormats RECORD_FORMATS = new StandardFormatWithMinorVersionBump();
@@ -32,7 +32,7 @@ public class StandardFormatWithMinorVersionBump extends StandardV5_0 {
 
     @Override
     public int minorVersion() {
-        return Standard.LATEST_RECORD_FORMATS.minorVersion() + 1;
+        return StandardV5_17.RECORD_FORMATS.minorVersion() + 1;
     }
 
     @Override
@@ -51,6 +51,11 @@ import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.function.Suppliers;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.internal.recordstorage.RecordStorageEngineFactory;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
@@ -480,6 +485,56 @@ class StoreMigratorTest {
         assertFalse(migrationDirPresent());
     }
 
+    @Test
+    void shouldReorganizeStoreKeepingAllData() throws Exception {
+        // given relationships created round-robin over the nodes, so that the chain of each node is spread out
+        int nodeCount = 10;
+        int relationshipCount = 1_000;
+        var dbms = new TestDatabaseManagementServiceBuilder(neo4jLayout.homeDirectory())
+                .setConfig(GraphDatabaseInternalSettings.include_versions_under_development, false)
+                .build();
+        try (var tx = dbms.database(DEFAULT_DATABASE_NAME).beginTx()) {
+            Node[] nodes = new Node[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                nodes[i] = tx.createNode(Label.label("L"));
+                nodes[i].setProperty("id", i);
+            }
+            for (int i = 0; i < relationshipCount; i++) {
+                nodes[i % nodeCount]
+                        .createRelationshipTo(nodes[(i + 1) % nodeCount], RelationshipType.withName("R"))
+                        .setProperty("id", i);
+            }
+            tx.commit();
+        } finally {
+            dbms.shutdown();
+        }
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+        LogService logService = mock(LogService.class);
+        when(logService.getInternalLogProvider()).thenReturn(logProvider);
+        when(logService.getInternalLog(any())).thenReturn(logProvider.getLog("something"));
+
+        // when
+        createMigrator(logService).reorganize();
+
+        // then
+        assertThat(logProvider).containsMessages("Average number of pages touched per node went from");
+        assertFalse(migrationDirPresent());
+        verifyDbStartAndFormat(Standard.LATEST_RECORD_FORMATS);
+        dbms = new TestDatabaseManagementServiceBuilder(neo4jLayout.homeDirectory())
+                .setConfig(GraphDatabaseInternalSettings.include_versions_under_development, false)
+                .build();
+        try (var tx = dbms.database(DEFAULT_DATABASE_NAME).beginTx()) {
+            assertEquals(nodeCount, Iterables.count(tx.getAllNodes()));
+            assertEquals(relationshipCount, Iterables.count(tx.getAllRelationships()));
+            for (Node node : tx.getAllNodes()) {
+                assertEquals(relationshipCount / nodeCount, node.getDegree(Direction.OUTGOING));
+                assertEquals(relationshipCount / nodeCount, node.getDegree(Direction.INCOMING));
+            }
+        } finally {
+            dbms.shutdown();
+        }
+    }
+
     private boolean migrationDirPresent() {
         var path = databaseLayout.file(StoreMigrator.MIGRATION_DIRECTORY);
         return Files.exists(path);
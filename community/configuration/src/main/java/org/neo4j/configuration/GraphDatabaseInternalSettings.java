@@ -678,6 +678,122 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .addConstraint(min(0))
             .build();
 
+    @Internal
+    @Description("Maximum number of relationship store pages to fault in ahead of a relationship traversal cursor "
+            + "when it starts walking a relationship chain of a dense node. The pages are selected from the "
+            + "degree of the chain and the direction it is observed to run in. A value of 0 disables prefetching.")
+    public static final Setting<Integer> dense_chain_prefetch_pages = newBuilder(
+                    "internal.dbms.record_storage.dense_chain_prefetch_pages", INT, 0)
+            .addConstraint(min(0))
+            .build();
+
+    @Internal
+    @Description("Maximum amount of heap the label bitmap cache may use. The cache keeps a compressed bitmap per label "
+            + "of which nodes have that label, so that label checks don't need to decode node label fields or read "
+            + "dynamic label records. When the limit is reached the bitmaps of the labels using the most memory are "
+            + "evicted. The cache is populated in the background by scanning all nodes when the database starts, "
+            + "and label checks are answered by the store until that has completed. "
+            + "A value of 0 disables the cache.")
+    public static final Setting<Long> label_bitmap_cache_max_memory = newBuilder(
+                    "internal.dbms.record_storage.label_bitmap_cache.max_memory", BYTES, 0L)
+            .addConstraint(min(0L))
+            .build();
+
+    @Internal
+    @Description("Store string and array property values that don't fit in a property record compressed, "
+            + "whenever that saves at least one dynamic record. Values are decompressed when they are read. "
+            + "Only has an effect on stores whose format version supports compressed values, "
+            + "which versions without support for them refuse to open.")
+    public static final Setting<Boolean> compress_dynamic_property_values = newBuilder(
+                    "internal.dbms.record_storage.compress_dynamic_property_values", BOOL, false)
+            .build();
+
+    @Internal
+    @Description("Number of relationship records counted between each checkpoint when the counts store is rebuilt "
+            + "from the store. Counts of completed ranges are kept in a file next to the counts store so that a "
+            + "rebuild which gets interrupted can continue where it left off. A value of 0 disables checkpointing.")
+    public static final Setting<Long> counts_rebuild_checkpoint_interval = newBuilder(
+                    "internal.dbms.record_storage.counts_rebuild_checkpoint_interval", LONG, 100_000_000L)
+            .addConstraint(min(0L))
+            .build();
+
+    @Internal
+    @Description("Number of relationship records gone through between each checkpoint when the relationship group "
+            + "degrees store is rebuilt from the store. Degrees calculated so far are kept in a file next to the "
+            + "degrees store so that a rebuild which gets interrupted can continue where it left off. "
+            + "A value of 0 disables checkpointing.")
+    public static final Setting<Long> degrees_rebuild_checkpoint_interval = newBuilder(
+                    "internal.dbms.record_storage.degrees_rebuild_checkpoint_interval", LONG, 100_000_000L)
+            .addConstraint(min(0L))
+            .build();
+
+    @Internal
+    @Description("Migrate between record formats that only differ in how records are laid out in the store files, "
+            + "e.g. from `standard` to `aligned`, by copying the records of all stores in parallel instead of "
+            + "going through the batch importer.")
+    public static final Setting<Boolean> parallel_store_migration = newBuilder(
+                    "internal.dbms.record_storage.parallel_migration", BOOL, true)
+            .build();
+
+    @Internal
+    @Description("Number of threads copying records in a parallel store migration. "
+            + "A value of 0 uses as many threads as there are available processors.")
+    public static final Setting<Integer> parallel_store_migration_threads = newBuilder(
+                    "internal.dbms.record_storage.parallel_migration_threads", INT, 0)
+            .addConstraint(min(0))
+            .build();
+
+    @Internal
+    @Description("Number of record ids in each partition copied by a parallel store migration. Completed partitions "
+            + "are kept track of in a checkpoint file, so that a migration which fails can continue where it left off "
+            + "when started again.")
+    public static final Setting<Long> parallel_store_migration_partition_size = newBuilder(
+                    "internal.dbms.record_storage.parallel_migration_partition_size", LONG, 1_000_000L)
+            .addConstraint(min(1L))
+            .build();
+
+    @Internal
+    @Description("Degree at which existing sparse nodes are converted into dense nodes in the background. Nodes only "
+            + "become dense when relationships are added to them, so lowering `"
+            + "db.relationship_grouping_threshold` does not affect nodes that already exist. "
+            + "Conversion happens online in small transactions, without rewriting the store. "
+            + "A value of 0 disables the conversion.")
+    public static final Setting<Integer> dense_node_conversion_threshold = newBuilder(
+                    "internal.dbms.record_storage.dense_node_conversion.threshold", INT, 0)
+            .addConstraint(min(0))
+            .build();
+
+    @Internal
+    @Description("Number of consecutive node ids that each transaction of the background conversion into dense nodes "
+            + "goes through, converting the sparse nodes among them that have reached the threshold.")
+    public static final Setting<Integer> dense_node_conversion_batch_size = newBuilder(
+                    "internal.dbms.record_storage.dense_node_conversion.batch_size", INT, 1_000)
+            .addConstraint(min(1))
+            .build();
+
+    @Internal
+    @Description("File to write a JSON profile of a batch import to. The profile contains a timeline of each step of "
+            + "each import stage with processor counts, queued batches, busy and idle time and I/O throughput, "
+            + "which can be used to tune the number of threads and amount of off-heap memory given to the import. "
+            + "No profile is written if not set.")
+    public static final Setting<Path> batch_import_profile_file =
+            newBuilder("internal.dbms.import.profile_file", PATH, null).build();
+
+    @Internal
+    @Description("Max number of relationships per second that the background conversion into dense nodes may rewrite, "
+            + "to limit the IO it competes with regular transactions for. A value of 0 means no limit.")
+    public static final Setting<Long> dense_node_conversion_max_relationships_per_second = newBuilder(
+                    "internal.dbms.record_storage.dense_node_conversion.max_relationships_per_second", LONG, 100_000L)
+            .addConstraint(min(0L))
+            .build();
+
+    @Internal
+    @Description("Interval between background passes over the nodes looking for sparse nodes to convert into "
+            + "dense nodes.")
+    public static final Setting<Duration> dense_node_conversion_interval = newBuilder(
+                    "internal.dbms.record_storage.dense_node_conversion.interval", DURATION, ofMinutes(60))
+            .build();
+
     @Internal
     @Description("An identifier that uniquely identifies this graph database instance within this JVM. "
             + "Defaults to an auto-generated number depending on how many instance are started in this JVM.")
@@ -1200,6 +1316,32 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .addConstraint(min(1L))
             .build();
 
+    @Internal
+    @Description(
+            "Fraction of page faults into files with per-page checksums, like the stores of the aligned_checksummed "
+                    + "record format, that verify the checksum of the faulted page. 1 verifies every fault, "
+                    + "0 disables verification. Checksums are always maintained when pages are flushed.")
+    public static final Setting<Double> page_cache_checksum_verification_ratio = newBuilder(
+                    "internal.dbms.page_cache_checksum_verification_ratio", DOUBLE, 1.0)
+            .addConstraint(range(0.0, 1.0))
+            .build();
+
+    public enum PageChecksumMismatchAction {
+        LOG,
+        FAIL
+    }
+
+    @Internal
+    @Description(
+            "What to do when a verified page checksum does not match the page content. LOG logs a warning with the file "
+                    + "and page id and lets the read continue, since a page torn by a crash is rewritten by recovery. "
+                    + "FAIL fails the read with a corruption exception.")
+    public static final Setting<PageChecksumMismatchAction> page_cache_checksum_mismatch_action = newBuilder(
+                    "internal.dbms.page_cache_checksum_mismatch_action",
+                    ofEnum(PageChecksumMismatchAction.class),
+                    PageChecksumMismatchAction.LOG)
+            .build();
+
     @Internal
     @Description(
             "Whether to allow a system graph upgrade to happen automatically (and the procedures becomes no-ops), or should "
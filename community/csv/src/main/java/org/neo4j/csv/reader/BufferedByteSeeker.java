@@ -0,0 +1,494 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.neo4j.csv.reader.Mark.END_OF_LINE_CHARACTER;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import org.neo4j.values.storable.CSVHeaderInformation;
+
+/**
+ * A {@link CharSeeker} reading UTF-8 encoded data as raw bytes, as opposed to {@link BufferedCharSeeker} which
+ * requires the data to be decoded into characters up front. Seeking for delimiters, quotes and new-lines is done
+ * eight bytes at a time (SWAR, SIMD within a register), which is possible since all those characters are ASCII
+ * and no byte of a multi-byte UTF-8 sequence can ever be mistaken for an ASCII character.
+ *
+ * Values are only decoded into characters when {@link #extract(Mark, Extractor) extracted}, and
+ * {@link Utf8Extractor extractors} capable of it, f.ex. for numbers, extracts their values straight from the bytes.
+ *
+ * {@link Configuration#trimStrings() Trimming of strings} and non-ASCII delimiter or quote characters aren't
+ * supported, see {@link #supports(Configuration, int)}. {@link CharSeekers#byteSeeker(InputStream, String, Configuration)}
+ * falls back to {@link BufferedCharSeeker} for such configurations.
+ */
+public class BufferedByteSeeker implements CharSeeker {
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final byte EOL_CHAR = '\n';
+    private static final byte EOL_CHAR_2 = '\r';
+    private static final byte BACK_SLASH = '\\';
+    private static final long EOL_PATTERN = pattern(EOL_CHAR);
+    private static final long EOL_PATTERN_2 = pattern(EOL_CHAR_2);
+    private static final long BACK_SLASH_PATTERN = pattern(BACK_SLASH);
+    private static final byte[] UTF_8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final InputStream in;
+    private final String sourceDescription;
+    private final byte[] buffer;
+    private final byte quoteChar;
+    private final long quotePattern;
+    private final boolean multilineFields;
+    private final boolean legacyStyleQuoting;
+    private final CharsetDecoder decoder = UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private char[] chars = new char[64];
+
+    // index into the buffer to scan from the next time
+    private int bufferPos;
+    // last index (effectively length) of bytes in use in the buffer
+    private int bufferEnd;
+    // bufferPos denoting the start of this current line that we're reading
+    private int lineStartPos;
+    // bufferPos when we started reading the current field
+    private int seekStartPos;
+    // where the next byte of a quoted value goes, trailing bufferPos when escaped quotes have been skipped
+    private int writePos;
+    // 1-based value of which logical line we're reading a.t.m.
+    private int lineNumber;
+    // flag to know if we've read to the end
+    private boolean eof;
+    private boolean first = true;
+    // this absolute position + bufferPos is the current position in the source we're reading
+    private long absoluteBufferStartPosition;
+    private int delimiter = -1;
+    private long delimiterPattern;
+
+    public BufferedByteSeeker(InputStream in, String sourceDescription, Configuration config) {
+        if (!supports(config, config.delimiter())) {
+            throw new IllegalArgumentException("Configuration not supported for reading bytes " + config);
+        }
+        this.in = in;
+        this.sourceDescription = sourceDescription;
+        this.buffer = new byte[config.bufferSize()];
+        this.quoteChar = (byte) config.quotationCharacter();
+        this.quotePattern = pattern(quoteChar);
+        this.multilineFields = config.multilineFields();
+        this.legacyStyleQuoting = config.legacyStyleQuoting();
+    }
+
+    /**
+     * Instantiates a seeker reading only the given bytes, f.ex. one chunk handed out by a
+     * {@link ClosestNewLineByteChunker}, without copying them. Quoted values are unescaped in place, so the
+     * bytes are modified while being read.
+     *
+     * @param data array holding the bytes to read.
+     * @param offset index of the first byte to read.
+     * @param length number of bytes to read.
+     * @param sourceDescription description of the source the bytes were read from.
+     * @param config {@link Configuration} for the seeker.
+     */
+    public BufferedByteSeeker(byte[] data, int offset, int length, String sourceDescription, Configuration config) {
+        if (!supports(config, config.delimiter())) {
+            throw new IllegalArgumentException("Configuration not supported for reading bytes " + config);
+        }
+        this.in = null;
+        this.sourceDescription = sourceDescription;
+        this.buffer = data;
+        this.quoteChar = (byte) config.quotationCharacter();
+        this.quotePattern = pattern(quoteChar);
+        this.multilineFields = config.multilineFields();
+        this.legacyStyleQuoting = config.legacyStyleQuoting();
+        this.bufferPos = offset;
+        this.bufferEnd = offset + length;
+        this.lineStartPos = offset;
+        this.absoluteBufferStartPosition = -offset;
+        this.first = false;
+    }
+
+    /**
+     * @param config {@link Configuration} to check.
+     * @param delimiter the character that will be passed into {@link #seek(Mark, int)}.
+     * @return whether a {@link BufferedByteSeeker} can read data given the configuration and delimiter.
+     */
+    public static boolean supports(Configuration config, int delimiter) {
+        return !config.trimStrings() && isAscii(config.quotationCharacter()) && isAscii(delimiter);
+    }
+
+    @Override
+    public boolean seek(Mark mark, int untilChar) throws IOException {
+        if (eof) { // We're at the end
+            return eof(mark);
+        }
+        if (untilChar != delimiter) {
+            if (!isAscii(untilChar)) {
+                throw new IllegalArgumentException("Can only seek for ASCII characters, got " + untilChar);
+            }
+            delimiter = untilChar;
+            delimiterPattern = pattern((byte) untilChar);
+        }
+
+        seekStartPos = bufferPos;
+        int valueEnd;
+        while (true) {
+            int pos = scan(delimiterPattern, quotePattern, EOL_PATTERN, EOL_PATTERN_2);
+            if (pos == -1) { // Nothing interesting in what's left of the buffer, read more
+                bufferPos = bufferEnd;
+                if (!fillBuffer()) {
+                    eof = true;
+                    valueEnd = bufferEnd;
+                    break;
+                }
+                continue;
+            }
+
+            byte ch = buffer[pos];
+            bufferPos = pos + 1;
+            if (ch == untilChar) { // We found a delimiter, set marker and return true
+                mark.set(seekStartPos, pos, untilChar, false);
+                return true;
+            } else if (ch == quoteChar) {
+                if (pos == seekStartPos) { // We found a quote, which was the first of the value
+                    return seekQuoted(mark, untilChar);
+                }
+                // else a quote in the middle of an unquoted value is just a character of it
+            } else if (pos == lineStartPos) { // New line at the start of this read so just skip it
+                seekStartPos++;
+                lineStartPos++;
+            } else { // Encountered newline, done for now
+                valueEnd = pos;
+                break;
+            }
+        }
+
+        if (eof && valueEnd == seekStartPos && seekStartPos == lineStartPos) {
+            // We didn't find any of the characters sought for
+            return eof(mark);
+        }
+
+        // We found the last value of the line or stream
+        lineNumber++;
+        lineStartPos = bufferPos;
+        mark.set(seekStartPos, valueEnd, END_OF_LINE_CHARACTER, false);
+        return true;
+    }
+
+    /**
+     * Continues seeking after the opening quote of a value. Escaped quotes are unescaped in place by moving
+     * the bytes between them backwards, which is why {@link #writePos} may trail {@link #bufferPos}.
+     */
+    private boolean seekQuoted(Mark mark, int untilChar) throws IOException {
+        int quoteStartLine = lineNumber;
+        seekStartPos = bufferPos;
+        writePos = bufferPos;
+        while (true) {
+            int pos = legacyStyleQuoting
+                    ? scan(quotePattern, BACK_SLASH_PATTERN, EOL_PATTERN, EOL_PATTERN_2)
+                    : scan(quotePattern, quotePattern, EOL_PATTERN, EOL_PATTERN_2);
+            if (pos == -1) {
+                moveTo(bufferEnd);
+                if (!fillBuffer()) {
+                    // We have an open quote but have reached the end of the file, this is a formatting error
+                    eof = true;
+                    throw new MissingEndQuoteException(this, quoteStartLine, (char) quoteChar);
+                }
+                continue;
+            }
+
+            moveTo(pos);
+            byte ch = buffer[pos];
+            bufferPos = pos + 1;
+            if (ch == quoteChar) { // Found a quote within a quote, peek at next char
+                if (available() && buffer[bufferPos] == quoteChar) { // Found a double quote, keep one of them
+                    buffer[writePos++] = quoteChar;
+                    bufferPos++;
+                } else { // Found an ending quote
+                    break;
+                }
+            } else if (ch == BACK_SLASH) { // Legacy concern, support java style quote encoding
+                if (available() && (buffer[bufferPos] == quoteChar || buffer[bufferPos] == BACK_SLASH)) {
+                    buffer[writePos++] = buffer[bufferPos++];
+                } else {
+                    buffer[writePos++] = ch;
+                }
+            } else { // Found a new line inside a quotation...
+                if (!multilineFields) { // ...but we are configured to disallow it
+                    throw new IllegalMultilineFieldException(this);
+                }
+                // ... it's OK, just keep going
+                if (ch == EOL_CHAR) {
+                    lineNumber++;
+                }
+                buffer[writePos++] = ch;
+            }
+        }
+
+        // After the ending quote there must be a delimiter, a new line or the end of the data
+        if (!available()) {
+            eof = true;
+        } else {
+            byte ch = buffer[bufferPos];
+            if (ch == untilChar) {
+                bufferPos++;
+                mark.set(seekStartPos, writePos, untilChar, true);
+                return true;
+            }
+            if (!isNewLine(ch)) {
+                throw new DataAfterQuoteException(
+                        this, new String(buffer, seekStartPos, bufferPos + 1 - seekStartPos, UTF_8));
+            }
+            bufferPos++;
+        }
+        lineNumber++;
+        lineStartPos = bufferPos;
+        mark.set(seekStartPos, writePos, END_OF_LINE_CHARACTER, true);
+        return true;
+    }
+
+    /**
+     * Finds the first byte, starting from {@link #bufferPos}, matching any of the given patterns, eight bytes at
+     * a time for as long as there are at least eight bytes left in the buffer.
+     *
+     * @return index of the first matching byte, or {@code -1} if there's no such byte in the buffer.
+     */
+    private int scan(long p1, long p2, long p3, long p4) {
+        int pos = bufferPos;
+        for (; pos + Long.BYTES <= bufferEnd; pos += Long.BYTES) {
+            long word = (long) LONG_VIEW.get(buffer, pos);
+            long matches = zeroBytes(word ^ p1) | zeroBytes(word ^ p2) | zeroBytes(word ^ p3) | zeroBytes(word ^ p4);
+            if (matches != 0) {
+                return pos + (Long.numberOfTrailingZeros(matches) >>> 3);
+            }
+        }
+        for (; pos < bufferEnd; pos++) {
+            long b = (buffer[pos] & 0xFF) * ONES;
+            if (b == p1 || b == p2 || b == p3 || b == p4) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return a word with the high bit set in the lowest byte which is zero in the given word. Bytes above
+     * that byte may have false positives, but since only the lowest one is used that's fine.
+     */
+    private static long zeroBytes(long word) {
+        return (word - ONES) & ~word & HIGH_BITS;
+    }
+
+    private static long pattern(byte b) {
+        return (b & 0xFF) * ONES;
+    }
+
+    /**
+     * Moves the bytes of a quoted value between {@link #bufferPos} and the given position to {@link #writePos},
+     * if any escaped quotes have been skipped, otherwise just advances {@link #writePos}.
+     */
+    private void moveTo(int pos) {
+        int length = pos - bufferPos;
+        if (writePos != bufferPos) {
+            System.arraycopy(buffer, bufferPos, buffer, writePos, length);
+        }
+        writePos += length;
+        bufferPos = pos;
+    }
+
+    private boolean available() throws IOException {
+        return bufferPos < bufferEnd || fillBuffer();
+    }
+
+    /**
+     * Keeps the bytes of the current value and reads more data after them.
+     *
+     * @return {@code true} if something was read, otherwise {@code false} which means that we reached EOF.
+     */
+    private boolean fillBuffer() throws IOException {
+        if (in == null) { // Reading a single chunk of bytes, there's no more
+            return false;
+        }
+        int keepFrom = seekStartPos;
+        if (keepFrom == 0 && bufferEnd == buffer.length) {
+            throw new BufferOverflowException("Tried to read a field larger than buffer size " + buffer.length
+                    + ". A common cause of this is that a field has an unterminated "
+                    + "quote and so will try to seek until the next quote, which ever line it may be on."
+                    + " This should not happen if multi-line fields are disabled, given that the fields contains "
+                    + "no new-line characters. This field started at "
+                    + sourceDescription() + ":" + lineNumber());
+        }
+
+        if (keepFrom > 0) {
+            System.arraycopy(buffer, keepFrom, buffer, 0, bufferEnd - keepFrom);
+            absoluteBufferStartPosition += keepFrom;
+            bufferPos -= keepFrom;
+            bufferEnd -= keepFrom;
+            seekStartPos -= keepFrom;
+            lineStartPos -= keepFrom;
+            writePos -= keepFrom;
+        }
+
+        int read;
+        do {
+            read = in.read(buffer, bufferEnd, buffer.length - bufferEnd);
+        } while (read == 0);
+        if (read == -1) {
+            return false;
+        }
+        bufferEnd += read;
+        if (first) {
+            first = false;
+            skipByteOrderMark();
+        }
+        return true;
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        while (bufferEnd < UTF_8_BOM.length) {
+            int read = in.read(buffer, bufferEnd, buffer.length - bufferEnd);
+            if (read == -1) {
+                break;
+            }
+            bufferEnd += read;
+        }
+        if (bufferEnd >= UTF_8_BOM.length
+                && buffer[0] == UTF_8_BOM[0]
+                && buffer[1] == UTF_8_BOM[1]
+                && buffer[2] == UTF_8_BOM[2]) {
+            bufferPos = seekStartPos = lineStartPos = UTF_8_BOM.length;
+        }
+    }
+
+    @Override
+    public <T> T extract(Mark mark, Extractor<T> extractor) {
+        return extract(mark, extractor, null);
+    }
+
+    @Override
+    public <T> T extract(Mark mark, Extractor<T> extractor, CSVHeaderInformation optionalData) {
+        T value = tryExtract(mark, extractor, optionalData);
+        if (extractor.isEmpty(value)) {
+            throw new IllegalStateException(extractor + " didn't extract value for " + mark
+                    + ". For values which are optional please use tryExtract method instead");
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T tryExtract(Mark mark, Extractor<T> extractor) {
+        return tryExtract(mark, extractor, null);
+    }
+
+    @Override
+    public <T> T tryExtract(Mark mark, Extractor<T> extractor, CSVHeaderInformation optionalData) {
+        int from = mark.startPosition();
+        int to = mark.position();
+        if (extractor instanceof Utf8Extractor<T> utf8Extractor) {
+            try {
+                return utf8Extractor.extract(buffer, from, to - from, mark.isQuoted());
+            } catch (NumberFormatException e) {
+                // The value may still be fine, f.ex. surrounded by non-ASCII whitespace,
+                // so let the decoded characters decide
+            }
+        }
+        int length = decode(from, to);
+        return extractor.extract(chars, 0, length, mark.isQuoted(), optionalData);
+    }
+
+    /**
+     * Decodes the bytes between the given positions into {@link #chars}, with a fast path for ASCII.
+     *
+     * @return number of decoded characters.
+     */
+    private int decode(int from, int to) {
+        int length = to - from;
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        int i = 0;
+        for (; i < length; i++) {
+            byte b = buffer[from + i];
+            if (b < 0) {
+                break;
+            }
+            chars[i] = (char) b;
+        }
+        if (i == length) {
+            return length;
+        }
+
+        CharBuffer out = CharBuffer.wrap(chars, i, chars.length - i);
+        decoder.reset();
+        decoder.decode(ByteBuffer.wrap(buffer, from + i, length - i), out, true);
+        decoder.flush(out);
+        return out.position();
+    }
+
+    private static boolean isAscii(int ch) {
+        return ch >= 0 && ch < 0x80;
+    }
+
+    private static boolean isNewLine(byte ch) {
+        return ch == EOL_CHAR || ch == EOL_CHAR_2;
+    }
+
+    private static boolean eof(Mark mark) {
+        mark.set(-1, -1, END_OF_LINE_CHARACTER, false);
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    @Override
+    public long position() {
+        return absoluteBufferStartPosition + bufferPos;
+    }
+
+    @Override
+    public String sourceDescription() {
+        return sourceDescription;
+    }
+
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public String toString() {
+        return format(
+                "%s[source:%s, position:%d, line:%d]",
+                getClass().getSimpleName(), sourceDescription(), position(), lineNumber());
+    }
+}
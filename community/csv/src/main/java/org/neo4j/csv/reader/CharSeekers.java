@@ -19,9 +19,12 @@
  */
 package org.neo4j.csv.reader;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.neo4j.csv.reader.ThreadAheadReadable.threadAhead;
 
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.function.BiFunction;
 
 /**
@@ -62,6 +65,25 @@ public final class CharSeekers {
         return new BufferedCharSeeker(sourceFactory.apply(reader, config), config);
     }
 
+    /**
+     * Instantiates a {@link BufferedByteSeeker} reading UTF-8 encoded data straight from the given stream, or
+     * a {@link BufferedCharSeeker} decoding it as UTF-8 if the configuration isn't
+     * {@link BufferedByteSeeker#supports(Configuration, int) supported} for reading bytes.
+     *
+     * @param in the {@link InputStream} which is the source of UTF-8 encoded data.
+     * @param sourceDescription description of the source, f.ex. a file name.
+     * @param config {@link Configuration} for the resulting {@link CharSeeker}.
+     * @return a {@link CharSeeker} reading the stream.
+     * @throws IOException on I/O error.
+     */
+    public static CharSeeker byteSeeker(InputStream in, String sourceDescription, Configuration config)
+            throws IOException {
+        if (BufferedByteSeeker.supports(config, config.delimiter())) {
+            return new BufferedByteSeeker(in, sourceDescription, config);
+        }
+        return charSeeker(Readables.wrap(in, sourceDescription, UTF_8), config, false);
+    }
+
     /**
      * Instantiates a {@link BufferedCharSeeker} with optional {@link ThreadAheadReadable read-ahead} capability.
      *
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.neo4j.csv.reader.Source.Chunk;
+
+/**
+ * Counterpart of {@link ClosestNewLineChunker} for uncompressed UTF-8 encoded files, handing out chunks of raw bytes,
+ * each ending at a new-line, to be read by a {@link BufferedByteSeeker} each. This avoids decoding the data into
+ * characters before it's parsed, which is left to the {@link BufferedByteSeeker} and only for the values that need it.
+ *
+ * Chunks never span multiple files. A UTF-8 byte order mark at the start of a file is skipped, and so is the first
+ * line of the first file if it has already been read as header, as well as any line at the start of a file which
+ * the {@link HeaderSkipper} decides is a header.
+ */
+public class ClosestNewLineByteChunker implements Chunker, SourceTraceability {
+    private static final byte[] UTF_8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final Path[] files;
+    private final int chunkSize;
+    private final boolean skipFirstLine;
+    private final HeaderSkipper headerSkip;
+    private byte[] backBuffer;
+    private int backBufferCursor;
+    private int fileIndex = -1;
+    private InputStream current;
+    private String currentSourceDescription;
+    private boolean atStartOfFile;
+    private volatile long position;
+
+    /**
+     * @param files uncompressed UTF-8 encoded files to read, in order.
+     * @param chunkSize size of each chunk, as well as the max size of a line.
+     * @param skipFirstLine whether to skip the first line of the first file, f.ex. when it has already been read as
+     * header.
+     * @param headerSkip decides whether the first line of a file is a header, and should be skipped.
+     */
+    public ClosestNewLineByteChunker(Path[] files, int chunkSize, boolean skipFirstLine, HeaderSkipper headerSkip) {
+        this.files = files;
+        this.chunkSize = chunkSize;
+        this.skipFirstLine = skipFirstLine;
+        this.headerSkip = headerSkip;
+        this.backBuffer = new byte[chunkSize >> 4];
+        this.currentSourceDescription =
+                files.length > 0 ? files[0].toAbsolutePath().toString() : SourceTraceability.EMPTY.sourceDescription();
+    }
+
+    @Override
+    public ByteChunk newChunk() {
+        return new ByteChunk(new byte[chunkSize]);
+    }
+
+    /**
+     * Fills the given chunk with bytes from the current file, up to the last new-line in the vicinity of the chunk
+     * size.
+     *
+     * @param chunk {@link Chunk} to read data into, allocated by {@link #newChunk()}.
+     * @return whether there was more data, ending with a new-line or not for the last chunk of a file.
+     * @throws IOException on reading error.
+     */
+    @Override
+    public synchronized boolean nextChunk(Chunk chunk) throws IOException {
+        ByteChunk into = (ByteChunk) chunk;
+        while (current != null || openNextFile()) {
+            int length = fillFromBackBuffer(into.buffer);
+            int read = current.readNBytes(into.buffer, length, chunkSize - length);
+            length += read;
+            if (length == chunkSize) {
+                // We filled the whole chunk and there's most likely more data in this file, so cut the chunk
+                // at the last new-line character and keep the rest for the next chunk
+                int newlineOffset = offsetOfLastNewline(into.buffer);
+                if (newlineOffset == -1) {
+                    throw new IllegalStateException("Weird input data, no newline character in the whole buffer "
+                            + chunkSize + ", not supported a.t.m.");
+                }
+                length -= storeInBackBuffer(into.buffer, newlineOffset + 1, chunkSize - (newlineOffset + 1));
+            } else {
+                // We couldn't fill the chunk, i.e. we reached the end of this file
+                current.close();
+                current = null;
+            }
+
+            if (length > 0) {
+                int skipped = atStartOfFile ? skipAtStartOfFile(into.buffer, length) : 0;
+                atStartOfFile = false;
+                position += length;
+                into.initialize(skipped, length - skipped, currentSourceDescription);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean openNextFile() throws IOException {
+        if (fileIndex + 1 >= files.length) {
+            return false;
+        }
+        Path file = files[++fileIndex];
+        current = Files.newInputStream(file);
+        currentSourceDescription = file.toAbsolutePath().toString();
+        atStartOfFile = true;
+        return true;
+    }
+
+    private int skipAtStartOfFile(byte[] data, int length) {
+        int skipped = 0;
+        if (length >= UTF_8_BOM.length && Arrays.equals(data, 0, UTF_8_BOM.length, UTF_8_BOM, 0, UTF_8_BOM.length)) {
+            skipped = UTF_8_BOM.length;
+        }
+        if (fileIndex == 0 && skipFirstLine) {
+            skipped = endOfLine(data, skipped, length);
+        }
+
+        // Let the header skipper decide about the first line, decoded, including any new-lines before it
+        int lineStart = skipped;
+        while (lineStart < length && isNewLine(data[lineStart])) {
+            lineStart++;
+        }
+        int lineEnd = endOfLine(data, lineStart, length);
+        if (lineEnd > lineStart) {
+            // Always end it with a new-line, since that's where the header skipper stops looking
+            char[] firstLine = (new String(data, skipped, lineEnd - skipped, UTF_8) + '\n').toCharArray();
+            if (headerSkip.skipHeader(firstLine, 0, firstLine.length) > 0) {
+                skipped = lineEnd;
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * @return index after the first new-line character at or after {@code from}, or {@code length} if there's none.
+     */
+    private static int endOfLine(byte[] data, int from, int length) {
+        for (int i = from; i < length; i++) {
+            if (isNewLine(data[i])) {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+
+    private int fillFromBackBuffer(byte[] into) {
+        int result = backBufferCursor;
+        if (result > 0) {
+            System.arraycopy(backBuffer, 0, into, 0, result);
+            backBufferCursor = 0;
+        }
+        return result;
+    }
+
+    private int storeInBackBuffer(byte[] data, int offset, int length) {
+        if (backBufferCursor + length > backBuffer.length) {
+            backBuffer = Arrays.copyOf(backBuffer, backBufferCursor + length);
+        }
+        System.arraycopy(data, offset, backBuffer, backBufferCursor, length);
+        backBufferCursor += length;
+        return length;
+    }
+
+    private static int offsetOfLastNewline(byte[] buffer) {
+        for (int i = buffer.length - 1; i >= 0; i--) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isNewLine(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    @Override
+    public String sourceDescription() {
+        return currentSourceDescription;
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    /**
+     * A chunk of raw bytes, read using {@link #seeker(Configuration)} rather than through {@link #data()}.
+     */
+    public static class ByteChunk implements Chunk {
+        private final byte[] buffer;
+        private int startOffset;
+        private int length;
+        private String sourceDescription;
+
+        ByteChunk(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        void initialize(int startOffset, int length, String sourceDescription) {
+            this.startOffset = startOffset;
+            this.length = length;
+            this.sourceDescription = sourceDescription;
+        }
+
+        /**
+         * @param config {@link Configuration} which must be {@link BufferedByteSeeker#supports(Configuration, int)
+         * supported} for reading bytes.
+         * @return a {@link BufferedByteSeeker} reading the bytes of this chunk.
+         */
+        public CharSeeker seeker(Configuration config) {
+            return new BufferedByteSeeker(buffer, startOffset, length, sourceDescription, config);
+        }
+
+        @Override
+        public char[] data() {
+            throw new UnsupportedOperationException("Chunk of raw bytes, read it through a seeker instead");
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public int maxFieldSize() {
+            return buffer.length;
+        }
+
+        @Override
+        public String sourceDescription() {
+            return sourceDescription;
+        }
+
+        @Override
+        public int startPosition() {
+            return startOffset;
+        }
+
+        @Override
+        public int backPosition() {
+            return startOffset;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compressed file formats which consist of a sequence of independently compressed blocks, where the length of
+ * each block can be found from its header, i.e. without decompressing it. Such files can be decompressed
+ * by {@link ParallelDecompressionInputStream} using multiple threads.
+ */
+enum CompressedBlockFormat {
+    /**
+     * Blocked GZIP, e.g. written by {@code bgzip}, which is a series of GZIP members each having its compressed
+     * size in a "BC" extra field. Any GZIP reader can read it as a regular multi-member GZIP file.
+     */
+    BGZF {
+        private static final int HEADER_LENGTH = 12;
+        private static final int FLAG_EXTRA = 0x04;
+
+        @Override
+        long blockLength(FileChannel channel, long position) throws IOException {
+            ByteBuffer header = read(channel, position, HEADER_LENGTH);
+            if (header.getShort(0) != (short) 0x8b1f || header.get(2) != 8 || (header.get(3) & FLAG_EXTRA) == 0) {
+                return -1;
+            }
+            int extraLength = Short.toUnsignedInt(header.getShort(10));
+            ByteBuffer extra = read(channel, position + HEADER_LENGTH, extraLength);
+            for (int i = 0; i + 4 <= extraLength; ) {
+                int subfieldLength = Short.toUnsignedInt(extra.getShort(i + 2));
+                if (extra.get(i) == 'B' && extra.get(i + 1) == 'C' && subfieldLength == 2 && i + 6 <= extraLength) {
+                    return Short.toUnsignedInt(extra.getShort(i + 4)) + 1L;
+                }
+                i += 4 + subfieldLength;
+            }
+            return -1;
+        }
+
+        @Override
+        byte[] decompress(byte[] block) throws IOException {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(block), block.length)) {
+                return in.readAllBytes();
+            }
+        }
+    },
+    /**
+     * Zstandard files made up of multiple frames, e.g. written by {@code pzstd} or by concatenating files.
+     * Skippable frames are allowed and decompress into nothing.
+     */
+    ZSTD {
+        private static final int MAGIC = 0xFD2FB528;
+        private static final int SKIPPABLE_MAGIC = 0x184D2A50;
+        private static final int SKIPPABLE_MAGIC_MASK = 0xFFFFFFF0;
+        private static final int BLOCK_HEADER_LENGTH = 3;
+        private static final int CHECKSUM_LENGTH = 4;
+        private static final int[] DICTIONARY_ID_LENGTHS = {0, 1, 2, 4};
+        private static final int[] CONTENT_SIZE_LENGTHS = {0, 2, 4, 8};
+
+        @Override
+        long blockLength(FileChannel channel, long position) throws IOException {
+            ByteBuffer header = read(channel, position, 5);
+            int magic = header.getInt(0);
+            if ((magic & SKIPPABLE_MAGIC_MASK) == SKIPPABLE_MAGIC) {
+                return 8 + Integer.toUnsignedLong(read(channel, position + 4, 4).getInt(0));
+            }
+            if (magic != MAGIC) {
+                return -1;
+            }
+            int descriptor = header.get(4) & 0xFF;
+            boolean singleSegment = (descriptor & 0x20) != 0;
+            int contentSizeFlag = descriptor >>> 6;
+            int contentSizeLength = contentSizeFlag == 0 && singleSegment ? 1 : CONTENT_SIZE_LENGTHS[contentSizeFlag];
+            long length = 5 + (singleSegment ? 0 : 1) + DICTIONARY_ID_LENGTHS[descriptor & 0x3] + contentSizeLength;
+            boolean lastBlock;
+            do {
+                ByteBuffer blockHeader = read(channel, position + length, BLOCK_HEADER_LENGTH);
+                int value = (blockHeader.get(0) & 0xFF)
+                        | (blockHeader.get(1) & 0xFF) << 8
+                        | (blockHeader.get(2) & 0xFF) << 16;
+                lastBlock = (value & 1) != 0;
+                int type = (value >>> 1) & 0x3;
+                int size = value >>> 3;
+                length += BLOCK_HEADER_LENGTH
+                        + switch (type) {
+                            case 0, 2 -> size; // raw or compressed
+                            case 1 -> 1; // RLE, a single byte repeated
+                            default -> throw new IOException("Invalid zstd block type at " + (position + length));
+                        };
+            } while (!lastBlock);
+            if ((descriptor & 0x4) != 0) {
+                length += CHECKSUM_LENGTH;
+            }
+            return length;
+        }
+
+        @Override
+        byte[] decompress(byte[] block) throws IOException {
+            try (InputStream in = ZstdStreams.decompress(new ByteArrayInputStream(block))) {
+                return in.readAllBytes();
+            }
+        }
+    };
+
+    /**
+     * @param channel the file to read the block header from.
+     * @param position position in the file where the block starts.
+     * @return the length of the block, including its header, or {@code -1} if there's no block of this
+     * format at the given position.
+     * @throws IOException on I/O error or if the file ends in the middle of the header.
+     */
+    abstract long blockLength(FileChannel channel, long position) throws IOException;
+
+    /**
+     * @param block a whole block, as delimited by {@link #blockLength(FileChannel, long)}.
+     * @return the decompressed contents of the block.
+     * @throws IOException if the block isn't valid.
+     */
+    abstract byte[] decompress(byte[] block) throws IOException;
+
+    static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) == -1) {
+                throw new EOFException("Unexpected end of file at " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -20,6 +20,7 @@
 package org.neo4j.csv.reader;
 
 import static java.lang.Character.isWhitespace;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.ZoneOffset.UTC;
 import static org.apache.commons.lang3.ArrayUtils.EMPTY_BOOLEAN_ARRAY;
 import static org.apache.commons.lang3.ArrayUtils.EMPTY_BYTE_ARRAY;
@@ -379,7 +380,7 @@ public final class Extractors {
         }
     }
 
-    private static final class LongExtractor extends AbstractExtractor<Long> {
+    private static final class LongExtractor extends AbstractExtractor<Long> implements Utf8Extractor<Long> {
         LongExtractor() {
             super(long.class.getSimpleName());
         }
@@ -388,9 +389,14 @@ public final class Extractors {
         public Long extract(char[] data, int offset, int length, boolean hadQuotes, CSVHeaderInformation optionalData) {
             return length == 0 ? null : extractLong(data, offset, length);
         }
+
+        @Override
+        public Long extract(byte[] data, int offset, int length, boolean hadQuotes) {
+            return length == 0 ? null : extractLong(data, offset, length);
+        }
     }
 
-    private static final class IntExtractor extends AbstractExtractor<Integer> {
+    private static final class IntExtractor extends AbstractExtractor<Integer> implements Utf8Extractor<Integer> {
         IntExtractor(LongExtractor longExtractor) {
             super(int.class.getSimpleName(), longExtractor);
         }
@@ -400,9 +406,14 @@ public final class Extractors {
                 char[] data, int offset, int length, boolean hadQuotes, CSVHeaderInformation optionalData) {
             return length == 0 ? null : safeCastLongToInt(extractLong(data, offset, length));
         }
+
+        @Override
+        public Integer extract(byte[] data, int offset, int length, boolean hadQuotes) {
+            return length == 0 ? null : safeCastLongToInt(extractLong(data, offset, length));
+        }
     }
 
-    private static final class ShortExtractor extends AbstractExtractor<Short> {
+    private static final class ShortExtractor extends AbstractExtractor<Short> implements Utf8Extractor<Short> {
         ShortExtractor(LongExtractor longExtractor) {
             super(short.class.getSimpleName(), longExtractor);
         }
@@ -412,9 +423,14 @@ public final class Extractors {
                 char[] data, int offset, int length, boolean hadQuotes, CSVHeaderInformation optionalData) {
             return length == 0 ? null : safeCastLongToShort(extractLong(data, offset, length));
         }
+
+        @Override
+        public Short extract(byte[] data, int offset, int length, boolean hadQuotes) {
+            return length == 0 ? null : safeCastLongToShort(extractLong(data, offset, length));
+        }
     }
 
-    private static final class ByteExtractor extends AbstractExtractor<Byte> {
+    private static final class ByteExtractor extends AbstractExtractor<Byte> implements Utf8Extractor<Byte> {
         ByteExtractor(LongExtractor longExtractor) {
             super(byte.class.getSimpleName(), longExtractor);
         }
@@ -423,6 +439,11 @@ public final class Extractors {
         public Byte extract(char[] data, int offset, int length, boolean hadQuotes, CSVHeaderInformation optionalData) {
             return length == 0 ? null : safeCastLongToByte(extractLong(data, offset, length));
         }
+
+        @Override
+        public Byte extract(byte[] data, int offset, int length, boolean hadQuotes) {
+            return length == 0 ? null : safeCastLongToByte(extractLong(data, offset, length));
+        }
     }
 
     private static final char[] BOOLEAN_MATCH;
@@ -1323,6 +1344,53 @@ public final class Extractors {
         return negate ? -result : result;
     }
 
+    /**
+     * Same as {@link #extractLong(char[], int, int)}, but straight from UTF-8 encoded bytes. Only ASCII whitespace
+     * is trimmed, so any other byte outside of the digits will make this method throw {@link NumberFormatException}.
+     */
+    private static long extractLong(byte[] data, int originalOffset, int fullLength) {
+        long result = 0;
+        boolean negate = false;
+        int offset = originalOffset;
+        int length = fullLength;
+
+        // Leading whitespace can be ignored
+        while (length > 0 && isAsciiWhitespace(data[offset])) {
+            offset++;
+            length--;
+        }
+        // Trailing whitespace can be ignored
+        while (length > 0 && isAsciiWhitespace(data[offset + length - 1])) {
+            length--;
+        }
+
+        if (length > 0 && data[offset] == '-') {
+            negate = true;
+            offset++;
+            length--;
+        }
+
+        if (length < 1) {
+            throw new NumberFormatException(
+                    "Not an integer: \"" + new String(data, originalOffset, fullLength, UTF_8) + "\"");
+        }
+
+        for (int i = 0; i < length; i++) {
+            int digit = data[offset + i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException(
+                        "Not an integer: \"" + new String(data, originalOffset, fullLength, UTF_8) + "\"");
+            }
+            result = result * 10 + digit;
+        }
+
+        return negate ? -result : result;
+    }
+
+    private static boolean isAsciiWhitespace(byte b) {
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= '\u001C' && b <= '\u001F');
+    }
+
     private static int digit(char ch) {
         int digit = ch - '0';
         if ((digit < 0) || (digit > 9)) {
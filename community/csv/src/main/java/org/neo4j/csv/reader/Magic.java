@@ -46,6 +46,8 @@ public class Magic {
     public static final Magic ZIP = Magic.define("ZIP", null, 0x50, 0x4b, 0x03, 0x04);
     /** First 2 bytes of a GZIP file have this signature. */
     public static final Magic GZIP = Magic.define("GZIP", null, 0x1f, 0x8b);
+    /** First 4 bytes of a Zstandard file have this signature. */
+    public static final Magic ZSTD = Magic.define("ZSTD", null, 0x28, 0xb5, 0x2f, 0xfd);
 
     /** A couple of BOM magics */
     public static final Magic BOM_UTF_32_BE = define("BOM_UTF_32_BE", forName("UTF-32"), 0x0, 0x0, 0xFE, 0xFF);
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+import static java.lang.Math.max;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * An {@link InputStream} of decompressed data where the decompression happens in companion threads, ahead of
+ * the reader of this stream. This way the decompression doesn't hold up the reader, which typically is a thread
+ * chunking up the data for parsing in other threads.
+ * <ul>
+ * <li>{@link #parallel(Path, CompressedBlockFormat, int)} decompresses a file made of independently compressed
+ * blocks, multiple blocks at a time. The blocks are read from the file by the reader, but decompressed by
+ * the companion threads.</li>
+ * <li>{@link #readAhead(Path, InputStream, LongSupplier)} reads a decompressing stream ahead in one companion thread,
+ * for formats where the decompression can't be split up.</li>
+ * </ul>
+ */
+class ParallelDecompressionInputStream extends InputStream {
+    private static final int READ_AHEAD_CHUNK_SIZE = 1 << 20;
+    private static final long MAX_READ_AHEAD_BYTES = 64L << 20;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Blocks blocks;
+    private final ExecutorService executor;
+    private final int maxBlocksAhead;
+    private final Deque<Block> ahead = new ArrayDeque<>();
+    private long bytesAhead;
+    private byte[] current = EMPTY;
+    private int currentOffset;
+    private long currentCompressedStart;
+    private long currentCompressedEnd;
+    private boolean endOfStream;
+
+    /**
+     * @return number of threads to decompress a file with, leaving one processor for reading it.
+     */
+    static int defaultThreads() {
+        return max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    private ParallelDecompressionInputStream(Blocks blocks, String name, int threads, int maxBlocksAhead) {
+        this.blocks = blocks;
+        this.maxBlocksAhead = maxBlocksAhead;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread =
+                            new Thread(runnable, "Decompression-" + threadCounter.incrementAndGet() + " for " + name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * @param file file made up of blocks of the given format.
+     * @param format format of the blocks in the file.
+     * @param threads number of threads to decompress blocks with.
+     * @return stream of the decompressed contents of the file.
+     */
+    static ParallelDecompressionInputStream parallel(Path file, CompressedBlockFormat format, int threads)
+            throws IOException {
+        return new ParallelDecompressionInputStream(
+                new FileBlocks(file, FileChannel.open(file, StandardOpenOption.READ), format),
+                file.getFileName().toString(),
+                threads,
+                threads * 2);
+    }
+
+    /**
+     * @param file the file the decompressing stream reads from.
+     * @param decompressed a stream decompressing as it's read, which can only be read by one thread at a time.
+     * @param compressedPosition number of compressed bytes read so far by the decompressing stream.
+     * @return stream of the same data, but with the decompression done by a companion thread.
+     */
+    static ParallelDecompressionInputStream readAhead(
+            Path file, InputStream decompressed, LongSupplier compressedPosition) {
+        return new ParallelDecompressionInputStream(
+                new ReadAheadBlocks(decompressed, compressedPosition),
+                file.getFileName().toString(),
+                1,
+                2);
+    }
+
+    /**
+     * @return number of compressed bytes making up the data returned from this stream so far. This is an estimate,
+     * assuming that the data within each block is equally compressible.
+     */
+    long compressedPosition() {
+        if (current.length == 0) {
+            return currentCompressedEnd;
+        }
+        return currentCompressedStart
+                + (long) ((double) (currentCompressedEnd - currentCompressedStart) * currentOffset / current.length);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return current[currentOffset++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int toCopy = Math.min(len, current.length - currentOffset);
+        System.arraycopy(current, currentOffset, b, off, toCopy);
+        currentOffset += toCopy;
+        return toCopy;
+    }
+
+    @Override
+    public int available() {
+        return current.length - currentOffset;
+    }
+
+    private boolean ensureAvailable() throws IOException {
+        while (currentOffset == current.length) {
+            if (endOfStream) {
+                return false;
+            }
+            scheduleAhead();
+            Block next = ahead.pollFirst();
+            if (next == null) {
+                endOfStream = true;
+                return false;
+            }
+            bytesAhead -= next.compressedLength();
+            byte[] data = await(next.decompressed());
+            if (data == null) {
+                endOfStream = true;
+                return false;
+            }
+            current = data;
+            currentOffset = 0;
+            currentCompressedStart = currentCompressedEnd;
+            currentCompressedEnd = next.compressedEnd().getAsLong();
+        }
+        return true;
+    }
+
+    /**
+     * Keeps the companion threads busy by having up to {@link #maxBlocksAhead} blocks decompressing, but
+     * limits the amount of compressed data to hold in memory, unless there's nothing decompressing at all.
+     */
+    private void scheduleAhead() throws IOException {
+        while (ahead.size() < maxBlocksAhead && (ahead.isEmpty() || bytesAhead < MAX_READ_AHEAD_BYTES)) {
+            BlockTask task = blocks.next();
+            if (task == null) {
+                break;
+            }
+            ahead.addLast(
+                    new Block(executor.submit(task.decompression()), task.compressedLength(), task.compressedEnd()));
+            bytesAhead += task.compressedLength();
+        }
+    }
+
+    private static byte[] await(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw new IOException("Error decompressing", cause);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Block block : ahead) {
+            block.decompressed().cancel(false);
+        }
+        ahead.clear();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            blocks.close();
+        }
+    }
+
+    private record Block(Future<byte[]> decompressed, long compressedLength, LongSupplier compressedEnd) {}
+
+    /**
+     * @param decompression decompresses the block, returning {@code null} at end of stream.
+     * @param compressedLength size of the block in memory while waiting to be decompressed.
+     * @param compressedEnd position in the compressed data after this block, asked for once the block has been
+     * decompressed.
+     */
+    private record BlockTask(Callable<byte[]> decompression, long compressedLength, LongSupplier compressedEnd) {}
+
+    private interface Blocks extends AutoCloseable {
+        /**
+         * Called by the reader only, in the order the blocks are to be read.
+         * @return the next block to decompress, or {@code null} if there are no more blocks.
+         */
+        BlockTask next() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static class FileBlocks implements Blocks {
+        private final Path file;
+        private final FileChannel channel;
+        private final CompressedBlockFormat format;
+        private final long size;
+        private long position;
+
+        FileBlocks(Path file, FileChannel channel, CompressedBlockFormat format) throws IOException {
+            this.file = file;
+            this.channel = channel;
+            this.format = format;
+            this.size = channel.size();
+        }
+
+        @Override
+        public BlockTask next() throws IOException {
+            if (position >= size) {
+                return null;
+            }
+            long length = format.blockLength(channel, position);
+            if (length <= 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Invalid " + format + " block at position " + position + " in " + file);
+            }
+            byte[] block =
+                    CompressedBlockFormat.read(channel, position, (int) length).array();
+            position += length;
+            long end = position;
+            return new BlockTask(() -> format.decompress(block), length, () -> end);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        @Override
+        public String toString() {
+            return file.toString();
+        }
+    }
+
+    private static class ReadAheadBlocks implements Blocks {
+        private final InputStream decompressed;
+        private final LongSupplier compressedPosition;
+
+        ReadAheadBlocks(InputStream decompressed, LongSupplier compressedPosition) {
+            this.decompressed = decompressed;
+            this.compressedPosition = compressedPosition;
+        }
+
+        @Override
+        public BlockTask next() {
+            // There's only one companion thread, so the chunks are read from the stream in order.
+            // The compressed position is noted right after reading the chunk since the companion thread
+            // will likely have gone on reading the next chunk by the time this one is read
+            long[] compressedEnd = new long[1];
+            Callable<byte[]> decompression = () -> {
+                byte[] chunk = readChunk();
+                compressedEnd[0] = compressedPosition.getAsLong();
+                return chunk;
+            };
+            return new BlockTask(decompression, 0, () -> compressedEnd[0]);
+        }
+
+        private byte[] readChunk() throws IOException {
+            byte[] chunk = decompressed.readNBytes(READ_AHEAD_CHUNK_SIZE);
+            return chunk.length > 0 ? chunk : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            decompressed.close();
+        }
+    }
+}
@@ -24,6 +24,7 @@ import static org.neo4j.csv.reader.CharReadable.EMPTY;
 
 import java.io.BufferedInputStream;
 import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -31,13 +32,16 @@ import java.io.PushbackInputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.LongSupplier;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
@@ -56,8 +60,13 @@ import org.neo4j.function.ThrowingFunction;
  * is important and for a ZIP archive with multiple files, the order of the files are whatever the order
  * set by the tool that created the ZIP archive. Therefore only single-file-zip files are supported.
  * The single file in the given ZIP archive will be decompressed on the fly, while reading.</li>
- * <li>GZIP: is only a compression format and so will be decompressed on the fly, while reading.</li>
+ * <li>GZIP: is only a compression format and so will be decompressed on the fly, while reading.
+ * Blocked GZIP files, e.g. written by {@code bgzip}, are decompressed using multiple threads.</li>
+ * <li>ZSTD: is only a compression format and so will be decompressed on the fly, while reading.
+ * Files with multiple frames, e.g. written by {@code pzstd}, are decompressed using multiple threads.</li>
  * </ol>
+ * Decompression of GZIP and ZSTD happens in companion threads, ahead of the reader, see
+ * {@link ParallelDecompressionInputStream}.
  */
 public class Readables {
     private Readables() {
@@ -140,10 +149,14 @@ public class Readables {
     }
 
     private static class FromFile implements IOFunction<Path, CharReadable> {
+        private static final long MAX_PARALLEL_BLOCK_SIZE = 32L << 20;
+
         private final Charset charset;
+        private final int decompressionThreads;
 
         FromFile(Charset charset) {
             this.charset = charset;
+            this.decompressionThreads = ParallelDecompressionInputStream.defaultThreads();
         }
 
         @Override
@@ -169,6 +182,13 @@ public class Readables {
                 // files into one blob, which is then compressed. If that's the case then
                 // the data will look like garbage and the reader will fail for whatever it will be used for.
                 // TODO add tar support
+                if (hasMultipleBlocks(path, CompressedBlockFormat.BGZF)) {
+                    return decompressed(
+                            path,
+                            ParallelDecompressionInputStream.parallel(
+                                    path, CompressedBlockFormat.BGZF, decompressionThreads));
+                }
+                // A regular GZIP file is one deflate stream, which can only be decompressed from start to end
                 LongSupplier[] bytesReadFromCompressedSource = new LongSupplier[1];
                 GZIPInputStream zipStream = new GZIPInputStream(Files.newInputStream(path)) {
                     {
@@ -177,28 +197,32 @@ public class Readables {
                         bytesReadFromCompressedSource[0] = inf::getBytesRead;
                     }
                 };
-                InputStreamReader reader = new InputStreamReader(zipStream, charset) {
-                    @Override
-                    public String toString() {
-                        return path.toAbsolutePath().toString();
-                    }
-                };
-                // For GZIP there's no reliable way of getting the decompressed file size w/o decompressing the whole
-                // file,
-                // therefore this compression ratio estimation mechanic is put in place such that at any given time the
-                // reader
-                // can be queried about its observed compression ratio and the longer the reader goes the more accurate
-                // it gets.
-                long compressedFileLength = Files.size(path);
-                return new WrappedCharReadable(
-                        compressedFileLength, reader, path.toAbsolutePath().toString()) {
+                return decompressed(
+                        path,
+                        ParallelDecompressionInputStream.readAhead(path, zipStream, bytesReadFromCompressedSource[0]));
+            } else if (magic == Magic.ZSTD) {
+                if (hasMultipleBlocks(path, CompressedBlockFormat.ZSTD)) {
+                    return decompressed(
+                            path,
+                            ParallelDecompressionInputStream.parallel(
+                                    path, CompressedBlockFormat.ZSTD, decompressionThreads));
+                }
+                // A single frame can only be decompressed from start to end
+                LongAdder bytesReadFromCompressedSource = new LongAdder();
+                InputStream in = new FilterInputStream(Files.newInputStream(path)) {
                     @Override
-                    public float compressionRatio() {
-                        long decompressedPosition = position();
-                        long compressedPosition = bytesReadFromCompressedSource[0].getAsLong();
-                        return (float) ((double) compressedPosition / decompressedPosition);
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        int read = super.read(b, off, len);
+                        if (read > 0) {
+                            bytesReadFromCompressedSource.add(read);
+                        }
+                        return read;
                     }
                 };
+                return decompressed(
+                        path,
+                        ParallelDecompressionInputStream.readAhead(
+                                path, ZstdStreams.decompress(in), bytesReadFromCompressedSource::sum));
             } else {
                 InputStream in = Files.newInputStream(path);
                 Charset usedCharset = this.charset;
@@ -222,6 +246,41 @@ public class Readables {
             }
         }
 
+        /**
+         * For compressed files the length is the size of the compressed file. For GZIP and ZSTD there's no reliable
+         * way of getting the decompressed size w/o decompressing the whole file, therefore the compression ratio
+         * is estimated from the data decompressed so far, getting more accurate the further the reader goes.
+         */
+        private CharReadable decompressed(Path path, ParallelDecompressionInputStream stream) throws IOException {
+            InputStreamReader reader = new InputStreamReader(stream, charset) {
+                @Override
+                public String toString() {
+                    return path.toAbsolutePath().toString();
+                }
+            };
+            return new WrappedCharReadable(
+                    Files.size(path), reader, path.toAbsolutePath().toString()) {
+                @Override
+                public float compressionRatio() {
+                    return (float) ((double) stream.compressedPosition() / position());
+                }
+            };
+        }
+
+        /**
+         * Blocks are read into memory whole before being decompressed, so only files of reasonably sized blocks
+         * are decompressed in parallel. A file of a single block gains nothing from it either.
+         */
+        private static boolean hasMultipleBlocks(Path path, CompressedBlockFormat format) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long length = format.blockLength(channel, 0);
+                return length > 0 && length < channel.size() && length <= MAX_PARALLEL_BLOCK_SIZE;
+            } catch (IOException e) {
+                // Let the sequential decompression deal with whatever is wrong with the file
+                return false;
+            }
+        }
+
         private static ZipInputStream openZipInputStream(Path path, ZipEntry entry) throws IOException {
             var stream = new ZipInputStream(new BufferedInputStream(new FileInputStream(path.toFile())));
             ZipEntry readEntry;
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+/**
+ * An {@link Extractor} which additionally can extract its value straight from UTF-8 encoded bytes, without first
+ * having them decoded into characters. Used by {@link BufferedByteSeeker} for values where decoding would be
+ * pure overhead, f.ex. numbers.
+ */
+public interface Utf8Extractor<T> extends Extractor<T> {
+    /**
+     * Extracts value of type {@code T} from the given UTF-8 encoded data.
+     * @param data bytes in a buffer.
+     * @param offset offset into the buffer where the value starts.
+     * @param length number of bytes from the offset to extract.
+     * @param hadQuotes whether there were skipped characters, f.ex. quotation.
+     * @return the extracted value, or {@code null} (or similar) if no value was extracted.
+     * @throws NumberFormatException if the value couldn't be extracted from the bytes as-is. The caller can then
+     * fall back to decoding the bytes and use {@link #extract(char[], int, int, boolean)} instead.
+     */
+    T extract(byte[] data, int offset, int length, boolean hadQuotes);
+}
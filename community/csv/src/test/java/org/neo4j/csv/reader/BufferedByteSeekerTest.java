@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.csv.reader.CharSeekers.charSeeker;
+import static org.neo4j.csv.reader.Readables.wrap;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+
+@ExtendWith(RandomExtension.class)
+class BufferedByteSeekerTest {
+    private static final String TEST_SOURCE = "TestSource";
+    private static final String[] VALUE_PARTS = {"a", "bc", "12", "-5", " ", "å", "日本", "😀", "\"", "x\"y"};
+
+    @Inject
+    private RandomSupport random;
+
+    private final Extractors extractors = new Extractors(';');
+    private final Mark mark = new Mark();
+
+    @Test
+    void shouldSeekValuesAndLines() throws IOException {
+        List<List<String>> lines = read("a,bc,\n1,,3\r\n\nlast", Configuration.COMMAS);
+
+        assertThat(lines).containsExactly(List.of("a", "bc", ""), List.of("1", "", "3"), List.of("last"));
+    }
+
+    @Test
+    void shouldUnescapeQuotedValues() throws IOException {
+        List<List<String>> lines = read("\"a,b\",\"say \"\"hi\"\"\",\"\"\n\"end\"", Configuration.COMMAS);
+
+        assertThat(lines).containsExactly(List.of("a,b", "say \"hi\"", ""), List.of("end"));
+    }
+
+    @Test
+    void shouldUnescapeLegacyStyleQuotes() throws IOException {
+        Configuration config =
+                Configuration.COMMAS.toBuilder().withLegacyStyleQuoting(true).build();
+
+        List<List<String>> lines = read("\"a\\\"b\\\\c\\d\",e", config);
+
+        assertThat(lines).containsExactly(List.of("a\"b\\c\\d", "e"));
+    }
+
+    @Test
+    void shouldReadMultilineFieldsOnlyIfAllowed() throws IOException {
+        String data = "\"multi\nline\",b\nc";
+
+        Configuration multiline =
+                Configuration.COMMAS.toBuilder().withMultilineFields(true).build();
+        assertThat(read(data, multiline)).containsExactly(List.of("multi\nline", "b"), List.of("c"));
+        assertThrows(IllegalMultilineFieldException.class, () -> read(data, Configuration.COMMAS));
+    }
+
+    @Test
+    void shouldFailOnMissingEndQuote() {
+        assertThrows(MissingEndQuoteException.class, () -> read("a,\"b", Configuration.COMMAS));
+    }
+
+    @Test
+    void shouldFailOnDataAfterQuote() {
+        assertThrows(DataAfterQuoteException.class, () -> read("\"a\"b,c", Configuration.COMMAS));
+    }
+
+    @Test
+    void shouldSkipByteOrderMark() throws IOException {
+        byte[] data = "\uFEFFa,b".getBytes(UTF_8);
+
+        try (CharSeeker seeker =
+                new BufferedByteSeeker(new ByteArrayInputStream(data), TEST_SOURCE, Configuration.COMMAS)) {
+            assertThat(readAll(seeker, ',')).containsExactly(List.of("a", "b"));
+        }
+    }
+
+    @Test
+    void shouldExtractNumbersStraightFromBytes() throws IOException {
+        try (CharSeeker seeker = byteSeeker(" 123 ,-45,\u30006\u3000,abc", Configuration.COMMAS)) {
+            assertTrue(seeker.seek(mark, ','));
+            assertEquals(123L, seeker.extract(mark, extractors.long_()));
+            assertTrue(seeker.seek(mark, ','));
+            assertEquals(-45, seeker.extract(mark, extractors.int_()));
+            // non-ASCII whitespace is handled by falling back to decoding the value
+            assertTrue(seeker.seek(mark, ','));
+            assertEquals((short) 6, seeker.extract(mark, extractors.short_()));
+            assertTrue(seeker.seek(mark, ','));
+            NumberFormatException e =
+                    assertThrows(NumberFormatException.class, () -> seeker.extract(mark, extractors.long_()));
+            assertThat(e.getMessage()).contains("abc");
+            assertFalse(seeker.seek(mark, ','));
+        }
+    }
+
+    @Test
+    void shouldFailOnValueLargerThanBuffer() {
+        Configuration config =
+                Configuration.COMMAS.toBuilder().withBufferSize(8).build();
+
+        assertThrows(BufferOverflowException.class, () -> read("a,0123456789", config));
+    }
+
+    @Test
+    void shouldNotSupportTrimmingOrNonAsciiCharacters() {
+        assertTrue(BufferedByteSeeker.supports(Configuration.TABS, '\t'));
+        assertFalse(BufferedByteSeeker.supports(
+                Configuration.COMMAS.toBuilder().withTrimStrings(true).build(), ','));
+        assertFalse(BufferedByteSeeker.supports(Configuration.COMMAS, '§'));
+        assertFalse(BufferedByteSeeker.supports(
+                Configuration.COMMAS.toBuilder().withQuotationCharacter('«').build(), ','));
+    }
+
+    @Test
+    void shouldReadOnlyTheGivenBytes() throws IOException {
+        // given
+        byte[] data = "skip\n\"a,b\",1\nc,\"d\"\"e\"\nskip".getBytes(UTF_8);
+        int offset = "skip\n".length();
+        int length = data.length - offset - "skip".length();
+
+        // when
+        List<List<String>> lines;
+        try (CharSeeker seeker = new BufferedByteSeeker(data, offset, length, TEST_SOURCE, Configuration.COMMAS)) {
+            lines = readAll(seeker, ',');
+        }
+
+        // then
+        assertThat(lines).containsExactly(List.of("a,b", "1"), List.of("c", "d\"e"));
+    }
+
+    @ParameterizedTest(name = "multiline: {0}")
+    @ValueSource(booleans = {true, false})
+    void shouldSeekSameValuesAsCharSeeker(boolean multiline) throws IOException {
+        // given
+        StringBuilder data = new StringBuilder();
+        int lineCount = random.nextInt(1, 200);
+        for (int line = 0; line < lineCount; line++) {
+            int valueCount = random.nextInt(1, 10);
+            for (int value = 0; value < valueCount; value++) {
+                if (value > 0) {
+                    data.append(',');
+                }
+                data.append(randomValue(multiline));
+            }
+            data.append(random.nextBoolean() ? "\n" : "\r\n");
+        }
+        Configuration config = Configuration.COMMAS.toBuilder()
+                .withMultilineFields(multiline)
+                .withBufferSize(random.nextInt(200, 1_000))
+                .build();
+
+        // when
+        List<List<String>> expected;
+        try (CharSeeker seeker = charSeeker(wrap(data.toString()), config, false)) {
+            expected = readAll(seeker, ',');
+        }
+        List<List<String>> actual = read(data.toString(), config);
+
+        // then
+        assertEquals(expected, actual);
+    }
+
+    private String randomValue(boolean multiline) {
+        StringBuilder value = new StringBuilder();
+        int parts = random.nextInt(0, 5);
+        for (int i = 0; i < parts; i++) {
+            value.append(random.among(VALUE_PARTS));
+        }
+        if (value.indexOf("\"") == -1 && random.nextBoolean()) {
+            return value.toString().trim();
+        }
+        String quoted = value.toString().replace("\"", "\"\"");
+        if (multiline && random.nextBoolean()) {
+            quoted += "\n,";
+        }
+        return "\"" + quoted + "\"";
+    }
+
+    private CharSeeker byteSeeker(String data, Configuration config) {
+        return new BufferedByteSeeker(new ByteArrayInputStream(data.getBytes(UTF_8)), TEST_SOURCE, config);
+    }
+
+    private List<List<String>> read(String data, Configuration config) throws IOException {
+        try (CharSeeker seeker = byteSeeker(data, config)) {
+            return readAll(seeker, config.delimiter());
+        }
+    }
+
+    private List<List<String>> readAll(CharSeeker seeker, int delimiter) throws IOException {
+        List<List<String>> lines = new ArrayList<>();
+        List<String> line = new ArrayList<>();
+        while (seeker.seek(mark, delimiter)) {
+            String value = seeker.tryExtract(mark, extractors.string());
+            line.add(value == null ? "" : value);
+            if (mark.isEndOfLine()) {
+                lines.add(line);
+                line = new ArrayList<>();
+            }
+        }
+        return lines;
+    }
+}
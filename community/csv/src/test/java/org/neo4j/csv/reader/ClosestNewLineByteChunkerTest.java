@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.csv.reader.HeaderSkipper.NO_SKIP;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.neo4j.csv.reader.ClosestNewLineByteChunker.ByteChunk;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@TestDirectoryExtension
+class ClosestNewLineByteChunkerTest {
+    @Inject
+    private TestDirectory directory;
+
+    private final Mark mark = new Mark();
+    private final Extractors extractors = new Extractors(';');
+
+    @Test
+    void shouldBackUpChunkToClosestNewline() throws Exception {
+        // GIVEN
+        Path file = file("data", "1234567\n8901234\n5678901234".getBytes(UTF_8));
+        try (ClosestNewLineByteChunker source = new ClosestNewLineByteChunker(new Path[] {file}, 12, false, NO_SKIP)) {
+            // WHEN
+            ByteChunk chunk = source.newChunk();
+            assertTrue(source.nextChunk(chunk));
+            assertThat(linesOf(chunk)).containsExactly("1234567");
+            assertTrue(source.nextChunk(chunk));
+            assertThat(linesOf(chunk)).containsExactly("8901234");
+            assertTrue(source.nextChunk(chunk));
+            assertThat(linesOf(chunk)).containsExactly("5678901234");
+
+            // THEN
+            assertFalse(source.nextChunk(chunk));
+            assertThat(source.position()).isEqualTo(26);
+        }
+    }
+
+    @Test
+    void shouldFailIfNoNewlineInChunk() throws Exception {
+        // GIVEN
+        Path file = file("data", "1234567\n89012345678901234".getBytes(UTF_8));
+        try (ClosestNewLineByteChunker source = new ClosestNewLineByteChunker(new Path[] {file}, 12, false, NO_SKIP)) {
+            // WHEN
+            ByteChunk chunk = source.newChunk();
+            assertTrue(source.nextChunk(chunk));
+            assertThat(linesOf(chunk)).containsExactly("1234567");
+            assertThrows(IllegalStateException.class, () -> assertFalse(source.nextChunk(chunk)));
+        }
+    }
+
+    @Test
+    void shouldNotSpanFilesAndSkipByteOrderMarksAndHeaders() throws Exception {
+        // GIVEN
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        Path first = file("first", concat(bom, "header\nå\n".getBytes(UTF_8)));
+        Path second = file("second", concat(bom, "header\n日本".getBytes(UTF_8)));
+        Path third = file("third", "data\n".getBytes(UTF_8));
+        HeaderSkipper headerSkip =
+                (data, offset, length) -> new String(data, offset, length).startsWith("header") ? "header".length() : 0;
+        try (ClosestNewLineByteChunker source =
+                new ClosestNewLineByteChunker(new Path[] {first, second, third}, 100, true, headerSkip)) {
+            // WHEN
+            ByteChunk chunk = source.newChunk();
+            List<String> lines = new ArrayList<>();
+            List<String> sources = new ArrayList<>();
+            while (source.nextChunk(chunk)) {
+                lines.addAll(linesOf(chunk));
+                sources.add(chunk.sourceDescription());
+            }
+
+            // THEN
+            assertThat(lines).containsExactly("å", "日本", "data");
+            assertThat(sources)
+                    .containsExactly(
+                            first.toAbsolutePath().toString(),
+                            second.toAbsolutePath().toString(),
+                            third.toAbsolutePath().toString());
+        }
+    }
+
+    private Path file(String name, byte[] data) throws IOException {
+        Path file = directory.file(name);
+        Files.write(file, data);
+        return file;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private List<String> linesOf(ByteChunk chunk) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (CharSeeker seeker = chunk.seeker(Configuration.COMMAS)) {
+            while (seeker.seek(mark, ',')) {
+                lines.add(seeker.tryExtract(mark, extractors.string()));
+            }
+        }
+        return lines;
+    }
+}
@@ -26,19 +26,28 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.params.provider.Arguments.of;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -48,6 +57,8 @@ import org.neo4j.test.utils.TestDirectory;
 
 @TestDirectoryExtension
 class ReadablesTest {
+    private static final int BLOCK_SIZE = 10_000;
+
     @Inject
     private TestDirectory directory;
 
@@ -81,6 +92,79 @@ class ReadablesTest {
         assertReadText(compressed, text, readMethod);
     }
 
+    @ParameterizedTest(name = "read method {index}")
+    @MethodSource("parameters")
+    void shouldReadTextCompressedInZstdFile(ReadMethod readMethod) throws Exception {
+        // GIVEN
+        String text = "abcdefghijlkmnopqrstuvxyz";
+
+        // WHEN
+        Path compressed = compressWithZstd(text);
+
+        // THEN
+        assertReadText(compressed, text, readMethod);
+    }
+
+    @Test
+    void shouldReadTextCompressedInMultipleZstdFrames() throws Exception {
+        // GIVEN
+        String text = longText();
+
+        // WHEN
+        Path compressed = directory.file("compressed");
+        try (OutputStream out = Files.newOutputStream(compressed)) {
+            byte[] bytes = text.getBytes();
+            for (int offset = 0; offset < bytes.length; offset += BLOCK_SIZE) {
+                out.write(Zstd.compress(copyOfRange(bytes, offset, Math.min(bytes.length, offset + BLOCK_SIZE))));
+                if (offset == 0) {
+                    // a skippable frame, with magic 0x184D2A5F and 3 bytes of user data
+                    out.write(new byte[] {0x5F, 0x2A, 0x4D, 0x18, 3, 0, 0, 0, 1, 2, 3});
+                }
+            }
+        }
+
+        // THEN
+        assertReadCompressedText(compressed, text);
+    }
+
+    @Test
+    void shouldReadTextCompressedInBlockedGZipFile() throws Exception {
+        // GIVEN
+        String text = longText();
+
+        // WHEN
+        Path compressed = directory.file("compressed");
+        try (OutputStream out = Files.newOutputStream(compressed)) {
+            byte[] bytes = text.getBytes();
+            for (int offset = 0; offset < bytes.length; offset += BLOCK_SIZE) {
+                out.write(bgzfBlock(copyOfRange(bytes, offset, Math.min(bytes.length, offset + BLOCK_SIZE))));
+            }
+            out.write(bgzfBlock(new byte[0]));
+        }
+
+        // THEN
+        assertReadCompressedText(compressed, text);
+    }
+
+    @Test
+    void shouldNotConsiderRegularGZipFileAsBlocked() throws Exception {
+        Path compressed = compressWithGZip(longText());
+        try (FileChannel channel = FileChannel.open(compressed)) {
+            assertThat(CompressedBlockFormat.BGZF.blockLength(channel, 0)).isEqualTo(-1);
+            assertThat(CompressedBlockFormat.ZSTD.blockLength(channel, 0)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void shouldFindZstdFrameLength() throws Exception {
+        byte[] frame = Zstd.compress(longText().getBytes());
+        Path compressed = directory.file("compressed");
+        Files.write(compressed, frame);
+        try (FileChannel channel = FileChannel.open(compressed)) {
+            assertThat(CompressedBlockFormat.ZSTD.blockLength(channel, 0)).isEqualTo(frame.length);
+        }
+    }
+
     @ParameterizedTest(name = "read method {index}")
     @MethodSource("parameters")
     void shouldReadPlainTextFile(ReadMethod readMethod) throws Exception {
@@ -297,6 +381,62 @@ class ReadablesTest {
         return file;
     }
 
+    private Path compressWithZstd(String text) throws IOException {
+        Path file = directory.file("compressed");
+        try (ZstdOutputStream out = new ZstdOutputStream(Files.newOutputStream(file))) {
+            out.write(text.getBytes());
+        }
+        return file;
+    }
+
+    private static String longText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < BLOCK_SIZE * 20; i++) {
+            text.append(i)
+                    .append(",name-")
+                    .append(i * 31 % 1000)
+                    .append(",")
+                    .append(i % 7 == 0)
+                    .append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * A GZIP member with the "BC" extra field holding the size of the member, like written by {@code bgzip}.
+     */
+    private static byte[] bgzfBlock(byte[] data) throws IOException {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        while (!deflater.finished()) {
+            deflated.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        int blockSize = 18 + deflated.size() + 8;
+        ByteBuffer block = ByteBuffer.allocate(blockSize).order(ByteOrder.LITTLE_ENDIAN);
+        block.put(new byte[] {0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff});
+        block.putShort((short) 6).put((byte) 'B').put((byte) 'C').putShort((short) 2);
+        block.putShort((short) (blockSize - 1));
+        block.put(deflated.toByteArray());
+        block.putInt((int) crc.getValue()).putInt(data.length);
+        return block.array();
+    }
+
+    private static void assertReadCompressedText(Path file, String text) throws IOException {
+        try (CharReadable readable = Readables.files(Charset.defaultCharset(), file)) {
+            char[] readText = new char[text.length() + 1];
+            assertThat(readable.read(readText, 0, readText.length)).isEqualTo(text.length());
+            assertThat(new String(readText, 0, text.length())).isEqualTo(text);
+            assertThat(readable.compressionRatio()).isGreaterThan(0f).isLessThan(1f);
+        }
+    }
+
     private Path compressWithGZip(String text) throws IOException {
         Path file = directory.file("compressed");
         try (GZIPOutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
@@ -80,13 +80,28 @@ abstract class AbstractCachedProperty extends Expression {
   override def arguments: Seq[Expression] = Seq()
 }
 
-abstract class AbstractCachedNodeProperty extends AbstractCachedProperty {
+/**
+ * A cached property value which can be read from the store together with other properties of the same entity,
+ * in a single pass over the entity's properties.
+ */
+abstract class AbstractCachedPropertyValue extends AbstractCachedProperty {
+
+  /**
+   * Reads the given properties of an entity. The returned values are in the same order as `propIds`.
+   */
+  def properties(state: QueryState, id: Long, propIds: Array[Int]): Array[Value]
+}
+
+abstract class AbstractCachedNodeProperty extends AbstractCachedPropertyValue {
 
   override def getTxStateProperty(state: QueryState, id: Long, propId: Int): Value =
     state.query.nodeReadOps.getTxStateProperty(id, propId)
 
   override def property(state: QueryState, id: Long, propId: Int): Value =
     state.query.nodeProperty(id, propId, state.cursors.nodeCursor, state.cursors.propertyCursor, throwOnDeleted = true)
+
+  override def properties(state: QueryState, id: Long, propIds: Array[Int]): Array[Value] =
+    state.query.nodeProperties(id, propIds, state.cursors.nodeCursor, state.cursors.propertyCursor)
 }
 
 abstract class AbstractCachedNodeHasProperty extends AbstractCachedProperty {
@@ -103,7 +118,7 @@ abstract class AbstractCachedNodeHasProperty extends AbstractCachedProperty {
   }
 }
 
-abstract class AbstractCachedRelationshipProperty extends AbstractCachedProperty {
+abstract class AbstractCachedRelationshipProperty extends AbstractCachedPropertyValue {
 
   override def getTxStateProperty(state: QueryState, id: Long, propId: Int): Value =
     state.query.relationshipReadOps.getTxStateProperty(id, propId)
@@ -115,6 +130,14 @@ abstract class AbstractCachedRelationshipProperty extends AbstractCachedProperty
     state.cursors.propertyCursor,
     throwOnDeleted = true
   )
+
+  override def properties(state: QueryState, id: Long, propIds: Array[Int]): Array[Value] =
+    state.query.relationshipProperties(
+      id,
+      propIds,
+      state.cursors.relationshipScanCursor,
+      state.cursors.propertyCursor
+    )
 }
 
 abstract class AbstractCachedRelationshipHasProperty extends AbstractCachedProperty {
@@ -21,25 +21,112 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.AbstractCachedNodeProperty
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.AbstractCachedPropertyValue
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.AbstractCachedRelationshipProperty
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.kernel.api.StatementConstants
 
 case class CachePropertiesPipe(source: Pipe, properties: Array[Expression])(val id: Id = Id.INVALID_ID)
     extends PipeWithSource(source) {
 
+  // Cached node and relationship property values are read together per entity, so that each entity's properties
+  // are only traversed once and reading can stop as soon as all the wanted properties have been found.
+  private[this] val nodeProperties: Array[AbstractCachedPropertyValue] =
+    properties.distinct.collect { case p: AbstractCachedNodeProperty => p: AbstractCachedPropertyValue }
+
+  private[this] val relationshipProperties: Array[AbstractCachedPropertyValue] =
+    properties.distinct.collect { case p: AbstractCachedRelationshipProperty => p: AbstractCachedPropertyValue }
+
+  private[this] val otherProperties: Array[Expression] =
+    properties.filterNot(_.isInstanceOf[AbstractCachedPropertyValue])
+
   protected def internalCreateResults(
     input: ClosingIterator[CypherRow],
     state: QueryState
   ): ClosingIterator[CypherRow] = {
     input.map {
       ctx =>
+        CachePropertiesPipe.cachePerEntity(nodeProperties, ctx, state)
+        CachePropertiesPipe.cachePerEntity(relationshipProperties, ctx, state)
         var i = 0
-        while (i < properties.length) {
+        while (i < otherProperties.length) {
           // we evaluate the cached property, which has the side effect of caching it in the row
-          properties(i).apply(ctx, state)
+          otherProperties(i).apply(ctx, state)
           i += 1
         }
         ctx
     }
   }
 }
+
+object CachePropertiesPipe {
+
+  /**
+   * Caches the given properties in the row, the same way as evaluating each of them would. Values that are neither
+   * cached in the row nor changed in the transaction are read from the store with one read per entity.
+   */
+  private def cachePerEntity(
+    properties: Array[AbstractCachedPropertyValue],
+    ctx: CypherRow,
+    state: QueryState
+  ): Unit = {
+    val n = properties.length
+    val ids = new Array[Long](n)
+    val propIds = new Array[Int](n)
+    val pending = new Array[Boolean](n)
+    var i = 0
+    while (i < n) {
+      val property = properties(i)
+      ids(i) = property.getId(ctx)
+      if (ids(i) != StatementConstants.NO_SUCH_ENTITY) {
+        propIds(i) = property.getPropertyKey(state.query)
+        pending(i) = propIds(i) != StatementConstants.NO_SUCH_PROPERTY_KEY &&
+          property.getTxStateProperty(state, ids(i), propIds(i)) == null &&
+          property.getCachedProperty(ctx) == null
+      }
+      i += 1
+    }
+
+    val group = new Array[Int](n)
+    val groupPropIds = new Array[Int](n)
+    i = 0
+    while (i < n) {
+      if (pending(i)) {
+        // collect all pending properties of the same entity, each property key only once
+        var size = 0
+        var j = i
+        while (j < n) {
+          if (pending(j) && ids(j) == ids(i) && !contains(groupPropIds, size, propIds(j))) {
+            group(size) = j
+            groupPropIds(size) = propIds(j)
+            pending(j) = false
+            size += 1
+          }
+          j += 1
+        }
+
+        if (size == 1) {
+          properties(i).setCachedProperty(ctx, properties(i).property(state, ids(i), propIds(i)))
+        } else {
+          val values = properties(i).properties(state, ids(i), java.util.Arrays.copyOf(groupPropIds, size))
+          var k = 0
+          while (k < size) {
+            properties(group(k)).setCachedProperty(ctx, values(k))
+            k += 1
+          }
+        }
+      }
+      i += 1
+    }
+  }
+
+  private def contains(propIds: Array[Int], size: Int, propId: Int): Boolean = {
+    var i = 0
+    while (i < size && propIds(i) != propId) {
+      i += 1
+    }
+    i < size
+  }
+}
@@ -536,9 +536,9 @@ abstract class CachePropertiesTestBase[CONTEXT <: RuntimeContext](
     // DB hits in cache properties
     val cachePropsDBHits1 = resultNoTokenUpdates.runtimeResult.queryProfile().operatorProfile(2).dbHits()
     if (tokenLookupDbHits == 1) {
-      // For existing properties: one db to get property value.
+      // For existing properties: one db hit to get all property values of the node.
       // For properties which doesn't have a resolved token: 1 db hit to resolve token
-      cachePropsDBHits1 shouldBe numStoreProperties + numUnresolvedPropertyTokens
+      cachePropsDBHits1 shouldBe 1 + numUnresolvedPropertyTokens
     } else {
       cachePropsDBHits1 should be >= 0L
     }
@@ -564,9 +564,9 @@ abstract class CachePropertiesTestBase[CONTEXT <: RuntimeContext](
     // DB hits in cache properties
     val cachePropsDBHits2 = resultTokenWithUpdates.runtimeResult.queryProfile().operatorProfile(2).dbHits()
     if (tokenLookupDbHits == 1) {
-      // For existing properties: one db to get property value.
+      // For existing properties: one db hit to get all property values of the node.
       // For properties which doesn't have a resolved token: 1 db hit to resolve token
-      cachePropsDBHits2 shouldBe numExistingProperties + numUnresolvedPropertyTokens
+      cachePropsDBHits2 shouldBe 1 + numUnresolvedPropertyTokens
     } else {
       cachePropsDBHits2 should be >= cachePropsDBHits1
     }
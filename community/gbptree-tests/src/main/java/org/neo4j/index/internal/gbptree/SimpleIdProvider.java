@@ -51,6 +51,16 @@ public class SimpleIdProvider implements IdProvider {
         return lastId;
     }
 
+    @Override
+    public long acquireNewIdBelow(
+            long limit, long stableGeneration, long unstableGeneration, CursorCreator cursorCreator) {
+        Pair<Long, Long> free = releasedIds.peek();
+        if (free == null || free.getLeft() > stableGeneration || free.getRight() >= limit) {
+            return FreelistNode.NO_PAGE_ID;
+        }
+        return acquireNewId(stableGeneration, unstableGeneration, cursorCreator);
+    }
+
     @Override
     public void releaseId(long stableGeneration, long unstableGeneration, long id, CursorCreator cursorCreator) {
         releasedIds.add(Pair.of(unstableGeneration, id));
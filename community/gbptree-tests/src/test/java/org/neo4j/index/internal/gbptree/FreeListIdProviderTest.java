@@ -134,6 +134,66 @@ class FreeListIdProviderTest {
                 freelistPageId, freelist.acquireNewId(GENERATION_THREE, GENERATION_FOUR, CursorCreator.bind(cursor)));
     }
 
+    @Test
+    void shouldOnlyAcquireIdBelowLimitFromHeadOfFreeList() throws Exception {
+        // GIVEN
+        long[] ids = acquireIds(4);
+        freelist.releaseId(GENERATION_ONE, GENERATION_TWO, ids[2], CursorCreator.bind(cursor));
+        freelist.releaseId(GENERATION_ONE, GENERATION_TWO, ids[0], CursorCreator.bind(cursor));
+        freelist.flush(GENERATION_ONE, GENERATION_TWO, CursorCreator.bind(cursor));
+
+        // WHEN/THEN
+        long lastId = freelist.lastId();
+        assertEquals(
+                FreelistNode.NO_PAGE_ID,
+                freelist.acquireNewIdBelow(ids[1], GENERATION_TWO, GENERATION_THREE, CursorCreator.bind(cursor)));
+        assertEquals(
+                ids[2],
+                freelist.acquireNewIdBelow(ids[3], GENERATION_TWO, GENERATION_THREE, CursorCreator.bind(cursor)));
+        assertEquals(
+                ids[0],
+                freelist.acquireNewIdBelow(ids[3], GENERATION_TWO, GENERATION_THREE, CursorCreator.bind(cursor)));
+        assertEquals(
+                FreelistNode.NO_PAGE_ID,
+                freelist.acquireNewIdBelow(ids[3], GENERATION_TWO, GENERATION_THREE, CursorCreator.bind(cursor)));
+        assertEquals(lastId, freelist.lastId());
+    }
+
+    @Test
+    void shouldTruncateFreeTail() throws Exception {
+        // GIVEN
+        long[] ids = acquireIds(6);
+        for (long id : new long[] {ids[5], ids[1], ids[4], ids[2]}) {
+            freelist.releaseId(GENERATION_ONE, GENERATION_TWO, id, CursorCreator.bind(cursor));
+        }
+        freelist.flush(GENERATION_ONE, GENERATION_TWO, CursorCreator.bind(cursor));
+
+        // WHEN
+        long lastId = freelist.truncateFreeTail(GENERATION_TWO, CursorCreator.bind(cursor));
+        freelist.flush(GENERATION_TWO, GENERATION_THREE, CursorCreator.bind(cursor));
+
+        // THEN
+        assertEquals(ids[3], lastId);
+        assertEquals(ids[3], freelist.lastId());
+        assertEquals(ids[1], freelist.acquireNewId(GENERATION_THREE, GENERATION_FOUR, CursorCreator.bind(cursor)));
+        assertEquals(ids[2], freelist.acquireNewId(GENERATION_THREE, GENERATION_FOUR, CursorCreator.bind(cursor)));
+        assertEquals(ids[4], freelist.acquireNewId(GENERATION_THREE, GENERATION_FOUR, CursorCreator.bind(cursor)));
+    }
+
+    @Test
+    void shouldNotTruncateIdsReleasedInUnstableGeneration() throws Exception {
+        // GIVEN
+        long[] ids = acquireIds(3);
+        freelist.releaseId(GENERATION_ONE, GENERATION_TWO, ids[2], CursorCreator.bind(cursor));
+        freelist.flush(GENERATION_ONE, GENERATION_TWO, CursorCreator.bind(cursor));
+
+        // WHEN
+        long lastId = freelist.truncateFreeTail(GENERATION_ONE, CursorCreator.bind(cursor));
+
+        // THEN
+        assertEquals(ids[2], lastId);
+    }
+
     @Test
     void shouldStayBoundUnderStress() throws Exception {
         // GIVEN
@@ -414,6 +474,14 @@ class FreeListIdProviderTest {
         cursor.putBytes(crapData);
     }
 
+    private long[] acquireIds(int count) throws IOException {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = freelist.acquireNewId(GENERATION_ONE, GENERATION_TWO, CursorCreator.bind(cursor));
+        }
+        return ids;
+    }
+
     private static void assertEmpty(PageCursor cursor) {
         byte[] data = new byte[PAYLOAD_SIZE];
         cursor.getBytes(data);
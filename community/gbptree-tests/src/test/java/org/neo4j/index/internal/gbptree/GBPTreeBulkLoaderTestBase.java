@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static java.lang.String.format;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.index.internal.gbptree.DataTree.W_BATCHED_SINGLE_THREADED;
+import static org.neo4j.index.internal.gbptree.GBPTreeTestUtil.consistencyCheckStrict;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@PageCacheExtension
+@ExtendWith(RandomExtension.class)
+abstract class GBPTreeBulkLoaderTestBase<KEY, VALUE> {
+    @Inject
+    private PageCache pageCache;
+
+    @Inject
+    private TestDirectory directory;
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+
+    @Inject
+    private RandomSupport random;
+
+    private TestLayout<KEY, VALUE> layout;
+    private Path indexFile;
+
+    abstract TestLayout<KEY, VALUE> getLayout(RandomSupport random, int payloadSize);
+
+    @BeforeEach
+    void setUp() {
+        indexFile = directory.file("index");
+        layout = getLayout(random, GBPTreeTestUtil.calculatePayloadSize(pageCache, Sets.immutable.empty()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.5, 0.8, 1})
+    void shouldSeeAllBulkLoadedEntries(double fillFactor) throws IOException {
+        // given
+        int count = 50_000;
+        try (GBPTree<KEY, VALUE> index = index()) {
+            // when
+            bulkLoad(index, 0, count, fillFactor);
+
+            // then
+            assertContainsExactly(index, 0, count);
+            assertTrue(consistencyCheckStrict(index));
+        }
+    }
+
+    @Test
+    void shouldSeeBulkLoadedEntriesAfterCheckpointAndRestart() throws IOException {
+        // given
+        int count = 10_000;
+        try (GBPTree<KEY, VALUE> index = index()) {
+            bulkLoad(index, 0, count, 1);
+            index.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+        }
+
+        // when
+        try (GBPTree<KEY, VALUE> index = index()) {
+            // then
+            assertContainsExactly(index, 0, count);
+            assertTrue(consistencyCheckStrict(index));
+        }
+    }
+
+    @Test
+    void shouldAllowRegularWritesAfterBulkLoad() throws IOException {
+        // given
+        int count = 10_000;
+        try (GBPTree<KEY, VALUE> index = index()) {
+            bulkLoad(index, 0, count, 1);
+
+            // when
+            try (Writer<KEY, VALUE> writer = index.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT)) {
+                for (int i = count; i < count * 2; i++) {
+                    writer.put(key(i), value(i));
+                }
+            }
+
+            // then
+            assertContainsExactly(index, 0, count * 2);
+            assertTrue(consistencyCheckStrict(index));
+        }
+    }
+
+    @Test
+    void shouldPackLeavesAccordingToFillFactor() throws IOException {
+        // given
+        int count = 50_000;
+        long packedSize;
+        try (GBPTree<KEY, VALUE> index = index()) {
+            bulkLoad(index, 0, count, 1);
+            index.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+            packedSize = index.sizeInBytes();
+        }
+        fileSystem.deleteFile(indexFile);
+
+        // when
+        long halfFullSize;
+        try (GBPTree<KEY, VALUE> index = index()) {
+            bulkLoad(index, 0, count, 0.5);
+            index.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+            halfFullSize = index.sizeInBytes();
+        }
+
+        // then
+        assertThat(halfFullSize).isGreaterThan(packedSize);
+    }
+
+    @Test
+    void shouldNotPublishAnythingIfKeysAreNotAscending() throws IOException {
+        try (GBPTree<KEY, VALUE> index = index()) {
+            // when
+            try (BulkLoader<KEY, VALUE> loader = index.bulkLoader(1, NULL_CONTEXT)) {
+                for (int i = 0; i < 1_000; i++) {
+                    loader.add(key(i), value(i));
+                }
+                assertThrows(IllegalArgumentException.class, () -> loader.add(key(10), value(10)));
+            }
+
+            // then
+            assertContainsExactly(index, 0, 0);
+            assertTrue(consistencyCheckStrict(index));
+        }
+    }
+
+    @Test
+    void shouldNotBulkLoadIntoNonEmptyTree() throws IOException {
+        try (GBPTree<KEY, VALUE> index = index()) {
+            // given
+            try (Writer<KEY, VALUE> writer = index.writer(NULL_CONTEXT)) {
+                writer.put(key(0), value(0));
+            }
+
+            // when/then
+            assertThrows(IllegalStateException.class, () -> index.bulkLoader(1, NULL_CONTEXT));
+            // and the writer lock should have been released
+            try (Writer<KEY, VALUE> writer = index.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT)) {
+                writer.put(key(1), value(1));
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidFillFactor() throws IOException {
+        try (GBPTree<KEY, VALUE> index = index()) {
+            assertThrows(IllegalArgumentException.class, () -> index.bulkLoader(0, NULL_CONTEXT));
+            assertThrows(IllegalArgumentException.class, () -> index.bulkLoader(1.1, NULL_CONTEXT));
+        }
+    }
+
+    private void bulkLoad(GBPTree<KEY, VALUE> index, int from, int to, double fillFactor) throws IOException {
+        try (BulkLoader<KEY, VALUE> loader = index.bulkLoader(fillFactor, NULL_CONTEXT)) {
+            for (int i = from; i < to; i++) {
+                loader.add(key(i), value(i));
+            }
+        }
+    }
+
+    private void assertContainsExactly(GBPTree<KEY, VALUE> index, int from, int to) throws IOException {
+        try (Seeker<KEY, VALUE> cursor = index.seek(key(0), key(Long.MAX_VALUE), NULL_CONTEXT)) {
+            for (int i = from; i < to; i++) {
+                assertTrue(cursor.next());
+                assertEqualsKey(key(i), cursor.key());
+                assertEquals(i, layout.valueSeed(cursor.value()));
+            }
+            assertFalse(cursor.next());
+        }
+    }
+
+    private GBPTree<KEY, VALUE> index() {
+        return new GBPTreeBuilder<>(pageCache, fileSystem, indexFile, layout).build();
+    }
+
+    private VALUE value(long seed) {
+        return layout.value(seed);
+    }
+
+    private KEY key(long seed) {
+        return layout.key(seed);
+    }
+
+    private void assertEqualsKey(KEY expected, KEY actual) {
+        assertEquals(
+                0,
+                layout.compare(expected, actual),
+                format("expected equal, expected=%s, actual=%s", expected, actual));
+    }
+}
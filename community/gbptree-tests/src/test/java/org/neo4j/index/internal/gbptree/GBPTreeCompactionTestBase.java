@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static java.lang.String.format;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.index.internal.gbptree.GBPTreeTestUtil.consistencyCheckStrict;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.test.OtherThreadExecutor;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@PageCacheExtension
+@ExtendWith(RandomExtension.class)
+abstract class GBPTreeCompactionTestBase<KEY, VALUE> {
+    @Inject
+    private PageCache pageCache;
+
+    @Inject
+    private TestDirectory directory;
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+
+    @Inject
+    private RandomSupport random;
+
+    private TestLayout<KEY, VALUE> layout;
+    private Path indexFile;
+
+    abstract TestLayout<KEY, VALUE> getLayout(RandomSupport random, int payloadSize);
+
+    @BeforeEach
+    void setUp() {
+        indexFile = directory.file("index");
+        layout = getLayout(random, GBPTreeTestUtil.calculatePayloadSize(pageCache, Sets.immutable.empty()));
+    }
+
+    @Test
+    void shouldMergeSparseLeavesAndKeepRemainingEntries() throws IOException {
+        try (GBPTree<KEY, VALUE> index = index()) {
+            // given
+            int count = 20_000;
+            insert(index, 0, count);
+            removeAllButEveryThird(index, 0, count);
+
+            // when
+            CompactionStatistics statistics = index.compact(IOController.DISABLED, NULL_CONTEXT);
+
+            // then
+            assertThat(statistics.leafCountBefore()).isGreaterThan(1);
+            assertThat(statistics.leafCountAfter()).isLessThan(statistics.leafCountBefore());
+            assertThat(statistics.mergedLeaves()).isPositive();
+            assertThat(statistics.fillFactorAfter()).isGreaterThan(statistics.fillFactorBefore());
+            assertThat(statistics.fillFactorAfter()).isLessThanOrEqualTo(1);
+            assertContainsEveryThird(index, 0, count);
+            assertTrue(consistencyCheckStrict(index));
+        }
+    }
+
+    @Test
+    void shouldNotMergeAnythingWhenCompactingTwice() throws IOException {
+        try (GBPTree<KEY, VALUE> index = index()) {
+            // given
+            int count = 10_000;
+            insert(index, 0, count);
+            removeAllButEveryThird(index, 0, count);
+            CompactionStatistics first = index.compact(IOController.DISABLED, NULL_CONTEXT);
+
+            // when
+            CompactionStatistics second = index.compact(IOController.DISABLED, NULL_CONTEXT);
+
+            // then
+            assertEquals(0, second.mergedLeaves());
+            assertEquals(first.leafCountAfter(), second.leafCountBefore());
+            assertEquals(second.fillFactorBefore(), second.fillFactorAfter());
+            assertContainsEveryThird(index, 0, count);
+            assertTrue(consistencyCheckStrict(index));
+        }
+    }
+
+    @Test
+    void shouldCompactEmptyTree() throws IOException {
+        try (GBPTree<KEY, VALUE> index = index()) {
+            // when
+            CompactionStatistics statistics = index.compact(IOController.DISABLED, NULL_CONTEXT);
+
+            // then
+            assertEquals(1, statistics.leafCountBefore());
+            assertEquals(1, statistics.leafCountAfter());
+            assertEquals(0, statistics.fillFactorAfter());
+            assertTrue(consistencyCheckStrict(index));
+        }
+    }
+
+    @Test
+    void shouldReuseReleasedLeavesForLaterInserts() throws IOException {
+        try (GBPTree<KEY, VALUE> index = index()) {
+            // given
+            int count = 20_000;
+            insert(index, 0, count);
+            removeAllButEveryThird(index, 0, count);
+            index.compact(IOController.DISABLED, NULL_CONTEXT);
+            index.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+            long sizeAfterCompaction = index.sizeInBytes();
+
+            // when
+            insert(index, count, count + count / 10);
+            index.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+
+            // then
+            assertEquals(sizeAfterCompaction, index.sizeInBytes());
+            assertTrue(consistencyCheckStrict(index));
+        }
+    }
+
+    @Test
+    void shouldTruncateFreeTailOfFileOnCheckpointAfterCompaction() throws IOException {
+        long sizeAfterCompaction;
+        int count = 20_000;
+        try (GBPTree<KEY, VALUE> index = index()) {
+            // given
+            insert(index, 0, count);
+            index.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+            removeAllButEveryThird(index, 0, count);
+            index.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+            long sizeBeforeCompaction = index.sizeInBytes();
+
+            // when
+            CompactionStatistics statistics = index.compact(IOController.DISABLED, NULL_CONTEXT);
+            index.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+
+            // then
+            assertThat(statistics.relocatedLeaves()).isPositive();
+            sizeAfterCompaction = index.sizeInBytes();
+            assertThat(sizeAfterCompaction).isLessThan(sizeBeforeCompaction);
+            assertContainsEveryThird(index, 0, count);
+            assertTrue(consistencyCheckStrict(index));
+        }
+
+        try (GBPTree<KEY, VALUE> index = index()) {
+            // then the truncated state is what's opened
+            assertEquals(sizeAfterCompaction, index.sizeInBytes());
+            assertContainsEveryThird(index, 0, count);
+            assertTrue(consistencyCheckStrict(index));
+
+            // and the tree can grow again
+            insert(index, count, count * 2);
+            index.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+            assertTrue(consistencyCheckStrict(index));
+        }
+    }
+
+    @Test
+    void shouldCompactConcurrentlyWithOtherWriters() throws Exception {
+        try (GBPTree<KEY, VALUE> index = index();
+                OtherThreadExecutor t2 = new OtherThreadExecutor("T2")) {
+            // given
+            int count = 20_000;
+            insert(index, 0, count);
+            removeAllButEveryThird(index, 0, count);
+
+            // when
+            Future<Void> inserts = t2.executeDontWait(() -> {
+                insert(index, count, count * 2);
+                return null;
+            });
+            index.compact(IOController.DISABLED, NULL_CONTEXT);
+            inserts.get();
+
+            // then
+            assertContainsEveryThird(index, 0, count);
+            try (Seeker<KEY, VALUE> cursor = index.seek(key(count), key(Long.MAX_VALUE), NULL_CONTEXT)) {
+                for (int i = count; i < count * 2; i++) {
+                    assertTrue(cursor.next());
+                    assertEqualsKey(key(i), cursor.key());
+                }
+                assertFalse(cursor.next());
+            }
+            assertTrue(consistencyCheckStrict(index));
+        }
+    }
+
+    private void insert(GBPTree<KEY, VALUE> index, int from, int to) throws IOException {
+        try (Writer<KEY, VALUE> writer = index.writer(NULL_CONTEXT)) {
+            for (int i = from; i < to; i++) {
+                writer.put(key(i), value(i));
+            }
+        }
+    }
+
+    private void removeAllButEveryThird(GBPTree<KEY, VALUE> index, int from, int to) throws IOException {
+        try (Writer<KEY, VALUE> writer = index.writer(NULL_CONTEXT)) {
+            for (int i = from; i < to; i++) {
+                if (i % 3 != 0) {
+                    writer.remove(key(i));
+                }
+            }
+        }
+    }
+
+    private void assertContainsEveryThird(GBPTree<KEY, VALUE> index, int from, int to) throws IOException {
+        try (Seeker<KEY, VALUE> cursor = index.seek(key(from), key(to), NULL_CONTEXT)) {
+            for (int i = from; i < to; i += 3) {
+                assertTrue(cursor.next());
+                assertEqualsKey(key(i), cursor.key());
+                assertEquals(i, layout.valueSeed(cursor.value()));
+            }
+            assertFalse(cursor.next());
+        }
+    }
+
+    private GBPTree<KEY, VALUE> index() {
+        return new GBPTreeBuilder<>(pageCache, fileSystem, indexFile, layout).build();
+    }
+
+    private VALUE value(long seed) {
+        return layout.value(seed);
+    }
+
+    private KEY key(long seed) {
+        return layout.key(seed);
+    }
+
+    private void assertEqualsKey(KEY expected, KEY actual) {
+        assertEquals(
+                0,
+                layout.compare(expected, actual),
+                format("expected equal, expected=%s, actual=%s", expected, actual));
+    }
+}
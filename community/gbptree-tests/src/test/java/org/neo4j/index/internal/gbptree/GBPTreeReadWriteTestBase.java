@@ -127,6 +127,40 @@ abstract class GBPTreeReadWriteTestBase<KEY, VALUE> {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("pageSizes")
+    @SuppressWarnings("unchecked")
+    void shouldSeeInsertionsWithMultiSeekExactMatch(int pageSize) throws Exception {
+        setupTest(pageSize);
+        try (GBPTree<KEY, VALUE> index = index()) {
+            int count = 1000;
+            try (Writer<KEY, VALUE> writer = index.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT)) {
+                for (int i = 0; i < count; i++) {
+                    writer.put(key(i * 2), value(i * 2));
+                }
+            }
+
+            List<KEY> lookups = new ArrayList<>();
+            List<KEY> expected = new ArrayList<>();
+            for (int i = 0; i < count * 2; i++) {
+                if (random.nextInt(4) == 0) {
+                    lookups.add(key(i));
+                    if (i % 2 == 0) {
+                        expected.add(key(i));
+                    }
+                }
+            }
+            KEY[] keys = lookups.toArray((KEY[]) new Object[0]);
+            try (Seeker<KEY, VALUE> cursor = index.multiSeek(keys, keys, NULL_CONTEXT)) {
+                for (KEY key : expected) {
+                    assertTrue(cursor.next());
+                    assertEqualsKey(key, cursor.key());
+                }
+                assertFalse(cursor.next());
+            }
+        }
+    }
+
     /* Randomized tests */
 
     @ParameterizedTest
@@ -236,6 +236,61 @@ class GBPTreeWriterTest {
         }
     }
 
+    @Test
+    void shouldNotRemoveOptimisticallyFromLeafChangedByOtherWriterInBetweenOperations() throws Exception {
+        // given a tree where the leaves are full, the middle one having the keys [maxKeyCount, 2 * maxKeyCount)
+        var leaf = new LeafNodeFixedSize<>(pageCache.pageSize(), layout);
+        int maxKeyCount = leaf.maxKeyCount();
+        int minKeyCount = maxKeyCount;
+        while (!leaf.underflow(null, minKeyCount - 1)) {
+            minKeyCount--;
+        }
+        long firstRemovedByOther = maxKeyCount + 1;
+        long lastRemovedByOther = 2L * maxKeyCount - minKeyCount - 1;
+        long lastKeyInLeaf = 2L * maxKeyCount - 1;
+        long numKeys = 3L * maxKeyCount;
+        try (var tree = new GBPTreeBuilder<>(pageCache, fileSystem, directory.file("index"), layout).build();
+                var t2 = new OtherThreadExecutor("T2")) {
+            try (var writer = tree.writer(W_SPLIT_KEEP_ALL_LEFT, NULL_CONTEXT)) {
+                for (long key = 0; key < numKeys; key++) {
+                    writer.put(new MutableLong(key), new MutableLong(key));
+                }
+            }
+
+            try (var writer1 = tree.writer(NULL_CONTEXT)) {
+                // when a writer removes from the leaf and keeps the path to it
+                writer1.remove(new MutableLong(maxKeyCount));
+
+                // and another writer removes from the same leaf down to the least amount of keys not underflowing it
+                t2.execute(() -> {
+                    try (var writer2 = tree.writer(NULL_CONTEXT)) {
+                        for (long key = firstRemovedByOther; key <= lastRemovedByOther; key++) {
+                            writer2.remove(new MutableLong(key));
+                        }
+                    }
+                    return null;
+                });
+
+                // and the first writer removes again from the leaf, now making it underflow
+                writer1.remove(new MutableLong(lastKeyInLeaf));
+            }
+
+            // then the underflow should have been handled and the rest of the data should be there
+            try (var seek = tree.seek(new MutableLong(0), new MutableLong(numKeys), NULL_CONTEXT)) {
+                for (long expected = 0; expected < numKeys; expected++) {
+                    if (expected == maxKeyCount
+                            || (expected >= firstRemovedByOther && expected <= lastRemovedByOther)
+                            || expected == lastKeyInLeaf) {
+                        continue;
+                    }
+                    assertThat(seek.next()).isTrue();
+                    assertThat(seek.key().longValue()).isEqualTo(expected);
+                }
+                assertThat(seek.next()).isFalse();
+            }
+        }
+    }
+
     private static void assertZeroCursor(CursorContext cursorContext) {
         var cursorTracer = cursorContext.getCursorTracer();
         assertThat(cursorTracer.pins()).isZero();
@@ -19,6 +19,7 @@
  */
 package org.neo4j.index.internal.gbptree;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -426,4 +427,109 @@ class LatchCrabbingCoordinationTest {
         // then
         assertFalse(splitLeafAllowed);
     }
+
+    @Test
+    void shouldReleaseLatchesInBetweenOptimisticOperations() {
+        // given
+        var realLatchService = new TreeNodeLatchService();
+        try (var optimistic = coordination(realLatchService)) {
+            optimisticallyGoDownToLeaf(optimistic, 1L, 2L);
+
+            // when
+            assertFalse(optimistic.checkForceReset());
+
+            // then
+            assertWriteLatchable(realLatchService, 1L, true);
+            assertWriteLatchable(realLatchService, 2L, true);
+        }
+    }
+
+    @Test
+    void shouldKeepPathForNextOperationIfUnchanged() {
+        // given
+        var realLatchService = new TreeNodeLatchService();
+        try (var optimistic = coordination(realLatchService)) {
+            optimisticallyGoDownToLeaf(optimistic, 1L, 2L);
+            assertFalse(optimistic.checkForceReset());
+
+            // when
+            boolean pathKept = optimistic.beginOperation();
+
+            // then
+            assertTrue(pathKept);
+            assertWriteLatchable(realLatchService, 2L, false);
+        }
+    }
+
+    @Test
+    void shouldNotKeepPathForNextOperationIfLeafChanged() {
+        // given
+        var realLatchService = new TreeNodeLatchService();
+        try (var optimistic = coordination(realLatchService)) {
+            optimisticallyGoDownToLeaf(optimistic, 1L, 2L);
+            assertFalse(optimistic.checkForceReset());
+            assertWriteLatchable(realLatchService, 2L, true);
+
+            // when
+            boolean pathKept = optimistic.beginOperation();
+
+            // then
+            assertFalse(pathKept);
+            assertWriteLatchable(realLatchService, 1L, true);
+            assertWriteLatchable(realLatchService, 2L, true);
+        }
+    }
+
+    @Test
+    void shouldNotKeepPathForNextOperationIfInternalNodeChanged() {
+        // given
+        var realLatchService = new TreeNodeLatchService();
+        try (var optimistic = coordination(realLatchService);
+                var pessimistic = coordination(realLatchService)) {
+            optimisticallyGoDownToLeaf(optimistic, 1L, 2L);
+            assertFalse(optimistic.checkForceReset());
+            pessimistic.flipToPessimisticMode();
+            pessimistic.beforeTraversingToChild(1L, 2);
+            assertTrue(pessimistic.arrivedAtChild(true, MERGE_THRESHOLD / 2, false, 5));
+            pessimistic.beforeTraversingToChild(3L, 2);
+            assertTrue(pessimistic.arrivedAtChild(false, MERGE_THRESHOLD / 2, false, 5));
+            assertTrue(pessimistic.checkForceReset());
+            pessimistic.reset();
+
+            // when
+            boolean pathKept = optimistic.beginOperation();
+
+            // then
+            assertFalse(pathKept);
+            assertWriteLatchable(realLatchService, 1L, true);
+            assertWriteLatchable(realLatchService, 2L, true);
+        }
+    }
+
+    private static LatchCrabbingCoordination coordination(TreeNodeLatchService latchService) {
+        var coordination = new LatchCrabbingCoordination(latchService, MERGE_THRESHOLD, DEFAULT_RESET_FREQUENCY);
+        coordination.initialize(mock(PageCursor.class));
+        return coordination;
+    }
+
+    private static void optimisticallyGoDownToLeaf(LatchCrabbingCoordination coordination, long parent, long leaf) {
+        assertTrue(coordination.beginOperation());
+        coordination.beforeTraversingToChild(parent, 0);
+        assertTrue(coordination.arrivedAtChild(true, MERGE_THRESHOLD / 2, false, 5));
+        coordination.beforeTraversingToChild(leaf, 1);
+        assertTrue(coordination.arrivedAtChild(false, MERGE_THRESHOLD / 2, false, 5));
+    }
+
+    private static void assertWriteLatchable(TreeNodeLatchService latchService, long treeNodeId, boolean expected) {
+        var latch = latchService.latch(treeNodeId);
+        try {
+            boolean acquired = latch.tryAcquireWrite();
+            if (acquired) {
+                latch.releaseWrite();
+            }
+            assertEquals(expected, acquired);
+        } finally {
+            latch.deref();
+        }
+    }
 }
@@ -231,6 +231,25 @@ class LongSpinLatchTest extends LatchTestBase {
         latch.releaseRead();
     }
 
+    @Test
+    void shouldChangeVersionOnWriteRelease() {
+        // given
+        LongSpinLatch latch = latch();
+        long versionBefore = latch.version();
+        latch.acquireRead();
+        latch.releaseRead();
+        assertEquals(versionBefore, latch.version());
+
+        // when
+        latch.acquireWrite();
+        assertEquals(versionBefore, latch.version());
+        long versionAfterRelease = latch.releaseWrite();
+
+        // then
+        assertEquals(versionBefore + 1, versionAfterRelease);
+        assertEquals(versionAfterRelease, latch.version());
+    }
+
     private LongSpinLatch latch() {
         return new LongSpinLatch(1, removeAction);
     }
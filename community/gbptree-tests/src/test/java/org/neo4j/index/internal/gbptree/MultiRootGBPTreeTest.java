@@ -47,7 +47,10 @@ import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -197,6 +200,59 @@ class MultiRootGBPTreeTest {
         assertSeek(externalId2, 1_000, 100);
     }
 
+    @Test
+    void shouldBulkLoadExternalRoots() throws IOException {
+        // given
+        var externalId1 = 101;
+        var externalId2 = 979;
+        tree.create(rootKeyLayout.key(externalId1), NULL_CONTEXT);
+        tree.create(rootKeyLayout.key(externalId2), NULL_CONTEXT);
+
+        // when
+        bulkLoadData(externalId1, 1, 10_000);
+        insertData(externalId2, 1_000, 100);
+
+        // then
+        assertSeek(externalId1, 1, 10_000);
+        assertSeek(externalId2, 1_000, 100);
+    }
+
+    @Test
+    void shouldKeepWritersOnBulkLoadedRootWaitingUntilLoaderIsClosed() throws Exception {
+        // given
+        var externalId = 101;
+        var otherExternalId = 979;
+        tree.create(rootKeyLayout.key(externalId), NULL_CONTEXT);
+        tree.create(rootKeyLayout.key(otherExternalId), NULL_CONTEXT);
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> write;
+            try (var loader = tree.access(rootKeyLayout.key(externalId)).bulkLoader(1, NULL_CONTEXT)) {
+                for (var i = 1; i < 10_000; i++) {
+                    loader.add(layout.key(i), layout.value(i));
+                }
+
+                // when
+                write = executor.submit(throwing(() -> {
+                    try (var writer = tree.access(rootKeyLayout.key(externalId)).writer(NULL_CONTEXT)) {
+                        writer.put(layout.key(10_000), layout.value(10_000));
+                    }
+                }));
+
+                // then writers on other roots are unaffected, whereas the one on the loaded root has to wait
+                insertData(otherExternalId, 1_000, 100);
+                assertThatThrownBy(() -> write.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+            }
+            write.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        // and the write went into the bulk loaded tree
+        assertSeek(externalId, 1, 10_000);
+        assertSeek(otherExternalId, 1_000, 100);
+    }
+
     @Test
     void shouldFailCreatingExistingRoot() throws IOException {
         // given
@@ -869,6 +925,14 @@ class MultiRootGBPTreeTest {
         }
     }
 
+    private void bulkLoadData(long externalId, long startSeed, int count) throws IOException {
+        try (var loader = tree.access(rootKeyLayout.key(externalId)).bulkLoader(1, NULL_CONTEXT)) {
+            for (var i = 0; i < count; i++) {
+                loader.add(layout.key(startSeed + i), layout.value(startSeed + i));
+            }
+        }
+    }
+
     private Seeker<RawBytes, RawBytes> allSeek(long key) throws IOException {
         var low = layout.newKey();
         var high = layout.newKey();
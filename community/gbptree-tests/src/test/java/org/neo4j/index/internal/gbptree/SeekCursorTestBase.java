@@ -42,11 +42,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import org.apache.commons.lang3.mutable.MutableBoolean;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageCursorUtil;
+import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.impl.DelegatingPageCursor;
 import org.neo4j.test.RandomSupport;
 import org.neo4j.test.extension.Inject;
@@ -1951,6 +1953,120 @@ abstract class SeekCursorTestBase<KEY, VALUE> {
         }
     }
 
+    /* MULTI-RANGE SEEK */
+
+    @Test
+    void multiSeekMustFindRangesInSingleLeafWithoutTraversingFromRoot() throws Exception {
+        // given
+        long lastSeed = fullLeaf();
+        long[] fromInclusive = {0, 3, lastSeed - 1};
+        long[] toExclusive = {2, 3, lastSeed + 10};
+
+        // when
+        List<Long> found = new ArrayList<>();
+        try (SeekCursor<KEY, VALUE> cursor = multiSeekCursor(fromInclusive, toExclusive, failingRootCatchup)) {
+            while (cursor.next()) {
+                long seed = getSeed(cursor.key());
+                assertKeyAndValue(cursor, seed);
+                found.add(seed);
+            }
+        }
+
+        // then
+        assertThat(found).containsExactly(0L, 1L, 3L, lastSeed - 1);
+    }
+
+    @Test
+    void multiSeekMustFindExactMatchesAcrossLeaves() throws Exception {
+        // given
+        long lastSeed = 0;
+        while (numberOfRootSplits < 2) {
+            insert(lastSeed);
+            lastSeed += 2;
+        }
+        List<Long> lookups = new ArrayList<>();
+        List<Long> expected = new ArrayList<>();
+        for (long seed = -1; seed <= lastSeed; seed++) {
+            if (random.nextBoolean()) {
+                lookups.add(seed);
+                if (seed >= 0 && seed < lastSeed && seed % 2 == 0) {
+                    expected.add(seed);
+                }
+            }
+        }
+        lookups.add(lastSeed + 1);
+        long[] seeds = lookups.stream().mapToLong(Long::longValue).toArray();
+
+        // when
+        List<Long> found = new ArrayList<>();
+        try (SeekCursor<KEY, VALUE> cursor = multiSeekCursor(seeds, seeds, this::currentRoot)) {
+            while (cursor.next()) {
+                long seed = getSeed(cursor.key());
+                assertKeyAndValue(cursor, seed);
+                found.add(seed);
+            }
+        }
+
+        // then
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void multiSeekMustFindRangesAcrossLeaves() throws Exception {
+        // given
+        long lastSeed = 0;
+        while (numberOfRootSplits < 2) {
+            insert(lastSeed++);
+        }
+        List<Long> from = new ArrayList<>();
+        List<Long> to = new ArrayList<>();
+        List<Long> expected = new ArrayList<>();
+        long next = random.nextLong(3);
+        while (next < lastSeed) {
+            long end = next + 1 + random.nextLong(lastSeed / 3);
+            from.add(next);
+            to.add(end);
+            for (long seed = next; seed < end && seed < lastSeed; seed++) {
+                expected.add(seed);
+            }
+            next = end + random.nextLong(lastSeed / 4);
+        }
+        Assumptions.assumeFalse(from.isEmpty());
+
+        // when
+        List<Long> found = new ArrayList<>();
+        try (SeekCursor<KEY, VALUE> cursor = multiSeekCursor(
+                from.stream().mapToLong(Long::longValue).toArray(),
+                to.stream().mapToLong(Long::longValue).toArray(),
+                this::currentRoot)) {
+            while (cursor.next()) {
+                long seed = getSeed(cursor.key());
+                assertKeyAndValue(cursor, seed);
+                found.add(seed);
+            }
+        }
+
+        // then
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void multiSeekMustNotAcceptOverlappingOrUnorderedRanges() throws Exception {
+        // given
+        fullLeaf();
+
+        // then
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> multiSeekCursor(new long[] {0, 3}, new long[] {4, 6}, failingRootCatchup));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> multiSeekCursor(new long[] {5, 1}, new long[] {5, 1}, failingRootCatchup));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> multiSeekCursor(new long[] {5}, new long[] {2}, failingRootCatchup));
+    }
+
     /* READ LEVEL */
 
     @Test
@@ -2286,6 +2402,29 @@ abstract class SeekCursorTestBase<KEY, VALUE> {
                         SeekCursor.NO_MONITOR);
     }
 
+    @SuppressWarnings("unchecked")
+    private SeekCursor<KEY, VALUE> multiSeekCursor(long[] fromInclusive, long[] toExclusive, RootCatchup rootCatchup)
+            throws IOException {
+        KEY[] fromKeys = (KEY[]) new Object[fromInclusive.length];
+        KEY[] toKeys = (KEY[]) new Object[toExclusive.length];
+        for (int i = 0; i < fromInclusive.length; i++) {
+            fromKeys[i] = key(fromInclusive[i]);
+            toKeys[i] = key(toExclusive[i]);
+        }
+        return new SeekCursor<>(cursor, layout, leaf, internal, generationSupplier, exceptionDecorator, NULL_CONTEXT)
+                .initialize(
+                        rootInitializer(unstableGeneration),
+                        rootCatchup,
+                        fromKeys,
+                        toKeys,
+                        random.nextInt(1, DEFAULT_MAX_READ_AHEAD),
+                        SeekCursor.NO_MONITOR);
+    }
+
+    private Root currentRoot(long fromId, CursorContext cursorContext) {
+        return new Root(rootId, rootGeneration);
+    }
+
     /**
      * Create a right sibling to node pointed to by cursor. Leave cursor on new right sibling when done,
      * and return id of left sibling.
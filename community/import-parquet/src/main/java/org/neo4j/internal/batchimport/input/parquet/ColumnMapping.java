@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import static java.lang.String.format;
+import static java.time.ZoneOffset.UTC;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import org.neo4j.csv.reader.CharSeeker;
+import org.neo4j.csv.reader.CharSeekers;
+import org.neo4j.csv.reader.Configuration;
+import org.neo4j.csv.reader.Extractor;
+import org.neo4j.csv.reader.Readables;
+import org.neo4j.internal.batchimport.input.Groups;
+import org.neo4j.internal.batchimport.input.HeaderException;
+import org.neo4j.internal.batchimport.input.IdType;
+import org.neo4j.internal.batchimport.input.csv.Header;
+import org.neo4j.internal.batchimport.input.csv.Type;
+import org.neo4j.internal.batchimport.input.parquet.ParquetMetadata.Column;
+import org.neo4j.internal.batchimport.input.parquet.ParquetMetadata.LogicalType;
+import org.neo4j.values.storable.DateTimeValue;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.LocalDateTimeValue;
+
+/**
+ * Maps the columns of a Parquet file to {@link Header header entries} and decides how the values of each column
+ * are converted into what the entry expects.
+ * <p>
+ * Column names use the same syntax as the header of a CSV file, e.g. {@code personId:ID(Person)}, {@code :LABEL}
+ * or {@code born:date}, and are parsed by the same {@link Header.Factory} as CSV headers would be. Property columns
+ * without a type in their name get the type of the Parquet column, so an {@code INT64} column {@code age} is
+ * imported as a {@code long} property. Values of typed columns are converted from their binary form directly,
+ * only values of string columns are ever parsed from text, e.g. labels or string columns of points.
+ *
+ * @param header the header, with one entry per column.
+ * @param columns the columns of the file.
+ * @param converters converter for each column, {@code null} for ignored columns.
+ */
+record ColumnMapping(Header header, List<Column> columns, ValueConverter[] converters) {
+    /**
+     * Converts the value of a column in a specific row into the value of its header entry.
+     */
+    @FunctionalInterface
+    interface ValueConverter {
+        /**
+         * @return the converted value, or {@code null} if there's no value.
+         */
+        Object convert(ColumnValues values, int row);
+    }
+
+    private enum Kind {
+        BOOLEAN,
+        INTEGRAL,
+        FLOATING,
+        STRING,
+        DATE,
+        TIMESTAMP
+    }
+
+    static ColumnMapping create(
+            ParquetMetadata metadata,
+            String sourceDescription,
+            Header.Factory headerFactory,
+            Configuration config,
+            IdType idType,
+            Groups groups,
+            Header.Monitor monitor) {
+        List<Column> columns = metadata.columns();
+        StringBuilder headerLine = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                headerLine.append(config.delimiter());
+            }
+            headerLine.append(quoted(headerEntry(columns.get(i)), config));
+        }
+
+        Header header;
+        try (CharSeeker seeker =
+                CharSeekers.charSeeker(Readables.wrap(sourceDescription, headerLine.toString()), config, false)) {
+            header = headerFactory.create(seeker, config, idType, groups, monitor);
+        } catch (IOException e) {
+            throw new HeaderException("Unable to read header of " + sourceDescription, e);
+        }
+        Header.Entry[] entries = header.entries();
+        if (entries.length != columns.size()) {
+            throw new HeaderException(
+                    format("Header %s of %s doesn't match its %d columns", header, sourceDescription, columns.size()));
+        }
+
+        ValueConverter[] converters = new ValueConverter[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].type() != Type.IGNORE) {
+                converters[i] = converter(entries[i], columns.get(i), sourceDescription);
+            }
+        }
+        return new ColumnMapping(header, columns, converters);
+    }
+
+    /**
+     * @return whether the columns of another file have the same names and types as the columns of this mapping,
+     * so that the mapping can be used for that file too.
+     */
+    boolean matches(List<Column> otherColumns) {
+        return columns.equals(otherColumns);
+    }
+
+    private static String headerEntry(Column column) {
+        String name = column.name();
+        if (name.isEmpty() || name.indexOf(':') >= 0) {
+            // Either ignored or has its type, or other meaning, specified explicitly
+            return name;
+        }
+        String type = inferredType(column);
+        return type != null ? name + ':' + type : name;
+    }
+
+    private static String inferredType(Column column) {
+        Kind kind = kind(column);
+        if (kind == null) {
+            return null;
+        }
+        return switch (kind) {
+            case BOOLEAN -> "boolean";
+            case INTEGRAL -> switch (column.logicalType()) {
+                case INT_8 -> "byte";
+                case INT_16 -> "short";
+                default -> column.type() == ParquetMetadata.PhysicalType.INT32 ? "int" : "long";
+            };
+            case FLOATING -> column.type() == ParquetMetadata.PhysicalType.FLOAT ? "float" : "double";
+            case STRING -> null;
+            case DATE -> "date";
+            case TIMESTAMP -> column.adjustedToUtc() ? "datetime" : "localdatetime";
+        };
+    }
+
+    private static String quoted(String entry, Configuration config) {
+        char quote = config.quotationCharacter();
+        if (entry.indexOf(config.delimiter()) < 0
+                && entry.indexOf(quote) < 0
+                && entry.indexOf('\n') < 0
+                && entry.indexOf('\r') < 0) {
+            return entry;
+        }
+        String escaped = entry.replace(String.valueOf(quote), String.valueOf(quote) + quote);
+        return quote + escaped + quote;
+    }
+
+    /**
+     * @return what kind of values the column has, or {@code null} if its values can't be imported.
+     */
+    private static Kind kind(Column column) {
+        if (column.logicalType() == LogicalType.UNSUPPORTED) {
+            return null;
+        }
+        return switch (column.type()) {
+            case BOOLEAN -> Kind.BOOLEAN;
+            case INT32 -> column.logicalType() == LogicalType.DATE ? Kind.DATE : Kind.INTEGRAL;
+            case INT64 -> switch (column.logicalType()) {
+                case TIMESTAMP_MILLIS, TIMESTAMP_MICROS, TIMESTAMP_NANOS -> Kind.TIMESTAMP;
+                default -> Kind.INTEGRAL;
+            };
+            case FLOAT, DOUBLE -> Kind.FLOATING;
+            case BYTE_ARRAY -> Kind.STRING;
+            default -> null;
+        };
+    }
+
+    private static ValueConverter converter(Header.Entry entry, Column column, String sourceDescription) {
+        Kind kind = kind(column);
+        ValueConverter converter = kind != null ? converter(kind, column, entry) : null;
+        if (converter == null) {
+            String columnType =
+                    column.type() + (column.logicalType() != LogicalType.NONE ? "(" + column.logicalType() + ")" : "");
+            throw new HeaderException(format(
+                    "Column '%s' of type %s in %s can't be imported as %s",
+                    column.name(),
+                    columnType,
+                    sourceDescription,
+                    entry.extractor() != null ? entry.extractor().name() : entry.type()));
+        }
+        return converter;
+    }
+
+    private static ValueConverter converter(Kind kind, Column column, Header.Entry entry) {
+        Extractor<?> extractor = entry.extractor();
+        String target = extractor.name().toLowerCase(Locale.ROOT);
+        switch (kind) {
+            case INTEGRAL:
+                return switch (target) {
+                    case "long" -> ColumnValues::longValue;
+                    case "int" -> (values, row) -> Math.toIntExact(values.longValue(row));
+                    case "short" -> (values, row) -> narrow(values.longValue(row), Short.MIN_VALUE, Short.MAX_VALUE)
+                            .shortValue();
+                    case "byte" -> (values, row) -> narrow(values.longValue(row), Byte.MIN_VALUE, Byte.MAX_VALUE)
+                            .byteValue();
+                    case "double" -> (values, row) -> (double) values.longValue(row);
+                    case "float" -> (values, row) -> (float) values.longValue(row);
+                    case "string" -> (values, row) -> Long.toString(values.longValue(row));
+                    default -> null;
+                };
+            case FLOATING:
+                boolean isFloat = column.type() == ParquetMetadata.PhysicalType.FLOAT;
+                return switch (target) {
+                    case "double" -> ColumnValues::doubleValue;
+                    case "float" -> (values, row) -> (float) values.doubleValue(row);
+                    case "string" -> isFloat
+                            ? (values, row) -> Float.toString((float) values.doubleValue(row))
+                            : (values, row) -> Double.toString(values.doubleValue(row));
+                    default -> null;
+                };
+            case BOOLEAN:
+                return switch (target) {
+                    case "boolean" -> (values, row) -> values.longValue(row) != 0;
+                    case "string" -> (values, row) -> Boolean.toString(values.longValue(row) != 0);
+                    default -> null;
+                };
+            case DATE:
+                return switch (target) {
+                    case "date" -> (values, row) -> DateValue.epochDate(values.longValue(row));
+                    case "string" -> (values, row) ->
+                            DateValue.epochDate(values.longValue(row)).prettyPrint();
+                    default -> null;
+                };
+            case TIMESTAMP:
+                long unitsPerSecond =
+                        switch (column.logicalType()) {
+                            case TIMESTAMP_MILLIS -> 1_000L;
+                            case TIMESTAMP_MICROS -> 1_000_000L;
+                            default -> 1_000_000_000L;
+                        };
+                long nanosPerUnit = 1_000_000_000L / unitsPerSecond;
+                return switch (target) {
+                    case "localdatetime" -> (values, row) -> {
+                        long value = values.longValue(row);
+                        return LocalDateTimeValue.localDateTime(
+                                Math.floorDiv(value, unitsPerSecond),
+                                Math.floorMod(value, unitsPerSecond) * nanosPerUnit);
+                    };
+                    case "datetime" -> (values, row) -> {
+                        long value = values.longValue(row);
+                        return DateTimeValue.datetime(
+                                Math.floorDiv(value, unitsPerSecond),
+                                Math.floorMod(value, unitsPerSecond) * nanosPerUnit,
+                                UTC);
+                    };
+                    default -> null;
+                };
+            case STRING:
+                if (target.equals("string")) {
+                    return ColumnValues::stringValue;
+                }
+                // Types which don't have a binary representation in Parquet, e.g. labels, points or durations
+                var optionalParameter = entry.optionalParameter();
+                return (values, row) -> {
+                    char[] chars = values.stringValue(row).toCharArray();
+                    return extractor.extract(chars, 0, chars.length, false, optionalParameter);
+                };
+            default:
+                return null;
+        }
+    }
+
+    private static Long narrow(long value, long min, long max) {
+        if (value < min || value > max) {
+            throw new ArithmeticException("Value " + value + " is out of range [" + min + ", " + max + "]");
+        }
+        return value;
+    }
+}
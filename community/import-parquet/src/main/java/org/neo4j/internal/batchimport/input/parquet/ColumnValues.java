@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import org.neo4j.internal.batchimport.input.parquet.ParquetMetadata.Column;
+import org.neo4j.internal.batchimport.input.parquet.ParquetMetadata.ColumnChunk;
+import org.neo4j.internal.batchimport.input.parquet.ParquetMetadata.PhysicalType;
+
+/**
+ * The decoded values of one column chunk, i.e. of one column in a row group. Values are decoded straight into
+ * primitive arrays from their binary form, integers and floating point values are never represented as text.
+ * Strings of dictionary encoded columns are decoded once per dictionary entry rather than once per row.
+ * Instances are meant to be reused for the same column across row groups, to reuse the arrays.
+ */
+final class ColumnValues {
+    private static final int PAGE_DATA = 0;
+    private static final int PAGE_DICTIONARY = 2;
+    private static final int PAGE_DATA_V2 = 3;
+
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_PLAIN_DICTIONARY = 2;
+    private static final int ENCODING_RLE = 3;
+    private static final int ENCODING_RLE_DICTIONARY = 8;
+
+    private final Column column;
+    private int size;
+    private boolean[] nulls;
+    private long[] longs;
+    private double[] doubles;
+    private String[] strings;
+
+    // Dictionary of the column chunk currently being decoded, if it has one
+    private int dictionarySize;
+    private long[] dictionaryLongs;
+    private double[] dictionaryDoubles;
+    private String[] dictionaryStrings;
+
+    ColumnValues(Column column) {
+        this.column = column;
+    }
+
+    Column column() {
+        return column;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isNull(int row) {
+        return nulls != null && nulls[row];
+    }
+
+    /**
+     * @return value of a {@code BOOLEAN}, {@code INT32} or {@code INT64} column, where booleans are {@code 0} or
+     * {@code 1}.
+     */
+    long longValue(int row) {
+        return longs[row];
+    }
+
+    /**
+     * @return value of a {@code FLOAT} or {@code DOUBLE} column.
+     */
+    double doubleValue(int row) {
+        return doubles[row];
+    }
+
+    /**
+     * @return value of a {@code BYTE_ARRAY} column.
+     */
+    String stringValue(int row) {
+        return strings[row];
+    }
+
+    /**
+     * Decodes all values of a column chunk.
+     *
+     * @param data the pages of the column chunk.
+     * @param chunk metadata of the column chunk.
+     * @param numberOfRows number of rows in the row group.
+     * @throws IOException if the data is corrupt or uses features that aren't supported.
+     */
+    void decode(ByteBuffer data, ColumnChunk chunk, int numberOfRows) throws IOException {
+        if (chunk.numberOfValues() != numberOfRows) {
+            throw new IOException("Column '" + column.name() + "' has " + chunk.numberOfValues() + " values in a row "
+                    + "group of " + numberOfRows + " rows");
+        }
+        allocate(numberOfRows);
+        dictionarySize = -1;
+        try {
+            int row = 0;
+            while (row < numberOfRows) {
+                PageHeader header = PageHeader.read(new ThriftCompactReader(data));
+                if (header.compressedSize() < 0 || header.compressedSize() > data.remaining()) {
+                    throw new IOException("Page of column '" + column.name() + "' exceeds its column chunk");
+                }
+                ByteBuffer page = data.slice(data.position(), header.compressedSize());
+                data.position(data.position() + header.compressedSize());
+                switch (header.type()) {
+                    case PAGE_DICTIONARY -> decodeDictionary(
+                            PageDecompression.decompress(chunk.codec(), page, header.uncompressedSize()),
+                            header.numberOfValues());
+                    case PAGE_DATA -> row += decodeDataPage(chunk.codec(), page, header, row, numberOfRows);
+                    case PAGE_DATA_V2 -> row += decodeDataPageV2(chunk.codec(), page, header, row, numberOfRows);
+                    default -> {
+                        // Index pages and the like carry no values
+                    }
+                }
+            }
+        } catch (BufferUnderflowException | IllegalStateException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt data in column '" + column.name() + "'", e);
+        }
+    }
+
+    private void allocate(int numberOfRows) {
+        size = numberOfRows;
+        if (column.optional()) {
+            nulls = grow(nulls, numberOfRows);
+        }
+        switch (column.type()) {
+            case BOOLEAN, INT32, INT64 -> longs =
+                    longs == null || longs.length < numberOfRows ? new long[numberOfRows] : longs;
+            case FLOAT, DOUBLE -> doubles =
+                    doubles == null || doubles.length < numberOfRows ? new double[numberOfRows] : doubles;
+            case BYTE_ARRAY -> {
+                if (strings == null || strings.length < numberOfRows) {
+                    strings = new String[numberOfRows];
+                } else {
+                    // Don't keep strings of the previous row group reachable
+                    Arrays.fill(strings, numberOfRows, strings.length, null);
+                }
+            }
+            default -> throw new IllegalArgumentException(
+                    "Column '" + column.name() + "' of type " + column.type() + " isn't supported");
+        }
+    }
+
+    private static boolean[] grow(boolean[] array, int length) {
+        return array == null || array.length < length ? new boolean[length] : array;
+    }
+
+    private int decodeDataPage(int codec, ByteBuffer compressed, PageHeader header, int row, int numberOfRows)
+            throws IOException {
+        ByteBuffer page = PageDecompression.decompress(codec, compressed, header.uncompressedSize())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        RleBitPackedDecoder definitionLevels = null;
+        if (column.optional()) {
+            int length = page.getInt();
+            definitionLevels = new RleBitPackedDecoder(page.duplicate(), length, 1);
+            page.position(page.position() + length);
+        }
+        return decodeValues(page, header.encoding(), header.numberOfValues(), definitionLevels, row, numberOfRows);
+    }
+
+    private int decodeDataPageV2(int codec, ByteBuffer page, PageHeader header, int row, int numberOfRows)
+            throws IOException {
+        // Levels are never compressed in v2 pages, only the values after them
+        page.order(ByteOrder.LITTLE_ENDIAN);
+        page.position(header.repetitionLevelsLength());
+        RleBitPackedDecoder definitionLevels = null;
+        if (column.optional()) {
+            definitionLevels = new RleBitPackedDecoder(page.duplicate(), header.definitionLevelsLength(), 1);
+        }
+        page.position(header.repetitionLevelsLength() + header.definitionLevelsLength());
+        ByteBuffer values = page.slice();
+        if (header.compressed()) {
+            int levelsLength = header.repetitionLevelsLength() + header.definitionLevelsLength();
+            values = PageDecompression.decompress(codec, values, header.uncompressedSize() - levelsLength);
+        }
+        return decodeValues(
+                values.order(ByteOrder.LITTLE_ENDIAN),
+                header.encoding(),
+                header.numberOfValues(),
+                definitionLevels,
+                row,
+                numberOfRows);
+    }
+
+    private int decodeValues(
+            ByteBuffer page,
+            int encoding,
+            int numberOfValues,
+            RleBitPackedDecoder definitionLevels,
+            int firstRow,
+            int numberOfRows)
+            throws IOException {
+        if (numberOfValues > numberOfRows - firstRow) {
+            throw new IOException("Column '" + column.name() + "' has more values than rows in its row group");
+        }
+        ValueReader reader = valueReader(page, encoding);
+        int end = firstRow + numberOfValues;
+        for (int row = firstRow; row < end; row++) {
+            if (definitionLevels != null) {
+                boolean isNull = definitionLevels.next() == 0;
+                nulls[row] = isNull;
+                if (isNull) {
+                    continue;
+                }
+            }
+            reader.read(row);
+        }
+        return numberOfValues;
+    }
+
+    @FunctionalInterface
+    private interface ValueReader {
+        void read(int row);
+    }
+
+    private ValueReader valueReader(ByteBuffer page, int encoding) throws IOException {
+        PhysicalType type = column.type();
+        switch (encoding) {
+            case ENCODING_PLAIN:
+                return switch (type) {
+                    case BOOLEAN -> {
+                        int[] bitIndex = new int[1];
+                        int start = page.position();
+                        yield row -> {
+                            int bit = bitIndex[0]++;
+                            longs[row] = (page.get(start + (bit >>> 3)) >>> (bit & 7)) & 1;
+                        };
+                    }
+                    case INT32 -> row -> longs[row] = page.getInt();
+                    case INT64 -> row -> longs[row] = page.getLong();
+                    case FLOAT -> row -> doubles[row] = page.getFloat();
+                    case DOUBLE -> row -> doubles[row] = page.getDouble();
+                    case BYTE_ARRAY -> row -> strings[row] = readPlainString(page);
+                    default -> throw unsupportedEncoding(encoding);
+                };
+            case ENCODING_PLAIN_DICTIONARY:
+            case ENCODING_RLE_DICTIONARY:
+                if (dictionarySize < 0) {
+                    throw new IOException(
+                            "Column '" + column.name() + "' is dictionary encoded, but has no dictionary");
+                }
+                int bitWidth = page.get();
+                RleBitPackedDecoder indices = new RleBitPackedDecoder(page, page.remaining(), bitWidth);
+                return switch (type) {
+                    case INT32, INT64 -> row -> longs[row] = dictionaryLongs[dictionaryIndex(indices)];
+                    case FLOAT, DOUBLE -> row -> doubles[row] = dictionaryDoubles[dictionaryIndex(indices)];
+                    case BYTE_ARRAY -> row -> strings[row] = dictionaryStrings[dictionaryIndex(indices)];
+                    default -> throw unsupportedEncoding(encoding);
+                };
+            case ENCODING_RLE:
+                if (type != PhysicalType.BOOLEAN) {
+                    throw unsupportedEncoding(encoding);
+                }
+                int length = page.getInt();
+                RleBitPackedDecoder booleans = new RleBitPackedDecoder(page, length, 1);
+                return row -> longs[row] = booleans.next();
+            default:
+                throw unsupportedEncoding(encoding);
+        }
+    }
+
+    private int dictionaryIndex(RleBitPackedDecoder indices) {
+        int index = indices.next();
+        if (index < 0 || index >= dictionarySize) {
+            throw new IllegalStateException("Dictionary index " + index + " out of bounds");
+        }
+        return index;
+    }
+
+    private void decodeDictionary(ByteBuffer page, int numberOfValues) throws IOException {
+        page.order(ByteOrder.LITTLE_ENDIAN);
+        switch (column.type()) {
+            case INT32 -> {
+                dictionaryLongs = new long[numberOfValues];
+                for (int i = 0; i < numberOfValues; i++) {
+                    dictionaryLongs[i] = page.getInt();
+                }
+            }
+            case INT64 -> {
+                dictionaryLongs = new long[numberOfValues];
+                for (int i = 0; i < numberOfValues; i++) {
+                    dictionaryLongs[i] = page.getLong();
+                }
+            }
+            case FLOAT -> {
+                dictionaryDoubles = new double[numberOfValues];
+                for (int i = 0; i < numberOfValues; i++) {
+                    dictionaryDoubles[i] = page.getFloat();
+                }
+            }
+            case DOUBLE -> {
+                dictionaryDoubles = new double[numberOfValues];
+                for (int i = 0; i < numberOfValues; i++) {
+                    dictionaryDoubles[i] = page.getDouble();
+                }
+            }
+            case BYTE_ARRAY -> {
+                dictionaryStrings = new String[numberOfValues];
+                for (int i = 0; i < numberOfValues; i++) {
+                    dictionaryStrings[i] = readPlainString(page);
+                }
+            }
+            default -> throw new IOException(
+                    "Column '" + column.name() + "' of type " + column.type() + " can't be dictionary encoded");
+        }
+        dictionarySize = numberOfValues;
+    }
+
+    private static String readPlainString(ByteBuffer page) {
+        int length = page.getInt();
+        if (length < 0 || length > page.remaining()) {
+            throw new IllegalStateException("String value of length " + length + " exceeds its page");
+        }
+        String value = new String(page.array(), page.arrayOffset() + page.position(), length, UTF_8);
+        page.position(page.position() + length);
+        return value;
+    }
+
+    private IOException unsupportedEncoding(int encoding) {
+        return new IOException("Column '" + column.name() + "' of type " + column.type() + " uses encoding " + encoding
+                + " which isn't supported");
+    }
+
+    /**
+     * The parts of a Parquet page header which are needed to decode the page.
+     */
+    private record PageHeader(
+            int type,
+            int uncompressedSize,
+            int compressedSize,
+            int numberOfValues,
+            int encoding,
+            int definitionLevelsLength,
+            int repetitionLevelsLength,
+            boolean compressed) {
+        static PageHeader read(ThriftCompactReader reader) {
+            int type = -1;
+            int uncompressedSize = 0;
+            int compressedSize = 0;
+            int numberOfValues = 0;
+            int encoding = ENCODING_PLAIN;
+            int definitionLevelsLength = 0;
+            int repetitionLevelsLength = 0;
+            boolean compressed = true;
+            reader.structBegin();
+            for (int field; (field = reader.nextField()) != -1; ) {
+                switch (field) {
+                    case 1 -> type = reader.readI32();
+                    case 2 -> uncompressedSize = reader.readI32();
+                    case 3 -> compressedSize = reader.readI32();
+                    case 5, 7, 8 -> {
+                        // Data page, dictionary page and data page v2 headers
+                        int headerType = field;
+                        reader.structBegin();
+                        for (int headerField; (headerField = reader.nextField()) != -1; ) {
+                            if (headerField == 1) {
+                                numberOfValues = reader.readI32();
+                            } else if (headerField == 2 && headerType != 8) {
+                                encoding = reader.readI32();
+                            } else if (headerField == 4 && headerType == 8) {
+                                encoding = reader.readI32();
+                            } else if (headerField == 5 && headerType == 8) {
+                                definitionLevelsLength = reader.readI32();
+                            } else if (headerField == 6 && headerType == 8) {
+                                repetitionLevelsLength = reader.readI32();
+                            } else if (headerField == 7 && headerType == 8) {
+                                compressed = reader.readBoolean();
+                            } else {
+                                reader.skipField();
+                            }
+                        }
+                        reader.structEnd();
+                    }
+                    default -> reader.skipField();
+                }
+            }
+            reader.structEnd();
+            return new PageHeader(
+                    type,
+                    uncompressedSize,
+                    compressedSize,
+                    numberOfValues,
+                    encoding,
+                    definitionLevelsLength,
+                    repetitionLevelsLength,
+                    compressed);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decompresses Parquet pages. Snappy, which is what most Parquet writers use by default, is implemented here
+ * since the project doesn't ship a Snappy library. Gzip is handled by the JDK.
+ */
+final class PageDecompression {
+    static final int UNCOMPRESSED = 0;
+    static final int SNAPPY = 1;
+    static final int GZIP = 2;
+
+    private static final String[] CODEC_NAMES = {"UNCOMPRESSED", "SNAPPY", "GZIP", "LZO", "BROTLI", "LZ4", "ZSTD"};
+
+    private PageDecompression() {}
+
+    static boolean isSupported(int codec) {
+        return codec == UNCOMPRESSED || codec == SNAPPY || codec == GZIP;
+    }
+
+    static String codecName(int codec) {
+        return codec >= 0 && codec < CODEC_NAMES.length ? CODEC_NAMES[codec] : "codec " + codec;
+    }
+
+    /**
+     * @param codec codec the data is compressed with.
+     * @param data the compressed data, from its position to its limit.
+     * @param uncompressedSize size of the data when uncompressed.
+     * @return the uncompressed data, which may be the given buffer if it isn't compressed.
+     * @throws IOException if the data is corrupt or compressed with an unsupported codec.
+     */
+    static ByteBuffer decompress(int codec, ByteBuffer data, int uncompressedSize) throws IOException {
+        return switch (codec) {
+            case UNCOMPRESSED -> data;
+            case SNAPPY -> ByteBuffer.wrap(snappy(data, uncompressedSize));
+            case GZIP -> ByteBuffer.wrap(gzip(data, uncompressedSize));
+            default -> throw new IOException("Unsupported compression " + codecName(codec));
+        };
+    }
+
+    private static byte[] gzip(ByteBuffer data, int uncompressedSize) throws IOException {
+        try (InputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(data.array(), data.arrayOffset() + data.position(), data.remaining()))) {
+            byte[] result = in.readNBytes(uncompressedSize);
+            if (result.length != uncompressedSize) {
+                throw new IOException("Expected " + uncompressedSize + " bytes of gzip data, got " + result.length);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Decodes the raw Snappy format: the uncompressed length as a varint, followed by elements which are either
+     * literals or copies of previously decoded data.
+     */
+    static byte[] snappy(ByteBuffer data, int uncompressedSize) throws IOException {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (shift > 28) {
+                throw new IOException("Corrupt snappy data, malformed length");
+            }
+            int b = data.get() & 0xFF;
+            length |= (b & 0x7F) << shift;
+            if (b < 0x80) {
+                break;
+            }
+        }
+        if (length != uncompressedSize) {
+            throw new IOException(
+                    "Corrupt snappy data, length " + length + " doesn't match expected " + uncompressedSize);
+        }
+
+        byte[] result = new byte[length];
+        int out = 0;
+        while (data.hasRemaining()) {
+            int tag = data.get() & 0xFF;
+            int elementLength;
+            int offset;
+            switch (tag & 0x03) {
+                case 0 -> {
+                    elementLength = tag >>> 2;
+                    if (elementLength >= 60) {
+                        // Length stored in the following 1-4 bytes
+                        int bytes = elementLength - 59;
+                        elementLength = 0;
+                        for (int i = 0; i < bytes; i++) {
+                            elementLength |= (data.get() & 0xFF) << (i * 8);
+                        }
+                    }
+                    elementLength++;
+                    if (elementLength <= 0 || elementLength > length - out || elementLength > data.remaining()) {
+                        throw new IOException("Corrupt snappy data, literal out of bounds");
+                    }
+                    data.get(result, out, elementLength);
+                    out += elementLength;
+                    continue;
+                }
+                case 1 -> {
+                    elementLength = ((tag >>> 2) & 0x07) + 4;
+                    offset = ((tag >>> 5) << 8) | (data.get() & 0xFF);
+                }
+                case 2 -> {
+                    elementLength = (tag >>> 2) + 1;
+                    offset = (data.get() & 0xFF) | (data.get() & 0xFF) << 8;
+                }
+                default -> {
+                    elementLength = (tag >>> 2) + 1;
+                    offset = (data.get() & 0xFF)
+                            | (data.get() & 0xFF) << 8
+                            | (data.get() & 0xFF) << 16
+                            | (data.get() & 0xFF) << 24;
+                }
+            }
+            if (offset <= 0 || offset > out || elementLength > length - out) {
+                throw new IOException("Corrupt snappy data, copy out of bounds");
+            }
+            // Copies may overlap the data they produce, e.g. for runs, so copy byte by byte
+            for (int i = 0; i < elementLength; i++, out++) {
+                result[out] = result[out - offset];
+            }
+        }
+        if (out != length) {
+            throw new IOException("Corrupt snappy data, got " + out + " bytes, expected " + length);
+        }
+        return result;
+    }
+}
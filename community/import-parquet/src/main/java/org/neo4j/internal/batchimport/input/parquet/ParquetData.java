@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import static org.neo4j.internal.batchimport.input.InputEntityDecorators.NO_DECORATOR;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.neo4j.internal.batchimport.input.csv.Decorator;
+
+/**
+ * A group of Parquet files sharing the same columns, the Parquet equivalent of a group of CSV files with one header.
+ * A decorator also comes with it which can specify global overrides/defaults of extracted input entities.
+ */
+public interface ParquetData {
+    List<Path> files();
+
+    Decorator decorator();
+
+    static ParquetData data(Decorator decorator, Path... files) {
+        List<Path> fileList = List.of(files);
+        return new ParquetData() {
+            @Override
+            public List<Path> files() {
+                return fileList;
+            }
+
+            @Override
+            public Decorator decorator() {
+                return decorator;
+            }
+        };
+    }
+
+    static ParquetData undecorated(Path... files) {
+        return data(NO_DECORATOR, files);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import org.neo4j.csv.reader.Configuration;
+import org.neo4j.internal.batchimport.InputIterator;
+import org.neo4j.internal.batchimport.input.Groups;
+import org.neo4j.internal.batchimport.input.HeaderException;
+import org.neo4j.internal.batchimport.input.IdType;
+import org.neo4j.internal.batchimport.input.InputChunk;
+import org.neo4j.internal.batchimport.input.csv.Decorator;
+import org.neo4j.internal.batchimport.input.csv.Header;
+import org.neo4j.internal.batchimport.input.parquet.ParquetInputChunk.RowGroupReference;
+
+/**
+ * Iterates over groups of Parquet files, handing out one row group at a time. Only picking the next row group is
+ * synchronized, reading and decoding it happens in {@link ParquetInputChunk#load(RowGroupReference)}, by the
+ * thread which called {@link #next(InputChunk)}.
+ */
+class ParquetGroupInputIterator implements InputIterator {
+    private final Iterator<ParquetData> source;
+    private final Header.Factory headerFactory;
+    private final IdType idType;
+    private final Configuration config;
+    private final Groups groups;
+    private final Header.Monitor monitor;
+
+    private Decorator decorator;
+    private Iterator<Path> files;
+    private ColumnMapping mapping;
+    private Path file;
+    private ParquetMetadata metadata;
+    private int nextRowGroup;
+
+    ParquetGroupInputIterator(
+            Iterator<ParquetData> source,
+            Header.Factory headerFactory,
+            IdType idType,
+            Configuration config,
+            Groups groups,
+            Header.Monitor monitor) {
+        this.source = source;
+        this.headerFactory = headerFactory;
+        this.idType = idType;
+        this.config = config;
+        this.groups = groups;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public ParquetInputChunk newChunk() {
+        return new ParquetInputChunk(idType);
+    }
+
+    @Override
+    public boolean next(InputChunk chunk) throws IOException {
+        RowGroupReference rowGroup = nextRowGroup();
+        if (rowGroup == null) {
+            return false;
+        }
+        ((ParquetInputChunk) chunk).load(rowGroup);
+        return true;
+    }
+
+    private synchronized RowGroupReference nextRowGroup() throws IOException {
+        while (true) {
+            if (metadata != null && nextRowGroup < metadata.rowGroups().size()) {
+                return new RowGroupReference(mapping, decorator, file, metadata, nextRowGroup++);
+            }
+            if (files != null && files.hasNext()) {
+                openFile(files.next());
+                continue;
+            }
+            if (!source.hasNext()) {
+                return null;
+            }
+            closeDecorator();
+            ParquetData data = source.next();
+            decorator = data.decorator();
+            files = data.files().iterator();
+            mapping = null;
+            metadata = null;
+        }
+    }
+
+    private void openFile(Path nextFile) throws IOException {
+        ParquetMetadata nextMetadata = ParquetMetadata.read(nextFile);
+        if (mapping == null) {
+            // The first file of a group decides the header of the whole group
+            mapping = ColumnMapping.create(
+                    nextMetadata, nextFile.toString(), headerFactory, config, idType, groups, monitor);
+        } else if (!mapping.matches(nextMetadata.columns())) {
+            throw new HeaderException("Columns of " + nextFile + " differ from the columns " + mapping.columns()
+                    + " of the other files in its group");
+        }
+        file = nextFile;
+        metadata = nextMetadata;
+        nextRowGroup = 0;
+    }
+
+    private void closeDecorator() {
+        if (decorator != null) {
+            decorator.close();
+            decorator = null;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeDecorator();
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import static org.neo4j.internal.batchimport.input.InputEntityDecorators.NO_DECORATOR;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import org.neo4j.csv.reader.Configuration;
+import org.neo4j.internal.batchimport.InputIterable;
+import org.neo4j.internal.batchimport.InputIterator;
+import org.neo4j.internal.batchimport.input.Collector;
+import org.neo4j.internal.batchimport.input.Groups;
+import org.neo4j.internal.batchimport.input.IdType;
+import org.neo4j.internal.batchimport.input.Input;
+import org.neo4j.internal.batchimport.input.InputEntity;
+import org.neo4j.internal.batchimport.input.Inputs;
+import org.neo4j.internal.batchimport.input.PropertySizeCalculator;
+import org.neo4j.internal.batchimport.input.ReadableGroups;
+import org.neo4j.internal.batchimport.input.csv.CsvInput;
+import org.neo4j.internal.batchimport.input.csv.Header;
+import org.neo4j.internal.batchimport.input.csv.Type;
+import org.neo4j.internal.batchimport.input.parquet.ParquetInputChunk.RowGroupReference;
+import org.neo4j.internal.schema.SchemaDescriptor;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.token.TokenHolders;
+import org.neo4j.util.Preconditions;
+
+/**
+ * Provides {@link Input} from data contained in Parquet files, the columnar counterpart of {@link CsvInput}.
+ * Columns are mapped to header entries by their names, which use the same syntax as CSV headers, see
+ * {@link ColumnMapping}. Each row group of each file is an {@link org.neo4j.internal.batchimport.input.InputChunk}
+ * of its own, so that row groups are read and decoded in parallel.
+ * <p>
+ * Only uncompressed, Snappy and gzip compressed files with flat schemas are supported, using the plain and
+ * dictionary encodings that Parquet writers use by default.
+ */
+public class ParquetInput implements Input {
+    private static final int ESTIMATE_SAMPLE_ROWS = 10_000;
+
+    private final Iterable<ParquetData> nodeData;
+    private final Header.Factory nodeHeaderFactory;
+    private final Iterable<ParquetData> relationshipData;
+    private final Header.Factory relationshipHeaderFactory;
+    private final IdType idType;
+    private final Configuration config;
+    private final CsvInput.Monitor monitor;
+    private final Groups groups;
+    private final MemoryTracker memoryTracker;
+
+    /**
+     * @param nodeData multiple {@link ParquetData} instances providing data, each {@link ParquetData} specifies an
+     * input group with its own columns, mapped to a header by the {@code nodeHeaderFactory}. From the outside it
+     * looks like one stream of nodes.
+     * @param nodeHeaderFactory factory for node headers, given the column names as a header line.
+     * @param relationshipData multiple {@link ParquetData} instances providing data, each {@link ParquetData}
+     * specifies an input group with its own columns, mapped to a header by the {@code relationshipHeaderFactory}.
+     * From the outside it looks like one stream of relationships.
+     * @param relationshipHeaderFactory factory for relationship headers, given the column names as a header line.
+     * @param idType {@link IdType} to expect in id fields of node and relationship input.
+     * @param config configuration for parsing the column names and values of string columns, e.g. array delimiter.
+     * @param monitor {@link CsvInput.Monitor} for internal events.
+     * @param groups {@link Groups} to register id groups in.
+     * @param memoryTracker tracker of memory used when calculating estimates.
+     */
+    public ParquetInput(
+            Iterable<ParquetData> nodeData,
+            Header.Factory nodeHeaderFactory,
+            Iterable<ParquetData> relationshipData,
+            Header.Factory relationshipHeaderFactory,
+            IdType idType,
+            Configuration config,
+            CsvInput.Monitor monitor,
+            Groups groups,
+            MemoryTracker memoryTracker) {
+        this.nodeData = nodeData;
+        this.nodeHeaderFactory = nodeHeaderFactory;
+        this.relationshipData = relationshipData;
+        this.relationshipHeaderFactory = relationshipHeaderFactory;
+        this.idType = idType;
+        this.config = config;
+        this.monitor = monitor;
+        this.groups = groups;
+        this.memoryTracker = memoryTracker;
+
+        verifyHeaders();
+        warnAboutDuplicateSourceFiles();
+    }
+
+    /**
+     * Verifies so that the columns of all input files map to sane headers. Node headers are mapped first since
+     * that registers the id groups which relationship headers refer to.
+     */
+    private void verifyHeaders() {
+        try {
+            for (ParquetData data : nodeData) {
+                Path first = firstFile(data);
+                if (first == null) {
+                    continue;
+                }
+                Header header = mapping(first, nodeHeaderFactory).header();
+                if (Arrays.stream(header.entries()).noneMatch(entry -> entry.type() == Type.LABEL)
+                        && data.decorator() == NO_DECORATOR) {
+                    monitor.noNodeLabelsSpecified(first.toString());
+                }
+                long numIdColumns = Arrays.stream(header.entries())
+                        .filter(e -> e.type() == Type.ID)
+                        .count();
+                if (numIdColumns > 1) {
+                    Preconditions.checkState(
+                            idType == IdType.STRING, "Having multiple :ID columns requires idType:" + IdType.STRING);
+                }
+            }
+            for (ParquetData data : relationshipData) {
+                Path first = firstFile(data);
+                if (first == null) {
+                    continue;
+                }
+                Header header = mapping(first, relationshipHeaderFactory).header();
+                if (Arrays.stream(header.entries()).noneMatch(entry -> entry.type() == Type.TYPE)
+                        && data.decorator() == NO_DECORATOR) {
+                    monitor.noRelationshipTypeSpecified(first.toString());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void warnAboutDuplicateSourceFiles() {
+        Set<Path> seenSourceFiles = new HashSet<>();
+        for (Iterable<ParquetData> datas : List.of(nodeData, relationshipData)) {
+            for (ParquetData data : datas) {
+                for (Path file : data.files()) {
+                    if (!seenSourceFiles.add(file)) {
+                        monitor.duplicateSourceFile(file.toString());
+                    }
+                }
+            }
+        }
+    }
+
+    private static Path firstFile(ParquetData data) {
+        List<Path> files = data.files();
+        return files.isEmpty() ? null : files.get(0);
+    }
+
+    private ColumnMapping mapping(Path file, Header.Factory headerFactory) throws IOException {
+        return ColumnMapping.create(
+                ParquetMetadata.read(file), file.toString(), headerFactory, config, idType, groups, monitor);
+    }
+
+    @Override
+    public InputIterable nodes(Collector badCollector) {
+        return () -> stream(nodeData, nodeHeaderFactory);
+    }
+
+    @Override
+    public InputIterable relationships(Collector badCollector) {
+        return () -> stream(relationshipData, relationshipHeaderFactory);
+    }
+
+    private InputIterator stream(Iterable<ParquetData> data, Header.Factory headerFactory) {
+        return new ParquetGroupInputIterator(data.iterator(), headerFactory, idType, config, groups, Header.NO_MONITOR);
+    }
+
+    @Override
+    public IdType idType() {
+        return idType;
+    }
+
+    @Override
+    public ReadableGroups groups() {
+        return groups;
+    }
+
+    /**
+     * Entity counts are exact since Parquet files know their number of rows. Everything else is extrapolated from
+     * a sample of the first rows of the first file of each group.
+     */
+    @Override
+    public Estimates calculateEstimates(PropertySizeCalculator valueSizeCalculator) throws IOException {
+        long[] nodeSample = sample(nodeData, nodeHeaderFactory, valueSizeCalculator, node -> node.labels().length);
+        long[] relationshipSample =
+                sample(relationshipData, relationshipHeaderFactory, valueSizeCalculator, entity -> 0);
+        return Input.knownEstimates(
+                nodeSample[0],
+                relationshipSample[0],
+                nodeSample[1],
+                relationshipSample[1],
+                nodeSample[2],
+                relationshipSample[2],
+                nodeSample[3]);
+    }
+
+    private long[] sample(
+            Iterable<ParquetData> datas,
+            Header.Factory headerFactory,
+            PropertySizeCalculator valueSizeCalculator,
+            ToIntFunction<InputEntity> additionalCalculator)
+            throws IOException {
+        long[] estimates = new long[4]; // [entity count, property count, property size, labels (for nodes only)]
+        try (ParquetInputChunk chunk = new ParquetInputChunk(idType);
+                InputEntity entity = new InputEntity()) {
+            for (ParquetData data : datas) {
+                long rows = 0;
+                ParquetMetadata firstMetadata = null;
+                for (Path file : data.files()) {
+                    ParquetMetadata metadata = ParquetMetadata.read(file);
+                    rows += metadata.numberOfRows();
+                    if (firstMetadata == null && !metadata.rowGroups().isEmpty()) {
+                        firstMetadata = metadata;
+                        ColumnMapping mapping = ColumnMapping.create(
+                                metadata, file.toString(), headerFactory, config, idType, groups, Header.NO_MONITOR);
+                        chunk.load(new RowGroupReference(mapping, data.decorator(), file, metadata, 0));
+                    }
+                }
+                if (firstMetadata == null) {
+                    continue;
+                }
+
+                int entities = 0;
+                long properties = 0;
+                long propertySize = 0;
+                long additional = 0;
+                for (; entities < ESTIMATE_SAMPLE_ROWS && chunk.next(entity); entities++) {
+                    properties += entity.propertyCount();
+                    propertySize +=
+                            Inputs.calculatePropertySize(entity, valueSizeCalculator, NULL_CONTEXT, memoryTracker);
+                    additional += additionalCalculator.applyAsInt(entity);
+                }
+                estimates[0] += rows;
+                if (entities > 0) {
+                    estimates[1] += (long) (((double) properties / entities) * rows);
+                    estimates[2] += (long) (((double) propertySize / entities) * rows);
+                    estimates[3] += (long) (((double) additional / entities) * rows);
+                }
+            }
+        }
+        return estimates;
+    }
+
+    @Override
+    public Map<String, SchemaDescriptor> referencedNodeSchema(TokenHolders tokenHolders) {
+        try {
+            Map<String, SchemaDescriptor> result = new HashMap<>();
+            for (ParquetData data : nodeData) {
+                Path first = firstFile(data);
+                if (first != null) {
+                    CsvInput.collectReferencedNodeSchemaFromHeader(
+                            mapping(first, nodeHeaderFactory).header(), tokenHolders, result);
+                }
+            }
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
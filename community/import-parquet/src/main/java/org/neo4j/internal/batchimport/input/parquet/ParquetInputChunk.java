@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import org.neo4j.internal.batchimport.input.Group;
+import org.neo4j.internal.batchimport.input.IdType;
+import org.neo4j.internal.batchimport.input.InputChunk;
+import org.neo4j.internal.batchimport.input.InputEntityVisitor;
+import org.neo4j.internal.batchimport.input.InputException;
+import org.neo4j.internal.batchimport.input.csv.Decorator;
+import org.neo4j.internal.batchimport.input.csv.Header;
+import org.neo4j.internal.batchimport.input.parquet.ColumnMapping.ValueConverter;
+import org.neo4j.internal.batchimport.input.parquet.ParquetMetadata.ColumnChunk;
+import org.neo4j.internal.batchimport.input.parquet.ParquetMetadata.RowGroup;
+
+/**
+ * {@link InputChunk} of one row group of a Parquet file. All columns of the row group which aren't ignored are
+ * decoded when the chunk is {@link #load(RowGroupReference) loaded}, which happens in the thread that processes
+ * the chunk, so row groups are decoded in parallel. Entities are then produced row by row from the decoded columns.
+ */
+class ParquetInputChunk implements InputChunk {
+    private final IdType idType;
+
+    private FileChannel channel;
+    private Path channelFile;
+    private ColumnMapping mapping;
+    private ColumnValues[] columns;
+    private Decorator decorator;
+    private String sourceDescription;
+    private int numberOfRows;
+    private int row;
+
+    // Set as #next is called
+    private InputEntityVisitor previousVisitor;
+    private InputEntityVisitor visitor;
+
+    ParquetInputChunk(IdType idType) {
+        this.idType = idType;
+    }
+
+    /**
+     * Reads and decodes a row group into this chunk.
+     */
+    void load(RowGroupReference reference) throws IOException {
+        if (mapping != reference.mapping()) {
+            mapping = reference.mapping();
+            List<ParquetMetadata.Column> columnList = mapping.columns();
+            ValueConverter[] converters = mapping.converters();
+            columns = new ColumnValues[columnList.size()];
+            for (int i = 0; i < columns.length; i++) {
+                // Ignored columns are never read
+                columns[i] = converters[i] != null ? new ColumnValues(columnList.get(i)) : null;
+            }
+        }
+        if (decorator != reference.decorator()) {
+            decorator = reference.decorator();
+            visitor = null;
+        }
+        sourceDescription = reference.file() + " row group " + reference.rowGroup();
+
+        FileChannel channel = channel(reference.file());
+        RowGroup rowGroup = reference.metadata().rowGroups().get(reference.rowGroup());
+        numberOfRows = Math.toIntExact(rowGroup.numberOfRows());
+        row = 0;
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] != null) {
+                ColumnChunk chunk = rowGroup.columns().get(i);
+                if (!PageDecompression.isSupported(chunk.codec())) {
+                    throw new IOException(format(
+                            "Column '%s' in %s is compressed with %s which isn't supported",
+                            columns[i].column().name(), sourceDescription, PageDecompression.codecName(chunk.codec())));
+                }
+                ByteBuffer data = ParquetMetadata.readFully(channel, chunk.offset(), Math.toIntExact(chunk.size()));
+                columns[i].decode(data, chunk, numberOfRows);
+            }
+        }
+    }
+
+    private FileChannel channel(Path file) throws IOException {
+        if (!file.equals(channelFile)) {
+            closeChannel();
+            channel = FileChannel.open(file, READ);
+            channelFile = file;
+        }
+        return channel;
+    }
+
+    @Override
+    public boolean next(InputEntityVisitor nakedVisitor) throws IOException {
+        if (row >= numberOfRows) {
+            return false;
+        }
+        if (visitor == null || nakedVisitor != previousVisitor) {
+            visitor = decorator.apply(nakedVisitor);
+            previousVisitor = nakedVisitor;
+        }
+
+        int current = row++;
+        Header.Entry[] entries = mapping.header().entries();
+        ValueConverter[] converters = mapping.converters();
+        Header.Entry entry = null;
+        Object id = null;
+        Group idGroup = null;
+        int idParts = 0;
+        try {
+            boolean doContinue = true;
+            for (int i = 0; i < entries.length && doContinue; i++) {
+                ColumnValues values = columns[i];
+                if (values == null || values.isNull(current)) {
+                    continue;
+                }
+                entry = entries[i];
+                Object value = converters[i].convert(values, current);
+                if (entry.extractor().isEmpty(value)) {
+                    continue;
+                }
+
+                doContinue = switch (entry.type()) {
+                    case ID -> switch (idType) {
+                        case STRING, INTEGER -> {
+                            if (idGroup != null && !entry.group().equals(idGroup)) {
+                                throw new IllegalStateException("Multiple ID columns for different groups:" + idGroup
+                                        + " and " + entry.group());
+                            }
+                            // Multiple ID columns make up a composite id, like with CSV input
+                            id = idParts++ == 0 ? value : String.valueOf(id) + value;
+                            idGroup = entry.group();
+                            yield entry.name() == null || visitor.property(entry.name(), value);
+                        }
+                        case ACTUAL -> visitor.id((Long) value);
+                    };
+                    case START_ID -> switch (idType) {
+                        case STRING, INTEGER -> visitor.startId(value, entry.group());
+                        case ACTUAL -> visitor.startId((Long) value);
+                    };
+                    case END_ID -> switch (idType) {
+                        case STRING, INTEGER -> visitor.endId(value, entry.group());
+                        case ACTUAL -> visitor.endId((Long) value);
+                    };
+                    case TYPE -> visitor.type((String) value);
+                    case PROPERTY -> !isEmptyArray(value) && visitor.property(entry.name(), value);
+                    case LABEL -> value.getClass().isArray()
+                            ? visitor.labels((String[]) value)
+                            : visitor.labels(new String[] {(String) value});
+                    default -> throw new IllegalArgumentException(entry.type().toString());};
+            }
+            if (idParts > 0 && doContinue) {
+                visitor.id(id, idGroup);
+            }
+            visitor.endOfEntity();
+            return true;
+        } catch (RuntimeException e) {
+            String message = format(
+                    "ERROR in input" + "%n  data source: %s"
+                            + "%n  in row: %d"
+                            + "%n  in field: %s"
+                            + "%n  for header: %s"
+                            + "%n  original error: %s",
+                    sourceDescription, current, entry, mapping.header(), e.getMessage());
+            throw new InputException(message, e);
+        }
+    }
+
+    private static boolean isEmptyArray(Object value) {
+        return value.getClass().isArray() && Array.getLength(value) == 0;
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            channelFile = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeChannel();
+    }
+
+    /**
+     * A row group to load into a chunk.
+     *
+     * @param mapping how the columns of the file map to input entities.
+     * @param decorator decorator of the data group the file belongs to.
+     * @param file the Parquet file.
+     * @param metadata metadata of the file.
+     * @param rowGroup index of the row group in the file.
+     */
+    record RowGroupReference(
+            ColumnMapping mapping, Decorator decorator, Path file, ParquetMetadata metadata, int rowGroup) {}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.neo4j.annotations.service.ServiceProvider;
+import org.neo4j.csv.reader.Configuration;
+import org.neo4j.internal.batchimport.input.Groups;
+import org.neo4j.internal.batchimport.input.IdType;
+import org.neo4j.internal.batchimport.input.Input;
+import org.neo4j.internal.batchimport.input.InputFormat;
+import org.neo4j.internal.batchimport.input.csv.CsvInput;
+import org.neo4j.internal.batchimport.input.csv.Header;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * Makes {@link ParquetInput} available to the import tool as the {@code parquet} input format.
+ */
+@ServiceProvider
+public class ParquetInputFormat implements InputFormat {
+    public static final String NAME = "parquet";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Input createInput(
+            Iterable<InputFiles> nodeFiles,
+            Header.Factory nodeHeaderFactory,
+            Iterable<InputFiles> relationshipFiles,
+            Header.Factory relationshipHeaderFactory,
+            IdType idType,
+            Configuration config,
+            CsvInput.Monitor monitor,
+            MemoryTracker memoryTracker) {
+        return new ParquetInput(
+                data(nodeFiles),
+                nodeHeaderFactory,
+                data(relationshipFiles),
+                relationshipHeaderFactory,
+                idType,
+                config,
+                monitor,
+                new Groups(),
+                memoryTracker);
+    }
+
+    private static List<ParquetData> data(Iterable<InputFiles> inputFiles) {
+        List<ParquetData> data = new ArrayList<>();
+        for (InputFiles files : inputFiles) {
+            data.add(ParquetData.data(files.decorator(), files.files()));
+        }
+        return data;
+    }
+}
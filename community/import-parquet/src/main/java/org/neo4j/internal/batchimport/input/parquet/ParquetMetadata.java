@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.neo4j.internal.batchimport.input.InputException;
+
+/**
+ * Metadata of a Parquet file, read from its footer: the schema and where the column chunks of each row group are.
+ * Only flat schemas are supported, i.e. columns which are either required or optional, not repeated or nested.
+ *
+ * @param numberOfRows total number of rows in the file.
+ * @param columns the columns in the order they appear in each row group.
+ * @param rowGroups the row groups of the file.
+ */
+record ParquetMetadata(long numberOfRows, List<Column> columns, List<RowGroup> rowGroups) {
+    static final byte[] MAGIC = "PAR1".getBytes(US_ASCII);
+    static final int FOOTER_SIZE = Integer.BYTES + 4;
+
+    enum PhysicalType {
+        BOOLEAN,
+        INT32,
+        INT64,
+        INT96,
+        FLOAT,
+        DOUBLE,
+        BYTE_ARRAY,
+        FIXED_LEN_BYTE_ARRAY
+    }
+
+    /**
+     * The annotations of a column which matter for how its values are imported, from either the legacy converted
+     * type or the newer logical type of the column.
+     */
+    enum LogicalType {
+        NONE,
+        STRING,
+        INT_8,
+        INT_16,
+        DATE,
+        TIMESTAMP_MILLIS,
+        TIMESTAMP_MICROS,
+        TIMESTAMP_NANOS,
+        UNSUPPORTED
+    }
+
+    /**
+     * @param name name of the column, interpreted like the header entry of a CSV column.
+     * @param type how the values of the column are stored.
+     * @param optional whether the column can have null values.
+     * @param logicalType how the stored values are to be interpreted.
+     * @param adjustedToUtc for timestamps, whether they're instants rather than local date times.
+     */
+    record Column(String name, PhysicalType type, boolean optional, LogicalType logicalType, boolean adjustedToUtc) {}
+
+    /**
+     * @param numberOfRows number of rows in the row group.
+     * @param columns the column chunks of the row group, one per column.
+     */
+    record RowGroup(long numberOfRows, List<ColumnChunk> columns) {}
+
+    /**
+     * @param codec compression codec of the pages in the chunk.
+     * @param numberOfValues number of values in the chunk, including nulls.
+     * @param offset position in the file of the first page of the chunk.
+     * @param size size in bytes of all pages in the chunk.
+     */
+    record ColumnChunk(int codec, long numberOfValues, long offset, long size) {}
+
+    private record Annotation(LogicalType logicalType, boolean adjustedToUtc) {}
+
+    // Converted types, the legacy way of annotating columns
+    private static final int CONVERTED_UTF8 = 0;
+    private static final int CONVERTED_ENUM = 4;
+    private static final int CONVERTED_DATE = 6;
+    private static final int CONVERTED_TIMESTAMP_MILLIS = 9;
+    private static final int CONVERTED_TIMESTAMP_MICROS = 10;
+    private static final int CONVERTED_INT_8 = 15;
+    private static final int CONVERTED_INT_16 = 16;
+    private static final int CONVERTED_INT_32 = 17;
+    private static final int CONVERTED_INT_64 = 18;
+    private static final int CONVERTED_JSON = 19;
+
+    // Field ids of the logical type union
+    private static final int LOGICAL_STRING = 1;
+    private static final int LOGICAL_ENUM = 4;
+    private static final int LOGICAL_DATE = 6;
+    private static final int LOGICAL_TIMESTAMP = 8;
+    private static final int LOGICAL_INTEGER = 10;
+    private static final int LOGICAL_JSON = 12;
+
+    private static final PhysicalType[] PHYSICAL_TYPES = PhysicalType.values();
+    private static final int REPETITION_REQUIRED = 0;
+    private static final int REPETITION_OPTIONAL = 1;
+
+    /**
+     * Reads the metadata from the footer of a Parquet file.
+     *
+     * @param channel channel of the file to read from.
+     * @param sourceDescription description of the file, for error messages.
+     * @return the metadata of the file.
+     * @throws IOException on I/O error or if the file isn't a Parquet file.
+     */
+    static ParquetMetadata read(FileChannel channel, String sourceDescription) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < MAGIC.length + FOOTER_SIZE) {
+            throw new IOException(sourceDescription + " is too small to be a Parquet file");
+        }
+        ByteBuffer footer = readFully(channel, fileSize - FOOTER_SIZE, FOOTER_SIZE);
+        int metadataLength = footer.order(ByteOrder.LITTLE_ENDIAN).getInt();
+        if (!hasMagic(footer) || metadataLength <= 0 || metadataLength > fileSize - MAGIC.length - FOOTER_SIZE) {
+            throw new IOException(sourceDescription + " is not a Parquet file");
+        }
+        ByteBuffer metadata = readFully(channel, fileSize - FOOTER_SIZE - metadataLength, metadataLength);
+        try {
+            return parseFileMetadata(new ThriftCompactReader(metadata), sourceDescription);
+        } catch (BufferUnderflowException | IllegalStateException e) {
+            throw new IOException("Corrupt metadata in Parquet file " + sourceDescription, e);
+        }
+    }
+
+    /**
+     * Reads the metadata from the footer of a Parquet file.
+     *
+     * @param file the Parquet file.
+     * @return the metadata of the file.
+     * @throws IOException on I/O error or if the file isn't a Parquet file.
+     */
+    static ParquetMetadata read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            return read(channel, file.toString());
+        }
+    }
+
+    static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file reading " + length + " bytes at " + position);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static boolean hasMagic(ByteBuffer buffer) {
+        for (byte b : MAGIC) {
+            if (buffer.get() != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ParquetMetadata parseFileMetadata(ThriftCompactReader reader, String sourceDescription) {
+        long numberOfRows = 0;
+        List<Column> columns = null;
+        List<RowGroup> rowGroups = new ArrayList<>();
+        reader.structBegin();
+        for (int field; (field = reader.nextField()) != -1; ) {
+            switch (field) {
+                case 2 -> columns = parseSchema(reader, sourceDescription);
+                case 3 -> numberOfRows = reader.readI64();
+                case 4 -> {
+                    int size = reader.readListBegin();
+                    for (int i = 0; i < size; i++) {
+                        rowGroups.add(parseRowGroup(reader));
+                    }
+                }
+                default -> reader.skipField();
+            }
+        }
+        reader.structEnd();
+        if (columns == null) {
+            throw new IllegalStateException("No schema");
+        }
+        for (RowGroup rowGroup : rowGroups) {
+            if (rowGroup.columns().size() != columns.size()) {
+                throw new IllegalStateException(
+                        "Row group with " + rowGroup.columns().size() + " columns, expected " + columns.size());
+            }
+        }
+        return new ParquetMetadata(numberOfRows, columns, rowGroups);
+    }
+
+    private static List<Column> parseSchema(ThriftCompactReader reader, String sourceDescription) {
+        int size = reader.readListBegin();
+        List<Column> columns = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = null;
+            int type = -1;
+            int repetition = REPETITION_REQUIRED;
+            int numberOfChildren = 0;
+            int convertedType = -1;
+            Annotation annotation = null;
+            reader.structBegin();
+            for (int field; (field = reader.nextField()) != -1; ) {
+                switch (field) {
+                    case 1 -> type = reader.readI32();
+                    case 3 -> repetition = reader.readI32();
+                    case 4 -> name = reader.readString();
+                    case 5 -> numberOfChildren = reader.readI32();
+                    case 6 -> convertedType = reader.readI32();
+                    case 10 -> annotation = parseLogicalType(reader);
+                    default -> reader.skipField();
+                }
+            }
+            reader.structEnd();
+
+            if (i == 0) {
+                // The root of the schema, its children are the columns
+                continue;
+            }
+            if (numberOfChildren > 0 || repetition > REPETITION_OPTIONAL || type < 0 || type >= PHYSICAL_TYPES.length) {
+                throw new InputException(
+                        "Column '" + name + "' in " + sourceDescription + " is nested or repeated, which isn't "
+                                + "supported. Only flat schemas of required or optional columns can be imported");
+            }
+            if (annotation == null) {
+                // Timestamps annotated with a converted type are always instants
+                annotation = new Annotation(
+                        convertedLogicalType(convertedType),
+                        convertedType == CONVERTED_TIMESTAMP_MILLIS || convertedType == CONVERTED_TIMESTAMP_MICROS);
+            }
+            columns.add(new Column(
+                    name,
+                    PHYSICAL_TYPES[type],
+                    repetition == REPETITION_OPTIONAL,
+                    annotation.logicalType(),
+                    annotation.adjustedToUtc()));
+        }
+        return columns;
+    }
+
+    private static LogicalType convertedLogicalType(int convertedType) {
+        return switch (convertedType) {
+            case -1, CONVERTED_INT_32, CONVERTED_INT_64 -> LogicalType.NONE;
+            case CONVERTED_UTF8, CONVERTED_ENUM, CONVERTED_JSON -> LogicalType.STRING;
+            case CONVERTED_DATE -> LogicalType.DATE;
+            case CONVERTED_TIMESTAMP_MILLIS -> LogicalType.TIMESTAMP_MILLIS;
+            case CONVERTED_TIMESTAMP_MICROS -> LogicalType.TIMESTAMP_MICROS;
+            case CONVERTED_INT_8 -> LogicalType.INT_8;
+            case CONVERTED_INT_16 -> LogicalType.INT_16;
+            default -> LogicalType.UNSUPPORTED;
+        };
+    }
+
+    private static Annotation parseLogicalType(ThriftCompactReader reader) {
+        LogicalType logicalType = LogicalType.UNSUPPORTED;
+        boolean adjustedToUtc = false;
+        reader.structBegin();
+        for (int field; (field = reader.nextField()) != -1; ) {
+            switch (field) {
+                case LOGICAL_STRING, LOGICAL_ENUM, LOGICAL_JSON -> {
+                    logicalType = LogicalType.STRING;
+                    reader.skipField();
+                }
+                case LOGICAL_DATE -> {
+                    logicalType = LogicalType.DATE;
+                    reader.skipField();
+                }
+                case LOGICAL_TIMESTAMP -> {
+                    reader.structBegin();
+                    for (int timestampField; (timestampField = reader.nextField()) != -1; ) {
+                        if (timestampField == 1) {
+                            adjustedToUtc = reader.readBoolean();
+                        } else if (timestampField == 2) {
+                            logicalType = parseTimeUnit(reader);
+                        } else {
+                            reader.skipField();
+                        }
+                    }
+                    reader.structEnd();
+                }
+                case LOGICAL_INTEGER -> {
+                    int bitWidth = 0;
+                    boolean signed = true;
+                    reader.structBegin();
+                    for (int integerField; (integerField = reader.nextField()) != -1; ) {
+                        if (integerField == 1) {
+                            bitWidth = reader.readByte();
+                        } else if (integerField == 2) {
+                            signed = reader.readBoolean();
+                        } else {
+                            reader.skipField();
+                        }
+                    }
+                    reader.structEnd();
+                    logicalType = !signed
+                            ? LogicalType.UNSUPPORTED
+                            : switch (bitWidth) {
+                                case 8 -> LogicalType.INT_8;
+                                case 16 -> LogicalType.INT_16;
+                                default -> LogicalType.NONE;
+                            };
+                }
+                default -> reader.skipField();
+            }
+        }
+        reader.structEnd();
+        return new Annotation(logicalType, adjustedToUtc);
+    }
+
+    private static LogicalType parseTimeUnit(ThriftCompactReader reader) {
+        LogicalType unit = LogicalType.UNSUPPORTED;
+        reader.structBegin();
+        for (int field; (field = reader.nextField()) != -1; ) {
+            switch (field) {
+                case 1 -> unit = LogicalType.TIMESTAMP_MILLIS;
+                case 2 -> unit = LogicalType.TIMESTAMP_MICROS;
+                case 3 -> unit = LogicalType.TIMESTAMP_NANOS;
+                default -> {}
+            }
+            reader.skipField();
+        }
+        reader.structEnd();
+        return unit;
+    }
+
+    private static RowGroup parseRowGroup(ThriftCompactReader reader) {
+        List<ColumnChunk> columns = new ArrayList<>();
+        long numberOfRows = 0;
+        reader.structBegin();
+        for (int field; (field = reader.nextField()) != -1; ) {
+            switch (field) {
+                case 1 -> {
+                    int size = reader.readListBegin();
+                    for (int i = 0; i < size; i++) {
+                        columns.add(parseColumnChunk(reader));
+                    }
+                }
+                case 3 -> numberOfRows = reader.readI64();
+                default -> reader.skipField();
+            }
+        }
+        reader.structEnd();
+        return new RowGroup(numberOfRows, columns);
+    }
+
+    private static ColumnChunk parseColumnChunk(ThriftCompactReader reader) {
+        ColumnChunk chunk = null;
+        reader.structBegin();
+        for (int field; (field = reader.nextField()) != -1; ) {
+            if (field == 1) {
+                throw new IllegalStateException("Column chunks in other files than the metadata isn't supported");
+            } else if (field == 3) {
+                chunk = parseColumnMetadata(reader);
+            } else {
+                reader.skipField();
+            }
+        }
+        reader.structEnd();
+        if (chunk == null) {
+            throw new IllegalStateException("Column chunk without metadata");
+        }
+        return chunk;
+    }
+
+    private static ColumnChunk parseColumnMetadata(ThriftCompactReader reader) {
+        int codec = 0;
+        long numberOfValues = 0;
+        long size = 0;
+        long dataPageOffset = -1;
+        long dictionaryPageOffset = -1;
+        reader.structBegin();
+        for (int field; (field = reader.nextField()) != -1; ) {
+            switch (field) {
+                case 4 -> codec = reader.readI32();
+                case 5 -> numberOfValues = reader.readI64();
+                case 7 -> size = reader.readI64();
+                case 9 -> dataPageOffset = reader.readI64();
+                case 11 -> dictionaryPageOffset = reader.readI64();
+                default -> reader.skipField();
+            }
+        }
+        reader.structEnd();
+        // Some writers set the dictionary page offset to 0 for chunks without a dictionary
+        long offset = dictionaryPageOffset > 0 && dictionaryPageOffset < dataPageOffset
+                ? dictionaryPageOffset
+                : dataPageOffset;
+        return new ColumnChunk(codec, numberOfValues, offset, size);
+    }
+}
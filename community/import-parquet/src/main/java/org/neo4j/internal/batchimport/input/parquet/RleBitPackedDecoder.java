@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes the RLE/bit-packing hybrid encoding that Parquet uses for definition levels, dictionary indices and
+ * booleans. The encoded data is a sequence of runs, each either a repeated value or a group of bit-packed values.
+ */
+final class RleBitPackedDecoder {
+    private final ByteBuffer data;
+    private final int end;
+    private final int bitWidth;
+    private final int bytesPerRleValue;
+    private final int[] packed = new int[8];
+
+    private int rleValue;
+    private int remainingInRun;
+    private boolean packedRun;
+    private int packedIndex;
+
+    /**
+     * @param data encoded data, starting at its current position.
+     * @param length number of bytes of encoded data.
+     * @param bitWidth number of bits of each value, at most 32.
+     */
+    RleBitPackedDecoder(ByteBuffer data, int length, int bitWidth) {
+        this.data = data;
+        this.end = data.position() + length;
+        this.bitWidth = bitWidth;
+        this.bytesPerRleValue = (bitWidth + 7) / 8;
+    }
+
+    /**
+     * @return the next value.
+     * @throws IllegalStateException if there are no more values.
+     */
+    int next() {
+        if (remainingInRun == 0) {
+            readRunHeader();
+        }
+        remainingInRun--;
+        if (!packedRun) {
+            return rleValue;
+        }
+        if (packedIndex == packed.length) {
+            unpackGroup();
+        }
+        return packed[packedIndex++];
+    }
+
+    private void readRunHeader() {
+        if (data.position() >= end) {
+            throw new IllegalStateException("No more values in RLE/bit-packed data");
+        }
+        int header = readUnsignedVarInt();
+        packedRun = (header & 1) == 1;
+        if (packedRun) {
+            remainingInRun = (header >>> 1) * 8;
+            packedIndex = packed.length;
+        } else {
+            remainingInRun = header >>> 1;
+            int value = 0;
+            for (int i = 0; i < bytesPerRleValue; i++) {
+                value |= (data.get() & 0xFF) << (i * 8);
+            }
+            rleValue = value;
+        }
+        if (remainingInRun == 0) {
+            readRunHeader();
+        }
+    }
+
+    private void unpackGroup() {
+        // A group is 8 values of bitWidth bits each, packed from the least significant bit of each byte.
+        // The last group of the data may be cut short, the missing values are never read anyway
+        long mask = (1L << bitWidth) - 1;
+        long buffered = 0;
+        int bufferedBits = 0;
+        for (int i = 0; i < packed.length; i++) {
+            while (bufferedBits < bitWidth) {
+                long b = data.position() < end ? data.get() & 0xFF : 0;
+                buffered |= b << bufferedBits;
+                bufferedBits += 8;
+            }
+            packed[i] = (int) (buffered & mask);
+            buffered >>>= bitWidth;
+            bufferedBits -= bitWidth;
+        }
+        packedIndex = 0;
+    }
+
+    private int readUnsignedVarInt() {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = data.get() & 0xFF;
+            result |= (b & 0x7F) << shift;
+            if (b < 0x80) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in RLE/bit-packed data");
+    }
+
+    /**
+     * @return number of bits needed to represent values up to and including the given max value.
+     */
+    static int bitWidth(int maxValue) {
+        return 32 - Integer.numberOfLeadingZeros(maxValue);
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Minimal reader of the Thrift compact protocol, which is what Parquet uses to encode its file metadata and page
+ * headers. Only reading is supported and the caller drives the parsing, i.e. there's no generated code or schema,
+ * just enough to pick out the fields the importer needs and skip the rest.
+ */
+final class ThriftCompactReader {
+    static final int STOP = 0;
+    static final int BOOLEAN_TRUE = 1;
+    static final int BOOLEAN_FALSE = 2;
+    static final int BYTE = 3;
+    static final int I16 = 4;
+    static final int I32 = 5;
+    static final int I64 = 6;
+    static final int DOUBLE = 7;
+    static final int BINARY = 8;
+    static final int LIST = 9;
+    static final int SET = 10;
+    static final int MAP = 11;
+    static final int STRUCT = 12;
+
+    private static final int MAX_DEPTH = 64;
+
+    private final ByteBuffer buffer;
+    private final int[] lastFieldIds = new int[MAX_DEPTH];
+    private int depth;
+    private int lastFieldId;
+    private int fieldType;
+    private int elementType;
+
+    ThriftCompactReader(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    void structBegin() {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("Thrift structures nested too deep");
+        }
+        lastFieldIds[depth++] = lastFieldId;
+        lastFieldId = 0;
+    }
+
+    void structEnd() {
+        lastFieldId = lastFieldIds[--depth];
+    }
+
+    /**
+     * @return id of the next field in the current struct, or {@code -1} if there are no more fields in it.
+     */
+    int nextField() {
+        int header = buffer.get() & 0xFF;
+        fieldType = header & 0x0F;
+        if (fieldType == STOP) {
+            return -1;
+        }
+        int delta = header >>> 4;
+        lastFieldId = delta != 0 ? lastFieldId + delta : readI16();
+        return lastFieldId;
+    }
+
+    boolean readBoolean() {
+        return fieldType == BOOLEAN_TRUE;
+    }
+
+    byte readByte() {
+        return buffer.get();
+    }
+
+    short readI16() {
+        return (short) readI32();
+    }
+
+    int readI32() {
+        int value = (int) readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    long readI64() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    double readDouble() {
+        return buffer.getDouble();
+    }
+
+    byte[] readBinary() {
+        int length = readLength();
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    String readString() {
+        return new String(readBinary(), UTF_8);
+    }
+
+    /**
+     * Starts reading a list or set. The elements are read by calling the read method matching
+     * {@link #elementType()} the returned number of times.
+     *
+     * @return the number of elements in the list.
+     */
+    int readListBegin() {
+        int header = buffer.get() & 0xFF;
+        elementType = header & 0x0F;
+        int size = header >>> 4;
+        return size == 15 ? readLength() : size;
+    }
+
+    int elementType() {
+        return elementType;
+    }
+
+    /**
+     * Skips the value of the field most recently returned by {@link #nextField()}.
+     */
+    void skipField() {
+        skip(fieldType);
+    }
+
+    private void skip(int type) {
+        switch (type) {
+            case BOOLEAN_TRUE, BOOLEAN_FALSE -> {
+                // The value of a boolean field is encoded in its type
+            }
+            case BYTE -> buffer.get();
+            case I16, I32, I64 -> readVarLong();
+            case DOUBLE -> buffer.position(buffer.position() + Double.BYTES);
+            case BINARY -> {
+                int length = readLength();
+                buffer.position(buffer.position() + length);
+            }
+            case LIST, SET -> {
+                int size = readListBegin();
+                int listElementType = elementType;
+                for (int i = 0; i < size; i++) {
+                    skipElement(listElementType);
+                }
+            }
+            case MAP -> {
+                int size = readLength();
+                if (size > 0) {
+                    int types = buffer.get() & 0xFF;
+                    for (int i = 0; i < size; i++) {
+                        skipElement(types >>> 4);
+                        skipElement(types & 0x0F);
+                    }
+                }
+            }
+            case STRUCT -> {
+                structBegin();
+                while (nextField() != -1) {
+                    skipField();
+                }
+                structEnd();
+            }
+            default -> throw new IllegalStateException("Unknown thrift type " + type);
+        }
+    }
+
+    private void skipElement(int type) {
+        // Unlike boolean fields, booleans in containers occupy a byte of their own
+        if (type == BOOLEAN_TRUE || type == BOOLEAN_FALSE) {
+            buffer.get();
+        } else {
+            skip(type);
+        }
+    }
+
+    private int readLength() {
+        long length = readVarLong();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return (int) length;
+    }
+
+    private long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Malformed thrift varint");
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.csv.reader.Configuration.COMMAS;
+import static org.neo4j.internal.batchimport.input.Collector.EMPTY;
+import static org.neo4j.internal.batchimport.input.csv.CsvInput.NO_MONITOR;
+import static org.neo4j.internal.batchimport.input.csv.DataFactories.defaultFormatNodeFileHeader;
+import static org.neo4j.internal.batchimport.input.csv.DataFactories.defaultFormatRelationshipFileHeader;
+import static org.neo4j.internal.batchimport.input.parquet.ParquetTestWriter.BOOLEAN;
+import static org.neo4j.internal.batchimport.input.parquet.ParquetTestWriter.BYTE_ARRAY;
+import static org.neo4j.internal.batchimport.input.parquet.ParquetTestWriter.CONVERTED_DATE;
+import static org.neo4j.internal.batchimport.input.parquet.ParquetTestWriter.CONVERTED_TIMESTAMP_MILLIS;
+import static org.neo4j.internal.batchimport.input.parquet.ParquetTestWriter.CONVERTED_UTF8;
+import static org.neo4j.internal.batchimport.input.parquet.ParquetTestWriter.DOUBLE;
+import static org.neo4j.internal.batchimport.input.parquet.ParquetTestWriter.INT32;
+import static org.neo4j.internal.batchimport.input.parquet.ParquetTestWriter.INT64;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.batchimport.InputIterator;
+import org.neo4j.internal.batchimport.input.Groups;
+import org.neo4j.internal.batchimport.input.HeaderException;
+import org.neo4j.internal.batchimport.input.IdType;
+import org.neo4j.internal.batchimport.input.Input;
+import org.neo4j.internal.batchimport.input.InputChunk;
+import org.neo4j.internal.batchimport.input.InputEntity;
+import org.neo4j.internal.batchimport.input.InputFormat;
+import org.neo4j.service.Services;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+import org.neo4j.values.storable.DateTimeValue;
+import org.neo4j.values.storable.DateValue;
+
+@TestDirectoryExtension
+class ParquetInputTest {
+    @Inject
+    private TestDirectory directory;
+
+    private final Groups groups = new Groups();
+
+    @Test
+    void shouldReadNodesWithTypedColumns() throws IOException {
+        // given
+        Path file = directory.file("nodes.parquet");
+        new ParquetTestWriter()
+                .annotatedColumn("id:ID", BYTE_ARRAY, CONVERTED_UTF8, "a", "b", "c")
+                .annotatedColumn(":LABEL", BYTE_ARRAY, CONVERTED_UTF8, "Person", "Person;Admin", "Robot")
+                .annotatedColumn("name", BYTE_ARRAY, CONVERTED_UTF8, "Alice", null, "Eve")
+                .column("age", INT32, 42, 7, null)
+                .column("score", DOUBLE, 1.5d, 2.5d, 3.5d)
+                .column("active", BOOLEAN, true, false, true)
+                .write(file);
+        Input input = nodeInput(IdType.STRING, file);
+
+        // when
+        List<InputEntity> nodes = readAll(input.nodes(EMPTY).iterator());
+
+        // then
+        assertThat(nodes).hasSize(3);
+        assertThat(nodes.get(0).objectId).isEqualTo("a");
+        assertThat(nodes.get(0).labels()).containsExactly("Person");
+        assertThat(nodes.get(0).propertiesAsMap())
+                .isEqualTo(Map.of("id", "a", "name", "Alice", "age", 42, "score", 1.5d, "active", true));
+        assertThat(nodes.get(1).objectId).isEqualTo("b");
+        assertThat(nodes.get(1).labels()).containsExactly("Person", "Admin");
+        assertThat(nodes.get(1).propertiesAsMap())
+                .isEqualTo(Map.of("id", "b", "age", 7, "score", 2.5d, "active", false));
+        assertThat(nodes.get(2).objectId).isEqualTo("c");
+        assertThat(nodes.get(2).propertiesAsMap())
+                .isEqualTo(Map.of("id", "c", "name", "Eve", "score", 3.5d, "active", true));
+    }
+
+    @Test
+    void shouldReadRelationships() throws IOException {
+        // given
+        Path nodes = directory.file("nodes.parquet");
+        new ParquetTestWriter()
+                .column(":ID", INT64, 1L, 2L)
+                .annotatedColumn(":LABEL", BYTE_ARRAY, CONVERTED_UTF8, "Node", "Node")
+                .write(nodes);
+        Path relationships = directory.file("relationships.parquet");
+        new ParquetTestWriter()
+                .column(":START_ID", INT64, 1L, 2L)
+                .column(":END_ID", INT64, 2L, 1L)
+                .annotatedColumn(":TYPE", BYTE_ARRAY, CONVERTED_UTF8, "KNOWS", "LIKES")
+                .column("since", INT64, 2001L, 2002L)
+                .write(relationships);
+        Input input = new ParquetInput(
+                List.of(ParquetData.undecorated(nodes)),
+                defaultFormatNodeFileHeader(),
+                List.of(ParquetData.undecorated(relationships)),
+                defaultFormatRelationshipFileHeader(),
+                IdType.INTEGER,
+                COMMAS,
+                NO_MONITOR,
+                groups,
+                INSTANCE);
+
+        // when
+        List<InputEntity> entities = readAll(input.relationships(EMPTY).iterator());
+
+        // then
+        assertThat(entities).hasSize(2);
+        assertThat(entities.get(0).objectStartId).isEqualTo(1L);
+        assertThat(entities.get(0).objectEndId).isEqualTo(2L);
+        assertThat(entities.get(0).stringType).isEqualTo("KNOWS");
+        assertThat(entities.get(0).propertiesAsMap()).isEqualTo(Map.of("since", 2001L));
+        assertThat(entities.get(1).objectStartId).isEqualTo(2L);
+        assertThat(entities.get(1).objectEndId).isEqualTo(1L);
+        assertThat(entities.get(1).stringType).isEqualTo("LIKES");
+    }
+
+    @Test
+    void shouldReadDictionaryEncodedSnappyCompressedRowGroups() throws IOException {
+        // given
+        int count = 1_000;
+        Object[] ids = new Object[count];
+        Object[] cities = new Object[count];
+        Object[] ranks = new Object[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = (long) i;
+            cities[i] = i % 7 == 0 ? null : "city-" + (i % 5);
+            ranks[i] = (long) (i / 100);
+        }
+        Path file = directory.file("nodes.parquet");
+        new ParquetTestWriter()
+                .column(":ID", INT64, ids)
+                .annotatedColumn("city", BYTE_ARRAY, CONVERTED_UTF8, cities)
+                .column("rank", INT64, ranks)
+                .dictionary()
+                .codec(PageDecompression.SNAPPY)
+                .rowsPerRowGroup(300)
+                .write(file);
+        Input input = nodeInput(IdType.INTEGER, file);
+
+        // when
+        List<InputEntity> nodes = readAll(input.nodes(EMPTY).iterator());
+
+        // then
+        assertThat(nodes).hasSize(count);
+        for (int i = 0; i < count; i++) {
+            InputEntity node = nodes.get(i);
+            assertThat(node.objectId).isEqualTo((long) i);
+            assertThat(node.propertiesAsMap().get("city")).isEqualTo(cities[i]);
+            assertThat(node.propertiesAsMap().get("rank")).isEqualTo(ranks[i]);
+        }
+    }
+
+    @Test
+    void shouldReadGzipCompressedDataPagesV2() throws IOException {
+        // given
+        Path file = directory.file("nodes.parquet");
+        new ParquetTestWriter()
+                .column(":ID", INT64, 10L, 11L, 12L)
+                .annotatedColumn("name", BYTE_ARRAY, CONVERTED_UTF8, "x", null, "z")
+                .codec(PageDecompression.GZIP)
+                .dataPageV2()
+                .write(file);
+        Input input = nodeInput(IdType.INTEGER, file);
+
+        // when
+        List<InputEntity> nodes = readAll(input.nodes(EMPTY).iterator());
+
+        // then
+        assertThat(nodes).extracting(node -> node.objectId).containsExactly(10L, 11L, 12L);
+        assertThat(nodes.get(0).propertiesAsMap()).isEqualTo(Map.of("name", "x"));
+        assertThat(nodes.get(1).propertiesAsMap()).isEmpty();
+        assertThat(nodes.get(2).propertiesAsMap()).isEqualTo(Map.of("name", "z"));
+    }
+
+    @Test
+    void shouldReadTemporalColumns() throws IOException {
+        // given
+        long epochDay = LocalDate.of(2020, 2, 29).toEpochDay();
+        ZonedDateTime time = ZonedDateTime.of(2021, 6, 1, 12, 30, 15, 250_000_000, ZoneOffset.UTC);
+        Path file = directory.file("nodes.parquet");
+        new ParquetTestWriter()
+                .column(":ID", INT64, 1L)
+                .annotatedColumn("born", INT32, CONVERTED_DATE, (int) epochDay)
+                .annotatedColumn(
+                        "seen",
+                        INT64,
+                        CONVERTED_TIMESTAMP_MILLIS,
+                        time.toInstant().toEpochMilli())
+                .write(file);
+        Input input = nodeInput(IdType.INTEGER, file);
+
+        // when
+        List<InputEntity> nodes = readAll(input.nodes(EMPTY).iterator());
+
+        // then
+        assertThat(nodes.get(0).propertiesAsMap())
+                .isEqualTo(Map.of("born", DateValue.epochDate(epochDay), "seen", DateTimeValue.datetime(time)));
+    }
+
+    @Test
+    void shouldHonourExplicitColumnTypes() throws IOException {
+        // given
+        Path file = directory.file("nodes.parquet");
+        new ParquetTestWriter()
+                .column(":ID", INT64, 1L)
+                .column("count:long", INT32, 5)
+                .column("label:string", INT32, 6)
+                .annotatedColumn("tags:string[]", BYTE_ARRAY, CONVERTED_UTF8, "a;b")
+                .write(file);
+        Input input = nodeInput(IdType.INTEGER, file);
+
+        // when
+        List<InputEntity> nodes = readAll(input.nodes(EMPTY).iterator());
+
+        // then
+        Map<String, Object> properties = nodes.get(0).propertiesAsMap();
+        assertThat(properties.get("count")).isEqualTo(5L);
+        assertThat(properties.get("label")).isEqualTo("6");
+        assertThat((String[]) properties.get("tags")).containsExactly("a", "b");
+    }
+
+    @Test
+    void shouldFailOnColumnTypeWhichCantBeConverted() throws IOException {
+        // given
+        Path file = directory.file("nodes.parquet");
+        new ParquetTestWriter()
+                .column(":ID", INT64, 1L)
+                .column("flag:boolean", DOUBLE, 1.0d)
+                .write(file);
+
+        // when/then
+        assertThatThrownBy(() -> nodeInput(IdType.INTEGER, file))
+                .isInstanceOf(HeaderException.class)
+                .hasMessageContaining("flag");
+    }
+
+    @Test
+    void shouldFailOnFilesInSameGroupWithDifferentColumns() throws IOException {
+        // given
+        Path first = directory.file("first.parquet");
+        new ParquetTestWriter().column(":ID", INT64, 1L).write(first);
+        Path second = directory.file("second.parquet");
+        new ParquetTestWriter()
+                .column(":ID", INT64, 2L)
+                .annotatedColumn("name", BYTE_ARRAY, CONVERTED_UTF8, "b")
+                .write(second);
+        Input input = nodeInput(IdType.INTEGER, first, second);
+
+        // when/then
+        assertThatThrownBy(() -> readAll(input.nodes(EMPTY).iterator())).isInstanceOf(HeaderException.class);
+    }
+
+    @Test
+    void shouldCalculateExactNumberOfEntitiesInEstimates() throws IOException {
+        // given
+        int count = 250;
+        Object[] ids = new Object[count];
+        Object[] names = new Object[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = (long) i;
+            names[i] = i % 2 == 0 ? "name-" + i : null;
+        }
+        Path first = directory.file("first.parquet");
+        new ParquetTestWriter()
+                .column(":ID", INT64, ids)
+                .annotatedColumn(":LABEL", BYTE_ARRAY, CONVERTED_UTF8, repeat("A;B", count))
+                .annotatedColumn("name", BYTE_ARRAY, CONVERTED_UTF8, names)
+                .rowsPerRowGroup(100)
+                .write(first);
+        Input input = nodeInput(IdType.INTEGER, first);
+
+        // when
+        Input.Estimates estimates = input.calculateEstimates((values, cursorContext, memoryTracker) -> 10);
+
+        // then
+        assertThat(estimates.numberOfNodes()).isEqualTo(count);
+        assertThat(estimates.numberOfRelationships()).isZero();
+        assertThat(estimates.numberOfNodeLabels()).isEqualTo(count * 2L);
+        assertThat(estimates.numberOfNodeProperties()).isEqualTo(count / 2);
+    }
+
+    @Test
+    void shouldDecompressSnappyCopies() throws IOException {
+        // given
+        byte[] data = "abcdabcdabcdabcd-the quick brown fox-the quick brown fox-abcdabcd".getBytes(US_ASCII);
+        byte[] compressed = ParquetTestWriter.snappy(data);
+
+        // when
+        var decompressed =
+                PageDecompression.decompress(PageDecompression.SNAPPY, ByteBuffer.wrap(compressed), data.length);
+
+        // then
+        byte[] result = new byte[decompressed.remaining()];
+        decompressed.get(result);
+        assertThat(compressed.length).isLessThan(data.length);
+        assertThat(result).isEqualTo(data);
+    }
+
+    @Test
+    void shouldLoadParquetInputFormatAsService() {
+        assertThat(Services.loadOrFail(InputFormat.class, ParquetInputFormat.NAME))
+                .isInstanceOf(ParquetInputFormat.class);
+    }
+
+    private Input nodeInput(IdType idType, Path... files) {
+        return new ParquetInput(
+                List.of(ParquetData.undecorated(files)),
+                defaultFormatNodeFileHeader(),
+                List.of(),
+                defaultFormatRelationshipFileHeader(),
+                idType,
+                COMMAS,
+                NO_MONITOR,
+                groups,
+                INSTANCE);
+    }
+
+    private static Object[] repeat(String value, int count) {
+        Object[] values = new Object[count];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    private static List<InputEntity> readAll(InputIterator iterator) throws IOException {
+        List<InputEntity> entities = new ArrayList<>();
+        try (iterator;
+                InputChunk chunk = iterator.newChunk()) {
+            while (iterator.next(chunk)) {
+                InputEntity entity;
+                while (chunk.next(entity = new InputEntity())) {
+                    entities.add(entity);
+                }
+            }
+        }
+        return entities;
+    }
+}
@@ -0,0 +1,505 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes Parquet files for tests, with the subset of the format that {@link ParquetInput} reads:
+ * flat schemas, plain and dictionary encoding, data pages v1 and v2 and uncompressed, Snappy or gzip compression.
+ */
+class ParquetTestWriter {
+    static final int BOOLEAN = 0;
+    static final int INT32 = 1;
+    static final int INT64 = 2;
+    static final int FLOAT = 4;
+    static final int DOUBLE = 5;
+    static final int BYTE_ARRAY = 6;
+
+    static final int CONVERTED_NONE = -1;
+    static final int CONVERTED_UTF8 = 0;
+    static final int CONVERTED_DATE = 6;
+    static final int CONVERTED_TIMESTAMP_MILLIS = 9;
+    static final int CONVERTED_INT_16 = 16;
+
+    private final List<TestColumn> columns = new ArrayList<>();
+    private int codec = PageDecompression.UNCOMPRESSED;
+    private boolean dictionary;
+    private boolean dataPageV2;
+    private int rowsPerRowGroup = Integer.MAX_VALUE;
+
+    record TestColumn(String name, int type, int convertedType, boolean optional, Object[] values) {}
+
+    ParquetTestWriter column(String name, int type, Object... values) {
+        return annotatedColumn(name, type, CONVERTED_NONE, values);
+    }
+
+    ParquetTestWriter annotatedColumn(String name, int type, int convertedType, Object... values) {
+        boolean optional = false;
+        for (Object value : values) {
+            optional |= value == null;
+        }
+        columns.add(new TestColumn(name, type, convertedType, optional, values));
+        return this;
+    }
+
+    ParquetTestWriter codec(int codec) {
+        this.codec = codec;
+        return this;
+    }
+
+    ParquetTestWriter dictionary() {
+        this.dictionary = true;
+        return this;
+    }
+
+    ParquetTestWriter dataPageV2() {
+        this.dataPageV2 = true;
+        return this;
+    }
+
+    ParquetTestWriter rowsPerRowGroup(int rowsPerRowGroup) {
+        this.rowsPerRowGroup = rowsPerRowGroup;
+        return this;
+    }
+
+    void write(Path file) throws IOException {
+        int numberOfRows = columns.get(0).values().length;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("PAR1".getBytes(US_ASCII));
+        ThriftWriter footer = new ThriftWriter();
+        footer.structBegin();
+        footer.fieldI32(1, 1);
+        footer.fieldListBegin(2, ThriftWriter.STRUCT, columns.size() + 1);
+        footer.structBegin();
+        footer.fieldString(4, "schema");
+        footer.fieldI32(5, columns.size());
+        footer.structEnd();
+        for (TestColumn column : columns) {
+            footer.structBegin();
+            footer.fieldI32(1, column.type());
+            footer.fieldI32(3, column.optional() ? 1 : 0);
+            footer.fieldString(4, column.name());
+            if (column.convertedType() != CONVERTED_NONE) {
+                footer.fieldI32(6, column.convertedType());
+            }
+            footer.structEnd();
+        }
+        footer.fieldI64(3, numberOfRows);
+        int numberOfRowGroups = Math.max(1, (numberOfRows + rowsPerRowGroup - 1) / rowsPerRowGroup);
+        footer.fieldListBegin(4, ThriftWriter.STRUCT, numberOfRowGroups);
+        for (int start = 0; start < numberOfRows || start == 0; start += rowsPerRowGroup) {
+            int end = (int) Math.min(numberOfRows, (long) start + rowsPerRowGroup);
+            footer.structBegin();
+            footer.fieldListBegin(1, ThriftWriter.STRUCT, columns.size());
+            for (TestColumn column : columns) {
+                writeColumnChunk(column, start, end, out, footer);
+            }
+            footer.fieldI64(2, 0);
+            footer.fieldI64(3, end - start);
+            footer.structEnd();
+            if (numberOfRows == 0) {
+                break;
+            }
+        }
+        footer.structEnd();
+        byte[] metadata = footer.toByteArray();
+        out.write(metadata);
+        writeIntLE(out, metadata.length);
+        out.write("PAR1".getBytes(US_ASCII));
+        Files.write(file, out.toByteArray());
+    }
+
+    private void writeColumnChunk(TestColumn column, int start, int end, ByteArrayOutputStream out, ThriftWriter footer)
+            throws IOException {
+        long chunkStart = out.size();
+        long dictionaryOffset = -1;
+        boolean useDictionary = dictionary && column.type() != BOOLEAN;
+        Map<Object, Integer> dictionaryIndex = new LinkedHashMap<>();
+        if (useDictionary) {
+            for (int row = start; row < end; row++) {
+                if (column.values()[row] != null) {
+                    dictionaryIndex.putIfAbsent(column.values()[row], dictionaryIndex.size());
+                }
+            }
+            ByteArrayOutputStream plain = new ByteArrayOutputStream();
+            for (Object value : dictionaryIndex.keySet()) {
+                writePlain(column.type(), value, plain);
+            }
+            dictionaryOffset = out.size();
+            byte[] body = plain.toByteArray();
+            byte[] compressed = compress(body);
+            ThriftWriter header = new ThriftWriter();
+            header.structBegin();
+            header.fieldI32(1, 2);
+            header.fieldI32(2, body.length);
+            header.fieldI32(3, compressed.length);
+            header.fieldStructBegin(7);
+            header.fieldI32(1, dictionaryIndex.size());
+            header.fieldI32(2, 0);
+            header.structEnd();
+            header.structEnd();
+            out.write(header.toByteArray());
+            out.write(compressed);
+        }
+
+        long dataPageOffset = out.size();
+        ByteArrayOutputStream definitionLevels = new ByteArrayOutputStream();
+        if (column.optional()) {
+            int[] levels = new int[end - start];
+            for (int row = start; row < end; row++) {
+                levels[row - start] = column.values()[row] == null ? 0 : 1;
+            }
+            writeBitPacked(levels, 1, definitionLevels);
+        }
+        ByteArrayOutputStream values = new ByteArrayOutputStream();
+        List<Object> nonNull = new ArrayList<>();
+        for (int row = start; row < end; row++) {
+            if (column.values()[row] != null) {
+                nonNull.add(column.values()[row]);
+            }
+        }
+        if (useDictionary) {
+            int bitWidth = RleBitPackedDecoder.bitWidth(Math.max(0, dictionaryIndex.size() - 1));
+            values.write(bitWidth);
+            int[] indices = nonNull.stream().mapToInt(dictionaryIndex::get).toArray();
+            writeRleRuns(indices, bitWidth, values);
+        } else if (column.type() == BOOLEAN) {
+            int[] bits = nonNull.stream().mapToInt(b -> (Boolean) b ? 1 : 0).toArray();
+            byte[] packed = new byte[(bits.length + 7) / 8];
+            for (int i = 0; i < bits.length; i++) {
+                packed[i / 8] |= (byte) (bits[i] << (i % 8));
+            }
+            values.write(packed);
+        } else {
+            for (Object value : nonNull) {
+                writePlain(column.type(), value, values);
+            }
+        }
+
+        int encoding = useDictionary ? 8 : 0;
+        ThriftWriter header = new ThriftWriter();
+        byte[] page;
+        int uncompressedSize;
+        if (dataPageV2) {
+            byte[] compressedValues = compress(values.toByteArray());
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            definitionLevels.writeTo(body);
+            body.write(compressedValues);
+            page = body.toByteArray();
+            uncompressedSize = definitionLevels.size() + values.size();
+            header.structBegin();
+            header.fieldI32(1, 3);
+            header.fieldI32(2, uncompressedSize);
+            header.fieldI32(3, page.length);
+            header.fieldStructBegin(8);
+            header.fieldI32(1, end - start);
+            header.fieldI32(2, end - start - nonNull.size());
+            header.fieldI32(3, end - start);
+            header.fieldI32(4, encoding);
+            header.fieldI32(5, definitionLevels.size());
+            header.fieldI32(6, 0);
+            header.fieldBoolean(7, codec != PageDecompression.UNCOMPRESSED);
+            header.structEnd();
+            header.structEnd();
+        } else {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            if (column.optional()) {
+                writeIntLE(body, definitionLevels.size());
+                definitionLevels.writeTo(body);
+            }
+            values.writeTo(body);
+            uncompressedSize = body.size();
+            page = compress(body.toByteArray());
+            header.structBegin();
+            header.fieldI32(1, 0);
+            header.fieldI32(2, uncompressedSize);
+            header.fieldI32(3, page.length);
+            header.fieldStructBegin(5);
+            header.fieldI32(1, end - start);
+            header.fieldI32(2, encoding);
+            header.fieldI32(3, 3);
+            header.fieldI32(4, 3);
+            header.structEnd();
+            header.structEnd();
+        }
+        out.write(header.toByteArray());
+        out.write(page);
+
+        footer.structBegin();
+        footer.fieldI64(2, chunkStart);
+        footer.fieldStructBegin(3);
+        footer.fieldI32(1, column.type());
+        footer.fieldListBegin(2, ThriftWriter.I32, 1);
+        footer.writeI32(encoding);
+        footer.fieldListBegin(3, ThriftWriter.BINARY, 1);
+        footer.writeString(column.name());
+        footer.fieldI32(4, codec);
+        footer.fieldI64(5, end - start);
+        footer.fieldI64(6, out.size() - chunkStart);
+        footer.fieldI64(7, out.size() - chunkStart);
+        footer.fieldI64(9, dataPageOffset);
+        if (dictionaryOffset >= 0) {
+            footer.fieldI64(11, dictionaryOffset);
+        }
+        footer.structEnd();
+        footer.structEnd();
+    }
+
+    private static void writePlain(int type, Object value, OutputStream out) throws IOException {
+        switch (type) {
+            case INT32 -> writeIntLE(out, ((Number) value).intValue());
+            case INT64 -> writeLongLE(out, ((Number) value).longValue());
+            case FLOAT -> writeIntLE(out, Float.floatToIntBits(((Number) value).floatValue()));
+            case DOUBLE -> writeLongLE(out, Double.doubleToLongBits(((Number) value).doubleValue()));
+            case BYTE_ARRAY -> {
+                byte[] bytes = ((String) value).getBytes(UTF_8);
+                writeIntLE(out, bytes.length);
+                out.write(bytes);
+            }
+            default -> throw new IllegalArgumentException("Type " + type);
+        }
+    }
+
+    private static void writeBitPacked(int[] values, int bitWidth, OutputStream out) throws IOException {
+        int groups = (values.length + 7) / 8;
+        writeVarInt(out, (groups << 1) | 1);
+        long buffered = 0;
+        int bufferedBits = 0;
+        for (int i = 0; i < groups * 8; i++) {
+            buffered |= (long) (i < values.length ? values[i] : 0) << bufferedBits;
+            bufferedBits += bitWidth;
+            while (bufferedBits >= 8) {
+                out.write((int) (buffered & 0xFF));
+                buffered >>>= 8;
+                bufferedBits -= 8;
+            }
+        }
+    }
+
+    /**
+     * Writes runs of at least 8 repeated values RLE encoded and everything else bit-packed in groups of 8.
+     */
+    private static void writeRleRuns(int[] values, int bitWidth, OutputStream out) throws IOException {
+        int bytesPerValue = (bitWidth + 7) / 8;
+        int i = 0;
+        while (i < values.length) {
+            int runEnd = i + 1;
+            while (runEnd < values.length && values[runEnd] == values[i]) {
+                runEnd++;
+            }
+            if (runEnd - i >= 8) {
+                writeVarInt(out, (runEnd - i) << 1);
+                for (int b = 0; b < bytesPerValue; b++) {
+                    out.write((values[i] >>> (b * 8)) & 0xFF);
+                }
+                i = runEnd;
+            } else {
+                int groupEnd = Math.min(values.length, i + 8);
+                writeBitPacked(Arrays.copyOfRange(values, i, groupEnd), bitWidth, out);
+                i = groupEnd;
+            }
+        }
+    }
+
+    private byte[] compress(byte[] data) throws IOException {
+        return switch (codec) {
+            case PageDecompression.UNCOMPRESSED -> data;
+            case PageDecompression.SNAPPY -> snappy(data);
+            case PageDecompression.GZIP -> {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    gzip.write(data);
+                }
+                yield out.toByteArray();
+            }
+            default -> throw new IllegalArgumentException("Codec " + codec);
+        };
+    }
+
+    /**
+     * Simple greedy Snappy compressor, emitting literals and copies with 2-byte offsets.
+     */
+    static byte[] snappy(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarInt(out, data.length);
+        Map<Integer, Integer> lastPositions = new HashMap<>();
+        int literalStart = 0;
+        int i = 0;
+        while (i + 4 <= data.length) {
+            int key = (data[i] & 0xFF) | (data[i + 1] & 0xFF) << 8 | (data[i + 2] & 0xFF) << 16 | data[i + 3] << 24;
+            Integer candidate = lastPositions.put(key, i);
+            if (candidate != null && i - candidate <= 0xFFFF) {
+                int length = 0;
+                while (i + length < data.length && length < 64 && data[candidate + length] == data[i + length]) {
+                    length++;
+                }
+                if (length >= 4) {
+                    writeLiteral(data, literalStart, i - literalStart, out);
+                    int offset = i - candidate;
+                    out.write(((length - 1) << 2) | 2);
+                    out.write(offset & 0xFF);
+                    out.write(offset >>> 8);
+                    i += length;
+                    literalStart = i;
+                    continue;
+                }
+            }
+            i++;
+        }
+        writeLiteral(data, literalStart, data.length - literalStart, out);
+        return out.toByteArray();
+    }
+
+    private static void writeLiteral(byte[] data, int offset, int length, ByteArrayOutputStream out) {
+        while (length > 0) {
+            int chunk = Math.min(length, 256);
+            if (chunk <= 60) {
+                out.write((chunk - 1) << 2);
+            } else {
+                out.write(60 << 2);
+                out.write(chunk - 1);
+            }
+            out.write(data, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    private static void writeVarInt(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeIntLE(OutputStream out, int value) throws IOException {
+        for (int i = 0; i < Integer.BYTES; i++) {
+            out.write((value >>> (i * 8)) & 0xFF);
+        }
+    }
+
+    private static void writeLongLE(OutputStream out, long value) throws IOException {
+        for (int i = 0; i < Long.BYTES; i++) {
+            out.write((int) ((value >>> (i * 8)) & 0xFF));
+        }
+    }
+
+    /**
+     * Writer of the Thrift compact protocol, counterpart of {@link ThriftCompactReader}.
+     */
+    private static class ThriftWriter {
+        static final int I32 = 5;
+        static final int I64 = 6;
+        static final int BINARY = 8;
+        static final int LIST = 9;
+        static final int STRUCT = 12;
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final Deque<Integer> lastFieldIds = new ArrayDeque<>();
+        private int lastFieldId;
+
+        void structBegin() {
+            lastFieldIds.push(lastFieldId);
+            lastFieldId = 0;
+        }
+
+        void structEnd() {
+            out.write(0);
+            lastFieldId = lastFieldIds.pop();
+        }
+
+        void fieldStructBegin(int id) throws IOException {
+            fieldHeader(id, STRUCT);
+            structBegin();
+        }
+
+        void fieldI32(int id, int value) throws IOException {
+            fieldHeader(id, I32);
+            writeI32(value);
+        }
+
+        void fieldI64(int id, long value) throws IOException {
+            fieldHeader(id, I64);
+            writeVarInt(out, (value << 1) ^ (value >> 63));
+        }
+
+        void fieldBoolean(int id, boolean value) throws IOException {
+            fieldHeader(id, value ? ThriftCompactReader.BOOLEAN_TRUE : ThriftCompactReader.BOOLEAN_FALSE);
+        }
+
+        void fieldString(int id, String value) throws IOException {
+            fieldHeader(id, BINARY);
+            writeString(value);
+        }
+
+        void fieldListBegin(int id, int elementType, int size) throws IOException {
+            fieldHeader(id, LIST);
+            if (size < 15) {
+                out.write((size << 4) | elementType);
+            } else {
+                out.write(0xF0 | elementType);
+                writeVarInt(out, size);
+            }
+        }
+
+        void writeI32(int value) throws IOException {
+            writeVarInt(out, Integer.toUnsignedLong((value << 1) ^ (value >> 31)));
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+
+        private void fieldHeader(int id, int type) throws IOException {
+            int delta = id - lastFieldId;
+            if (delta > 0 && delta <= 15) {
+                out.write((delta << 4) | type);
+            } else {
+                out.write(type);
+                writeI32(id);
+            }
+            lastFieldId = id;
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
@@ -51,6 +51,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import org.neo4j.configuration.Config;
 import org.neo4j.csv.reader.IllegalMultilineFieldException;
@@ -62,10 +64,13 @@ import org.neo4j.internal.batchimport.input.BadCollector;
 import org.neo4j.internal.batchimport.input.Collector;
 import org.neo4j.internal.batchimport.input.IdType;
 import org.neo4j.internal.batchimport.input.Input;
+import org.neo4j.internal.batchimport.input.InputEntityDecorators;
 import org.neo4j.internal.batchimport.input.InputException;
+import org.neo4j.internal.batchimport.input.InputFormat;
 import org.neo4j.internal.batchimport.input.MissingRelationshipDataException;
 import org.neo4j.internal.batchimport.input.csv.CsvInput;
 import org.neo4j.internal.batchimport.input.csv.DataFactory;
+import org.neo4j.internal.batchimport.input.csv.Decorator;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
@@ -89,11 +94,13 @@ import org.neo4j.logging.log4j.Neo4jLoggerContext;
 import org.neo4j.memory.EmptyMemoryTracker;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.service.Services;
 import org.neo4j.storageengine.api.StorageEngineFactory;
 import org.neo4j.util.Preconditions;
 
 class CsvImporter implements Importer {
     static final String DEFAULT_REPORT_FILE_NAME = "import.report";
+    static final String CSV_FORMAT = "csv";
 
     private final DatabaseLayout databaseLayout;
     private final Config databaseConfig;
@@ -102,6 +109,7 @@ class CsvImporter implements Importer {
     private final Path reportFile;
     private final IdType idType;
     private final Charset inputEncoding;
+    private final String inputFormat;
     private final boolean ignoreExtraColumns;
     private final boolean skipBadRelationships;
     private final boolean skipDuplicateNodes;
@@ -130,6 +138,7 @@ class CsvImporter implements Importer {
         this.reportFile = requireNonNull(b.reportFile);
         this.idType = requireNonNull(b.idType);
         this.inputEncoding = requireNonNull(b.inputEncoding);
+        this.inputFormat = requireNonNull(b.inputFormat);
         this.ignoreExtraColumns = b.ignoreExtraColumns;
         this.skipBadRelationships = b.skipBadRelationships;
         this.skipDuplicateNodes = b.skipDuplicateNodes;
@@ -165,22 +174,62 @@ class CsvImporter implements Importer {
             ZoneId dbTimeZone = databaseConfig.get(db_temporal_timezone);
             Supplier<ZoneId> defaultTimeZone = () -> dbTimeZone;
 
-            final var nodeData = nodeData();
-            final var relationshipsData = relationshipData();
+            try (Input input = createInput(defaultTimeZone)) {
+                doImport(input, badCollector);
+            }
+        }
+    }
+
+    /**
+     * @return names of the input formats available, CSV and those provided by optional modules.
+     */
+    static Set<String> inputFormats() {
+        Set<String> formats = new TreeSet<>();
+        formats.add(CSV_FORMAT);
+        for (InputFormat format : Services.loadAll(InputFormat.class)) {
+            formats.add(format.getName());
+        }
+        return formats;
+    }
 
-            try (CsvInput input = new CsvInput(
-                    nodeData,
+    private Input createInput(Supplier<ZoneId> defaultTimeZone) {
+        if (CSV_FORMAT.equals(inputFormat)) {
+            return new CsvInput(
+                    nodeData(),
                     defaultFormatNodeFileHeader(defaultTimeZone, normalizeTypes),
-                    relationshipsData,
+                    relationshipData(),
                     defaultFormatRelationshipFileHeader(defaultTimeZone, normalizeTypes),
                     idType,
                     csvConfig,
                     autoSkipHeaders,
                     new CsvInput.PrintingMonitor(stdOut),
-                    memoryTracker)) {
-                doImport(input, badCollector);
+                    memoryTracker);
+        }
+        return Services.loadOrFail(InputFormat.class, inputFormat)
+                .createInput(
+                        inputFiles(nodeFiles, CsvImporter::nodeDecorator),
+                        defaultFormatNodeFileHeader(defaultTimeZone, normalizeTypes),
+                        inputFiles(relationshipFiles, InputEntityDecorators::defaultRelationshipType),
+                        defaultFormatRelationshipFileHeader(defaultTimeZone, normalizeTypes),
+                        idType,
+                        csvConfig,
+                        new CsvInput.PrintingMonitor(stdOut),
+                        memoryTracker);
+    }
+
+    private static <T> Iterable<InputFormat.InputFiles> inputFiles(
+            Map<T, List<Path[]>> files, Function<T, Decorator> decorator) {
+        final var result = new ArrayList<InputFormat.InputFiles>();
+        files.forEach((key, fileSets) -> {
+            for (Path[] fileSet : fileSets) {
+                result.add(new InputFormat.InputFiles(decorator.apply(key), fileSet));
             }
-        }
+        });
+        return result;
+    }
+
+    private static Decorator nodeDecorator(Set<String> labels) {
+        return labels.isEmpty() ? NO_DECORATOR : additiveLabels(labels.toArray(new String[0]));
     }
 
     private void doImport(Input input, Collector badCollector) {
@@ -226,7 +275,7 @@ class CsvImporter implements Importer {
                             jobScheduler,
                             badCollector,
                             TransactionLogInitializer.getLogFilesInitializer(),
-                            new IndexImporterFactoryImpl(),
+                            new IndexImporterFactoryImpl(databaseConfig),
                             memoryTracker,
                             contextFactory,
                             indexProviders);
@@ -257,7 +306,7 @@ class CsvImporter implements Importer {
                         jobScheduler,
                         badCollector,
                         TransactionLogInitializer.getLogFilesInitializer(),
-                        new IndexImporterFactoryImpl(),
+                        new IndexImporterFactoryImpl(databaseConfig),
                         memoryTracker,
                         contextFactory);
 
@@ -417,7 +466,7 @@ class CsvImporter implements Importer {
     private Iterable<DataFactory> nodeData() {
         final var result = new ArrayList<DataFactory>();
         nodeFiles.forEach((labels, fileSets) -> {
-            final var decorator = labels.isEmpty() ? NO_DECORATOR : additiveLabels(labels.toArray(new String[0]));
+            final var decorator = nodeDecorator(labels);
             for (Path[] files : fileSets) {
                 final var data = data(decorator, inputEncoding, files);
                 result.add(data);
@@ -445,6 +494,7 @@ class CsvImporter implements Importer {
         private Path reportFile;
         private IdType idType = IdType.STRING;
         private Charset inputEncoding = StandardCharsets.UTF_8;
+        private String inputFormat = CSV_FORMAT;
         private boolean ignoreExtraColumns;
         private boolean skipBadRelationships;
         private boolean skipDuplicateNodes;
@@ -501,6 +551,11 @@ class CsvImporter implements Importer {
             return this;
         }
 
+        Builder withInputFormat(String inputFormat) {
+            this.inputFormat = inputFormat;
+            return this;
+        }
+
         Builder withIgnoreExtraColumns(boolean ignoreExtraColumns) {
             this.ignoreExtraColumns = ignoreExtraColumns;
             return this;
@@ -43,6 +43,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
@@ -59,6 +60,7 @@ import org.neo4j.cli.ExecutionContext;
 import org.neo4j.cli.ExitCode;
 import org.neo4j.commandline.dbms.CannotWriteException;
 import org.neo4j.commandline.dbms.LockChecker;
+import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.importer.CsvImporter.CsvImportException;
@@ -155,6 +157,17 @@ public class ImportCommand {
                 description = "Character set that input data is encoded in.")
         private Charset inputEncoding = StandardCharsets.UTF_8;
 
+        @Option(
+                names = "--input-format",
+                paramLabel = "<format>",
+                showDefaultValue = ALWAYS,
+                converter = InputFormatConverter.class,
+                description = "Format of the files given to --nodes and --relationships. Other formats than `"
+                        + CsvImporter.CSV_FORMAT + "` are provided by separate modules, e.g. `parquet`. Headers of "
+                        + "such files are made up of their column names, using the same syntax as CSV headers. "
+                        + "Options which only apply to CSV data can't be used with other formats.")
+        private String inputFormat = CsvImporter.CSV_FORMAT;
+
         @Option(
                 names = "--ignore-extra-columns",
                 arity = "0..1",
@@ -399,6 +412,7 @@ public class ImportCommand {
                 String format,
                 boolean overwriteDestination,
                 Base.MaybeLocker maybeLockChecker) {
+            checkInputFormatOptions(inputFormat, spec.commandLine().getParseResult());
             try {
                 final var databaseConfig = loadNeo4jConfig(format);
                 DatabaseLayout databaseLayout = Neo4jLayout.of(databaseConfig).databaseLayout(database.name());
@@ -417,6 +431,7 @@ public class ImportCommand {
                             .withImportConfig(importConfig)
                             .withIdType(idType)
                             .withInputEncoding(inputEncoding)
+                            .withInputFormat(inputFormat)
                             .withReportFile(reportFile.toAbsolutePath())
                             .withIgnoreExtraColumns(ignoreExtraColumns)
                             .withBadTolerance(badTolerance)
@@ -512,6 +527,20 @@ public class ImportCommand {
                     .build();
         }
 
+        /**
+         * @return whether to resume a previously interrupted import, see {@link Configuration#resumeFromCheckpoint()}.
+         */
+        protected boolean resumeFromCheckpoint() {
+            return false;
+        }
+
+        /**
+         * @return the indexes to populate during the import, see {@link Configuration#indexConfig()}.
+         */
+        protected IndexConfig indexConfig() {
+            return IndexConfig.create().withLabelIndex().withRelationshipTypeIndex();
+        }
+
         private org.neo4j.internal.batchimport.Configuration importConfiguration() {
             return new Configuration.Overridden(Configuration.defaultConfiguration()) {
                 @Override
@@ -532,13 +561,18 @@ public class ImportCommand {
 
                 @Override
                 public IndexConfig indexConfig() {
-                    return IndexConfig.create().withLabelIndex().withRelationshipTypeIndex();
+                    return Base.this.indexConfig();
                 }
 
                 @Override
                 public boolean strictNodeCheck() {
                     return strict;
                 }
+
+                @Override
+                public boolean resumeFromCheckpoint() {
+                    return Base.this.resumeFromCheckpoint();
+                }
             };
         }
 
@@ -572,6 +606,18 @@ public class ImportCommand {
             }
         }
 
+        static class InputFormatConverter implements ITypeConverter<String> {
+            @Override
+            public String convert(String value) {
+                Set<String> formats = CsvImporter.inputFormats();
+                if (!formats.contains(value)) {
+                    throw new CommandLine.TypeConversionException(
+                            format("Invalid input format: %s, available formats are %s", value, formats));
+                }
+                return value;
+            }
+        }
+
         static class IdTypeConverter implements CommandLine.ITypeConverter<IdType> {
             @Override
             public IdType convert(String in) {
@@ -607,18 +653,102 @@ public class ImportCommand {
                 description = "Delete any existing database files prior to the import.")
         private boolean overwriteDestination;
 
+        @Option(
+                names = "--resume",
+                arity = "0..1",
+                showDefaultValue = ALWAYS,
+                paramLabel = "true|false",
+                fallbackValue = "true",
+                description = "Resume a previously interrupted import from the last stage it completed, instead of "
+                        + "starting over. The input must be the same as for the interrupted import.")
+        private boolean resume;
+
+        @Option(
+                names = "--node-range-index",
+                arity = "1",
+                showDefaultValue = NEVER,
+                paramLabel = "<label>:<property>[,<property>...]",
+                converter = NodeRangeIndexConverter.class,
+                description = "Range index to create and populate while importing the nodes, instead of creating it "
+                        + "in the database after the import. Can be specified multiple times.")
+        private List<IndexConfig.PropertyIndex> nodeRangeIndexes = new ArrayList<>();
+
+        @Option(
+                names = "--relationship-range-index",
+                arity = "1",
+                showDefaultValue = NEVER,
+                paramLabel = "<type>:<property>[,<property>...]",
+                converter = RelationshipRangeIndexConverter.class,
+                description = "Range index to create and populate while importing the relationships, instead of "
+                        + "creating it in the database after the import. Can be specified multiple times.")
+        private List<IndexConfig.PropertyIndex> relationshipRangeIndexes = new ArrayList<>();
+
         public Full(ExecutionContext ctx) {
             super(ctx);
         }
 
+        @Override
+        protected boolean resumeFromCheckpoint() {
+            return resume;
+        }
+
+        @Override
+        protected IndexConfig indexConfig() {
+            IndexConfig indexConfig = super.indexConfig();
+            for (var index : nodeRangeIndexes) {
+                indexConfig.withRangeIndex(
+                        EntityType.NODE, index.token(), index.propertyKeys().toArray(String[]::new));
+            }
+            for (var index : relationshipRangeIndexes) {
+                indexConfig.withRangeIndex(
+                        EntityType.RELATIONSHIP,
+                        index.token(),
+                        index.propertyKeys().toArray(String[]::new));
+            }
+            return indexConfig;
+        }
+
         @Override
         public void execute() throws Exception {
+            if (resume && overwriteDestination) {
+                throw new IllegalArgumentException("--resume doesn't work with --overwrite-destination");
+            }
             doExecute(false, null, format, overwriteDestination, databaseLayout -> {
                 // Create the db folder if it doesn't exist, to be able to create and lock the lockfile.
                 ctx.fs().mkdirs(databaseLayout.databaseDirectory());
                 return LockChecker.checkDatabaseLock(databaseLayout);
             });
         }
+
+        static IndexConfig.PropertyIndex parseRangeIndex(EntityType entityType, String value) {
+            int separator = value.lastIndexOf(':');
+            String token = separator > 0 ? value.substring(0, separator).trim() : "";
+            List<String> propertyKeys = separator > 0
+                    ? Arrays.stream(value.substring(separator + 1).split(","))
+                            .map(String::trim)
+                            .filter(key -> !key.isEmpty())
+                            .toList()
+                    : List.of();
+            if (token.isEmpty() || propertyKeys.isEmpty()) {
+                throw new CommandLine.TypeConversionException(
+                        format("Invalid range index: %s, expected <token>:<property>[,<property>...]", value));
+            }
+            return new IndexConfig.PropertyIndex("", entityType, token, propertyKeys);
+        }
+
+        static class NodeRangeIndexConverter implements ITypeConverter<IndexConfig.PropertyIndex> {
+            @Override
+            public IndexConfig.PropertyIndex convert(String value) {
+                return parseRangeIndex(EntityType.NODE, value);
+            }
+        }
+
+        static class RelationshipRangeIndexConverter implements ITypeConverter<IndexConfig.PropertyIndex> {
+            @Override
+            public IndexConfig.PropertyIndex convert(String value) {
+                return parseRangeIndex(EntityType.RELATIONSHIP, value);
+            }
+        }
     }
 
     @Command(name = "incremental", description = "Incremental import into an existing database.")
@@ -693,6 +823,35 @@ public class ImportCommand {
         }
     }
 
+    /**
+     * Options which only configure how CSV data is parsed. Other input formats are read by their own readers.
+     */
+    private static final List<String> CSV_ONLY_OPTIONS = List.of(
+            "--delimiter",
+            "--array-delimiter",
+            "--quote",
+            "--multiline-fields",
+            "--legacy-style-quoting",
+            "--input-encoding",
+            "--trim-strings",
+            "--ignore-empty-strings",
+            "--read-buffer-size",
+            "--auto-skip-subsequent-headers");
+
+    @VisibleForTesting
+    static void checkInputFormatOptions(String inputFormat, CommandLine.ParseResult parseResult) {
+        if (CsvImporter.CSV_FORMAT.equals(inputFormat)) {
+            return;
+        }
+        var csvOnlyOptions =
+                CSV_ONLY_OPTIONS.stream().filter(parseResult::hasMatchedOption).toList();
+        if (!csvOnlyOptions.isEmpty()) {
+            throw new IllegalArgumentException(format(
+                    "%s only apply to %s input and can't be used with --input-format %s",
+                    String.join(", ", csvOnlyOptions), CsvImporter.CSV_FORMAT, inputFormat));
+        }
+    }
+
     @VisibleForTesting
     static RelationshipFilesGroup parseRelationshipFilesGroup(String str) {
         final var p = parseInputFilesGroup(str, String::trim);
@@ -38,6 +38,18 @@ class PrintingImportLogicMonitor implements Monitor {
         out.println("Will use double record units for all relationships");
     }
 
+    @Override
+    public void resumingImport(String completedStage) {
+        out.println("Resuming previous import attempt after its last completed stage " + completedStage);
+    }
+
+    @Override
+    public void idMapperSortedOnDisk(long estimatedIdMapperMemory, long availableMemory) {
+        out.printf(
+                "Id mapper needs an estimated %s, but only %s is available, sorting it on disk instead%n",
+                bytesToString(estimatedIdMapperMemory), bytesToString(availableMemory));
+    }
+
     @Override
     public void mayExceedNodeIdCapacity(long capacity, long estimatedCount) {
         err.printf(
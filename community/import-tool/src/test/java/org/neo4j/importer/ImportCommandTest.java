@@ -20,6 +20,7 @@
 package org.neo4j.importer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -34,6 +35,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.neo4j.cli.ContextInjectingFactory;
 import org.neo4j.cli.ExecutionContext;
+import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.internal.batchimport.input.IdType;
@@ -67,6 +69,7 @@ class ImportCommandTest {
         "--report-file",
         "--id-type",
         "--input-encoding",
+        "--input-format",
         "--ignore-extra-columns",
         "--multiline-fields",
         "--ignore-empty-strings",
@@ -98,7 +101,8 @@ class ImportCommandTest {
         final var help = getUsageHelp(command);
         final var options = getOptions(help);
         var expectedOptions = new ArrayList<>(List.of(sharedOptions));
-        expectedOptions.addAll(List.of("--overwrite-destination", "--format"));
+        expectedOptions.addAll(List.of(
+                "--overwrite-destination", "--format", "--resume", "--node-range-index", "--relationship-range-index"));
         final var positionals = getPositionals(help);
         final var expectedPositionals = List.of(sharedPositionals);
 
@@ -138,6 +142,37 @@ class ImportCommandTest {
         }
     }
 
+    @Test
+    void shouldRejectUnknownInputFormat() {
+        var tempFileName = testDir.createFile("dummy").toString();
+        var command = new ImportCommand.Full(getExecutionContext());
+
+        assertThrows(CommandLine.ParameterException.class, () -> new CommandLine(command)
+                .parseArgs("--input-format", "unknown", "--nodes", tempFileName));
+        new CommandLine(command).parseArgs("--input-format", "csv", "--nodes", tempFileName);
+    }
+
+    @Test
+    void shouldRejectCsvOptionsForOtherInputFormats() {
+        var tempFileName = testDir.createFile("dummy").toString();
+        var parseResult = new CommandLine(new ImportCommand.Full(getExecutionContext()))
+                .parseArgs("--delimiter", ";", "--trim-strings", "--nodes", tempFileName);
+
+        ImportCommand.checkInputFormatOptions(CsvImporter.CSV_FORMAT, parseResult);
+        assertThatThrownBy(() -> ImportCommand.checkInputFormatOptions("parquet", parseResult))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("--delimiter, --trim-strings");
+    }
+
+    @Test
+    void shouldAcceptOtherInputFormatsWithoutCsvOptions() {
+        var tempFileName = testDir.createFile("dummy").toString();
+        var parseResult = new CommandLine(new ImportCommand.Full(getExecutionContext()))
+                .parseArgs("--id-type", "integer", "--nodes", tempFileName);
+
+        ImportCommand.checkInputFormatOptions("parquet", parseResult);
+    }
+
     @Test
     void shouldAllowAliasesForIncrementalStage() {
         var tempFileName = testDir.createFile("dummy").toString();
@@ -332,4 +367,36 @@ class ImportCommandTest {
             assertThat(g.files).containsOnly(foo1, foo2);
         }
     }
+
+    @Nested
+    class ParseRangeIndex {
+        @Test
+        void singleProperty() {
+            final var index = ImportCommand.Full.parseRangeIndex(EntityType.NODE, "Person:name");
+            assertThat(index.entityType()).isEqualTo(EntityType.NODE);
+            assertThat(index.token()).isEqualTo("Person");
+            assertThat(index.propertyKeys()).containsExactly("name");
+        }
+
+        @Test
+        void multipleProperties() {
+            final var index = ImportCommand.Full.parseRangeIndex(EntityType.RELATIONSHIP, "KNOWS: since , weight");
+            assertThat(index.entityType()).isEqualTo(EntityType.RELATIONSHIP);
+            assertThat(index.token()).isEqualTo("KNOWS");
+            assertThat(index.propertyKeys()).containsExactly("since", "weight");
+        }
+
+        @Test
+        void missingTokenOrProperties() {
+            assertThrows(
+                    CommandLine.TypeConversionException.class,
+                    () -> ImportCommand.Full.parseRangeIndex(EntityType.NODE, "Person"));
+            assertThrows(
+                    CommandLine.TypeConversionException.class,
+                    () -> ImportCommand.Full.parseRangeIndex(EntityType.NODE, ":name"));
+            assertThrows(
+                    CommandLine.TypeConversionException.class,
+                    () -> ImportCommand.Full.parseRangeIndex(EntityType.NODE, "Person:"));
+        }
+    }
 }
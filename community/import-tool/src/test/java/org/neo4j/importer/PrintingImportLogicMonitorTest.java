@@ -107,6 +107,22 @@ class PrintingImportLogicMonitorTest {
         assertTrue(text.contains(bytesToString(optimalHeapSize)));
     }
 
+    @Test
+    void idMapperSortedOnDisk() {
+        // given
+        long estimatedIdMapperMemory = gibiBytes(12);
+        long availableMemory = gibiBytes(4);
+
+        // when
+        monitor.idMapperSortedOnDisk(estimatedIdMapperMemory, availableMemory);
+
+        // then
+        String text = outBuffer.toString();
+        assertTrue(text.contains("sorting it on disk"));
+        assertTrue(text.contains(bytesToString(estimatedIdMapperMemory)));
+        assertTrue(text.contains(bytesToString(availableMemory)));
+    }
+
     @Test
     void insufficientAvailableMemory() {
         // given
@@ -42,28 +42,33 @@ public class ChunkedNumberArrayFactory extends NumberArrayFactory.Adapter {
     public LongArray newLongArray(long length, long defaultValue, long base, MemoryTracker memoryTracker) {
         // Here we want to have the property of a dynamic array so that some parts of the array
         // can live on heap, some off.
-        return newDynamicLongArray(fractionOf(length), defaultValue, memoryTracker);
+        return newDynamicLongArray(fractionOf(length, 8), defaultValue, memoryTracker);
     }
 
     @Override
     public IntArray newIntArray(long length, int defaultValue, long base, MemoryTracker memoryTracker) {
         // Here we want to have the property of a dynamic array so that some parts of the array
         // can live on heap, some off.
-        return newDynamicIntArray(fractionOf(length), defaultValue, memoryTracker);
+        return newDynamicIntArray(fractionOf(length, 4), defaultValue, memoryTracker);
     }
 
     @Override
     public ByteArray newByteArray(long length, byte[] defaultValue, long base, MemoryTracker memoryTracker) {
         // Here we want to have the property of a dynamic array so that some parts of the array
         // can live on heap, some off.
-        return newDynamicByteArray(fractionOf(length), defaultValue, memoryTracker);
+        return newDynamicByteArray(fractionOf(length, defaultValue.length), defaultValue, memoryTracker);
     }
 
-    private static long fractionOf(long length) {
+    /**
+     * Chunks are sized to fill up whole huge pages when large enough to be laid out on huge page boundaries,
+     * see {@link TransparentHugePages}, so that no huge page is shared between two chunks.
+     */
+    private static long fractionOf(long length, int itemSize) {
         if (length < MAGIC_CHUNK_COUNT) {
             return length;
         }
-        return min(length / MAGIC_CHUNK_COUNT, MAX_ARRAY_SIZE);
+        return TransparentHugePages.SYSTEM.chunkSize(
+                min(length / MAGIC_CHUNK_COUNT, MAX_ARRAY_SIZE), itemSize, MAX_ARRAY_SIZE);
     }
 
     @Override
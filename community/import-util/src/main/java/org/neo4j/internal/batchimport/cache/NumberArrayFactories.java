@@ -96,6 +96,32 @@ public class NumberArrayFactories {
         }
     };
 
+    /**
+     * Puts arrays off-heap like {@link #OFF_HEAP}, but lays out large arrays on transparent huge page boundaries and
+     * advises the kernel to back them with huge pages, where available. Otherwise same as {@link #OFF_HEAP}.
+     */
+    public static final NumberArrayFactory OFF_HEAP_HUGE_PAGES = new NumberArrayFactory.Adapter() {
+        @Override
+        public IntArray newIntArray(long length, int defaultValue, long base, MemoryTracker memoryTracker) {
+            return new OffHeapIntArray(length, defaultValue, base, true, memoryTracker);
+        }
+
+        @Override
+        public LongArray newLongArray(long length, long defaultValue, long base, MemoryTracker memoryTracker) {
+            return new OffHeapLongArray(length, defaultValue, base, true, memoryTracker);
+        }
+
+        @Override
+        public ByteArray newByteArray(long length, byte[] defaultValue, long base, MemoryTracker memoryTracker) {
+            return new OffHeapByteArray(length, defaultValue, base, true, memoryTracker);
+        }
+
+        @Override
+        public String toString() {
+            return "OFF_HEAP_HUGE_PAGES";
+        }
+    };
+
     /**
      * Used as part of the fallback strategy for {@link Auto}. Tries to split up fixed-size arrays ({@link NumberArrayFactory#newLongArray(long, long,
      * MemoryTracker)} and {@link NumberArrayFactory#newIntArray(long, int, MemoryTracker)} into smaller chunks where some can live on heap and some off heap.
@@ -118,7 +144,8 @@ public class NumberArrayFactories {
      * @param allowHeapAllocation whether or not to allow allocation on heap. Otherwise allocation is restricted to off-heap and the page cache fallback. This
      *                            to be more in control of available space in the heap at all times.
      * @param monitor             for monitoring successful and failed allocations and which factory was selected.
-     * @return a {@link NumberArrayFactory} which tries to allocation off-heap, then potentially on heap and lastly falls back to allocating inside the given
+     * @return a {@link NumberArrayFactory} which tries to allocation off-heap, using huge pages for large arrays where
+     * available, see {@link #OFF_HEAP_HUGE_PAGES}, then potentially on heap and lastly falls back to allocating inside the given
      * {@code pageCache}.
      */
     public static NumberArrayFactory auto(
@@ -143,7 +170,7 @@ public class NumberArrayFactories {
      */
     private static NumberArrayFactory[] allocationAlternatives(
             boolean allowHeapAllocation, NumberArrayFactory... additional) {
-        List<NumberArrayFactory> result = new ArrayList<>(Collections.singletonList(OFF_HEAP));
+        List<NumberArrayFactory> result = new ArrayList<>(Collections.singletonList(OFF_HEAP_HUGE_PAGES));
         if (allowHeapAllocation) {
             result.add(HEAP);
         }
@@ -26,7 +26,12 @@ public class OffHeapByteArray extends OffHeapNumberArray<ByteArray> implements B
     private final byte[] defaultValue;
 
     protected OffHeapByteArray(long length, byte[] defaultValue, long base, MemoryTracker memoryTracker) {
-        super(length, defaultValue.length, base, memoryTracker);
+        this(length, defaultValue, base, false, memoryTracker);
+    }
+
+    protected OffHeapByteArray(
+            long length, byte[] defaultValue, long base, boolean hugePages, MemoryTracker memoryTracker) {
+        super(length, defaultValue.length, base, hugePages, memoryTracker);
         this.defaultValue = defaultValue;
         clear();
     }
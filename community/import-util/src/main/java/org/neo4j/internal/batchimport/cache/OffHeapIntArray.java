@@ -30,7 +30,11 @@ public class OffHeapIntArray extends OffHeapRegularNumberArray<IntArray> impleme
     private final int defaultValue;
 
     public OffHeapIntArray(long length, int defaultValue, long base, MemoryTracker memoryTracker) {
-        super(length, 2, base, memoryTracker);
+        this(length, defaultValue, base, false, memoryTracker);
+    }
+
+    public OffHeapIntArray(long length, int defaultValue, long base, boolean hugePages, MemoryTracker memoryTracker) {
+        super(length, 2, base, hugePages, memoryTracker);
         this.defaultValue = defaultValue;
         clear();
     }
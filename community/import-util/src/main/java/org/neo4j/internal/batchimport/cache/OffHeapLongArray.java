@@ -30,7 +30,11 @@ public class OffHeapLongArray extends OffHeapRegularNumberArray<LongArray> imple
     private final long defaultValue;
 
     public OffHeapLongArray(long length, long defaultValue, long base, MemoryTracker memoryTracker) {
-        super(length, 3, base, memoryTracker);
+        this(length, defaultValue, base, false, memoryTracker);
+    }
+
+    public OffHeapLongArray(long length, long defaultValue, long base, boolean hugePages, MemoryTracker memoryTracker) {
+        super(length, 3, base, hugePages, memoryTracker);
         this.defaultValue = defaultValue;
         clear();
     }
@@ -25,17 +25,35 @@ import org.neo4j.memory.MemoryTracker;
 public abstract class OffHeapNumberArray<N extends NumberArray<N>> extends BaseNumberArray<N> {
     protected final long address;
     protected final long length;
+    private final long allocatedAddress;
     private final long allocatedBytes;
     protected final MemoryTracker memoryTracker;
     private boolean closed;
 
     protected OffHeapNumberArray(long length, int itemSize, long base, MemoryTracker memoryTracker) {
+        this(length, itemSize, base, false, memoryTracker);
+    }
+
+    /**
+     * @param hugePages whether or not to lay out the array on transparent huge page boundaries, if the array is
+     * large enough and huge pages are available, see {@link TransparentHugePages}.
+     */
+    protected OffHeapNumberArray(long length, int itemSize, long base, boolean hugePages, MemoryTracker memoryTracker) {
         super(itemSize, base);
         UnsafeUtil.assertHasUnsafe();
         this.memoryTracker = memoryTracker;
         this.length = length;
-        this.allocatedBytes = length * itemSize;
-        this.address = UnsafeUtil.allocateMemory(allocatedBytes, memoryTracker);
+        long bytes = length * itemSize;
+        TransparentHugePages transparentHugePages = TransparentHugePages.SYSTEM;
+        if (hugePages && transparentHugePages.appliesTo(bytes)) {
+            this.allocatedBytes = transparentHugePages.bytesToAllocate(bytes);
+            this.allocatedAddress = UnsafeUtil.allocateMemory(allocatedBytes, memoryTracker);
+            this.address = transparentHugePages.align(allocatedAddress, bytes);
+        } else {
+            this.allocatedBytes = bytes;
+            this.allocatedAddress = UnsafeUtil.allocateMemory(allocatedBytes, memoryTracker);
+            this.address = allocatedAddress;
+        }
     }
 
     @Override
@@ -53,7 +71,7 @@ public abstract class OffHeapNumberArray<N extends NumberArray<N>> extends BaseN
         if (!closed) {
             if (length > 0) {
                 // Allocating 0 bytes actually returns address 0
-                UnsafeUtil.free(address, allocatedBytes, memoryTracker);
+                UnsafeUtil.free(allocatedAddress, allocatedBytes, memoryTracker);
             }
             closed = true;
         }
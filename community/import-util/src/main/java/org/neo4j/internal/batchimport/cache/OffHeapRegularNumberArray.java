@@ -27,8 +27,9 @@ import org.neo4j.memory.MemoryTracker;
 abstract class OffHeapRegularNumberArray<N extends NumberArray<N>> extends OffHeapNumberArray<N> {
     protected final int shift;
 
-    protected OffHeapRegularNumberArray(long length, int shift, long base, MemoryTracker memoryTracker) {
-        super(length, 1 << shift, base, memoryTracker);
+    protected OffHeapRegularNumberArray(
+            long length, int shift, long base, boolean hugePages, MemoryTracker memoryTracker) {
+        super(length, 1 << shift, base, hugePages, memoryTracker);
         this.shift = shift;
     }
 
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.cache;
+
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.neo4j.internal.nativeimpl.NativeAccess;
+import org.neo4j.internal.nativeimpl.NativeAccessProvider;
+import org.neo4j.util.FeatureToggles;
+
+/**
+ * Lays out large off-heap arrays on transparent huge page boundaries and advises the kernel to back them with huge pages.
+ * Random access into large arrays, like the {@link NodeRelationshipCache} during relationship linking, is dominated by
+ * TLB misses when backed by regular pages. Only used for arrays of at least {@link #MIN_HUGE_PAGES} huge pages
+ * so that aligning them, which costs up to a huge page per array, doesn't waste a noticeable amount of memory.
+ */
+final class TransparentHugePages {
+    private static final Path SYSFS = Path.of("/sys/kernel/mm/transparent_hugepage");
+    private static final boolean ENABLED = FeatureToggles.flag(TransparentHugePages.class, "enabled", true);
+    static final int MIN_HUGE_PAGES = 16;
+
+    static final TransparentHugePages SYSTEM = ENABLED
+            ? new TransparentHugePages(NativeAccessProvider.getNativeAccess(), SYSFS)
+            : new TransparentHugePages(null, 0);
+
+    private final NativeAccess nativeAccess;
+    private final long hugePageSize;
+
+    TransparentHugePages(NativeAccess nativeAccess, long hugePageSize) {
+        this.nativeAccess = nativeAccess;
+        this.hugePageSize = hugePageSize;
+    }
+
+    private TransparentHugePages(NativeAccess nativeAccess, Path sysfs) {
+        this(nativeAccess, nativeAccess.isAvailable() ? hugePageSize(sysfs) : 0);
+    }
+
+    /**
+     * @return whether or not arrays of the given size gets laid out on huge page boundaries.
+     */
+    boolean appliesTo(long bytes) {
+        return hugePageSize > 0 && bytes >= hugePageSize * MIN_HUGE_PAGES;
+    }
+
+    /**
+     * @return size of a huge page, or {@code 0} if huge pages are not available.
+     */
+    long hugePageSize() {
+        return hugePageSize;
+    }
+
+    /**
+     * @return number of bytes to allocate for an array of the given size to be able to lay it out on huge page
+     * boundaries, i.e. its size rounded up to whole huge pages and one more huge page of slack.
+     */
+    long bytesToAllocate(long bytes) {
+        return roundUp(bytes) + hugePageSize;
+    }
+
+    /**
+     * Finds the first huge page boundary in memory allocated with {@link #bytesToAllocate(long)} bytes and advises
+     * the kernel to back the array starting there with huge pages. The advice not being taken is fine, the memory is
+     * usable either way.
+     *
+     * @param allocatedAddress address of the allocated memory.
+     * @param bytes size of the array.
+     * @return address of the array.
+     */
+    long align(long allocatedAddress, long bytes) {
+        long address = (allocatedAddress + hugePageSize - 1) & -hugePageSize;
+        nativeAccess.tryAdviseHugePages(address, roundUp(bytes));
+        return address;
+    }
+
+    /**
+     * @return the given chunk size, in number of items, grown so that the chunk fills up whole huge pages if chunks
+     * of that size gets laid out on huge page boundaries, otherwise the given chunk size as is.
+     */
+    long chunkSize(long items, int itemSize, long maxItems) {
+        long bytes = items * itemSize;
+        if (!appliesTo(bytes)) {
+            return items;
+        }
+        long alignedItems = roundUp(bytes) / itemSize;
+        return alignedItems <= maxItems ? alignedItems : items;
+    }
+
+    private long roundUp(long bytes) {
+        return (bytes + hugePageSize - 1) & -hugePageSize;
+    }
+
+    private static long hugePageSize(Path sysfs) {
+        try {
+            // e.g. "always [madvise] never", where the selected mode is within brackets
+            if (Files.readString(sysfs.resolve("enabled")).contains("[never]")) {
+                return 0;
+            }
+            Path pageSize = sysfs.resolve("hpage_pmd_size");
+            long size = Files.exists(pageSize)
+                    ? Long.parseLong(Files.readString(pageSize).trim())
+                    : mebiBytes(2);
+            return Long.bitCount(size) == 1 ? size : 0;
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+}
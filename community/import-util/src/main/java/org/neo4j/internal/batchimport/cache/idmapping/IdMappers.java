@@ -28,6 +28,7 @@ import org.neo4j.internal.batchimport.PropertyValueLookup;
 import org.neo4j.internal.batchimport.cache.MemoryStatsVisitor;
 import org.neo4j.internal.batchimport.cache.NumberArrayFactory;
 import org.neo4j.internal.batchimport.cache.idmapping.string.EncodingIdMapper;
+import org.neo4j.internal.batchimport.cache.idmapping.string.ExternalSort;
 import org.neo4j.internal.batchimport.cache.idmapping.string.LongCollisionValues;
 import org.neo4j.internal.batchimport.cache.idmapping.string.LongEncoder;
 import org.neo4j.internal.batchimport.cache.idmapping.string.Radix;
@@ -119,6 +120,25 @@ public class IdMappers {
             ReadableGroups groups,
             boolean strictNodeCheck,
             MemoryTracker memoryTracker) {
+        return strings(cacheFactory, groups, strictNodeCheck, null, memoryTracker);
+    }
+
+    /**
+     * An {@link IdMapper} capable of mapping {@link String strings} to long ids, optionally sorting them on disk
+     * when preparing, for when they don't fit in memory.
+     *
+     * @param cacheFactory {@link NumberArrayFactory} for allocating memory for the cache used by this index.
+     * @param groups {@link Groups} containing all id groups.
+     * @param externalSort settings for sorting on disk, or {@code null} for sorting in memory.
+     * @param memoryTracker underlying buffers allocation memory tracker
+     * @return {@link IdMapper} for when input ids are strings.
+     */
+    public static IdMapper strings(
+            NumberArrayFactory cacheFactory,
+            ReadableGroups groups,
+            boolean strictNodeCheck,
+            ExternalSort.Settings externalSort,
+            MemoryTracker memoryTracker) {
         return new EncodingIdMapper(
                 cacheFactory,
                 new StringEncoder(),
@@ -128,6 +148,7 @@ public class IdMappers {
                 dynamic(memoryTracker),
                 groups,
                 numberOfCollisions -> new StringCollisionValues(cacheFactory, numberOfCollisions, memoryTracker),
+                externalSort,
                 memoryTracker);
     }
 
@@ -140,6 +161,24 @@ public class IdMappers {
      * @return {@link IdMapper} for when input ids are numbers.
      */
     public static IdMapper longs(NumberArrayFactory cacheFactory, ReadableGroups groups, MemoryTracker memoryTracker) {
+        return longs(cacheFactory, groups, null, memoryTracker);
+    }
+
+    /**
+     * An {@link IdMapper} capable of mapping {@link Long arbitrary longs} to long ids, optionally sorting them on disk
+     * when preparing, for when they don't fit in memory.
+     *
+     * @param cacheFactory {@link NumberArrayFactory} for allocating memory for the cache used by this index.
+     * @param groups {@link Groups} containing all id groups.
+     * @param externalSort settings for sorting on disk, or {@code null} for sorting in memory.
+     * @param memoryTracker underlying buffers allocation memory tracker
+     * @return {@link IdMapper} for when input ids are numbers.
+     */
+    public static IdMapper longs(
+            NumberArrayFactory cacheFactory,
+            ReadableGroups groups,
+            ExternalSort.Settings externalSort,
+            MemoryTracker memoryTracker) {
         return new EncodingIdMapper(
                 cacheFactory,
                 new LongEncoder(),
@@ -149,6 +188,7 @@ public class IdMappers {
                 dynamic(memoryTracker),
                 groups,
                 numberOfCollisions -> new LongCollisionValues(cacheFactory, numberOfCollisions, memoryTracker),
+                externalSort,
                 memoryTracker);
     }
 }
@@ -125,6 +125,8 @@ public class EncodingIdMapper implements IdMapper {
     private static final LongBitsManipulator COLLISION_BIT = new LongBitsManipulator(56, 1);
     private static final int DEFAULT_CACHE_CHUNK_SIZE = 1_000_000; // 8MB a piece
     private static final int COLLISION_ENTRY_SIZE = 5 /*nodeId*/ + 6 /*offset*/;
+    // Every this many sorted entries the eId is kept in memory when sorted externally, see #fences
+    private static final int FENCE_INTERVAL = 1_024;
     // Using 0 as gap value, i.e. value for a node not having an id, i.e. not present in dataCache is safe
     // because the current set of Encoder implementations will always set some amount of bits higher up in
     // the long value representing the length of the id.
@@ -167,6 +169,12 @@ public class EncodingIdMapper implements IdMapper {
     private boolean readyForUse;
     private SortBucket[] sortBuckets;
 
+    // When set the data cache is sorted on disk instead of in memory, see ExternalSort
+    private final ExternalSort.Settings externalSort;
+    // Only used if sorted externally: every FENCE_INTERVAL:th eId in sorted order, to narrow down binary searches
+    // to a small range of the tracker cache so that lookups touch few pages of a disk-resident tracker and data cache
+    private long[] fences;
+
     private final Monitor monitor;
     private final ReadableGroups groups;
 
@@ -184,6 +192,34 @@ public class EncodingIdMapper implements IdMapper {
             ReadableGroups groups,
             LongFunction<CollisionValues> collisionValuesFactory,
             MemoryTracker memoryTracker) {
+        this(
+                cacheFactory,
+                encoder,
+                strictNodeCheck,
+                radixFactory,
+                monitor,
+                trackerFactory,
+                groups,
+                collisionValuesFactory,
+                null,
+                memoryTracker);
+    }
+
+    /**
+     * @param externalSort settings for sorting on disk in {@link #prepare(PropertyValueLookup, Collector, ProgressMonitorFactory)},
+     * or {@code null} for sorting in memory.
+     */
+    public EncodingIdMapper(
+            NumberArrayFactory cacheFactory,
+            Encoder encoder,
+            boolean strictNodeCheck,
+            Factory<Radix> radixFactory,
+            Monitor monitor,
+            TrackerFactory trackerFactory,
+            ReadableGroups groups,
+            LongFunction<CollisionValues> collisionValuesFactory,
+            ExternalSort.Settings externalSort,
+            MemoryTracker memoryTracker) {
         this(
                 cacheFactory,
                 encoder,
@@ -196,6 +232,7 @@ public class EncodingIdMapper implements IdMapper {
                 DEFAULT_CACHE_CHUNK_SIZE,
                 Runtime.getRuntime().availableProcessors() - 1,
                 DEFAULT,
+                externalSort,
                 memoryTracker);
     }
 
@@ -211,6 +248,7 @@ public class EncodingIdMapper implements IdMapper {
             int chunkSize,
             int processorsForParallelWork,
             Comparator comparator,
+            ExternalSort.Settings externalSort,
             MemoryTracker memoryTracker) {
         this.radixFactory = radixFactory;
         this.monitor = monitor;
@@ -218,6 +256,7 @@ public class EncodingIdMapper implements IdMapper {
         this.trackerFactory = trackerFactory;
         this.collisionValuesFactory = collisionValuesFactory;
         this.comparator = comparator;
+        this.externalSort = externalSort;
         this.processorsForParallelWork = max(processorsForParallelWork, 1);
         this.strictNodeCheck = strictNodeCheck;
         this.memoryTracker = memoryTracker;
@@ -296,16 +335,31 @@ public class EncodingIdMapper implements IdMapper {
 
         var numNodes = highestSetIndex + 1;
         try (var progress = progressMonitorFactory.singlePart("Prepare ID mapper", numNodes * 3)) {
-            sortBuckets = new ParallelSort(
-                            radix,
-                            dataCache,
-                            highestSetIndex,
-                            highestSetTrackerIndex,
-                            trackerCache,
-                            processorsForParallelWork,
-                            progress,
-                            comparator)
-                    .run();
+            if (externalSort != null) {
+                sortBuckets = new ExternalSort(
+                                radix,
+                                dataCache,
+                                highestSetIndex,
+                                highestSetTrackerIndex,
+                                trackerCache,
+                                processorsForParallelWork,
+                                progress,
+                                externalSort,
+                                memoryTracker)
+                        .run();
+                fences = buildFences();
+            } else {
+                sortBuckets = new ParallelSort(
+                                radix,
+                                dataCache,
+                                highestSetIndex,
+                                highestSetTrackerIndex,
+                                trackerCache,
+                                processorsForParallelWork,
+                                progress,
+                                comparator)
+                        .run();
+            }
 
             long pessimisticNumberOfCollisions = detectAndMarkCollisions(progress, sortBuckets);
             if (pessimisticNumberOfCollisions > 0) {
@@ -323,6 +377,14 @@ public class EncodingIdMapper implements IdMapper {
         readyForUse = true;
     }
 
+    private long[] buildFences() {
+        long[] fences = new long[toIntExact((highestSetTrackerIndex + FENCE_INTERVAL) / FENCE_INTERVAL)];
+        for (int i = 0; i < fences.length; i++) {
+            fences[i] = dataValue((long) i * FENCE_INTERVAL);
+        }
+        return fences;
+    }
+
     private static void updateRadix(LongArray values, Radix radix, long highestSetIndex) {
         for (long dataIndex = 0; dataIndex <= highestSetIndex; dataIndex++) {
             radix.registerRadixOf(values.get(dataIndex));
@@ -337,6 +399,9 @@ public class EncodingIdMapper implements IdMapper {
         long low = 0;
         long high = highestSetTrackerIndex;
         long x = encode(inputId);
+        if (fences != null) {
+            return strictCheck(inputId, binarySearchWithinFences(x, inputId, groupId), lookup);
+        }
         int rIndex = radixOf(x);
         for (int k = 0; k < sortBuckets.length; k++) {
             if (rIndex <= sortBuckets[k].highRadixRange) // bucketRange[k] > rIndex )
@@ -353,6 +418,42 @@ public class EncodingIdMapper implements IdMapper {
             high = highestSetTrackerIndex;
             nodeId = binarySearch(x, inputId, low, high, groupId);
         }
+        return strictCheck(inputId, nodeId, lookup);
+    }
+
+    /**
+     * The fences are sorted, so the eId can only be between the last fence lower than it and the first fence
+     * higher than it. Equal eIds may span multiple fences, which is why fences equal to it aren't used as bounds.
+     */
+    private long binarySearchWithinFences(long x, Object inputId, int groupId) {
+        int lowFence = -1;
+        int highFence = fences.length;
+        int low = 0;
+        int high = fences.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Utils.unsignedCompare(fences[mid], x, Utils.CompareType.LT)) {
+                lowFence = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        for (int i = lowFence + 1; i < fences.length; i++) {
+            if (Utils.unsignedCompare(fences[i], x, Utils.CompareType.GT)) {
+                highFence = i;
+                break;
+            }
+        }
+        return binarySearch(
+                x,
+                inputId,
+                max(0, (long) lowFence * FENCE_INTERVAL),
+                min(highestSetTrackerIndex, (long) highFence * FENCE_INTERVAL),
+                groupId);
+    }
+
+    private long strictCheck(Object inputId, long nodeId, PropertyValueLookup.Lookup lookup) {
         // Strict check needed?
         if (nodeId != ID_NOT_FOUND && strictNodeCheck) {
             var referenceInputId = lookup.lookupProperty(nodeId);
@@ -893,7 +994,8 @@ public class EncodingIdMapper implements IdMapper {
 
     @Override
     public String toString() {
-        return getClass().getSimpleName() + "[" + encoder + "," + radix + "]";
+        return getClass().getSimpleName() + "[" + encoder + "," + radix + (externalSort != null ? ",external" : "")
+                + "]";
     }
 
     @Override
@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.cache.idmapping.string;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static org.neo4j.internal.batchimport.cache.idmapping.string.EncodingIdMapper.GAP_VALUE;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.neo4j.internal.batchimport.cache.LongArray;
+import org.neo4j.internal.batchimport.cache.idmapping.string.ParallelSort.SortBucket;
+import org.neo4j.internal.helpers.progress.ProgressListener;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.ByteBuffers;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * Alternative to {@link ParallelSort} for when the data cache is too big to sort in memory, typically because
+ * it has been allocated in the page cache and would be accessed randomly by a quick sort. Produces the same result,
+ * a sorted tracker cache and {@link SortBucket buckets} over it, but accesses the data cache and tracker cache
+ * only sequentially:
+ * <ol>
+ * <li>The data cache is divided into one range per thread. Each thread reads its range sequentially in runs of
+ * at most {@link Settings#maxEntriesInMemory()}/threads {@code eId,dataIndex} pairs, sorts each run in memory and
+ * writes it to a temporary file.</li>
+ * <li>All runs are merged in a single k-way merge, writing the data indexes to the tracker cache in sorted order.
+ * Buckets are cut where the radix changes, so that equal eIds never end up in different buckets.</li>
+ * </ol>
+ * Equal eIds are ordered by data index.
+ */
+public class ExternalSort {
+    private static final int ENTRY_SIZE = Long.BYTES * 2;
+    private static final int MIN_BUFFER_SIZE = 4 * 1024;
+    private static final int MAX_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Settings for sorting the id mapper on disk.
+     *
+     * @param fs {@link FileSystemAbstraction} to write the sorted runs with.
+     * @param tempDirectory directory to write the sorted runs in. It's created if needed and deleted afterwards.
+     * @param maxEntriesInMemory max number of entries to have in memory at any given time, across all threads.
+     */
+    public record Settings(FileSystemAbstraction fs, Path tempDirectory, long maxEntriesInMemory) {}
+
+    private final Radix radix;
+    private final RadixCalculator radixCalculator;
+    private final LongArray dataCache;
+    private final long highestSetIndex;
+    private final long highestSetTrackerIndex;
+    private final Tracker tracker;
+    private final int threads;
+    private final ProgressListener progress;
+    private final Settings settings;
+    private final MemoryTracker memoryTracker;
+
+    public ExternalSort(
+            Radix radix,
+            LongArray dataCache,
+            long highestSetIndex,
+            long highestSetTrackerIndex,
+            Tracker tracker,
+            int threads,
+            ProgressListener progress,
+            Settings settings,
+            MemoryTracker memoryTracker) {
+        this.radix = radix;
+        this.radixCalculator = radix.calculator();
+        this.dataCache = dataCache;
+        this.highestSetIndex = highestSetIndex;
+        this.highestSetTrackerIndex = highestSetTrackerIndex;
+        this.tracker = tracker;
+        this.threads = threads;
+        this.progress = progress;
+        this.settings = settings;
+        this.memoryTracker = memoryTracker;
+    }
+
+    public synchronized SortBucket[] run() throws InterruptedException {
+        FileSystemAbstraction fs = settings.fs();
+        try {
+            fs.mkdirs(settings.tempDirectory());
+            try {
+                List<Path> runs = writeSortedRuns();
+                return merge(runs);
+            } finally {
+                fs.deleteRecursively(settings.tempDirectory());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> writeSortedRuns() throws InterruptedException {
+        long dataSize = highestSetIndex + 1;
+        int numberOfWorkers = toIntExact(max(1, min(threads, dataSize / 1_000)));
+        int runSize =
+                toIntExact(max(1_000, min(Integer.MAX_VALUE - 8, settings.maxEntriesInMemory() / numberOfWorkers)));
+        long rangeSize = (dataSize + numberOfWorkers - 1) / numberOfWorkers;
+        Workers<RunWriter> writers = new Workers<>("ExternalSortRunWriter");
+        for (int i = 0; i < numberOfWorkers; i++) {
+            long from = i * rangeSize;
+            writers.start(new RunWriter(i, from, min(dataSize, from + rangeSize), runSize));
+        }
+        writers.awaitAndThrowOnError();
+        List<Path> runs = new ArrayList<>();
+        for (RunWriter writer : writers) {
+            runs.addAll(writer.runs);
+        }
+        return runs;
+    }
+
+    private SortBucket[] merge(List<Path> runs) throws IOException {
+        long count = highestSetTrackerIndex + 1;
+        List<SortBucket> buckets = new ArrayList<>();
+        if (count == 0) {
+            return new SortBucket[0];
+        }
+
+        long bytesInMemory = settings.maxEntriesInMemory() * ENTRY_SIZE;
+        int bufferSize = toIntExact(max(MIN_BUFFER_SIZE, min(MAX_BUFFER_SIZE, bytesInMemory / max(1, runs.size()))));
+        bufferSize -= bufferSize % ENTRY_SIZE;
+        RunReader[] heap = new RunReader[runs.size()];
+        int heapSize = 0;
+        try {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(settings.fs().read(run), bufferSize);
+                if (reader.next()) {
+                    heap[heapSize++] = reader;
+                } else {
+                    reader.close();
+                }
+            }
+            for (int i = heapSize / 2 - 1; i >= 0; i--) {
+                siftDown(heap, heapSize, i);
+            }
+
+            long targetBucketSize = max(1, count / threads);
+            SortBucket bucket = newBucket(buckets, 0);
+            int previousRadix = -1;
+            long trackerIndex = 0;
+            int localProgress = 0;
+            while (heapSize > 0) {
+                RunReader reader = heap[0];
+                int radixIndex = radixCalculator.radixOf(reader.eId);
+                if (bucket.count >= targetBucketSize && radixIndex != previousRadix && buckets.size() < threads) {
+                    bucket.highRadixRange = previousRadix;
+                    bucket = newBucket(buckets, trackerIndex);
+                }
+                tracker.set(trackerIndex++, reader.dataIndex);
+                bucket.count++;
+                previousRadix = radixIndex;
+                if (++localProgress == 10_000) {
+                    progress.add(localProgress);
+                    localProgress = 0;
+                }
+
+                if (!reader.next()) {
+                    reader.close();
+                    heap[0] = heap[--heapSize];
+                }
+                siftDown(heap, heapSize, 0);
+            }
+            progress.add(localProgress);
+            bucket.highRadixRange = radix.getRadixIndexCounts().length;
+            if (trackerIndex != count) {
+                throw new IllegalStateException(
+                        "Expected to sort " + count + " entries, but the data cache had " + trackerIndex);
+            }
+        } finally {
+            for (int i = 0; i < heapSize; i++) {
+                heap[i].close();
+            }
+        }
+        return buckets.toArray(new SortBucket[0]);
+    }
+
+    private static SortBucket newBucket(List<SortBucket> buckets, long baseIndex) {
+        SortBucket bucket = new SortBucket();
+        bucket.baseIndex = baseIndex;
+        buckets.add(bucket);
+        return bucket;
+    }
+
+    private static void siftDown(RunReader[] heap, int size, int index) {
+        while (true) {
+            int smallest = index;
+            int left = index * 2 + 1;
+            int right = left + 1;
+            if (left < size && heap[left].lessThan(heap[smallest])) {
+                smallest = left;
+            }
+            if (right < size && heap[right].lessThan(heap[smallest])) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            RunReader temp = heap[index];
+            heap[index] = heap[smallest];
+            heap[smallest] = temp;
+            index = smallest;
+        }
+    }
+
+    /**
+     * Unsigned comparison of eIds, with data index as tie-breaker, by flipping the sign bit of the eIds.
+     */
+    private static boolean lessThan(long signedEIdA, long dataIndexA, long signedEIdB, long dataIndexB) {
+        return signedEIdA < signedEIdB || (signedEIdA == signedEIdB && dataIndexA < dataIndexB);
+    }
+
+    private class RunWriter implements Runnable {
+        private final int id;
+        private final long fromInclusive;
+        private final long toExclusive;
+        private final long[] eIds;
+        private final long[] dataIndexes;
+        private final List<Path> runs = new ArrayList<>();
+
+        RunWriter(int id, long fromInclusive, long toExclusive, int runSize) {
+            this.id = id;
+            this.fromInclusive = fromInclusive;
+            this.toExclusive = toExclusive;
+            int size = toIntExact(min(runSize, toExclusive - fromInclusive));
+            this.eIds = new long[size];
+            this.dataIndexes = new long[size];
+        }
+
+        @Override
+        public void run() {
+            try {
+                int size = 0;
+                for (long dataIndex = fromInclusive; dataIndex < toExclusive; dataIndex++) {
+                    long eId = dataCache.get(dataIndex);
+                    if (eId == GAP_VALUE) {
+                        continue;
+                    }
+                    eIds[size] = eId ^ Long.MIN_VALUE;
+                    dataIndexes[size] = dataIndex;
+                    if (++size == eIds.length) {
+                        writeRun(size);
+                        size = 0;
+                    }
+                }
+                if (size > 0) {
+                    writeRun(size);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeRun(int size) throws IOException {
+            sort(0, size - 1);
+            Path file = settings.tempDirectory().resolve("run-" + id + "-" + runs.size());
+            int bufferSize = toIntExact(min((long) size * ENTRY_SIZE, MAX_BUFFER_SIZE));
+            ByteBuffer buffer = ByteBuffers.allocate(bufferSize, ByteOrder.LITTLE_ENDIAN, memoryTracker);
+            try (StoreChannel channel = settings.fs().write(file)) {
+                for (int i = 0; i < size; i++) {
+                    if (buffer.remaining() < ENTRY_SIZE) {
+                        channel.writeAll(buffer.flip());
+                        buffer.clear();
+                    }
+                    buffer.putLong(eIds[i]).putLong(dataIndexes[i]);
+                }
+                channel.writeAll(buffer.flip());
+            } finally {
+                ByteBuffers.releaseBuffer(buffer, memoryTracker);
+            }
+            runs.add(file);
+        }
+
+        private void sort(int low, int high) {
+            while (high - low > 16) {
+                int pivotIndex = partition(low, high);
+                // Recurse into the smaller half to bound the stack depth
+                if (pivotIndex - low < high - pivotIndex) {
+                    sort(low, pivotIndex - 1);
+                    low = pivotIndex + 1;
+                } else {
+                    sort(pivotIndex + 1, high);
+                    high = pivotIndex - 1;
+                }
+            }
+            for (int i = low + 1; i <= high; i++) {
+                for (int j = i; j > low && lessThan(eIds[j], dataIndexes[j], eIds[j - 1], dataIndexes[j - 1]); j--) {
+                    swap(j, j - 1);
+                }
+            }
+        }
+
+        private int partition(int low, int high) {
+            int middle = (low + high) >>> 1;
+            // Median of three as pivot, placed at the high end
+            if (lessThan(eIds[middle], dataIndexes[middle], eIds[low], dataIndexes[low])) {
+                swap(middle, low);
+            }
+            if (lessThan(eIds[high], dataIndexes[high], eIds[low], dataIndexes[low])) {
+                swap(high, low);
+            }
+            if (lessThan(eIds[middle], dataIndexes[middle], eIds[high], dataIndexes[high])) {
+                swap(middle, high);
+            }
+            long pivotEId = eIds[high];
+            long pivotDataIndex = dataIndexes[high];
+            int store = low;
+            for (int i = low; i < high; i++) {
+                if (lessThan(eIds[i], dataIndexes[i], pivotEId, pivotDataIndex)) {
+                    swap(i, store++);
+                }
+            }
+            swap(store, high);
+            return store;
+        }
+
+        private void swap(int a, int b) {
+            long eId = eIds[a];
+            eIds[a] = eIds[b];
+            eIds[b] = eId;
+            long dataIndex = dataIndexes[a];
+            dataIndexes[a] = dataIndexes[b];
+            dataIndexes[b] = dataIndex;
+        }
+    }
+
+    private class RunReader implements AutoCloseable {
+        private final StoreChannel channel;
+        private final ByteBuffer buffer;
+        private long signedEId;
+        private long eId;
+        private long dataIndex;
+
+        RunReader(StoreChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffers.allocate(bufferSize, ByteOrder.LITTLE_ENDIAN, memoryTracker);
+            this.buffer.flip();
+        }
+
+        boolean next() throws IOException {
+            if (buffer.remaining() < ENTRY_SIZE) {
+                buffer.compact();
+                while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                    // keep filling the buffer
+                }
+                buffer.flip();
+                if (buffer.remaining() < ENTRY_SIZE) {
+                    return false;
+                }
+            }
+            signedEId = buffer.getLong();
+            eId = signedEId ^ Long.MIN_VALUE;
+            dataIndex = buffer.getLong();
+            return true;
+        }
+
+        boolean lessThan(RunReader other) {
+            return ExternalSort.lessThan(signedEId, dataIndex, other.signedEId, other.dataIndex);
+        }
+
+        @Override
+        public void close() throws IOException {
+            ByteBuffers.releaseBuffer(buffer, memoryTracker);
+            channel.close();
+        }
+    }
+}
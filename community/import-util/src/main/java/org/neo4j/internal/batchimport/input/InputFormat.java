@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input;
+
+import java.nio.file.Path;
+import org.neo4j.annotations.service.Service;
+import org.neo4j.csv.reader.Configuration;
+import org.neo4j.internal.batchimport.input.csv.CsvInput;
+import org.neo4j.internal.batchimport.input.csv.Decorator;
+import org.neo4j.internal.batchimport.input.csv.Header;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.service.NamedService;
+
+/**
+ * A file format, other than CSV, which an import can read its input from. Formats are separate modules, loaded as
+ * services by their {@link #getName() name} so that the import tool doesn't depend on them.
+ */
+@Service
+public interface InputFormat extends NamedService {
+    /**
+     * Files sharing the same columns, with a decorator specifying global overrides/defaults of the entities in them.
+     */
+    record InputFiles(Decorator decorator, Path[] files) {}
+
+    /**
+     * Creates an {@link Input} reading nodes and relationships from files of this format.
+     *
+     * @param nodeFiles groups of node files, each group mapped to a header of its own by the
+     * {@code nodeHeaderFactory}.
+     * @param nodeHeaderFactory factory for node headers, given the column names as a header line.
+     * @param relationshipFiles groups of relationship files, each group mapped to a header of its own by the
+     * {@code relationshipHeaderFactory}.
+     * @param relationshipHeaderFactory factory for relationship headers, given the column names as a header line.
+     * @param idType {@link IdType} to expect in id fields of node and relationship input.
+     * @param config configuration for parsing column names and values, e.g. array delimiter.
+     * @param monitor {@link CsvInput.Monitor} for internal events.
+     * @param memoryTracker tracker of memory used by the input.
+     * @return the {@link Input} reading the given files.
+     */
+    Input createInput(
+            Iterable<InputFiles> nodeFiles,
+            Header.Factory nodeHeaderFactory,
+            Iterable<InputFiles> relationshipFiles,
+            Header.Factory relationshipHeaderFactory,
+            IdType idType,
+            Configuration config,
+            CsvInput.Monitor monitor,
+            MemoryTracker memoryTracker);
+}
@@ -94,7 +94,8 @@ public class CsvGroupInputIterator implements InputIterator {
                         extractors(config),
                         groupId++,
                         autoSkipHeaders,
-                        monitor);
+                        monitor,
+                        data.utf8Files());
             }
 
             if (current.next((CsvInputChunkProxy) chunk)) {
@@ -31,6 +31,8 @@ import static org.neo4j.util.Preconditions.checkState;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -45,6 +47,7 @@ import org.neo4j.csv.reader.Configuration;
 import org.neo4j.csv.reader.Extractor;
 import org.neo4j.csv.reader.Extractors;
 import org.neo4j.csv.reader.MultiReadable;
+import org.neo4j.hashing.HashFunction;
 import org.neo4j.internal.batchimport.InputIterable;
 import org.neo4j.internal.batchimport.InputIterator;
 import org.neo4j.internal.batchimport.input.Collector;
@@ -287,6 +290,32 @@ public class CsvInput implements Input {
         return groups;
     }
 
+    @Override
+    public long fingerprint() throws IOException {
+        HashFunction hashFunction = HashFunction.incrementalXXH64();
+        long hash = hashFunction.initialise(0);
+        for (Iterable<DataFactory> dataFactories : Arrays.asList(nodeDataFactory, relationshipDataFactory)) {
+            for (DataFactory dataFactory : dataFactories) {
+                Path[] files = dataFactory.create(config).files();
+                if (files == null) {
+                    return 0;
+                }
+                hash = hashFunction.update(hash, files.length);
+                for (Path file : files) {
+                    hash = hashFunction.update(
+                            hash, file.toAbsolutePath().toString().hashCode());
+                    hash = hashFunction.update(hash, Files.size(file));
+                    hash = hashFunction.update(
+                            hash, Files.getLastModifiedTime(file).toMillis());
+                }
+            }
+            // Separates the node files from the relationship files
+            hash = hashFunction.update(hash, -1);
+        }
+        long fingerprint = hashFunction.finalise(hash);
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
     @Override
     public Estimates calculateEstimates(PropertySizeCalculator valueSizeCalculator) throws IOException {
         long[] nodeSample =
@@ -25,17 +25,21 @@ import static org.neo4j.internal.batchimport.input.csv.DataFactories.parseHeader
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.Locale;
 import java.util.function.Supplier;
 import org.eclipse.collections.api.map.ImmutableMap;
 import org.eclipse.collections.impl.factory.Lists;
+import org.neo4j.csv.reader.BufferedByteSeeker;
 import org.neo4j.csv.reader.BufferedCharSeeker;
 import org.neo4j.csv.reader.CharReadable;
 import org.neo4j.csv.reader.CharReadableChunker.ChunkImpl;
 import org.neo4j.csv.reader.CharSeeker;
 import org.neo4j.csv.reader.Chunker;
+import org.neo4j.csv.reader.ClosestNewLineByteChunker;
+import org.neo4j.csv.reader.ClosestNewLineByteChunker.ByteChunk;
 import org.neo4j.csv.reader.ClosestNewLineChunker;
 import org.neo4j.csv.reader.Configuration;
 import org.neo4j.csv.reader.Extractors;
@@ -57,7 +61,7 @@ class CsvInputIterator implements SourceTraceability, Closeable {
     private static final ImmutableMap<String, Type> TYPES =
             Lists.immutable.of(Type.values()).toMap(Enum::name, t -> t).toImmutable();
 
-    private final CharReadable stream;
+    private final SourceTraceability source;
     private final Chunker chunker;
     private final int groupId;
     private final Decorator decorator;
@@ -72,8 +76,40 @@ class CsvInputIterator implements SourceTraceability, Closeable {
             Collector badCollector,
             Extractors extractors,
             int groupId,
-            boolean autoSkipHeaders) {
-        this.stream = stream;
+            boolean autoSkipHeaders)
+            throws IOException {
+        this(
+                stream,
+                decorator,
+                header,
+                config,
+                idType,
+                badCollector,
+                extractors,
+                groupId,
+                autoSkipHeaders,
+                null,
+                false);
+    }
+
+    /**
+     * @param utf8Files see {@link #CsvInputIterator(CharReadable, Decorator, Header.Factory, IdType, Configuration,
+     * Groups, Collector, Extractors, int, boolean, Monitor, Path[])}.
+     * @param headerRead whether the first line of {@code stream} has been read as header.
+     */
+    private CsvInputIterator(
+            CharReadable stream,
+            Decorator decorator,
+            Header header,
+            Configuration config,
+            IdType idType,
+            Collector badCollector,
+            Extractors extractors,
+            int groupId,
+            boolean autoSkipHeaders,
+            Path[] utf8Files,
+            boolean headerRead)
+            throws IOException {
         this.decorator = decorator;
         this.groupId = groupId;
         if (config.multilineFields()) {
@@ -85,9 +121,20 @@ class CsvInputIterator implements SourceTraceability, Closeable {
             this.chunker = new EagerParserChunker(
                     stream, idType, header, badCollector, extractors, 1_000, config, decorator, autoSkipHeaders);
             this.realInputChunkSupplier = EagerCsvInputChunk::new;
+            this.source = stream;
         } else {
-            this.chunker =
-                    new ClosestNewLineChunker(stream, config.bufferSize(), headerSkip(autoSkipHeaders, config, idType));
+            if (utf8Files != null && BufferedByteSeeker.supports(config, config.delimiter())) {
+                // The data can be chunked and parsed as raw bytes, so there's no need to decode it all up front
+                stream.close();
+                var byteChunker = new ClosestNewLineByteChunker(
+                        utf8Files, config.bufferSize(), headerRead, headerSkip(autoSkipHeaders, config, idType));
+                this.chunker = byteChunker;
+                this.source = byteChunker;
+            } else {
+                this.chunker = new ClosestNewLineChunker(
+                        stream, config.bufferSize(), headerSkip(autoSkipHeaders, config, idType));
+                this.source = stream;
+            }
             this.realInputChunkSupplier = () -> new LazyCsvInputChunk(
                     idType,
                     config.delimiter(),
@@ -113,6 +160,39 @@ class CsvInputIterator implements SourceTraceability, Closeable {
             boolean autoSkipHeader,
             Monitor monitor)
             throws IOException {
+        this(
+                stream,
+                decorator,
+                headerFactory,
+                idType,
+                config,
+                groups,
+                badCollector,
+                extractors,
+                groupId,
+                autoSkipHeader,
+                monitor,
+                null);
+    }
+
+    /**
+     * @param utf8Files if not {@code null}, the {@link Data#utf8Files() files} of the data in {@code stream}, to read
+     * as raw bytes instead of through {@code stream} if the {@link Configuration} allows it.
+     */
+    CsvInputIterator(
+            CharReadable stream,
+            Decorator decorator,
+            Header.Factory headerFactory,
+            IdType idType,
+            Configuration config,
+            Groups groups,
+            Collector badCollector,
+            Extractors extractors,
+            int groupId,
+            boolean autoSkipHeader,
+            Monitor monitor,
+            Path[] utf8Files)
+            throws IOException {
         this(
                 stream,
                 decorator,
@@ -122,7 +202,9 @@ class CsvInputIterator implements SourceTraceability, Closeable {
                 badCollector,
                 extractors,
                 groupId,
-                autoSkipHeader);
+                autoSkipHeader,
+                utf8Files,
+                !headerFactory.isDefined());
     }
 
     static Header extractHeader(
@@ -216,7 +298,7 @@ class CsvInputIterator implements SourceTraceability, Closeable {
 
     @Override
     public String sourceDescription() {
-        return stream.sourceDescription();
+        return source.sourceDescription();
     }
 
     @Override
@@ -226,10 +308,13 @@ class CsvInputIterator implements SourceTraceability, Closeable {
 
     @Override
     public float compressionRatio() {
-        return stream.compressionRatio();
+        return source.compressionRatio();
     }
 
     static CharSeeker seeker(Chunk chunk, Configuration config) {
+        if (chunk instanceof ByteChunk byteChunk) {
+            return byteChunk.seeker(config);
+        }
         return new BufferedCharSeeker(Source.singleChunk(chunk), config);
     }
 }
@@ -22,6 +22,7 @@ package org.neo4j.internal.batchimport.input.csv;
 import static org.neo4j.internal.batchimport.input.InputEntityDecorators.NO_DECORATOR;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.function.Supplier;
 import org.neo4j.collection.RawIterator;
 import org.neo4j.csv.reader.CharReadable;
@@ -36,6 +37,23 @@ public interface Data {
 
     Decorator decorator();
 
+    /**
+     * @return the files making up this data, in the same order as {@link #stream()}, or {@code null} if the data
+     * isn't read from files.
+     */
+    default Path[] files() {
+        return null;
+    }
+
+    /**
+     * @return the uncompressed, UTF-8 encoded files making up this data, in the same order as {@link #stream()},
+     * which allows them to be read as raw bytes. Returns {@code null} if the data isn't made up of such files.
+     * @throws IOException on I/O error checking the files.
+     */
+    default Path[] utf8Files() throws IOException {
+        return null;
+    }
+
     abstract class Undecorated implements Data {
         @Override
         public Decorator decorator() {
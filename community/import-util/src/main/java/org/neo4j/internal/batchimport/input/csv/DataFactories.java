@@ -20,6 +20,8 @@
 package org.neo4j.internal.batchimport.input.csv;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.ZoneOffset.UTC;
 import static org.neo4j.csv.reader.Readables.individualFiles;
 import static org.neo4j.csv.reader.Readables.iterator;
@@ -45,6 +47,7 @@ import org.neo4j.csv.reader.CharSeeker;
 import org.neo4j.csv.reader.Configuration;
 import org.neo4j.csv.reader.Extractor;
 import org.neo4j.csv.reader.Extractors;
+import org.neo4j.csv.reader.Magic;
 import org.neo4j.csv.reader.Mark;
 import org.neo4j.function.Factory;
 import org.neo4j.internal.batchimport.input.DuplicateHeaderException;
@@ -98,6 +101,26 @@ public class DataFactories {
             public Decorator decorator() {
                 return decorator;
             }
+
+            @Override
+            public Path[] files() {
+                return files;
+            }
+
+            @Override
+            public Path[] utf8Files() throws IOException {
+                if (!charset.equals(UTF_8) && !charset.equals(US_ASCII)) {
+                    return null;
+                }
+                for (Path file : files) {
+                    Magic magic = Magic.of(file);
+                    if (magic != Magic.NONE && magic != Magic.BOM_UTF_8) {
+                        // Compressed, or a byte order mark of another encoding
+                        return null;
+                    }
+                }
+                return files;
+            }
         };
     }
 
@@ -19,129 +19,270 @@
  */
 package org.neo4j.internal.batchimport.staging;
 
-import static java.lang.Integer.min;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.neo4j.internal.batchimport.stats.Keys.avg_processing_time;
 import static org.neo4j.internal.batchimport.stats.Keys.done_batches;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.StreamSupport;
+import java.util.function.DoubleSupplier;
 import org.neo4j.internal.batchimport.Configuration;
-import org.neo4j.internal.batchimport.stats.Keys;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.logging.NullLog;
+import org.neo4j.time.Clocks;
+import org.neo4j.time.SystemNanoClock;
 
 /**
- * Monitors {@link StageExecution executions} and makes changes as the execution goes:
+ * Monitors {@link StageExecution executions} and assigns {@link Step#processors(int) processors} to steps as the
+ * execution goes, based on measured throughput rather than on how the steps compare to each other alone:
  * <ul>
- * <li>Figures out roughly how many CPUs (henceforth called processors) are busy processing batches.
- * The most busy step will have its {@link Step#processors(int) processors} counted as 1 processor each, all other
- * will take into consideration how idle the CPUs executing each step is, counted as less than one.</li>
- * <li>Constantly figures out bottleneck steps and assigns more processors those.</li>
- * <li>Constantly figures out if there are steps that are way faster than the second fastest step and
- * removes processors from those steps.</li>
+ * <li>The bottleneck, i.e. the step with the highest {@link Step#processors(int) per processor} average processing
+ * time, gets more processors. At most doubling its processors each time, or as many as would make it
+ * as fast as the second slowest step, whichever is fewer.</li>
+ * <li>Each change is an experiment. Once {@link Configuration#movingAverageSize()} batches have passed through the
+ * changed step its throughput (done batches per second) is compared to that before the change. If the gain per added
+ * processor is less than {@value #MIN_GAIN_PER_PROCESSOR} of what each processor achieved before the change and the
+ * step still is the bottleneck then the change is reverted and the step won't get more processors than that for the
+ * remainder of the stage. This is what keeps a step which doesn't scale from hogging processors and also what keeps
+ * the assignment from oscillating: a step is never tried again at a processor count which didn't pay off.</li>
  * <li>At all times keeps the total number of processors assigned to steps to a total of less than or equal to
- * {@link Configuration#maxNumberOfWorkerThreads()}.</li>
+ * {@link Configuration#maxNumberOfWorkerThreads()}. When all of them are assigned a processor can instead be moved
+ * from a step which would still be way faster than the bottleneck without it, as an experiment like any other.</li>
+ * <li>Doesn't add processors while heap usage is above {@value #MAX_HEAP_USAGE} of the max heap, since every added
+ * processor keeps another batch alive.</li>
  * </ul>
+ * All changes are logged, together with the throughput which motivated them.
  */
 public class DynamicProcessorAssigner extends ExecutionMonitor.Adapter {
+    static final double MIN_GAIN_PER_PROCESSOR = 0.3;
+    static final double MAX_HEAP_USAGE = 0.9;
+    // A step may give away a processor if it would still be this much faster than the bottleneck without it
+    private static final double DONOR_MARGIN = 0.8;
+
     private final Configuration config;
-    private final Map<Step<?>, Long /*done batches*/> lastChangedProcessors = new HashMap<>();
     private final int availableProcessors;
+    private final InternalLog log;
+    private final SystemNanoClock clock;
+    private final DoubleSupplier heapUsage;
+
+    // State for the current stage
+    private final Map<Step<?>, Integer> ceilings = new HashMap<>();
+    private final Map<Step<?>, Long> windowStartBatches = new HashMap<>();
+    private long windowStartNanos;
+    private Experiment experiment;
+    private boolean heapLimited;
 
     public DynamicProcessorAssigner(Configuration config) {
+        this(config, NullLog.getInstance());
+    }
+
+    public DynamicProcessorAssigner(Configuration config, InternalLog log) {
+        this(config, log, Clocks.nanoClock(), DynamicProcessorAssigner::currentHeapUsage);
+    }
+
+    DynamicProcessorAssigner(Configuration config, InternalLog log, SystemNanoClock clock, DoubleSupplier heapUsage) {
         super(1, SECONDS);
         this.config = config;
         this.availableProcessors = config.maxNumberOfWorkerThreads();
+        this.log = log;
+        this.clock = clock;
+        this.heapUsage = heapUsage;
     }
 
     @Override
     public void start(StageExecution execution) { // A new stage begins, any data that we had is irrelevant
-        lastChangedProcessors.clear();
+        ceilings.clear();
+        experiment = null;
+        heapLimited = false;
+        startWindow(execution);
+    }
+
+    @Override
+    public void end(StageExecution execution, long totalTimeMillis) {
+        StringBuilder assignment = new StringBuilder();
+        for (Step<?> step : execution.steps()) {
+            assignment
+                    .append(assignment.length() > 0 ? ", " : "")
+                    .append(step.name())
+                    .append('=');
+            assignment.append(step.processors(0));
+        }
+        log.info("%s: completed with processors assigned as [%s]", execution.name(), assignment);
     }
 
     @Override
     public void check(StageExecution execution) {
-        if (execution.stillExecuting()) {
-            int permits = availableProcessors - countActiveProcessors(execution);
-            if (permits > 0) {
-                // Be swift at assigning processors to slow steps, i.e. potentially multiple per round
-                permits -= assignProcessors(execution, permits);
-            }
-            // Be a little more conservative removing processors from too fast steps
-            if (permits == 0) {
-                moveProcessorFromOverlyAssigned(execution);
+        if (!execution.stillExecuting()) {
+            return;
+        }
+
+        List<WeightedStep> steps = execution.stepsOrderedBy(avg_processing_time, false);
+        WeightedStep bottleneck = steps.get(0);
+        if (bottleneck.step().longStat(avg_processing_time) == 0) {
+            // No batches have been processed yet
+            return;
+        }
+
+        if (experiment != null) {
+            evaluateExperiment(execution, bottleneck.step());
+        } else {
+            assignProcessors(execution, steps, bottleneck);
+        }
+    }
+
+    private void evaluateExperiment(StageExecution execution, Step<?> bottleneck) {
+        Step<?> step = experiment.step;
+        double throughput = windowThroughput(step);
+        if (Double.isNaN(throughput)) {
+            // Not enough batches have passed since the change
+            return;
+        }
+
+        double gainPerProcessor = (throughput - experiment.throughputBefore) / experiment.added;
+        double throughputPerProcessorBefore = experiment.throughputBefore / experiment.processorsBefore;
+        if (gainPerProcessor < throughputPerProcessorBefore * MIN_GAIN_PER_PROCESSOR && step == bottleneck) {
+            // The added processors didn't pay off and it's not because some other step is holding this one back
+            step.processors(-experiment.added);
+            if (experiment.donor != null) {
+                experiment.donor.processors(experiment.added);
             }
+            ceilings.put(step, experiment.processorsBefore);
+            log.info(
+                    "%s: reverted %s to %d processors, throughput %.1f -> %.1f batches/s isn't worth the processors",
+                    execution.name(), step.name(), step.processors(0), experiment.throughputBefore, throughput);
+        } else {
+            log.info(
+                    "%s: kept %s at %d processors, throughput %.1f -> %.1f batches/s",
+                    execution.name(), step.name(), step.processors(0), experiment.throughputBefore, throughput);
         }
+        experiment = null;
+        startWindow(execution);
     }
 
-    private int assignProcessors(StageExecution execution, int permits) {
-        WeightedStep bottleNeck = execution
-                .stepsOrderedBy(Keys.avg_processing_time, false)
-                .iterator()
-                .next();
-        Step<?> bottleNeckStep = bottleNeck.step();
-        long doneBatches = bottleNeckStep.longStat(done_batches);
-        if (bottleNeck.weight() > 1.0f
-                && batchesPassedSinceLastChange(bottleNeckStep, doneBatches) >= config.movingAverageSize()) {
-            // Assign 1/10th of the remaining permits. This will have processors being assigned more
-            // aggressively in the beginning of the run
-            int optimalProcessorIncrement = min(max(1, (int) bottleNeck.weight().floatValue() - 1), permits);
-            int before = bottleNeckStep.processors(0);
-            int after = bottleNeckStep.processors(max(optimalProcessorIncrement, permits / 10));
-            if (after > before) {
-                lastChangedProcessors.put(bottleNeckStep, doneBatches);
+    private void assignProcessors(StageExecution execution, List<WeightedStep> steps, WeightedStep bottleneck) {
+        Step<?> step = bottleneck.step();
+        int processors = step.processors(0);
+        int room = ceiling(step) - processors;
+        if (room <= 0) {
+            // The bottleneck can't make use of more processors, so neither can this stage
+            return;
+        }
+        double throughput = windowThroughput(step);
+        if (Double.isNaN(throughput) || throughput == 0) {
+            return;
+        }
+
+        int permits = availableProcessors - countActiveProcessors(execution);
+        if (permits > 0) {
+            if (heapUsage.getAsDouble() > MAX_HEAP_USAGE) {
+                if (!heapLimited) {
+                    heapLimited = true;
+                    log.info("%s: not assigning more processors, heap usage is too high", execution.name());
+                }
+                return;
+            }
+            // Enough processors to make it as fast as the next slowest step, but at most doubling them
+            double needed = Math.ceil(processors * (double) bottleneck.weight()) - processors;
+            int increment = (int) max(1, min(min(needed, processors), min(permits, room)));
+            int added = step.processors(increment) - processors;
+            if (added > 0) {
+                beginExperiment(execution, step, processors, added, null, throughput);
+            }
+        } else {
+            Step<?> donor = findDonor(steps, step);
+            if (donor != null) {
+                int donorProcessors = donor.processors(0);
+                if (donor.processors(-1) == donorProcessors) {
+                    return;
+                }
+                if (step.processors(1) > processors) {
+                    beginExperiment(execution, step, processors, 1, donor, throughput);
+                } else {
+                    donor.processors(1);
+                }
             }
-            return after - before;
         }
-        return 0;
     }
 
-    private void moveProcessorFromOverlyAssigned(StageExecution execution) {
-        List<WeightedStep> steps = execution.stepsOrderedBy(Keys.avg_processing_time, true);
-        for (int i = 0; i < steps.size() - 1; i++) {
-            WeightedStep faster = steps.get(i);
-            Step<?> fasterStep = faster.step();
-            WeightedStep slower = steps.get(i + 1);
-            Step<?> slowerStep = slower.step();
-            int numberOfProcessors = faster.step().processors(0);
-            if (numberOfProcessors == 1 || slowerStep.processors(0) == slowerStep.maxProcessors()) {
+    /**
+     * @return a step which would still be way faster than the bottleneck if it gave away one of its processors,
+     * the fastest such step, or {@code null} if there's no such step.
+     */
+    private static Step<?> findDonor(List<WeightedStep> steps, Step<?> bottleneck) {
+        double bottleneckTime = bottleneck.longStat(avg_processing_time);
+        for (int i = steps.size() - 1; i > 0; i--) {
+            Step<?> candidate = steps.get(i).step();
+            int processors = candidate.processors(0);
+            if (candidate == bottleneck || processors == 1) {
                 continue;
             }
-
-            // Translate the factor compared to the next (slower) step and see if this step would still
-            // be faster if we decremented the processor count, with a slight conservative margin as well
-            // (0.8 instead of 1.0 so that we don't decrement and immediately become the bottleneck ourselves).
-            float factorWithDecrementedProcessorCount = faster.weight() * numberOfProcessors / (numberOfProcessors - 1);
-            if (factorWithDecrementedProcessorCount < 0.8f) {
-                long doneBatches = fasterStep.longStat(done_batches);
-                if (batchesPassedSinceLastChange(fasterStep, doneBatches) >= config.movingAverageSize()) {
-                    if (fasterStep.processors(-1) < numberOfProcessors) {
-                        // OK, we pulled one from the faster step which had unnecessarily many processors.
-                        lastChangedProcessors.put(fasterStep, doneBatches);
-                        // Now give that one to the slower step
-                        slowerStep.processors(1);
-                        lastChangedProcessors.put(slowerStep, doneBatches);
-                        return;
-                    }
-                }
+            double timeWithOneLess = (double) candidate.longStat(avg_processing_time) * processors / (processors - 1);
+            if (timeWithOneLess < bottleneckTime * DONOR_MARGIN) {
+                return candidate;
             }
         }
+        return null;
+    }
+
+    private void beginExperiment(
+            StageExecution execution,
+            Step<?> step,
+            int processorsBefore,
+            int added,
+            Step<?> donor,
+            double throughputBefore) {
+        experiment = new Experiment(step, processorsBefore, added, donor, throughputBefore);
+        log.info(
+                "%s: trying %s with %d -> %d processors%s, throughput %.1f batches/s",
+                execution.name(),
+                step.name(),
+                processorsBefore,
+                processorsBefore + added,
+                donor != null ? " taken from " + donor.name() : "",
+                throughputBefore);
+        startWindow(execution);
+    }
+
+    private void startWindow(StageExecution execution) {
+        windowStartNanos = clock.nanos();
+        windowStartBatches.clear();
+        for (Step<?> step : execution.steps()) {
+            windowStartBatches.put(step, step.longStat(done_batches));
+        }
+    }
+
+    /**
+     * @return done batches per second for the given step since the window started, or {@link Double#NaN}
+     * if too few batches have passed to tell.
+     */
+    private double windowThroughput(Step<?> step) {
+        long batches = step.longStat(done_batches) - windowStartBatches.getOrDefault(step, 0L);
+        long nanos = clock.nanos() - windowStartNanos;
+        if (batches < config.movingAverageSize() || nanos <= 0) {
+            return Double.NaN;
+        }
+        return batches * (double) SECONDS.toNanos(1) / nanos;
+    }
+
+    private int ceiling(Step<?> step) {
+        return min(step.maxProcessors(), ceilings.getOrDefault(step, Integer.MAX_VALUE));
     }
 
     private static int countActiveProcessors(StageExecution execution) {
-        return execution.stillExecuting()
-                ? StreamSupport.stream(execution.steps().spliterator(), false)
-                        .mapToInt(step -> step.processors(0))
-                        .sum()
-                : 0;
+        int processors = 0;
+        for (Step<?> step : execution.steps()) {
+            processors += step.processors(0);
+        }
+        return processors;
     }
 
-    private long batchesPassedSinceLastChange(Step<?> step, long doneBatches) {
-        return lastChangedProcessors.containsKey(step)
-                // <doneBatches> number of batches have passed since the last change to this step
-                ? doneBatches - lastChangedProcessors.get(step)
-                // we have made no changes to this step yet, go ahead
-                : config.movingAverageSize();
+    private static double currentHeapUsage() {
+        Runtime runtime = Runtime.getRuntime();
+        return (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
     }
+
+    private record Experiment(Step<?> step, int processorsBefore, int added, Step<?> donor, double throughputBefore) {}
 }
@@ -20,6 +20,8 @@
 package org.neo4j.internal.batchimport.staging;
 
 import org.neo4j.internal.batchimport.Configuration;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.logging.NullLog;
 import org.neo4j.time.Clocks;
 
 /**
@@ -91,7 +93,21 @@ public class ExecutionSupervisors {
      * @return the decorated monitor with dynamic processor assignment capabilities.
      */
     public static ExecutionMonitor withDynamicProcessorAssignment(ExecutionMonitor monitor, Configuration config) {
-        DynamicProcessorAssigner dynamicProcessorAssigner = new DynamicProcessorAssigner(config);
+        return withDynamicProcessorAssignment(monitor, config, NullLog.getInstance());
+    }
+
+    /**
+     * Like {@link #withDynamicProcessorAssignment(ExecutionMonitor, Configuration)}, but also logging the
+     * decisions made by the {@link DynamicProcessorAssigner}.
+     *
+     * @param monitor {@link ExecutionMonitor} to decorate.
+     * @param config {@link Configuration} that the {@link DynamicProcessorAssigner} will use.
+     * @param log {@link InternalLog} to log processor assignment decisions to.
+     * @return the decorated monitor with dynamic processor assignment capabilities.
+     */
+    public static ExecutionMonitor withDynamicProcessorAssignment(
+            ExecutionMonitor monitor, Configuration config, InternalLog log) {
+        DynamicProcessorAssigner dynamicProcessorAssigner = new DynamicProcessorAssigner(config, log);
         return new MultiExecutionMonitor(monitor, dynamicProcessorAssigner);
     }
 }
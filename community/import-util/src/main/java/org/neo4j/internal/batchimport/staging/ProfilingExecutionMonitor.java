@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.staging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.internal.batchimport.Configuration;
+import org.neo4j.internal.batchimport.IoThroughputStat;
+import org.neo4j.internal.batchimport.stats.Key;
+import org.neo4j.internal.batchimport.stats.Keys;
+import org.neo4j.internal.batchimport.stats.Stat;
+import org.neo4j.internal.batchimport.stats.StepStats;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.time.Clocks;
+
+/**
+ * {@link ExecutionMonitor} which samples the {@link StepStats} of every {@link Step} in every {@link StageExecution}
+ * and, when the import is {@link #done(boolean, long, String) done}, writes all samples as a JSON timeline to a file.
+ * <p>
+ * Each sample of a step contains its number of processors, number of queued batches, i.e. batches received
+ * but not yet done, its busy time and how long it has been idle waiting for upstream and downstream respectively,
+ * as well as its {@link IoThroughputStat I/O throughput} for steps reading input. All times are cumulative and
+ * in milliseconds, sample time stamps are relative to the start of the first stage. Each step also gets a summary
+ * saying whether it spent most of its time processing, waiting for upstream or waiting for downstream,
+ * which together with the processor counts over time is what's needed to tell whether an import would benefit from
+ * more threads or more off-heap memory.
+ */
+public class ProfilingExecutionMonitor extends ExecutionMonitor.Adapter {
+    public static final long DEFAULT_INTERVAL_MILLIS = 500;
+
+    private final FileSystemAbstraction fs;
+    private final Path timelineFile;
+    private final Clock clock;
+    private final List<StageProfile> stages = new ArrayList<>();
+    private final Map<StageExecution, StageProfile> executing = new IdentityHashMap<>();
+    private Configuration config;
+    private long startTime = -1;
+
+    public ProfilingExecutionMonitor(FileSystemAbstraction fs, Path timelineFile) {
+        this(fs, timelineFile, DEFAULT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS, Clocks.systemClock());
+    }
+
+    public ProfilingExecutionMonitor(
+            FileSystemAbstraction fs, Path timelineFile, long interval, TimeUnit unit, Clock clock) {
+        super(interval, unit);
+        this.fs = fs;
+        this.timelineFile = timelineFile;
+        this.clock = clock;
+    }
+
+    @Override
+    public void start(StageExecution execution) {
+        long now = clock.millis();
+        if (startTime == -1) {
+            startTime = now;
+            config = execution.getConfig();
+        }
+        StageProfile stage = new StageProfile(execution.name(), now - startTime);
+        for (Step<?> step : execution.steps()) {
+            stage.steps.add(new StepProfile(step.name(), step.maxProcessors()));
+        }
+        stages.add(stage);
+        executing.put(execution, stage);
+        sample(execution, stage, now);
+    }
+
+    @Override
+    public void check(StageExecution execution) {
+        StageProfile stage = executing.get(execution);
+        if (stage != null) {
+            sample(execution, stage, clock.millis());
+        }
+    }
+
+    @Override
+    public void end(StageExecution execution, long totalTimeMillis) {
+        StageProfile stage = executing.remove(execution);
+        if (stage != null) {
+            sample(execution, stage, clock.millis());
+            stage.totalTimeMillis = totalTimeMillis;
+        }
+    }
+
+    @Override
+    public void done(boolean successful, long totalTimeMillis, String additionalInformation) {
+        try (Writer out = new OutputStreamWriter(fs.openAsOutputStream(timelineFile, false), UTF_8)) {
+            writeTimeline(out, successful, totalTimeMillis, additionalInformation);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write import profile to " + timelineFile, e);
+        }
+    }
+
+    private void sample(StageExecution execution, StageProfile stage, long now) {
+        int i = 0;
+        for (Step<?> step : execution.steps()) {
+            StepStats stats = step.stats();
+            long received = longStat(stats, Keys.received_batches, 0);
+            long done = longStat(stats, Keys.done_batches, 0);
+            stage.steps
+                    .get(i++)
+                    .samples
+                    .add(new Sample(
+                            now - startTime,
+                            step.processors(0),
+                            Math.max(0, received - done),
+                            done,
+                            NANOSECONDS.toMillis(longStat(stats, Keys.total_processing_time, 0)),
+                            NANOSECONDS.toMillis(longStat(stats, Keys.total_processing_wall_clock_time, 0)),
+                            // upstream idle time is measured in millis, downstream idle time in nanos
+                            longStat(stats, Keys.upstream_idle_time, 0),
+                            NANOSECONDS.toMillis(longStat(stats, Keys.downstream_idle_time, 0)),
+                            longStat(stats, Keys.io_throughput, -1)));
+        }
+    }
+
+    private static long longStat(StepStats stats, Key key, long defaultValue) {
+        Stat stat = stats.stat(key);
+        return stat != null ? stat.asLong() : defaultValue;
+    }
+
+    private void writeTimeline(Writer out, boolean successful, long totalTimeMillis, String additionalInformation)
+            throws IOException {
+        out.append("{\n");
+        out.append("  \"successful\": ").append(String.valueOf(successful)).append(",\n");
+        out.append("  \"totalTimeMillis\": ")
+                .append(String.valueOf(totalTimeMillis))
+                .append(",\n");
+        out.append("  \"additionalInformation\": ")
+                .append(quote(additionalInformation))
+                .append(",\n");
+        if (config != null) {
+            out.append("  \"configuration\": {\"maxNumberOfWorkerThreads\": ")
+                    .append(String.valueOf(config.maxNumberOfWorkerThreads()))
+                    .append(", \"maxOffHeapMemory\": ")
+                    .append(String.valueOf(config.maxOffHeapMemory()))
+                    .append(", \"batchSize\": ")
+                    .append(String.valueOf(config.batchSize()))
+                    .append(", \"maxQueueSize\": ")
+                    .append(String.valueOf(config.maxQueueSize()))
+                    .append("},\n");
+        }
+        out.append("  \"stages\": [");
+        for (int s = 0; s < stages.size(); s++) {
+            StageProfile stage = stages.get(s);
+            out.append(s > 0 ? ",\n" : "\n");
+            out.append("    {\"name\": ").append(quote(stage.name));
+            out.append(", \"startMillis\": ").append(String.valueOf(stage.startMillis));
+            out.append(", \"totalTimeMillis\": ").append(String.valueOf(stage.totalTimeMillis));
+            out.append(", \"steps\": [");
+            for (int t = 0; t < stage.steps.size(); t++) {
+                out.append(t > 0 ? ",\n" : "\n");
+                writeStep(out, stage.steps.get(t));
+            }
+            out.append("\n    ]}");
+        }
+        out.append("\n  ]\n}\n");
+    }
+
+    private static void writeStep(Writer out, StepProfile step) throws IOException {
+        Sample last = step.samples.get(step.samples.size() - 1);
+        out.append("      {\"name\": ").append(quote(step.name));
+        out.append(", \"maxProcessors\": ").append(String.valueOf(step.maxProcessors));
+        out.append(", \"summary\": {\"processingMillis\": ").append(String.valueOf(last.processingMillis));
+        out.append(", \"busyMillis\": ").append(String.valueOf(last.busyMillis));
+        out.append(", \"upstreamIdleMillis\": ").append(String.valueOf(last.upstreamIdleMillis));
+        out.append(", \"downstreamIdleMillis\": ").append(String.valueOf(last.downstreamIdleMillis));
+        out.append(", \"mostlySpentOn\": ").append(quote(last.mostlySpentOn()));
+        out.append("}, \"samples\": [");
+        for (int i = 0; i < step.samples.size(); i++) {
+            Sample sample = step.samples.get(i);
+            out.append(i > 0 ? ",\n" : "\n");
+            out.append("        {\"time\": ").append(String.valueOf(sample.time));
+            out.append(", \"processors\": ").append(String.valueOf(sample.processors));
+            out.append(", \"queued\": ").append(String.valueOf(sample.queued));
+            out.append(", \"doneBatches\": ").append(String.valueOf(sample.doneBatches));
+            out.append(", \"processingMillis\": ").append(String.valueOf(sample.processingMillis));
+            out.append(", \"busyMillis\": ").append(String.valueOf(sample.busyMillis));
+            out.append(", \"upstreamIdleMillis\": ").append(String.valueOf(sample.upstreamIdleMillis));
+            out.append(", \"downstreamIdleMillis\": ").append(String.valueOf(sample.downstreamIdleMillis));
+            if (sample.ioThroughput != -1) {
+                out.append(", \"ioBytesPerSecond\": ").append(String.valueOf(sample.ioThroughput));
+            }
+            out.append('}');
+        }
+        out.append("\n      ]}");
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (ch < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        builder.append(ch);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static class StageProfile {
+        private final String name;
+        private final long startMillis;
+        private final List<StepProfile> steps = new ArrayList<>();
+        private long totalTimeMillis = -1;
+
+        StageProfile(String name, long startMillis) {
+            this.name = name;
+            this.startMillis = startMillis;
+        }
+    }
+
+    private static class StepProfile {
+        private final String name;
+        private final int maxProcessors;
+        private final List<Sample> samples = new ArrayList<>();
+
+        StepProfile(String name, int maxProcessors) {
+            this.name = name;
+            this.maxProcessors = maxProcessors;
+        }
+    }
+
+    /**
+     * @param processingMillis processing time summed over all processors.
+     * @param busyMillis processing time divided by number of processors, i.e. wall clock time spent processing.
+     * @param ioThroughput bytes read per second, or {@code -1} if the step doesn't read input.
+     */
+    private record Sample(
+            long time,
+            int processors,
+            long queued,
+            long doneBatches,
+            long processingMillis,
+            long busyMillis,
+            long upstreamIdleMillis,
+            long downstreamIdleMillis,
+            long ioThroughput) {
+        String mostlySpentOn() {
+            if (busyMillis >= upstreamIdleMillis && busyMillis >= downstreamIdleMillis) {
+                return "processing";
+            }
+            return upstreamIdleMillis >= downstreamIdleMillis ? "waitingForUpstream" : "waitingForDownstream";
+        }
+    }
+}
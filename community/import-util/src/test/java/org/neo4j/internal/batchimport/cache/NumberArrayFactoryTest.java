@@ -25,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -35,6 +36,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.neo4j.internal.batchimport.cache.NumberArrayFactories.HEAP;
 import static org.neo4j.internal.batchimport.cache.NumberArrayFactories.OFF_HEAP;
+import static org.neo4j.internal.batchimport.cache.NumberArrayFactories.OFF_HEAP_HUGE_PAGES;
 import static org.neo4j.internal.helpers.collection.Iterables.single;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 
@@ -90,6 +92,37 @@ class NumberArrayFactoryTest {
         assertEquals(0, memoryTracker.estimatedHeapMemory());
     }
 
+    @Test
+    void shouldLayOutLargeOffHeapArraysOnHugePageBoundaries() {
+        long hugePageSize = TransparentHugePages.SYSTEM.hugePageSize();
+        assumeTrue(hugePageSize > 0);
+        var memoryTracker = new LocalMemoryTracker();
+        long length = hugePageSize * TransparentHugePages.MIN_HUGE_PAGES / Long.BYTES + 3;
+
+        try (OffHeapLongArray array =
+                (OffHeapLongArray) OFF_HEAP_HUGE_PAGES.newLongArray(length, -1, 0, memoryTracker)) {
+            assertEquals(0, array.address % hugePageSize);
+            assertEquals(
+                    TransparentHugePages.SYSTEM.bytesToAllocate(length * Long.BYTES), memoryTracker.usedNativeMemory());
+            array.set(0, 1);
+            array.set(length - 1, 2);
+            assertEquals(1, array.get(0));
+            assertEquals(-1, array.get(length / 2));
+            assertEquals(2, array.get(length - 1));
+        }
+        assertEquals(0, memoryTracker.usedNativeMemory());
+    }
+
+    @Test
+    void shouldNotLayOutSmallOffHeapArraysOnHugePageBoundaries() {
+        var memoryTracker = new LocalMemoryTracker(MemoryPools.NO_TRACKING, 300, 0, null);
+        try (LongArray longArray = OFF_HEAP_HUGE_PAGES.newLongArray(10, 1, memoryTracker)) {
+            assertEquals(80, memoryTracker.usedNativeMemory());
+            assertEquals(1, longArray.get(9));
+        }
+        assertEquals(0, memoryTracker.usedNativeMemory());
+    }
+
     @Test
     void shouldPickFirstAvailableCandidateLongArray() {
         // GIVEN
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.internal.helpers.ArrayUtil.MAX_ARRAY_SIZE;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.nativeimpl.NativeAccess;
+import org.neo4j.internal.nativeimpl.NativeCallResult;
+
+class TransparentHugePagesTest {
+    private static final long HUGE_PAGE = mebiBytes(2);
+
+    private final NativeAccess nativeAccess = mock(NativeAccess.class);
+    private final TransparentHugePages hugePages = new TransparentHugePages(nativeAccess, HUGE_PAGE);
+
+    @Test
+    void shouldOnlyApplyToLargeArrays() {
+        long threshold = HUGE_PAGE * TransparentHugePages.MIN_HUGE_PAGES;
+        assertThat(hugePages.appliesTo(threshold - 1)).isFalse();
+        assertThat(hugePages.appliesTo(threshold)).isTrue();
+        assertThat(new TransparentHugePages(nativeAccess, 0).appliesTo(threshold * 100))
+                .isFalse();
+    }
+
+    @Test
+    void shouldAllocateWholeHugePagesAndSlackForAlignment() {
+        assertThat(hugePages.bytesToAllocate(HUGE_PAGE * 20)).isEqualTo(HUGE_PAGE * 21);
+        assertThat(hugePages.bytesToAllocate(HUGE_PAGE * 20 + 1)).isEqualTo(HUGE_PAGE * 22);
+    }
+
+    @Test
+    void shouldAlignAndAdviseHugePages() {
+        when(nativeAccess.tryAdviseHugePages(anyLong(), anyLong())).thenReturn(NativeCallResult.SUCCESS);
+        long bytes = HUGE_PAGE * 20 + 100;
+        long allocated = HUGE_PAGE * 1000 + 4096;
+
+        long address = hugePages.align(allocated, bytes);
+
+        assertThat(address).isEqualTo(HUGE_PAGE * 1001);
+        assertThat(address + bytes).isLessThanOrEqualTo(allocated + hugePages.bytesToAllocate(bytes));
+        verify(nativeAccess).tryAdviseHugePages(address, HUGE_PAGE * 21);
+    }
+
+    @Test
+    void shouldKeepAlignedAddress() {
+        when(nativeAccess.tryAdviseHugePages(anyLong(), anyLong())).thenReturn(NativeCallResult.SUCCESS);
+        assertThat(hugePages.align(HUGE_PAGE * 7, HUGE_PAGE * 20)).isEqualTo(HUGE_PAGE * 7);
+    }
+
+    @Test
+    void shouldGrowChunksToFillWholeHugePages() {
+        long items = HUGE_PAGE * 20 / Long.BYTES + 1;
+        assertThat(hugePages.chunkSize(items, Long.BYTES, MAX_ARRAY_SIZE)).isEqualTo(HUGE_PAGE * 21 / Long.BYTES);
+        // item sizes which don't divide the huge page size still fill up as much as possible of the last huge page
+        assertThat(hugePages.chunkSize(HUGE_PAGE * 20 / 6, 6, MAX_ARRAY_SIZE)).isEqualTo(HUGE_PAGE * 20 / 6);
+        assertThat(hugePages.chunkSize(HUGE_PAGE * 20 / 6 + 1, 6, MAX_ARRAY_SIZE))
+                .isEqualTo(HUGE_PAGE * 21 / 6);
+    }
+
+    @Test
+    void shouldNotGrowSmallChunksOrBeyondMax() {
+        assertThat(hugePages.chunkSize(1000, Long.BYTES, MAX_ARRAY_SIZE)).isEqualTo(1000);
+        long items = HUGE_PAGE * 20 / Long.BYTES + 1;
+        assertThat(hugePages.chunkSize(items, Long.BYTES, items)).isEqualTo(items);
+        assertThat(new TransparentHugePages(nativeAccess, 0).chunkSize(items, Long.BYTES, MAX_ARRAY_SIZE))
+                .isEqualTo(items);
+    }
+}
@@ -799,6 +799,7 @@ public class EncodingIdMapperTest {
                 10_000,
                 processors,
                 ParallelSort.DEFAULT,
+                null,
                 INSTANCE);
     }
 
@@ -821,6 +822,7 @@ public class EncodingIdMapperTest {
                 1_000,
                 processors,
                 comparator,
+                null,
                 INSTANCE);
     }
 
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.cache.idmapping.string;
+
+import static java.lang.Math.toIntExact;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.neo4j.internal.batchimport.cache.idmapping.IdMapper.ID_NOT_FOUND;
+import static org.neo4j.internal.helpers.progress.ProgressMonitorFactory.NONE;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.function.Factory;
+import org.neo4j.internal.batchimport.PropertyValueLookup;
+import org.neo4j.internal.batchimport.cache.NumberArrayFactories;
+import org.neo4j.internal.batchimport.cache.idmapping.IdMapper;
+import org.neo4j.internal.batchimport.input.Collector;
+import org.neo4j.internal.batchimport.input.Group;
+import org.neo4j.internal.batchimport.input.Groups;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@EphemeralTestDirectoryExtension
+@ExtendWith(RandomExtension.class)
+class ExternalSortTest {
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private TestDirectory directory;
+
+    @Inject
+    private RandomSupport random;
+
+    private final Groups groups = new Groups();
+    private final Group groupA = groups.getOrCreate("A");
+    private final Group groupB = groups.getOrCreate("B");
+
+    @ParameterizedTest(name = "processors:{0}")
+    @ValueSource(ints = {1, 2, 4})
+    void shouldFindAllIdsWhenSortedOnDisk(int processors) {
+        // given
+        Path tempDirectory = directory.directory("sort");
+        EncodingIdMapper mapper = mapper(new StringEncoder(), Radix.STRING, tempDirectory, processors);
+        int count = 20_000;
+        List<String> inputIds = new ArrayList<>();
+        List<Long> nodeIds = new ArrayList<>();
+        Map<Long, Object> inputIdsByNodeId = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        long nodeId = 0;
+        for (int i = 0; i < count; i++) {
+            String inputId;
+            do {
+                inputId = random.nextAlphaNumericString(1, 15);
+            } while (!seen.add(inputId));
+            // Leave some gaps in the data cache, like nodes without ids
+            nodeId += random.nextInt(1, 3);
+            inputIds.add(inputId);
+            nodeIds.add(nodeId);
+            inputIdsByNodeId.put(nodeId, inputId);
+            mapper.put(inputId, nodeId, i < count / 2 ? groupA : groupB);
+        }
+
+        // when
+        mapper.prepare(() -> lookup(inputIdsByNodeId::get), mock(Collector.class), NONE);
+
+        // then
+        assertThat(fs.fileExists(tempDirectory)).isFalse();
+        try (IdMapper.Getter getter = mapper.newGetter()) {
+            for (int i = 0; i < count; i++) {
+                Group group = i < count / 2 ? groupA : groupB;
+                Group otherGroup = group == groupA ? groupB : groupA;
+                assertThat(getter.get(inputIds.get(i), group)).isEqualTo(nodeIds.get(i));
+                assertThat(getter.get(inputIds.get(i), otherGroup)).isEqualTo(ID_NOT_FOUND);
+            }
+            assertThat(getter.get("not-an-id-which-was-added", groupA)).isEqualTo(ID_NOT_FOUND);
+        }
+        mapper.close();
+    }
+
+    @ParameterizedTest(name = "processors:{0}")
+    @ValueSource(ints = {1, 3})
+    void shouldResolveCollisionsAndDetectDuplicatesWhenSortedOnDisk(int processors) {
+        // given an encoder which makes every 1000th id below 3000 collide, so that colliding ids end up in different
+        // runs
+        Encoder encoder = new Encoder() {
+            private final StringEncoder actual = new StringEncoder();
+
+            @Override
+            public long encode(Object value) {
+                int id = Integer.parseInt((String) value);
+                return actual.encode(id < 3_000 ? String.valueOf(id % 1_000) : value);
+            }
+        };
+        EncodingIdMapper mapper = mapper(encoder, Radix.STRING, directory.directory("sort"), processors);
+        int count = 5_000;
+        List<String> inputIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            inputIds.add(String.valueOf(i));
+        }
+        // and a couple of actual duplicates
+        inputIds.add("3010");
+        inputIds.add("4321");
+        for (int i = 0; i < inputIds.size(); i++) {
+            mapper.put(inputIds.get(i), i, groupA);
+        }
+
+        // when
+        Collector collector = mock(Collector.class);
+        mapper.prepare(() -> lookup(nodeId -> inputIds.get(toIntExact(nodeId))), collector, NONE);
+
+        // then
+        verify(collector).collectDuplicateNode("3010", count, groupA);
+        verify(collector).collectDuplicateNode("4321", count + 1, groupA);
+        verifyNoMoreInteractions(collector);
+        try (IdMapper.Getter getter = mapper.newGetter()) {
+            for (int i = 0; i < count; i++) {
+                assertThat(getter.get(inputIds.get(i), groupA)).isEqualTo(i);
+            }
+            assertThat(getter.get(String.valueOf(count), groupA)).isEqualTo(ID_NOT_FOUND);
+        }
+        mapper.close();
+    }
+
+    @ParameterizedTest(name = "processors:{0}")
+    @ValueSource(ints = {1, 2})
+    void shouldMapLongIdsWhenSortedOnDisk(int processors) {
+        // given
+        EncodingIdMapper mapper = mapper(new LongEncoder(), Radix.LONG, directory.directory("sort"), processors);
+        int count = 10_000;
+        List<Long> inputIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long inputId = random.nextLong(0, 1L << 56);
+            inputIds.add(inputId);
+            mapper.put(inputId, i, groupA);
+        }
+
+        // when
+        mapper.prepare(() -> lookup(nodeId -> inputIds.get(toIntExact(nodeId))), mock(Collector.class), NONE);
+
+        // then
+        try (IdMapper.Getter getter = mapper.newGetter()) {
+            for (int i = 0; i < count; i++) {
+                assertThat(getter.get(inputIds.get(i), groupA)).isEqualTo(i);
+            }
+        }
+        mapper.close();
+    }
+
+    private EncodingIdMapper mapper(Encoder encoder, Factory<Radix> radix, Path tempDirectory, int processors) {
+        return new EncodingIdMapper(
+                NumberArrayFactories.HEAP,
+                encoder,
+                false,
+                radix,
+                EncodingIdMapper.NO_MONITOR,
+                TrackerFactories.dynamic(INSTANCE),
+                groups,
+                numberOfCollisions -> encoder instanceof LongEncoder
+                        ? new LongCollisionValues(NumberArrayFactories.HEAP, numberOfCollisions, INSTANCE)
+                        : new StringCollisionValues(NumberArrayFactories.HEAP, numberOfCollisions, INSTANCE),
+                1_000,
+                processors,
+                ParallelSort.DEFAULT,
+                // Small enough to force many sorted runs
+                new ExternalSort.Settings(fs, tempDirectory, 2_000),
+                INSTANCE);
+    }
+
+    private static PropertyValueLookup.Lookup lookup(LongFunction<Object> inputIds) {
+        return new PropertyValueLookup.Lookup() {
+            @Override
+            public Object lookupProperty(long nodeId) {
+                return inputIds.apply(nodeId);
+            }
+
+            @Override
+            public void close() {}
+        };
+    }
+}
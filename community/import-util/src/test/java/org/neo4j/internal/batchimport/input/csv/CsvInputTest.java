@@ -21,6 +21,8 @@ package org.neo4j.internal.batchimport.input.csv;
 
 import static java.lang.String.format;
 import static java.nio.charset.Charset.defaultCharset;
+import static java.nio.charset.StandardCharsets.UTF_16;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -73,6 +75,8 @@ import java.io.StringReader;
 import java.lang.reflect.Array;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -1957,6 +1961,101 @@ class CsvInputTest {
                 .hasMessageContaining("referring different groups");
     }
 
+    @ParameterizedTest(name = "trimStrings: {0}")
+    @ValueSource(booleans = {false, true})
+    void shouldReadUtf8FilesAsBytesWhenSupported(boolean trimStrings) throws IOException {
+        // given
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        Path first = directory.file("nodes-1");
+        Files.write(first, bom);
+        Files.writeString(
+                first,
+                ":ID,name,kills:int,:LABEL\n1,\"Jim \"\"the\"\" Raynor\",10,Terran\n2,Zeratul,42,Protoss\n",
+                UTF_8,
+                StandardOpenOption.APPEND);
+        Path second = directory.file("nodes-2");
+        Files.writeString(second, ":ID,name,kills:int,:LABEL\r\n3,Åbathur,0,Zerg\r\n4,\"日本, 😀\",-7,Zerg", UTF_8);
+        DataFactory data = DataFactories.data(NO_DECORATOR, UTF_8, first, second);
+        assertThat(data.create(COMMAS).utf8Files()).containsExactly(first, second);
+        Configuration config = COMMAS.toBuilder().withTrimStrings(trimStrings).build();
+
+        // when
+        try (var input = new CsvInput(
+                        datas(data),
+                        defaultFormatNodeFileHeader(),
+                        datas(),
+                        defaultFormatRelationshipFileHeader(),
+                        INTEGER,
+                        config,
+                        true,
+                        NO_MONITOR,
+                        INSTANCE);
+                var nodes = input.nodes(Collector.STRICT).iterator()) {
+            // then
+            assertNextNode(nodes, 1L, properties("name", "Jim \"the\" Raynor", "kills", 10), labels("Terran"));
+            assertNextNode(nodes, 2L, properties("name", "Zeratul", "kills", 42), labels("Protoss"));
+            assertNextNode(nodes, 3L, properties("name", "Åbathur", "kills", 0), labels("Zerg"));
+            assertNextNode(nodes, 4L, properties("name", "日本, 😀", "kills", -7), labels("Zerg"));
+            assertFalse(readNext(nodes));
+        }
+    }
+
+    @Test
+    void shouldNotReadCompressedFilesAsBytes() throws IOException {
+        Path file = directory.file("nodes.gz");
+        try (var out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(":ID\n1\n".getBytes(UTF_8));
+        }
+
+        assertNull(DataFactories.data(NO_DECORATOR, UTF_8, file).create(COMMAS).utf8Files());
+        assertNull(DataFactories.data(NO_DECORATOR, UTF_16, writeFile("nodes", ":ID", "1"))
+                .create(COMMAS)
+                .utf8Files());
+    }
+
+    @Test
+    void shouldChangeFingerprintWhenInputFileChanges() throws IOException {
+        // given
+        Path nodes = writeFile("nodes.csv", ":ID", "1");
+        Path relationships = writeFile("relationships.csv", ":START_ID,:END_ID,:TYPE", "1,1,KNOWS");
+        Input input = new CsvInput(
+                datas(DataFactories.data(NO_DECORATOR, UTF_8, nodes)),
+                defaultFormatNodeFileHeader(),
+                datas(DataFactories.data(NO_DECORATOR, UTF_8, relationships)),
+                defaultFormatRelationshipFileHeader(),
+                INTEGER,
+                COMMAS,
+                false,
+                NO_MONITOR,
+                INSTANCE);
+        long fingerprint = input.fingerprint();
+
+        // when/then
+        assertThat(fingerprint).isNotZero().isEqualTo(input.fingerprint());
+        Files.setLastModifiedTime(
+                nodes, FileTime.fromMillis(Files.getLastModifiedTime(nodes).toMillis() + 10_000));
+        long touchedFingerprint = input.fingerprint();
+        assertThat(touchedFingerprint).isNotEqualTo(fingerprint);
+        Files.writeString(relationships, "1,1,KNOWS\n", StandardOpenOption.APPEND);
+        assertThat(input.fingerprint()).isNotEqualTo(touchedFingerprint);
+    }
+
+    @Test
+    void shouldNotFingerprintInputNotReadFromFiles() throws IOException {
+        Input input = new CsvInput(
+                datas(data(":ID\n1")),
+                defaultFormatNodeFileHeader(),
+                datas(),
+                defaultFormatRelationshipFileHeader(),
+                INTEGER,
+                COMMAS,
+                false,
+                NO_MONITOR,
+                INSTANCE);
+
+        assertThat(input.fingerprint()).isZero();
+    }
+
     private Path writeFile(String name, String... lines) throws FileNotFoundException {
         Path file = directory.file(name);
         try (PrintWriter writer = new PrintWriter(file.toFile())) {
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.staging;
+
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.batchimport.Configuration;
+import org.neo4j.internal.batchimport.stats.Keys;
+import org.neo4j.logging.NullLog;
+import org.neo4j.time.FakeClock;
+
+/**
+ * Runs the {@link DynamicProcessorAssigner} against a simulated stage of synthetic steps with known cost per batch
+ * and known scalability, where the throughput of the stage is that of its slowest step. Verifies that the assignment
+ * converges, that it converges close to the best possible throughput and that it then stays put.
+ */
+class DynamicProcessorAssignerConvergenceTest {
+    private static final int ROUNDS = 200;
+    private static final int STABLE_ROUNDS = 50;
+
+    private final FakeClock clock = new FakeClock();
+
+    @Test
+    void shouldConvergeOnOptimalThroughput() {
+        // given
+        SyntheticStage stage = new SyntheticStage(
+                16,
+                new SyntheticStep("read", 1_000, Integer.MAX_VALUE),
+                new SyntheticStep("process", 4_000, Integer.MAX_VALUE),
+                new SyntheticStep("write", 2_000, Integer.MAX_VALUE));
+
+        // when
+        stage.run();
+
+        // then 2 + 9 + 4 processors, or any other assignment limited by 2000 batches/s, is the best there is
+        stage.assertConverged();
+        assertThat(stage.throughput()).isGreaterThanOrEqualTo(2_000 * 0.9);
+    }
+
+    @Test
+    void shouldNotAssignProcessorsToStepWhichDoesNotScale() {
+        // given
+        SyntheticStage stage = new SyntheticStage(
+                32,
+                new SyntheticStep("read", 1_000, Integer.MAX_VALUE),
+                new SyntheticStep("contended", 10_000, 4),
+                new SyntheticStep("write", 500, Integer.MAX_VALUE));
+
+        // when
+        stage.run();
+
+        // then
+        stage.assertConverged();
+        assertThat(stage.throughput()).isEqualTo(400);
+        assertThat(stage.processors("contended")).isBetween(4, 8);
+        assertThat(stage.totalProcessors()).isLessThan(16);
+    }
+
+    @Test
+    void shouldMakeUseOfManyProcessorsWithoutOscillating() {
+        // given
+        SyntheticStage stage = new SyntheticStage(
+                96,
+                new SyntheticStep("read", 500, Integer.MAX_VALUE),
+                new SyntheticStep("link", 8_000, Integer.MAX_VALUE),
+                new SyntheticStep("cache", 3_000, Integer.MAX_VALUE),
+                new SyntheticStep("write", 1_000, Integer.MAX_VALUE));
+
+        // when
+        stage.run();
+
+        // then processors assigned in proportion to cost would give 96 / 12.5ms = 7680 batches/s
+        stage.assertConverged();
+        assertThat(stage.throughput()).isGreaterThanOrEqualTo(7_680 * 0.9);
+        assertThat(stage.totalProcessors()).isGreaterThan(90);
+    }
+
+    @Test
+    void shouldStayWithinProcessorBudget() {
+        // given
+        SyntheticStage stage = new SyntheticStage(
+                8,
+                new SyntheticStep("read", 2_000, Integer.MAX_VALUE),
+                new SyntheticStep("process", 3_000, Integer.MAX_VALUE),
+                new SyntheticStep("write", 2_500, Integer.MAX_VALUE));
+
+        // when
+        stage.run();
+
+        // then
+        stage.assertConverged();
+        assertThat(stage.maxTotalProcessors).isLessThanOrEqualTo(8);
+    }
+
+    private class SyntheticStage {
+        private final int availableProcessors;
+        private final List<SyntheticStep> steps;
+        private final StageExecution execution;
+        private final List<String> assignments = new ArrayList<>();
+        private int maxTotalProcessors;
+        private double throughput;
+
+        SyntheticStage(int availableProcessors, SyntheticStep... steps) {
+            this.availableProcessors = availableProcessors;
+            this.steps = Arrays.asList(steps);
+            List<Step<?>> pipeline = new ArrayList<>();
+            for (SyntheticStep step : steps) {
+                pipeline.add(step.step);
+            }
+            this.execution = new StageExecution("Test", null, config(), pipeline, Step.ORDER_SEND_DOWNSTREAM);
+        }
+
+        void run() {
+            DynamicProcessorAssigner assigner =
+                    new DynamicProcessorAssigner(config(), NullLog.getInstance(), clock, () -> 0.5);
+            assigner.start(execution);
+            for (int round = 0; round < ROUNDS; round++) {
+                advanceOneSecond();
+                assigner.check(execution);
+                StringBuilder assignment = new StringBuilder();
+                int total = 0;
+                for (SyntheticStep step : steps) {
+                    int processors = step.step.processors(0);
+                    assignment
+                            .append(step.step.name())
+                            .append('=')
+                            .append(processors)
+                            .append(' ');
+                    total += processors;
+                }
+                assignments.add(assignment.toString());
+                maxTotalProcessors = Math.max(maxTotalProcessors, total);
+            }
+        }
+
+        private void advanceOneSecond() {
+            throughput = Double.MAX_VALUE;
+            for (SyntheticStep step : steps) {
+                throughput = min(throughput, step.throughput());
+            }
+            clock.forward(1, SECONDS);
+            for (SyntheticStep step : steps) {
+                step.process(throughput);
+            }
+        }
+
+        void assertConverged() {
+            List<String> last = assignments.subList(ROUNDS - STABLE_ROUNDS, ROUNDS);
+            assertThat(last).as("Assignments " + assignments).containsOnly(last.get(0));
+            assertThat(maxTotalProcessors).isLessThanOrEqualTo(availableProcessors);
+        }
+
+        double throughput() {
+            return throughput;
+        }
+
+        int processors(String name) {
+            for (SyntheticStep step : steps) {
+                if (step.step.name().equals(name)) {
+                    return step.step.processors(0);
+                }
+            }
+            throw new IllegalArgumentException(name);
+        }
+
+        int totalProcessors() {
+            int total = 0;
+            for (SyntheticStep step : steps) {
+                total += step.step.processors(0);
+            }
+            return total;
+        }
+
+        private Configuration config() {
+            return new Configuration() {
+                @Override
+                public int movingAverageSize() {
+                    return 100;
+                }
+
+                @Override
+                public int maxNumberOfWorkerThreads() {
+                    return availableProcessors;
+                }
+            };
+        }
+    }
+
+    /**
+     * A step processing each batch in {@code costMicros} on each of its processors, although no more than
+     * {@code scalability} processors can process batches at the same time.
+     */
+    private static class SyntheticStep {
+        private final ControlledStep<?> step;
+        private final long costMicros;
+        private final int scalability;
+        private double doneBatches;
+
+        SyntheticStep(String name, long costMicros, int scalability) {
+            this.step = new ControlledStep<>(name, 0);
+            this.costMicros = costMicros;
+            this.scalability = scalability;
+            step.setStat(Keys.done_batches, 0);
+            step.setStat(Keys.avg_processing_time, 0);
+        }
+
+        double throughput() {
+            return effectiveProcessors() * (double) SECONDS.toMicros(1) / costMicros;
+        }
+
+        void process(double batches) {
+            doneBatches += batches;
+            step.setStat(Keys.done_batches, (long) doneBatches);
+            // Like in a real step, the average is per batch and divided by the number of processors,
+            // where processors waiting for contended resources make batches take longer
+            step.setStat(Keys.avg_processing_time, costMicros / effectiveProcessors());
+        }
+
+        private int effectiveProcessors() {
+            return min(step.processors(0), scalability);
+        }
+    }
+}
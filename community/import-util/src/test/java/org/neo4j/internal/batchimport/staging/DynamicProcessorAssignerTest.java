@@ -19,6 +19,7 @@
  */
 package org.neo4j.internal.batchimport.staging;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.neo4j.internal.batchimport.staging.ControlledStep.stepWithStats;
 
@@ -26,13 +27,61 @@ import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 import org.neo4j.internal.batchimport.Configuration;
 import org.neo4j.internal.batchimport.stats.Keys;
+import org.neo4j.logging.NullLog;
+import org.neo4j.time.FakeClock;
 
 class DynamicProcessorAssignerTest {
+    private final FakeClock clock = new FakeClock();
+    private double heapUsage;
+
     @Test
     void shouldAssignProcessorsToSlowestStep() {
         // GIVEN
         Configuration config = config(10, 5);
-        DynamicProcessorAssigner assigner = new DynamicProcessorAssigner(config);
+        DynamicProcessorAssigner assigner = assigner(config);
+
+        ControlledStep<?> slowStep = stepWithStats("slow", 0, Keys.avg_processing_time, 10L, Keys.done_batches, 10L);
+        ControlledStep<?> fastStep = stepWithStats("fast", 0, Keys.avg_processing_time, 2L, Keys.done_batches, 10L);
+
+        StageExecution execution = executionOf(config, slowStep, fastStep);
+        assigner.start(execution);
+
+        // WHEN
+        batchesPassed(10, slowStep, fastStep);
+        assigner.check(execution);
+
+        // THEN at most doubling the processors of the bottleneck at a time
+        assertEquals(2, slowStep.processors(0));
+        assertEquals(1, fastStep.processors(0));
+    }
+
+    @Test
+    void shouldAssignEnoughProcessorsToMatchNextSlowestStep() {
+        // GIVEN
+        Configuration config = config(10, 20);
+        DynamicProcessorAssigner assigner = assigner(config);
+
+        ControlledStep<?> slowStep = stepWithStats("slow", 0, Keys.avg_processing_time, 10L, Keys.done_batches, 0L)
+                .setProcessors(4);
+        ControlledStep<?> fastStep = stepWithStats("fast", 0, Keys.avg_processing_time, 8L, Keys.done_batches, 0L);
+
+        StageExecution execution = executionOf(config, slowStep, fastStep);
+        assigner.start(execution);
+
+        // WHEN
+        batchesPassed(10, slowStep, fastStep);
+        assigner.check(execution);
+
+        // THEN 4 * 10 / 8 = 5 processors makes the slow step as fast as the next slowest one
+        assertEquals(5, slowStep.processors(0));
+        assertEquals(1, fastStep.processors(0));
+    }
+
+    @Test
+    void shouldNotAssignProcessorsBeforeEnoughBatchesHavePassed() {
+        // GIVEN
+        Configuration config = config(10, 5);
+        DynamicProcessorAssigner assigner = assigner(config);
 
         ControlledStep<?> slowStep = stepWithStats("slow", 0, Keys.avg_processing_time, 10L, Keys.done_batches, 10L);
         ControlledStep<?> fastStep = stepWithStats("fast", 0, Keys.avg_processing_time, 2L, Keys.done_batches, 10L);
@@ -41,20 +90,103 @@ class DynamicProcessorAssignerTest {
         assigner.start(execution);
 
         // WHEN
+        batchesPassed(9, slowStep, fastStep);
         assigner.check(execution);
 
         // THEN
-        assertEquals(4, slowStep.processors(0));
+        assertEquals(1, slowStep.processors(0));
         assertEquals(1, fastStep.processors(0));
     }
 
+    @Test
+    void shouldKeepProcessorsWhichIncreasedThroughput() {
+        // GIVEN
+        Configuration config = config(10, 5);
+        DynamicProcessorAssigner assigner = assigner(config);
+
+        ControlledStep<?> slowStep = stepWithStats("slow", 0, Keys.avg_processing_time, 10L, Keys.done_batches, 0L);
+        ControlledStep<?> fastStep = stepWithStats("fast", 0, Keys.avg_processing_time, 2L, Keys.done_batches, 0L);
+
+        StageExecution execution = executionOf(config, slowStep, fastStep);
+        assigner.start(execution);
+        batchesPassed(10, slowStep, fastStep);
+        assigner.check(execution);
+        assertEquals(2, slowStep.processors(0));
+
+        // WHEN the throughput almost doubles
+        slowStep.setStat(Keys.avg_processing_time, 5L);
+        batchesPassed(18, slowStep, fastStep);
+        assigner.check(execution);
+
+        // THEN the processor is kept
+        assertEquals(2, slowStep.processors(0));
+        // and the step may get even more processors later
+        batchesPassed(18, slowStep, fastStep);
+        assigner.check(execution);
+        assertEquals(4, slowStep.processors(0));
+    }
+
+    @Test
+    void shouldRevertProcessorsWhichDidNotIncreaseThroughputOfBottleneck() {
+        // GIVEN
+        Configuration config = config(10, 5);
+        DynamicProcessorAssigner assigner = assigner(config);
+
+        ControlledStep<?> slowStep = stepWithStats("slow", 0, Keys.avg_processing_time, 10L, Keys.done_batches, 0L);
+        ControlledStep<?> fastStep = stepWithStats("fast", 0, Keys.avg_processing_time, 2L, Keys.done_batches, 0L);
+
+        StageExecution execution = executionOf(config, slowStep, fastStep);
+        assigner.start(execution);
+        batchesPassed(10, slowStep, fastStep);
+        assigner.check(execution);
+        assertEquals(2, slowStep.processors(0));
+
+        // WHEN the throughput stays the same and the step still is the bottleneck
+        batchesPassed(10, slowStep, fastStep);
+        assigner.check(execution);
+
+        // THEN the processor is taken back
+        assertEquals(1, slowStep.processors(0));
+        // and not tried again
+        for (int i = 0; i < 5; i++) {
+            batchesPassed(10, slowStep, fastStep);
+            assigner.check(execution);
+            assertEquals(1, slowStep.processors(0));
+        }
+    }
+
+    @Test
+    void shouldKeepProcessorsWhenAnotherStepBecameBottleneck() {
+        // GIVEN
+        Configuration config = config(10, 5);
+        DynamicProcessorAssigner assigner = assigner(config);
+
+        ControlledStep<?> slowStep = stepWithStats("slow", 0, Keys.avg_processing_time, 10L, Keys.done_batches, 0L);
+        ControlledStep<?> fastStep = stepWithStats("fast", 0, Keys.avg_processing_time, 9L, Keys.done_batches, 0L);
+
+        StageExecution execution = executionOf(config, slowStep, fastStep);
+        assigner.start(execution);
+        batchesPassed(10, slowStep, fastStep);
+        assigner.check(execution);
+        assertEquals(2, slowStep.processors(0));
+
+        // WHEN the throughput barely changes because the other step is now the bottleneck
+        slowStep.setStat(Keys.avg_processing_time, 5L);
+        batchesPassed(11, slowStep, fastStep);
+        assigner.check(execution);
+
+        // THEN the processor is kept, it's needed once the other step has gotten more processors too
+        assertEquals(2, slowStep.processors(0));
+        batchesPassed(11, slowStep, fastStep);
+        assigner.check(execution);
+        assertEquals(2, fastStep.processors(0));
+    }
+
     @Test
     void shouldMoveProcessorFromOverlyAssignedStep() {
         // GIVEN
         Configuration config = config(10, 5);
-        // available processors = 2 is enough because it will see the fast step as only using 20% of a processor
-        // and it rounds down. So there's room for assigning one more.
-        DynamicProcessorAssigner assigner = new DynamicProcessorAssigner(config);
+        DynamicProcessorAssigner assigner = assigner(config);
 
         ControlledStep<?> slowStep = stepWithStats("slow", 0, Keys.avg_processing_time, 6L, Keys.done_batches, 10L)
                 .setProcessors(2);
@@ -65,6 +197,7 @@ class DynamicProcessorAssignerTest {
         assigner.start(execution);
 
         // WHEN checking
+        batchesPassed(10, slowStep, fastStep);
         assigner.check(execution);
 
         // THEN one processor should have been moved from the fast step to the slower step
@@ -72,11 +205,36 @@ class DynamicProcessorAssignerTest {
         assertEquals(3, slowStep.processors(0));
     }
 
+    @Test
+    void shouldMoveProcessorBackIfItDidNotIncreaseThroughput() {
+        // GIVEN
+        Configuration config = config(10, 5);
+        DynamicProcessorAssigner assigner = assigner(config);
+
+        ControlledStep<?> slowStep = stepWithStats("slow", 0, Keys.avg_processing_time, 6L, Keys.done_batches, 10L)
+                .setProcessors(2);
+        ControlledStep<?> fastStep = stepWithStats("fast", 0, Keys.avg_processing_time, 2L, Keys.done_batches, 10L)
+                .setProcessors(3);
+
+        StageExecution execution = executionOf(config, slowStep, fastStep);
+        assigner.start(execution);
+        batchesPassed(10, slowStep, fastStep);
+        assigner.check(execution);
+
+        // WHEN
+        batchesPassed(10, slowStep, fastStep);
+        assigner.check(execution);
+
+        // THEN
+        assertEquals(3, fastStep.processors(0));
+        assertEquals(2, slowStep.processors(0));
+    }
+
     @Test
     void shouldNotMoveProcessorFromFastStepSoThatItBecomesBottleneck() {
         // GIVEN
         Configuration config = config(10, 4);
-        DynamicProcessorAssigner assigner = new DynamicProcessorAssigner(config);
+        DynamicProcessorAssigner assigner = assigner(config);
 
         ControlledStep<?> slowStep = stepWithStats("slow", 1, Keys.avg_processing_time, 10L, Keys.done_batches, 10L);
         ControlledStep<?> fastStep = stepWithStats("fast", 0, Keys.avg_processing_time, 7L, Keys.done_batches, 10L)
@@ -86,6 +244,7 @@ class DynamicProcessorAssignerTest {
         assigner.start(execution);
 
         // WHEN checking
+        batchesPassed(10, slowStep, fastStep);
         assigner.check(execution);
 
         // THEN
@@ -97,7 +256,7 @@ class DynamicProcessorAssignerTest {
     void shouldHandleZeroAverage() {
         // GIVEN
         Configuration config = config(10, 5);
-        DynamicProcessorAssigner assigner = new DynamicProcessorAssigner(config);
+        DynamicProcessorAssigner assigner = assigner(config);
 
         ControlledStep<?> aStep = stepWithStats("slow", 0, Keys.avg_processing_time, 0L, Keys.done_batches, 0L);
         ControlledStep<?> anotherStep = stepWithStats("fast", 0, Keys.avg_processing_time, 0L, Keys.done_batches, 0L);
@@ -106,6 +265,7 @@ class DynamicProcessorAssignerTest {
         assigner.start(execution);
 
         // WHEN
+        clock.forward(1, SECONDS);
         assigner.check(execution);
 
         // THEN
@@ -120,15 +280,17 @@ class DynamicProcessorAssignerTest {
 
         // GIVEN
         Configuration config = config(10, 5);
-        DynamicProcessorAssigner assigner = new DynamicProcessorAssigner(config);
-        Step<?> wayFastest = stepWithStats("wayFastest", 0, Keys.avg_processing_time, 50L, Keys.done_batches, 20L);
-        Step<?> fast = stepWithStats("fast", 0, Keys.avg_processing_time, 100L, Keys.done_batches, 20L)
+        DynamicProcessorAssigner assigner = assigner(config);
+        ControlledStep<?> wayFastest =
+                stepWithStats("wayFastest", 0, Keys.avg_processing_time, 50L, Keys.done_batches, 20L);
+        ControlledStep<?> fast = stepWithStats("fast", 0, Keys.avg_processing_time, 100L, Keys.done_batches, 20L)
                 .setProcessors(3);
-        Step<?> slow = stepWithStats("slow", 2, Keys.avg_processing_time, 220L, Keys.done_batches, 20L);
+        ControlledStep<?> slow = stepWithStats("slow", 2, Keys.avg_processing_time, 220L, Keys.done_batches, 20L);
         StageExecution execution = executionOf(config, slow, wayFastest, fast);
         assigner.start(execution);
 
         // WHEN
+        batchesPassed(10, slow, wayFastest, fast);
         assigner.check(execution);
 
         // THEN
@@ -140,15 +302,17 @@ class DynamicProcessorAssignerTest {
     void shouldNotMoveProcessorFromOverlyAssignedStepIfRemainingPermits() {
         // GIVEN
         Configuration config = config(10, 10);
-        DynamicProcessorAssigner assigner = new DynamicProcessorAssigner(config);
-        Step<?> wayFastest = stepWithStats("wayFastest", 0, Keys.avg_processing_time, 50L, Keys.done_batches, 20L);
-        Step<?> fast = stepWithStats("fast", 0, Keys.avg_processing_time, 100L, Keys.done_batches, 20L)
+        DynamicProcessorAssigner assigner = assigner(config);
+        ControlledStep<?> wayFastest =
+                stepWithStats("wayFastest", 0, Keys.avg_processing_time, 50L, Keys.done_batches, 20L);
+        ControlledStep<?> fast = stepWithStats("fast", 0, Keys.avg_processing_time, 100L, Keys.done_batches, 20L)
                 .setProcessors(3);
-        Step<?> slow = stepWithStats("slow", 2, Keys.avg_processing_time, 220L, Keys.done_batches, 20L);
+        ControlledStep<?> slow = stepWithStats("slow", 2, Keys.avg_processing_time, 220L, Keys.done_batches, 20L);
         StageExecution execution = executionOf(config, slow, wayFastest, fast);
         assigner.start(execution);
 
         // WHEN
+        batchesPassed(10, slow, wayFastest, fast);
         assigner.check(execution);
 
         // THEN no processor have been removed from the fast step
@@ -157,6 +321,46 @@ class DynamicProcessorAssignerTest {
         assertEquals(2, slow.processors(0));
     }
 
+    @Test
+    void shouldNotAssignProcessorsWhenHeapIsAlmostFull() {
+        // GIVEN
+        Configuration config = config(10, 5);
+        DynamicProcessorAssigner assigner = assigner(config);
+
+        ControlledStep<?> slowStep = stepWithStats("slow", 0, Keys.avg_processing_time, 10L, Keys.done_batches, 0L);
+        ControlledStep<?> fastStep = stepWithStats("fast", 0, Keys.avg_processing_time, 2L, Keys.done_batches, 0L);
+
+        StageExecution execution = executionOf(config, slowStep, fastStep);
+        assigner.start(execution);
+
+        // WHEN
+        heapUsage = 0.95;
+        batchesPassed(10, slowStep, fastStep);
+        assigner.check(execution);
+
+        // THEN
+        assertEquals(1, slowStep.processors(0));
+
+        // and WHEN heap usage goes down again
+        heapUsage = 0.5;
+        batchesPassed(10, slowStep, fastStep);
+        assigner.check(execution);
+
+        // THEN
+        assertEquals(2, slowStep.processors(0));
+    }
+
+    private DynamicProcessorAssigner assigner(Configuration config) {
+        return new DynamicProcessorAssigner(config, NullLog.getInstance(), clock, () -> heapUsage);
+    }
+
+    private void batchesPassed(long batches, ControlledStep<?>... steps) {
+        clock.forward(1, SECONDS);
+        for (ControlledStep<?> step : steps) {
+            step.setStat(Keys.done_batches, step.longStat(Keys.done_batches) + batches);
+        }
+    }
+
     private static Configuration config(final int movingAverage, int processors) {
         return new Configuration() {
             @Override
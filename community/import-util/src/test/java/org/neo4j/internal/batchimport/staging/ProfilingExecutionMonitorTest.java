@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.staging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.batchimport.Configuration;
+import org.neo4j.internal.batchimport.stats.Keys;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+import org.neo4j.time.Clocks;
+import org.neo4j.time.FakeClock;
+
+@EphemeralTestDirectoryExtension
+class ProfilingExecutionMonitorTest {
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private TestDirectory directory;
+
+    @Test
+    void shouldWriteTimelineOfStepStats() throws IOException {
+        // given
+        Path file = directory.file("profile.json");
+        FakeClock clock = Clocks.fakeClock();
+        ProfilingExecutionMonitor monitor = new ProfilingExecutionMonitor(fs, file, 100, MILLISECONDS, clock);
+        ControlledStep<?> input = new ControlledStep<>("INPUT", 1);
+        ControlledStep<?> writer = new ControlledStep<>("WRITER", 4, 2);
+        StageExecution execution = new StageExecution("Nodes", null, Configuration.DEFAULT, List.of(input, writer), 0);
+
+        // when
+        monitor.start(execution);
+        clock.forward(1, SECONDS);
+        input.setStat(Keys.io_throughput, 1024);
+        writer.setStat(Keys.received_batches, 10);
+        writer.setStat(Keys.done_batches, 7);
+        writer.setStat(Keys.total_processing_time, MILLISECONDS.toNanos(1600));
+        writer.setStat(Keys.total_processing_wall_clock_time, MILLISECONDS.toNanos(800));
+        writer.setStat(Keys.upstream_idle_time, 100);
+        writer.setStat(Keys.downstream_idle_time, MILLISECONDS.toNanos(50));
+        monitor.check(execution);
+        clock.forward(1, SECONDS);
+        writer.setStat(Keys.received_batches, 12);
+        writer.setStat(Keys.done_batches, 12);
+        monitor.end(execution, 2000);
+        monitor.done(true, 2000, "Imported \"stuff\"");
+
+        // then
+        String json = readProfile(file);
+        assertThat(json)
+                .contains("\"successful\": true")
+                .contains("\"additionalInformation\": \"Imported \\\"stuff\\\"\"")
+                .contains("\"maxNumberOfWorkerThreads\": " + Configuration.DEFAULT.maxNumberOfWorkerThreads())
+                .contains("{\"name\": \"Nodes\", \"startMillis\": 0, \"totalTimeMillis\": 2000")
+                .contains(
+                        "{\"time\": 1000, \"processors\": 1, \"queued\": 0, \"doneBatches\": 0, \"processingMillis\": 0, "
+                                + "\"busyMillis\": 0, \"upstreamIdleMillis\": 0, \"downstreamIdleMillis\": 0, "
+                                + "\"ioBytesPerSecond\": 1024}")
+                .contains("{\"time\": 1000, \"processors\": 2, \"queued\": 3, \"doneBatches\": 7, "
+                        + "\"processingMillis\": 1600, \"busyMillis\": 800, \"upstreamIdleMillis\": 100, "
+                        + "\"downstreamIdleMillis\": 50}")
+                .contains("{\"time\": 2000, \"processors\": 2, \"queued\": 0, \"doneBatches\": 12,")
+                .contains("{\"name\": \"WRITER\", \"maxProcessors\": 4, \"summary\": {\"processingMillis\": 1600, "
+                        + "\"busyMillis\": 800, \"upstreamIdleMillis\": 100, \"downstreamIdleMillis\": 50, "
+                        + "\"mostlySpentOn\": \"processing\"}");
+    }
+
+    @Test
+    void shouldTellWhichNeighbourStepIsWaitedFor() throws IOException {
+        // given
+        Path file = directory.file("profile.json");
+        ProfilingExecutionMonitor monitor =
+                new ProfilingExecutionMonitor(fs, file, 100, MILLISECONDS, Clocks.fakeClock());
+        ControlledStep<?> starved = new ControlledStep<>("STARVED", 1);
+        ControlledStep<?> blocked = new ControlledStep<>("BLOCKED", 1);
+        StageExecution execution =
+                new StageExecution("Relationships", null, Configuration.DEFAULT, List.of(starved, blocked), 0);
+
+        // when
+        monitor.start(execution);
+        starved.setStat(Keys.total_processing_wall_clock_time, MILLISECONDS.toNanos(10));
+        starved.setStat(Keys.upstream_idle_time, 500);
+        blocked.setStat(Keys.total_processing_wall_clock_time, MILLISECONDS.toNanos(10));
+        blocked.setStat(Keys.downstream_idle_time, MILLISECONDS.toNanos(500));
+        monitor.end(execution, 510);
+        monitor.done(false, 510, "");
+
+        // then
+        String json = readProfile(file);
+        assertThat(json)
+                .contains("\"successful\": false")
+                .contains("\"mostlySpentOn\": \"waitingForUpstream\"")
+                .contains("\"mostlySpentOn\": \"waitingForDownstream\"");
+    }
+
+    private String readProfile(Path file) throws IOException {
+        try (var in = fs.openAsInputStream(file)) {
+            return new String(in.readAllBytes(), UTF_8);
+        }
+    }
+}
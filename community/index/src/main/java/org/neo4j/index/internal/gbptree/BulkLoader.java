@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+
+/**
+ * Builds the contents of an empty {@link DataTree} bottom-up from entries provided in strictly ascending key order.
+ * Instead of descending from the root for every entry, like a {@link Writer} does, leaves are filled one after the other
+ * up to a configurable fill factor and internal levels are built directly on top of them as leaves are completed.
+ * <p>
+ * None of the added entries are visible to readers until the loader is {@link #close() closed}, at which point
+ * the newly built tree is published as the new root of the data tree. The loader must be closed after usage,
+ * typically by using try-with-resource clause.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public interface BulkLoader<KEY, VALUE> extends Closeable {
+    /**
+     * Adds an entry to the tree being built. The given {@code key} must be strictly greater than the key of the previously added entry.
+     *
+     * @param key key of the entry to add.
+     * @param value value of the entry to add.
+     * @throws IllegalArgumentException if the key isn't strictly greater than the previously added key.
+     * @throws UncheckedIOException on index access error.
+     */
+    void add(KEY key, VALUE value);
+
+    /**
+     * Completes the tree built from all added entries and publishes it as the root of the data tree.
+     * If any call to {@link #add(Object, Object)} failed then nothing is published and the data tree remains empty.
+     *
+     * @throws UncheckedIOException on index access error.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+/**
+ * Outcome of {@link DataTree#compact(org.neo4j.io.pagecache.IOController, org.neo4j.io.pagecache.context.CursorContext) compacting}
+ * a data tree. The fill factor of a leaf is the fraction of its space occupied by keys and values, and the fill factors here are
+ * averages over all leaves visited. Since compaction runs concurrently with other writers the numbers are a best-effort view
+ * rather than an exact snapshot of the tree at any point in time.
+ *
+ * @param leafCountBefore number of leaves visited before they were compacted.
+ * @param leafCountAfter number of leaves left after compaction.
+ * @param fillFactorBefore average leaf fill factor before compaction, in the range [0,1].
+ * @param fillFactorAfter average leaf fill factor after compaction, in the range [0,1].
+ * @param relocatedLeaves number of leaves moved to a page with a lower id.
+ */
+public record CompactionStatistics(
+        long leafCountBefore,
+        long leafCountAfter,
+        double fillFactorBefore,
+        double fillFactorAfter,
+        long relocatedLeaves) {
+    /**
+     * @return number of leaves that were merged into their right sibling and released to the free-list.
+     */
+    public long mergedLeaves() {
+        return leafCountBefore - leafCountAfter;
+    }
+}
@@ -20,6 +20,7 @@
 package org.neo4j.index.internal.gbptree;
 
 import java.io.IOException;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.context.CursorContext;
 
 /**
@@ -54,6 +55,37 @@ public interface DataTree<KEY, VALUE> extends Seeker.Factory<KEY, VALUE> {
      */
     Writer<KEY, VALUE> writer(int flags, CursorContext cursorContext) throws IOException;
 
+    /**
+     * Returns a {@link BulkLoader} able to build the contents of this tree bottom-up from entries added in strictly ascending key order.
+     * This is considerably cheaper than inserting the same entries using a {@link Writer} since there's no traversal from the root
+     * and no splits, and the resulting leaves are filled to a predictable degree. The tree must be empty and no other writer may
+     * modify this tree while the returned loader is open. After usage the returned loader must be closed, which is when
+     * the loaded entries become visible.
+     *
+     * @param fillFactor how much of each leaf to fill, in the range (0,1]. A fill factor of 1 packs leaves completely, which is suitable
+     * for trees that will see few updates after loading, whereas a lower fill factor leaves room for future inserts without splits.
+     * @param cursorContext underlying page cursor context
+     * @return a {@link BulkLoader} for this tree. The returned loader must be {@link BulkLoader#close() closed} after usage.
+     * @throws IllegalStateException if the tree isn't empty or if another writer is active.
+     */
+    BulkLoader<KEY, VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) throws IOException;
+
+    /**
+     * Compacts this tree online by packing the entries of adjacent leaves together, releasing the emptied leaves
+     * to the free-list where they can be reused by later splits. This is useful for trees that have seen lots of removals,
+     * since leaves are otherwise only merged or rebalanced when they underflow, i.e. become less than half full.
+     * Compaction runs concurrently with readers and other writers, only excluding writers while compacting a single leaf.
+     * Leaves are also moved to free pages with lower ids where possible, which lets a {@link GBPTree} truncate the free
+     * tail of its file on the next checkpoint.
+     *
+     * @param ioController controller limiting the IO done by the compaction, consulted in between batches of compacted leaves.
+     * @param cursorContext underlying page cursor context
+     * @return {@link CompactionStatistics} about the leaves before and after compaction.
+     */
+    default CompactionStatistics compact(IOController ioController, CursorContext cursorContext) throws IOException {
+        return new GBPTreeCompactor<>(this).compact(ioController, cursorContext);
+    }
+
     /**
      * Calculates an estimate of number of keys in this tree in O(log(n)) time. The number is only an estimate and may make its decision on a
      * concurrently changing tree, but should usually be correct within a couple of percents margin.
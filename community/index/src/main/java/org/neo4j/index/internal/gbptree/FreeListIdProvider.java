@@ -25,6 +25,8 @@ import static org.neo4j.io.pagecache.PageCursorUtil.goTo;
 import java.io.IOException;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageCursorUtil;
 
@@ -168,6 +170,26 @@ class FreeListIdProvider implements IdProvider {
         }
     }
 
+    @Override
+    public long acquireNewIdBelow(
+            long limit, long stableGeneration, long unstableGeneration, CursorCreator cursorCreator)
+            throws IOException {
+        try (var cursor = cursorCreator.create()) {
+            if (acquireCache.isEmpty()) {
+                fillAcquireCache(stableGeneration, cursor);
+            }
+            // Only the head of the free-list can be acquired since the read position of the free-list is persisted
+            // as the position of the first cached entry, see metaData()
+            FreelistEntry entry = acquireCache.peek();
+            if (entry == null || entry.id >= limit) {
+                return FreelistNode.NO_PAGE_ID;
+            }
+            long acquiredId = acquireNewIdFromFreelistOrEnd(stableGeneration, cursor);
+            zapPage(acquiredId, cursor);
+            return acquiredId;
+        }
+    }
+
     private static void zapPage(long acquiredId, PageCursor cursor) throws IOException {
         // Zap the page, i.e. set all bytes to zero
         goTo(cursor, "newly allocated free-list page", acquiredId);
@@ -214,6 +236,11 @@ class FreeListIdProvider implements IdProvider {
     }
 
     private long acquireNewIdFromFreelistOrEnd(long stableGeneration, PageCursor cursor) throws IOException {
+        long id = acquireIdFromFreelist(stableGeneration, cursor);
+        return id != FreelistNode.NO_PAGE_ID ? id : nextLastId();
+    }
+
+    private long acquireIdFromFreelist(long stableGeneration, PageCursor cursor) throws IOException {
         do {
             FreelistEntry entry = acquireCache.poll();
             if (entry != null) {
@@ -224,7 +251,7 @@ class FreeListIdProvider implements IdProvider {
             }
             fillAcquireCache(stableGeneration, cursor);
         } while (mayBeMoreToReadIntoCache || !acquireCache.isEmpty());
-        return nextLastId();
+        return FreelistNode.NO_PAGE_ID;
     }
 
     private long nextLastId() {
@@ -283,6 +310,41 @@ class FreeListIdProvider implements IdProvider {
         flushReleaseCache(stableGeneration, unstableGeneration, cursorCreator);
     }
 
+    /**
+     * Lowers {@link #lastId()} past all ids at the end of the file which are free and reusable, i.e. released in a stable
+     * generation, so that the file can be truncated to {@link #lastId()} + 1 pages. This is done by acquiring all reusable ids
+     * from the free-list and releasing the ones not in the truncated tail again, in ascending order so that the lowest ids
+     * are reused first. Released free-list pages are kept since they may still be referenced by the last checkpointed state.
+     * <p>
+     * Must be called without any concurrent writer and the released ids must be {@link #flush(long, long, CursorCreator) flushed}
+     * and the new state written before truncating the file. Up until the new state has been written the free-list and pages
+     * touched by this method are only pages which are free in the last checkpointed state too.
+     *
+     * @param stableGeneration current stable generation.
+     * @param cursorCreator function to create write page cursor.
+     * @return the new last id, which is the same as before if there was no free tail.
+     * @throws IOException on {@link PageCursor} error.
+     */
+    synchronized long truncateFreeTail(long stableGeneration, CursorCreator cursorCreator) throws IOException {
+        MutableLongSet freeIds = LongSets.mutable.empty();
+        try (var cursor = cursorCreator.create()) {
+            long id;
+            while ((id = acquireIdFromFreelist(stableGeneration, cursor)) != FreelistNode.NO_PAGE_ID) {
+                freeIds.add(id);
+            }
+        }
+
+        long newLastId = lastId.get();
+        while (freeIds.remove(newLastId)) {
+            newLastId--;
+        }
+        lastId.set(newLastId);
+        for (long id : freeIds.toSortedArray()) {
+            queueReleasedId(id);
+        }
+        return newLastId;
+    }
+
     @Override
     public void visitFreelist(IdProviderVisitor visitor, CursorCreator cursorCreator) throws IOException {
         ListHeadMetaData readMetaData = this.readMetaData;
@@ -29,6 +29,7 @@ import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.common.DependencyResolver;
 import org.neo4j.common.EmptyDependencyResolver;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
@@ -39,6 +40,9 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
  * <p>
  * A {@link GBPTree} has a special write mode {@link #writer(int, CursorContext)} when passing in {@link DataTree#W_BATCHED_SINGLE_THREADED}
  * which is more efficient when inserting consecutive entries. The single writer cannot co-exist with other parallel writers.
+ * <p>
+ * An empty {@link GBPTree} can also be built bottom-up from sorted entries using {@link #bulkLoader(double, CursorContext)},
+ * which is the most efficient way of populating a tree with many entries.
  */
 public class GBPTree<KEY, VALUE> extends MultiRootGBPTree<SingleRoot, KEY, VALUE> implements DataTree<KEY, VALUE> {
     private final DataTree<KEY, VALUE> access;
@@ -161,6 +165,12 @@ public class GBPTree<KEY, VALUE> extends MultiRootGBPTree<SingleRoot, KEY, VALUE
         return access.seek(seeker, fromInclusive, toExclusive);
     }
 
+    @Override
+    public Seeker<KEY, VALUE> multiSeek(Seeker<KEY, VALUE> seeker, KEY[] fromInclusive, KEY[] toExclusive)
+            throws IOException {
+        return access.multiSeek(seeker, fromInclusive, toExclusive);
+    }
+
     @Override
     public List<KEY> partitionedSeek(
             KEY fromInclusive, KEY toExclusive, int desiredNumberOfPartitions, CursorContext cursorContext)
@@ -173,6 +183,23 @@ public class GBPTree<KEY, VALUE> extends MultiRootGBPTree<SingleRoot, KEY, VALUE
         return access.writer(flags, cursorContext);
     }
 
+    @Override
+    public BulkLoader<KEY, VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) throws IOException {
+        return access.bulkLoader(fillFactor, cursorContext);
+    }
+
+    /**
+     * Compacts the tree and makes the next checkpoint truncate the pages which compaction left free at the end of the file.
+     * @see DataTree#compact(IOController, CursorContext)
+     * @see #truncateFreeTailOnNextCheckpoint()
+     */
+    @Override
+    public CompactionStatistics compact(IOController ioController, CursorContext cursorContext) throws IOException {
+        CompactionStatistics statistics = access.compact(ioController, cursorContext);
+        truncateFreeTailOnNextCheckpoint();
+        return statistics;
+    }
+
     @Override
     public long estimateNumberOfEntriesInTree(CursorContext cursorContext) throws IOException {
         return access.estimateNumberOfEntriesInTree(cursorContext);
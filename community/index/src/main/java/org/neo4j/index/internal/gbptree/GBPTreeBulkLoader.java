@@ -0,0 +1,466 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.Generation.stableGeneration;
+import static org.neo4j.index.internal.gbptree.Generation.unstableGeneration;
+import static org.neo4j.index.internal.gbptree.PointerChecking.checkOutOfBounds;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.isLeaf;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.keyCount;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.util.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.neo4j.io.IOUtils;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * {@link BulkLoader} which builds a tree bottom-up. Leaves are written left to right, each filled up to {@code fillFactor}
+ * of its available space, and linked together with sibling pointers. Whenever a leaf is completed its splitter key and
+ * the id of the next leaf are added to the lowest internal level, which in turn pushes its own splitter keys upwards as its
+ * nodes become full. Internal nodes are always packed as much as possible since they are comparatively few.
+ * <p>
+ * All nodes are written in the unstable generation and are unreachable until the loader is closed, at which point the
+ * top-most node is published as the new root and the previous, empty, root is released to the free-list.
+ * If the loader fails half-way all acquired nodes, and any offloaded entries they refer to, are released again
+ * and the tree stays empty.
+ * <p>
+ * In a multi-root tree the loader co-exists with parallel writers on other data trees. Exclusive use of the data tree
+ * being loaded is ensured by holding the write latch on its empty root for the whole duration of the load, which is
+ * where every writer has to start. Any writer on that data tree will wait on the latch and, once the new root has
+ * been published and the latch released, notice the root change and continue from the new root.
+ */
+class GBPTreeBulkLoader<K, V> implements BulkLoader<K, V> {
+    private final Layout<K, V> layout;
+    private final PagedFile pagedFile;
+    private final LeafNodeBehaviour<K, V> leafNode;
+    private final InternalNodeBehaviour<K> internalNode;
+    private final TreeRootExchange rootExchange;
+    private final boolean parallel;
+    private final ReadWriteLock checkpointLock;
+    private final ReadWriteLock writerLock;
+    private final FreeListIdProvider freeList;
+    private final TreeNodeLatchService latchService;
+    private final Consumer<Throwable> exceptionMessageAppender;
+    private final LongSupplier generationSupplier;
+    private final BooleanSupplier mustEagerlyFlushSupplier;
+    private final byte layerType;
+    private final List<InternalLevel> levels = new ArrayList<>();
+    private final MutableLongList acquiredIds = new LongArrayList();
+    private final K previousKey;
+    private final K splitter;
+    private boolean lockAcquired;
+    private boolean failed;
+    private boolean hasPreviousKey;
+    private double fillFactor;
+    private CursorContext cursorContext;
+    private Root root;
+    private LongSpinLatch rootLatch;
+    private PageCursor leafCursor;
+    private long firstLeafId;
+    private long leafId;
+    private int leafKeyCount;
+    private int leafCapacity;
+
+    // The loader can't live past a checkpoint because of the mutex with checkpoint,
+    // therefore safe to locally cache these generation fields from the volatile generation in the tree
+    private long stableGeneration;
+    private long unstableGeneration;
+
+    GBPTreeBulkLoader(
+            Layout<K, V> layout,
+            PagedFile pagedFile,
+            LeafNodeBehaviour<K, V> leafNode,
+            InternalNodeBehaviour<K> internalNode,
+            TreeRootExchange rootExchange,
+            boolean parallel,
+            ReadWriteLock checkpointLock,
+            ReadWriteLock writerLock,
+            FreeListIdProvider freeList,
+            TreeNodeLatchService latchService,
+            Consumer<Throwable> exceptionMessageAppender,
+            LongSupplier generationSupplier,
+            BooleanSupplier mustEagerlyFlushSupplier,
+            byte layerType) {
+        this.layout = layout;
+        this.pagedFile = pagedFile;
+        this.leafNode = leafNode;
+        this.internalNode = internalNode;
+        this.rootExchange = rootExchange;
+        this.parallel = parallel;
+        this.checkpointLock = checkpointLock;
+        this.writerLock = writerLock;
+        this.freeList = freeList;
+        this.latchService = latchService;
+        this.exceptionMessageAppender = exceptionMessageAppender;
+        this.generationSupplier = generationSupplier;
+        this.mustEagerlyFlushSupplier = mustEagerlyFlushSupplier;
+        this.layerType = layerType;
+        this.previousKey = layout.newKey();
+        this.splitter = layout.newKey();
+    }
+
+    /**
+     * Acquires the locks needed for building the tree and verifies that the tree is empty.
+     *
+     * @param fillFactor how much of the available space in each leaf to fill, 0 (exclusive) to 1 (inclusive).
+     * @param cursorContext underlying page cursor context
+     * @throws IOException if fail to read the current root.
+     * @throws IllegalStateException if the tree isn't empty.
+     */
+    void initialize(double fillFactor, CursorContext cursorContext) throws IOException {
+        checkArgument(fillFactor > 0 && fillFactor <= 1, "Fill factor must be in the range (0,1], was %f", fillFactor);
+        acquireLockForLoader();
+
+        boolean success = false;
+        try {
+            lockAcquired = true;
+            this.fillFactor = fillFactor;
+            this.cursorContext = cursorContext;
+            long generation = generationSupplier.getAsLong();
+            stableGeneration = stableGeneration(generation);
+            unstableGeneration = unstableGeneration(generation);
+            root = rootExchange.getRoot(cursorContext);
+            if (parallel) {
+                latchRoot();
+            }
+            if (!isRootEmptyLeaf()) {
+                throw appendTreeInformation(
+                        new IllegalStateException("Bulk loading is only supported into an empty tree"));
+            }
+            success = true;
+        } catch (Throwable e) {
+            exceptionMessageAppender.accept(e);
+            throw e;
+        } finally {
+            if (!success) {
+                releaseLocks();
+            }
+        }
+    }
+
+    private void acquireLockForLoader() {
+        checkpointLock.readLock().lock();
+        try {
+            // A multi-root tree publishes new roots through its root mapping tree using a parallel writer,
+            // so in that case this loader must co-exist with parallel writers
+            boolean locked = parallel
+                    ? writerLock.readLock().tryLock()
+                    : writerLock.writeLock().tryLock();
+            if (!locked) {
+                throw appendTreeInformation(new IllegalStateException(
+                        "Bulk loader cannot be acquired while conflicting writers are active on this tree"));
+            }
+        } catch (Throwable t) {
+            checkpointLock.readLock().unlock();
+            throw t;
+        }
+    }
+
+    /**
+     * Write latches the current root, keeping writers on this tree out until the loader is closed.
+     * Same as for writers the root is checked again after it has been latched, since it may have changed in between.
+     */
+    private void latchRoot() throws IOException {
+        while (true) {
+            rootLatch = latchService.latch(root.id());
+            rootLatch.acquireWrite();
+            Root rootAfterLatch = rootExchange.getRoot(cursorContext);
+            if (rootAfterLatch.equals(root)) {
+                return;
+            }
+            releaseRootLatch();
+            root = rootAfterLatch;
+        }
+    }
+
+    private void releaseRootLatch() {
+        if (rootLatch != null) {
+            try {
+                rootLatch.releaseWrite();
+            } finally {
+                rootLatch.deref();
+                rootLatch = null;
+            }
+        }
+    }
+
+    private boolean isRootEmptyLeaf() throws IOException {
+        try (PageCursor cursor = pagedFile.io(0L /*Ignored*/, PF_SHARED_READ_LOCK, cursorContext)) {
+            root.goTo(cursor);
+            boolean empty;
+            do {
+                empty = isLeaf(cursor) && keyCount(cursor) == 0;
+            } while (cursor.shouldRetry());
+            checkOutOfBounds(cursor);
+            return empty;
+        }
+    }
+
+    @Override
+    public void add(K key, V value) {
+        if (!lockAcquired) {
+            throw appendTreeInformation(new IllegalStateException("Bulk loader has already been closed"));
+        }
+        try {
+            if (hasPreviousKey) {
+                checkArgument(
+                        layout.compare(previousKey, key) < 0,
+                        "Keys must be added in strictly ascending order, but %s came after %s",
+                        key,
+                        previousKey);
+            }
+            leafNode.validateKeyValueSize(key, value);
+
+            if (leafCursor == null) {
+                leafCursor = openCursor();
+                firstLeafId = leafId = acquireId(leafCursor);
+                TreeNodeUtil.goTo(leafCursor, "first leaf", leafId);
+                leafNode.initialize(leafCursor, layerType, stableGeneration, unstableGeneration);
+                leafCapacity = leafNode.availableSpace(leafCursor, 0);
+            } else if (!fitsInLeaf(key, value)) {
+                layout.minimalSplitter(previousKey, key, splitter);
+                long newLeafId = acquireId(leafCursor);
+                TreeNodeUtil.setRightSibling(leafCursor, newLeafId, stableGeneration, unstableGeneration);
+                checkOutOfBounds(leafCursor);
+                TreeNodeUtil.goTo(leafCursor, "next leaf", newLeafId);
+                leafNode.initialize(leafCursor, layerType, stableGeneration, unstableGeneration);
+                TreeNodeUtil.setLeftSibling(leafCursor, leafId, stableGeneration, unstableGeneration);
+                leafId = newLeafId;
+                leafKeyCount = 0;
+                addToInternalLevel(0, splitter, newLeafId);
+            }
+
+            leafNode.insertKeyValueAt(
+                    leafCursor,
+                    key,
+                    value,
+                    leafKeyCount,
+                    leafKeyCount,
+                    stableGeneration,
+                    unstableGeneration,
+                    cursorContext);
+            TreeNodeUtil.setKeyCount(leafCursor, ++leafKeyCount);
+            checkOutOfBounds(leafCursor);
+            layout.copyKey(key, previousKey);
+            hasPreviousKey = true;
+        } catch (IOException e) {
+            failed = true;
+            exceptionMessageAppender.accept(e);
+            throw new UncheckedIOException(e);
+        } catch (Throwable t) {
+            failed = true;
+            exceptionMessageAppender.accept(t);
+            throw t;
+        }
+    }
+
+    private boolean fitsInLeaf(K key, V value) throws IOException {
+        if (leafKeyCount == 0) {
+            // A leaf always gets at least one entry, regardless of fill factor
+            return true;
+        }
+        Overflow overflow = leafNode.overflow(leafCursor, leafKeyCount, key, value, cursorContext);
+        if (overflow == Overflow.YES) {
+            return false;
+        }
+        if (overflow == Overflow.NO_NEED_DEFRAG) {
+            leafKeyCount = leafNode.defragment(leafCursor, leafKeyCount, cursorContext);
+        }
+        int usedSpace = leafCapacity - leafNode.availableSpace(leafCursor, leafKeyCount);
+        return usedSpace + leafNode.totalSpaceOfKeyValue(key, value) <= fillFactor * leafCapacity;
+    }
+
+    /**
+     * Adds {@code key} and its right {@code child} to the right-most node on the given internal level, where level 0 is
+     * the level right above the leaves. If that node is full a new node is started, with {@code child} as its first child,
+     * and {@code key} is instead pushed up to the level above as the splitter between the two nodes.
+     */
+    private void addToInternalLevel(int level, K key, long child) throws IOException {
+        if (level == levels.size()) {
+            long firstChild = level == 0 ? firstLeafId : levels.get(level - 1).firstNodeId;
+            PageCursor cursor = openCursor();
+            InternalLevel newLevel = new InternalLevel(cursor, acquireId(cursor));
+            levels.add(newLevel);
+            TreeNodeUtil.goTo(cursor, "first internal node on level", newLevel.nodeId);
+            internalNode.initialize(cursor, layerType, stableGeneration, unstableGeneration);
+            internalNode.setChildAt(cursor, firstChild, 0, stableGeneration, unstableGeneration);
+        }
+
+        InternalLevel current = levels.get(level);
+        PageCursor cursor = current.cursor;
+        if (current.keyCount > 0 && !fitsInInternal(current, key)) {
+            long newNodeId = acquireId(cursor);
+            TreeNodeUtil.setRightSibling(cursor, newNodeId, stableGeneration, unstableGeneration);
+            checkOutOfBounds(cursor);
+            TreeNodeUtil.goTo(cursor, "next internal node on level", newNodeId);
+            internalNode.initialize(cursor, layerType, stableGeneration, unstableGeneration);
+            TreeNodeUtil.setLeftSibling(cursor, current.nodeId, stableGeneration, unstableGeneration);
+            internalNode.setChildAt(cursor, child, 0, stableGeneration, unstableGeneration);
+            checkOutOfBounds(cursor);
+            current.nodeId = newNodeId;
+            current.keyCount = 0;
+            addToInternalLevel(level + 1, key, newNodeId);
+        } else {
+            internalNode.insertKeyAndRightChildAt(
+                    cursor,
+                    key,
+                    child,
+                    current.keyCount,
+                    current.keyCount,
+                    stableGeneration,
+                    unstableGeneration,
+                    cursorContext);
+            TreeNodeUtil.setKeyCount(cursor, ++current.keyCount);
+            checkOutOfBounds(cursor);
+        }
+    }
+
+    private boolean fitsInInternal(InternalLevel level, K key) {
+        Overflow overflow = internalNode.overflow(level.cursor, level.keyCount, key);
+        if (overflow == Overflow.NO_NEED_DEFRAG) {
+            internalNode.defragment(level.cursor, level.keyCount);
+        }
+        return overflow != Overflow.YES;
+    }
+
+    private PageCursor openCursor() throws IOException {
+        var flags = PagedFile.PF_SHARED_WRITE_LOCK;
+        if (mustEagerlyFlushSupplier.getAsBoolean()) {
+            flags |= PagedFile.PF_EAGER_FLUSH;
+        }
+        return pagedFile.io(0L /*Ignored*/, flags, cursorContext);
+    }
+
+    private long acquireId(PageCursor cursor) throws IOException {
+        long id = freeList.acquireNewId(stableGeneration, unstableGeneration, CursorCreator.bind(cursor));
+        acquiredIds.add(id);
+        return id;
+    }
+
+    @Override
+    public void close() {
+        if (!lockAcquired) {
+            throw appendTreeInformation(new IllegalStateException(
+                    format("Tried to close bulk loader, but bulk loader is already closed. %s", this)));
+        }
+        try {
+            closeCursors();
+            if (failed) {
+                discardAcquiredNodes();
+            } else if (leafKeyCount > 0) {
+                publishNewRoot();
+            }
+        } catch (IOException e) {
+            exceptionMessageAppender.accept(e);
+            throw new UncheckedIOException(e);
+        } finally {
+            releaseLocks();
+        }
+    }
+
+    private void publishNewRoot() throws IOException {
+        // The top-most level always consists of a single node, since any level which gets a second node also gets a
+        // level above it
+        long newRootId = levels.isEmpty() ? leafId : levels.get(levels.size() - 1).nodeId;
+        rootExchange.setRoot(new Root(newRootId, unstableGeneration), cursorContext);
+        freeList.releaseId(stableGeneration, unstableGeneration, root.id(), this::openCursor);
+    }
+
+    private void discardAcquiredNodes() throws IOException {
+        try (PageCursor cursor = openCursor()) {
+            var iterator = acquiredIds.longIterator();
+            while (iterator.hasNext()) {
+                long id = iterator.next();
+                TreeNodeUtil.goTo(cursor, "discarded node", id);
+                // Removing the entries also frees any offloaded keys and values they refer to
+                boolean leaf = isLeaf(cursor);
+                for (int keyCount = keyCount(cursor); keyCount > 0; keyCount--) {
+                    if (leaf) {
+                        leafNode.removeKeyValueAt(
+                                cursor, keyCount - 1, keyCount, stableGeneration, unstableGeneration, cursorContext);
+                    } else {
+                        internalNode.removeKeyAndRightChildAt(
+                                cursor, keyCount - 1, keyCount, stableGeneration, unstableGeneration, cursorContext);
+                    }
+                }
+                freeList.releaseId(stableGeneration, unstableGeneration, id, CursorCreator.bind(cursor));
+            }
+        }
+    }
+
+    private void closeCursors() {
+        List<PageCursor> cursors = new ArrayList<>();
+        if (leafCursor != null) {
+            cursors.add(leafCursor);
+            leafCursor = null;
+        }
+        levels.forEach(level -> cursors.add(level.cursor));
+        IOUtils.closeAllUnchecked(cursors);
+    }
+
+    private void releaseLocks() {
+        releaseRootLatch();
+        if (parallel) {
+            writerLock.readLock().unlock();
+        } else {
+            writerLock.writeLock().unlock();
+        }
+        checkpointLock.readLock().unlock();
+        lockAcquired = false;
+    }
+
+    private <T extends Exception> T appendTreeInformation(T exception) {
+        exceptionMessageAppender.accept(exception);
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return format(
+                "GBPTreeBulkLoader[fillFactor:%f, internalLevels:%d, acquiredIds:%d]",
+                fillFactor, levels.size(), acquiredIds.size());
+    }
+
+    private static class InternalLevel {
+        private final PageCursor cursor;
+        private final long firstNodeId;
+        private long nodeId;
+        private int keyCount;
+
+        InternalLevel(PageCursor cursor, long firstNodeId) {
+            this.cursor = cursor;
+            this.firstNodeId = firstNodeId;
+            this.nodeId = firstNodeId;
+        }
+    }
+}
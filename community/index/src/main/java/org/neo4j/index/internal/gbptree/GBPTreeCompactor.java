@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static org.neo4j.index.internal.gbptree.Overflow.NO_NEED_DEFRAG;
+import static org.neo4j.index.internal.gbptree.Overflow.YES;
+import static org.neo4j.index.internal.gbptree.StructurePropagation.KeyReplaceStrategy.REPLACE;
+import static org.neo4j.index.internal.gbptree.StructurePropagation.UPDATE_LEFT_CHILD;
+import static org.neo4j.index.internal.gbptree.StructurePropagation.UPDATE_MID_CHILD;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.keyCount;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+import java.io.IOException;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+
+/**
+ * Compacts the leaves of a {@link DataTree} by visiting them from left to right, packing the entries of each leaf into its left sibling.
+ * If all entries fit then the left sibling is merged into the leaf the same way as when a leaf underflows after a removal,
+ * i.e. the left sibling is released to the free-list and the separator key in the parent is removed. Otherwise as many entries
+ * as fit are moved over to the left sibling and the separator key is replaced. Internal nodes are left as they are.
+ * <p>
+ * Every leaf is visited in a separate {@link TreeWriteOperation} executed in pessimistic mode, which means that other writers
+ * are only excluded for the duration of compacting a single leaf. The writer is closed and the {@link IOController} consulted
+ * in between batches of leaves so that checkpoints can make progress and the IO of the compaction can be limited.
+ * <p>
+ * Leaves which haven't been modified since the last checkpoint are also moved to a free page with a lower id, if the free-list
+ * has one to offer, so that the free pages end up at the end of the file where they can be truncated.
+ * Offloaded entries of such a leaf are moved in the same way.
+ * See {@link InternalAccess#relocateToLowerId(PageCursor, StructurePropagation, StructurePropagation.StructureUpdate, long, long)}.
+ * <p>
+ * Each leaf is visited by looking up the first key of its right sibling, which was noted in the previous operation.
+ * If keys are concurrently inserted or removed around that key then some leaves may be visited twice or skipped,
+ * which is harmless since compaction is only an optimization.
+ */
+class GBPTreeCompactor<KEY, VALUE> implements TreeWriteOperation<KEY, VALUE> {
+    static final int LEAVES_PER_BATCH = 100;
+
+    private final DataTree<KEY, VALUE> tree;
+    private KEY nextKey;
+    private KEY movingKey;
+    private ValueHolder<VALUE> movingValue;
+    private boolean done;
+    private int leafSpace;
+    private long leafCountBefore;
+    private long usedSpaceBefore;
+    private long leafCountAfter;
+    private long usedSpaceAfter;
+    private long relocatedLeaves;
+
+    GBPTreeCompactor(DataTree<KEY, VALUE> tree) {
+        this.tree = tree;
+    }
+
+    CompactionStatistics compact(IOController ioController, CursorContext cursorContext) throws IOException {
+        while (!done) {
+            int visitedLeaves = 0;
+            try (Writer<KEY, VALUE> writer = tree.writer(cursorContext)) {
+                while (!done && visitedLeaves < LEAVES_PER_BATCH) {
+                    writer.execute(this);
+                    visitedLeaves++;
+                }
+            }
+            // Each visited leaf roughly corresponds to a couple of page writes, the leaf itself and its left sibling
+            ioController.maybeLimitIO(visitedLeaves * 2, FileFlushEvent.NULL);
+        }
+        return new CompactionStatistics(
+                leafCountBefore,
+                leafCountAfter,
+                fillFactor(usedSpaceBefore, leafCountBefore),
+                fillFactor(usedSpaceAfter, leafCountAfter),
+                relocatedLeaves);
+    }
+
+    @Override
+    public boolean run(
+            Layout<KEY, VALUE> layout,
+            InternalAccess<KEY, VALUE> internalAccess,
+            PageCursor cursor,
+            StructurePropagation<KEY> structurePropagation,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext)
+            throws IOException {
+        if (nextKey == null) {
+            nextKey = layout.newKey();
+            layout.initializeAsLowest(nextKey);
+            movingKey = layout.newKey();
+            movingValue = new ValueHolder<>(layout.newValue());
+        }
+        if (!internalAccess.moveToCorrectLeaf(cursor, nextKey, stableGeneration, unstableGeneration, cursorContext)
+                || !internalAccess.coordination().beforeMergingLeaves(cursor.getCurrentPageId())) {
+            return false;
+        }
+
+        LeafNodeBehaviour<KEY, VALUE> leafNode = internalAccess.leafNode();
+        leafSpace = leafNode.totalSpace();
+        int keyCount = keyCount(cursor);
+        leafCountBefore++;
+        usedSpaceBefore += usedSpace(leafNode, cursor, keyCount);
+
+        boolean structureChanged = internalAccess.relocateToLowerId(
+                cursor, structurePropagation, UPDATE_MID_CHILD, stableGeneration, unstableGeneration);
+        if (structureChanged) {
+            relocatedLeaves++;
+        }
+        if (TreeNodeUtil.generation(cursor) == unstableGeneration) {
+            leafNode.relocateOffloadedEntries(cursor, keyCount, stableGeneration, unstableGeneration, cursorContext);
+        }
+        long leftSibling = TreeNodeUtil.leftSibling(cursor, stableGeneration, unstableGeneration);
+        long rightSibling = TreeNodeUtil.rightSibling(cursor, stableGeneration, unstableGeneration);
+        boolean merge = false;
+        if (TreeNodeUtil.isNode(leftSibling)) {
+            // Not a linked cursor since creating successors of this leaf may need a linked cursor of its own
+            try (PageCursor leftSiblingCursor = cursor.getPagedFile()
+                    .io(GenerationSafePointerPair.pointer(leftSibling), PF_SHARED_WRITE_LOCK, cursorContext)) {
+                leftSiblingCursor.next();
+                int leftSiblingKeyCount = keyCount(leftSiblingCursor);
+                if (keyCount > 0 && leftSiblingKeyCount > 0) {
+                    merge = leafNode.canRebalance(leftSiblingCursor, leftSiblingKeyCount, cursor, keyCount) == -1;
+                    if (!merge) {
+                        structureChanged |= moveKeysToLeftSibling(
+                                internalAccess,
+                                cursor,
+                                leftSiblingCursor,
+                                structurePropagation,
+                                keyCount,
+                                leftSiblingKeyCount,
+                                stableGeneration,
+                                unstableGeneration,
+                                cursorContext);
+                    }
+                }
+                if (!merge) {
+                    // The left sibling won't change any further, so count it as it looks after compaction
+                    leafCountAfter++;
+                    usedSpaceAfter += usedSpace(leafNode, leftSiblingCursor, keyCount(leftSiblingCursor));
+                }
+            }
+        }
+        if (merge) {
+            internalAccess.createSuccessorIfNeeded(
+                    cursor, structurePropagation, UPDATE_MID_CHILD, stableGeneration, unstableGeneration);
+            // Given what canRebalance returned above this will merge the left sibling into this leaf
+            internalAccess.underflowInLeaf(
+                    cursor, structurePropagation, keyCount, stableGeneration, unstableGeneration, cursorContext);
+            structureChanged = true;
+        }
+
+        done = !TreeNodeUtil.isNode(rightSibling) || !readFirstKey(leafNode, cursor, rightSibling, cursorContext);
+        if (done) {
+            leafCountAfter++;
+            usedSpaceAfter += usedSpace(leafNode, cursor, keyCount(cursor));
+        }
+
+        if (structureChanged) {
+            internalAccess.handleStructureChanges(
+                    cursor, structurePropagation, stableGeneration, unstableGeneration, cursorContext);
+            internalAccess.tryShrinkTree(cursor, structurePropagation, stableGeneration, unstableGeneration);
+        }
+        return true;
+    }
+
+    /**
+     * Moves entries from the start of this leaf to the end of its left sibling for as long as they fit, leaving at least one entry
+     * in this leaf. The separator between the two leaves is then replaced by the new first key of this leaf, like when rebalancing.
+     * Leaves that are more than half full can't be merged pairwise, so this is what packs e.g. three leaves that are two-thirds full
+     * into two full leaves, where the third leaf is emptied by merging when visiting the next leaf.
+     *
+     * @return {@code true} if any entries were moved, otherwise {@code false}.
+     */
+    private boolean moveKeysToLeftSibling(
+            InternalAccess<KEY, VALUE> internalAccess,
+            PageCursor cursor,
+            PageCursor leftSiblingCursor,
+            StructurePropagation<KEY> structurePropagation,
+            int keyCount,
+            int leftSiblingKeyCount,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext)
+            throws IOException {
+        LeafNodeBehaviour<KEY, VALUE> leafNode = internalAccess.leafNode();
+        leafNode.keyValueAt(cursor, movingKey, movingValue, 0, cursorContext);
+        if (keyCount < 2
+                || leafNode.overflow(
+                                leftSiblingCursor, leftSiblingKeyCount, movingKey, movingValue.value, cursorContext)
+                        == YES) {
+            return false;
+        }
+
+        internalAccess.createSuccessorIfNeeded(
+                cursor, structurePropagation, UPDATE_MID_CHILD, stableGeneration, unstableGeneration);
+        internalAccess.createSuccessorIfNeeded(
+                leftSiblingCursor, structurePropagation, UPDATE_LEFT_CHILD, stableGeneration, unstableGeneration);
+        Overflow overflow;
+        while (keyCount > 1
+                && (overflow = leafNode.overflow(
+                                leftSiblingCursor, leftSiblingKeyCount, movingKey, movingValue.value, cursorContext))
+                        != YES) {
+            if (overflow == NO_NEED_DEFRAG) {
+                leftSiblingKeyCount = leafNode.defragment(leftSiblingCursor, leftSiblingKeyCount, cursorContext);
+            }
+            leafNode.insertKeyValueAt(
+                    leftSiblingCursor,
+                    movingKey,
+                    movingValue.value,
+                    leftSiblingKeyCount,
+                    leftSiblingKeyCount,
+                    stableGeneration,
+                    unstableGeneration,
+                    cursorContext);
+            TreeNodeUtil.setKeyCount(leftSiblingCursor, ++leftSiblingKeyCount);
+            keyCount =
+                    leafNode.removeKeyValueAt(cursor, 0, keyCount, stableGeneration, unstableGeneration, cursorContext);
+            TreeNodeUtil.setKeyCount(cursor, keyCount);
+            leafNode.keyValueAt(cursor, movingKey, movingValue, 0, cursorContext);
+        }
+
+        // Propagate change
+        structurePropagation.hasLeftKeyReplace = true;
+        structurePropagation.keyReplaceStrategy = REPLACE;
+        leafNode.keyAt(cursor, structurePropagation.leftKey, 0, cursorContext);
+        return true;
+    }
+
+    /**
+     * Reads the first key of the right sibling into {@link #nextKey}. An empty right sibling can only be seen if it's the last leaf,
+     * since an empty leaf would otherwise have underflowed, so in that case there's nothing more to compact.
+     */
+    private boolean readFirstKey(
+            LeafNodeBehaviour<KEY, VALUE> leafNode, PageCursor cursor, long rightSibling, CursorContext cursorContext)
+            throws IOException {
+        try (PageCursor rightSiblingCursor = cursor.openLinkedCursor(GenerationSafePointerPair.pointer(rightSibling))) {
+            rightSiblingCursor.next();
+            if (keyCount(rightSiblingCursor) == 0) {
+                return false;
+            }
+            leafNode.keyAt(rightSiblingCursor, nextKey, 0, cursorContext);
+            return true;
+        }
+    }
+
+    private int usedSpace(LeafNodeBehaviour<KEY, VALUE> leafNode, PageCursor cursor, int keyCount) {
+        return leafSpace - leafNode.availableSpace(cursor, keyCount);
+    }
+
+    private double fillFactor(long usedSpace, long leafCount) {
+        return leafCount == 0 ? 0 : (double) usedSpace / (leafCount * leafSpace);
+    }
+}
@@ -206,7 +206,7 @@ class GBPTreeWriter<K, V> implements Writer<K, V> {
     private void internalMerge(K key, V value, ValueMerger<K, V> valueMerger, boolean createIfNotExists) {
         try {
             // Try optimistic mode first
-            coordination.beginOperation();
+            beginOperation();
             if (!goToRoot()
                     || !treeLogic.insert(
                             cursor,
@@ -297,7 +297,7 @@ class GBPTreeWriter<K, V> implements Writer<K, V> {
         InternalTreeLogic.RemoveResult result;
         try {
             // Try optimistic mode
-            coordination.beginOperation();
+            beginOperation();
             if (!goToRoot()
                     || (result = treeLogic.remove(
                                     cursor,
@@ -360,7 +360,7 @@ class GBPTreeWriter<K, V> implements Writer<K, V> {
     }
 
     private void executeWithRetryInPessimisticMode(TreeWriteOperation<K, V> operation) throws IOException {
-        coordination.beginOperation();
+        beginOperation();
         if (goToRoot()
                 && operation.run(
                         layout,
@@ -392,6 +392,13 @@ class GBPTreeWriter<K, V> implements Writer<K, V> {
                 new TreeInconsistencyException("Unable to perform operation " + operation + " in pessimistic mode"));
     }
 
+    private void beginOperation() {
+        if (!coordination.beginOperation()) {
+            // The path kept from the previous operation has been changed by other writers, start from the root
+            reset();
+        }
+    }
+
     private void checkForceReset() {
         if (coordination.checkForceReset()) {
             // After pessimistic (and at some frequency for parallel writer) the tree is pretty much locked tight
@@ -39,6 +39,21 @@ interface IdProvider {
      */
     long acquireNewId(long stableGeneration, long unstableGeneration, CursorCreator cursorCreator) throws IOException;
 
+    /**
+     * Acquires a page id like {@link #acquireNewId(long, long, CursorCreator)}, but only if the next reusable id is lower than
+     * the given limit. This never grows the file, which makes it useful for moving tree nodes towards the start of the file.
+     *
+     * @param limit the acquired id must be lower than this id.
+     * @param stableGeneration current stable generation.
+     * @param unstableGeneration current unstable generation.
+     * @param cursorCreator function to create write page cursor, if this method is called within context of another write cursor, this should create linked cursor
+     * @return page id lower than {@code limit} guaranteed to currently not be used and whose bytes are all zeros,
+     * or {@link FreelistNode#NO_PAGE_ID} if there's no such id available.
+     * @throws IOException on {@link PageCursor} error.
+     */
+    long acquireNewIdBelow(long limit, long stableGeneration, long unstableGeneration, CursorCreator cursorCreator)
+            throws IOException;
+
     /**
      * Releases a page id which has previously been used, but isn't anymore, effectively allowing
      * it to be reused and returned from {@link #acquireNewId(long, long, CursorCreator)}.
@@ -52,6 +52,14 @@ public interface InternalAccess<KEY, VALUE> {
             long unstableGeneration)
             throws IOException;
 
+    boolean relocateToLowerId(
+            PageCursor cursor,
+            StructurePropagation<KEY> structurePropagation,
+            StructureUpdate structureUpdate,
+            long stableGeneration,
+            long unstableGeneration)
+            throws IOException;
+
     void handleStructureChanges(
             PageCursor cursor,
             StructurePropagation<KEY> structurePropagation,
@@ -1745,7 +1745,6 @@ class InternalTreeLogic<KEY, VALUE> implements InternalAccess<KEY, VALUE> {
             long stableGeneration,
             long unstableGeneration)
             throws IOException {
-        long oldId = cursor.getCurrentPageId();
         long nodeGeneration = generation(cursor);
         if (nodeGeneration == unstableGeneration) {
             // Don't copy
@@ -1754,6 +1753,56 @@ class InternalTreeLogic<KEY, VALUE> implements InternalAccess<KEY, VALUE> {
 
         // Do copy
         long successorId = idProvider.acquireNewId(stableGeneration, unstableGeneration, bind(cursor));
+        createSuccessor(
+                cursor, structurePropagation, structureUpdate, successorId, stableGeneration, unstableGeneration);
+    }
+
+    /**
+     * Moves the tree node {@code cursor} is at to a free page with a lower id, if there is one, by creating a successor there
+     * the same way as {@link #createSuccessorIfNeeded(PageCursor, StructurePropagation, StructurePropagation.StructureUpdate, long, long)}
+     * does. Moving nodes towards the start of the file lets the free tail of the file be truncated.
+     * <p>
+     * Nodes that already are of the unstable generation are left where they are, since a successor can't be created for them.
+     *
+     * @param cursor {@link PageCursor} pinned to page containing node to potentially move.
+     * @param structurePropagation {@link StructurePropagation} used to report structure changes between tree levels.
+     * @param structureUpdate {@link StructurePropagation.StructureUpdate} define how to update structurePropagation
+     * if the node is moved.
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @return {@code true} if the node was moved, in which case {@code cursor} is at the new page, otherwise {@code false}.
+     * @throws IOException on cursor failure
+     */
+    @Override
+    public boolean relocateToLowerId(
+            PageCursor cursor,
+            StructurePropagation<KEY> structurePropagation,
+            StructurePropagation.StructureUpdate structureUpdate,
+            long stableGeneration,
+            long unstableGeneration)
+            throws IOException {
+        if (generation(cursor) == unstableGeneration) {
+            return false;
+        }
+        long successorId = idProvider.acquireNewIdBelow(
+                cursor.getCurrentPageId(), stableGeneration, unstableGeneration, bind(cursor));
+        if (successorId == FreelistNode.NO_PAGE_ID) {
+            return false;
+        }
+        createSuccessor(
+                cursor, structurePropagation, structureUpdate, successorId, stableGeneration, unstableGeneration);
+        return true;
+    }
+
+    private void createSuccessor(
+            PageCursor cursor,
+            StructurePropagation<KEY> structurePropagation,
+            StructurePropagation.StructureUpdate structureUpdate,
+            long successorId,
+            long stableGeneration,
+            long unstableGeneration)
+            throws IOException {
+        long oldId = cursor.getCurrentPageId();
         structureWriteLog.createSuccessor(
                 unstableGeneration,
                 currentLevel > 0 ? levels[currentLevel - 1].treeNodeId : -1,
@@ -36,6 +36,15 @@ import org.neo4j.io.pagecache.PageCursor;
  * If operation is unsafe (split/merge) then first an optimistic latch upgrade on parent is attempted - if successful the operation
  * can continue. Otherwise, as well as for failure to upgrade latches will result in releasing of the latches and flip to pessimistic mode.
  * <p>
+ * In between optimistic operations the latches on the path are released, but the {@link LongSpinLatch#version() versions} of the nodes
+ * are remembered, a variant of what is known as "Optimistic Lock Coupling". This way a writer doesn't block other writers from
+ * changing the top levels of the tree while it's not actively making a change itself. When the next operation begins the path
+ * is latched again from the top and the versions of the nodes validated. Any change which could affect the path, e.g. a split,
+ * merge or successor of any node on it, is made while holding a write latch on one of the internal nodes on the path, and so will be
+ * noticed. The version of the leaf is validated too, since the key count and available space remembered for it decide whether
+ * an optimistic removal or insertion is safe and another writer may have changed them. If validation fails the traversal will
+ * start from the root again.
+ * <p>
  * Pessimistic mode uses {@link LongSpinLatch#acquireWrite() write latches} all the way down to leaf and performs the change.
  * Even split/merge can be done since write latches on parents are also acquired. In typical latch crabbing write latches on parents can be released
  * when traversing down if the operation on the lower level is considered safe, i.e. taking into consideration that a split could occur and
@@ -85,6 +94,18 @@ import org.neo4j.io.pagecache.PageCursor;
  *     - Read latch on [3]
  *     - Notice that [3] needs to split, ask to upgrade read latch on [1] to write, but fails since another writer has read lock too
  *     - Flip to pessimistic mode
+ *
+ *     Example of simple insertion into [3] followed by simple insertion into [4]:
+ *     - Read latch on [1]
+ *     - Read latch on [3]
+ *     - Upgrade read latch on [3] to write
+ *     - Insert into [3]
+ *     - Release latches on [3] and [1], remembering their versions
+ *     - Read latch on [1] and validate its version, otherwise start from the root
+ *     - Read latch on [3], validate its version and upgrade to write
+ *     - Release latch on [3], since it doesn't cover the key
+ *     - Read latch on [4]
+ *     - ...
  * </pre>
  */
 class LatchCrabbingCoordination implements TreeWriterCoordination {
@@ -115,15 +136,30 @@ class LatchCrabbingCoordination implements TreeWriterCoordination {
         var result = pessimistic || operationCounter >= resetFrequency;
         if (result) {
             operationCounter = 0;
+        } else {
+            // Keep the path for the next operation, but don't hold on to the latches in between
+            for (int i = 0; i <= depth; i++) {
+                dataByDepth[i].releaseLatchKeepVersion();
+            }
         }
         return result;
     }
 
     @Override
-    public void beginOperation() {
+    public boolean beginOperation() {
         inc(Stat.TOTAL_OPERATIONS);
         this.pessimistic = false;
         this.operationCounter++;
+
+        // Latch the path kept from the previous operation again, from the top, and see that it's still valid
+        for (int i = 0; i <= depth; i++) {
+            if (!dataByDepth[i].reacquireLatchAndValidateVersion()) {
+                inc(Stat.STALE_PATH);
+                reset();
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -232,6 +268,15 @@ class LatchCrabbingCoordination implements TreeWriterCoordination {
         return false;
     }
 
+    @Override
+    public boolean beforeMergingLeaves(long treeNodeId) {
+        if (pessimistic) {
+            return true;
+        }
+        inc(Stat.FAIL_LEAF_COMPACTION);
+        return false;
+    }
+
     @Override
     public void beforeSplitInternal(long treeNodeId) {
         if (!pessimistic) {
@@ -319,6 +364,7 @@ class LatchCrabbingCoordination implements TreeWriterCoordination {
         for (int i = 0; i <= depth; i++) {
             LongSpinLatch latch = dataByDepth[i].latch;
             builder.append(dataByDepth[i].latchTypeIsWrite ? "W" : "R")
+                    .append(dataByDepth[i].hasVersion ? "(released,v:" + dataByDepth[i].version + ")" : "")
                     .append(latch.toString())
                     .append(format("%n"));
         }
@@ -329,6 +375,8 @@ class LatchCrabbingCoordination implements TreeWriterCoordination {
         private LongSpinLatch latch;
         private boolean latchTypeIsWrite;
         private boolean latchIsAcquired;
+        private boolean hasVersion;
+        private long version;
         private int availableSpace;
         private int keyCount;
         private int childPos;
@@ -372,6 +420,7 @@ class LatchCrabbingCoordination implements TreeWriterCoordination {
         }
 
         void releaseLatch() {
+            hasVersion = false;
             if (latchIsAcquired) {
                 latchIsAcquired = false;
                 if (latchTypeIsWrite) {
@@ -382,6 +431,33 @@ class LatchCrabbingCoordination implements TreeWriterCoordination {
             }
         }
 
+        void releaseLatchKeepVersion() {
+            if (latchIsAcquired) {
+                latchIsAcquired = false;
+                if (latchTypeIsWrite) {
+                    version = latch.releaseWrite();
+                } else {
+                    // The version cannot change while holding the read latch
+                    version = latch.version();
+                    latch.releaseRead();
+                }
+                hasVersion = true;
+            }
+        }
+
+        boolean reacquireLatchAndValidateVersion() {
+            assert hasVersion && !latchIsAcquired;
+            hasVersion = false;
+            latch.acquireRead();
+            latchIsAcquired = true;
+            boolean upgradeToWrite = latchTypeIsWrite;
+            latchTypeIsWrite = false;
+            if (latch.version() != version) {
+                return false;
+            }
+            return !upgradeToWrite || tryUpgradeLatchToWrite();
+        }
+
         boolean tryUpgradeLatchToWrite() {
             assert latchIsAcquired;
             if (!latchTypeIsWrite) {
@@ -448,7 +524,16 @@ class LatchCrabbingCoordination implements TreeWriterCoordination {
         /**
          * Number of "flip to pessimistic" caused by operation needing to update sibling leaf.
          */
-        FAIL_NEED_UPDATE_SIBLING_LEAF(PESSIMISTIC);
+        FAIL_NEED_UPDATE_SIBLING_LEAF(PESSIMISTIC),
+        /**
+         * Number of "flip to pessimistic" caused by compaction merging leaves.
+         */
+        FAIL_LEAF_COMPACTION(PESSIMISTIC),
+        /**
+         * Number of operations where the path kept from the previous operation had been changed by other writers
+         * and so traversal had to start from the root.
+         */
+        STALE_PATH(TOTAL_OPERATIONS);
 
         private final Stat comparedTo;
         private final LongAdder count = new LongAdder();
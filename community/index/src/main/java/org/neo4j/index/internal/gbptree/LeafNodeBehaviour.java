@@ -26,6 +26,20 @@ import org.neo4j.io.pagecache.context.CursorContext;
 public interface LeafNodeBehaviour<KEY, VALUE> extends SharedNodeBehaviour<KEY> {
     void initialize(PageCursor cursor, byte layerType, long stableGeneration, long unstableGeneration);
 
+    /**
+     * Moves offloaded entries of the leaf at cursor to free pages with lower ids, see {@link OffloadStore#relocate}.
+     * Must only be called on a leaf in the unstable generation since offload ids are updated in place.
+     *
+     * @return number of relocated entries.
+     */
+    int relocateOffloadedEntries(
+            PageCursor cursor,
+            int keyCount,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext)
+            throws IOException;
+
     void keyValueAt(PageCursor cursor, KEY intoKey, ValueHolder<VALUE> intoValue, int pos, CursorContext cursorContext)
             throws IOException;
 
@@ -77,6 +91,11 @@ public interface LeafNodeBehaviour<KEY, VALUE> extends SharedNodeBehaviour<KEY>
 
     int underflowThreshold();
 
+    /**
+     * @return space available for keys and values in an empty leaf, i.e. what {@link #availableSpace(PageCursor, int)} returns for zero keys.
+     */
+    int totalSpace();
+
     /**
      * returns new key count after defragment
      */
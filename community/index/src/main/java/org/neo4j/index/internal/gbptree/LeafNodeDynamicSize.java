@@ -32,6 +32,7 @@ import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getDeadSpace;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getOverhead;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.keyValueSizeCapFromPageSize;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putOffloadId;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putOffloadMarker;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putTombstone;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readKeyValueSize;
@@ -123,6 +124,33 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
         return DynamicSizeUtil.offloadIdAt(cursor);
     }
 
+    @Override
+    public int relocateOffloadedEntries(
+            PageCursor cursor,
+            int keyCount,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext)
+            throws IOException {
+        int relocated = 0;
+        for (int pos = 0; pos < keyCount; pos++) {
+            placeCursorAtActualKey(cursor, pos);
+            long keyValueSize = readKeyValueSize(cursor);
+            if (extractOffload(keyValueSize)) {
+                int offloadIdOffset = cursor.getOffset();
+                long offloadId = readOffloadId(cursor);
+                long newOffloadId =
+                        offloadStore.relocate(offloadId, stableGeneration, unstableGeneration, cursorContext);
+                if (newOffloadId != offloadId) {
+                    cursor.setOffset(offloadIdOffset);
+                    putOffloadId(cursor, newOffloadId);
+                    relocated++;
+                }
+            }
+        }
+        return relocated;
+    }
+
     @Override
     public KEY keyAt(PageCursor cursor, KEY into, int pos, CursorContext cursorContext) {
         placeCursorAtActualKey(cursor, pos);
@@ -353,6 +381,11 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
         return halfSpace;
     }
 
+    @Override
+    public int totalSpace() {
+        return totalSpace;
+    }
+
     @Override
     public int defragment(PageCursor cursor, int keyCount, CursorContext cursorContext) throws IOException {
         doDefragment(cursor, keyCount);
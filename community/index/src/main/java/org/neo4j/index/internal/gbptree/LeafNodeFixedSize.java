@@ -94,6 +94,16 @@ class LeafNodeFixedSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
         TreeNodeUtil.writeBaseHeader(cursor, TreeNodeUtil.LEAF_FLAG, layerType, stableGeneration, unstableGeneration);
     }
 
+    @Override
+    public int relocateOffloadedEntries(
+            PageCursor cursor,
+            int keyCount,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext) {
+        return 0;
+    }
+
     @Override
     public long offloadIdAt(PageCursor cursor, int pos) {
         return NO_OFFLOAD_ID;
@@ -277,6 +287,11 @@ class LeafNodeFixedSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
         return halfSpace;
     }
 
+    @Override
+    public int totalSpace() {
+        return maxKeyCount * (keySize + valueSize);
+    }
+
     @Override
     public int defragment(PageCursor cursor, int keyCount, CursorContext cursorContext) throws IOException {
         return keyCount;
@@ -39,6 +39,10 @@ import org.eclipse.collections.api.block.function.primitive.LongToLongFunction;
  * Latches have an initial tree node id and last thread releasing the last acquisition will reset the tree node id bits to 0
  * and run a {@code removeAction}. A latch with its tree node id not equal to initial tree node id may not be acquired anymore.
  * This functionality allows these latches to be used in e.g. a {@link ConcurrentHashMap}.
+ * <p>
+ * Every release of a write lock also increments a version, which allows for letting go of a latch and later validating
+ * that nobody has written to the node in between. A version is only meaningful as long as the caller holds a
+ * {@link #ref() reference} to the latch.
  */
 class LongSpinLatch {
     private static final long MAX_SPIN_NANOS = MICROSECONDS.toNanos(500);
@@ -52,6 +56,8 @@ class LongSpinLatch {
     private static final long REF_COUNT_MASK = 0x7FFF0000;
     private static final int REF_COUNT_SHIFT = 16;
     private static final long DEAD_MASK = 0x80000000L;
+    private static final long VERSION_MASK = 0x7FFFFFFF_00000000L;
+    private static final int VERSION_SHIFT = 32;
 
     private static final LongPredicate ALWAYS_TRUE = bits -> true;
     private static final LongPredicate NO_WRITE_LOCK = bits -> (bits & WRITE_LOCK_MASK) == 0;
@@ -69,7 +75,8 @@ class LongSpinLatch {
     private static final LongToLongFunction ACQUIRE_WRITE_LOCK = bits -> bits | WRITE_LOCK_MASK;
     private static final LongToLongFunction ACQUIRE_WRITE_LOCK_CLEAR_READ_LOCKS =
             bits -> (bits & ~LOCK_MASK) | WRITE_LOCK_MASK;
-    private static final LongToLongFunction RELEASE_WRITE_LOCK = bits -> bits & ~WRITE_LOCK_MASK;
+    private static final LongToLongFunction RELEASE_WRITE_LOCK =
+            bits -> (bits & ~(WRITE_LOCK_MASK | VERSION_MASK)) | ((bits + (1L << VERSION_SHIFT)) & VERSION_MASK);
     private static final LongToLongFunction NO_TRANSFORM = bits -> bits;
 
     private final long initialTreeNodeId;
@@ -77,10 +84,10 @@ class LongSpinLatch {
     /**
      * Bits that make up this lock:
      * <pre>
-     * [    ,    ][    ,    ][    ,    ][    ,    ]
-     *  ^^                 ^  ^^                 ^
-     *  │└── Ref count ────┘  │└─ Read lock bits ┘
-     *  └─ dead               └── Write lock bit
+     * [    ,    ][    ,    ][    ,    ][    ,    ][    ,    ][    ,    ][    ,    ][    ,    ]
+     *   ^                                       ^  ^^                 ^  ^^                 ^
+     *   └───────────────── Version ─────────────┘  │└── Ref count ────┘  │└─ Read lock bits ┘
+     *                                              └─ dead               └── Write lock bit
      * </pre>
      */
     @SuppressWarnings("FieldMayBeFinal") // Accessed through VarHandle
@@ -196,11 +203,21 @@ class LongSpinLatch {
         return spinTransform(NO_WRITE_LOCK, ACQUIRE_WRITE_LOCK, true, false) != TEST_FAILED;
     }
 
+    /**
+     * @return the current version of this latch, which changes every time a write lock is released.
+     * Reading the version while holding a read lock guarantees that it's the version of what was read.
+     */
+    long version() {
+        return (volatileGetBits() & VERSION_MASK) >>> VERSION_SHIFT;
+    }
+
     /**
      * Non-blocking call. Releases the write lock on this latch.
+     * @return the version this release resulted in.
      */
-    void releaseWrite() {
-        spinTransform(ALWAYS_TRUE, RELEASE_WRITE_LOCK, false, false);
+    long releaseWrite() {
+        long transformed = spinTransform(ALWAYS_TRUE, RELEASE_WRITE_LOCK, false, false);
+        return (transformed & VERSION_MASK) >>> VERSION_SHIFT;
     }
 
     long treeNodeId() {
@@ -252,6 +269,11 @@ class LongSpinLatch {
     @Override
     public String toString() {
         long bits = volatileGetBits();
-        return format("Lock[%d,w:%b,r:%d]", initialTreeNodeId, (bits & WRITE_LOCK_MASK) != 0, bits & READ_LOCK_MASK);
+        return format(
+                "Lock[%d,w:%b,r:%d,v:%d]",
+                initialTreeNodeId,
+                (bits & WRITE_LOCK_MASK) != 0,
+                bits & READ_LOCK_MASK,
+                (bits & VERSION_MASK) >>> VERSION_SHIFT);
     }
 }
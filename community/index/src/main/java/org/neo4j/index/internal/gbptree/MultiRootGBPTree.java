@@ -76,6 +76,7 @@ import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.version.FileTruncateEvent;
 import org.neo4j.memory.EmptyMemoryTracker;
 import org.neo4j.util.VisibleForTesting;
 
@@ -402,6 +403,12 @@ public class MultiRootGBPTree<ROOT_KEY, KEY, VALUE> implements Closeable {
      */
     private final AtomicBoolean changesSinceLastCheckpoint = new AtomicBoolean();
 
+    /**
+     * Set by {@link #truncateFreeTailOnNextCheckpoint()} and cleared by the next {@link #checkpoint(FileFlushEvent, CursorContext)},
+     * which then truncates the free pages at the end of the file.
+     */
+    private volatile boolean truncateFreeTail;
+
     /**
      * These locks together controls access to cleaning, writing and checkpointing the tree.
      * <ul>
@@ -1177,6 +1184,11 @@ public class MultiRootGBPTree<ROOT_KEY, KEY, VALUE> implements Closeable {
                 writeState(pagedFile, headerWriter, cursorContext);
                 pagedFile.flushAndForce(flushEvent);
 
+                if (truncateFreeTail) {
+                    truncateFreeTail = false;
+                    truncateFreeTail(flushEvent, cursorContext);
+                }
+
                 monitor.checkpointCompleted();
                 changesSinceLastCheckpoint.set(false);
             });
@@ -1186,6 +1198,44 @@ public class MultiRootGBPTree<ROOT_KEY, KEY, VALUE> implements Closeable {
         }
     }
 
+    /**
+     * Makes the next {@link #checkpoint(FileFlushEvent, CursorContext) checkpoint} truncate the pages at the end of the file
+     * which are free at that point, including the ones released since the previous checkpoint. This is typically requested
+     * after {@link DataTree#compact(org.neo4j.io.pagecache.IOController, CursorContext) compacting} the tree.
+     */
+    public void truncateFreeTailOnNextCheckpoint() {
+        truncateFreeTail = true;
+    }
+
+    /**
+     * Called as part of a checkpoint, right after the generation has been bumped and the state has been written, so that the pages
+     * released in the generation which just became stable can be truncated as well. The free-list is rewritten without the ids
+     * of the truncated pages, and the state is written once more in yet another generation, before the file is truncated.
+     * Up until then the state written by the checkpoint is still valid in case of a crash, since only pages which are free
+     * in that state are written to.
+     * <p>
+     * Readers don't take part in checkpoints, so a reader could still be at a truncated page if it has been stuck there since before
+     * the page was released. This is the same premise as for reusing released pages after a checkpoint.
+     */
+    private void truncateFreeTail(FileFlushEvent flushEvent, CursorContext cursorContext) throws IOException {
+        if (pagedFile.isMultiVersioned()) {
+            return;
+        }
+        long stableGeneration = stableGeneration(generation);
+        long unstableGeneration = unstableGeneration(generation);
+        CursorCreator cursorCreator = bind(pagedFile, PF_SHARED_WRITE_LOCK, cursorContext);
+        freeList.truncateFreeTail(stableGeneration, cursorCreator);
+        freeList.flush(stableGeneration, unstableGeneration, cursorCreator);
+
+        structureWriteLog.checkpoint(stableGeneration, unstableGeneration, unstableGeneration + 1);
+        pagedFile.flushAndForce(flushEvent);
+        this.generation = Generation.generation(unstableGeneration, unstableGeneration + 1);
+        writeState(pagedFile, CARRY_OVER_PREVIOUS_HEADER, cursorContext);
+        pagedFile.flushAndForce(flushEvent);
+
+        pagedFile.truncate(freeList.lastId() + 1, FileTruncateEvent.NULL);
+    }
+
     /**
      * Closes this tree and its associated resources.
      * <p>
@@ -572,6 +572,19 @@ class MultiRootLayer<ROOT_KEY, DATA_KEY, DATA_VALUE> extends RootLayer<ROOT_KEY,
                     SeekCursor.NO_MONITOR);
         }
 
+        @Override
+        public Seeker<DATA_KEY, DATA_VALUE> multiSeek(
+                Seeker<DATA_KEY, DATA_VALUE> seeker, DATA_KEY[] fromInclusive, DATA_KEY[] toExclusive)
+                throws IOException {
+            return support.initializeMultiSeeker(
+                    seeker,
+                    rootMappingInteraction,
+                    fromInclusive,
+                    toExclusive,
+                    DEFAULT_MAX_READ_AHEAD,
+                    SeekCursor.NO_MONITOR);
+        }
+
         @Override
         public List<DATA_KEY> partitionedSeek(
                 DATA_KEY fromInclusive, DATA_KEY toExclusive, int numberOfPartitions, CursorContext cursorContext)
@@ -587,6 +600,20 @@ class MultiRootLayer<ROOT_KEY, DATA_KEY, DATA_VALUE> extends RootLayer<ROOT_KEY,
                     cursorContext);
         }
 
+        @Override
+        public BulkLoader<DATA_KEY, DATA_VALUE> bulkLoader(double fillFactor, CursorContext cursorContext)
+                throws IOException {
+            return support.internalBulkLoader(
+                    dataLayout,
+                    dataLeafNode,
+                    dataInternalNode,
+                    fillFactor,
+                    cursorContext,
+                    rootMappingInteraction,
+                    true,
+                    DATA_LAYER_FLAG);
+        }
+
         @Override
         public long estimateNumberOfEntriesInTree(CursorContext cursorContext) throws IOException {
             return support.estimateNumberOfEntriesInTree(
@@ -91,4 +91,18 @@ public interface OffloadStore<KEY, VALUE> {
      */
     void free(long offloadId, long stableGeneration, long unstableGeneration, CursorContext cursorContext)
             throws IOException;
+
+    /**
+     * Move the entry mapped to by given offloadId to a free page with a lower id, if there is one,
+     * and free the given offloadId.
+     *
+     * @param offloadId id of the entry to move.
+     * @param stableGeneration current stable generation when entry is moved.
+     * @param unstableGeneration current unstable generation when entry is moved.
+     * @param cursorContext underlying page cursor context
+     * @return new offloadId of the entry, or the given offloadId if the entry wasn't moved.
+     * @throws IOException if something went wrong when moving the entry.
+     */
+    long relocate(long offloadId, long stableGeneration, long unstableGeneration, CursorContext cursorContext)
+            throws IOException;
 }
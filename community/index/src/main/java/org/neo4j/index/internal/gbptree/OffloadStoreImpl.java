@@ -188,6 +188,31 @@ public class OffloadStoreImpl<KEY, VALUE> implements OffloadStore<KEY, VALUE> {
                 bind(pcFactory, PagedFile.PF_SHARED_WRITE_LOCK, cursorContext));
     }
 
+    @Override
+    public long relocate(long offloadId, long stableGeneration, long unstableGeneration, CursorContext cursorContext)
+            throws IOException {
+        long newId = idProvider.acquireNewIdBelow(
+                offloadId,
+                stableGeneration,
+                unstableGeneration,
+                bind(pcFactory, PagedFile.PF_SHARED_WRITE_LOCK, cursorContext));
+        if (newId == FreelistNode.NO_PAGE_ID) {
+            return offloadId;
+        }
+        byte[] page;
+        try (PageCursor cursor = pcFactory.create(offloadId, PagedFile.PF_SHARED_WRITE_LOCK, cursorContext)) {
+            placeCursorAtOffloadId(cursor, offloadId);
+            page = new byte[cursor.getPagedFile().payloadSize()];
+            cursor.getBytes(page);
+        }
+        try (PageCursor cursor = pcFactory.create(newId, PagedFile.PF_SHARED_WRITE_LOCK, cursorContext)) {
+            placeCursorAtOffloadId(cursor, newId);
+            cursor.putBytes(page);
+        }
+        free(offloadId, stableGeneration, unstableGeneration, cursorContext);
+        return newId;
+    }
+
     @VisibleForTesting
     static int keyValueSizeCapFromPageSize(int payloadSize) {
         return payloadSize - SIZE_HEADER - SIZE_KEY_SIZE - SIZE_VALUE_SIZE;
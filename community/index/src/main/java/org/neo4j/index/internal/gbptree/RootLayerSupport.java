@@ -125,6 +125,24 @@ class RootLayerSupport {
                         monitor);
     }
 
+    <K, V> Seeker<K, V> initializeMultiSeeker(
+            Seeker<K, V> seeker,
+            RootSupplier rootSupplier,
+            K[] fromInclusive,
+            K[] toExclusive,
+            int readAheadLength,
+            Monitor monitor)
+            throws IOException {
+        return ((SeekCursor<K, V>) seeker)
+                .initialize(
+                        (cursor, context) -> rootSupplier.getRoot(context).goTo(cursor),
+                        new TripCountingRootCatchup(rootSupplier),
+                        fromInclusive,
+                        toExclusive,
+                        readAheadLength,
+                        monitor);
+    }
+
     /**
      * We want to create a given number of partitions of the range given by <code>fromInclusive</code> and <code>toExclusive</code>.
      * We want the number of entries in each partition to be as equal as possible. We let the number of leaves in each partition
@@ -274,6 +292,40 @@ class RootLayerSupport {
         return writer;
     }
 
+    <K, V> BulkLoader<K, V> internalBulkLoader(
+            Layout<K, V> layout,
+            LeafNodeBehaviour<K, V> leafNode,
+            InternalNodeBehaviour<K> internalNode,
+            double fillFactor,
+            CursorContext cursorContext,
+            TreeRootExchange rootExchange,
+            boolean parallel,
+            byte layerType)
+            throws IOException {
+        if (readOnly) {
+            throw new IllegalStateException(String.format("'%s' is read-only", pagedFile.path()));
+        }
+        cleanCheck.apply();
+        GBPTreeBulkLoader<K, V> bulkLoader = new GBPTreeBulkLoader<>(
+                layout,
+                pagedFile,
+                leafNode,
+                internalNode,
+                rootExchange,
+                parallel,
+                checkpointLock,
+                writerLock,
+                freeList,
+                latchService,
+                exceptionDecorator,
+                generationSupplier,
+                writersMustEagerlyFlushSupplier,
+                layerType);
+        bulkLoader.initialize(fillFactor, cursorContext);
+        changesSinceLastCheckpoint.set(true);
+        return bulkLoader;
+    }
+
     <K, V> OffloadStoreImpl<K, V> buildOffload(Layout<K, V> layout) {
         OffloadIdValidator idValidator = id -> id >= IdSpace.MIN_TREE_NODE_ID && id <= pagedFile.getLastPageId();
         return new OffloadStoreImpl<>(layout, freeList, pagedFile::io, idValidator, payloadSize);
@@ -423,6 +475,12 @@ class RootLayerSupport {
                     return initializeSeeker(seeker, rootSupplier, fromInclusive, toExclusive, 1, LEAF_LEVEL, monitor);
                 }
 
+                @Override
+                public Seeker<K, V> multiSeek(Seeker<K, V> seeker, K[] fromInclusive, K[] toExclusive)
+                        throws IOException {
+                    return initializeMultiSeeker(seeker, rootSupplier, fromInclusive, toExclusive, 1, monitor);
+                }
+
                 @Override
                 public List<K> partitionedSeek(
                         K fromInclusive, K toExclusive, int numberOfPartitions, CursorContext cursorContext)
@@ -50,6 +50,12 @@ import org.neo4j.util.Preconditions;
  * If fromInclusive <= toExclusive, then seek forwards, otherwise seek backwards
  * </pre>
  * <p>
+ * A forward seek can also be given multiple key ranges, in ascending and non-overlapping order, see
+ * {@link #initialize(RootInitializer, RootCatchup, Object[], Object[], int, Monitor)}. Hits of all ranges are returned in
+ * one go and when a range ends the start of the next range is first searched for in the current leaf. Only if it isn't
+ * there the seek traverses down from the root again, this way consecutive ranges in the same leaf are looked up
+ * without any traversal of the internal nodes.
+ * <p>
  * Implementation note: there are assumptions that keys are unique in the tree.
  * <p>
  * <strong>Note on backwards seek</strong>
@@ -222,6 +228,34 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
      */
     private boolean exactMatch;
 
+    /**
+     * Start keys (inclusive) of all ranges in a multi-range seek, or {@code null} if seeking a single range.
+     * {@link #fromInclusive} and {@link #toExclusive} hold the range currently being seeked.
+     */
+    private KEY[] rangesFromInclusive;
+
+    /**
+     * End keys (exclusive) of all ranges in a multi-range seek, or {@code null} if seeking a single range.
+     */
+    private KEY[] rangesToExclusive;
+
+    /**
+     * Index into {@link #rangesFromInclusive}/{@link #rangesToExclusive} of the range currently being seeked.
+     */
+    private int rangeIndex;
+
+    /**
+     * Key instance owned by this seeker, holding the start of the current range in a multi-range seek.
+     * Used so that the keys provided by the caller are never modified.
+     */
+    private KEY rangeFromInclusive;
+
+    /**
+     * Set when a multi-range seek moves on to its next range. If the start of the new range isn't in the
+     * current node the seek traverses down from the root instead of scanning through the siblings.
+     */
+    private boolean restartFromRootIfOutsideNode;
+
     /**
      * {@link Layout} instance used to perform some functions around keys, like copying and comparing.
      */
@@ -462,7 +496,6 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
         this.maxKeyCount = Math.max(leafNode.maxKeyCount(), internalNode.maxKeyCount());
     }
 
-    @SuppressWarnings("unchecked")
     SeekCursor<KEY, VALUE> initialize(
             RootInitializer rootInitializer,
             RootCatchup rootCatchup,
@@ -472,6 +505,68 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
             int searchLevel,
             Monitor monitor)
             throws IOException {
+        this.rangesFromInclusive = null;
+        this.rangesToExclusive = null;
+        return initializeRange(
+                rootInitializer, rootCatchup, fromInclusive, toExclusive, maxReadAhead, searchLevel, monitor);
+    }
+
+    /**
+     * Initializes a forward seek over multiple key ranges. The ranges are given as pairs of {@code fromInclusive[i]}
+     * and {@code toExclusive[i]}, where a pair of equal keys means an exact match. Ranges must be ordered and must not
+     * overlap, i.e. {@code fromInclusive[i + 1]} must come after {@code toExclusive[i]}. Hits are returned in key order.
+     */
+    SeekCursor<KEY, VALUE> initialize(
+            RootInitializer rootInitializer,
+            RootCatchup rootCatchup,
+            KEY[] fromInclusive,
+            KEY[] toExclusive,
+            int maxReadAhead,
+            Monitor monitor)
+            throws IOException {
+        Preconditions.checkArgument(
+                fromInclusive.length == toExclusive.length,
+                "Number of range start keys %d and range end keys %d differ",
+                fromInclusive.length,
+                toExclusive.length);
+        Preconditions.checkArgument(fromInclusive.length > 0, "No ranges to seek");
+        for (int i = 0; i < fromInclusive.length; i++) {
+            int rangeComparison = layout.compare(fromInclusive[i], toExclusive[i]);
+            Preconditions.checkArgument(rangeComparison <= 0, "Range %d is not a forward range", i);
+            if (i > 0) {
+                int gapComparison = layout.compare(fromInclusive[i], toExclusive[i - 1]);
+                Preconditions.checkArgument(
+                        gapComparison > 0 || (gapComparison == 0 && !isExactMatch(i - 1, fromInclusive, toExclusive)),
+                        "Range %d overlaps, or is ordered before, range %d",
+                        i,
+                        i - 1);
+            }
+        }
+        if (rangeFromInclusive == null) {
+            rangeFromInclusive = layout.newKey();
+        }
+        this.rangesFromInclusive = fromInclusive;
+        this.rangesToExclusive = toExclusive;
+        this.rangeIndex = 0;
+        layout.copyKey(fromInclusive[0], rangeFromInclusive);
+        return initializeRange(
+                rootInitializer, rootCatchup, rangeFromInclusive, toExclusive[0], maxReadAhead, LEAF_LEVEL, monitor);
+    }
+
+    private boolean isExactMatch(int range, KEY[] fromInclusive, KEY[] toExclusive) {
+        return layout.compare(fromInclusive[range], toExclusive[range]) == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private SeekCursor<KEY, VALUE> initializeRange(
+            RootInitializer rootInitializer,
+            RootCatchup rootCatchup,
+            KEY fromInclusive,
+            KEY toExclusive,
+            int maxReadAhead,
+            int searchLevel,
+            Monitor monitor)
+            throws IOException {
         Preconditions.checkState(!closed, "Seeker already closed");
         this.rootCatchup = rootCatchup;
         this.lastFollowedPointerGeneration = rootInitializer.goToRoot(cursor, cursorContext);
@@ -492,7 +587,8 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
         this.stride = seekForward ? 1 : -1;
         this.searchLevel = searchLevel;
         this.monitor = monitor;
-        int batchSize = exactMatch ? 1 : maxReadAhead;
+        this.restartFromRootIfOutsideNode = false;
+        int batchSize = exactMatch && rangesFromInclusive == null ? 1 : maxReadAhead;
         if (mutableKeys == null || batchSize > mutableKeys.length) {
             this.mutableKeys = (KEY[]) new Object[batchSize];
             this.mutableValues = new ValueHolder[batchSize];
@@ -631,66 +727,110 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
     @Override
     public boolean next() throws IOException {
         try {
-            while (!ended) {
-                pos += stride;
-
-                // There are two main tracks in this loop:
-                // - (SLOW) no keys/values have been read and will therefore need to be read from the cursor.
-                //   Reading from the cursor means there are a lot of things around the actual keys and values
-                //   that need to be check to validate the read. This is expensive to do since there's so much
-                //   to validate. This is why keys/values are read in batches of N entries. The validations
-                //   are made only once per batch instead of once per key/value.
-                // - (FAST) there are keys/values read and validated and ready to simply be returned to the user.
-
-                if (cachedIndex + 1 < cachedLength
-                        && !(concurrentWriteHappened = cursor.shouldRetry())) { // FAST, key/value is readily available
-                    cachedIndex++;
-                    if (resultOnTrack && isValueDefined()) {
-                        return true;
-                    }
-                    if (isResultKey()) {
-                        resultOnTrack = true;
-                        return true;
-                    }
+            do {
+                if (nextInRange()) {
+                    return true;
+                }
+            } while (nextRange());
+            return false;
+        } catch (Throwable e) {
+            exceptionDecorator.accept(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves a multi-range seek on to its next range, if there is one. The {@link PageCursor} is left on the node
+     * where the previous range ended and the next batch read will search for the start of the new range in it.
+     *
+     * @return {@code true} if there was another range to seek, otherwise {@code false}.
+     */
+    private boolean nextRange() {
+        if (rangesFromInclusive == null || rangeIndex + 1 >= rangesFromInclusive.length) {
+            return false;
+        }
+        rangeIndex++;
+        layout.copyKey(rangesFromInclusive[rangeIndex], fromInclusive);
+        toExclusive = rangesToExclusive[rangeIndex];
+        exactMatch = layout.compare(fromInclusive, toExclusive) == 0;
+        first = true;
+        ended = false;
+        cachedIndex = 0;
+        cachedLength = 0;
+        resultOnTrack = false;
+        concurrentWriteHappened = true;
+        restartFromRootIfOutsideNode = true;
+        return true;
+    }
+
+    private boolean nextInRange() throws IOException {
+        while (!ended) {
+            pos += stride;
+
+            // There are two main tracks in this loop:
+            // - (SLOW) no keys/values have been read and will therefore need to be read from the cursor.
+            //   Reading from the cursor means there are a lot of things around the actual keys and values
+            //   that need to be check to validate the read. This is expensive to do since there's so much
+            //   to validate. This is why keys/values are read in batches of N entries. The validations
+            //   are made only once per batch instead of once per key/value.
+            // - (FAST) there are keys/values read and validated and ready to simply be returned to the user.
+
+            if (cachedIndex + 1 < cachedLength
+                    && !(concurrentWriteHappened = cursor.shouldRetry())) { // FAST, key/value is readily available
+                cachedIndex++;
+                if (resultOnTrack && isValueDefined()) {
+                    return true;
+                }
+                if (isResultKey()) {
+                    resultOnTrack = true;
+                    return true;
+                }
+                continue;
+            } else { // SLOW, next batch of keys/values needs to be read
+                if (resultOnTrack) {
+                    layout.copyKey(mutableKeys[cachedIndex], prevKey);
+                }
+                if (!readAndValidateNextKeyValueBatch()) {
+                    // Concurrent changes
+                    cachedLength = 0;
                     continue;
-                } else { // SLOW, next batch of keys/values needs to be read
-                    if (resultOnTrack) {
-                        layout.copyKey(mutableKeys[cachedIndex], prevKey);
-                    }
-                    if (!readAndValidateNextKeyValueBatch()) {
-                        // Concurrent changes
-                        cachedLength = 0;
-                        continue;
-                    }
+                }
 
-                    // Below, the cached key/value at slot [0] will be used
-                    if (!seekForward && pos >= keyCount) {
-                        goTo(prevSiblingId, prevSiblingGeneration, GBPPointerType.RIGHT_SIBLING, true);
-                        // Continue in the read loop above so that we can continue reading from previous sibling
-                        // or on next position
+                if (restartFromRootIfOutsideNode) {
+                    restartFromRootIfOutsideNode = false;
+                    if (pos >= keyCount) {
+                        // Next range of a multi-range seek starts after this node. Go from the root rather
+                        // than scanning through what is possibly a long line of siblings to get there
+                        prepareToStartFromRoot();
+                        traverseDownToCorrectLevel();
                         continue;
                     }
+                }
 
-                    if ((seekForward && pos >= keyCount) || (!seekForward && pos <= 0 && !insidePrevKey(cachedIndex))) {
-                        if (goToNextSibling()) {
-                            continue; // in the read loop above so that we can continue reading from next sibling
-                        }
-                    } else if (0 <= pos && pos < keyCount && insideEndRange(exactMatch, 0)) {
-                        if (isResultKey()) {
-                            resultOnTrack = true;
-                            return true; // which marks this read a hit that user can see
-                        }
-                        continue;
-                    }
+                // Below, the cached key/value at slot [0] will be used
+                if (!seekForward && pos >= keyCount) {
+                    goTo(prevSiblingId, prevSiblingGeneration, GBPPointerType.RIGHT_SIBLING, true);
+                    // Continue in the read loop above so that we can continue reading from previous sibling
+                    // or on next position
+                    continue;
                 }
 
-                // We've come too far and so this means the end of the result set
-                ended = true;
-                return false;
+                if ((seekForward && pos >= keyCount) || (!seekForward && pos <= 0 && !insidePrevKey(cachedIndex))) {
+                    if (goToNextSibling()) {
+                        continue; // in the read loop above so that we can continue reading from next sibling
+                    }
+                } else if (0 <= pos && pos < keyCount && insideEndRange(exactMatch, 0)) {
+                    if (isResultKey()) {
+                        resultOnTrack = true;
+                        return true; // which marks this read a hit that user can see
+                    }
+                    continue;
+                }
             }
-        } catch (Throwable e) {
-            exceptionDecorator.accept(e);
-            throw e;
+
+            // We've come too far and so this means the end of the result set
+            ended = true;
+            return false;
         }
         return false;
     }
@@ -1154,6 +1294,7 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
         prevSiblingId = 0;
         prevSiblingGeneration = 0;
         forceReadHeader = false;
+        restartFromRootIfOutsideNode = false;
     }
 
     /**
@@ -104,6 +104,40 @@ public interface Seeker<KEY, VALUE> extends Closeable {
          */
         Seeker<KEY, VALUE> seek(Seeker<KEY, VALUE> seeker, KEY fromInclusive, KEY toExclusive) throws IOException;
 
+        /**
+         * Seeks hits in this tree, given multiple key ranges, typically used for looking up a batch of keys.
+         * Range {@code i} is {@code fromInclusive[i]} to {@code toExclusive[i]}, where equal keys means an exact match.
+         * The ranges must all be forward ranges, be ordered and not overlap, i.e. each range must start after the end
+         * of the previous range. Hits from all ranges are iterated over in ascending key order using the returned {@link Seeker}.
+         * <p>
+         * This is cheaper than seeking each range separately since the tree is traversed in key order: whenever the next
+         * range starts in the leaf where the previous range ended it is read from there directly, without going through
+         * the internal nodes again.
+         *
+         * @param fromInclusive lower bounds of the ranges to seek (inclusive).
+         * @param toExclusive higher bounds of the ranges to seek (exclusive).
+         * @param cursorContext underlying page cursor context
+         * @return a {@link Seeker} used to iterate over the hits within the specified key ranges.
+         * @throws IOException on error reading from index.
+         */
+        default Seeker<KEY, VALUE> multiSeek(KEY[] fromInclusive, KEY[] toExclusive, CursorContext cursorContext)
+                throws IOException {
+            return multiSeek(allocateSeeker(cursorContext), fromInclusive, toExclusive);
+        }
+
+        /**
+         * Seeks multiple key ranges with an existing {@link Seeker} instance, for reduced overhead.
+         *
+         * @see #multiSeek(Object[], Object[], CursorContext)
+         * @param seeker {@link Seeker} instance to use to do this seek. This instance is also returned for convenience.
+         * @param fromInclusive lower bounds of the ranges to seek (inclusive).
+         * @param toExclusive higher bounds of the ranges to seek (exclusive).
+         * @return a {@link Seeker} used to iterate over the hits within the specified key ranges.
+         * @throws IOException on error reading from index.
+         */
+        Seeker<KEY, VALUE> multiSeek(Seeker<KEY, VALUE> seeker, KEY[] fromInclusive, KEY[] toExclusive)
+                throws IOException;
+
         /**
          * Partitions the provided key range into {@code numberOfPartitions} partitions and instantiates a {@link Seeker} for each.
          * Caller can seek through the partitions in parallel. Caller is responsible for closing the returned {@link Seeker seekers}.
@@ -211,6 +211,18 @@ class SingleRootLayer<KEY, VALUE> extends RootLayer<SingleRoot, KEY, VALUE> {
                     SeekCursor.NO_MONITOR);
         }
 
+        @Override
+        public Seeker<KEY, VALUE> multiSeek(Seeker<KEY, VALUE> seeker, KEY[] fromInclusive, KEY[] toExclusive)
+                throws IOException {
+            return support.initializeMultiSeeker(
+                    seeker,
+                    SingleRootLayer.this,
+                    fromInclusive,
+                    toExclusive,
+                    SeekCursor.DEFAULT_MAX_READ_AHEAD,
+                    SeekCursor.NO_MONITOR);
+        }
+
         @Override
         public List<KEY> partitionedSeek(
                 KEY fromInclusive, KEY toExclusive, int numberOfPartitions, CursorContext cursorContext)
@@ -243,6 +255,19 @@ class SingleRootLayer<KEY, VALUE> extends RootLayer<SingleRoot, KEY, VALUE> {
             }
         }
 
+        @Override
+        public BulkLoader<KEY, VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) throws IOException {
+            return support.internalBulkLoader(
+                    layout,
+                    leafNode,
+                    internalNode,
+                    fillFactor,
+                    cursorContext,
+                    SingleRootLayer.this,
+                    false,
+                    DATA_LAYER_FLAG);
+        }
+
         @Override
         public long estimateNumberOfEntriesInTree(CursorContext cursorContext) throws IOException {
             return support.estimateNumberOfEntriesInTree(
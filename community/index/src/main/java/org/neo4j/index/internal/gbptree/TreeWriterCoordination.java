@@ -37,8 +37,10 @@ public interface TreeWriterCoordination extends AutoCloseable {
 
     /**
      * Called before every top-level insert/merge operation.
+     * @return whether the path kept from the previous operation, i.e. where {@link #checkForceReset()} returned {@code false},
+     * is still valid. If {@code false} then traversal must start from the root.
      */
-    void beginOperation();
+    boolean beginOperation();
 
     /**
      * Called before traversing to a child node.
@@ -84,6 +86,13 @@ public interface TreeWriterCoordination extends AutoCloseable {
      */
     boolean beforeAccessingRightSiblingLeaf(long siblingNodeId);
 
+    /**
+     * Called before merging a leaf with its left sibling as part of compaction, i.e. without the leaf having underflowed.
+     * @param treeNodeId tree node id of the leaf which the left sibling will be merged into.
+     * @return {@code true} if operation is permitted, otherwise {@code false}.
+     */
+    boolean beforeMergingLeaves(long treeNodeId);
+
     /**
      * Called before a split of an internal node.
      * @param treeNodeId internal tree node id to split.
@@ -128,7 +137,9 @@ public interface TreeWriterCoordination extends AutoCloseable {
         }
 
         @Override
-        public void beginOperation() {}
+        public boolean beginOperation() {
+            return true;
+        }
 
         @Override
         public boolean beforeSplittingLeaf(int bubbleEntrySize) {
@@ -156,6 +167,11 @@ public interface TreeWriterCoordination extends AutoCloseable {
             return true;
         }
 
+        @Override
+        public boolean beforeMergingLeaves(long treeNodeId) {
+            return true;
+        }
+
         @Override
         public void beforeSplitInternal(long treeNodeId) {}
 
@@ -52,5 +52,12 @@ public enum PageCacheOpenOptions implements OpenOption {
     /**
      * Map with mvcc support. Each page has some bytes reserved for version data.
      */
-    MULTI_VERSIONED
+    MULTI_VERSIONED,
+
+    /**
+     * Map with a checksum of the page contents in the reserved bytes of each page. The checksum is written whenever
+     * a page is flushed and verified, possibly only for a sample of the faults, whenever a page is faulted in.
+     * Cannot be combined with {@link #MULTI_VERSIONED}.
+     */
+    CHECKSUMMED
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * An exception indicating that the checksum stored in a page of a {@link PageCacheOpenOptions#CHECKSUMMED} file
+ * does not match its content, i.e. that the page is corrupt.
+ * Only raised by page faults when the page cache is configured with {@link PageChecksumMismatchHandler#FAIL}.
+ */
+public class PageChecksumMismatchException extends IOException {
+
+    public PageChecksumMismatchException(Path file, long filePageId) {
+        super("Checksum mismatch in page " + filePageId + " of " + file);
+    }
+}
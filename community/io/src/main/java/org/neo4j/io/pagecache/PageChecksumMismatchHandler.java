@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Decides what happens when the checksum of a page faulted from a {@link PageCacheOpenOptions#CHECKSUMMED} file does
+ * not match its content. Mismatches are always reported to the page cache tracer, before the handler is called.
+ */
+@FunctionalInterface
+public interface PageChecksumMismatchHandler {
+    /**
+     * Only report mismatches to the page cache tracer.
+     */
+    PageChecksumMismatchHandler IGNORE = (file, filePageId) -> {};
+
+    /**
+     * Fail the page fault with a {@link PageChecksumMismatchException}.
+     */
+    PageChecksumMismatchHandler FAIL = (file, filePageId) -> {
+        throw new PageChecksumMismatchException(file, filePageId);
+    };
+
+    /**
+     * Called for every verified page whose checksum does not match.
+     *
+     * @param file the file the page was read from.
+     * @param filePageId the id of the page in the file.
+     * @throws IOException to fail the page fault that read the page.
+     */
+    void mismatch(Path file, long filePageId) throws IOException;
+}
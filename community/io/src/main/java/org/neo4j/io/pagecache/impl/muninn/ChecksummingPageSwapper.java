@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.pagecache.PageCacheOpenOptions;
+import org.neo4j.io.pagecache.PageChecksumMismatchHandler;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageFileSwapperTracer;
+import org.neo4j.memory.EmptyMemoryTracker;
+
+/**
+ * {@link PageSwapper} of files mapped with {@link PageCacheOpenOptions#CHECKSUMMED}. The first
+ * {@link #CHECKSUM_BYTES} of every page are reserved for a checksum of the rest of the page, which is written just
+ * before the page goes to the file and verified, for the configured fraction of reads, just after it has been read.
+ * <p>
+ * Single pages are written by eviction and by cursors flushing their page, which both hold the page exclusively.
+ * Vectored writes come from flushing the file, which only takes flush locks that don't keep writers out, so those
+ * pages are first copied and the checksum computed for, and written from, the copy. Otherwise a page could be written
+ * with a checksum of content that has changed since.
+ * <p>
+ * A stored checksum of {@code 0} means that the page has never been written by a checksumming swapper, e.g. pages
+ * beyond the end of the file, and is never verified. Mismatches are reported to the {@link PageCacheTracer} and then
+ * handed, with the file and page id, to the configured {@link PageChecksumMismatchHandler}, which decides whether the
+ * read fails. Failing is not the default, since a page can legitimately be torn by a crash, in which case recovery
+ * rewrites it. A handler which fails reads must therefore not do so for files which are being recovered.
+ */
+final class ChecksummingPageSwapper implements PageSwapper {
+    static final int CHECKSUM_BYTES = Long.BYTES;
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final PageSwapper delegate;
+    private final int filePageSize;
+    private final double verificationRatio;
+    private final PageChecksumMismatchHandler mismatchHandler;
+    private final PageCacheTracer pageCacheTracer;
+
+    ChecksummingPageSwapper(
+            PageSwapper delegate,
+            int filePageSize,
+            double verificationRatio,
+            PageChecksumMismatchHandler mismatchHandler,
+            PageCacheTracer pageCacheTracer) {
+        this.delegate = delegate;
+        this.filePageSize = filePageSize;
+        this.verificationRatio = verificationRatio;
+        this.mismatchHandler = mismatchHandler;
+        this.pageCacheTracer = pageCacheTracer;
+    }
+
+    @Override
+    public long read(long filePageId, long bufferAddress) throws IOException {
+        long bytesRead = delegate.read(filePageId, bufferAddress);
+        if (shouldVerify()) {
+            verify(filePageId, bufferAddress, filePageSize);
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public long read(long filePageId, long bufferAddress, int bufferLength) throws IOException {
+        long bytesRead = delegate.read(filePageId, bufferAddress, bufferLength);
+        if (shouldVerify()) {
+            verify(filePageId, bufferAddress, bufferLength);
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public long read(long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
+        long bytesRead = delegate.read(startFilePageId, bufferAddresses, bufferLengths, length);
+        if (shouldVerify()) {
+            long filePageId = startFilePageId;
+            for (int i = 0; i < length; i++) {
+                verify(filePageId, bufferAddresses[i], bufferLengths[i]);
+                filePageId += bufferLengths[i] / filePageSize;
+            }
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public long write(long filePageId, long bufferAddress) throws IOException {
+        writeChecksums(bufferAddress, filePageSize);
+        return delegate.write(filePageId, bufferAddress);
+    }
+
+    @Override
+    public long write(long filePageId, long bufferAddress, int bufferLength) throws IOException {
+        writeChecksums(bufferAddress, bufferLength);
+        return delegate.write(filePageId, bufferAddress, bufferLength);
+    }
+
+    @Override
+    public long write(
+            long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length, int totalAffectedPages)
+            throws IOException {
+        long copyLength = 0;
+        for (int i = 0; i < length; i++) {
+            copyLength += bufferLengths[i];
+        }
+        // Aligned to the page size, like the pages themselves, in case the file is written with direct I/O
+        long allocatedLength = copyLength + filePageSize;
+        long allocatedAddress = UnsafeUtil.allocateMemory(allocatedLength, EmptyMemoryTracker.INSTANCE);
+        try {
+            long copyAddress = (allocatedAddress + filePageSize - 1) / filePageSize * filePageSize;
+            long[] copyAddresses = new long[length];
+            for (int i = 0; i < length; i++) {
+                UnsafeUtil.copyMemory(bufferAddresses[i], copyAddress, bufferLengths[i]);
+                writeChecksums(copyAddress, bufferLengths[i]);
+                copyAddresses[i] = copyAddress;
+                copyAddress += bufferLengths[i];
+            }
+            return delegate.write(startFilePageId, copyAddresses, bufferLengths, length, totalAffectedPages);
+        } finally {
+            UnsafeUtil.free(allocatedAddress, allocatedLength, EmptyMemoryTracker.INSTANCE);
+        }
+    }
+
+    private boolean shouldVerify() {
+        return verificationRatio >= 1 || ThreadLocalRandom.current().nextDouble() < verificationRatio;
+    }
+
+    /**
+     * Writes the checksum of every whole page in the given buffer, which may hold several consecutive pages.
+     */
+    private void writeChecksums(long bufferAddress, int bufferLength) {
+        long startTime = System.nanoTime();
+        int pages = 0;
+        for (long page = bufferAddress; page + filePageSize <= bufferAddress + bufferLength; page += filePageSize) {
+            UnsafeUtil.putLong(page, checksum(page, filePageSize));
+            pages++;
+        }
+        pageCacheTracer.checksumsComputed(pages, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Verifies the checksum of every whole page in the given buffer, which holds consecutive pages starting at
+     * {@code filePageId}.
+     */
+    private void verify(long filePageId, long bufferAddress, int bufferLength) throws IOException {
+        long startTime = System.nanoTime();
+        int pages = 0;
+        int mismatches = 0;
+        try {
+            for (long page = bufferAddress;
+                    page + filePageSize <= bufferAddress + bufferLength;
+                    page += filePageSize, filePageId++) {
+                long storedChecksum = UnsafeUtil.getLong(page);
+                if (storedChecksum != 0) {
+                    pages++;
+                    if (storedChecksum != checksum(page, filePageSize)) {
+                        mismatches++;
+                        mismatchHandler.mismatch(delegate.path(), filePageId);
+                    }
+                }
+            }
+        } finally {
+            pageCacheTracer.checksumsVerified(pages, mismatches, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Checksum of the page at the given address, excluding the checksum itself. Never {@code 0}, since that is
+     * reserved for pages without a checksum.
+     */
+    static long checksum(long pageAddress, int pageSize) {
+        long hash = PRIME_1 ^ pageSize;
+        long address = pageAddress + CHECKSUM_BYTES;
+        long end = pageAddress + pageSize;
+        for (; address + Long.BYTES <= end; address += Long.BYTES) {
+            hash = Long.rotateLeft(hash ^ (UnsafeUtil.getLong(address) * PRIME_2), 31) * PRIME_1;
+        }
+        for (; address < end; address++) {
+            hash = Long.rotateLeft(hash ^ (UnsafeUtil.getByte(address) * PRIME_2), 11) * PRIME_1;
+        }
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        return hash == 0 ? 1 : hash;
+    }
+
+    @Override
+    public void evicted(long pageId) {
+        delegate.evicted(pageId);
+    }
+
+    @Override
+    public Path path() {
+        return delegate.path();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    public void closeAndDelete() throws IOException {
+        delegate.closeAndDelete();
+    }
+
+    @Override
+    public void force() throws IOException {
+        delegate.force();
+    }
+
+    @Override
+    public long getLastPageId() throws IOException {
+        return delegate.getLastPageId();
+    }
+
+    @Override
+    public void truncate() throws IOException {
+        delegate.truncate();
+    }
+
+    @Override
+    public void truncate(long size) throws IOException {
+        delegate.truncate(size);
+    }
+
+    @Override
+    public boolean canAllocate() {
+        return delegate.canAllocate();
+    }
+
+    @Override
+    public void allocate(long newFileSize) throws IOException {
+        delegate.allocate(newFileSize);
+    }
+
+    @Override
+    public int swapperId() {
+        return delegate.swapperId();
+    }
+
+    @Override
+    public PageFileSwapperTracer fileSwapperTracer() {
+        return delegate.fileSwapperTracer();
+    }
+
+    @Override
+    public boolean isPageFlushable(long pageRef) {
+        return delegate.isPageFlushable(pageRef);
+    }
+
+    @Override
+    public String toString() {
+        return "Checksumming[" + delegate + "]";
+    }
+}
@@ -53,6 +53,7 @@ import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheOpenOptions;
+import org.neo4j.io.pagecache.PageChecksumMismatchHandler;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.buffer.IOBufferFactory;
@@ -172,6 +173,8 @@ public class MuninnPageCache implements PageCache {
     private final boolean enableEvictionThread;
     private final MemoryAllocator memoryAllocator;
     private final boolean closeAllocatorOnShutdown;
+    private final double checksumVerificationRatio;
+    private final PageChecksumMismatchHandler checksumMismatchHandler;
     final PageList pages;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we don't have to throw
     // exceptions on bounds checking failures; we can instead return the victim page pointer, and permit the page
@@ -241,6 +244,8 @@ public class MuninnPageCache implements PageCache {
         private final boolean preallocateStoreFiles;
         private final int reservedPageSize;
         private final boolean closeAllocatorOnShutdown;
+        private final double checksumVerificationRatio;
+        private final PageChecksumMismatchHandler checksumMismatchHandler;
 
         private Configuration(
                 MemoryAllocator memoryAllocator,
@@ -253,7 +258,9 @@ public class MuninnPageCache implements PageCache {
                 boolean enableEvictionThread,
                 boolean preallocateStoreFiles,
                 int reservedPageSize,
-                boolean closeAllocatorOnShutdown) {
+                boolean closeAllocatorOnShutdown,
+                double checksumVerificationRatio,
+                PageChecksumMismatchHandler checksumMismatchHandler) {
             this.memoryAllocator = memoryAllocator;
             this.clock = clock;
             this.memoryTracker = memoryTracker;
@@ -265,6 +272,8 @@ public class MuninnPageCache implements PageCache {
             this.enableEvictionThread = enableEvictionThread;
             this.preallocateStoreFiles = preallocateStoreFiles;
             this.closeAllocatorOnShutdown = closeAllocatorOnShutdown;
+            this.checksumVerificationRatio = checksumVerificationRatio;
+            this.checksumMismatchHandler = checksumMismatchHandler;
         }
 
         /**
@@ -282,7 +291,9 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    checksumMismatchHandler);
         }
 
         /**
@@ -300,7 +311,9 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    checksumMismatchHandler);
         }
 
         /**
@@ -318,7 +331,9 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    checksumMismatchHandler);
         }
 
         /**
@@ -336,7 +351,9 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    checksumMismatchHandler);
         }
 
         /**
@@ -354,7 +371,9 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    checksumMismatchHandler);
         }
 
         /**
@@ -372,7 +391,9 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    checksumMismatchHandler);
         }
 
         /**
@@ -390,7 +411,9 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageBytes,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    checksumMismatchHandler);
         }
 
         /**
@@ -408,7 +431,9 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    checksumMismatchHandler);
         }
 
         /**
@@ -426,7 +451,9 @@ public class MuninnPageCache implements PageCache {
                     false,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    checksumMismatchHandler);
         }
 
         /**
@@ -444,7 +471,9 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    checksumMismatchHandler);
         }
 
         /**
@@ -463,7 +492,51 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    checksumMismatchHandler);
+        }
+
+        /**
+         * Fraction, between 0 and 1, of page faults into {@link PageCacheOpenOptions#CHECKSUMMED} files that should
+         * verify the checksum of the faulted page. Checksums are always written when such pages are flushed.
+         */
+        public Configuration checksumVerificationRatio(double checksumVerificationRatio) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    checksumMismatchHandler);
+        }
+
+        /**
+         * What to do when the checksum of a page faulted from a {@link PageCacheOpenOptions#CHECKSUMMED} file does not
+         * match its content.
+         */
+        public Configuration checksumMismatchHandler(PageChecksumMismatchHandler checksumMismatchHandler) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    closeAllocatorOnShutdown,
+                    checksumVerificationRatio,
+                    requireNonNull(checksumMismatchHandler));
         }
     }
 
@@ -491,7 +564,9 @@ public class MuninnPageCache implements PageCache {
                 true,
                 true,
                 RESERVED_BYTES,
-                false);
+                false,
+                1.0,
+                PageChecksumMismatchHandler.IGNORE);
     }
 
     /**
@@ -529,6 +604,12 @@ public class MuninnPageCache implements PageCache {
         this.preallocateStoreFiles = configuration.preallocateStoreFiles;
         this.memoryAllocator = configuration.memoryAllocator;
         this.closeAllocatorOnShutdown = configuration.closeAllocatorOnShutdown;
+        this.checksumVerificationRatio = configuration.checksumVerificationRatio;
+        this.checksumMismatchHandler = configuration.checksumMismatchHandler;
+        if (!(checksumVerificationRatio >= 0 && checksumVerificationRatio <= 1)) {
+            throw new IllegalArgumentException(
+                    "Checksum verification ratio must be between 0 and 1, but was " + checksumVerificationRatio);
+        }
         setFreelistHead(new AtomicInteger());
 
         // Expose the total number of pages
@@ -601,6 +682,7 @@ public class MuninnPageCache implements PageCache {
         boolean useDirectIO = false;
         boolean littleEndian = true;
         boolean multiVersioned = false;
+        boolean checksummed = false;
         for (OpenOption option : openOptions) {
             if (option.equals(StandardOpenOption.CREATE)) {
                 createIfNotExists = true;
@@ -616,10 +698,15 @@ public class MuninnPageCache implements PageCache {
                 littleEndian = false;
             } else if (option.equals(PageCacheOpenOptions.MULTI_VERSIONED)) {
                 multiVersioned = true;
+            } else if (option.equals(PageCacheOpenOptions.CHECKSUMMED)) {
+                checksummed = true;
             } else if (!ignoredOpenOptions.contains(option)) {
                 throw new UnsupportedOperationException("Unsupported OpenOption: " + option);
             }
         }
+        if (multiVersioned && checksummed) {
+            throw new IllegalArgumentException("Cannot map file " + path + " both multiVersioned and checksummed");
+        }
 
         var filePath = path.toString();
         // find an existing mapping
@@ -644,6 +731,12 @@ public class MuninnPageCache implements PageCache {
                         + "multiVersioned "
                         + current.multiVersioned);
             }
+            if (current.checksummed != checksummed) {
+                throw new IllegalArgumentException("Cannot map file " + path + " with " + "checksummed "
+                        + checksummed + ", " + "because it has already been mapped with a "
+                        + "checksummed "
+                        + current.checksummed);
+            }
             if (truncateExisting) {
                 throw new UnsupportedOperationException("Cannot truncate a file that is already mapped");
             }
@@ -673,9 +766,12 @@ public class MuninnPageCache implements PageCache {
                 ioController,
                 evictionBouncer,
                 multiVersioned,
-                multiVersioned ? pageReservedBytes : 0,
+                reservedBytes(multiVersioned, checksummed),
                 versionStorage,
-                littleEndian);
+                littleEndian,
+                checksummed,
+                checksumVerificationRatio,
+                checksumMismatchHandler);
         pagedFile.incrementRefCount();
         pagedFile.setDeleteOnClose(deleteOnClose);
         mappedFiles.put(filePath, pagedFile);
@@ -871,7 +967,16 @@ public class MuninnPageCache implements PageCache {
 
     @Override
     public int pageReservedBytes(ImmutableSet<OpenOption> openOptions) {
-        return openOptions.contains(PageCacheOpenOptions.MULTI_VERSIONED) ? pageReservedBytes : 0;
+        return reservedBytes(
+                openOptions.contains(PageCacheOpenOptions.MULTI_VERSIONED),
+                openOptions.contains(PageCacheOpenOptions.CHECKSUMMED));
+    }
+
+    private int reservedBytes(boolean multiVersioned, boolean checksummed) {
+        if (multiVersioned) {
+            return pageReservedBytes;
+        }
+        return checksummed ? ChecksummingPageSwapper.CHECKSUM_BYTES : 0;
     }
 
     @Override
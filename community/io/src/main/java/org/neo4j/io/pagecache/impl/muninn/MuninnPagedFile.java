@@ -32,6 +32,7 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.file.Path;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageChecksumMismatchHandler;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageEvictionCallback;
 import org.neo4j.io.pagecache.PageSwapper;
@@ -79,6 +80,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
     final VersionStorage versionStorage;
     final boolean multiVersioned;
     final boolean littleEndian;
+    final boolean checksummed;
     private final PageCacheTracer pageCacheTracer;
     private final IOBufferFactory bufferFactory;
     final LatchMap pageFaultLatches;
@@ -154,6 +156,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
      * @param multiVersioned if file is mutli versioned
      * @param versionStorage page file old versioned pages storage
      * @param littleEndian page file endianess
+     * @param checksummed if pages of the file carry a checksum in their reserved bytes
+     * @param checksumVerificationRatio fraction of page faults that verify the checksum of the faulted page
+     * @param checksumMismatchHandler what to do when a verified checksum does not match
      * @throws IOException If the {@link PageSwapper} could not be created.
      */
     MuninnPagedFile(
@@ -173,7 +178,10 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             boolean multiVersioned,
             int reservedBytes,
             VersionStorage versionStorage,
-            boolean littleEndian)
+            boolean littleEndian,
+            boolean checksummed,
+            double checksumVerificationRatio,
+            PageChecksumMismatchHandler checksumMismatchHandler)
             throws IOException {
         super(pageCache.pages);
         this.pageCache = pageCache;
@@ -182,6 +190,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         this.versionStorage = versionStorage;
         this.multiVersioned = multiVersioned;
         this.littleEndian = littleEndian;
+        this.checksummed = checksummed;
         this.cursorFactory = new CursorFactory(this);
         this.pageCacheTracer = pageCacheTracer;
         this.pageFaultLatches = new LatchMap(faultLockStriping);
@@ -207,7 +216,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         // filled with UNMAPPED_TTE values, and then finally assigns the new outer array to the translationTable field
         // and releases the resize lock.
         PageEvictionCallback onEviction = this::evictPage;
-        swapper = swapperFactory.createPageSwapper(
+        PageSwapper fileSwapper = swapperFactory.createPageSwapper(
                 path,
                 filePageSize,
                 onEviction,
@@ -216,6 +225,13 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                 ioController,
                 evictionBouncer,
                 getSwappers());
+        if (checksummed) {
+            // Registered in place of the created swapper so that pages flushed on eviction get their checksum too.
+            fileSwapper = new ChecksummingPageSwapper(
+                    fileSwapper, filePageSize, checksumVerificationRatio, checksumMismatchHandler, pageCacheTracer);
+            getSwappers().replace(fileSwapper.swapperId(), fileSwapper);
+        }
+        swapper = fileSwapper;
         if (truncateExisting) {
             swapper.truncate();
         }
@@ -99,6 +99,19 @@ public final class SwapperSet {
         return id;
     }
 
+    /**
+     * Replace the {@link PageSwapper} allocated to the given swapper id, typically with one that decorates it.
+     */
+    synchronized void replace(int id, PageSwapper swapper) {
+        requirePositive(id);
+        SwapperMapping[] swapperMappings = this.swapperMappings;
+        if (swapperMappings[id] == null) {
+            throw new IllegalStateException("PageSwapper allocation id " + id + " is currently not allocated.");
+        }
+        swapperMappings[id] = new SwapperMapping(id, swapper);
+        this.swapperMappings = swapperMappings;
+    }
+
     /**
      * Free the given swapper id.
      */
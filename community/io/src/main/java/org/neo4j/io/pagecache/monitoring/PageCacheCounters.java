@@ -180,4 +180,24 @@ public interface PageCacheCounters {
     long copiedPages();
 
     long snapshotsLoaded();
+
+    /**
+     * @return The number of page checksums computed when flushing pages of checksummed files.
+     */
+    long checksumsComputed();
+
+    /**
+     * @return The number of page checksums verified when faulting in pages of checksummed files.
+     */
+    long checksumsVerified();
+
+    /**
+     * @return The number of faulted pages that did not match their stored checksum.
+     */
+    long checksumMismatches();
+
+    /**
+     * @return The total time, in nanoseconds, spent computing and verifying page checksums.
+     */
+    long checksumNanos();
 }
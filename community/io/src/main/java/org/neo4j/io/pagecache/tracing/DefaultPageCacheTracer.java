@@ -63,6 +63,10 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
     protected final LongAdder closedCursors = new LongAdder();
     protected final LongAdder copiedPages = new LongAdder();
     protected final LongAdder snapshotsLoaded = new LongAdder();
+    protected final LongAdder checksumsComputed = new LongAdder();
+    protected final LongAdder checksumsVerified = new LongAdder();
+    protected final LongAdder checksumMismatches = new LongAdder();
+    protected final LongAdder checksumNanos = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
 
     private final boolean tracePageFileIndividually;
@@ -288,6 +292,26 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         return snapshotsLoaded.sum();
     }
 
+    @Override
+    public long checksumsComputed() {
+        return checksumsComputed.sum();
+    }
+
+    @Override
+    public long checksumsVerified() {
+        return checksumsVerified.sum();
+    }
+
+    @Override
+    public long checksumMismatches() {
+        return checksumMismatches.sum();
+    }
+
+    @Override
+    public long checksumNanos() {
+        return checksumNanos.sum();
+    }
+
     @Override
     public void iopq(long iopq) {
         iopqPerformed.add(iopq);
@@ -324,6 +348,19 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         this.closedCursors.add(closedCursors);
     }
 
+    @Override
+    public void checksumsComputed(long pages, long nanos) {
+        this.checksumsComputed.add(pages);
+        this.checksumNanos.add(nanos);
+    }
+
+    @Override
+    public void checksumsVerified(long pages, long mismatches, long nanos) {
+        this.checksumsVerified.add(pages);
+        this.checksumMismatches.add(mismatches);
+        this.checksumNanos.add(nanos);
+    }
+
     @Override
     public void pins(long pins) {
         this.pins.add(pins);
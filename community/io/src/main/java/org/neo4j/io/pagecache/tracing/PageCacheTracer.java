@@ -235,6 +235,26 @@ public interface PageCacheTracer extends PageCacheCounters {
             return 0;
         }
 
+        @Override
+        public long checksumsComputed() {
+            return 0;
+        }
+
+        @Override
+        public long checksumsVerified() {
+            return 0;
+        }
+
+        @Override
+        public long checksumMismatches() {
+            return 0;
+        }
+
+        @Override
+        public long checksumNanos() {
+            return 0;
+        }
+
         @Override
         public void pins(long pins) {}
 
@@ -313,6 +333,12 @@ public interface PageCacheTracer extends PageCacheCounters {
         @Override
         public void closedCursors(long closedCursors) {}
 
+        @Override
+        public void checksumsComputed(long pages, long nanos) {}
+
+        @Override
+        public void checksumsVerified(long pages, long mismatches, long nanos) {}
+
         @Override
         public String toString() {
             return PageCacheTracer.class.getName() + ".NULL";
@@ -522,4 +548,14 @@ public interface PageCacheTracer extends PageCacheCounters {
      * report number of closed page cache cursors.
      */
     void closedCursors(long closedCursors);
+
+    /**
+     * report number of page checksums computed on flush and the time it took
+     */
+    void checksumsComputed(long pages, long nanos);
+
+    /**
+     * report number of page checksums verified on page fault, how many of them that did not match and the time it took
+     */
+    void checksumsVerified(long pages, long mismatches, long nanos);
 }
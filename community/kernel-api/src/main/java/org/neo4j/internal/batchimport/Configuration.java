@@ -151,6 +151,14 @@ public interface Configuration {
         return true;
     }
 
+    /**
+     * @return whether to resume a previous attempt of this import from the last stage it completed, if it was
+     * interrupted after completing one or more stages. The input must be the same as for the previous attempt.
+     */
+    default boolean resumeFromCheckpoint() {
+        return false;
+    }
+
     Configuration DEFAULT = new Configuration() {};
 
     /**
@@ -231,6 +239,11 @@ public interface Configuration {
         public boolean defragmentInternalStores() {
             return defaults.defragmentInternalStores();
         }
+
+        @Override
+        public boolean resumeFromCheckpoint() {
+            return defaults.resumeFromCheckpoint();
+        }
     }
 
     static Configuration withBatchSize(Configuration config, int batchSize) {
@@ -23,10 +23,37 @@ import java.io.Closeable;
 import java.io.IOException;
 import org.neo4j.internal.batchimport.input.Input;
 
+/**
+ * Imports data into an existing database in three stages, so that the database only needs to be unavailable
+ * for the short {@link #prepare(Input) prepare} and {@link #merge() merge} stages and not while the bulk of
+ * the data is imported in {@link #build(Input) build}. Each stage can be run in its own process, as long as they
+ * run in order and against the same database.
+ */
 public interface IncrementalBatchImporter extends Closeable {
+    /**
+     * Reads what's needed from the target database, e.g. schema and high ids, to be able to build the new data
+     * separately from it. Requires the target database to be offline.
+     *
+     * @param input the data to import.
+     * @throws IOException on I/O error.
+     */
     void prepare(Input input) throws IOException;
 
+    /**
+     * Imports the data into stores of its own, separate from the stores of the target database, using the
+     * parallel batch importer. Doesn't write to the target database, which may be online in the meantime,
+     * as long as it's read-only.
+     *
+     * @param input the data to import, same as given to {@link #prepare(Input)}.
+     * @throws IOException on I/O error.
+     */
     void build(Input input) throws IOException;
 
+    /**
+     * Merges the data which was built in {@link #build(Input)} into the target database, i.e. the new id ranges
+     * of the stores and the updates to the indexes. Requires the target database to be offline.
+     *
+     * @throws IOException on I/O error.
+     */
     void merge() throws IOException;
 }
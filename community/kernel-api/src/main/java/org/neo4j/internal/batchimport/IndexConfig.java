@@ -21,6 +21,8 @@ package org.neo4j.internal.batchimport;
 
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.neo4j.common.EntityType;
 
 public class IndexConfig {
@@ -29,6 +31,7 @@ public class IndexConfig {
     private boolean createRelationTypeIndex;
     private String labelIndexName = EMPTY;
     private String relationshipIndexName = EMPTY;
+    private final List<PropertyIndex> rangeIndexes = new ArrayList<>();
 
     public IndexConfig withLabelIndex() {
         this.createLabelIndex = true;
@@ -52,6 +55,29 @@ public class IndexConfig {
         return this;
     }
 
+    /**
+     * Creates a range index which is populated from the imported entities as they are written, instead of by scanning
+     * the stores after the import. Only meant for imports into a new database.
+     *
+     * @param entityType whether the index is on nodes or relationships.
+     * @param token the label or relationship type of the indexed entities.
+     * @param propertyKeys the indexed property keys.
+     */
+    public IndexConfig withRangeIndex(EntityType entityType, String token, String... propertyKeys) {
+        return withRangeIndex(EMPTY, entityType, token, propertyKeys);
+    }
+
+    /**
+     * Like {@link #withRangeIndex(EntityType, String, String...)}, but with a given index name.
+     */
+    public IndexConfig withRangeIndex(String name, EntityType entityType, String token, String... propertyKeys) {
+        if (propertyKeys.length == 0) {
+            throw new IllegalArgumentException("A range index needs at least one property key");
+        }
+        this.rangeIndexes.add(new PropertyIndex(name, entityType, token, List.of(propertyKeys)));
+        return this;
+    }
+
     public boolean createLabelIndex() {
         return createLabelIndex;
     }
@@ -60,6 +86,12 @@ public class IndexConfig {
         return createRelationTypeIndex;
     }
 
+    public List<PropertyIndex> rangeIndexes(EntityType entityType) {
+        return rangeIndexes.stream()
+                .filter(index -> index.entityType() == entityType)
+                .toList();
+    }
+
     public String indexName(EntityType entityType) {
         return entityType == EntityType.NODE ? labelIndexName : relationshipIndexName;
     }
@@ -67,4 +99,10 @@ public class IndexConfig {
     public static IndexConfig create() {
         return new IndexConfig();
     }
+
+    /**
+     * A property index on a single label or relationship type, given by name since its tokens may not exist
+     * before the import. An empty name means that the name is generated from the schema.
+     */
+    public record PropertyIndex(String name, EntityType entityType, String token, List<String> propertyKeys) {}
 }
@@ -21,6 +21,7 @@ package org.neo4j.internal.batchimport;
 
 import java.io.Closeable;
 import java.io.IOException;
+import org.neo4j.values.storable.Value;
 
 /**
  * Used by the {@link BatchImporter} to write index entries as it imports node & relationship entities.
@@ -35,6 +36,14 @@ public interface IndexImporter extends Closeable {
      */
     Writer writer(boolean parallel);
 
+    /**
+     * Closes this importer without completing the index, e.g. because the import failed. An index that isn't
+     * completed is populated from the stores when the database starts.
+     */
+    default void abort() throws IOException {
+        close();
+    }
+
     class EmptyIndexImporter implements IndexImporter, Writer {
         @Override
         public void add(long entity, int[] tokens) {}
@@ -70,6 +79,25 @@ public interface IndexImporter extends Closeable {
          */
         void remove(long entity, int[] tokens);
 
+        /**
+         * Called by the batch importer for entity that is imported, for indexes on property values.
+         * Entries can be added in any order.
+         * @param entity the id of the entity (node id/relationship id)
+         * @param values the values of the indexed properties of the entity, in the order of the index schema
+         */
+        default void add(long entity, Value[] values) {
+            throw new UnsupportedOperationException("Not an index on property values");
+        }
+
+        /**
+         * Called by the batch importer for entity that is removed, for indexes on property values.
+         * @param entity the id of the entity (node id/relationship id)
+         * @param values the values of the indexed properties of the entity, in the order of the index schema
+         */
+        default void remove(long entity, Value[] values) {
+            throw new UnsupportedOperationException("Not an index on property values");
+        }
+
         void yield();
     }
 }
@@ -58,4 +58,19 @@ public interface Monitor {
     void abundantHeapSize(long optimalMinimalHeapSize, long heapSize);
 
     void insufficientAvailableMemory(long estimatedCacheSize, long optimalMinimalHeapSize, long availableMemory);
+
+    /**
+     * Called when an import resumes a previous attempt which was interrupted.
+     *
+     * @param completedStage name of the last stage completed by the previous attempt.
+     */
+    default void resumingImport(String completedStage) {}
+
+    /**
+     * Called when the id mapper is estimated to not fit in the available memory and will be sorted on disk instead.
+     *
+     * @param estimatedIdMapperMemory estimated memory needed by the id mapper.
+     * @param availableMemory memory available to the id mapper.
+     */
+    default void idMapperSortedOnDisk(long estimatedIdMapperMemory, long availableMemory) {}
 }
@@ -24,20 +24,13 @@ import static java.lang.String.format;
 import org.neo4j.token.TokenHolders;
 
 public interface ReadBehaviour {
-    ReadBehaviour INCLUSIVE_STRICT = new ReadBehaviour.Adapter() {
-        @Override
-        public void error(String format, Object... parameters) {
-            throw new RuntimeException(format(format, parameters));
-        }
+    ReadBehaviour INCLUSIVE_STRICT = new Strict(false);
 
-        @Override
-        public void error(Throwable e, String format, Object... parameters) {
-            if (e instanceof RuntimeException) {
-                throw (RuntimeException) e;
-            }
-            throw new RuntimeException(format(format, parameters), e);
-        }
-    };
+    /**
+     * Like {@link #INCLUSIVE_STRICT}, but reads relationships by walking the relationship chain of each node in node id
+     * order, see {@link #relationshipsInNodeOrder()}.
+     */
+    ReadBehaviour INCLUSIVE_STRICT_NODE_ORDER = new Strict(true);
 
     boolean shouldIncludeNode(String[] labels);
 
@@ -61,6 +54,14 @@ public interface ReadBehaviour {
 
     TokenHolders decorateTokenHolders(TokenHolders actual);
 
+    /**
+     * @return {@code true} if relationships should be read by walking the relationship chains of the nodes in node id
+     * order, where each relationship is read from the chain of its start node. This makes the relationships of each
+     * node come out next to each other, at the cost of relying on intact relationship chains.
+     * {@code false} if relationships should be read in relationship id order.
+     */
+    boolean relationshipsInNodeOrder();
+
     class Adapter implements ReadBehaviour {
         @Override
         public boolean shouldIncludeNode(String[] labels) {
@@ -103,5 +104,36 @@ public interface ReadBehaviour {
         public TokenHolders decorateTokenHolders(TokenHolders actual) {
             return actual;
         }
+
+        @Override
+        public boolean relationshipsInNodeOrder() {
+            return false;
+        }
+    }
+
+    class Strict extends Adapter {
+        private final boolean relationshipsInNodeOrder;
+
+        private Strict(boolean relationshipsInNodeOrder) {
+            this.relationshipsInNodeOrder = relationshipsInNodeOrder;
+        }
+
+        @Override
+        public void error(String format, Object... parameters) {
+            throw new RuntimeException(format(format, parameters));
+        }
+
+        @Override
+        public void error(Throwable e, String format, Object... parameters) {
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new RuntimeException(format(format, parameters), e);
+        }
+
+        @Override
+        public boolean relationshipsInNodeOrder() {
+            return relationshipsInNodeOrder;
+        }
     }
 }
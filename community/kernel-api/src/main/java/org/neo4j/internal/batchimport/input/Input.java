@@ -91,6 +91,16 @@ public interface Input extends AutoCloseable {
      */
     Estimates calculateEstimates(PropertySizeCalculator valueSizeCalculator) throws IOException;
 
+    /**
+     * @return a fingerprint of the data of this input, f.ex. of the names, sizes and modification times of the files
+     * it reads, which changes if the data changes. Used to verify that an import which is resumed has the same input
+     * as the attempt it resumes. {@code 0} if the data can't be fingerprinted.
+     * @throws IOException on I/O error.
+     */
+    default long fingerprint() throws IOException {
+        return 0;
+    }
+
     /**
      * @return a {@link Map} where key is group name and value which {@link SchemaDescriptor index} it refers to.
      * @param tokenHolders available tokens.
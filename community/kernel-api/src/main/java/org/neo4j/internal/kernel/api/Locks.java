@@ -27,6 +27,14 @@ import org.neo4j.common.EntityType;
 public interface Locks {
     void acquireExclusiveNodeLock(long... ids);
 
+    /**
+     * Acquires an exclusive lock on a node, but only if that can be done without waiting for other transactions.
+     *
+     * @param id the internal id of the node to lock
+     * @return {@code true} if the lock was acquired, or {@code false} if another transaction holds a lock on the node
+     */
+    boolean tryExclusiveNodeLock(long id);
+
     void acquireExclusiveRelationshipLock(long... ids);
 
     void releaseExclusiveNodeLock(long... ids);
@@ -20,6 +20,7 @@
 package org.neo4j.internal.kernel.api;
 
 import org.neo4j.storageengine.api.Degrees;
+import org.neo4j.storageengine.api.NodeBatch;
 import org.neo4j.storageengine.api.PropertySelection;
 import org.neo4j.storageengine.api.RelationshipSelection;
 
@@ -56,6 +57,30 @@ public interface NodeCursor extends EntityCursor {
 
     long relationshipsReference();
 
+    /**
+     * Reads nodes into the given {@code batch} until it is full or this cursor has no more nodes, i.e. the equivalent
+     * of calling {@link #next()} repeatedly and adding the data of each node to the batch. Nodes are added after the
+     * ones already in the batch. After this call this cursor is placed at the last node added to the batch.
+     * This is meant for scans, where it allows implementations to skip much of the per-node overhead of {@link #next()}.
+     *
+     * @param batch {@link NodeBatch} to add nodes to.
+     * @return number of nodes added to the batch, {@code 0} means that there were no more nodes.
+     */
+    default int nextBatch(NodeBatch batch) {
+        int sizeBefore = batch.size();
+        int[] labels = batch.labels();
+        while (!batch.isFull() && next()) {
+            long labelBits = 0;
+            for (int i = 0; i < labels.length; i++) {
+                if (hasLabel(labels[i])) {
+                    labelBits |= 1L << i;
+                }
+            }
+            batch.add(nodeReference(), labelBits, relationshipsReference(), propertiesReference());
+        }
+        return batch.size() - sizeBefore;
+    }
+
     /**
      * @return whether or not this node cursor can decide degree for various relationship selections cheaper than doing a full scan of all relationships.
      */
@@ -25,6 +25,7 @@ import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelExcept
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexOrder;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.storageengine.api.NodeBatch;
 import org.neo4j.storageengine.api.PropertySelection;
 import org.neo4j.storageengine.api.Reference;
 import org.neo4j.storageengine.api.RelationshipSelection;
@@ -71,6 +72,24 @@ public interface Read {
             PropertyIndexQuery... query)
             throws KernelException;
 
+    /**
+     * Seek all nodes matching any of the provided exact lookups in an index, e.g. the values of an IN-list.
+     * All lookups are served by a single query to the index, which lets it visit them in key order in one pass
+     * instead of searching for each one of them on its own.
+     * @param index {@link IndexReadSession} referencing index to query. This must be an index of nodes.
+     * @param cursor the cursor to use for consuming the results, which is the union of the results of the individual lookups.
+     * @param constraints The requested constraints on the query result, such as whether the index should fetch property values
+     * together with node ids. The results come in no particular order, so an {@link IndexOrder} must not be requested.
+     * @param queries the lookups to run against referenced index, each one an exact predicate for every property of the index.
+     */
+    void nodeIndexSeekBatch(
+            QueryContext queryContext,
+            IndexReadSession index,
+            NodeValueIndexCursor cursor,
+            IndexQueryConstraints constraints,
+            PropertyIndexQuery.ExactPredicate[]... queries)
+            throws KernelException;
+
     /**
      * Seek all nodes matching the provided index query in an index. NOTE! This is not thread-safe for transaction state.
      * @param index {@link IndexReadSession} referencing index to query. This must be an index of nodes.
@@ -278,6 +297,25 @@ public interface Read {
      */
     void singleNode(long reference, NodeCursor cursor);
 
+    /**
+     * Reads the nodes of a label scan into a batch, i.e. the equivalent of calling {@link #singleNode(long, NodeCursor)}
+     * for every node the {@code labelCursor} returns and adding the data of each node to the batch
+     * using {@link NodeCursor#nextBatch(NodeBatch)}. Reading stops when the batch is full or the label cursor is exhausted.
+     *
+     * @param labelCursor an initialized label scan, see {@link #nodeLabelScan(TokenReadSession, NodeLabelIndexCursor, IndexQueryConstraints, TokenPredicate, CursorContext)}.
+     * @param nodeCursor the cursor to use for reading the nodes.
+     * @param batch {@link NodeBatch} to add nodes to.
+     * @return number of nodes added to the batch, {@code 0} means that there were no more nodes.
+     */
+    default int nodeLabelScanBatch(NodeLabelIndexCursor labelCursor, NodeCursor nodeCursor, NodeBatch batch) {
+        int sizeBefore = batch.size();
+        while (!batch.isFull() && labelCursor.next()) {
+            singleNode(labelCursor.nodeReference(), nodeCursor);
+            nodeCursor.nextBatch(batch);
+        }
+        return batch.size() - sizeBefore;
+    }
+
     /**
      * Checks if a node exists in the database
      *
@@ -66,6 +66,17 @@ public interface Write {
      */
     int nodeDetachDelete(long node) throws KernelException;
 
+    /**
+     * Converts a node into the representation the storage uses for nodes with many relationships, without any
+     * logical change to the node or its relationships. The node is locked exclusively, just like when relationships
+     * are added to it.
+     *
+     * @param node the internal id of the node to convert
+     * @return {@code true} if the node will be converted when the transaction commits, or {@code false} if no node
+     * was found for this id or it already has that representation
+     */
+    boolean nodeConvertToDense(long node);
+
     /**
      * Create a relationship between two nodes.
      *
@@ -40,6 +40,7 @@ public class BridgingIndexProgressor implements IndexProgressor.EntityValueClien
     // of progressors and each progressor has many results each
     private final Queue<IndexProgressor> progressors = new ConcurrentLinkedQueue<>();
     private final AtomicBoolean needStoreFilter = new AtomicBoolean();
+    private volatile IndexDescriptor descriptor;
     private IndexProgressor current;
 
     public BridgingIndexProgressor(EntityValueClient client, int[] keys) {
@@ -82,6 +83,7 @@ public class BridgingIndexProgressor implements IndexProgressor.EntityValueClien
             IndexQueryConstraints constraints,
             PropertyIndexQuery... queries) {
         assertKeysAlign(descriptor.schema().getPropertyIds());
+        this.descriptor = descriptor;
         progressors.add(progressor);
         if (needStoreFilter) {
             this.needStoreFilter.set(true);
@@ -102,4 +104,12 @@ public class BridgingIndexProgressor implements IndexProgressor.EntityValueClien
     public boolean needStoreFilter() {
         return needStoreFilter.get();
     }
+
+    /**
+     * @return the descriptor of the index that the bridged progressors were initialized for,
+     * or {@code null} if no progressor has been added yet.
+     */
+    public IndexDescriptor descriptor() {
+        return descriptor;
+    }
 }
@@ -27,14 +27,17 @@ import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.LongPredicate;
 import org.eclipse.collections.api.block.function.primitive.LongToLongFunction;
 import org.neo4j.annotations.documented.ReporterFactory;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.CompactionStatistics;
 import org.neo4j.internal.helpers.collection.BoundedIterable;
 import org.neo4j.internal.helpers.progress.ProgressListener;
 import org.neo4j.internal.helpers.progress.ProgressMonitorFactory;
 import org.neo4j.io.IOUtils;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
@@ -202,6 +205,19 @@ public interface IndexAccessor extends Closeable, ConsistencyCheckable, MinimalI
         return 0L;
     }
 
+    /**
+     * Compacts this index online, packing sparse parts of it together so that fewer pages need to be visited by scans
+     * and so that emptied pages can be reused. Readers and writers can access the index concurrently.
+     *
+     * @param ioController controller limiting the IO done by the compaction.
+     * @param cursorContext underlying page cursor context
+     * @return statistics about the index before and after compaction, or empty if this index doesn't support compaction.
+     * @throws UncheckedIOException on error compacting the index.
+     */
+    default Optional<CompactionStatistics> compact(IOController ioController, CursorContext cursorContext) {
+        return Optional.empty();
+    }
+
     /**
      * Inserts contents from another index. Any violations will be reported via the {@code conflictHandler}.
      *
@@ -413,6 +429,11 @@ public interface IndexAccessor extends Closeable, ConsistencyCheckable, MinimalI
             return delegate.estimateNumberOfEntries(cursorContext);
         }
 
+        @Override
+        public Optional<CompactionStatistics> compact(IOController ioController, CursorContext cursorContext) {
+            return delegate.compact(ioController, cursorContext);
+        }
+
         @Override
         public void insertFrom(
                 IndexAccessor other,
@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.api.index;
 
+import java.util.HashSet;
+import java.util.Set;
 import org.neo4j.internal.kernel.api.IndexQueryConstraints;
 import org.neo4j.internal.kernel.api.PropertyIndexQuery;
 import org.neo4j.internal.kernel.api.QueryContext;
@@ -26,6 +28,7 @@ import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelE
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.index.schema.PartitionedValueSeek;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueTuple;
 
 public interface ValueIndexReader extends IndexReader {
     /**
@@ -53,6 +56,52 @@ public interface ValueIndexReader extends IndexReader {
             PropertyIndexQuery... query)
             throws IndexNotApplicableKernelException;
 
+    /**
+     * Queries the index for a batch of exact lookups in one call, e.g. when seeking a list of parameter values.
+     * The result is the union of the results of the individual queries. Readers that can serve the whole batch
+     * in a single pass over the index should override this, by default the queries are run one after the other.
+     * The client is initialized once, with the first query, which share property keys with all the other queries.
+     * Queries for the same values are only run once, so that no entity is returned more than once.
+     * @param client the client which will control the progression though query results.
+     * @param constraints constraints upon the query result, like whether the index should fetch property values alongside the entity ids.
+     * Ordering is only guaranteed within the results of each query.
+     * @param queries the queries to serve, each one a full set of exact predicates for this index.
+     */
+    default void batchQuery(
+            IndexProgressor.EntityValueClient client,
+            QueryContext context,
+            IndexQueryConstraints constraints,
+            PropertyIndexQuery.ExactPredicate[]... queries)
+            throws IndexNotApplicableKernelException {
+        if (queries.length == 0) {
+            return;
+        }
+        int[] propertyKeyIds = new int[queries[0].length];
+        for (int i = 0; i < propertyKeyIds.length; i++) {
+            propertyKeyIds[i] = queries[0][i].propertyKeyId();
+        }
+        BridgingIndexProgressor multiProgressor = new BridgingIndexProgressor(client, propertyKeyIds);
+        Set<ValueTuple> queriedValues = new HashSet<>();
+        for (PropertyIndexQuery.ExactPredicate[] query : queries) {
+            Value[] values = new Value[query.length];
+            for (int i = 0; i < query.length; i++) {
+                values[i] = query[i].value();
+            }
+            if (queriedValues.add(ValueTuple.of(values))) {
+                query(multiProgressor, context, constraints, query);
+            }
+        }
+        if (multiProgressor.descriptor() != null) {
+            client.initialize(
+                    multiProgressor.descriptor(),
+                    multiProgressor,
+                    false,
+                    multiProgressor.needStoreFilter(),
+                    constraints,
+                    queries[0]);
+        }
+    }
+
     /**
      * Create a partitioning over the result set for the given query. The partitions can be processed in parallel.
      * @param desiredNumberOfPartitions the number of desired partitions.
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api;
+
+import static org.neo4j.util.Preconditions.checkState;
+import static org.neo4j.util.Preconditions.requirePositive;
+
+/**
+ * A batch of entities read in one call, as opposed to one entity per call to {@link StorageCursor#next()}.
+ * Entity data is kept in arrays indexed by the position of the entity in the batch, in the order the entities were read.
+ * Instances are meant to be reused: {@link #clear() cleared} and filled again for every batch.
+ */
+public abstract class EntityBatch {
+    private final long[] ids;
+    private final Reference[] propertiesReferences;
+    private int size;
+
+    EntityBatch(int capacity) {
+        requirePositive(capacity);
+        this.ids = new long[capacity];
+        this.propertiesReferences = new Reference[capacity];
+    }
+
+    /**
+     * @return max number of entities this batch can hold.
+     */
+    public int capacity() {
+        return ids.length;
+    }
+
+    /**
+     * @return number of entities in this batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == ids.length;
+    }
+
+    /**
+     * Empties this batch so that it can be filled again.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return the ids of the entities in this batch. Only the first {@link #size()} ids are valid.
+     */
+    public long[] ids() {
+        return ids;
+    }
+
+    /**
+     * @param index position in this batch.
+     * @return id of the entity at the given position.
+     */
+    public long id(int index) {
+        return ids[index];
+    }
+
+    /**
+     * @param index position in this batch.
+     * @return reference for reading the properties of the entity at the given position.
+     */
+    public Reference propertiesReference(int index) {
+        return propertiesReferences[index];
+    }
+
+    int addEntity(long id, Reference propertiesReference) {
+        checkState(size < ids.length, "Batch is full");
+        int index = size++;
+        ids[index] = id;
+        propertiesReferences[index] = propertiesReference;
+        return index;
+    }
+}
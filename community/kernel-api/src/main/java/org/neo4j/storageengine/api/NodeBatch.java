@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api;
+
+import static org.neo4j.util.Preconditions.checkArgument;
+
+/**
+ * A batch of nodes, see {@link StorageNodeCursor#nextBatch(NodeBatch)}.
+ * <p>
+ * Besides id and references the batch holds a label bit set per node, telling which of the labels given to the
+ * batch when created the node has. Label bit {@code i} is set if the node has label {@code labels()[i]}.
+ */
+public class NodeBatch extends EntityBatch {
+    private final int[] labels;
+    private final long[] labelBits;
+    private final long[] relationshipsReferences;
+
+    /**
+     * @param capacity max number of nodes in the batch.
+     * @param labels labels to fill label bits for, at most {@value Long#SIZE}.
+     */
+    public NodeBatch(int capacity, int... labels) {
+        super(capacity);
+        checkArgument(labels.length <= Long.SIZE, "At most %d labels can be given, got %d", Long.SIZE, labels.length);
+        this.labels = labels.clone();
+        this.labelBits = new long[capacity];
+        this.relationshipsReferences = new long[capacity];
+    }
+
+    /**
+     * @return the labels which label bits are filled for.
+     */
+    public int[] labels() {
+        return labels;
+    }
+
+    /**
+     * @return the label bit sets of the nodes in this batch. Only the first {@link #size()} entries are valid.
+     */
+    public long[] labelBits() {
+        return labelBits;
+    }
+
+    /**
+     * @param index position in this batch.
+     * @param labelIndex index into {@link #labels()}.
+     * @return whether the node at the given position has label {@code labels()[labelIndex]}.
+     */
+    public boolean hasLabel(int index, int labelIndex) {
+        return (labelBits[index] & (1L << labelIndex)) != 0;
+    }
+
+    /**
+     * @return the relationships references of the nodes in this batch. Only the first {@link #size()} entries are valid.
+     */
+    public long[] relationshipsReferences() {
+        return relationshipsReferences;
+    }
+
+    /**
+     * @param index position in this batch.
+     * @return reference for reading the relationships of the node at the given position.
+     */
+    public long relationshipsReference(int index) {
+        return relationshipsReferences[index];
+    }
+
+    /**
+     * Adds a node to this batch.
+     *
+     * @param id node id.
+     * @param labelBits label bit set of the node, see {@link #labelBits(int[])}.
+     * @param relationshipsReference reference for reading the relationships of the node.
+     * @param propertiesReference reference for reading the properties of the node.
+     */
+    public void add(long id, long labelBits, long relationshipsReference, Reference propertiesReference) {
+        int index = addEntity(id, propertiesReference);
+        this.labelBits[index] = labelBits;
+        this.relationshipsReferences[index] = relationshipsReference;
+    }
+
+    /**
+     * @param nodeLabels all labels of a node.
+     * @return label bit set of a node with the given labels.
+     */
+    public long labelBits(int[] nodeLabels) {
+        long bits = 0;
+        for (int nodeLabel : nodeLabels) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == nodeLabel) {
+                    bits |= 1L << i;
+                }
+            }
+        }
+        return bits;
+    }
+}
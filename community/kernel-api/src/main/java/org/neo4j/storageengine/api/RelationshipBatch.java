@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api;
+
+/**
+ * A batch of relationships, see {@link StorageRelationshipScanCursor#nextBatch(RelationshipBatch)}.
+ */
+public class RelationshipBatch extends EntityBatch {
+    private final int[] types;
+    private final long[] sourceNodeReferences;
+    private final long[] targetNodeReferences;
+
+    /**
+     * @param capacity max number of relationships in the batch.
+     */
+    public RelationshipBatch(int capacity) {
+        super(capacity);
+        this.types = new int[capacity];
+        this.sourceNodeReferences = new long[capacity];
+        this.targetNodeReferences = new long[capacity];
+    }
+
+    /**
+     * @return the types of the relationships in this batch. Only the first {@link #size()} entries are valid.
+     */
+    public int[] types() {
+        return types;
+    }
+
+    public int type(int index) {
+        return types[index];
+    }
+
+    /**
+     * @return the source nodes of the relationships in this batch. Only the first {@link #size()} entries are valid.
+     */
+    public long[] sourceNodeReferences() {
+        return sourceNodeReferences;
+    }
+
+    public long sourceNodeReference(int index) {
+        return sourceNodeReferences[index];
+    }
+
+    /**
+     * @return the target nodes of the relationships in this batch. Only the first {@link #size()} entries are valid.
+     */
+    public long[] targetNodeReferences() {
+        return targetNodeReferences;
+    }
+
+    public long targetNodeReference(int index) {
+        return targetNodeReferences[index];
+    }
+
+    /**
+     * Adds a relationship to this batch.
+     *
+     * @param id relationship id.
+     * @param type relationship type.
+     * @param sourceNodeReference source node of the relationship.
+     * @param targetNodeReference target node of the relationship.
+     * @param propertiesReference reference for reading the properties of the relationship.
+     */
+    public void add(
+            long id, int type, long sourceNodeReference, long targetNodeReference, Reference propertiesReference) {
+        int index = addEntity(id, propertiesReference);
+        this.types[index] = type;
+        this.sourceNodeReferences[index] = sourceNodeReference;
+        this.targetNodeReferences[index] = targetNodeReference;
+    }
+}
@@ -28,6 +28,7 @@ import java.time.Clock;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
@@ -444,6 +445,33 @@ public interface StorageEngineFactory {
             LogTailMetadata logTailMetadata)
             throws ConsistencyCheckIncompleteException;
 
+    /**
+     * Samples how many distinct store pages are touched when reading a node together with its properties and
+     * relationships. A lower number means better locality of the records belonging to each node.
+     *
+     * @param fs file system the store is on.
+     * @param layout layout of the store.
+     * @param config configuration to use.
+     * @param pageCache page cache to load pages into.
+     * @param pageCacheTracer underlying page cache tracer.
+     * @param contextFactory underlying page cursor context factory.
+     * @param logTailMetadata meta data read from the tx log.
+     * @param maxSampledNodes the maximum number of nodes to sample.
+     * @return the average number of pages touched per sampled node, or empty if there were no nodes to sample or
+     * if this storage engine has no such notion.
+     */
+    default OptionalDouble averagePagesTouchedPerNode(
+            FileSystemAbstraction fs,
+            DatabaseLayout layout,
+            Config config,
+            PageCache pageCache,
+            PageCacheTracer pageCacheTracer,
+            CursorContextFactory contextFactory,
+            LogTailMetadata logTailMetadata,
+            int maxSampledNodes) {
+        return OptionalDouble.empty();
+    }
+
     /**
      * Detects open options for existing store such as endianness or version
      */
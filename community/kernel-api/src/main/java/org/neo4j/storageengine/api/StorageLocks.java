@@ -26,6 +26,14 @@ public interface StorageLocks {
     // Transaction api locks
     void acquireExclusiveNodeLock(LockTracer lockTracer, long... ids);
 
+    /**
+     * Acquire the same locks as {@link #acquireExclusiveNodeLock(LockTracer, long...)} for a single node, but without
+     * waiting for other transactions. Nothing is left locked if any of the locks couldn't be acquired.
+     * @param id The id of the node to lock
+     * @return {@code true} if the node was locked, otherwise {@code false}
+     */
+    boolean tryExclusiveNodeLock(long id);
+
     void releaseExclusiveNodeLock(long... ids);
 
     void acquireSharedNodeLock(LockTracer lockTracer, long... ids);
@@ -42,6 +42,29 @@ public interface StorageNodeCursor extends StorageEntityScanCursor<AllNodeScan>
         return labels;
     }
 
+    /**
+     * Reads nodes into the given {@code batch} until it is full or this cursor has no more nodes, i.e. the equivalent
+     * of calling {@link #next()} repeatedly and adding the data of each node to the batch. Nodes are added after the
+     * ones already in the batch. After this call this cursor is placed at the last node added to the batch.
+     *
+     * @param batch {@link NodeBatch} to add nodes to.
+     * @return number of nodes added to the batch, {@code 0} means that there were no more nodes.
+     */
+    default int nextBatch(NodeBatch batch) {
+        int sizeBefore = batch.size();
+        int[] labels = batch.labels();
+        while (!batch.isFull() && next()) {
+            long labelBits = 0;
+            for (int i = 0; i < labels.length; i++) {
+                if (hasLabel(labels[i])) {
+                    labelBits |= 1L << i;
+                }
+            }
+            batch.add(entityReference(), labelBits, relationshipsReference(), propertiesReference());
+        }
+        return batch.size() - sizeBefore;
+    }
+
     /**
      * @return {@code true} if the node this cursor is placed at has at least one label, otherwise {@code false}.
      */
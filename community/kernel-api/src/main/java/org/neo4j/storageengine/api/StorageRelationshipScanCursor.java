@@ -32,4 +32,21 @@ public interface StorageRelationshipScanCursor
      * @param targetNodeReference target node reference of this relationship.
      */
     void single(long reference, long sourceNodeReference, int type, long targetNodeReference);
+
+    /**
+     * Reads relationships into the given {@code batch} until it is full or this cursor has no more relationships,
+     * i.e. the equivalent of calling {@link #next()} repeatedly and adding the data of each relationship to the batch.
+     * Relationships are added after the ones already in the batch. After this call this cursor is placed at
+     * the last relationship added to the batch.
+     *
+     * @param batch {@link RelationshipBatch} to add relationships to.
+     * @return number of relationships added to the batch, {@code 0} means that there were no more relationships.
+     */
+    default int nextBatch(RelationshipBatch batch) {
+        int sizeBefore = batch.size();
+        while (!batch.isFull() && next()) {
+            batch.add(entityReference(), type(), sourceNodeReference(), targetNodeReference(), propertiesReference());
+        }
+        return batch.size() - sizeBefore;
+    }
 }
@@ -75,6 +75,12 @@ public interface TxStateVisitor extends AutoCloseable {
 
     void visitKernelUpgrade(Upgrade.KernelUpgrade kernelUpgrade);
 
+    /**
+     * Visits a node that should be converted to the representation the storage uses for nodes with many
+     * relationships, without any logical change to the node or its relationships.
+     */
+    void visitDenseNodeConversion(long id);
+
     @Override
     void close() throws KernelException;
 
@@ -129,6 +135,9 @@ public interface TxStateVisitor extends AutoCloseable {
         @Override
         public void visitKernelUpgrade(Upgrade.KernelUpgrade kernelUpgrade) {}
 
+        @Override
+        public void visitDenseNodeConversion(long id) {}
+
         @Override
         public void close() {}
     }
@@ -225,6 +234,11 @@ public interface TxStateVisitor extends AutoCloseable {
             actual.visitKernelUpgrade(kernelUpgrade);
         }
 
+        @Override
+        public void visitDenseNodeConversion(long id) {
+            actual.visitDenseNodeConversion(id);
+        }
+
         @Override
         public void close() throws KernelException {
             actual.close();
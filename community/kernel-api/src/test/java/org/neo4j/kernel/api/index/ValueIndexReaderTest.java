@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.kernel.api.PropertyIndexQuery;
+import org.neo4j.internal.kernel.api.PropertyIndexQuery.ExactPredicate;
+import org.neo4j.internal.kernel.api.QueryContext;
+
+class ValueIndexReaderTest {
+    @Test
+    void batchQueryShouldRunDuplicateQueriesOnlyOnce() throws Exception {
+        // given
+        ValueIndexReader reader = mock(ValueIndexReader.class);
+        doCallRealMethod().when(reader).batchQuery(any(), any(), any(), any(ExactPredicate[][].class));
+        ExactPredicate[] first = {PropertyIndexQuery.exact(1, "a"), PropertyIndexQuery.exact(2, 1)};
+        ExactPredicate[] second = {PropertyIndexQuery.exact(1, "b"), PropertyIndexQuery.exact(2, 1)};
+        ExactPredicate[] firstAgain = {PropertyIndexQuery.exact(1, "a"), PropertyIndexQuery.exact(2, 1)};
+
+        // when
+        reader.batchQuery(
+                mock(IndexProgressor.EntityValueClient.class),
+                QueryContext.NULL_CONTEXT,
+                unconstrained(),
+                first,
+                second,
+                firstAgain);
+
+        // then
+        verify(reader, times(1)).query(any(), any(), any(), eq(first[0]), eq(first[1]));
+        verify(reader, times(1)).query(any(), any(), any(), eq(second[0]), eq(second[1]));
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.dense;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongIntMaps;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.function.Predicates;
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.Locks;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.Write;
+import org.neo4j.internal.kernel.api.security.LoginContext;
+import org.neo4j.kernel.api.Kernel;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.store.stats.StoreEntityCounters;
+import org.neo4j.logging.NullLog;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.api.RelationshipSelection;
+import org.neo4j.test.OtherThreadExecutor;
+
+class DenseNodeConversionJobTest {
+    private static final int THRESHOLD = 50;
+
+    private final MutableLongIntMap degrees = LongIntMaps.mutable.empty();
+    private final MutableLongSet denseNodes = LongSets.mutable.empty();
+    private final MutableLongSet lockedByOthers = LongSets.mutable.empty();
+    private final List<long[]> lockedPerTransaction = new ArrayList<>();
+    private final StoreEntityCounters entityCounters = mock(StoreEntityCounters.class);
+    private Runnable onLock = () -> {};
+    private int committedTransactions;
+    private Kernel kernel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        kernel = mock(Kernel.class);
+        when(kernel.beginTransaction(any(KernelTransaction.Type.class), any(LoginContext.class)))
+                .thenAnswer(invocation -> newTransaction());
+    }
+
+    @Test
+    void shouldConvertCandidatesInOneTransactionPerIdRange() throws KernelException {
+        // given
+        highId(25);
+        degrees.put(3, THRESHOLD);
+        degrees.put(5, THRESHOLD - 1);
+        degrees.put(7, THRESHOLD + 10);
+        denseNodes.add(7);
+        degrees.put(12, THRESHOLD + 1);
+        degrees.put(24, 2 * THRESHOLD);
+        var job = job(10, 0);
+
+        // when
+        long converted = job.convert();
+
+        // then
+        assertThat(converted).isEqualTo(3);
+        assertThat(denseNodes.toSortedArray()).containsExactly(3, 7, 12, 24);
+        assertThat(committedTransactions).isEqualTo(3);
+        assertThat(lockedPerTransaction).containsExactly(new long[] {3}, new long[] {12}, new long[] {24});
+    }
+
+    @Test
+    void shouldNotConvertNodesThatAreNoLongerCandidatesWhenLocked() throws KernelException {
+        // given
+        highId(10);
+        degrees.put(1, THRESHOLD);
+        degrees.put(2, THRESHOLD);
+        onLock = () -> degrees.put(2, THRESHOLD - 1);
+        var job = job(10, 0);
+
+        // when
+        long converted = job.convert();
+
+        // then
+        assertThat(converted).isEqualTo(1);
+        assertThat(denseNodes.toSortedArray()).containsExactly(1);
+    }
+
+    @Test
+    void shouldSkipNodesLockedByOtherTransactions() throws KernelException {
+        // given
+        highId(10);
+        degrees.put(3, THRESHOLD);
+        degrees.put(5, THRESHOLD);
+        lockedByOthers.add(3);
+        var job = job(10, 0);
+
+        // when
+        long converted = job.convert();
+
+        // then
+        assertThat(converted).isEqualTo(1);
+        assertThat(denseNodes.toSortedArray()).containsExactly(5);
+        assertThat(lockedPerTransaction).containsExactly(new long[] {5});
+
+        // and when the other transaction has let go of the node
+        lockedByOthers.clear();
+        long convertedInSecondPass = job.convert();
+
+        // then
+        assertThat(convertedInSecondPass).isEqualTo(1);
+        assertThat(denseNodes.toSortedArray()).containsExactly(3, 5);
+    }
+
+    @Test
+    void shouldStopBetweenBatches() throws KernelException {
+        // given
+        highId(30);
+        degrees.put(1, THRESHOLD);
+        degrees.put(11, THRESHOLD);
+        degrees.put(21, THRESHOLD);
+        var job = job(10, 0);
+        onLock = job::stop;
+
+        // when
+        long converted = job.convert();
+
+        // then
+        assertThat(converted).isEqualTo(1);
+        assertThat(denseNodes.toSortedArray()).containsExactly(1);
+    }
+
+    @Test
+    void shouldWaitForRunningPassWhenStopped() throws Exception {
+        // given
+        highId(20);
+        degrees.put(1, THRESHOLD);
+        degrees.put(11, THRESHOLD);
+        var job = job(10, 0);
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        onLock = () -> {
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        try (var runner = new OtherThreadExecutor("runner");
+                var stopper = new OtherThreadExecutor("stopper")) {
+            var running = runner.executeDontWait(() -> {
+                job.run();
+                return null;
+            });
+            locked.await();
+
+            // when
+            var stopping = stopper.executeDontWait(() -> {
+                job.stop();
+                return null;
+            });
+            stopper.waitUntilWaiting(details -> details.isAt(Predicates.class, "awaitForever"));
+
+            // then
+            assertThat(stopping).isNotDone();
+            release.countDown();
+            stopping.get();
+            running.get();
+            assertThat(denseNodes.toSortedArray()).containsExactly(1);
+        }
+    }
+
+    @Test
+    void shouldCountConvertedNodesOverPasses() throws KernelException {
+        // given
+        highId(20);
+        degrees.put(4, THRESHOLD);
+        degrees.put(15, THRESHOLD);
+        var job = job(10, 0);
+        assertThat(job.convert()).isEqualTo(2);
+
+        // when
+        long convertedInSecondPass = job.convert();
+        degrees.put(19, THRESHOLD);
+        long convertedInThirdPass = job.convert();
+
+        // then
+        assertThat(convertedInSecondPass).isZero();
+        assertThat(convertedInThirdPass).isEqualTo(1);
+        assertThat(job.convertedNodes()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldThrottleRewrittenRelationships() throws KernelException {
+        // given 1 000 relationships to rewrite at no more than 5 000 relationships per second
+        highId(20);
+        for (long id = 0; id < 10; id++) {
+            degrees.put(id * 2, 100);
+        }
+        var job = job(5, 5_000);
+
+        // when
+        long startNanos = System.nanoTime();
+        long converted = job.convert();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        // then
+        assertThat(converted).isEqualTo(10);
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(200);
+    }
+
+    private DenseNodeConversionJob job(int batchSize, long maxRelationshipsPerSecond) {
+        return new DenseNodeConversionJob(
+                kernel,
+                entityCounters,
+                mock(JobScheduler.class),
+                DatabaseReadOnlyChecker.writable(),
+                NullLog.getInstance(),
+                "neo4j",
+                THRESHOLD,
+                batchSize,
+                maxRelationshipsPerSecond,
+                1);
+    }
+
+    private void highId(long highId) {
+        when(entityCounters.nodes(any())).thenReturn(highId);
+    }
+
+    private KernelTransaction newTransaction() throws KernelException {
+        long[] current = {-1};
+        NodeCursor nodeCursor = mock(NodeCursor.class);
+        when(nodeCursor.next()).thenAnswer(invocation -> degrees.containsKey(current[0]));
+        when(nodeCursor.nodeReference()).thenAnswer(invocation -> current[0]);
+        when(nodeCursor.supportsFastDegreeLookup()).thenAnswer(invocation -> denseNodes.contains(current[0]));
+        when(nodeCursor.degree(any(RelationshipSelection.class))).thenAnswer(invocation -> degrees.get(current[0]));
+        when(nodeCursor.degreeWithMax(anyInt(), any(RelationshipSelection.class)))
+                .thenAnswer(invocation -> Math.min(degrees.get(current[0]), invocation.<Integer>getArgument(0)));
+
+        Read read = mock(Read.class);
+        doAnswer(invocation -> current[0] = invocation.<Long>getArgument(0))
+                .when(read)
+                .singleNode(anyLong(), any(NodeCursor.class));
+        Write write = mock(Write.class);
+        when(write.nodeConvertToDense(anyLong()))
+                .thenAnswer(invocation -> denseNodes.add(invocation.<Long>getArgument(0)));
+        MutableLongList locked = LongLists.mutable.empty();
+        Locks locks = mock(Locks.class);
+        when(locks.tryExclusiveNodeLock(anyLong())).thenAnswer(invocation -> {
+            long id = invocation.getArgument(0);
+            if (lockedByOthers.contains(id)) {
+                return false;
+            }
+            locked.add(id);
+            onLock.run();
+            return true;
+        });
+        CursorFactory cursors = mock(CursorFactory.class);
+        when(cursors.allocateNodeCursor(any(), any())).thenReturn(nodeCursor);
+
+        KernelTransaction tx = mock(KernelTransaction.class);
+        when(tx.cursors()).thenReturn(cursors);
+        when(tx.dataRead()).thenReturn(read);
+        when(tx.dataWrite()).thenReturn(write);
+        when(tx.locks()).thenReturn(locks);
+        when(tx.commit()).thenAnswer(invocation -> {
+            lockedPerTransaction.add(locked.toArray());
+            committedTransactions++;
+            return 1L;
+        });
+        return tx;
+    }
+}
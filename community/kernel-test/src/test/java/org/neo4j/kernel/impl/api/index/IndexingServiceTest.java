@@ -80,6 +80,7 @@ import static org.neo4j.logging.AssertableLogProvider.Level.ERROR;
 import static org.neo4j.logging.AssertableLogProvider.Level.INFO;
 import static org.neo4j.logging.LogAssertions.assertThat;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.test.assertion.Assert.assertEventually;
 import static org.neo4j.values.storable.Values.stringValue;
 
 import java.io.IOException;
@@ -92,6 +93,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -115,6 +117,7 @@ import org.neo4j.common.TokenNameLookup;
 import org.neo4j.configuration.Config;
 import org.neo4j.exceptions.UnderlyingStorageException;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.CompactionStatistics;
 import org.neo4j.internal.helpers.collection.BoundedIterable;
 import org.neo4j.internal.kernel.api.IndexMonitor;
 import org.neo4j.internal.kernel.api.IndexQueryConstraints;
@@ -135,6 +138,7 @@ import org.neo4j.internal.schema.SchemaState;
 import org.neo4j.internal.schema.StorageEngineIndexingBehaviour;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
@@ -670,6 +674,43 @@ class IndexingServiceTest {
                 .containsMessages("Manual trigger for sampling index " + userDescription + " [" + mode + "]");
     }
 
+    @Test
+    void shouldCompactIndexInBackground() throws Exception {
+        // given
+        IndexDescriptor index = forSchema(forLabel(0, 1))
+                .withIndexProvider(PROVIDER_DESCRIPTOR)
+                .withName("index")
+                .materialise(0);
+        CompactionStatistics statistics = new CompactionStatistics(10, 5, 0.4, 0.8, 2);
+        Barrier.Control barrier = new Barrier.Control();
+        when(accessor.compact(any(), any())).thenAnswer(invocation -> {
+            barrier.reached();
+            return Optional.of(statistics);
+        });
+        IndexingService indexingService =
+                newIndexingServiceWithMockedDependencies(populator, accessor, withData(), index);
+        life.init();
+        life.start();
+        assertThat(indexingService.indexCompactionStatus(index)).isEmpty();
+
+        // when
+        IndexCompactionStatus status = indexingService.compactIndex(index, IOController.DISABLED);
+        barrier.awaitUninterruptibly();
+
+        // then
+        assertThat(status.state()).isEqualTo(IndexCompactionStatus.State.RUNNING);
+        assertThat(indexingService.compactIndex(index, IOController.DISABLED)).isEqualTo(status);
+        barrier.release();
+        assertEventually(
+                () -> indexingService.indexCompactionStatus(index).orElseThrow(),
+                s -> s.state() == IndexCompactionStatus.State.COMPLETED,
+                1,
+                MINUTES);
+        assertThat(indexingService.indexCompactionStatus(index).orElseThrow().statistics())
+                .isEqualTo(statistics);
+        verify(accessor).compact(any(), any());
+    }
+
     @Test
     void applicationOfIndexUpdatesShouldThrowIfServiceIsShutdown() throws IOException {
         // Given
@@ -422,6 +422,31 @@ abstract class BlockBasedIndexPopulatorTest<KEY extends NativeIndexKey<KEY>> {
         assertEquals(numberOfUpdatesAfterCompleted, sample.updates());
     }
 
+    @Test
+    void shouldIgnoreDuplicateScanUpdatesWhenBuildingTree() throws IndexEntryConflictException, IOException {
+        // given
+        BlockBasedIndexPopulator<KEY> populator = instantiatePopulator(NO_MONITOR);
+        try {
+            Collection<IndexEntryUpdate<?>> updates = batchOfUpdates();
+            populator.add(updates, NULL_CONTEXT);
+            populator.add(updates, NULL_CONTEXT);
+
+            // when
+            populator.scanCompleted(nullInstance, populationWorkScheduler, NULL_CONTEXT);
+
+            // then
+            int count = 0;
+            try (Seeker<KEY, NullValue> seek = seek(populator.tree, layout())) {
+                while (seek.next()) {
+                    count++;
+                }
+            }
+            assertEquals(updates.size(), count);
+        } finally {
+            populator.close(true, NULL_CONTEXT);
+        }
+    }
+
     @Test
     void shouldFlushTreeOnScanCompleted() throws IndexEntryConflictException, IOException {
         // given
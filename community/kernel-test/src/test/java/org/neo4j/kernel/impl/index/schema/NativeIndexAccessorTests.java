@@ -39,10 +39,13 @@ import static org.neo4j.storageengine.api.IndexEntryUpdate.change;
 import static org.neo4j.storageengine.api.IndexEntryUpdate.remove;
 import static org.neo4j.values.storable.Values.of;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
@@ -52,10 +55,12 @@ import org.eclipse.collections.api.iterator.LongIterator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.neo4j.collection.PrimitiveLongCollections;
+import org.neo4j.index.internal.gbptree.CompactionStatistics;
 import org.neo4j.internal.kernel.api.PropertyIndexQuery;
 import org.neo4j.internal.kernel.api.QueryContext;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexSample;
@@ -146,6 +151,32 @@ abstract class NativeIndexAccessorTests<KEY extends NativeIndexKey<KEY>>
         }
     }
 
+    @Test
+    void shouldKeepRemainingEntriesWhenCompacting() throws Exception {
+        // given
+        ValueIndexEntryUpdate<IndexDescriptor>[] updates = someUpdatesSingleType();
+        processAll(updates);
+        List<ValueIndexEntryUpdate<IndexDescriptor>> remaining = new ArrayList<>();
+        for (int i = 0; i < updates.length; i++) {
+            ValueIndexEntryUpdate<IndexDescriptor> update = updates[i];
+            if (i % 2 == 0) {
+                processAll(remove(update.getEntityId(), indexDescriptor, update.values()));
+            } else {
+                remaining.add(update);
+            }
+        }
+
+        // when
+        Optional<CompactionStatistics> statistics = accessor.compact(IOController.DISABLED, NULL_CONTEXT);
+
+        // then
+        assertThat(statistics).isPresent();
+        assertThat(statistics.get().leafCountAfter()).isPositive();
+        forceAndCloseAccessor();
+        //noinspection unchecked
+        valueUtil.verifyUpdates(remaining.toArray(new ValueIndexEntryUpdate[0]), this::getTree);
+    }
+
     @Test
     void shouldHandleRandomUpdates() throws Exception {
         // given
@@ -303,6 +334,33 @@ abstract class NativeIndexAccessorTests<KEY extends NativeIndexKey<KEY>>
         }
     }
 
+    @Test
+    void shouldReturnMatchingEntriesForBatchOfExactPredicates() throws Exception {
+        // given
+        ValueIndexEntryUpdate<IndexDescriptor>[] updates = someUpdatesSingleType();
+        processAll(updates);
+        Value[] values = new Value[updates.length + 2];
+        for (int i = 0; i < updates.length; i++) {
+            values[updates.length - 1 - i] = updates[i].values()[0];
+        }
+        values[updates.length] = values[0];
+        values[updates.length + 1] = generateUniqueValue(updates);
+        PropertyIndexQuery.ExactPredicate[][] queries = new PropertyIndexQuery.ExactPredicate[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            queries[i] = new PropertyIndexQuery.ExactPredicate[] {PropertyIndexQuery.exact(0, values[i])};
+        }
+
+        // when
+        var reader = accessor.newValueReader(NO_USAGE_TRACKER);
+        NodeValueIterator result = new NodeValueIterator();
+        reader.batchQuery(result, QueryContext.NULL_CONTEXT, unconstrained(), queries);
+
+        // then
+        try (result) {
+            assertEntityIdHits(extractEntityIds(updates, in(values)), result);
+        }
+    }
+
     @Test
     void shouldReturnNoEntriesForMismatchingExactPredicate() throws Exception {
         // given
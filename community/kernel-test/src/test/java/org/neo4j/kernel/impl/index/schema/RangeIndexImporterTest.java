@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.schema.IndexPrototype.forSchema;
+import static org.neo4j.internal.schema.SchemaDescriptors.forLabel;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.io.pagecache.context.FixedVersionContextSupplier.EMPTY_CONTEXT_SUPPLIER;
+import static org.neo4j.kernel.api.index.IndexDirectoryStructure.directoriesByProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.batchimport.IndexImporter;
+import org.neo4j.internal.kernel.api.InternalIndexState;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexProviderDescriptor;
+import org.neo4j.internal.schema.IndexType;
+import org.neo4j.internal.schema.StorageEngineIndexingBehaviour;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.api.schema.SchemaTestUtil;
+import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
+import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+@EphemeralPageCacheExtension
+@EphemeralNeo4jLayoutExtension
+class RangeIndexImporterTest {
+    private static final IndexDescriptor INDEX = forSchema(forLabel(1, 2))
+            .withIndexType(IndexType.RANGE)
+            .withIndexProvider(new IndexProviderDescriptor("range", "1.0"))
+            .withName("index")
+            .materialise(1);
+
+    @Inject
+    private PageCache pageCache;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    private final CursorContextFactory contextFactory =
+            new CursorContextFactory(PageCacheTracer.NULL, EMPTY_CONTEXT_SUPPLIER);
+    private RangeIndexProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        var context = DatabaseIndexContext.builder(
+                        pageCache, fs, contextFactory, PageCacheTracer.NULL, DEFAULT_DATABASE_NAME)
+                .build();
+        provider = new RangeIndexProvider(
+                context, directoriesByProvider(databaseLayout.databaseDirectory()), immediate(), Config.defaults());
+    }
+
+    @Test
+    void shouldBuildOnlineIndexFromEntriesWrittenConcurrently() throws Exception {
+        // given
+        try (IndexImporter importer = importer()) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                IndexImporter.Writer writer = importer.writer(true);
+                threads.add(new Thread(() -> {
+                    // Entries of a writer are in no particular order
+                    for (int i = 999 - offset; i >= 0; i -= 4) {
+                        writer.add(i, new Value[] {Values.intValue(i % 10)});
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            // when
+            IndexImporter.Writer removals = importer.writer(true);
+            removals.remove(500, new Value[] {Values.intValue(0)});
+        }
+
+        // then
+        assertThat(provider.getInitialState(INDEX, NULL_CONTEXT, Sets.immutable.empty()))
+                .isEqualTo(InternalIndexState.ONLINE);
+        List<Long> entities = new ArrayList<>();
+        try (var accessor = provider.getOnlineAccessor(
+                        INDEX,
+                        new IndexSamplingConfig(Config.defaults()),
+                        SchemaTestUtil.SIMPLE_NAME_LOOKUP,
+                        Sets.immutable.empty(),
+                        StorageEngineIndexingBehaviour.EMPTY);
+                var reader = accessor.newAllEntriesValueReader(NULL_CONTEXT)) {
+            reader.forEach(entities::add);
+        }
+        assertThat(entities).hasSize(999).doesNotContain(500L).contains(0L, 499L, 501L, 999L);
+    }
+
+    @Test
+    void shouldLeaveAbortedIndexToBePopulatedByDatabase() throws Exception {
+        // given
+        IndexImporter importer = importer();
+        importer.writer(true).add(1, new Value[] {Values.intValue(1)});
+
+        // when
+        importer.abort();
+
+        // then
+        assertThat(provider.getInitialState(INDEX, NULL_CONTEXT, Sets.immutable.empty()))
+                .isEqualTo(InternalIndexState.POPULATING);
+    }
+
+    private IndexImporter importer() {
+        return new IndexImporterFactoryImpl()
+                .getImporter(
+                        INDEX,
+                        databaseLayout,
+                        fs,
+                        pageCache,
+                        contextFactory,
+                        PageCacheTracer.NULL,
+                        Sets.immutable.empty(),
+                        StorageEngineIndexingBehaviour.EMPTY);
+    }
+}
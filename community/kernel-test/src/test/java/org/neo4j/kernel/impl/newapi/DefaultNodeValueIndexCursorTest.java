@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.neo4j.collection.Dependencies;
+import org.neo4j.internal.kernel.api.PropertyIndexQuery;
+import org.neo4j.internal.kernel.api.PropertyIndexQuery.ExactPredicate;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.internal.kernel.api.security.SecurityContext;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexPrototype;
+import org.neo4j.internal.schema.SchemaDescriptors;
+import org.neo4j.internal.schema.SchemaState;
+import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.kernel.api.procedure.ProcedureView;
+import org.neo4j.kernel.impl.api.KernelTransactionImplementation;
+import org.neo4j.kernel.impl.api.index.IndexingService;
+import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
+import org.neo4j.kernel.impl.api.state.TxState;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.storageengine.api.StorageLocks;
+import org.neo4j.storageengine.api.StorageReader;
+import org.neo4j.values.storable.ValueTuple;
+import org.neo4j.values.storable.Values;
+
+class DefaultNodeValueIndexCursorTest {
+    private static final IndexDescriptor INDEX = IndexPrototype.forSchema(SchemaDescriptors.forLabel(1, 2))
+            .withName("index")
+            .materialise(1);
+
+    private final InternalCursorFactory internalCursors = MockedInternalCursors.mockedInternalCursors();
+
+    @Test
+    void shouldMergeTransactionStateOfEveryQueryInBatch() {
+        // given
+        var read = buildReadState(txState -> {
+            txState.indexDoUpdateEntry(INDEX.schema(), 10, null, tuple("banana"));
+            txState.indexDoUpdateEntry(INDEX.schema(), 11, null, tuple("cherry"));
+            txState.indexDoUpdateEntry(INDEX.schema(), 12, null, tuple("dragonfruit"));
+            txState.indexDoUpdateEntry(INDEX.schema(), 1, tuple("banana"), null);
+            txState.indexDoUpdateEntry(INDEX.schema(), 2, tuple("cherry"), tuple("apple"));
+        });
+        ExactPredicate[][] queries = {exact("banana"), exact("cherry"), exact("banana")};
+
+        // when
+        List<Long> nodes = new ArrayList<>();
+        try (var cursor = new DefaultNodeValueIndexCursor(c -> {}, internalCursors)) {
+            cursor.setRead(read);
+            cursor.prepareBatchQuery(queries);
+            cursor.initialize(INDEX, committed(cursor, 1, 3, 2, 4), false, false, unconstrained(), queries[0]);
+            while (cursor.next()) {
+                nodes.add(cursor.nodeReference());
+            }
+        }
+
+        // then
+        assertThat(nodes).containsExactlyInAnyOrder(10L, 11L, 3L, 4L);
+    }
+
+    private static ExactPredicate[] exact(String value) {
+        return new ExactPredicate[] {PropertyIndexQuery.exact(2, value)};
+    }
+
+    private static ValueTuple tuple(String value) {
+        return ValueTuple.of(Values.stringValue(value));
+    }
+
+    /**
+     * @return progressor of the given committed entries of the index, which disregard transaction state.
+     */
+    private static IndexProgressor committed(IndexProgressor.EntityValueClient client, long... entities) {
+        return new IndexProgressor() {
+            private int next;
+
+            @Override
+            public boolean next() {
+                while (next < entities.length) {
+                    if (client.acceptEntity(entities[next++], Float.NaN)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public void close() {}
+        };
+    }
+
+    private static Read buildReadState(Consumer<TxState> setup) {
+        var ktx = mock(KernelTransactionImplementation.class);
+        when(ktx.securityContext()).thenReturn(SecurityContext.AUTH_DISABLED);
+        var read = new AllStoreHolder.ForTransactionScope(
+                mock(StorageReader.class),
+                mock(TokenRead.class),
+                ktx,
+                mock(StorageLocks.class),
+                mock(DefaultPooledCursors.class),
+                mock(SchemaState.class),
+                mock(IndexingService.class),
+                mock(IndexStatisticsStore.class),
+                mock(Dependencies.class),
+                EmptyMemoryTracker.INSTANCE,
+                false);
+        read.initialize(mock(ProcedureView.class));
+        var txState = new TxState();
+        setup.accept(txState);
+        when(read.hasTxStateWithChanges()).thenReturn(true);
+        when(read.txState()).thenReturn(txState);
+        return read;
+    }
+}
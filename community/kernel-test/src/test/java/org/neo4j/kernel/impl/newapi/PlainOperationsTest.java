@@ -23,6 +23,7 @@ import static java.util.Collections.singletonList;
 import static org.apache.commons.lang3.ArrayUtils.EMPTY_INT_ARRAY;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -388,6 +389,35 @@ public class PlainOperationsTest extends OperationsTest {
         order.verify(txState).nodeDoDelete(123);
     }
 
+    @Test
+    void shouldAcquireEntityWriteLockBeforeConvertingNodeToDense() {
+        // GIVEN
+        when(nodeCursor.next()).thenReturn(true);
+        when(nodeCursor.supportsFastDegreeLookup()).thenReturn(false);
+
+        // WHEN
+        boolean converted = operations.nodeConvertToDense(123);
+
+        // THEN
+        assertTrue(converted);
+        order.verify(storageLocks).acquireExclusiveNodeLock(LockTracer.NONE, 123);
+        order.verify(txState).nodeDoConvertToDense(123);
+    }
+
+    @Test
+    void shouldNotConvertNodeThatIsAlreadyDense() {
+        // GIVEN
+        when(nodeCursor.next()).thenReturn(true);
+        when(nodeCursor.supportsFastDegreeLookup()).thenReturn(true);
+
+        // WHEN
+        boolean converted = operations.nodeConvertToDense(123);
+
+        // THEN
+        assertFalse(converted);
+        verify(txState, never()).nodeDoConvertToDense(anyLong());
+    }
+
     @Test
     void shouldNotAcquireEntityWriteLockBeforeDeletingJustCreatedNode() {
         // THEN
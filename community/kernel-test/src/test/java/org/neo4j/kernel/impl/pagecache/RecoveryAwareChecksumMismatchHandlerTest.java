@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageChecksumMismatchException;
+import org.neo4j.io.pagecache.PageChecksumMismatchHandler;
+import org.neo4j.kernel.recovery.RecoveryMonitor;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.monitoring.Monitors;
+
+class RecoveryAwareChecksumMismatchHandlerTest {
+    private final Path home = Path.of("/neo4j/data/databases");
+    private final DatabaseLayout recovering = DatabaseLayout.ofFlat(home.resolve("recovering"));
+    private final DatabaseLayout other = DatabaseLayout.ofFlat(home.resolve("other"));
+    private final Path recoveringFile = recovering.databaseDirectory().resolve("neostore");
+    private final List<Path> loggedMismatches = new ArrayList<>();
+    private final RecoveryAwareChecksumMismatchHandler handler = new RecoveryAwareChecksumMismatchHandler(
+            PageChecksumMismatchHandler.FAIL, (file, filePageId) -> loggedMismatches.add(file));
+
+    @Test
+    void shouldOnlyLogMismatchesInDatabasesBeingRecovered() throws IOException {
+        Monitors monitors = new Monitors();
+        monitors.addMonitorListener(handler);
+        RecoveryMonitor recoveryMonitor =
+                new Monitors(monitors, NullLogProvider.getInstance()).newMonitor(RecoveryMonitor.class);
+
+        recoveryMonitor.recoveryProcessStarted(recovering);
+        handler.mismatch(recoveringFile, 1);
+
+        assertThat(loggedMismatches).containsExactly(recoveringFile);
+        assertThatThrownBy(() -> handler.mismatch(other.databaseDirectory().resolve("neostore"), 1))
+                .isInstanceOf(PageChecksumMismatchException.class);
+    }
+
+    @Test
+    void shouldHandleMismatchesAsConfiguredWhenRecoveryHasEnded() {
+        handler.recoveryProcessStarted(recovering);
+        handler.recoveryProcessEnded(recovering);
+
+        assertThatThrownBy(() -> handler.mismatch(recoveringFile, 1)).isInstanceOf(PageChecksumMismatchException.class);
+        assertThat(loggedMismatches).isEmpty();
+    }
+}
@@ -874,6 +874,11 @@ class TransactionLogFileTest {
             return NativeCallResult.SUCCESS;
         }
 
+        @Override
+        public NativeCallResult tryAdviseHugePages(long address, long length) {
+            return NativeCallResult.SUCCESS;
+        }
+
         @Override
         public ErrorTranslator errorTranslator() {
             return callResult -> false;
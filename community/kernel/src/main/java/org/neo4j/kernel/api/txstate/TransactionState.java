@@ -100,6 +100,9 @@ public interface TransactionState extends ReadableTransactionState {
     // Upgrade
     void kernelDoUpgrade(Upgrade.KernelUpgrade kernelUpgrade);
 
+    // Storage layout
+    void nodeDoConvertToDense(long nodeId);
+
     // MEMORY TRACKING
 
     /**
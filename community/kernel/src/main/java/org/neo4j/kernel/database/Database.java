@@ -108,6 +108,7 @@ import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionIdSequence;
 import org.neo4j.kernel.impl.api.TransactionRegistry;
 import org.neo4j.kernel.impl.api.TransactionVisibilityProvider;
+import org.neo4j.kernel.impl.api.dense.DenseNodeConversionJob;
 import org.neo4j.kernel.impl.api.index.IndexProviderMap;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.api.index.IndexingServiceFactory;
@@ -589,6 +590,16 @@ public class Database extends AbstractDatabase {
 
         life.add(idController);
         life.add(onStart(this::registerUpgradeListener));
+        if (!isSystem()) {
+            life.add(new DenseNodeConversionJob(
+                    getKernel(),
+                    storageEngine.storeEntityCounters(),
+                    scheduler,
+                    databaseConfig,
+                    readOnlyDatabaseChecker,
+                    internalLogProvider.getLog(DenseNodeConversionJob.class),
+                    namedDatabaseId.name()));
+        }
         life.add(databaseHealth);
         life.add(databaseAvailabilityGuard);
         life.add(databaseAvailability);
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.dense;
+
+import static org.neo4j.internal.kernel.api.security.LoginContext.AUTH_DISABLED;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.storageengine.api.RelationshipSelection.ALL_RELATIONSHIPS;
+
+import java.util.concurrent.TimeUnit;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.function.Predicates;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.kernel.api.Kernel;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.store.stats.StoreEntityCounters;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
+
+/**
+ * Converts existing sparse nodes into dense nodes when their degree is at or above
+ * {@link GraphDatabaseInternalSettings#dense_node_conversion_threshold}. A node otherwise only becomes dense when
+ * relationships are added to it, so this is what applies a lowered threshold to nodes that already exist.
+ * <p>
+ * Conversion happens online in small regular transactions, which lock the converted nodes just like a transaction
+ * adding relationships to them would, so there's no need to copy the store. Each transaction goes through a range of
+ * {@link GraphDatabaseInternalSettings#dense_node_conversion_batch_size} node ids, so no transaction is kept open
+ * for a whole pass. Nodes are only locked if no other transaction holds a lock on them, so this job never waits for,
+ * or deadlocks with, user transactions. Nodes that are skipped because of that are converted in a later pass.
+ * The number of relationships rewritten per second can be capped to limit how much IO the conversion competes with
+ * regular transactions for.
+ */
+public class DenseNodeConversionJob extends LifecycleAdapter implements Runnable {
+    private static final long STOP_CHECK_INTERVAL_MILLIS = 100;
+
+    private final Kernel kernel;
+    private final StoreEntityCounters entityCounters;
+    private final JobScheduler scheduler;
+    private final DatabaseReadOnlyChecker readOnlyChecker;
+    private final InternalLog log;
+    private final String databaseName;
+    private final int threshold;
+    private final int batchSize;
+    private final long maxRelationshipsPerSecond;
+    private final long intervalMillis;
+    private volatile boolean stopped;
+    private volatile boolean converting;
+    private volatile long convertedNodes;
+    private long rewrittenRelationships;
+    private JobHandle jobHandle;
+
+    public DenseNodeConversionJob(
+            Kernel kernel,
+            StoreEntityCounters entityCounters,
+            JobScheduler scheduler,
+            Config config,
+            DatabaseReadOnlyChecker readOnlyChecker,
+            InternalLog log,
+            String databaseName) {
+        this(
+                kernel,
+                entityCounters,
+                scheduler,
+                readOnlyChecker,
+                log,
+                databaseName,
+                config.get(GraphDatabaseInternalSettings.dense_node_conversion_threshold),
+                config.get(GraphDatabaseInternalSettings.dense_node_conversion_batch_size),
+                config.get(GraphDatabaseInternalSettings.dense_node_conversion_max_relationships_per_second),
+                config.get(GraphDatabaseInternalSettings.dense_node_conversion_interval)
+                        .toMillis());
+    }
+
+    DenseNodeConversionJob(
+            Kernel kernel,
+            StoreEntityCounters entityCounters,
+            JobScheduler scheduler,
+            DatabaseReadOnlyChecker readOnlyChecker,
+            InternalLog log,
+            String databaseName,
+            int threshold,
+            int batchSize,
+            long maxRelationshipsPerSecond,
+            long intervalMillis) {
+        this.kernel = kernel;
+        this.entityCounters = entityCounters;
+        this.scheduler = scheduler;
+        this.readOnlyChecker = readOnlyChecker;
+        this.log = log;
+        this.databaseName = databaseName;
+        this.threshold = threshold;
+        this.batchSize = batchSize;
+        this.maxRelationshipsPerSecond = maxRelationshipsPerSecond;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        if (threshold > 0 && intervalMillis > 0) {
+            var monitoringParams =
+                    JobMonitoringParams.systemJob(databaseName, "Conversion of sparse nodes into dense nodes");
+            jobHandle = scheduler.scheduleRecurring(
+                    Group.STORAGE_MAINTENANCE, monitoringParams, this, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        if (jobHandle != null) {
+            jobHandle.cancel();
+            jobHandle = null;
+        }
+        // A pass which is already running stops before its next batch, wait for that
+        Predicates.awaitForever(() -> !converting, STOP_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void run() {
+        try {
+            converting = true;
+            if (stopped || readOnlyChecker.isReadOnly()) {
+                return;
+            }
+            long converted = convert();
+            if (converted > 0) {
+                log.info("Converted %d sparse nodes with degree of at least %d into dense nodes", converted, threshold);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to convert sparse nodes into dense nodes", e);
+        } finally {
+            converting = false;
+        }
+    }
+
+    /**
+     * @return total number of nodes that this job has converted into dense nodes.
+     */
+    public long convertedNodes() {
+        return convertedNodes;
+    }
+
+    /**
+     * Makes one pass over all nodes, converting the sparse nodes that have reached the threshold.
+     *
+     * @return number of nodes converted in this pass.
+     */
+    long convert() throws KernelException {
+        long startNanos = System.nanoTime();
+        rewrittenRelationships = 0;
+        long converted = 0;
+        long highId = entityCounters.nodes(NULL_CONTEXT);
+        for (long fromId = 0; !stopped && fromId < highId; fromId += batchSize) {
+            converted += convertRange(fromId, Math.min(highId, fromId + batchSize));
+            throttle(startNanos);
+        }
+        convertedNodes += converted;
+        return converted;
+    }
+
+    /**
+     * Converts the candidates among the nodes in a range of node ids in a single transaction. The candidates are
+     * locked in node id order, skipping those which are locked by other transactions, and checked again after
+     * having been locked since they may have been changed since they were first read.
+     *
+     * @return number of nodes converted in this range.
+     */
+    private long convertRange(long fromId, long toId) throws KernelException {
+        long converted = 0;
+        try (KernelTransaction tx = kernel.beginTransaction(KernelTransaction.Type.IMPLICIT, AUTH_DISABLED);
+                NodeCursor nodeCursor = tx.cursors().allocateNodeCursor(tx.cursorContext(), tx.memoryTracker())) {
+            MutableLongList candidates = LongLists.mutable.empty();
+            for (long id = fromId; id < toId; id++) {
+                tx.dataRead().singleNode(id, nodeCursor);
+                if (nodeCursor.next() && isCandidate(nodeCursor)) {
+                    candidates.add(id);
+                }
+            }
+            if (candidates.isEmpty()) {
+                return 0;
+            }
+            for (long id : candidates.toArray()) {
+                if (!tx.locks().tryExclusiveNodeLock(id)) {
+                    continue;
+                }
+                tx.dataRead().singleNode(id, nodeCursor);
+                if (nodeCursor.next() && isCandidate(nodeCursor)) {
+                    long degree = nodeCursor.degree(ALL_RELATIONSHIPS);
+                    if (tx.dataWrite().nodeConvertToDense(id)) {
+                        rewrittenRelationships += degree;
+                        converted++;
+                    }
+                }
+            }
+            tx.commit();
+        }
+        return converted;
+    }
+
+    private boolean isCandidate(NodeCursor nodeCursor) {
+        // Sparse nodes have their total degree in the first relationship record of their chain, so this is cheap
+        return !nodeCursor.supportsFastDegreeLookup()
+                && nodeCursor.degreeWithMax(threshold, ALL_RELATIONSHIPS) >= threshold;
+    }
+
+    private void throttle(long startNanos) {
+        if (maxRelationshipsPerSecond <= 0) {
+            return;
+        }
+        long expectedMillis = rewrittenRelationships * 1000 / maxRelationshipsPerSecond;
+        long remainingMillis = expectedMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        // Sleep in short intervals so that stopping the job doesn't have to wait for all of the throttling
+        while (!stopped && remainingMillis > 0) {
+            try {
+                Thread.sleep(Math.min(remainingMillis, STOP_CHECK_INTERVAL_MILLIS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped = true;
+            }
+            remainingMillis = expectedMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -22,12 +22,15 @@ package org.neo4j.kernel.impl.api.index;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.CompactionStatistics;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.PopulationProgress;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.kernel.api.exceptions.index.IndexActivationFailedKernelException;
@@ -133,6 +136,11 @@ public abstract class AbstractDelegatingIndexProxy implements IndexProxy {
         return getDelegate().snapshotFiles();
     }
 
+    @Override
+    public Optional<CompactionStatistics> compact(IOController ioController, CursorContext cursorContext) {
+        return getDelegate().compact(ioController, cursorContext);
+    }
+
     @Override
     public Map<String, Value> indexConfig() {
         return getDelegate().indexConfig();
@@ -20,10 +20,13 @@
 package org.neo4j.kernel.impl.api.index;
 
 import java.io.IOException;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
+import org.neo4j.index.internal.gbptree.CompactionStatistics;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
@@ -121,6 +124,18 @@ class ContractCheckingIndexProxy extends DelegatingIndexProxy {
         }
     }
 
+    @Override
+    public Optional<CompactionStatistics> compact(IOController ioController, CursorContext cursorContext) {
+        if (tryOpenCall()) {
+            try {
+                return super.compact(ioController, cursorContext);
+            } finally {
+                closeCall();
+            }
+        }
+        return Optional.empty();
+    }
+
     @Override
     public void drop() {
         if (state.compareAndSet(State.INIT, State.CLOSED)) {
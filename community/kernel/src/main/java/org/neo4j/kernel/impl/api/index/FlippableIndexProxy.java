@@ -22,15 +22,18 @@ package org.neo4j.kernel.impl.api.index;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.CompactionStatistics;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.PopulationProgress;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.kernel.api.exceptions.index.ExceptionDuringFlipKernelException;
@@ -304,6 +307,16 @@ public class FlippableIndexProxy extends AbstractDelegatingIndexProxy {
         }
     }
 
+    @Override
+    public Optional<CompactionStatistics> compact(IOController ioController, CursorContext cursorContext) {
+        lock.readLock().lock();
+        try {
+            return delegate.compact(ioController, cursorContext);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     @Override
     public Map<String, Value> indexConfig() {
         lock.readLock().lock();
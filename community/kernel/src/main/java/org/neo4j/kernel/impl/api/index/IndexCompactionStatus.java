@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import org.neo4j.index.internal.gbptree.CompactionStatistics;
+
+/**
+ * Status of a background compaction of an index, see {@link IndexingService#compactIndex}.
+ *
+ * @param state state of the compaction.
+ * @param statistics statistics about the index before and after compaction, only set when {@link State#COMPLETED}.
+ * @param failure reason for the failure, only set when {@link State#FAILED}.
+ */
+public record IndexCompactionStatus(State state, CompactionStatistics statistics, String failure) {
+    static final IndexCompactionStatus RUNNING = new IndexCompactionStatus(State.RUNNING, null, null);
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    static IndexCompactionStatus completed(CompactionStatistics statistics) {
+        return new IndexCompactionStatus(State.COMPLETED, statistics, null);
+    }
+
+    static IndexCompactionStatus failed(String failure) {
+        return new IndexCompactionStatus(State.FAILED, null, failure);
+    }
+}
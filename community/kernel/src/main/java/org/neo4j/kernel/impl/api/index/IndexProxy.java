@@ -21,12 +21,15 @@ package org.neo4j.kernel.impl.api.index;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.CompactionStatistics;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.PopulationProgress;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.kernel.api.exceptions.index.IndexActivationFailedKernelException;
@@ -124,6 +127,14 @@ public interface IndexProxy extends MinimalIndexAccessor {
 
     ResourceIterator<Path> snapshotFiles() throws IOException;
 
+    /**
+     * Compacts the index, if it's online and supports it.
+     * @see IndexAccessor#compact(IOController, CursorContext)
+     */
+    default Optional<CompactionStatistics> compact(IOController ioController, CursorContext cursorContext) {
+        return Optional.empty();
+    }
+
     /**
      * Reports usage statistics since last reported, to the {@code consumer}.
      */
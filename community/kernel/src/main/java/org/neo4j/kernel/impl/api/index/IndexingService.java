@@ -44,6 +44,8 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
@@ -61,6 +63,7 @@ import org.neo4j.exceptions.KernelException;
 import org.neo4j.exceptions.UnderlyingStorageException;
 import org.neo4j.function.ThrowingConsumer;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.CompactionStatistics;
 import org.neo4j.internal.helpers.Format;
 import org.neo4j.internal.helpers.collection.Iterators;
 import org.neo4j.internal.kernel.api.IndexMonitor;
@@ -73,6 +76,7 @@ import org.neo4j.internal.schema.IndexType;
 import org.neo4j.internal.schema.SchemaState;
 import org.neo4j.internal.schema.StorageEngineIndexingBehaviour;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
@@ -96,6 +100,7 @@ import org.neo4j.logging.InternalLogProvider;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
 import org.neo4j.storageengine.api.IndexUpdateListener;
@@ -123,6 +128,7 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
     private static final String INDEX_SERVICE_INDEX_CLOSING_TAG = "indexServiceIndexClosing";
     private static final String INIT_TAG = "Initialize IndexingService";
     private static final String START_TAG = "Start index population";
+    private static final String INDEX_COMPACTION_TAG = "indexCompaction";
     public static final int USAGE_REPORT_FREQUENCY_SECONDS = 10;
 
     private final IndexSamplingController samplingController;
@@ -148,6 +154,7 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
     private final StorageEngineIndexingBehaviour storageEngineIndexingBehaviour;
     private final KernelVersionProvider kernelVersionProvider;
     private final IndexDropController indexDropController;
+    private final Map<Long, IndexCompactionStatus> compactionStatuses = new ConcurrentHashMap<>();
 
     private volatile JobHandle<?> usageReportJob;
 
@@ -636,6 +643,61 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
         samplingController.sampleIndex(index.getId(), mode);
     }
 
+    /**
+     * Schedules compaction of the given index in the background, see {@link IndexProxy#compact(IOController, CursorContext)}.
+     * If the index is already being compacted no new compaction is scheduled.
+     * Progress can be followed with {@link #indexCompactionStatus(IndexDescriptor)}.
+     *
+     * @return status of the compaction of the given index.
+     */
+    public IndexCompactionStatus compactIndex(IndexDescriptor index, IOController ioController)
+            throws IndexNotFoundKernelException {
+        IndexProxy proxy = getIndexProxy(index);
+        String description = index.userDescription(tokenNameLookup);
+        IndexCompactionStatus previous = compactionStatuses.get(index.getId());
+        if (previous != null && previous.state() == IndexCompactionStatus.State.RUNNING) {
+            return previous;
+        }
+        internalLog.info("Manual trigger for compacting index " + description);
+        compactionStatuses.put(index.getId(), IndexCompactionStatus.RUNNING);
+        jobScheduler.schedule(
+                Group.INDEX_COMPACTION,
+                JobMonitoringParams.systemJob(databaseName, "Compaction of index '" + description + "'"),
+                () -> compactionStatuses.put(index.getId(), compact(proxy, description, ioController)));
+        return IndexCompactionStatus.RUNNING;
+    }
+
+    /**
+     * @return status of the latest compaction of the given index, or empty if it hasn't been compacted since startup.
+     */
+    public Optional<IndexCompactionStatus> indexCompactionStatus(IndexDescriptor index) {
+        return Optional.ofNullable(compactionStatuses.get(index.getId()));
+    }
+
+    private IndexCompactionStatus compact(IndexProxy proxy, String description, IOController ioController) {
+        try (var cursorContext = contextFactory.create(INDEX_COMPACTION_TAG)) {
+            Optional<CompactionStatistics> statistics = proxy.compact(ioController, cursorContext);
+            if (statistics.isEmpty()) {
+                internalLog.info(
+                        "Index %s wasn't compacted, it isn't online or doesn't support compaction", description);
+                return IndexCompactionStatus.failed("Index isn't online or doesn't support compaction");
+            }
+            CompactionStatistics stats = statistics.get();
+            internalLog.info(
+                    "Compacted index %s, leaves %d -> %d, fill factor %.2f -> %.2f, relocated leaves %d",
+                    description,
+                    stats.leafCountBefore(),
+                    stats.leafCountAfter(),
+                    stats.fillFactorBefore(),
+                    stats.fillFactorAfter(),
+                    stats.relocatedLeaves());
+            return IndexCompactionStatus.completed(stats);
+        } catch (Throwable t) {
+            internalLog.error("Failed to compact index " + description, t);
+            return IndexCompactionStatus.failed(t.getMessage());
+        }
+    }
+
     private static void dropRecoveringIndexes(IndexMap indexMap, LongIterable indexesToRebuild) {
         indexesToRebuild.forEach(idx -> {
             IndexProxy indexProxy = indexMap.removeIndexProxy(idx);
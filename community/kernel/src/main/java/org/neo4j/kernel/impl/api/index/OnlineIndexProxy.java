@@ -22,11 +22,14 @@ package org.neo4j.kernel.impl.api.index;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.CompactionStatistics;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.PopulationProgress;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.kernel.api.index.IndexAccessor;
@@ -190,6 +193,11 @@ public class OnlineIndexProxy implements IndexProxy {
         return accessor.snapshotFiles();
     }
 
+    @Override
+    public Optional<CompactionStatistics> compact(IOController ioController, CursorContext cursorContext) {
+        return accessor.compact(ioController, cursorContext);
+    }
+
     @Override
     public Map<String, Value> indexConfig() {
         return accessor.indexConfig();
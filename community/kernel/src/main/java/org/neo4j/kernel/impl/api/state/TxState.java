@@ -38,7 +38,9 @@ import java.util.TreeMap;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.eclipse.collections.impl.UnmodifiableMap;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.neo4j.collection.diffset.DiffSets;
 import org.neo4j.collection.diffset.LongDiffSets;
 import org.neo4j.collection.diffset.MutableDiffSets;
@@ -116,6 +118,7 @@ public class TxState implements TransactionState {
 
     private MutableMap<SchemaDescriptor, Map<ValueTuple, MutableLongDiffSets>> indexUpdates;
     private Upgrade.KernelUpgrade upgrade;
+    private MutableLongSet denseNodeConversions;
     private final ScopedMemoryTracker stateMemoryTracker;
     private final TransactionStateBehaviour behaviour;
     private final ApplyEnrichmentStrategy enrichmentStrategy;
@@ -261,6 +264,12 @@ public class TxState implements TransactionState {
         if (upgrade != null) {
             visitor.visitKernelUpgrade(upgrade);
         }
+
+        if (denseNodeConversions != null) {
+            for (long nodeId : denseNodeConversions.toSortedArray()) {
+                visitor.visitDenseNodeConversion(nodeId);
+            }
+        }
     }
 
     @Override
@@ -294,6 +303,7 @@ public class TxState implements TransactionState {
         relationships = null;
         createdConstraintIndexesByConstraint = null;
         indexUpdates = null;
+        denseNodeConversions = null;
 
         collectionsFactory.release();
         stateMemoryTracker.reset();
@@ -820,6 +830,16 @@ public class TxState implements TransactionState {
         changed();
     }
 
+    @Override
+    public void nodeDoConvertToDense(long nodeId) {
+        if (denseNodeConversions == null) {
+            denseNodeConversions = LongSets.mutable.empty();
+        }
+        if (denseNodeConversions.add(nodeId)) {
+            changed();
+        }
+    }
+
     @Override
     public MemoryTracker memoryTracker() {
         return stateMemoryTracker;
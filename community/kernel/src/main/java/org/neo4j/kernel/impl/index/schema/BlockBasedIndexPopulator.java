@@ -425,13 +425,35 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
                             samplingComparator,
                             cancellation,
                             PartMerger.DEFAULT_BATCH_SIZE);
-                    var allEntries = merger.startMerge();
-                    var writer = tree.writer(W_BATCHED_SINGLE_THREADED | W_SPLIT_KEEP_ALL_LEFT, cursorContext)) {
-                while (allEntries.next() && !cancellation.cancelled()) {
-                    writeToTree(writer, recordingConflictDetector, allEntries.key());
-                    numberOfAppliedScanUpdates.incrementAndGet();
+                    var allEntries = merger.startMerge()) {
+                if (descriptor.isUnique()) {
+                    try (var writer = tree.writer(W_BATCHED_SINGLE_THREADED | W_SPLIT_KEEP_ALL_LEFT, cursorContext)) {
+                        while (allEntries.next() && !cancellation.cancelled()) {
+                            writeToTree(writer, recordingConflictDetector, allEntries.key());
+                            numberOfAppliedScanUpdates.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }
+
+                // The merged entries of a non-unique index are sorted and can't conflict with each other since
+                // the entity id is part of the key, so the tree can be built bottom-up from them.
+                // The same entry can however have been added more than once, which the writer would simply have
+                // overwritten, so skip consecutive equal keys since the bulk loader requires strictly ascending keys
+                try (var bulkLoader = tree.bulkLoader(1, cursorContext)) {
+                    KEY previousKey = layout.newKey();
+                    boolean hasPreviousKey = false;
+                    while (allEntries.next() && !cancellation.cancelled()) {
+                        KEY key = allEntries.key();
+                        if (!hasPreviousKey || layout.compare(previousKey, key) != 0) {
+                            bulkLoader.add(key, NullValue.INSTANCE);
+                            layout.copyKey(key, previousKey);
+                            hasPreviousKey = true;
+                        }
+                        numberOfAppliedScanUpdates.incrementAndGet();
+                    }
                 }
-                return descriptor.isUnique() ? null : allEntries.buildIndexSample();
+                return allEntries.buildIndexSample();
             }
         }
     }
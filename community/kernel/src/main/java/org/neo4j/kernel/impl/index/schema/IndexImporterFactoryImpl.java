@@ -21,9 +21,11 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.nio.file.OpenOption;
 import org.eclipse.collections.api.set.ImmutableSet;
+import org.neo4j.configuration.Config;
 import org.neo4j.internal.batchimport.IndexImporter;
 import org.neo4j.internal.batchimport.IndexImporterFactory;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexType;
 import org.neo4j.internal.schema.StorageEngineIndexingBehaviour;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
@@ -32,6 +34,18 @@ import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 
 public class IndexImporterFactoryImpl implements IndexImporterFactory {
+    private final Config config;
+
+    public IndexImporterFactoryImpl() {
+        this(Config.defaults());
+    }
+
+    /**
+     * @param config database config, used for settings of the index populators.
+     */
+    public IndexImporterFactoryImpl(Config config) {
+        this.config = config;
+    }
 
     @Override
     public IndexImporter getImporter(
@@ -43,7 +57,22 @@ public class IndexImporterFactoryImpl implements IndexImporterFactory {
             PageCacheTracer pageCacheTracer,
             ImmutableSet<OpenOption> openOptions,
             StorageEngineIndexingBehaviour indexingBehaviour) {
-        return new TokenIndexImporter(
-                index, layout, fs, pageCache, contextFactory, pageCacheTracer, openOptions, indexingBehaviour);
+        if (index.isTokenIndex()) {
+            return new TokenIndexImporter(
+                    index, layout, fs, pageCache, contextFactory, pageCacheTracer, openOptions, indexingBehaviour);
+        }
+        if (index.getIndexType() == IndexType.RANGE) {
+            return new RangeIndexImporter(
+                    index,
+                    layout,
+                    fs,
+                    pageCache,
+                    contextFactory,
+                    pageCacheTracer,
+                    openOptions,
+                    indexingBehaviour,
+                    config);
+        }
+        throw new IllegalArgumentException("Index " + index + " can't be populated during import");
     }
 }
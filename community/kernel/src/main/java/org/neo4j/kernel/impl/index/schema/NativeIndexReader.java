@@ -24,6 +24,8 @@ import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRA
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -34,6 +36,7 @@ import org.neo4j.internal.kernel.api.PropertyIndexQuery;
 import org.neo4j.internal.kernel.api.PropertyIndexQuery.IncomparableExactPredicate;
 import org.neo4j.internal.kernel.api.PropertyIndexQuery.IncomparableRangePredicate;
 import org.neo4j.internal.kernel.api.QueryContext;
+import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexOrder;
@@ -135,6 +138,89 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>> implements Val
                 cursor, treeKeyFrom, treeKeyTo, context.cursorContext(), needFilter, constraints, predicates);
     }
 
+    /**
+     * Serves the whole batch with a single {@link GBPTree#multiSeek(Object[], Object[], CursorContext) multi-seek}
+     * over the tree, with the ranges of the queries in key order. This way lookups landing in the same leaf
+     * are read from there without traversing down from the root for each one of them.
+     * Falls back to running the queries one by one when results need to be filtered or come in descending order.
+     */
+    @Override
+    public void batchQuery(
+            IndexProgressor.EntityValueClient client,
+            QueryContext context,
+            IndexQueryConstraints constraints,
+            PropertyIndexQuery.ExactPredicate[]... queries)
+            throws IndexNotApplicableKernelException {
+        if (queries.length == 0) {
+            return;
+        }
+        if (constraints.order() == IndexOrder.DESCENDING) {
+            ValueIndexReader.super.batchQuery(client, context, constraints, queries);
+            return;
+        }
+
+        List<KEY> treeKeysFrom = new ArrayList<>(queries.length);
+        List<KEY> treeKeysTo = new ArrayList<>(queries.length);
+        for (PropertyIndexQuery.ExactPredicate[] query : queries) {
+            validateQuery(constraints, query);
+            if (isEmptyResultQuery(query)) {
+                continue;
+            }
+            KEY treeKeyFrom = layout.newKey();
+            KEY treeKeyTo = layout.newKey();
+            initializeFromToKeys(treeKeyFrom, treeKeyTo);
+            if (initializeRangeForQuery(treeKeyFrom, treeKeyTo, query)) {
+                // Results need to be filtered by each query on its own
+                ValueIndexReader.super.batchQuery(client, context, constraints, queries);
+                return;
+            }
+            if (!isEmptyRange(treeKeyFrom, treeKeyTo)) {
+                treeKeysFrom.add(treeKeyFrom);
+                treeKeysTo.add(treeKeyTo);
+            }
+        }
+        context.monitor().queried(descriptor);
+        usageTracker.queried();
+
+        if (treeKeysFrom.isEmpty()) {
+            client.initialize(descriptor, IndexProgressor.EMPTY, false, false, constraints, queries[0]);
+            return;
+        }
+        try {
+            Seeker<KEY, NullValue> seeker = makeIndexMultiSeeker(treeKeysFrom, treeKeysTo, context.cursorContext());
+            client.initialize(
+                    descriptor, new NativeHitIndexProgressor<>(seeker, client), false, false, constraints, queries[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sorts the ranges, all in forward direction, by their start keys and drops duplicates so that they can be
+     * seeked in one go.
+     */
+    @SuppressWarnings("unchecked")
+    private Seeker<KEY, NullValue> makeIndexMultiSeeker(
+            List<KEY> treeKeysFrom, List<KEY> treeKeysTo, CursorContext cursorContext) throws IOException {
+        Integer[] order = new Integer[treeKeysFrom.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, (a, b) -> layout.compare(treeKeysFrom.get(a), treeKeysFrom.get(b)));
+
+        KEY[] fromInclusive = (KEY[]) new NativeIndexKey[order.length];
+        KEY[] toExclusive = (KEY[]) new NativeIndexKey[order.length];
+        int count = 0;
+        for (int i : order) {
+            KEY treeKeyFrom = treeKeysFrom.get(i);
+            if (count > 0 && layout.compare(fromInclusive[count - 1], treeKeyFrom) == 0) {
+                continue;
+            }
+            fromInclusive[count] = treeKeyFrom;
+            toExclusive[count] = treeKeysTo.get(i);
+            count++;
+        }
+        return tree.multiSeek(Arrays.copyOf(fromInclusive, count), Arrays.copyOf(toExclusive, count), cursorContext);
+    }
+
     void initializeFromToKeys(KEY treeKeyFrom, KEY treeKeyTo) {
         treeKeyFrom.initialize(Long.MIN_VALUE);
         treeKeyTo.initialize(Long.MAX_VALUE);
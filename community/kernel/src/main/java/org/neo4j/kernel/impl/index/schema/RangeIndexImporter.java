@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import static org.neo4j.collection.Dependencies.dependenciesOf;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.index_populator_block_size;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.schema.SchemaUserDescription.TOKEN_ID_NAME_LOOKUP;
+import static org.neo4j.io.IOUtils.closeAll;
+import static org.neo4j.io.pagecache.impl.muninn.VersionStorage.EMPTY_STORAGE;
+import static org.neo4j.kernel.api.index.IndexDirectoryStructure.directoriesByProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.OpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.collections.api.set.ImmutableSet;
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.batchimport.IndexImporter;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.StorageEngineIndexingBehaviour;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.memory.ByteBufferFactory;
+import org.neo4j.io.memory.UnsafeDirectByteBufferAllocator;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
+import org.neo4j.kernel.impl.api.index.PhaseTracker;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.ValueIndexEntryUpdate;
+import org.neo4j.values.storable.Value;
+
+/**
+ * {@link IndexImporter} for range indexes, populated from the entities as they are imported. Entries are handed to
+ * a {@link BlockBasedIndexPopulator}, which keeps them in sorted blocks on disk and, when this importer is closed,
+ * merges the blocks and builds the tree from the sorted entries. This is the same population as when the index is
+ * created in a running database, only without the store scan.
+ * <p>
+ * An entry which can't be indexed, e.g. a value which is too large, fails the index and not the import, leaving
+ * the index in a failed state just as it would had the index been populated by a store scan.
+ */
+public class RangeIndexImporter implements IndexImporter {
+    private static final String RANGE_INDEX_IMPORTER_TAG = "rangeIndexImporter";
+    private static final int WRITER_BATCH_SIZE = 1_000;
+
+    private final IndexDescriptor index;
+    private final ByteBufferFactory bufferFactory;
+    private final IndexPopulator populator;
+    private final CursorContext cursorContext;
+    private final List<BatchingWriter> writers = new CopyOnWriteArrayList<>();
+    private IndexUpdater removals;
+    private volatile String failure;
+
+    RangeIndexImporter(
+            IndexDescriptor index,
+            DatabaseLayout layout,
+            FileSystemAbstraction fs,
+            PageCache pageCache,
+            CursorContextFactory contextFactory,
+            PageCacheTracer pageCacheTracer,
+            ImmutableSet<OpenOption> openOptions,
+            StorageEngineIndexingBehaviour indexingBehaviour,
+            Config config) {
+        this.index = index;
+        this.cursorContext = contextFactory.create(RANGE_INDEX_IMPORTER_TAG);
+        var context = DatabaseIndexContext.builder(
+                        pageCache, fs, contextFactory, pageCacheTracer, layout.getDatabaseName())
+                .withDependencyResolver(dependenciesOf(EMPTY_STORAGE))
+                .build();
+        var provider =
+                new RangeIndexProvider(context, directoriesByProvider(layout.databaseDirectory()), immediate(), config);
+        this.bufferFactory = new ByteBufferFactory(
+                UnsafeDirectByteBufferAllocator::new,
+                config.get(index_populator_block_size).intValue());
+        this.populator = provider.getPopulator(
+                index,
+                new IndexSamplingConfig(config),
+                bufferFactory,
+                EmptyMemoryTracker.INSTANCE,
+                TOKEN_ID_NAME_LOOKUP,
+                openOptions,
+                indexingBehaviour);
+        try {
+            populator.create();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Writer writer(boolean parallel) {
+        // Each writer batches its own entries, so they are all safe to use concurrently
+        BatchingWriter writer = new BatchingWriter();
+        writers.add(writer);
+        return writer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        boolean completed = false;
+        try {
+            for (BatchingWriter writer : writers) {
+                writer.flush();
+            }
+            if (failure == null) {
+                try {
+                    if (removals != null) {
+                        removals.close();
+                    }
+                    populator.scanCompleted(PhaseTracker.nullInstance, SameThreadScheduler.INSTANCE, cursorContext);
+                    completed = true;
+                } catch (IndexEntryConflictException | RuntimeException e) {
+                    fail(e);
+                }
+            }
+            if (!completed) {
+                populator.markAsFailed(failure);
+            }
+        } finally {
+            boolean success = completed;
+            closeAll(() -> populator.close(success, cursorContext), bufferFactory, cursorContext);
+        }
+    }
+
+    @Override
+    public void abort() throws IOException {
+        // Closing the populator w/o completing or failing it leaves the index in the populating state,
+        // which means that the database will populate it when it starts
+        closeAll(() -> populator.close(false, cursorContext), bufferFactory, cursorContext);
+    }
+
+    private synchronized void remove(long entity, Value[] values) {
+        try {
+            if (removals == null) {
+                removals = populator.newPopulatingUpdater(cursorContext);
+            }
+            removals.process(IndexEntryUpdate.remove(entity, index, values));
+        } catch (IndexEntryConflictException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void fail(Exception e) {
+        if (failure == null) {
+            failure = Objects.toString(e.getMessage(), e.toString());
+        }
+    }
+
+    private class BatchingWriter implements Writer {
+        private final List<ValueIndexEntryUpdate<?>> batch = new ArrayList<>(WRITER_BATCH_SIZE);
+
+        @Override
+        public void add(long entity, Value[] values) {
+            batch.add(IndexEntryUpdate.add(entity, index, values));
+            if (batch.size() == WRITER_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        @Override
+        public void remove(long entity, Value[] values) {
+            RangeIndexImporter.this.remove(entity, values);
+        }
+
+        @Override
+        public void add(long entity, int[] tokens) {
+            throw new UnsupportedOperationException("Not a token index");
+        }
+
+        @Override
+        public void remove(long entity, int[] tokens) {
+            throw new UnsupportedOperationException("Not a token index");
+        }
+
+        @Override
+        public void yield() {}
+
+        @Override
+        public void close() {
+            flush();
+        }
+
+        synchronized void flush() {
+            if (!batch.isEmpty()) {
+                if (failure == null) {
+                    try {
+                        populator.add(batch, cursorContext);
+                    } catch (IndexEntryConflictException | IllegalArgumentException e) {
+                        fail(e);
+                    }
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * The import has already put all its threads to use by the time the index is built, so the merge of the
+     * sorted blocks is done by the thread closing the importer.
+     */
+    private static class SameThreadScheduler implements IndexPopulator.PopulationWorkScheduler {
+        static final SameThreadScheduler INSTANCE = new SameThreadScheduler();
+
+        @Override
+        public <T> JobHandle<T> schedule(IndexPopulator.JobDescriptionSupplier descriptionSupplier, Callable<T> job) {
+            T result;
+            try {
+                result = job.call();
+            } catch (Exception e) {
+                return new FailedJobHandle<>(e);
+            }
+            return new CompletedJobHandle<>(result);
+        }
+    }
+
+    private record CompletedJobHandle<T>(T result) implements JobHandle<T> {
+        @Override
+        public void cancel() {}
+
+        @Override
+        public void waitTermination() {}
+
+        @Override
+        public void waitTermination(long timeout, TimeUnit unit) {}
+
+        @Override
+        public T get() {
+            return result;
+        }
+    }
+
+    private record FailedJobHandle<T>(Exception cause) implements JobHandle<T> {
+        @Override
+        public void cancel() {}
+
+        @Override
+        public void waitTermination() throws ExecutionException {
+            throw new ExecutionException(cause);
+        }
+
+        @Override
+        public void waitTermination(long timeout, TimeUnit unit) throws ExecutionException {
+            throw new ExecutionException(cause);
+        }
+
+        @Override
+        public T get() throws ExecutionException {
+            throw new ExecutionException(cause);
+        }
+    }
+}
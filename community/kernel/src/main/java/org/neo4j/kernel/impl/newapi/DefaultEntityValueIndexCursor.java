@@ -37,11 +37,14 @@ import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithV
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import org.eclipse.collections.api.iterator.LongIterator;
 import org.eclipse.collections.api.set.primitive.ImmutableLongSet;
 import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.eclipse.collections.impl.iterator.ImmutableEmptyLongIterator;
 import org.neo4j.internal.kernel.api.IndexQueryConstraints;
@@ -66,6 +69,8 @@ abstract class DefaultEntityValueIndexCursor<CURSOR> extends IndexCursor<IndexPr
     protected long entity;
     private float score;
     private PropertyIndexQuery[] query;
+    private PropertyIndexQuery.ExactPredicate[][] pendingBatchQueries;
+    private PropertyIndexQuery.ExactPredicate[][] batchQueries;
     private Value[] values;
 
     private LongIterator added = ImmutableEmptyLongIterator.INSTANCE;
@@ -102,6 +107,8 @@ abstract class DefaultEntityValueIndexCursor<CURSOR> extends IndexCursor<IndexPr
         sortedMergeJoin.initialize(indexOrder);
 
         this.query = query;
+        this.batchQueries = pendingBatchQueries;
+        this.pendingBatchQueries = null;
 
         if (tracer != null) {
             tracer.onIndexSeek();
@@ -109,7 +116,11 @@ abstract class DefaultEntityValueIndexCursor<CURSOR> extends IndexCursor<IndexPr
 
         shortcutSecurity = setupSecurity(descriptor);
 
-        if (!indexIncludesTransactionState && read.hasTxStateWithChanges() && query.length > 0) {
+        if (!indexIncludesTransactionState && read.hasTxStateWithChanges() && batchQueries != null) {
+            // All the queries of a batch are exact, no need to order
+            this.indexOrder = IndexOrder.NONE;
+            batchSeekQuery(descriptor, batchQueries);
+        } else if (!indexIncludesTransactionState && read.hasTxStateWithChanges() && query.length > 0) {
             // Extract out the equality queries
             List<Value> exactQueryValues = new ArrayList<>(query.length);
             int i = 0;
@@ -180,6 +191,11 @@ abstract class DefaultEntityValueIndexCursor<CURSOR> extends IndexCursor<IndexPr
         }
     }
 
+    @Override
+    public final void prepareBatchQuery(PropertyIndexQuery.ExactPredicate[][] queries) {
+        this.pendingBatchQueries = queries;
+    }
+
     /**
      * If we require order, we can only do the merge sort if we also get values.
      * This implicitly relies on the fact that if we can get order, we can also get values.
@@ -210,6 +226,14 @@ abstract class DefaultEntityValueIndexCursor<CURSOR> extends IndexCursor<IndexPr
         if (!needStoreFilter) {
             return true;
         }
+        if (batchQueries != null) {
+            for (PropertyIndexQuery.ExactPredicate[] batchQuery : batchQueries) {
+                if (doStoreValuePassesQueryFilter(reference, propertySelection, batchQuery)) {
+                    return true;
+                }
+            }
+            return false;
+        }
         return doStoreValuePassesQueryFilter(reference, propertySelection, query);
     }
 
@@ -439,6 +463,44 @@ abstract class DefaultEntityValueIndexCursor<CURSOR> extends IndexCursor<IndexPr
         }
     }
 
+    private void batchSeekQuery(IndexDescriptor descriptor, PropertyIndexQuery.ExactPredicate[][] queries) {
+        TransactionState txState = read.txState();
+        MutableLongSet removedFromIndex = LongSets.mutable.empty();
+        Set<ValueTuple> seekedValues = new HashSet<>();
+        if (needsValues) {
+            List<EntityWithPropertyValues> addedToIndex = new ArrayList<>();
+            for (PropertyIndexQuery.ExactPredicate[] batchQuery : queries) {
+                ValueTuple values = exactValues(batchQuery);
+                if (seekedValues.add(values)) {
+                    AddedWithValuesAndRemoved changes = indexUpdatesWithValuesForSeek(txState, descriptor, values);
+                    changes.added().forEach(addedToIndex::add);
+                    removedFromIndex.addAll(changes.removed());
+                }
+            }
+            addedWithValues = addedToIndex.iterator();
+        } else {
+            MutableLongSet addedToIndex = LongSets.mutable.empty();
+            for (PropertyIndexQuery.ExactPredicate[] batchQuery : queries) {
+                ValueTuple values = exactValues(batchQuery);
+                if (seekedValues.add(values)) {
+                    AddedAndRemoved changes = indexUpdatesForSeek(txState, descriptor, values);
+                    addedToIndex.addAll(changes.added());
+                    removedFromIndex.addAll(changes.removed());
+                }
+            }
+            added = addedToIndex.longIterator();
+        }
+        removed = removed(txState, removedFromIndex);
+    }
+
+    private static ValueTuple exactValues(PropertyIndexQuery.ExactPredicate[] query) {
+        Value[] values = new Value[query.length];
+        for (int i = 0; i < query.length; i++) {
+            values[i] = query[i].value();
+        }
+        return ValueTuple.of(values);
+    }
+
     final long entityReference() {
         return entity;
     }
@@ -38,6 +38,7 @@ import org.neo4j.internal.kernel.api.security.ReadSecurityPropertyProvider;
 import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.storageengine.api.AllNodeScan;
 import org.neo4j.storageengine.api.Degrees;
+import org.neo4j.storageengine.api.NodeBatch;
 import org.neo4j.storageengine.api.PropertySelection;
 import org.neo4j.storageengine.api.Reference;
 import org.neo4j.storageengine.api.RelationshipSelection;
@@ -419,6 +420,15 @@ class DefaultNodeCursor extends TraceableCursorImpl<DefaultNodeCursor> implement
         return false;
     }
 
+    @Override
+    public int nextBatch(NodeBatch batch) {
+        if (tracer != null || hasChanges() || !read.getAccessMode().allowsTraverseAllLabels()) {
+            return NodeCursor.super.nextBatch(batch);
+        }
+        // Nothing in tx state and nothing to filter out, the batch can be filled straight from the store
+        return storeCursor.nextBatch(batch);
+    }
+
     protected boolean allowsTraverse() {
         return allowsTraverse(storeCursor);
     }
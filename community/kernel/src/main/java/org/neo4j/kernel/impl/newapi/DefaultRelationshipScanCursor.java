@@ -27,6 +27,7 @@ import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
 import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.storageengine.api.AllRelationshipsScan;
+import org.neo4j.storageengine.api.RelationshipBatch;
 import org.neo4j.storageengine.api.StorageRelationshipScanCursor;
 
 class DefaultRelationshipScanCursor extends DefaultRelationshipCursor implements RelationshipScanCursor {
@@ -112,6 +113,19 @@ class DefaultRelationshipScanCursor extends DefaultRelationshipCursor implements
         return false;
     }
 
+    @Override
+    public int nextBatch(RelationshipBatch batch) {
+        AccessMode accessMode = read.getAccessMode();
+        if (tracer != null
+                || hasChanges()
+                || !accessMode.allowsTraverseAllRelTypes()
+                || !accessMode.allowsTraverseAllLabels()) {
+            return RelationshipScanCursor.super.nextBatch(batch);
+        }
+        // Nothing in tx state and nothing to filter out, the batch can be filled straight from the store
+        return storeCursor.nextBatch(batch);
+    }
+
     protected boolean allowed() {
         AccessMode accessMode = read.getAccessMode();
         return accessMode.allowsTraverseRelType(storeCursor.type()) && allowedToSeeEndNode(accessMode);
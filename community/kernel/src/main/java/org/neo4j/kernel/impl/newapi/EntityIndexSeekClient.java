@@ -33,4 +33,13 @@ import org.neo4j.kernel.api.index.IndexProgressor;
  */
 public interface EntityIndexSeekClient extends IndexProgressor.EntityValueClient {
     void setRead(Read read);
+
+    /**
+     * Called before and after a {@link org.neo4j.kernel.api.index.ValueIndexReader#batchQuery batch query}, which only
+     * initializes the client with the first of its queries. Clients that need all of them, e.g. to apply transaction state,
+     * should keep them for the coming initialization.
+     *
+     * @param queries all queries of the batch, or {@code null} when done with the batch query.
+     */
+    default void prepareBatchQuery(PropertyIndexQuery.ExactPredicate[][] queries) {}
 }
@@ -315,6 +315,18 @@ public class Operations implements Write, SchemaWrite, Upgrade {
         return deletedRelationships;
     }
 
+    @Override
+    public boolean nodeConvertToDense(long node) {
+        ktx.assertOpen();
+        storageLocks.acquireExclusiveNodeLock(ktx.lockTracer(), node);
+        allStoreHolder.singleNode(node, nodeCursor);
+        if (!nodeCursor.next() || nodeCursor.supportsFastDegreeLookup()) {
+            return false;
+        }
+        ktx.txState().nodeDoConvertToDense(node);
+        return true;
+    }
+
     @Override
     public long relationshipCreate(long sourceNode, int relationshipType, long targetNode)
             throws EntityNotFoundException {
@@ -123,6 +123,37 @@ abstract class Read
         indexSession.reader.query(client, queryContext, constraints, query);
     }
 
+    @Override
+    public final void nodeIndexSeekBatch(
+            QueryContext queryContext,
+            IndexReadSession index,
+            NodeValueIndexCursor cursor,
+            IndexQueryConstraints constraints,
+            PropertyIndexQuery.ExactPredicate[]... queries)
+            throws IndexNotApplicableKernelException {
+        performCheckBeforeOperation();
+        DefaultIndexReadSession indexSession = (DefaultIndexReadSession) index;
+        validateConstraints(constraints, indexSession);
+        if (constraints.isOrdered()) {
+            throw new IllegalArgumentException("Results of a batch of index seeks can not be ordered, but "
+                    + constraints.order() + " order was requested");
+        }
+
+        if (indexSession.reference.schema().entityType() != EntityType.NODE) {
+            throw new IndexNotApplicableKernelException("Node index seek can not be performed on index: "
+                    + index.reference().userDescription(tokenRead));
+        }
+
+        EntityIndexSeekClient client = (EntityIndexSeekClient) cursor;
+        client.setRead(this);
+        client.prepareBatchQuery(queries);
+        try {
+            indexSession.reader.batchQuery(client, queryContext, constraints, queries);
+        } finally {
+            client.prepareBatchQuery(null);
+        }
+    }
+
     @Override
     public PartitionedScan<NodeValueIndexCursor> nodeIndexSeek(
             IndexReadSession index,
@@ -602,6 +633,12 @@ abstract class Read
         storageLocks.acquireExclusiveNodeLock(lockTracer, ids);
     }
 
+    @Override
+    public boolean tryExclusiveNodeLock(long id) {
+        performCheckBeforeOperation();
+        return storageLocks.tryExclusiveNodeLock(id);
+    }
+
     @Override
     public void acquireExclusiveRelationshipLock(long... ids) {
         performCheckBeforeOperation();
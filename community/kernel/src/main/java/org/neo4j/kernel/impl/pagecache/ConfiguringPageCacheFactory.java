@@ -35,10 +35,12 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.os.OsBeanUtil;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageChecksumMismatchHandler;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.recovery.RecoveryMonitor;
 import org.neo4j.logging.InternalLog;
 import org.neo4j.memory.MachineMemory;
 import org.neo4j.memory.MemoryPools;
@@ -56,6 +58,7 @@ public class ConfiguringPageCacheFactory {
     private final SystemNanoClock clock;
     private final MemoryPools memoryPools;
     private final Function<MuninnPageCache.Configuration, MuninnPageCache.Configuration> pageCacheConfigurator;
+    private final RecoveryAwareChecksumMismatchHandler checksumMismatchHandler;
 
     public ConfiguringPageCacheFactory(
             FileSystemAbstraction fs,
@@ -96,6 +99,8 @@ public class ConfiguringPageCacheFactory {
         this.clock = clock;
         this.memoryPools = memoryPools;
         this.pageCacheConfigurator = pageCacheConfigurator;
+        this.checksumMismatchHandler =
+                new RecoveryAwareChecksumMismatchHandler(checksumMismatchHandler(config, log), logMismatch(log));
     }
 
     public synchronized PageCache getOrCreatePageCache() {
@@ -123,11 +128,34 @@ public class ConfiguringPageCacheFactory {
                 .preallocateStoreFiles(config.get(preallocate_store_files))
                 .clock(clock)
                 .pageCacheTracer(pageCacheTracer)
-                .closeAllocatorOnShutdown(config.get(GraphDatabaseInternalSettings.close_allocator_on_shutdown));
+                .closeAllocatorOnShutdown(config.get(GraphDatabaseInternalSettings.close_allocator_on_shutdown))
+                .checksumVerificationRatio(
+                        config.get(GraphDatabaseInternalSettings.page_cache_checksum_verification_ratio))
+                .checksumMismatchHandler(checksumMismatchHandler);
         configuration = pageCacheConfigurator.apply(configuration);
         return new MuninnPageCache(swapperFactory, scheduler, configuration);
     }
 
+    /**
+     * Mismatches found in files of databases that are being recovered are only logged, whatever the configured action,
+     * since recovery is what repairs pages torn by a crash. This monitor must be registered with the monitors that
+     * recovery reports to for that to work.
+     */
+    public RecoveryMonitor checksumMismatchRecoveryMonitor() {
+        return checksumMismatchHandler;
+    }
+
+    private static PageChecksumMismatchHandler checksumMismatchHandler(Config config, InternalLog log) {
+        return switch (config.get(GraphDatabaseInternalSettings.page_cache_checksum_mismatch_action)) {
+            case LOG -> logMismatch(log);
+            case FAIL -> PageChecksumMismatchHandler.FAIL;
+        };
+    }
+
+    private static PageChecksumMismatchHandler logMismatch(InternalLog log) {
+        return (file, filePageId) -> log.warn("Checksum mismatch in page %d of %s", filePageId, file);
+    }
+
     private static MemoryAllocator buildMemoryAllocator(
             long pageCacheMaxMemory, Long grabSize, MemoryTracker memoryTracker) {
         return createAllocator(pageCacheMaxMemory, grabSize, memoryTracker);
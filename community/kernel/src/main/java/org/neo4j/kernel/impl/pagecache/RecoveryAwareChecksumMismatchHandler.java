@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageChecksumMismatchHandler;
+import org.neo4j.kernel.recovery.RecoveryMonitor;
+
+/**
+ * Hands checksum mismatches to the configured handler, except for mismatches in files of databases that are being
+ * recovered. A page can legitimately be torn by a crash, in which case recovery rewrites it, so those mismatches are
+ * only handed to a handler which doesn't fail the read. Databases are known to be recovered from the
+ * {@link RecoveryMonitor} events, so this must be registered as a listener of the monitors that recovery reports to.
+ */
+public class RecoveryAwareChecksumMismatchHandler implements PageChecksumMismatchHandler, RecoveryMonitor {
+    private final PageChecksumMismatchHandler handler;
+    private final PageChecksumMismatchHandler recoveryHandler;
+    private final Set<Path> recoveringDatabaseDirectories = ConcurrentHashMap.newKeySet();
+
+    public RecoveryAwareChecksumMismatchHandler(
+            PageChecksumMismatchHandler handler, PageChecksumMismatchHandler recoveryHandler) {
+        this.handler = handler;
+        this.recoveryHandler = recoveryHandler;
+    }
+
+    @Override
+    public void mismatch(Path file, long filePageId) throws IOException {
+        for (Path databaseDirectory : recoveringDatabaseDirectories) {
+            if (file.startsWith(databaseDirectory)) {
+                recoveryHandler.mismatch(file, filePageId);
+                return;
+            }
+        }
+        handler.mismatch(file, filePageId);
+    }
+
+    @Override
+    public void recoveryProcessStarted(DatabaseLayout databaseLayout) {
+        recoveringDatabaseDirectories.add(databaseLayout.databaseDirectory());
+    }
+
+    @Override
+    public void recoveryProcessEnded(DatabaseLayout databaseLayout) {
+        recoveringDatabaseDirectories.remove(databaseLayout.databaseDirectory());
+    }
+}
@@ -77,6 +77,7 @@ public class AcrossEngineMigrationParticipant extends AbstractStoreMigrationPart
     private final StorageEngineFactory srcStorageEngine;
     private final StorageEngineFactory targetStorageEngine;
     private final boolean forceBtreeIndexesToRange;
+    private final ReadBehaviour readBehaviour;
 
     public AcrossEngineMigrationParticipant(
             FileSystemAbstraction fileSystem,
@@ -90,6 +91,34 @@ public class AcrossEngineMigrationParticipant extends AbstractStoreMigrationPart
             StorageEngineFactory srcStorageEngine,
             StorageEngineFactory targetStorageEngine,
             boolean forceBtreeIndexesToRange) {
+        this(
+                fileSystem,
+                pageCache,
+                pageCacheTracer,
+                config,
+                logService,
+                jobScheduler,
+                contextFactory,
+                memoryTracker,
+                srcStorageEngine,
+                targetStorageEngine,
+                forceBtreeIndexesToRange,
+                ReadBehaviour.INCLUSIVE_STRICT);
+    }
+
+    public AcrossEngineMigrationParticipant(
+            FileSystemAbstraction fileSystem,
+            PageCache pageCache,
+            PageCacheTracer pageCacheTracer,
+            Config config,
+            LogService logService,
+            JobScheduler jobScheduler,
+            CursorContextFactory contextFactory,
+            MemoryTracker memoryTracker,
+            StorageEngineFactory srcStorageEngine,
+            StorageEngineFactory targetStorageEngine,
+            boolean forceBtreeIndexesToRange,
+            ReadBehaviour readBehaviour) {
         super(NAME);
         this.fileSystem = fileSystem;
         this.pageCache = pageCache;
@@ -102,6 +131,7 @@ public class AcrossEngineMigrationParticipant extends AbstractStoreMigrationPart
         this.srcStorageEngine = srcStorageEngine;
         this.targetStorageEngine = targetStorageEngine;
         this.forceBtreeIndexesToRange = forceBtreeIndexesToRange;
+        this.readBehaviour = readBehaviour;
     }
 
     @Override
@@ -158,7 +188,7 @@ public class AcrossEngineMigrationParticipant extends AbstractStoreMigrationPart
                 pageCacheTracer,
                 localConfig,
                 memoryTracker,
-                ReadBehaviour.INCLUSIVE_STRICT,
+                readBehaviour,
                 false,
                 contextFactory,
                 tailMetadata)) {
@@ -27,6 +27,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.neo4j.configuration.Config;
+import org.neo4j.internal.batchimport.ReadBehaviour;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
@@ -44,12 +45,36 @@ public class StorageEngineMigrationAbstraction {
     private final StorageEngineFactory storageEngineFactory;
     private final StorageEngineFactory targetStorageEngineFactory;
     private final boolean migrationAcrossEngine;
+    private final ReadBehaviour copyReadBehaviour;
 
     StorageEngineMigrationAbstraction(
             StorageEngineFactory storageEngineFactory, StorageEngineFactory targetStorageEngineFactory) {
+        this(
+                storageEngineFactory,
+                targetStorageEngineFactory,
+                storageEngineFactory.id() != targetStorageEngineFactory.id(),
+                ReadBehaviour.INCLUSIVE_STRICT);
+    }
+
+    private StorageEngineMigrationAbstraction(
+            StorageEngineFactory storageEngineFactory,
+            StorageEngineFactory targetStorageEngineFactory,
+            boolean migrationAcrossEngine,
+            ReadBehaviour copyReadBehaviour) {
         this.storageEngineFactory = storageEngineFactory;
         this.targetStorageEngineFactory = targetStorageEngineFactory;
-        this.migrationAcrossEngine = storageEngineFactory.id() != targetStorageEngineFactory.id();
+        this.migrationAcrossEngine = migrationAcrossEngine;
+        this.copyReadBehaviour = copyReadBehaviour;
+    }
+
+    /**
+     * A reorganization copies the store into the same version of the same storage engine, the same way as a migration
+     * across engines does, but reading the relationships in node order so that the records of each node end up
+     * next to each other in the copy.
+     */
+    static StorageEngineMigrationAbstraction forReorganization(StorageEngineFactory storageEngineFactory) {
+        return new StorageEngineMigrationAbstraction(
+                storageEngineFactory, storageEngineFactory, true, ReadBehaviour.INCLUSIVE_STRICT_NODE_ORDER);
     }
 
     StorageEngineFactory getStorageEngineFactory() {
@@ -107,7 +132,8 @@ public class StorageEngineMigrationAbstraction {
                     memoryTracker,
                     storageEngineFactory,
                     targetStorageEngineFactory,
-                    forceBtreeIndexesToRange));
+                    forceBtreeIndexesToRange,
+                    copyReadBehaviour));
         } else {
             // Get all the participants from the storage engine and add them where they want to be
             storeParticipants.addAll(storageEngineFactory.migrationParticipants(
@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.OptionalDouble;
 import java.util.function.Supplier;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
@@ -104,6 +105,7 @@ public class StoreMigrator {
     private static final String STORE_UPGRADE_TAG = "storeMigrate";
     public static final String MIGRATION_DIRECTORY = "migrate";
     private static final String MIGRATION_STATUS_FILE = "_status";
+    private static final int LOCALITY_SAMPLE_SIZE = 10_000;
 
     private final CursorContextFactory contextFactory;
     private final DatabaseTracers databaseTracers;
@@ -206,6 +208,71 @@ public class StoreMigrator {
         }
     }
 
+    /**
+     * Rewrites the store into the same version of the same format, placing the relationships, relationship groups and
+     * properties of each node next to each other in node id order. Ids, counts and token indexes are rebuilt as part of
+     * the copy, other indexes are rebuilt on the next start up. Node ids are kept, but relationships are given new ids
+     * in the order they are placed. The store has to be on the latest version of its format.
+     * <p>
+     * The reorganization runs through the same crash-safe migration directory and status file as a migration, and a
+     * reorganization interrupted while moving files into place is completed the next time the store is migrated
+     * or upgraded.
+     */
+    public void reorganize() throws UnableToMigrateException, IOException {
+        checkStoreExists();
+
+        try (var cursorContext = contextFactory.create(STORE_UPGRADE_TAG)) {
+            MigrationStructures migrationStructures = getMigrationStructures();
+
+            finishInterruptedMigration(migrationStructures);
+
+            var checkResult = doMigrationCheck(null, cursorContext);
+            if (!checkResult.onRequestedVersion()) {
+                throw new UnableToMigrateException("The store on version '"
+                        + checkResult.versionToMigrateFrom().getStoreVersionUserString()
+                        + "' must be migrated to '"
+                        + checkResult.versionToMigrateTo().getStoreVersionUserString()
+                        + "' before it can be reorganized");
+            }
+
+            OptionalDouble pagesBefore = averagePagesTouchedPerNode();
+            internalLog.info("Reorganizing store on version '"
+                    + checkResult.versionToMigrateFrom().getStoreVersionUserString() + "'");
+            internalLog.warn("Relationships are given new ids by the reorganization, "
+                    + "relationship ids and element ids kept outside of the database will no longer be valid");
+            doMigrate(
+                    migrationStructures,
+                    MigrationStatus.MigrationState.migrating,
+                    checkResult.versionToMigrateFrom(),
+                    checkResult.versionToMigrateFrom(),
+                    VisibleMigrationProgressMonitorFactory.forMigration(internalLog),
+                    LogsMigrator.CheckResult::migrate,
+                    false,
+                    StorageEngineMigrationAbstraction.forReorganization(storageEngineFactory));
+
+            // Have new logTail now, use that one instead
+            logTailSupplier = getLogTailSupplier(storageEngineFactory);
+            OptionalDouble pagesAfter = averagePagesTouchedPerNode();
+            if (pagesBefore.isPresent() && pagesAfter.isPresent()) {
+                internalLog.info(String.format(
+                        "Average number of pages touched per node went from %.2f to %.2f",
+                        pagesBefore.getAsDouble(), pagesAfter.getAsDouble()));
+            }
+        }
+    }
+
+    private OptionalDouble averagePagesTouchedPerNode() {
+        return storageEngineFactory.averagePagesTouchedPerNode(
+                fs,
+                databaseLayout,
+                config,
+                pageCache,
+                pageCacheTracer,
+                contextFactory,
+                logTailSupplier.get(),
+                LOCALITY_SAMPLE_SIZE);
+    }
+
     private void doOnlyLogsMigration(
             LogsMigrator.CheckResult logsCheckResult, StoreVersionIdentifier versionToMigrateTo) {
         internalLog.info("'" + logTailSupplier.get().kernelVersion()
@@ -411,8 +478,9 @@ public class StoreMigrator {
                         .set(GraphDatabaseSettings.db_format, versionToMigrateTo.getFormatName())
                         .build();
                 StorageEngineFactory targetStorageEngineFactory = StorageEngineFactory.selectStorageEngine(localConfig);
-                StorageEngineMigrationAbstraction storageEngineMigrationAbstraction =
-                        new StorageEngineMigrationAbstraction(storageEngineFactory, targetStorageEngineFactory);
+                StorageEngineMigrationAbstraction storageEngineMigrationAbstraction = isReorganization(migrationStatus)
+                        ? StorageEngineMigrationAbstraction.forReorganization(storageEngineFactory)
+                        : new StorageEngineMigrationAbstraction(storageEngineFactory, targetStorageEngineFactory);
                 doMigrate(
                         migrationStructures,
                         MigrationStatus.MigrationState.moving,
@@ -458,7 +526,9 @@ public class StoreMigrator {
                         VisibleMigrationProgressMonitorFactory.forUpgrade(internalLog),
                         LogsMigrator.CheckResult::upgrade,
                         false,
-                        storageEngineMigrationAbstraction);
+                        isReorganization(migrationStatus)
+                                ? StorageEngineMigrationAbstraction.forReorganization(storageEngineFactory)
+                                : storageEngineMigrationAbstraction);
 
                 // Could have new logTail now, use that one instead
                 logTailSupplier = getLogTailSupplier(storageEngineFactory);
@@ -468,6 +538,14 @@ public class StoreMigrator {
         }
     }
 
+    /**
+     * A store that is already on the requested version is never migrated, so a migration from a version to the
+     * same version can only be a {@link #reorganize() reorganization}.
+     */
+    private static boolean isReorganization(MigrationStatus migrationStatus) {
+        return migrationStatus.versionToMigrateFrom().equals(migrationStatus.versionToMigrateTo());
+    }
+
     private List<StoreMigrationParticipant> getStoreMigrationParticipants(
             StorageEngineMigrationAbstraction storageEngineMigrationAbstraction, boolean forceBtreeIndexesToRange) {
         return storageEngineMigrationAbstraction.getMigrationParticipants(
@@ -51,6 +51,7 @@ import java.util.concurrent.locks.ReentrantLock;
 import org.neo4j.collection.Dependencies;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.configuration.GraphDatabaseInternalSettings.PageChecksumMismatchAction;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.configuration.LocalConfig;
 import org.neo4j.dbms.database.DatabasePageCache;
@@ -204,6 +205,8 @@ public final class Recovery {
         config = Config.newBuilder()
                 .fromConfig(config)
                 .set(GraphDatabaseSettings.pagecache_memory, ByteUnit.mebiBytes(8))
+                // The store may well be torn by a crash here, which is what recovery is there to fix
+                .set(GraphDatabaseInternalSettings.page_cache_checksum_mismatch_action, PageChecksumMismatchAction.LOG)
                 .build();
         try (JobScheduler jobScheduler = JobSchedulerFactory.createInitialisedScheduler();
                 PageCache pageCache = getPageCache(config, fs, jobScheduler)) {
@@ -439,6 +442,8 @@ public final class Recovery {
         assert !(context.pageCache instanceof DatabasePageCache)
                 : "Recovery should use global page cache to avoid using overloaded mapping.";
         var config = new LocalConfig(context.config);
+        var recoveryMonitor = context.globalMonitors.newMonitor(RecoveryMonitor.class);
+        recoveryMonitor.recoveryProcessStarted(context.databaseLayout);
         try {
             return performRecovery(
                     context.fs,
@@ -462,6 +467,7 @@ public final class Recovery {
                     context.mode);
         } finally {
             config.removeAllLocalListeners();
+            recoveryMonitor.recoveryProcessEnded(context.databaseLayout);
         }
     }
 
@@ -19,10 +19,25 @@
  */
 package org.neo4j.kernel.recovery;
 
+import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.kernel.impl.transaction.CommittedCommandBatch;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 
 public interface RecoveryMonitor {
+    /**
+     * Called before the database is checked for, and possibly goes through, recovery.
+     */
+    default void recoveryProcessStarted(DatabaseLayout databaseLayout) {
+        // noop
+    }
+
+    /**
+     * Called when the database has been checked for, and possibly gone through, recovery, whether successfully or not.
+     */
+    default void recoveryProcessEnded(DatabaseLayout databaseLayout) {
+        // noop
+    }
+
     default void recoveryRequired(LogPosition recoveryPosition) {
         // noop
     }
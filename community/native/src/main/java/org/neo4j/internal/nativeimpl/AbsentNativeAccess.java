@@ -45,6 +45,11 @@ public class AbsentNativeAccess implements NativeAccess {
         return NativeCallResult.SUCCESS;
     }
 
+    @Override
+    public NativeCallResult tryAdviseHugePages(long address, long length) {
+        return NativeCallResult.SUCCESS;
+    }
+
     @Override
     public ErrorTranslator errorTranslator() {
         return MissingErrorTranslator.INSTANCE;
@@ -48,6 +48,12 @@ public class LinuxNativeAccess implements NativeAccess {
      */
     private static final int POSIX_FADV_DONTNEED = 4;
 
+    /**
+     * Constant defined in mman.h and suggest that the specified memory region should be backed by transparent huge pages.
+     * For more info check man page for madvise.
+     */
+    private static final int MADV_HUGEPAGE = 14;
+
     private static final boolean NATIVE_ACCESS_AVAILABLE;
     private static final Throwable INITIALIZATION_FAILURE;
 
@@ -91,6 +97,17 @@ public class LinuxNativeAccess implements NativeAccess {
      */
     private static native int posix_fallocate(int fd, long offset, long len) throws LastErrorException;
 
+    /**
+     * Give advice about use of memory. Allows the kernel to choose appropriate read-ahead and caching techniques,
+     * or page sizes, for the memory region starting at addr and extending for length bytes.
+     * The advice is not binding; it merely constitutes an expectation on behalf of the application.
+     * @param addr start of the memory region, must be page aligned
+     * @param length length of the memory region in bytes
+     * @param advice advise options
+     * @return 0 on success. On error, -1 is returned and errno is set
+     */
+    private static native int madvise(long addr, long length, int advice) throws LastErrorException;
+
     /**
      * Return pointer to a string describing error number, possibly using the LC_MESSAGES part of the current locale to select the appropriate language.
      * @param errnum error number to describe
@@ -140,6 +157,17 @@ public class LinuxNativeAccess implements NativeAccess {
         return wrapResult(() -> posix_fallocate(fd, 0, bytes));
     }
 
+    @Override
+    public NativeCallResult tryAdviseHugePages(long address, long length) {
+        if (address == 0) {
+            return new NativeCallResult(ERROR, "Incorrect memory address.");
+        }
+        if (length <= 0) {
+            return new NativeCallResult(ERROR, "Length of memory region should be positive. Requested: " + length);
+        }
+        return wrapResult(() -> madvise(address, length, MADV_HUGEPAGE));
+    }
+
     @Override
     public ErrorTranslator errorTranslator() {
         return LinuxErrorTranslator.INSTANCE;
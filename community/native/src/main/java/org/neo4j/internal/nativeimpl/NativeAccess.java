@@ -68,6 +68,15 @@ public interface NativeAccess {
      */
     NativeCallResult tryPreallocateSpace(int fd, long bytes);
 
+    /**
+     * Try to advise that the memory region starting at the provided address should be backed by transparent huge pages.
+     * Useful for large memory regions accessed randomly, where huge pages means fewer TLB misses.
+     * @param address start of the memory region, aligned to the system page size
+     * @param length length of the memory region in bytes
+     * @return returns zero on success, or an error number on failure
+     */
+    NativeCallResult tryAdviseHugePages(long address, long length);
+
     /**
      * High level error translator to be able to map high level exceptions checks with low level error codes on particular system
      */
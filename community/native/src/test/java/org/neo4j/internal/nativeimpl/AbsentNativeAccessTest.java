@@ -46,4 +46,10 @@ class AbsentNativeAccessTest {
         assertEquals(SUCCESS, absentNativeAccess.tryPreallocateSpace(1, 2L));
         assertEquals(SUCCESS, absentNativeAccess.tryPreallocateSpace(3, 4L));
     }
+
+    @Test
+    void absentNativeAccessHugePagesAdviceAlwaysFinishSuccessfully() {
+        assertEquals(SUCCESS, absentNativeAccess.tryAdviseHugePages(0, 1L));
+        assertEquals(SUCCESS, absentNativeAccess.tryAdviseHugePages(4096, 4096));
+    }
 }
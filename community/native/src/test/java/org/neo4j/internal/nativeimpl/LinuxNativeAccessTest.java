@@ -28,8 +28,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.neo4j.internal.nativeimpl.NativeAccess.ERROR;
 
+import com.sun.jna.Native;
 import java.io.FileDescriptor;
 import java.io.IOException;
 import java.nio.channels.Channel;
@@ -45,6 +47,8 @@ import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.io.TempDir;
 
 class LinuxNativeAccessTest {
+    private static final long HUGE_PAGE_SIZE = 2 * 1024 * 1024;
+
     private final LinuxNativeAccess nativeAccess = new LinuxNativeAccess();
 
     @Test
@@ -154,6 +158,33 @@ class LinuxNativeAccessTest {
             assertNotEquals(0, nativeAccess.tryEvictFromCache(descriptor));
         }
 
+        @Test
+        void failToAdviseHugePagesForIncorrectRegion() {
+            assertEquals(
+                    ERROR, nativeAccess.tryAdviseHugePages(0, HUGE_PAGE_SIZE).getErrorCode());
+
+            long memory = Native.malloc(HUGE_PAGE_SIZE);
+            try {
+                assertEquals(ERROR, nativeAccess.tryAdviseHugePages(memory, 0).getErrorCode());
+                assertEquals(ERROR, nativeAccess.tryAdviseHugePages(memory, -1).getErrorCode());
+            } finally {
+                Native.free(memory);
+            }
+        }
+
+        @Test
+        void adviseHugePagesForAlignedRegion() {
+            assumeTrue(Files.exists(Path.of("/sys/kernel/mm/transparent_hugepage")));
+            long memory = Native.malloc(3 * HUGE_PAGE_SIZE);
+            try {
+                long aligned = (memory + HUGE_PAGE_SIZE - 1) & -HUGE_PAGE_SIZE;
+                var nativeCallResult = nativeAccess.tryAdviseHugePages(aligned, HUGE_PAGE_SIZE * 2);
+                assertFalse(nativeCallResult.isError(), nativeCallResult.getErrorMessage());
+            } finally {
+                Native.free(memory);
+            }
+        }
+
         @Test
         void skipCacheOnLinuxForCorrectDescriptor() throws IOException, IllegalAccessException, ClassNotFoundException {
             Path file = tempFile.resolve("file");
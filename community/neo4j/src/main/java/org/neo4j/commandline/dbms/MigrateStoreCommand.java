@@ -136,6 +136,18 @@ public class MigrateStoreCommand extends AbstractAdminCommand {
                     + "following the migration and users should monitor the successful completion of that process.")
     private boolean forceBtreeToRange;
 
+    @Option(
+            names = "--reorganize",
+            fallbackValue = "true",
+            description = "Instead of migrating the database, rewrite it on its current format so that the "
+                    + "relationships, relationship groups and properties of each node are placed next to each other "
+                    + "in node id order. The average number of store pages touched per node is reported before and "
+                    + "after. The database must already be on the latest version of its format. "
+                    + "Node ids are kept, but relationships are given new ids, so relationship ids and element ids "
+                    + "kept outside of the database no longer refer to the same relationships afterwards. "
+                    + "Indexes other than the token lookup indexes are rebuilt on the next start up.")
+    private boolean reorganize;
+
     // This is a special option for Aura. It is generally guaranteed to work only on Aura DBMSes,
     // because Aura does not use many of the advanced DBMS stuff like multi-database feature.
     @Option(
@@ -158,6 +170,9 @@ public class MigrateStoreCommand extends AbstractAdminCommand {
 
     @Override
     protected void execute() {
+        if (reorganize && formatToMigrateTo != null) {
+            throw new CommandFailedException("--reorganize can not be combined with --to-format");
+        }
         Config config = buildConfig();
         try (Log4jLogProvider logProvider = new Log4jLogProvider(ctx.out(), verbose ? Level.DEBUG : Level.INFO)) {
             migrateStore(config, logProvider);
@@ -254,7 +269,11 @@ public class MigrateStoreCommand extends AbstractAdminCommand {
                                         databaseLayout,
                                         memoryTracker)));
 
-                        storeMigrator.migrateIfNeeded(formatForDb, forceBtreeToRange);
+                        if (reorganize) {
+                            storeMigrator.reorganize();
+                        } else {
+                            storeMigrator.migrateIfNeeded(formatForDb, forceBtreeToRange);
+                        }
                     } catch (FileLockException e) {
                         throw new CommandFailedException(
                                 "The database is in use. Stop database '" + dbName + "' and try again.", e);
@@ -382,6 +382,7 @@ public class GlobalModule {
         ConfiguringPageCacheFactory pageCacheFactory = new ConfiguringPageCacheFactory(
                 fileSystem, config, tracers.getPageCacheTracer(), pageCacheLog, jobScheduler, clock, memoryPools);
         PageCache pageCache = pageCacheFactory.getOrCreatePageCache();
+        globalMonitors.addMonitorListener(pageCacheFactory.checksumMismatchRecoveryMonitor());
 
         if (config.get(GraphDatabaseInternalSettings.dump_configuration)) {
             pageCacheFactory.dumpConfiguration();
@@ -43,9 +43,10 @@ class MigrateStoreCommandTest {
 
                          USAGE
 
-                         migrate [-h] [--expand-commands] [--force-btree-indexes-to-range] [--verbose]
-                                 [--additional-config=<file>] [--pagecache=<size>]
-                                 [--to-format=standard|high_limit|aligned|block] <database>
+                         migrate [-h] [--expand-commands] [--force-btree-indexes-to-range]
+                                 [--reorganize] [--verbose] [--additional-config=<file>]
+                                 [--pagecache=<size>] [--to-format=standard|high_limit|aligned|block]
+                                 <database>
 
                          DESCRIPTION
 
@@ -81,6 +82,19 @@ class MigrateStoreCommandTest {
                                                       process. The general rule is that values up to the
                                                       size of the database proportionally increase
                                                       performance.
+                               --reorganize         Instead of migrating the database, rewrite it on its
+                                                      current format so that the relationships,
+                                                      relationship groups and properties of each node
+                                                      are placed next to each other in node id order.
+                                                      The average number of store pages touched per node
+                                                      is reported before and after. The database must
+                                                      already be on the latest version of its format.
+                                                      Node ids are kept, but relationships are given new
+                                                      ids, so relationship ids and element ids kept
+                                                      outside of the database no longer refer to the
+                                                      same relationships afterwards. Indexes other than
+                                                      the token lookup indexes are rebuilt on the next
+                                                      start up.
                                --to-format=standard|high_limit|aligned|block
                                                     Name of the format to migrate the store to. If the
                                                       format is specified, the target database is
@@ -41,14 +41,17 @@ import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
 import org.neo4j.graphdb.Transaction;
+import org.neo4j.index.internal.gbptree.CompactionStatistics;
 import org.neo4j.internal.kernel.api.TokenRead;
 import org.neo4j.internal.kernel.api.exceptions.ProcedureException;
 import org.neo4j.internal.kernel.api.procs.ProcedureCallContext;
 import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
 import org.neo4j.internal.schema.IndexProviderDescriptor;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.procedure.SystemProcedure;
+import org.neo4j.kernel.impl.api.index.IndexCompactionStatus;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
@@ -202,6 +205,25 @@ public class BuiltInProcedures {
         indexProcedures.resampleIndex(indexName);
     }
 
+    @Admin
+    @Description("Schedule online compaction of an index, packing sparsely filled pages together "
+            + "(for example: CALL db.compactIndex(\"MyIndex\")). Freed space at the end of the index file "
+            + "is given back on the next checkpoint. Use db.compactIndexStatus to follow the compaction.")
+    @Procedure(name = "db.compactIndex", mode = READ)
+    public Stream<IndexCompactionResult> compactIndex(@Name("indexName") String indexName) throws ProcedureException {
+        IOController ioController = resolver.resolveDependency(IOController.class);
+        return Stream.of(IndexCompactionResult.from(indexProcedures().compactIndex(indexName, ioController)));
+    }
+
+    @Admin
+    @Description("Status of the latest compaction of an index (for example: CALL db.compactIndexStatus(\"MyIndex\")). "
+            + "Returns leaf counts and fill factors before and after once the compaction has completed.")
+    @Procedure(name = "db.compactIndexStatus", mode = READ)
+    public Stream<IndexCompactionResult> compactIndexStatus(@Name("indexName") String indexName)
+            throws ProcedureException {
+        return indexProcedures().indexCompactionStatus(indexName).stream().map(IndexCompactionResult::from);
+    }
+
     @SystemProcedure
     @NotThreadSafe
     @Description("Schedule resampling of all outdated indexes.")
@@ -326,6 +348,30 @@ public class BuiltInProcedures {
 
     public record BooleanResult(Boolean success) {}
 
+    public record IndexCompactionResult(
+            String state,
+            Long leafCountBefore,
+            Long leafCountAfter,
+            Double fillFactorBefore,
+            Double fillFactorAfter,
+            Long relocatedLeaves,
+            String failure) {
+        private static IndexCompactionResult from(IndexCompactionStatus status) {
+            CompactionStatistics stats = status.statistics();
+            if (stats == null) {
+                return new IndexCompactionResult(status.state().name(), null, null, null, null, null, status.failure());
+            }
+            return new IndexCompactionResult(
+                    status.state().name(),
+                    stats.leafCountBefore(),
+                    stats.leafCountAfter(),
+                    stats.fillFactorBefore(),
+                    stats.fillFactorAfter(),
+                    stats.relocatedLeaves(),
+                    status.failure());
+        }
+    }
+
     public record NodeResult(Node node) {}
 
     public record WeightedNodeResult(Node node, double weight) {}
@@ -23,6 +23,7 @@ import static org.neo4j.kernel.impl.api.index.IndexSamplingMode.backgroundRebuil
 import static org.neo4j.kernel.impl.api.index.IndexSamplingMode.backgroundRebuildUpdated;
 import static org.neo4j.kernel.impl.api.index.IndexSamplingMode.foregroundRebuildUpdated;
 
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import org.neo4j.function.Predicates;
@@ -30,8 +31,10 @@ import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.exceptions.ProcedureException;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.impl.api.index.IndexCompactionStatus;
 import org.neo4j.kernel.impl.api.index.IndexPopulationFailure;
 import org.neo4j.kernel.impl.api.index.IndexSamplingMode;
 import org.neo4j.kernel.impl.api.index.IndexingService;
@@ -55,6 +58,19 @@ public class IndexProcedures {
         triggerSampling(index);
     }
 
+    IndexCompactionStatus compactIndex(String indexName, IOController ioController) throws ProcedureException {
+        final IndexDescriptor index = getIndex(indexName);
+        try {
+            return indexingService.compactIndex(index, ioController);
+        } catch (IndexNotFoundKernelException e) {
+            throw new ProcedureException(Status.Schema.IndexNotFound, e, "No such index %s", index.getName());
+        }
+    }
+
+    Optional<IndexCompactionStatus> indexCompactionStatus(String indexName) throws ProcedureException {
+        return indexingService.indexCompactionStatus(getIndex(indexName));
+    }
+
     void resampleOutdatedIndexes() {
         indexingService.triggerIndexSampling(backgroundRebuildUpdated());
     }
@@ -40,6 +40,19 @@ public class DeleteDuplicateNodesStage extends Stage {
             NeoStores neoStore,
             DataImporter.Monitor storeMonitor,
             CursorContextFactory contextFactory) {
+        this(config, duplicateNodeIds, neoStore, storeMonitor, contextFactory, PropertyIndexPopulation.NO_INDEXES);
+    }
+
+    /**
+     * @param indexPopulation indexes populated by the node import, which the duplicate nodes are also removed from.
+     */
+    DeleteDuplicateNodesStage(
+            Configuration config,
+            LongIterator duplicateNodeIds,
+            NeoStores neoStore,
+            DataImporter.Monitor storeMonitor,
+            CursorContextFactory contextFactory,
+            PropertyIndexPopulation indexPopulation) {
         super("DEDUP", null, config, 0);
 
         add(new BatchIdsStep(control(), config, duplicateNodeIds));
@@ -50,6 +63,7 @@ public class DeleteDuplicateNodesStage extends Stage {
         idUpdatesWorkSync.add(neoStore.getPropertyStore().getIdGenerator());
         idUpdatesWorkSync.add(neoStore.getPropertyStore().getStringStore().getIdGenerator());
         idUpdatesWorkSync.add(neoStore.getPropertyStore().getArrayStore().getIdGenerator());
-        add(new DeleteDuplicateNodesStep(control(), config, neoStore, storeMonitor, contextFactory, idUpdatesWorkSync));
+        add(new DeleteDuplicateNodesStep(
+                control(), config, neoStore, storeMonitor, contextFactory, idUpdatesWorkSync, indexPopulation));
     }
 }
@@ -24,12 +24,15 @@ import static org.neo4j.internal.recordstorage.RecordCursorTypes.PROPERTY_CURSOR
 import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
 
 import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
 import org.neo4j.internal.batchimport.staging.BatchSender;
 import org.neo4j.internal.batchimport.staging.ProcessorStep;
 import org.neo4j.internal.batchimport.staging.StageControl;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeLabelsField;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
@@ -38,7 +41,9 @@ import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
 import org.neo4j.storageengine.util.IdGeneratorUpdatesWorkSync;
+import org.neo4j.values.storable.Value;
 
 public class DeleteDuplicateNodesStep extends ProcessorStep<long[]> {
     private final NodeStore nodeStore;
@@ -46,6 +51,7 @@ public class DeleteDuplicateNodesStep extends ProcessorStep<long[]> {
     private final DataImporter.Monitor storeMonitor;
     private final IdGeneratorUpdatesWorkSync idUpdatesWorkSync;
     private final NeoStores neoStores;
+    private final PropertyIndexPopulation indexPopulation;
     private final LongAdder nodesRemoved = new LongAdder();
     private final LongAdder propertiesRemoved = new LongAdder();
 
@@ -55,19 +61,23 @@ public class DeleteDuplicateNodesStep extends ProcessorStep<long[]> {
             NeoStores neoStores,
             DataImporter.Monitor storeMonitor,
             CursorContextFactory contextFactory,
-            IdGeneratorUpdatesWorkSync idUpdatesWorkSync) {
+            IdGeneratorUpdatesWorkSync idUpdatesWorkSync,
+            PropertyIndexPopulation indexPopulation) {
         super(control, "DEDUP", config, 0, contextFactory);
         this.neoStores = neoStores;
         this.nodeStore = neoStores.getNodeStore();
         this.propertyStore = neoStores.getPropertyStore();
         this.storeMonitor = storeMonitor;
         this.idUpdatesWorkSync = idUpdatesWorkSync;
+        this.indexPopulation = indexPopulation;
     }
 
     @Override
     protected void process(long[] batch, BatchSender sender, CursorContext cursorContext) throws Throwable {
         NodeRecord nodeRecord = nodeStore.newRecord();
         PropertyRecord propertyRecord = propertyStore.newRecord();
+        MutableIntObjectMap<Value> indexedProperties = new IntObjectHashMap<>();
+        boolean populatesIndexes = !indexPopulation.isEmpty();
         try (var storeCursors = new CachedStoreCursors(neoStores, cursorContext);
                 var idUpdates = idUpdatesWorkSync.newBatch(cursorContext)) {
             long batchPropertiesRemoved = 0;
@@ -76,6 +86,7 @@ public class DeleteDuplicateNodesStep extends ProcessorStep<long[]> {
                 assert nodeRecord.inUse() : nodeRecord;
                 // Ensure heavy so that the dynamic label records gets loaded (and then deleted) too
                 nodeStore.ensureHeavy(nodeRecord, storeCursors);
+                indexedProperties.clear();
 
                 // Delete property records
                 long nextProp = nodeRecord.getNextProp();
@@ -84,6 +95,9 @@ public class DeleteDuplicateNodesStep extends ProcessorStep<long[]> {
                             nextProp, propertyRecord, NORMAL, storeCursors.readCursor(PROPERTY_CURSOR));
                     assert propertyRecord.inUse() : propertyRecord + " for " + nodeRecord;
                     propertyStore.ensureHeavy(propertyRecord, storeCursors);
+                    if (populatesIndexes) {
+                        collectIndexedProperties(propertyRecord, indexedProperties, storeCursors);
+                    }
                     batchPropertiesRemoved += propertyRecord.numberOfProperties();
                     nextProp = propertyRecord.getNextProp();
                     deletePropertyRecordIncludingValueRecords(propertyRecord);
@@ -93,6 +107,14 @@ public class DeleteDuplicateNodesStep extends ProcessorStep<long[]> {
                     }
                 }
 
+                // Remove the index entries the node got when it was imported
+                if (populatesIndexes && !indexedProperties.isEmpty()) {
+                    indexPopulation.remove(
+                            duplicateNodeId,
+                            NodeLabelsField.get(nodeRecord, nodeStore, storeCursors),
+                            indexedProperties);
+                }
+
                 // Delete node (and dynamic label records, if any)
                 nodeRecord.setInUse(false);
                 for (DynamicRecord labelRecord : nodeRecord.getDynamicLabelRecords()) {
@@ -107,6 +129,15 @@ public class DeleteDuplicateNodesStep extends ProcessorStep<long[]> {
         }
     }
 
+    private void collectIndexedProperties(
+            PropertyRecord record, MutableIntObjectMap<Value> indexedProperties, StoreCursors storeCursors) {
+        for (PropertyBlock block : record) {
+            if (indexPopulation.isIndexed(block.getKeyIndexId())) {
+                indexedProperties.put(block.getKeyIndexId(), block.newPropertyValue(propertyStore, storeCursors));
+            }
+        }
+    }
+
     private static void deletePropertyRecordIncludingValueRecords(PropertyRecord record) {
         for (PropertyBlock block : record) {
             for (DynamicRecord valueRecord : block.getValueRecords()) {
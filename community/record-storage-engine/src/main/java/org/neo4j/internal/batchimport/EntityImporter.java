@@ -142,6 +142,7 @@ abstract class EntityImporter extends InputEntityVisitor.Adapter {
         hasPropertyId = false;
         propertyCount += entityPropertyCount;
         entityPropertyCount = 0;
+        schemaMonitor.reset();
     }
 
     private PropertyBlock nextPropertyBlock() {
@@ -162,6 +163,7 @@ abstract class EntityImporter extends InputEntityVisitor.Adapter {
                 value,
                 dynamicStringRecordAllocator,
                 dynamicArrayRecordAllocator,
+                propertyStore.compressDynamicValues(),
                 cursorContext,
                 memoryTracker);
     }
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport;
+
+import static java.lang.Math.toIntExact;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.neo4j.internal.batchimport.DataStatistics.RelationshipTypeCount;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.kernel.impl.store.StoreType;
+
+/**
+ * Keeps track of which stages of an import have been completed, so that an import which gets interrupted can be
+ * resumed from the last completed stage instead of starting over.
+ * <p>
+ * Each completed stage is appended as an entry of its own, containing the state needed by the stages after it,
+ * i.e. the {@link DataStatistics} and the high ids of the stores. Caches like the id mapper and the node-relationship
+ * cache don't need to be kept since the id mapper isn't used after the relationship import and the
+ * node-relationship cache is rebuilt from the relationship store before linking. An entry ends with its stage
+ * so that an entry which was only partly written when the import was interrupted is ignored.
+ * <p>
+ * The header of the file contains a fingerprint of the input of the import, so that an import isn't resumed with
+ * different input than the import it resumes.
+ */
+public class ImportCheckpoint implements AutoCloseable {
+    public static final String CHECKPOINT_FILE_NAME = "import.checkpoint";
+
+    private static final long MAGIC = 0x496D706F72744350L;
+    private static final int HEADER_SIZE = 2 * Long.BYTES;
+
+    /**
+     * Stages after which import state is checkpointed, in the order they're completed.
+     */
+    public enum Stage {
+        RELATIONSHIPS_IMPORTED,
+        RELATIONSHIPS_LINKED,
+        RELATIONSHIP_GROUPS_DEFRAGMENTED;
+
+        /**
+         * @param lastCompleted the last completed stage, or {@code null} if no stage has been completed.
+         * @return whether this stage has been completed given the last completed stage.
+         */
+        public boolean completedBy(Stage lastCompleted) {
+            return lastCompleted != null && lastCompleted.ordinal() >= ordinal();
+        }
+    }
+
+    /**
+     * State of an import after a completed stage.
+     *
+     * @param stage the completed stage.
+     * @param dataStatistics node, property and relationship type counts of the imported data.
+     * @param highIds high id of each store, indexed by {@link StoreType#ordinal()}, {@code -1} for stores without one.
+     * @param temporaryRelationshipGroupHighId high id of the temporary relationship group store.
+     */
+    public record State(
+            Stage stage, DataStatistics dataStatistics, long[] highIds, long temporaryRelationshipGroupHighId) {}
+
+    private final FileSystemAbstraction fs;
+    private final Path file;
+    private final StoreChannel channel;
+    private State lastCompleted;
+
+    private ImportCheckpoint(FileSystemAbstraction fs, Path file, StoreChannel channel) {
+        this.fs = fs;
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * @return the checkpoint file of an import into the given database.
+     */
+    public static Path checkpointFile(DatabaseLayout databaseLayout) {
+        return databaseLayout.file(CHECKPOINT_FILE_NAME);
+    }
+
+    /**
+     * Opens the checkpoint file, creating it if it doesn't exist.
+     *
+     * @param resume whether to read the stages completed by a previous import, otherwise they're discarded.
+     * @param inputFingerprint fingerprint of the input of the import, see {@code Input#fingerprint()}, {@code 0} if
+     * unknown.
+     * @throws IllegalStateException if resuming an import whose input has a different fingerprint.
+     */
+    public static ImportCheckpoint open(FileSystemAbstraction fs, Path file, boolean resume, long inputFingerprint)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putLong(MAGIC)
+                .putLong(inputFingerprint)
+                .flip();
+
+        fs.mkdirs(file.getParent());
+        StoreChannel channel = fs.write(file);
+        var checkpoint = new ImportCheckpoint(fs, file, channel);
+        try {
+            long end = resume ? checkpoint.readCompletedStages(header) : 0;
+            if (end == 0) {
+                channel.truncate(0);
+                channel.writeAll(header, 0);
+                end = HEADER_SIZE;
+            } else {
+                // Cut off whatever trails the last complete entry, so that new entries are appended after it
+                channel.truncate(end);
+            }
+            channel.force(false);
+            channel.position(end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return checkpoint;
+    }
+
+    /**
+     * @return state after the last completed stage, or {@code null} if no stage has been completed.
+     */
+    public State lastCompleted() {
+        return lastCompleted;
+    }
+
+    /**
+     * Durably records a stage as completed. The stores must have been flushed before calling this.
+     */
+    public void completed(State state) throws IOException {
+        List<RelationshipTypeCount> types = new ArrayList<>();
+        state.dataStatistics().forEach(types::add);
+        ByteBuffer entry = ByteBuffer.allocate(Integer.BYTES
+                + 2 * Long.BYTES
+                + Integer.BYTES
+                + types.size() * (Integer.BYTES + Long.BYTES)
+                + Integer.BYTES
+                + state.highIds().length * Long.BYTES
+                + Long.BYTES
+                + Integer.BYTES);
+        entry.putInt(state.stage().ordinal());
+        entry.putLong(state.dataStatistics().getNodeCount());
+        entry.putLong(state.dataStatistics().getPropertyCount());
+        entry.putInt(types.size());
+        for (RelationshipTypeCount type : types) {
+            entry.putInt(type.getTypeId()).putLong(type.getCount());
+        }
+        entry.putInt(state.highIds().length);
+        for (long highId : state.highIds()) {
+            entry.putLong(highId);
+        }
+        entry.putLong(state.temporaryRelationshipGroupHighId());
+        entry.putInt(state.stage().ordinal()).flip();
+        channel.writeAll(entry);
+        channel.force(false);
+        lastCompleted = state;
+    }
+
+    /**
+     * Closes and deletes the checkpoint file, to be called when the import has completed successfully.
+     */
+    public void delete() throws IOException {
+        close();
+        if (fs.fileExists(file)) {
+            fs.deleteFile(file);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return position after the last complete entry, or {@code 0} if the file isn't a checkpoint file.
+     * @throws IllegalStateException if the checkpoint was made by an import of different input.
+     */
+    private long readCompletedStages(ByteBuffer expectedHeader) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            return 0;
+        }
+        ByteBuffer data = ByteBuffer.allocate(toIntExact(size));
+        channel.readAll(data);
+        data.flip();
+        if (data.getLong() != expectedHeader.getLong(0)) {
+            return 0;
+        }
+        long checkpointedFingerprint = data.getLong();
+        long inputFingerprint = expectedHeader.getLong(Long.BYTES);
+        if (checkpointedFingerprint != 0 && inputFingerprint != 0 && checkpointedFingerprint != inputFingerprint) {
+            throw new IllegalStateException("Can't resume import from " + file
+                    + " since the input has changed after it was made. Run the import without resuming instead");
+        }
+        long end = HEADER_SIZE;
+        Stage[] stages = Stage.values();
+        while (data.remaining() >= Integer.BYTES + 2 * Long.BYTES + Integer.BYTES) {
+            int stage = data.getInt();
+            long nodeCount = data.getLong();
+            long propertyCount = data.getLong();
+            int numberOfTypes = data.getInt();
+            if (stage < 0
+                    || stage >= stages.length
+                    || numberOfTypes < 0
+                    || data.remaining() < (long) numberOfTypes * (Integer.BYTES + Long.BYTES) + Integer.BYTES) {
+                break;
+            }
+            RelationshipTypeCount[] types = new RelationshipTypeCount[numberOfTypes];
+            for (int i = 0; i < numberOfTypes; i++) {
+                types[i] = new RelationshipTypeCount(data.getInt(), data.getLong());
+            }
+            int numberOfStores = data.getInt();
+            if (numberOfStores != StoreType.STORE_TYPES.length
+                    || data.remaining() < (long) numberOfStores * Long.BYTES + Long.BYTES + Integer.BYTES) {
+                break;
+            }
+            long[] highIds = new long[numberOfStores];
+            for (int i = 0; i < numberOfStores; i++) {
+                highIds[i] = data.getLong();
+            }
+            long temporaryRelationshipGroupHighId = data.getLong();
+            if (data.getInt() != stage) {
+                break;
+            }
+            lastCompleted = new State(
+                    stages[stage],
+                    new DataStatistics(nodeCount, propertyCount, types),
+                    highIds,
+                    temporaryRelationshipGroupHighId);
+            end = data.position();
+        }
+        return end;
+    }
+}
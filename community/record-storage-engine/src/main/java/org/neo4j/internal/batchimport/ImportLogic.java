@@ -23,6 +23,7 @@ import static java.lang.Long.max;
 import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
+import static org.neo4j.function.Predicates.alwaysFalse;
 import static org.neo4j.function.Predicates.alwaysTrue;
 import static org.neo4j.internal.batchimport.cache.NumberArrayFactories.auto;
 import static org.neo4j.internal.helpers.Format.duration;
@@ -42,6 +43,7 @@ import org.eclipse.collections.api.iterator.LongIterator;
 import org.eclipse.collections.api.set.primitive.IntSet;
 import org.eclipse.collections.api.set.primitive.LongSet;
 import org.neo4j.collection.Dependencies;
+import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.counts.CountsUpdater;
@@ -54,9 +56,13 @@ import org.neo4j.internal.batchimport.cache.NumberArrayFactory;
 import org.neo4j.internal.batchimport.cache.PageCacheArrayFactoryMonitor;
 import org.neo4j.internal.batchimport.cache.idmapping.IdMapper;
 import org.neo4j.internal.batchimport.cache.idmapping.IdMappers;
+import org.neo4j.internal.batchimport.cache.idmapping.string.EncodingIdMapper;
+import org.neo4j.internal.batchimport.cache.idmapping.string.ExternalSort;
 import org.neo4j.internal.batchimport.input.Collector;
 import org.neo4j.internal.batchimport.input.EstimationSanityChecker;
+import org.neo4j.internal.batchimport.input.IdType;
 import org.neo4j.internal.batchimport.input.Input;
+import org.neo4j.internal.batchimport.staging.DynamicProcessorAssigner;
 import org.neo4j.internal.batchimport.staging.ExecutionMonitor;
 import org.neo4j.internal.batchimport.staging.ExecutionSupervisors;
 import org.neo4j.internal.batchimport.staging.Stage;
@@ -68,8 +74,10 @@ import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.RecordStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.StoreType;
 import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
@@ -92,6 +100,10 @@ import org.neo4j.storageengine.migration.MigrationProgressMonitor;
 public class ImportLogic implements Closeable {
     private static final String IMPORT_COUNT_STORE_REBUILD_TAG = "importCountStoreRebuild";
     private static final String ID_MAPPER_PREPARATION_TAG = "Id mapper preparation.";
+    private static final String IMPORT_CHECKPOINT_TAG = "importCheckpoint";
+    private static final String ID_MAPPER_SORT_DIRECTORY_NAME = "id-mapper-sort";
+    // Share of the heap that the sorted runs of an id mapper which is sorted on disk may occupy
+    private static final int ID_MAPPER_SORT_HEAP_SHARE_DIVISOR = 4;
     public static final Supplier<SchemaMonitor> NO_SCHEMA_MONITORING = () -> SchemaMonitor.NO_MONITOR;
     private static final RelationshipLinkingMonitor NO_LINKING_MONITOR = new RelationshipLinkingMonitor() {};
 
@@ -127,8 +139,12 @@ public class ImportLogic implements Closeable {
     private NumberArrayFactory numberArrayFactory;
     private final Collector badCollector;
     private IdMapper idMapper;
+    private ExternalSort.Settings idMapperExternalSort;
     private long peakMemoryUsage;
     private long availableMemoryForLinking;
+    private ImportCheckpoint checkpoint;
+    private PropertyIndexPopulation nodeIndexPopulation;
+    private PropertyIndexPopulation relationshipIndexPopulation;
 
     /**
      * @param databaseLayout directory which the db will be created in.
@@ -165,10 +181,95 @@ public class ImportLogic implements Closeable {
         this.indexImporterFactory = indexImporterFactory;
         this.pageCacheTracer = pageCacheTracer;
         this.memoryTracker = memoryTracker;
-        this.executionMonitor = ExecutionSupervisors.withDynamicProcessorAssignment(executionMonitor, config);
+        this.executionMonitor = ExecutionSupervisors.withDynamicProcessorAssignment(
+                executionMonitor, config, logService.getInternalLogProvider().getLog(DynamicProcessorAssigner.class));
         this.maxMemory = config.maxOffHeapMemory();
     }
 
+    /**
+     * Creates new stores for the import or, when resuming, opens the stores of a previous attempt of this import and
+     * restores the state after the last stage it completed, see {@link ImportCheckpoint}. Stores which the remaining
+     * stages write from scratch are deleted. A previous attempt is only recognized by its checkpoint file, so without
+     * one this behaves just like a new import, requiring the database to be empty.
+     *
+     * @param resume whether to resume after the last stage completed by a previous attempt, if any.
+     * @param inputFingerprint fingerprint of the input, see {@link Input#fingerprint()}, which must match that of
+     * the previous attempt when resuming.
+     * @return the last completed stage to resume after, or {@code null} if the import starts from the beginning.
+     * @throws IOException on I/O error.
+     */
+    public ImportCheckpoint.Stage createOrResumeStores(boolean resume, long inputFingerprint) throws IOException {
+        FileSystemAbstraction fs = neoStore.fileSystem();
+        Path checkpointFile = ImportCheckpoint.checkpointFile(neoStore.databaseLayout());
+        if (!resume || !fs.fileExists(checkpointFile)) {
+            neoStore.createNew();
+            checkpoint = ImportCheckpoint.open(fs, checkpointFile, false, inputFingerprint);
+            return null;
+        }
+
+        checkpoint = ImportCheckpoint.open(fs, checkpointFile, true, inputFingerprint);
+        ImportCheckpoint.State state = checkpoint.lastCompleted();
+        if (state == null) {
+            // The previous attempt didn't complete any stage, start over in its place
+            log.info("Previous import attempt completed no stage, starting over");
+            neoStore.pruneAndOpenExistingStore(alwaysFalse(), alwaysFalse());
+            return null;
+        }
+
+        ImportCheckpoint.Stage stage = state.stage();
+        boolean groupsDefragmented = ImportCheckpoint.Stage.RELATIONSHIP_GROUPS_DEFRAGMENTED.completedBy(stage);
+        boolean keepTemporaryGroups =
+                !groupsDefragmented && ImportCheckpoint.Stage.RELATIONSHIPS_LINKED.completedBy(stage);
+        Predicate<StoreType> mainStoresToKeep = type -> type != StoreType.RELATIONSHIP_GROUP || groupsDefragmented;
+        // The property indexes are built before the first checkpoint, so they're complete and can be kept
+        neoStore.pruneAndOpenExistingStore(
+                mainStoresToKeep, type -> type == StoreType.RELATIONSHIP_GROUP && keepTemporaryGroups, true);
+        // The id files may not have been flushed after the checkpoint, but the high ids recorded in it are durable
+        NeoStores stores = neoStore.getNeoStores();
+        for (StoreType type : StoreType.STORE_TYPES) {
+            long highId = state.highIds()[type.ordinal()];
+            if (highId >= 0 && mainStoresToKeep.test(type)) {
+                stores.getRecordStore(type).getIdGenerator().setHighId(highId);
+            }
+        }
+        if (keepTemporaryGroups) {
+            neoStore.getTemporaryRelationshipGroupStore()
+                    .getIdGenerator()
+                    .setHighId(state.temporaryRelationshipGroupHighId());
+        }
+        putState(state.dataStatistics());
+        log.info("Resuming import after completed stage " + stage);
+        monitor.resumingImport(stage.name());
+        return stage;
+    }
+
+    /**
+     * Flushes the stores and durably records the given stage as completed, so that an import which gets interrupted
+     * later on can be resumed after it. Requires {@link DataStatistics}, i.e. that {@link #importRelationships()}
+     * has run.
+     *
+     * @param stage the stage that was just completed.
+     * @throws IOException on I/O error.
+     */
+    public void checkpoint(ImportCheckpoint.Stage stage) throws IOException {
+        try (var cursorContext = contextFactory.create(IMPORT_CHECKPOINT_TAG)) {
+            neoStore.flushAndForce(cursorContext);
+        }
+        NeoStores stores = neoStore.getNeoStores();
+        long[] highIds = new long[StoreType.STORE_TYPES.length];
+        for (StoreType type : StoreType.STORE_TYPES) {
+            highIds[type.ordinal()] = type == StoreType.META_DATA
+                    ? -1
+                    : stores.getRecordStore(type).getIdGenerator().getHighId();
+        }
+        checkpoint.completed(new ImportCheckpoint.State(
+                stage,
+                getState(DataStatistics.class),
+                highIds,
+                neoStore.getTemporaryRelationshipGroupStore().getIdGenerator().getHighId()));
+        log.info("Import checkpoint after completed stage " + stage);
+    }
+
     public void initialize(Input input) throws IOException {
         log.info("Import starting");
         startTime = currentTimeMillis();
@@ -182,12 +283,13 @@ public class ImportLogic implements Closeable {
                 numberArrayFactoryMonitor,
                 log,
                 databaseName);
+        Input.Estimates inputEstimates =
+                input.calculateEstimates(neoStore.getPropertyStore().newValueEncodedSizeCalculator());
         // Some temporary caches and indexes in the import
+        idMapperExternalSort = idMapperExternalSort(input, inputEstimates);
         idMapper = instantiateIdMapper(input);
         nodeRelationshipCache = new NodeRelationshipCache(
                 numberArrayFactory, dbConfig.get(GraphDatabaseSettings.dense_node_threshold), memoryTracker);
-        Input.Estimates inputEstimates =
-                input.calculateEstimates(neoStore.getPropertyStore().newValueEncodedSizeCalculator());
 
         // Sanity checking against estimates
         new EstimationSanityChecker(recordFormats, monitor).sanityCheck(inputEstimates);
@@ -212,12 +314,38 @@ public class ImportLogic implements Closeable {
     protected IdMapper instantiateIdMapper(Input input) {
         return switch (input.idType()) {
             case STRING -> IdMappers.strings(
-                    numberArrayFactory, input.groups(), config.strictNodeCheck(), memoryTracker);
-            case INTEGER -> IdMappers.longs(numberArrayFactory, input.groups(), memoryTracker);
+                    numberArrayFactory, input.groups(), config.strictNodeCheck(), idMapperExternalSort, memoryTracker);
+            case INTEGER -> IdMappers.longs(numberArrayFactory, input.groups(), idMapperExternalSort, memoryTracker);
             case ACTUAL -> IdMappers.actual();
         };
     }
 
+    /**
+     * The id mapper sorts its caches in memory, which is fast as long as they fit in memory. If they're estimated to
+     * not fit in what's left after the page cache, they'll be allocated in the page cache and the sort is instead
+     * done on disk, see {@link ExternalSort}.
+     *
+     * @return settings for sorting the id mapper on disk, or {@code null} if it's sorted in memory.
+     */
+    private ExternalSort.Settings idMapperExternalSort(Input input, Input.Estimates estimates) {
+        if (input.idType() == IdType.ACTUAL) {
+            return null;
+        }
+        long estimatedIdMapperMemory = EncodingIdMapper.estimateMemory(
+                estimates.numberOfNodes(), input.groups().size());
+        long availableMemory = maxMemory - totalMemoryUsageOf(neoStore);
+        if (estimatedIdMapperMemory <= availableMemory) {
+            return null;
+        }
+        monitor.idMapperSortedOnDisk(estimatedIdMapperMemory, availableMemory);
+        log.info("Id mapper estimated to need " + bytesToString(estimatedIdMapperMemory) + ", but only "
+                + bytesToString(availableMemory) + " is available, it will be sorted on disk");
+        long maxEntriesInMemory =
+                Runtime.getRuntime().maxMemory() / ID_MAPPER_SORT_HEAP_SHARE_DIVISOR / (Long.BYTES * 2);
+        return new ExternalSort.Settings(
+                neoStore.fileSystem(), databaseDirectory.resolve(ID_MAPPER_SORT_DIRECTORY_NAME), maxEntriesInMemory);
+    }
+
     /**
      * Accesses state of a certain {@code type}. This is state that may be long- or short-lived and perhaps
      * created in one part of the import to be used in another.
@@ -249,12 +377,14 @@ public class ImportLogic implements Closeable {
     /**
      * Imports nodes w/ their properties and labels from {@link Input#nodes(Collector)}. This will as a side-effect populate the {@link IdMapper},
      * to later be used for looking up ID --> nodeId in {@link #importRelationships()}. After a completed node import,
-     * {@link #prepareIdMapper()} must be called.
+     * {@link #prepareIdMapper()} must be called. Any {@link IndexConfig#rangeIndexes(EntityType) range indexes} on
+     * nodes are populated from the imported nodes and get built in {@link #prepareIdMapper()}.
      *
      * @throws IOException on I/O error.
      */
     public void importNodes(Supplier<SchemaMonitor> schemaMonitors) throws IOException {
         // Import nodes, properties, labels
+        nodeIndexPopulation = propertyIndexPopulation(EntityType.NODE);
         neoStore.startFlushingPageCache();
         DataImporter.importNodes(
                 config,
@@ -266,15 +396,17 @@ public class ImportLogic implements Closeable {
                 storeUpdateMonitor,
                 contextFactory,
                 memoryTracker,
-                schemaMonitors);
+                nodeIndexPopulation.schemaMonitors(schemaMonitors));
         neoStore.stopFlushingPageCache();
         updatePeakMemoryUsage();
     }
 
     /**
      * Prepares {@link IdMapper} to be queried for ID --> nodeId lookups. This is required for running {@link #importRelationships()}.
+     * Duplicate nodes are removed from the store and from the indexes populated by {@link #importNodes()}, after which
+     * those indexes are built.
      */
-    public void prepareIdMapper() {
+    public void prepareIdMapper() throws IOException {
         if (idMapper.needsPreparation()) {
             MemoryUsageStatsProvider memoryUsageStats = new MemoryUsageStatsProvider(neoStore, idMapper);
             try (var cursorContext = contextFactory.create(ID_MAPPER_PREPARATION_TAG)) {
@@ -287,10 +419,16 @@ public class ImportLogic implements Closeable {
             final LongIterator duplicateNodeIds = idMapper.leftOverDuplicateNodesIds();
             if (duplicateNodeIds.hasNext()) {
                 executeStage(new DeleteDuplicateNodesStage(
-                        config, duplicateNodeIds, neoStore.getNeoStores(), storeUpdateMonitor, contextFactory));
+                        config,
+                        duplicateNodeIds,
+                        neoStore.getNeoStores(),
+                        storeUpdateMonitor,
+                        contextFactory,
+                        nodeIndexPopulation));
             }
             updatePeakMemoryUsage();
         }
+        buildIndexes(nodeIndexPopulation);
     }
 
     public void importRelationships() throws IOException {
@@ -322,6 +460,7 @@ public class ImportLogic implements Closeable {
      */
     public void importRelationships(Supplier<SchemaMonitor> schemaMonitors) throws IOException {
         // Import relationships (unlinked), properties
+        relationshipIndexPopulation = propertyIndexPopulation(EntityType.RELATIONSHIP);
         neoStore.startFlushingPageCache();
         DataStatistics typeDistribution = DataImporter.importRelationships(
                 config,
@@ -335,14 +474,35 @@ public class ImportLogic implements Closeable {
                 !badCollector.isCollectingBadRelationships(),
                 contextFactory,
                 memoryTracker,
-                schemaMonitors);
+                relationshipIndexPopulation.schemaMonitors(schemaMonitors));
         neoStore.stopFlushingPageCache();
+        buildIndexes(relationshipIndexPopulation);
         updatePeakMemoryUsage();
         idMapper.close();
         idMapper = null;
         putState(typeDistribution);
     }
 
+    private PropertyIndexPopulation propertyIndexPopulation(EntityType entityType) {
+        return new PropertyIndexPopulation(
+                entityType,
+                config,
+                neoStore,
+                indexImporterFactory,
+                contextFactory,
+                pageCacheTracer,
+                memoryTracker,
+                cursorContext -> new CachedStoreCursors(neoStore.getNeoStores(), cursorContext));
+    }
+
+    private void buildIndexes(PropertyIndexPopulation population) throws IOException {
+        if (population != null && !population.isEmpty()) {
+            long start = currentTimeMillis();
+            population.build();
+            log.info("Built indexes " + population.indexNames() + ", took " + duration(currentTimeMillis() - start));
+        }
+    }
+
     /**
      * Populates {@link NodeRelationshipCache} with node degrees, which is required to know how to physically layout each
      * relationship chain. This is required before running {@link #linkRelationships(int,RelationshipLinkingMonitor)}.
@@ -661,7 +821,14 @@ public class ImportLogic implements Closeable {
                 format("%n%s%nPeak memory usage: %s", additionalInformation, bytesToString(peakMemoryUsage)));
         log.info("Import " + (successful ? "completed successfully" : "failed") + ", took " + duration(totalTimeMillis)
                 + ". " + additionalInformation);
-        closeAll(nodeRelationshipCache, nodeLabelsCache, idMapper);
+        closeAll(nodeRelationshipCache, nodeLabelsCache, idMapper, nodeIndexPopulation, relationshipIndexPopulation);
+        if (checkpoint != null) {
+            if (successful) {
+                checkpoint.delete();
+            } else {
+                checkpoint.close();
+            }
+        }
     }
 
     private void updatePeakMemoryUsage() {
@@ -72,6 +72,7 @@ public abstract class IncrementalBatchImporterFactory implements NamedService {
     public static IncrementalBatchImporterFactory withHighestPriority() {
         return Services.loadAll(IncrementalBatchImporterFactory.class).stream()
                 .max(comparingLong(f -> f.priority))
-                .orElseThrow(() -> new NoSuchElementException("No batch importers found"));
+                .orElseThrow(() -> new NoSuchElementException(
+                        "No incremental batch importer found, incremental import isn't available in this edition"));
     }
 }
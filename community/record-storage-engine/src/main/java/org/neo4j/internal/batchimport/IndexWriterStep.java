@@ -52,6 +52,8 @@ import org.neo4j.storageengine.api.cursor.StoreCursors;
 import org.neo4j.storageengine.util.IdUpdateListener;
 
 public abstract class IndexWriterStep<T> extends ProcessorStep<T> {
+    public static final IndexProviderDescriptor TOKEN_LOOKUP_PROVIDER =
+            new IndexProviderDescriptor("token-lookup", "1.0");
     private static final String INDEX_IMPORTER_CREATION_TAG = "indexImporterCreation";
 
     public IndexWriterStep(
@@ -112,10 +114,9 @@ public abstract class IndexWriterStep<T> extends ProcessorStep<T> {
             CursorContext cursorContext,
             StoreCursors storeCursors) {
         try {
-            IndexProviderDescriptor providerDescriptor = new IndexProviderDescriptor("token-lookup", "1.0");
             IndexPrototype prototype = forSchema(forAnyEntityTokens(entityType))
                     .withIndexType(LOOKUP)
-                    .withIndexProvider(providerDescriptor);
+                    .withIndexProvider(TOKEN_LOOKUP_PROVIDER);
             String name = defaultIfEmpty(
                     config.indexName(entityType), generateName(prototype, EMPTY_STRING_ARRAY, EMPTY_STRING_ARRAY));
             IndexDescriptor descriptor = prototype
@@ -19,8 +19,13 @@
  */
 package org.neo4j.internal.batchimport;
 
+import static org.neo4j.internal.batchimport.ImportCheckpoint.Stage.RELATIONSHIPS_IMPORTED;
+import static org.neo4j.internal.batchimport.ImportCheckpoint.Stage.RELATIONSHIPS_LINKED;
+import static org.neo4j.internal.batchimport.ImportCheckpoint.Stage.RELATIONSHIP_GROUPS_DEFRAGMENTED;
+
 import java.io.IOException;
 import org.neo4j.configuration.Config;
+import org.neo4j.internal.batchimport.ImportCheckpoint.Stage;
 import org.neo4j.internal.batchimport.input.Collector;
 import org.neo4j.internal.batchimport.input.Input;
 import org.neo4j.internal.batchimport.staging.ExecutionMonitor;
@@ -46,6 +51,9 @@ import org.neo4j.storageengine.api.LogFilesInitializer;
  * I/O is only allowed to be read to and written from sequentially, any random access drastically reduces performance.
  * Goes through multiple stages where each stage has one or more steps executing in parallel, passing
  * batches between these steps through each stage, i.e. passing batches downstream.
+ * <p>
+ * The import state is checkpointed after the stages which take the longest, see {@link ImportCheckpoint},
+ * so that an import which gets interrupted can be {@link Configuration#resumeFromCheckpoint() resumed}.
  */
 public class ParallelBatchImporter implements BatchImporter {
     private static final String BATCH_IMPORTER_CHECKPOINT = "Batch importer checkpoint.";
@@ -128,14 +136,23 @@ public class ParallelBatchImporter implements BatchImporter {
                         indexImporterFactory,
                         pageCacheTracer,
                         memoryTracker)) {
-            store.createNew();
+            Stage resumeAfter = logic.createOrResumeStores(config.resumeFromCheckpoint(), input.fingerprint());
             logic.initialize(input);
-            logic.importNodes();
-            logic.prepareIdMapper();
-            logic.importRelationships();
-            logic.calculateNodeDegrees();
-            logic.linkRelationshipsOfAllTypes();
-            logic.defragmentRelationshipGroups();
+            if (!RELATIONSHIPS_IMPORTED.completedBy(resumeAfter)) {
+                logic.importNodes();
+                logic.prepareIdMapper();
+                logic.importRelationships();
+                logic.checkpoint(RELATIONSHIPS_IMPORTED);
+            }
+            if (!RELATIONSHIPS_LINKED.completedBy(resumeAfter)) {
+                logic.calculateNodeDegrees();
+                logic.linkRelationshipsOfAllTypes();
+                logic.checkpoint(RELATIONSHIPS_LINKED);
+            }
+            if (!RELATIONSHIP_GROUPS_DEFRAGMENTED.completedBy(resumeAfter)) {
+                logic.defragmentRelationshipGroups();
+                logic.checkpoint(RELATIONSHIP_GROUPS_DEFRAGMENTED);
+            }
             logFilesInitializer.initializeLogFiles(
                     databaseLayout,
                     store.getNeoStores().getMetaDataStore(),
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport;
+
+import static org.apache.commons.lang3.StringUtils.defaultIfEmpty;
+import static org.neo4j.internal.helpers.collection.Iterators.stream;
+import static org.neo4j.internal.recordstorage.SchemaRuleAccess.getSchemaRuleAccess;
+import static org.neo4j.internal.schema.IndexPrototype.forSchema;
+import static org.neo4j.internal.schema.IndexType.RANGE;
+import static org.neo4j.internal.schema.SchemaNameUtil.generateName;
+import static org.neo4j.io.IOUtils.closeAll;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.eclipse.collections.api.map.primitive.IntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.neo4j.common.EntityType;
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.internal.batchimport.store.BatchingNeoStores;
+import org.neo4j.internal.recordstorage.RecordStorageIndexingBehaviour;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexPrototype;
+import org.neo4j.internal.schema.IndexProviderDescriptor;
+import org.neo4j.internal.schema.SchemaDescriptor;
+import org.neo4j.internal.schema.SchemaDescriptors;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.DynamicAllocatorProviders;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.storageengine.util.IdUpdateListener;
+import org.neo4j.token.TokenHolders;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Populates the {@link IndexConfig#rangeIndexes(EntityType) range indexes} of one entity type from the entities as
+ * they are imported, observing their tokens and properties through {@link SchemaMonitor}. This way the indexes don't
+ * need a scan of the stores after the import to be populated.
+ * <p>
+ * The index rules are written when the population is created and the indexes are completed in {@link #build()},
+ * which must be called after all entities have been imported and any duplicates {@link #remove(long, int[],
+ * IntObjectMap) removed}. Indexes which aren't built are left in the populating state when closed, which means that
+ * the database populates them from the stores when it starts.
+ * <p>
+ * Only entities whose tokens are given by name or id are indexed, i.e. not nodes imported with a pre-encoded
+ * label field.
+ */
+class PropertyIndexPopulation implements AutoCloseable {
+    private static final String INDEX_IMPORTER_CREATION_TAG = "propertyIndexImporterCreation";
+    private static final IndexProviderDescriptor RANGE_PROVIDER = new IndexProviderDescriptor("range", "1.0");
+
+    private final List<Population> populations = new ArrayList<>();
+    private final MutableIntSet indexedPropertyKeys = new IntHashSet();
+    private boolean built;
+
+    static final PropertyIndexPopulation NO_INDEXES = new PropertyIndexPopulation();
+
+    private PropertyIndexPopulation() {}
+
+    PropertyIndexPopulation(
+            EntityType entityType,
+            Configuration config,
+            BatchingNeoStores neoStores,
+            IndexImporterFactory importerFactory,
+            CursorContextFactory contextFactory,
+            PageCacheTracer pageCacheTracer,
+            MemoryTracker memoryTracker,
+            Function<CursorContext, StoreCursors> storeCursorsFactory) {
+        List<IndexConfig.PropertyIndex> indexes = config.indexConfig().rangeIndexes(entityType);
+        if (indexes.isEmpty()) {
+            return;
+        }
+
+        var schemaStore = neoStores.getNeoStores().getSchemaStore();
+        var tokenHolders = neoStores.getTokenHolders();
+        var allocatorProvider = DynamicAllocatorProviders.nonTransactionalAllocator(neoStores.getNeoStores());
+        var schemaRuleAccess = getSchemaRuleAccess(schemaStore, tokenHolders);
+        var indexingBehaviour = new RecordStorageIndexingBehaviour(
+                neoStores.getNodeStore().getRecordsPerPage(),
+                neoStores.getRelationshipStore().getRecordsPerPage());
+        try (var cursorContext = contextFactory.create(INDEX_IMPORTER_CREATION_TAG);
+                var storeCursors = storeCursorsFactory.apply(cursorContext)) {
+            for (IndexConfig.PropertyIndex index : indexes) {
+                SchemaDescriptor schema = schema(index, tokenHolders);
+                IndexDescriptor descriptor = stream(schemaRuleAccess.indexesGetAll(storeCursors))
+                        .filter(existing -> existing.getIndexType() == RANGE
+                                && existing.schema().equals(schema))
+                        .findFirst()
+                        .orElse(null);
+                if (descriptor == null) {
+                    IndexPrototype prototype =
+                            forSchema(schema).withIndexType(RANGE).withIndexProvider(RANGE_PROVIDER);
+                    String name = defaultIfEmpty(
+                            index.name(),
+                            generateName(
+                                    prototype,
+                                    new String[] {index.token()},
+                                    index.propertyKeys().toArray(String[]::new)));
+                    descriptor = prototype
+                            .withName(name)
+                            .materialise(schemaStore.getIdGenerator().nextId(cursorContext));
+                    schemaRuleAccess.writeSchemaRule(
+                            descriptor,
+                            IdUpdateListener.DIRECT,
+                            allocatorProvider,
+                            cursorContext,
+                            memoryTracker,
+                            storeCursors);
+                }
+                IndexImporter importer = importerFactory.getImporter(
+                        descriptor,
+                        neoStores.databaseLayout(),
+                        neoStores.fileSystem(),
+                        neoStores.getPageCache(),
+                        contextFactory,
+                        pageCacheTracer,
+                        neoStores.getOpenOptions(),
+                        indexingBehaviour);
+                populations.add(new Population(descriptor, importer));
+                indexedPropertyKeys.addAll(schema.getPropertyIds());
+            }
+        } catch (KernelException e) {
+            throw new RuntimeException("Error preparing indexes", e);
+        }
+    }
+
+    private static SchemaDescriptor schema(IndexConfig.PropertyIndex index, TokenHolders tokenHolders)
+            throws KernelException {
+        int[] propertyKeyIds = new int[index.propertyKeys().size()];
+        tokenHolders.propertyKeyTokens().getOrCreateIds(index.propertyKeys().toArray(String[]::new), propertyKeyIds);
+        return switch (index.entityType()) {
+            case NODE -> SchemaDescriptors.forLabel(
+                    tokenHolders.labelTokens().getOrCreateId(index.token()), propertyKeyIds);
+            case RELATIONSHIP -> SchemaDescriptors.forRelType(
+                    tokenHolders.relationshipTypeTokens().getOrCreateId(index.token()), propertyKeyIds);
+        };
+    }
+
+    /**
+     * @return whether there are any indexes to populate.
+     */
+    boolean isEmpty() {
+        return populations.isEmpty();
+    }
+
+    boolean isIndexed(int propertyKeyId) {
+        return indexedPropertyKeys.contains(propertyKeyId);
+    }
+
+    List<String> indexNames() {
+        return populations.stream()
+                .map(population -> population.descriptor().getName())
+                .toList();
+    }
+
+    /**
+     * @param schemaMonitors monitors which decide whether imported entities are accepted.
+     * @return monitors which also index the entities accepted by the given monitors.
+     */
+    Supplier<SchemaMonitor> schemaMonitors(Supplier<SchemaMonitor> schemaMonitors) {
+        return populations.isEmpty() ? schemaMonitors : () -> new IndexingSchemaMonitor(schemaMonitors.get());
+    }
+
+    /**
+     * Removes the index entries of an entity which has been imported, but then removed from the store again.
+     * @param entityId id of the removed entity.
+     * @param tokens the labels or relationship type of the removed entity.
+     * @param properties the values of the {@link #isIndexed(int) indexed} properties of the removed entity.
+     */
+    void remove(long entityId, int[] tokens, IntObjectMap<Value> properties) {
+        for (Population population : populations) {
+            Value[] values = population.values(tokens, properties);
+            if (values != null) {
+                population.removals().remove(entityId, values);
+            }
+        }
+    }
+
+    /**
+     * Completes the population of all indexes.
+     */
+    void build() throws IOException {
+        built = true;
+        closeAll(populations.stream().map(Population::importer).toList());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!built) {
+            built = true;
+            closeAll(populations.stream()
+                    .<AutoCloseable>map(population -> population.importer()::abort)
+                    .toList());
+        }
+    }
+
+    private static final class Population {
+        private final IndexDescriptor descriptor;
+        private final IndexImporter importer;
+        private IndexImporter.Writer removals;
+
+        Population(IndexDescriptor descriptor, IndexImporter importer) {
+            this.descriptor = descriptor;
+            this.importer = importer;
+        }
+
+        IndexDescriptor descriptor() {
+            return descriptor;
+        }
+
+        IndexImporter importer() {
+            return importer;
+        }
+
+        synchronized IndexImporter.Writer removals() {
+            if (removals == null) {
+                removals = importer.writer(true);
+            }
+            return removals;
+        }
+
+        /**
+         * @return the values to index for an entity, or {@code null} if the entity isn't indexed.
+         */
+        Value[] values(int[] tokens, IntObjectMap<Value> properties) {
+            SchemaDescriptor schema = descriptor.schema();
+            if (!schema.isAffected(tokens)) {
+                return null;
+            }
+            int[] propertyKeyIds = schema.getPropertyIds();
+            Value[] values = new Value[propertyKeyIds.length];
+            for (int i = 0; i < propertyKeyIds.length; i++) {
+                values[i] = properties.get(propertyKeyIds[i]);
+                if (values[i] == null) {
+                    return null;
+                }
+            }
+            return values;
+        }
+    }
+
+    private class IndexingSchemaMonitor implements SchemaMonitor {
+        private final SchemaMonitor delegate;
+        private final IndexImporter.Writer[] writers;
+        private final MutableIntObjectMap<Value> properties = new IntObjectHashMap<>();
+        private final MutableIntSet tokens = new IntHashSet();
+
+        IndexingSchemaMonitor(SchemaMonitor delegate) {
+            this.delegate = delegate;
+            this.writers = new IndexImporter.Writer[populations.size()];
+            for (int i = 0; i < writers.length; i++) {
+                writers[i] = populations.get(i).importer().writer(true);
+            }
+        }
+
+        @Override
+        public void property(int propertyKeyId, Object value) {
+            delegate.property(propertyKeyId, value);
+            if (indexedPropertyKeys.contains(propertyKeyId)) {
+                properties.put(propertyKeyId, value instanceof Value ? (Value) value : Values.of(value));
+            }
+        }
+
+        @Override
+        public void entityToken(int entityTokenId) {
+            delegate.entityToken(entityTokenId);
+            tokens.add(entityTokenId);
+        }
+
+        @Override
+        public void entityTokens(int[] entityTokenIds) {
+            delegate.entityTokens(entityTokenIds);
+            tokens.addAll(entityTokenIds);
+        }
+
+        @Override
+        public boolean endOfEntity(long entityId, ViolationVisitor violationVisitor) {
+            boolean accepted = delegate.endOfEntity(entityId, violationVisitor);
+            if (accepted && !properties.isEmpty()) {
+                int[] entityTokens = tokens.toArray();
+                for (int i = 0; i < writers.length; i++) {
+                    Value[] values = populations.get(i).values(entityTokens, properties);
+                    if (values != null) {
+                        writers[i].add(entityId, values);
+                    }
+                }
+            }
+            properties.clear();
+            tokens.clear();
+            return accepted;
+        }
+
+        @Override
+        public void reset() {
+            delegate.reset();
+            properties.clear();
+            tokens.clear();
+        }
+    }
+}
@@ -19,8 +19,6 @@
  */
 package org.neo4j.internal.batchimport;
 
-import static org.neo4j.internal.batchimport.RecordIdIterators.allIn;
-
 import java.util.function.Function;
 import org.neo4j.counts.CountsUpdater;
 import org.neo4j.internal.batchimport.cache.NodeLabelsCache;
@@ -55,8 +53,45 @@ public class RelationshipCountsStage extends Stage {
             CursorContextFactory contextFactory,
             Function<CursorContext, StoreCursors> storeCursorsCreator,
             MemoryTracker memoryTracker) {
+        this(
+                config,
+                cache,
+                relationshipStore,
+                relationshipStore.getNumberOfReservedLowIds(),
+                relationshipStore.getIdGenerator().getHighId(),
+                highLabelId,
+                highRelationshipTypeId,
+                countsUpdater,
+                cacheFactory,
+                progressListener,
+                contextFactory,
+                storeCursorsCreator,
+                memoryTracker);
+    }
+
+    /**
+     * Counts only the relationships in the given id range.
+     */
+    public RelationshipCountsStage(
+            Configuration config,
+            NodeLabelsCache cache,
+            RelationshipStore relationshipStore,
+            long lowIdIncluded,
+            long highIdExcluded,
+            int highLabelId,
+            int highRelationshipTypeId,
+            CountsUpdater countsUpdater,
+            NumberArrayFactory cacheFactory,
+            ProgressListener progressListener,
+            CursorContextFactory contextFactory,
+            Function<CursorContext, StoreCursors> storeCursorsCreator,
+            MemoryTracker memoryTracker) {
         super(NAME, null, config, Step.RECYCLE_BATCHES);
-        add(new BatchFeedStep(control(), config, allIn(relationshipStore, config), relationshipStore.getRecordSize()));
+        add(new BatchFeedStep(
+                control(),
+                config,
+                RecordIdIterator.forwards(lowIdIncluded, highIdExcluded, config),
+                relationshipStore.getRecordSize()));
         add(new ReadRecordsStep<>(control(), config, false, relationshipStore, contextFactory));
         add(new ProcessRelationshipCountsDataStep(
                 control(),
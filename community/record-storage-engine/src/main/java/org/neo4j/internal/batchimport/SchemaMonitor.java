@@ -48,6 +48,12 @@ public interface SchemaMonitor {
 
     boolean endOfEntity(long entityId, ViolationVisitor violationVisitor);
 
+    /**
+     * Called when the current entity is skipped, i.e. without {@link #endOfEntity(long, ViolationVisitor)}
+     * being called for it, so that state collected for it can be cleared.
+     */
+    default void reset() {}
+
     interface ViolationVisitor {
         void accept(long entityId, IntList tokens, IntObjectMap<Value> properties, String constraintDescription);
     }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input;
+
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.GROUP_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.RELATIONSHIP_CURSOR;
+
+import java.io.IOException;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.neo4j.common.EntityType;
+import org.neo4j.internal.batchimport.ReadBehaviour;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.token.TokenHolders;
+
+/**
+ * Reads relationships by walking the relationship chain of each node in a range of node ids, as opposed to
+ * {@link LenientRelationshipReader} which reads them in relationship id order. Each relationship is visited
+ * when walking the chain of its start node, which means that the relationships of a node are visited right after
+ * each other, and an importer assigning ids in input order will place them next to each other in the store.
+ * <p>
+ * A relationship that cannot be reached from the chain of its start node will not be visited, which is why chain
+ * problems are reported to {@link ReadBehaviour#error(String, Object...)}.
+ */
+class LenientNodeOrderRelationshipReader extends LenientStoreInputChunk {
+    private final NodeStore nodeStore;
+    private final RelationshipStore relationshipStore;
+    private final RelationshipGroupStore groupStore;
+    private final NodeRecord nodeRecord;
+    private final RelationshipRecord record;
+    private final RelationshipGroupRecord groupRecord;
+    private final PageCursor relationshipCursor;
+    private final PageCursor groupCursor;
+    private final MutableLongSet seenRelationshipIds = LongSets.mutable.empty();
+    private final MutableLongSet seenGroupIds = LongSets.mutable.empty();
+
+    LenientNodeOrderRelationshipReader(
+            ReadBehaviour readBehaviour,
+            NodeStore nodeStore,
+            RelationshipStore relationshipStore,
+            RelationshipGroupStore groupStore,
+            PropertyStore propertyStore,
+            TokenHolders tokenHolders,
+            CursorContextFactory contextFactory,
+            StoreCursors storeCursors,
+            Group group) {
+        super(
+                readBehaviour,
+                propertyStore,
+                tokenHolders,
+                contextFactory,
+                storeCursors,
+                storeCursors.readCursor(NODE_CURSOR),
+                group);
+        this.nodeStore = nodeStore;
+        this.relationshipStore = relationshipStore;
+        this.groupStore = groupStore;
+        this.nodeRecord = nodeStore.newRecord();
+        this.record = relationshipStore.newRecord();
+        this.groupRecord = groupStore.newRecord();
+        this.relationshipCursor = storeCursors.readCursor(RELATIONSHIP_CURSOR);
+        this.groupCursor = storeCursors.readCursor(GROUP_CURSOR);
+    }
+
+    @Override
+    void readAndVisit(long id, InputEntityVisitor visitor, StoreCursors storeCursors) throws IOException {
+        nodeStore.getRecordByCursor(id, nodeRecord, RecordLoad.LENIENT_CHECK, cursor);
+        if (!nodeRecord.inUse()) {
+            return;
+        }
+
+        if (nodeRecord.isDense()) {
+            seenGroupIds.clear();
+            long groupId = nodeRecord.getNextRel();
+            while (!Record.NO_NEXT_RELATIONSHIP.is(groupId)) {
+                if (!seenGroupIds.add(groupId)) {
+                    readBehaviour.error("Node(%d): Ignoring circular relationship group chain.", id);
+                    return;
+                }
+                groupStore.getRecordByCursor(groupId, groupRecord, RecordLoad.LENIENT_CHECK, groupCursor);
+                if (!groupRecord.inUse() || groupRecord.getOwningNode() != id) {
+                    readBehaviour.error("Node(%d): Ignoring broken relationship group chain at %s.", id, groupRecord);
+                    return;
+                }
+                long next = groupRecord.getNext();
+                // Incoming relationships are visited from the chains of their start nodes
+                visitChain(id, groupRecord.getFirstOut(), visitor, storeCursors);
+                visitChain(id, groupRecord.getFirstLoop(), visitor, storeCursors);
+                groupId = next;
+            }
+        } else {
+            visitChain(id, nodeRecord.getNextRel(), visitor, storeCursors);
+        }
+    }
+
+    private void visitChain(
+            long nodeId, long firstRelationshipId, InputEntityVisitor visitor, StoreCursors storeCursors) {
+        seenRelationshipIds.clear();
+        long relationshipId = firstRelationshipId;
+        while (!Record.NO_NEXT_RELATIONSHIP.is(relationshipId)) {
+            if (!seenRelationshipIds.add(relationshipId)) {
+                readBehaviour.error("Node(%d): Ignoring circular relationship chain.", nodeId);
+                return;
+            }
+            relationshipStore.getRecordByCursor(relationshipId, record, RecordLoad.LENIENT_CHECK, relationshipCursor);
+            boolean isStartNode = record.getFirstNode() == nodeId;
+            if (!record.inUse() || (!isStartNode && record.getSecondNode() != nodeId)) {
+                readBehaviour.error("Node(%d): Ignoring broken relationship chain at %s.", nodeId, record);
+                return;
+            }
+            long next = isStartNode ? record.getFirstNextRel() : record.getSecondNextRel();
+            if (isStartNode) {
+                visitRelationship(visitor, storeCursors);
+            }
+            relationshipId = next;
+        }
+    }
+
+    private void visitRelationship(InputEntityVisitor visitor, StoreCursors storeCursors) {
+        try {
+            relationshipStore.ensureHeavy(record, storeCursors);
+            String relationshipTypeName = LenientStoreInput.getTokenByIdSafe(
+                            tokenHolders.relationshipTypeTokens(), record.getType())
+                    .name();
+            if (readBehaviour.shouldIncludeRelationship(relationshipTypeName)) {
+                visitor.type(relationshipTypeName);
+                visitor.startId(record.getFirstNode(), group);
+                visitor.endId(record.getSecondNode(), group);
+                visitPropertyChainNoThrow(
+                        visitor, record, EntityType.RELATIONSHIP, new String[] {relationshipTypeName});
+                visitor.endOfEntity();
+            }
+        } catch (Exception e) {
+            readBehaviour.removed();
+            readBehaviour.error(e, "Relationship(%d): Ignoring broken record.", record.getId());
+        }
+    }
+
+    @Override
+    String recordType() {
+        return "Node";
+    }
+
+    @Override
+    boolean shouldIncludeProperty(ReadBehaviour readBehaviour, String key, String[] owningEntityTokens) {
+        return readBehaviour.shouldIncludeRelationshipProperty(key, owningEntityTokens[0]);
+    }
+}
@@ -29,6 +29,7 @@ import org.neo4j.kernel.impl.store.CommonAbstractStore;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.StoreHeader;
 import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
@@ -42,6 +43,7 @@ public class LenientStoreInput implements Input {
     private final PropertyStore propertyStore;
     private final NodeStore nodeStore;
     private final RelationshipStore relationshipStore;
+    private final RelationshipGroupStore relationshipGroupStore;
     private final NeoStores neoStores;
     private final TokenHolders tokenHolders;
     private final boolean compactNodeIdSpace;
@@ -59,6 +61,7 @@ public class LenientStoreInput implements Input {
         this.propertyStore = neoStores.getPropertyStore();
         this.nodeStore = neoStores.getNodeStore();
         this.relationshipStore = neoStores.getRelationshipStore();
+        this.relationshipGroupStore = neoStores.getRelationshipGroupStore();
         this.neoStores = neoStores;
         this.tokenHolders = tokenHolders;
         this.compactNodeIdSpace = compactNodeIdSpace;
@@ -86,6 +89,23 @@ public class LenientStoreInput implements Input {
 
     @Override
     public InputIterable relationships(Collector badCollector) {
+        if (readBehaviour.relationshipsInNodeOrder()) {
+            return () -> new LenientInputChunkIterator(nodeStore) {
+                @Override
+                public InputChunk newChunk() {
+                    return new LenientNodeOrderRelationshipReader(
+                            readBehaviour,
+                            nodeStore,
+                            relationshipStore,
+                            relationshipGroupStore,
+                            propertyStore,
+                            tokenHolders,
+                            contextFactory,
+                            new CachedStoreCursors(neoStores, CursorContext.NULL_CONTEXT),
+                            inputGroup);
+                }
+            };
+        }
         return () -> new LenientInputChunkIterator(relationshipStore) {
             @Override
             public InputChunk newChunk() {
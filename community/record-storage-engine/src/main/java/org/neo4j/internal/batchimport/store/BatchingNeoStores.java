@@ -50,6 +50,7 @@ import org.neo4j.counts.CountsStore;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.batchimport.AdditionalInitialIds;
 import org.neo4j.internal.batchimport.Configuration;
+import org.neo4j.internal.batchimport.IndexWriterStep;
 import org.neo4j.internal.batchimport.cache.MemoryStatsVisitor;
 import org.neo4j.internal.batchimport.input.Input;
 import org.neo4j.internal.batchimport.store.io.IoTracer;
@@ -219,6 +220,12 @@ public class BatchingNeoStores implements AutoCloseable, MemoryStatsVisitor.Visi
         fileSystem.deleteRecursively(indexDirectory);
     }
 
+    private void deleteTokenIndexes() throws IOException {
+        fileSystem.deleteRecursively(IndexDirectoryStructure.directoriesByProvider(databaseLayout.databaseDirectory())
+                .forProvider(IndexWriterStep.TOKEN_LOOKUP_PROVIDER)
+                .rootDirectory());
+    }
+
     private void deleteCountsStore() throws IOException {
         if (fileSystem.fileExists(databaseLayout.countStore())) {
             fileSystem.deleteFile(databaseLayout.countStore());
@@ -269,18 +276,51 @@ public class BatchingNeoStores implements AutoCloseable, MemoryStatsVisitor.Visi
 
     /**
      * Called when expecting a previous attempt/state of a database to open, where some store files should be kept,
-     * but others deleted. All temporary stores will be deleted in this call.
+     * but others deleted. The counts store, indexes and transaction logs are always deleted since they're
+     * created at the very end of an import.
      *
      * @param mainStoresToKeep {@link Predicate} controlling which files to keep, i.e. {@code true} means keep, {@code false} means delete.
      * @param tempStoresToKeep {@link Predicate} controlling which files to keep, i.e. {@code true} means keep, {@code false} means delete.
      */
     public void pruneAndOpenExistingStore(Predicate<StoreType> mainStoresToKeep, Predicate<StoreType> tempStoresToKeep)
             throws IOException {
+        pruneAndOpenExistingStore(mainStoresToKeep, tempStoresToKeep, false);
+    }
+
+    /**
+     * Like {@link #pruneAndOpenExistingStore(Predicate, Predicate)}, but can keep the property indexes, i.e. all
+     * indexes except the token lookup indexes, which are built by a previous attempt before any store it keeps
+     * is completed.
+     *
+     * @param keepPropertyIndexes whether to keep the property indexes built by the previous attempt.
+     */
+    public void pruneAndOpenExistingStore(
+            Predicate<StoreType> mainStoresToKeep, Predicate<StoreType> tempStoresToKeep, boolean keepPropertyIndexes)
+            throws IOException {
         deleteStoreFiles(temporaryDatabaseLayout, tempStoresToKeep);
         deleteStoreFiles(databaseLayout, mainStoresToKeep);
+        if (keepPropertyIndexes) {
+            deleteTokenIndexes();
+        } else {
+            deleteIndexes();
+        }
+        deleteCountsStore();
+        deleteTransactionLogs();
         instantiateStores();
     }
 
+    private void deleteTransactionLogs() throws IOException {
+        Path logsDirectory = databaseLayout.getTransactionLogsDirectory();
+        if (!fileSystem.fileExists(logsDirectory)) {
+            return;
+        }
+        for (String prefix : new String[] {TransactionLogFilesHelper.DEFAULT_NAME, CHECKPOINT_FILE_PREFIX}) {
+            for (Path file : new TransactionLogFilesHelper(fileSystem, logsDirectory, prefix).getMatchedFiles()) {
+                fileSystem.deleteFile(file);
+            }
+        }
+    }
+
     private void deleteStoreFiles(DatabaseLayout databaseLayout, Predicate<StoreType> storesToKeep) {
         for (StoreType type : StoreType.STORE_TYPES) {
             if (!storesToKeep.test(type)) {
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.factory.primitive.LongObjectMaps;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.storageengine.api.RelationshipDirection;
+
+/**
+ * Keeps the degrees calculated so far while {@link DegreesRebuildFromStore} rebuilds the relationship group degrees
+ * store, so that a rebuild which gets interrupted can skip the relationship id ranges it has already gone through
+ * when started again.
+ * <p>
+ * The file starts with a header describing the store it was written for. A file written for another store state,
+ * i.e. where the last committed transaction or any of the high ids differ, is discarded. Degrees are accumulated in
+ * one cache for all ranges, so each checkpoint is a snapshot of all degrees after the completed ranges rather than
+ * an entry per range. A snapshot is written to a temporary file and forced before it replaces the previous one,
+ * and ends with a marker so that a snapshot which wasn't completely written is discarded.
+ */
+public class DegreesRebuildCheckpoint implements AutoCloseable {
+    private static final long MAGIC = 0x4465677265657352L;
+    private static final int HEADER_SIZE = 7 * Long.BYTES;
+    private static final int ENTRY_SIZE = Long.BYTES + Byte.BYTES + Long.BYTES;
+    private static final int TRAILER_SIZE = 3 * Long.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long END_OF_ENTRIES = -1;
+
+    private final FileSystemAbstraction fs;
+    private final Path file;
+    private final long rangeSize;
+    private final ByteBuffer header;
+    private int numberOfCompletedRanges;
+    private MutableLongObjectMap<long[]> degrees = LongObjectMaps.mutable.empty();
+
+    private DegreesRebuildCheckpoint(FileSystemAbstraction fs, Path file, long rangeSize, ByteBuffer header) {
+        this.fs = fs;
+        this.file = file;
+        this.rangeSize = rangeSize;
+        this.header = header;
+    }
+
+    /**
+     * @return the checkpoint file to use when rebuilding the given degrees store.
+     */
+    public static Path checkpointFileFor(Path degreesStore) {
+        return degreesStore.resolveSibling(degreesStore.getFileName() + ".rebuild");
+    }
+
+    /**
+     * Opens the checkpoint, reading the degrees of the ranges completed by a previous rebuild of the same store state
+     * if there is one.
+     *
+     * @param rangeSize number of relationship ids in each range.
+     * @param lastCommittedTxId last committed transaction id of the store being rebuilt from.
+     * @param highNodeId high node id of the store being rebuilt from.
+     * @param highGroupId high relationship group id of the store being rebuilt from.
+     * @param highRelationshipId high relationship id of the store being rebuilt from.
+     */
+    public static DegreesRebuildCheckpoint open(
+            FileSystemAbstraction fs,
+            Path file,
+            long rangeSize,
+            long lastCommittedTxId,
+            long highNodeId,
+            long highGroupId,
+            long highRelationshipId)
+            throws IOException {
+        if (rangeSize <= 0) {
+            throw new IllegalArgumentException("Invalid range size " + rangeSize);
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putLong(MAGIC)
+                .putLong(lastCommittedTxId)
+                .putLong(highNodeId)
+                .putLong(highGroupId)
+                .putLong(highRelationshipId)
+                .putLong(rangeSize)
+                .putLong(0)
+                .flip();
+        var checkpoint = new DegreesRebuildCheckpoint(fs, file, rangeSize, header);
+        if (fs.fileExists(file)) {
+            checkpoint.readSnapshot();
+        }
+        return checkpoint;
+    }
+
+    /**
+     * @return the number of relationship ids in each range.
+     */
+    public long rangeSize() {
+        return rangeSize;
+    }
+
+    /**
+     * @return number of ranges, counted from the first one, completed by a previous rebuild.
+     */
+    public int numberOfCompletedRanges() {
+        return numberOfCompletedRanges;
+    }
+
+    /**
+     * @return the degree of the given group and direction after the completed ranges.
+     */
+    public long degree(long groupId, RelationshipDirection direction) {
+        long[] groupDegrees = degrees.get(groupId);
+        return groupDegrees == null ? 0 : groupDegrees[direction.id()];
+    }
+
+    /**
+     * Durably replaces the previous snapshot with a snapshot of the degrees after the given number of ranges.
+     * Degrees read from a previous snapshot are released, as they're expected to have been restored by now.
+     *
+     * @param numberOfCompletedRanges number of ranges, counted from the first one, that the degrees include.
+     * @param snapshot writes all degrees to the given updater.
+     */
+    public void completed(int numberOfCompletedRanges, Consumer<DegreeUpdater> snapshot) throws IOException {
+        degrees = LongObjectMaps.mutable.empty();
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (StoreChannel channel = fs.write(tempFile)) {
+            channel.truncate(0);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.put(header.duplicate()).putLong(numberOfCompletedRanges);
+            long[] numberOfEntries = new long[1];
+            var writer = new DegreeUpdater() {
+                @Override
+                public void increment(long groupId, RelationshipDirection direction, long delta) {
+                    if (delta == 0) {
+                        return;
+                    }
+                    if (buffer.remaining() < ENTRY_SIZE) {
+                        flush(channel, buffer);
+                    }
+                    buffer.putLong(groupId).put((byte) direction.id()).putLong(delta);
+                    numberOfEntries[0]++;
+                }
+
+                @Override
+                public void close() {}
+            };
+            try {
+                snapshot.accept(writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (buffer.remaining() < TRAILER_SIZE) {
+                flush(channel, buffer);
+            }
+            buffer.putLong(END_OF_ENTRIES).putLong(numberOfEntries[0]).putLong(MAGIC);
+            flush(channel, buffer);
+            channel.force(false);
+        }
+        fs.renameFile(tempFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+        this.numberOfCompletedRanges = numberOfCompletedRanges;
+    }
+
+    /**
+     * Deletes the checkpoint file, to be called when all ranges have been gone through.
+     */
+    public void delete() throws IOException {
+        close();
+        fs.deleteFile(file);
+    }
+
+    @Override
+    public void close() {
+        degrees = LongObjectMaps.mutable.empty();
+    }
+
+    private void readSnapshot() throws IOException {
+        MutableLongObjectMap<long[]> readDegrees = LongObjectMaps.mutable.empty();
+        try (StoreChannel channel = fs.read(file)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.flip();
+            if (!fill(channel, buffer, HEADER_SIZE + Long.BYTES)
+                    || !buffer.slice(buffer.position(), HEADER_SIZE).equals(header)) {
+                return;
+            }
+            buffer.position(buffer.position() + HEADER_SIZE);
+            int completedRanges = Math.toIntExact(buffer.getLong());
+            long numberOfEntries = 0;
+            while (true) {
+                if (!fill(channel, buffer, Long.BYTES)) {
+                    return;
+                }
+                long groupId = buffer.getLong();
+                if (groupId == END_OF_ENTRIES) {
+                    if (!fill(channel, buffer, 2 * Long.BYTES)
+                            || buffer.getLong() != numberOfEntries
+                            || buffer.getLong() != MAGIC) {
+                        return;
+                    }
+                    break;
+                }
+                if (!fill(channel, buffer, Byte.BYTES + Long.BYTES)) {
+                    return;
+                }
+                int direction = buffer.get();
+                if (direction < 0 || direction > RelationshipDirection.MAX_VALUE.id()) {
+                    return;
+                }
+                readDegrees.getIfAbsentPut(groupId, () -> new long[3])[direction] = buffer.getLong();
+                numberOfEntries++;
+            }
+            degrees = readDegrees;
+            numberOfCompletedRanges = completedRanges;
+        }
+    }
+
+    /**
+     * Makes sure that at least the given number of bytes remain in the buffer, which is kept in read mode.
+     *
+     * @return {@code false} if the file ends before that.
+     */
+    private static boolean fill(StoreChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) == -1) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    private static void flush(StoreChannel channel, ByteBuffer buffer) {
+        try {
+            buffer.flip();
+            channel.writeAll(buffer);
+            buffer.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
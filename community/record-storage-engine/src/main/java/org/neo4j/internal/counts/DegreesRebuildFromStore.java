@@ -28,6 +28,9 @@ import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
 import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
 import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -45,6 +48,7 @@ import org.neo4j.internal.batchimport.staging.Step;
 import org.neo4j.internal.helpers.progress.ProgressListener;
 import org.neo4j.internal.helpers.progress.ProgressMonitorFactory;
 import org.neo4j.io.IOUtils;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContext;
@@ -71,6 +75,9 @@ public class DegreesRebuildFromStore implements DegreesRebuilder {
     private final CursorContextFactory contextFactory;
     private final InternalLog log;
     private final Configuration processingConfig;
+    private final FileSystemAbstraction fs;
+    private final Path checkpointFile;
+    private final long checkpointInterval;
 
     public DegreesRebuildFromStore(
             PageCache pageCache,
@@ -79,12 +86,35 @@ public class DegreesRebuildFromStore implements DegreesRebuilder {
             CursorContextFactory contextFactory,
             InternalLogProvider logProvider,
             Configuration processingConfig) {
+        this(pageCache, neoStores, databaseLayout, contextFactory, logProvider, processingConfig, null, null, 0);
+    }
+
+    /**
+     * @param fs file system to keep the checkpoint file on.
+     * @param checkpointFile file to keep the degrees of completed relationship ranges in, see
+     * {@link DegreesRebuildCheckpoint}, or {@code null} to not checkpoint.
+     * @param checkpointInterval number of relationship records gone through between each checkpoint, or {@code 0}
+     * to not checkpoint.
+     */
+    public DegreesRebuildFromStore(
+            PageCache pageCache,
+            NeoStores neoStores,
+            DatabaseLayout databaseLayout,
+            CursorContextFactory contextFactory,
+            InternalLogProvider logProvider,
+            Configuration processingConfig,
+            FileSystemAbstraction fs,
+            Path checkpointFile,
+            long checkpointInterval) {
         this.pageCache = pageCache;
         this.neoStores = neoStores;
         this.databaseLayout = databaseLayout;
         this.contextFactory = contextFactory;
         this.log = logProvider.getLog(DegreesRebuildFromStore.class);
         this.processingConfig = processingConfig;
+        this.fs = fs;
+        this.checkpointFile = checkpointFile;
+        this.checkpointInterval = checkpointInterval;
     }
 
     @Override
@@ -119,14 +149,58 @@ public class DegreesRebuildFromStore implements DegreesRebuilder {
             superviseDynamicExecution(new PrepareCacheStage(
                     processingConfig, neoStores.getRelationshipGroupStore(), cache, contextFactory, progressListener));
             if (cache.hasAnyGroup()) {
-                superviseDynamicExecution(new CalculateDegreesStage(
-                        processingConfig, neoStores.getRelationshipStore(), cache, contextFactory, progressListener));
+                RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+                long highId = relationshipStore.getIdGenerator().getHighId();
+                if (checkpointFile != null && checkpointInterval > 0) {
+                    calculateDegreesInRanges(cache, relationshipStore, highId, progressListener);
+                } else {
+                    superviseDynamicExecution(new CalculateDegreesStage(
+                            processingConfig, relationshipStore, 0, highId, cache, contextFactory, progressListener));
+                }
             }
             cache.writeTo(updater);
         }
         log.warn("Relationship degrees store rebuild completed.");
     }
 
+    /**
+     * Goes through relationships one id range at a time, checkpointing the degrees after each completed range so
+     * that a rebuild that gets interrupted only needs to go through the ranges that weren't completed. Preparing the
+     * cache from the relationship group store is cheap in comparison and always done.
+     */
+    private void calculateDegreesInRanges(
+            GroupDegreesCache cache, RelationshipStore relationshipStore, long highId, ProgressListener progress) {
+        try (var checkpoint = DegreesRebuildCheckpoint.open(
+                fs,
+                checkpointFile,
+                checkpointInterval,
+                lastCommittedTxId(),
+                neoStores.getNodeStore().getIdGenerator().getHighId(),
+                neoStores.getRelationshipGroupStore().getIdGenerator().getHighId(),
+                highId)) {
+            int completedRanges = checkpoint.numberOfCompletedRanges();
+            if (completedRanges > 0) {
+                log.info("Continuing relationship degrees store rebuild after " + completedRanges
+                        + " completed ranges of " + checkpointInterval + " relationships.");
+                cache.restoreFrom(checkpoint);
+            }
+            int range = 0;
+            for (long fromId = 0; fromId < highId; fromId += checkpointInterval, range++) {
+                long toId = Math.min(highId, fromId + checkpointInterval);
+                if (range < completedRanges) {
+                    progress.add(toId - fromId);
+                    continue;
+                }
+                superviseDynamicExecution(new CalculateDegreesStage(
+                        processingConfig, relationshipStore, fromId, toId, cache, contextFactory, progress));
+                checkpoint.completed(range + 1, cache::writeTo);
+            }
+            checkpoint.delete();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private static class GroupDegreesCache implements AutoCloseable {
         private static final int SHIFT_DIRECTION_BITS = 32;
         private static final int NUM_GROUP_DATA_FIELDS = 3;
@@ -255,6 +329,29 @@ public class DegreesRebuildFromStore implements DegreesRebuilder {
             }
         }
 
+        void restoreFrom(DegreesRebuildCheckpoint checkpoint) {
+            for (long node = 0; node < highNodeId; node++) {
+                long groupIndex = nodeCache.get(node);
+                while (groupIndex != -1) {
+                    long group = groupCache.get(groupIndex);
+                    long groupId = groupCache.get(groupIndex + 2);
+                    long slot = groupIndex + NUM_GROUP_DATA_FIELDS;
+                    if (hasDirectionBit(group, DIRECTION_OUTGOING)) {
+                        groupCache.set(slot, checkpoint.degree(groupId, OUTGOING));
+                        slot++;
+                    }
+                    if (hasDirectionBit(group, DIRECTION_INCOMING)) {
+                        groupCache.set(slot, checkpoint.degree(groupId, INCOMING));
+                        slot++;
+                    }
+                    if (hasDirectionBit(group, DIRECTION_LOOP)) {
+                        groupCache.set(slot, checkpoint.degree(groupId, LOOP));
+                    }
+                    groupIndex = groupCache.get(groupIndex + 1);
+                }
+            }
+        }
+
         boolean hasAnyGroup() {
             return nextGroupLocation.get() > 0;
         }
@@ -314,15 +411,14 @@ public class DegreesRebuildFromStore implements DegreesRebuilder {
         CalculateDegreesStage(
                 Configuration config,
                 RelationshipStore store,
+                long fromId,
+                long toId,
                 GroupDegreesCache cache,
                 CursorContextFactory cursorContextFactory,
                 ProgressListener progress) {
             super("Calculate degrees", null, config, Step.RECYCLE_BATCHES);
             add(new BatchFeedStep(
-                    control(),
-                    config,
-                    withProgress(forwards(0, store.getIdGenerator().getHighId(), config), progress),
-                    store.getRecordSize()));
+                    control(), config, withProgress(forwards(fromId, toId, config), progress), store.getRecordSize()));
             add(new ReadRecordsStep<>(control(), config, false, store, cursorContextFactory));
             add(new CalculateDegreesStep(control(), config, cache, cursorContextFactory));
         }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.LENIENT_CHECK;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.NodeLabelsField;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+
+/**
+ * Keeps a {@link NodeIdBitmap} per label of which nodes have that label, so that checking whether a node has a label
+ * doesn't require decoding the label field of the node record and possibly reading its dynamic label records.
+ * <p>
+ * The cache is {@link #populate(NodeStore, StoreCursors, BooleanSupplier) populated} from the node store in the
+ * background when the storage engine starts, and kept up to date from the node commands of applied transactions,
+ * both while it's being populated and after that. Until population has completed all label checks fall through to
+ * the store. When the bitmaps use more memory than
+ * allowed the bitmap of the label using the most memory is evicted, and that label is from then on not answered
+ * by the cache. Only one thread may update the cache at any given time, but reads can happen concurrently.
+ */
+public class LabelBitmapCache {
+    private static final NodeIdBitmap EVICTED = new NodeIdBitmap();
+    private static final int POPULATION_CHUNK_SIZE = 1_000;
+
+    private final long maxMemory;
+    private final InternalLog log;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Indexed by label id. Copied on write so that readers never see a partially published bitmap
+    private volatile NodeIdBitmap[] bitmaps = new NodeIdBitmap[0];
+    private volatile boolean ready;
+    private long usedMemory;
+
+    public LabelBitmapCache(long maxMemory, InternalLog log) {
+        this.maxMemory = maxMemory;
+        this.log = log;
+    }
+
+    /**
+     * Scans all nodes in the node store, adding them to the bitmaps of their labels. The cache answers no questions
+     * until this has completed. Transactions may be applied while this is running: nodes are read and added in chunks
+     * while holding the same monitor as {@link #setLabels(long, int[])}, so the labels set for a node by an applied
+     * transaction are either read from the store or replace what was read.
+     *
+     * @param stop checked between chunks, population is abandoned without the cache becoming ready if it returns
+     * {@code true}.
+     */
+    public void populate(NodeStore nodeStore, StoreCursors storeCursors, BooleanSupplier stop) {
+        NodeRecord node = new NodeRecord(-1);
+        PageCursor nodeCursor = storeCursors.readCursor(NODE_CURSOR);
+        long highId = nodeStore.getIdGenerator().getHighId();
+        for (long fromId = nodeStore.getNumberOfReservedLowIds(); fromId < highId; fromId += POPULATION_CHUNK_SIZE) {
+            if (stop.getAsBoolean()) {
+                return;
+            }
+            long toId = Math.min(highId, fromId + POPULATION_CHUNK_SIZE);
+            synchronized (this) {
+                for (long id = fromId; id < toId; id++) {
+                    nodeStore.getRecordByCursor(id, node, LENIENT_CHECK, nodeCursor);
+                    if (node.inUse()) {
+                        for (int label : NodeLabelsField.get(node, nodeStore, storeCursors)) {
+                            add(id, label);
+                        }
+                    }
+                }
+                enforceMemoryLimit();
+            }
+        }
+        synchronized (this) {
+            ready = true;
+            log.info(
+                    "Label bitmap cache populated, using %s for %d labels",
+                    ByteUnit.bytesToString(usedMemory),
+                    Arrays.stream(bitmaps)
+                            .filter(bitmap -> bitmap != null && bitmap != EVICTED)
+                            .count());
+        }
+    }
+
+    /**
+     * @return whether the cache has been populated and answers label checks.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Sets the labels of a node, replacing any labels it previously had in the cache.
+     *
+     * @param nodeId the node to set labels for.
+     * @param labels the labels the node has, which is an empty array for a node that has been deleted.
+     */
+    synchronized void setLabels(long nodeId, int[] labels) {
+        NodeIdBitmap[] current = bitmaps;
+        for (int label = 0; label < current.length; label++) {
+            NodeIdBitmap bitmap = current[label];
+            if (bitmap != null && bitmap != EVICTED && !contains(labels, label)) {
+                long memoryBefore = bitmap.memoryUsage();
+                bitmap.remove(nodeId);
+                usedMemory += bitmap.memoryUsage() - memoryBefore;
+            }
+        }
+        for (int label : labels) {
+            add(nodeId, label);
+        }
+        enforceMemoryLimit();
+    }
+
+    /**
+     * Whether the cache can tell if nodes have the given label. Also counts a hit or a miss.
+     *
+     * @param label the label to check.
+     * @return {@code true} if {@link #hasLabel(long, int)} can be used for this label.
+     */
+    boolean covers(int label) {
+        if (ready) {
+            NodeIdBitmap[] current = bitmaps;
+            if (label >= current.length || current[label] != EVICTED) {
+                hits.increment();
+                return true;
+            }
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * @return whether the node has the label. Only valid if the label is {@link #covers(int) covered}.
+     */
+    boolean hasLabel(long nodeId, int label) {
+        NodeIdBitmap[] current = bitmaps;
+        if (label >= current.length) {
+            return false;
+        }
+        NodeIdBitmap bitmap = current[label];
+        return bitmap != null && bitmap.contains(nodeId);
+    }
+
+    /**
+     * @return number of label checks answered by the cache.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of label checks which couldn't be answered by the cache, either because it isn't populated yet
+     * or because the bitmap of the label was evicted.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return estimated number of bytes of heap used by the bitmaps.
+     */
+    public synchronized long usedMemory() {
+        return usedMemory;
+    }
+
+    private void add(long nodeId, int label) {
+        NodeIdBitmap bitmap = bitmapForWriting(label);
+        if (bitmap != EVICTED) {
+            long memoryBefore = bitmap.memoryUsage();
+            bitmap.add(nodeId);
+            usedMemory += bitmap.memoryUsage() - memoryBefore;
+        }
+    }
+
+    private NodeIdBitmap bitmapForWriting(int label) {
+        NodeIdBitmap[] current = bitmaps;
+        if (label < current.length && current[label] != null) {
+            return current[label];
+        }
+        NodeIdBitmap[] updated = Arrays.copyOf(current, Math.max(current.length, label + 1));
+        NodeIdBitmap bitmap = new NodeIdBitmap();
+        updated[label] = bitmap;
+        usedMemory += bitmap.memoryUsage();
+        bitmaps = updated;
+        return bitmap;
+    }
+
+    private void enforceMemoryLimit() {
+        while (usedMemory > maxMemory) {
+            NodeIdBitmap[] current = bitmaps;
+            int largest = -1;
+            for (int label = 0; label < current.length; label++) {
+                NodeIdBitmap bitmap = current[label];
+                if (bitmap != null
+                        && bitmap != EVICTED
+                        && (largest == -1 || bitmap.memoryUsage() > current[largest].memoryUsage())) {
+                    largest = label;
+                }
+            }
+            if (largest == -1) {
+                return;
+            }
+            NodeIdBitmap[] updated = current.clone();
+            usedMemory -= updated[largest].memoryUsage();
+            updated[largest] = EVICTED;
+            bitmaps = updated;
+            log.info(
+                    "Evicted label %d from the label bitmap cache, which is limited to %s",
+                    largest, ByteUnit.bytesToString(maxMemory));
+        }
+    }
+
+    private static boolean contains(int[] labels, int label) {
+        for (int candidate : labels) {
+            if (candidate == label) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_INT_ARRAY;
+import static org.neo4j.kernel.impl.store.NodeLabelsField.fieldPointsToDynamicRecordOfLabels;
+
+import org.neo4j.internal.recordstorage.Command.NodeCommand;
+import org.neo4j.kernel.impl.store.NodeLabelsField;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.storageengine.api.CommandBatchToApply;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+
+/**
+ * Keeps a {@link LabelBitmapCache} up to date with the label changes of applied transactions.
+ * Must come after the applier writing the node records to the store, since labels in dynamic records
+ * that are not part of the command are read from the store.
+ */
+public class LabelBitmapCacheTransactionApplier extends TransactionApplier.Adapter {
+    private final LabelBitmapCache cache;
+    private final NodeStore nodeStore;
+    private final StoreCursors storeCursors;
+
+    public LabelBitmapCacheTransactionApplier(LabelBitmapCache cache, NodeStore nodeStore, StoreCursors storeCursors) {
+        this.cache = cache;
+        this.nodeStore = nodeStore;
+        this.storeCursors = storeCursors;
+    }
+
+    @Override
+    public boolean visitNodeCommand(NodeCommand command) {
+        NodeRecord before = command.getBefore();
+        NodeRecord after = command.getAfter();
+        if (before.inUse() == after.inUse()
+                && before.getLabelField() == after.getLabelField()
+                && !fieldPointsToDynamicRecordOfLabels(after.getLabelField())) {
+            // The labels of this node are the same as before, the node was changed for other reasons
+            return false;
+        }
+        int[] labels =
+                after.inUse() ? NodeLabelsField.getNoEnsureHeavy(after, nodeStore, storeCursors) : EMPTY_INT_ARRAY;
+        cache.setLabels(after.getId(), labels);
+        return false;
+    }
+
+    public static class Factory implements TransactionApplierFactory {
+        private final LabelBitmapCache cache;
+        private final NodeStore nodeStore;
+
+        public Factory(LabelBitmapCache cache, NodeStore nodeStore) {
+            this.cache = cache;
+            this.nodeStore = nodeStore;
+        }
+
+        @Override
+        public TransactionApplier startTx(CommandBatchToApply transaction, BatchContext batchContext) {
+            return new LabelBitmapCacheTransactionApplier(cache, nodeStore, transaction.storeCursors());
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray;
+import static org.neo4j.memory.HeapEstimator.sizeOf;
+import static org.neo4j.memory.HeapEstimator.sizeOfLongArray;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compressed set of node ids, organized like a roaring bitmap: ids are split into chunks of 2^16 ids by their high
+ * bits and each chunk holds the low 16 bits of its ids, either as a sorted array while the chunk is sparse or as a
+ * bitset once the array would be larger than the bitset.
+ * <p>
+ * Reads can happen concurrently with a single writer and never lock. Array chunks are copied on write and bitset
+ * chunks are updated one word at a time, so a reader sees either the old or the new state of any given id.
+ * Only one thread may write at any given time.
+ */
+class NodeIdBitmap {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int LOW_MASK = CHUNK_SIZE - 1;
+    private static final int BITSET_WORDS = CHUNK_SIZE / Long.SIZE;
+    // A sorted array of more ids than this takes more space than a bitset covering the whole chunk
+    private static final int MAX_ARRAY_CARDINALITY = CHUNK_SIZE / Character.SIZE;
+    private static final long BITSET_CHUNK_SIZE = shallowSizeOfInstance(BitsetChunk.class)
+            + shallowSizeOfInstance(AtomicLongArray.class)
+            + sizeOfLongArray(BITSET_WORDS);
+    private static final long SHALLOW_SIZE =
+            shallowSizeOfInstance(NodeIdBitmap.class) + shallowSizeOfInstance(AtomicReferenceArray.class);
+
+    // Each chunk is either null, a char[] or a BitsetChunk
+    private volatile AtomicReferenceArray<Object> chunks = new AtomicReferenceArray<>(0);
+    private long cardinality;
+    private long memoryUsage = SHALLOW_SIZE;
+
+    boolean contains(long nodeId) {
+        AtomicReferenceArray<Object> chunks = this.chunks;
+        long chunkIndex = nodeId >>> CHUNK_BITS;
+        if (chunkIndex >= chunks.length()) {
+            return false;
+        }
+        Object chunk = chunks.get((int) chunkIndex);
+        int low = (int) (nodeId & LOW_MASK);
+        if (chunk instanceof char[] array) {
+            return Arrays.binarySearch(array, (char) low) >= 0;
+        }
+        return chunk != null && ((BitsetChunk) chunk).contains(low);
+    }
+
+    /**
+     * @return {@code true} if the id was added, or {@code false} if it was already in this bitmap.
+     */
+    boolean add(long nodeId) {
+        int chunkIndex = Math.toIntExact(nodeId >>> CHUNK_BITS);
+        AtomicReferenceArray<Object> chunks = ensureCapacity(chunkIndex);
+        Object chunk = chunks.get(chunkIndex);
+        char low = (char) (nodeId & LOW_MASK);
+        if (chunk == null) {
+            char[] array = {low};
+            chunks.set(chunkIndex, array);
+            memoryUsage += sizeOf(array);
+        } else if (chunk instanceof char[] array) {
+            int position = Arrays.binarySearch(array, low);
+            if (position >= 0) {
+                return false;
+            }
+            if (array.length == MAX_ARRAY_CARDINALITY) {
+                BitsetChunk bitset = new BitsetChunk(array);
+                bitset.add(low);
+                chunks.set(chunkIndex, bitset);
+                memoryUsage += BITSET_CHUNK_SIZE - sizeOf(array);
+            } else {
+                int insertion = -position - 1;
+                char[] grown = new char[array.length + 1];
+                System.arraycopy(array, 0, grown, 0, insertion);
+                grown[insertion] = low;
+                System.arraycopy(array, insertion, grown, insertion + 1, array.length - insertion);
+                chunks.set(chunkIndex, grown);
+                memoryUsage += sizeOf(grown) - sizeOf(array);
+            }
+        } else if (!((BitsetChunk) chunk).add(low)) {
+            return false;
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the id was removed, or {@code false} if it wasn't in this bitmap.
+     */
+    boolean remove(long nodeId) {
+        AtomicReferenceArray<Object> chunks = this.chunks;
+        long chunkIndex = nodeId >>> CHUNK_BITS;
+        if (chunkIndex >= chunks.length()) {
+            return false;
+        }
+        int index = (int) chunkIndex;
+        Object chunk = chunks.get(index);
+        char low = (char) (nodeId & LOW_MASK);
+        if (chunk instanceof char[] array) {
+            int position = Arrays.binarySearch(array, low);
+            if (position < 0) {
+                return false;
+            }
+            char[] shrunk = null;
+            if (array.length > 1) {
+                shrunk = new char[array.length - 1];
+                System.arraycopy(array, 0, shrunk, 0, position);
+                System.arraycopy(array, position + 1, shrunk, position, shrunk.length - position);
+                memoryUsage += sizeOf(shrunk);
+            }
+            chunks.set(index, shrunk);
+            memoryUsage -= sizeOf(array);
+        } else if (chunk != null) {
+            BitsetChunk bitset = (BitsetChunk) chunk;
+            if (!bitset.remove(low)) {
+                return false;
+            }
+            if (bitset.cardinality < MAX_ARRAY_CARDINALITY / 2) {
+                // Switch back to an array with some hysteresis, so that an id flipping back and forth right at
+                // the limit doesn't convert the chunk every time
+                char[] array = bitset.toArray();
+                chunks.set(index, array);
+                memoryUsage += sizeOf(array) - BITSET_CHUNK_SIZE;
+            }
+        } else {
+            return false;
+        }
+        cardinality--;
+        return true;
+    }
+
+    long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return estimated number of bytes of heap used by this bitmap.
+     */
+    long memoryUsage() {
+        return memoryUsage;
+    }
+
+    private AtomicReferenceArray<Object> ensureCapacity(int chunkIndex) {
+        AtomicReferenceArray<Object> chunks = this.chunks;
+        if (chunkIndex < chunks.length()) {
+            return chunks;
+        }
+        int newLength = Math.max(chunkIndex + 1, chunks.length() * 2);
+        AtomicReferenceArray<Object> grown = new AtomicReferenceArray<>(newLength);
+        for (int i = 0; i < chunks.length(); i++) {
+            grown.set(i, chunks.get(i));
+        }
+        memoryUsage += shallowSizeOfObjectArray(newLength) - shallowSizeOfObjectArray(chunks.length());
+        this.chunks = grown;
+        return grown;
+    }
+
+    private static final class BitsetChunk {
+        private final AtomicLongArray words = new AtomicLongArray(BITSET_WORDS);
+        private int cardinality;
+
+        BitsetChunk(char[] array) {
+            for (char low : array) {
+                add(low);
+            }
+        }
+
+        boolean contains(int low) {
+            return (words.get(low >>> 6) & (1L << low)) != 0;
+        }
+
+        boolean add(int low) {
+            int index = low >>> 6;
+            long word = words.get(index);
+            long bit = 1L << low;
+            if ((word & bit) != 0) {
+                return false;
+            }
+            words.set(index, word | bit);
+            cardinality++;
+            return true;
+        }
+
+        boolean remove(int low) {
+            int index = low >>> 6;
+            long word = words.get(index);
+            long bit = 1L << low;
+            if ((word & bit) == 0) {
+                return false;
+            }
+            words.set(index, word & ~bit);
+            cardinality--;
+            return true;
+        }
+
+        char[] toArray() {
+            char[] array = new char[cardinality];
+            int cursor = 0;
+            for (int i = 0; i < BITSET_WORDS; i++) {
+                long word = words.get(i);
+                while (word != 0) {
+                    array[cursor++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return array;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.GROUP_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.PROPERTY_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.RELATIONSHIP_CURSOR;
+
+import java.util.OptionalDouble;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.CommonAbstractStore;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+
+/**
+ * Samples how many distinct store pages need to be visited to read a node together with its property chain,
+ * its relationship groups and all its relationship chains. This is a measure of how well the records
+ * of each node are co-located in the store files, which is what dominates the cost of cold traversals.
+ * <p>
+ * Nodes are sampled evenly over the whole node id space. Chains are followed leniently and a broken or
+ * circular chain simply ends the walk of that chain.
+ */
+public class NodeLocalitySampler {
+    private static final int NODE_STORE = 0;
+    private static final int PROPERTY_STORE = 1;
+    private static final int RELATIONSHIP_STORE = 2;
+    private static final int GROUP_STORE = 3;
+    private static final int STORE_SHIFT = 56;
+
+    private final NodeStore nodeStore;
+    private final PropertyStore propertyStore;
+    private final RelationshipStore relationshipStore;
+    private final RelationshipGroupStore groupStore;
+    private final PageCursor nodeCursor;
+    private final PageCursor propertyCursor;
+    private final PageCursor relationshipCursor;
+    private final PageCursor groupCursor;
+    private final NodeRecord nodeRecord;
+    private final PropertyRecord propertyRecord;
+    private final RelationshipRecord relationshipRecord;
+    private final RelationshipGroupRecord groupRecord;
+    private final MutableLongSet touchedPages = LongSets.mutable.empty();
+    private final MutableLongSet seenGroupIds = LongSets.mutable.empty();
+    private final MutableLongSet seenRelationshipIds = LongSets.mutable.empty();
+    private final MutableLongSet seenPropertyIds = LongSets.mutable.empty();
+
+    public NodeLocalitySampler(NeoStores neoStores, StoreCursors storeCursors) {
+        this.nodeStore = neoStores.getNodeStore();
+        this.propertyStore = neoStores.getPropertyStore();
+        this.relationshipStore = neoStores.getRelationshipStore();
+        this.groupStore = neoStores.getRelationshipGroupStore();
+        this.nodeCursor = storeCursors.readCursor(NODE_CURSOR);
+        this.propertyCursor = storeCursors.readCursor(PROPERTY_CURSOR);
+        this.relationshipCursor = storeCursors.readCursor(RELATIONSHIP_CURSOR);
+        this.groupCursor = storeCursors.readCursor(GROUP_CURSOR);
+        this.nodeRecord = nodeStore.newRecord();
+        this.propertyRecord = propertyStore.newRecord();
+        this.relationshipRecord = relationshipStore.newRecord();
+        this.groupRecord = groupStore.newRecord();
+    }
+
+    /**
+     * @param maxSampledNodes the maximum number of node ids to look at.
+     * @return the average number of distinct pages touched per sampled node in use, or empty if there were none.
+     */
+    public OptionalDouble averagePagesTouchedPerNode(int maxSampledNodes) {
+        long highId = nodeStore.getIdGenerator().getHighId();
+        long stride = Math.max(1, highId / Math.max(1, maxSampledNodes));
+        long sampledNodes = 0;
+        long totalPages = 0;
+        for (long nodeId = 0; nodeId < highId; nodeId += stride) {
+            int pages = pagesTouched(nodeId);
+            if (pages > 0) {
+                sampledNodes++;
+                totalPages += pages;
+            }
+        }
+        return sampledNodes == 0 ? OptionalDouble.empty() : OptionalDouble.of((double) totalPages / sampledNodes);
+    }
+
+    /**
+     * @param nodeId the node to read.
+     * @return the number of distinct pages touched when reading the node and its chains, or {@code 0} if the node
+     * is not in use.
+     */
+    int pagesTouched(long nodeId) {
+        nodeStore.getRecordByCursor(nodeId, nodeRecord, RecordLoad.LENIENT_CHECK, nodeCursor);
+        if (!nodeRecord.inUse()) {
+            return 0;
+        }
+        touchedPages.clear();
+        touch(NODE_STORE, nodeStore, nodeId);
+        visitPropertyChain(nodeRecord.getNextProp());
+        if (nodeRecord.isDense()) {
+            seenGroupIds.clear();
+            long groupId = nodeRecord.getNextRel();
+            while (!Record.NO_NEXT_RELATIONSHIP.is(groupId) && seenGroupIds.add(groupId)) {
+                groupStore.getRecordByCursor(groupId, groupRecord, RecordLoad.LENIENT_CHECK, groupCursor);
+                if (!groupRecord.inUse()) {
+                    break;
+                }
+                touch(GROUP_STORE, groupStore, groupId);
+                long next = groupRecord.getNext();
+                long firstOut = groupRecord.getFirstOut();
+                long firstIn = groupRecord.getFirstIn();
+                long firstLoop = groupRecord.getFirstLoop();
+                visitRelationshipChain(nodeId, firstOut);
+                visitRelationshipChain(nodeId, firstIn);
+                visitRelationshipChain(nodeId, firstLoop);
+                groupId = next;
+            }
+        } else {
+            visitRelationshipChain(nodeId, nodeRecord.getNextRel());
+        }
+        return touchedPages.size();
+    }
+
+    private void visitPropertyChain(long firstPropertyId) {
+        seenPropertyIds.clear();
+        long propertyId = firstPropertyId;
+        while (!Record.NO_NEXT_PROPERTY.is(propertyId) && seenPropertyIds.add(propertyId)) {
+            propertyStore.getRecordByCursor(propertyId, propertyRecord, RecordLoad.LENIENT_CHECK, propertyCursor);
+            if (!propertyRecord.inUse()) {
+                break;
+            }
+            touch(PROPERTY_STORE, propertyStore, propertyId);
+            propertyId = propertyRecord.getNextProp();
+        }
+    }
+
+    private void visitRelationshipChain(long nodeId, long firstRelationshipId) {
+        seenRelationshipIds.clear();
+        long relationshipId = firstRelationshipId;
+        while (!Record.NO_NEXT_RELATIONSHIP.is(relationshipId) && seenRelationshipIds.add(relationshipId)) {
+            relationshipStore.getRecordByCursor(
+                    relationshipId, relationshipRecord, RecordLoad.LENIENT_CHECK, relationshipCursor);
+            if (!relationshipRecord.inUse()) {
+                break;
+            }
+            touch(RELATIONSHIP_STORE, relationshipStore, relationshipId);
+            if (relationshipRecord.getFirstNode() == nodeId) {
+                relationshipId = relationshipRecord.getFirstNextRel();
+            } else if (relationshipRecord.getSecondNode() == nodeId) {
+                relationshipId = relationshipRecord.getSecondNextRel();
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void touch(int storeIndex, CommonAbstractStore<?, ?> store, long id) {
+        long pageId = id / store.getRecordsPerPage();
+        touchedPages.add(((long) storeIndex << STORE_SHIFT) | pageId);
+    }
+}
@@ -38,6 +38,7 @@ public class PropertyCreator {
     private final DynamicRecordAllocator stringRecordAllocator;
     private final DynamicRecordAllocator arrayRecordAllocator;
     private final PropertyTraverser traverser;
+    private final boolean compressDynamicValues;
     private final CursorContext cursorContext;
     private final IdSequence propertyIdSequence;
 
@@ -47,7 +48,22 @@ public class PropertyCreator {
             PropertyTraverser traverser,
             IdSequenceProvider idSequenceProvider,
             CursorContext cursorContext) {
+        this(stringRecordAllocator, arrayRecordAllocator, traverser, idSequenceProvider, false, cursorContext);
+    }
+
+    /**
+     * @param compressDynamicValues whether to store string and array values in dynamic records compressed,
+     * when that saves records.
+     */
+    public PropertyCreator(
+            DynamicRecordAllocator stringRecordAllocator,
+            DynamicRecordAllocator arrayRecordAllocator,
+            PropertyTraverser traverser,
+            IdSequenceProvider idSequenceProvider,
+            boolean compressDynamicValues,
+            CursorContext cursorContext) {
         this.stringRecordAllocator = stringRecordAllocator;
+        this.compressDynamicValues = compressDynamicValues;
         this.arrayRecordAllocator = arrayRecordAllocator;
         this.traverser = traverser;
         this.cursorContext = cursorContext;
@@ -187,7 +203,14 @@ public class PropertyCreator {
     private PropertyBlock encodePropertyValue(int propertyKey, Value value, MemoryTracker memoryTracker) {
         PropertyBlock block = new PropertyBlock();
         PropertyStore.encodeValue(
-                block, propertyKey, value, stringRecordAllocator, arrayRecordAllocator, cursorContext, memoryTracker);
+                block,
+                propertyKey,
+                value,
+                stringRecordAllocator,
+                arrayRecordAllocator,
+                compressDynamicValues,
+                cursorContext,
+                memoryTracker);
         return block;
     }
 }
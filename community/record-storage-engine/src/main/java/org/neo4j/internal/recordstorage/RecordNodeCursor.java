@@ -40,6 +40,7 @@ import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.kernel.impl.store.record.RecordLoadOverride;
 import org.neo4j.storageengine.api.AllNodeScan;
 import org.neo4j.storageengine.api.Degrees;
+import org.neo4j.storageengine.api.NodeBatch;
 import org.neo4j.storageengine.api.PropertySelection;
 import org.neo4j.storageengine.api.Reference;
 import org.neo4j.storageengine.api.RelationshipDirection;
@@ -54,6 +55,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor {
     private final RelationshipGroupDegreesStore groupDegreesStore;
     private final CursorContext cursorContext;
     private final StoreCursors storeCursors;
+    private final LabelBitmapCache labelBitmapCache;
     private final RelationshipStore relationshipStore;
     private final RelationshipGroupStore groupStore;
     private PageCursor singleCursor;
@@ -76,11 +78,27 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor {
             RelationshipGroupDegreesStore groupDegreesStore,
             CursorContext cursorContext,
             StoreCursors storeCursors) {
+        this(read, relationshipStore, groupStore, groupDegreesStore, cursorContext, storeCursors, null);
+    }
+
+    /**
+     * @param labelBitmapCache cache to answer {@link #hasLabel(int)} from, or {@code null} to always decode the labels
+     * of the node record.
+     */
+    RecordNodeCursor(
+            NodeStore read,
+            RelationshipStore relationshipStore,
+            RelationshipGroupStore groupStore,
+            RelationshipGroupDegreesStore groupDegreesStore,
+            CursorContext cursorContext,
+            StoreCursors storeCursors,
+            LabelBitmapCache labelBitmapCache) {
         super(NO_ID);
         this.read = read;
         this.groupDegreesStore = groupDegreesStore;
         this.cursorContext = cursorContext;
         this.storeCursors = storeCursors;
+        this.labelBitmapCache = labelBitmapCache;
         this.relationshipStore = relationshipStore;
         this.groupStore = groupStore;
         this.loadMode = RecordLoadOverride.none();
@@ -153,6 +171,9 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor {
 
     @Override
     public boolean hasLabel(int label) {
+        if (labelBitmapCache != null && labelBitmapCache.covers(label)) {
+            return labelBitmapCache.hasLabel(getId(), label);
+        }
         return NodeLabelsField.hasLabel(this, read, storeCursors, label);
     }
 
@@ -352,6 +373,48 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor {
         return true;
     }
 
+    @Override
+    public int nextBatch(NodeBatch batch) {
+        int sizeBefore = batch.size();
+        int[] labels = batch.labels();
+        while (!batch.isFull() && next()) {
+            long labelBits = labels.length == 0 || !hasLabel() ? 0 : labelBits(batch, labels);
+            batch.add(
+                    getId(),
+                    labelBits,
+                    relationshipsReferenceWithDenseMarker(getNextRel(), isDense()),
+                    longReference(getNextProp()));
+        }
+        return batch.size() - sizeBefore;
+    }
+
+    private long labelBits(NodeBatch batch, int[] labels) {
+        if (labels.length == 1) {
+            // A single label can be looked for without decoding all labels of the node
+            return hasLabel(labels[0]) ? 1 : 0;
+        }
+        if (labelBitmapCache != null && coversAll(labels)) {
+            long labelBits = 0;
+            for (int i = 0; i < labels.length; i++) {
+                if (labelBitmapCache.hasLabel(getId(), labels[i])) {
+                    labelBits |= 1L << i;
+                }
+            }
+            return labelBits;
+        }
+        // Decode the labels once, instead of once per label which could mean reading dynamic label records many times
+        return batch.labelBits(labels());
+    }
+
+    private boolean coversAll(int[] labels) {
+        for (int label : labels) {
+            if (!labelBitmapCache.covers(label)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void reset() {
         if (open) {
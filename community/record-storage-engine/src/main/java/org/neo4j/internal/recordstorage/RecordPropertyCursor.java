@@ -21,6 +21,7 @@ package org.neo4j.internal.recordstorage;
 
 import static org.neo4j.internal.recordstorage.InconsistentDataReadException.CYCLE_DETECTION_THRESHOLD;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.ALWAYS;
+import static org.neo4j.storageengine.api.PropertySelection.UNKNOWN_NUMBER_OF_KEYS;
 import static org.neo4j.values.storable.Values.NO_VALUE;
 
 import java.nio.ByteBuffer;
@@ -32,6 +33,7 @@ import org.neo4j.io.memory.HeapScopedBuffer;
 import org.neo4j.io.memory.ScopedBuffer;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.DynamicValueCompression;
 import org.neo4j.kernel.impl.store.GeometryType;
 import org.neo4j.kernel.impl.store.InvalidRecordException;
 import org.neo4j.kernel.impl.store.LongerShortString;
@@ -87,6 +89,8 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
     private EntityType ownerEntityType;
     private RecordLoadOverride loadMode;
     private PropertySelection selection;
+    // Number of selected keys not yet returned, or -1 if the selection isn't discrete and the whole chain must be read
+    private int remainingKeys;
     private int propertyKey;
 
     RecordPropertyCursor(
@@ -141,10 +145,16 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
         this.cycleDetection = null;
         this.open = true;
         this.selection = selection;
+        this.remainingKeys = loadMode == RecordLoadOverride.FORCE ? UNKNOWN_NUMBER_OF_KEYS : selection.numberOfKeys();
     }
 
     @Override
     public boolean next() {
+        if (remainingKeys == 0) {
+            // All selected keys have been found, a key occurs at most once in a chain so there's no need to read
+            // any further property records
+            return false;
+        }
         while (true) {
             // Figure out number of blocks of record
             int numberOfBlocks = getNumberOfBlocks();
@@ -168,6 +178,9 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
 
                 propertyKey = PropertyBlock.keyIndexId(currentBlock());
                 if (selection.test(propertyKey)) {
+                    if (remainingKeys > 0) {
+                        remainingKeys--;
+                    }
                     return true;
                 }
             }
@@ -210,12 +223,15 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
             ownerReference = NO_ID;
             cycleDetection = null;
             selection = PropertySelection.NO_PROPERTIES;
+            remainingKeys = UNKNOWN_NUMBER_OF_KEYS;
         }
     }
 
     @Override
     public void setForceLoad() {
         this.loadMode = RecordLoadOverride.FORCE;
+        // Inconsistent chains may contain the same key multiple times, so read them in full
+        this.remainingKeys = UNKNOWN_NUMBER_OF_KEYS;
     }
 
     @Override
@@ -400,6 +416,9 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
     private TextValue string(RecordPropertyCursor cursor, long reference, PageCursor page) {
         propertyStore.loadString(reference, cursor, page, loadMode.orElse(ALWAYS));
         buffer.flip();
+        if (DynamicValueCompression.isCompressed(buffer)) {
+            return Values.utf8Value(DynamicValueCompression.decompress(buffer).array());
+        }
         byte[] bytes = new byte[buffer.limit()];
         buffer.get(bytes);
         return Values.utf8Value(bytes);
@@ -138,6 +138,19 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements A
         return add(direction, mutator, Math.max(count - 1, 0));
     }
 
+    /**
+     * @return the degree of the chain in the given direction if it is kept in the degrees store, otherwise {@code -1}.
+     */
+    long externalDegree(RelationshipDirection direction) {
+        boolean hasExternal =
+                switch (direction) {
+                    case OUTGOING -> hasExternalDegreesOut();
+                    case INCOMING -> hasExternalDegreesIn();
+                    case LOOP -> hasExternalDegreesLoop();
+                };
+        return hasExternal ? groupDegreesStore.degree(getId(), direction, cursorContext) : -1;
+    }
+
     private boolean add(RelationshipDirection direction, Degrees.Mutator mutator, int count) {
         return switch (direction) {
             case OUTGOING -> mutator.add(getType(), count, 0, 0);
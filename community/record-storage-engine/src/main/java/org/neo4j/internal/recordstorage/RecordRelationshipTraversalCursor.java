@@ -30,6 +30,7 @@ import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.storageengine.api.ReadTracer;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.RelationshipSelection;
 import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
@@ -52,6 +53,9 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
     private final RecordRelationshipGroupCursor group;
     private GroupState groupState = GroupState.NONE;
     private boolean open;
+    private final RelationshipChainPrefetcher prefetcher;
+    private RelationshipDirection chainDirection;
+    private boolean chainHead;
 
     RecordRelationshipTraversalCursor(
             RelationshipStore relationshipStore,
@@ -59,10 +63,29 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
             RelationshipGroupDegreesStore groupDegreesStore,
             CursorContext cursorContext,
             StoreCursors storeCursors) {
+        this(relationshipStore, groupStore, groupDegreesStore, cursorContext, storeCursors, 0, null);
+    }
+
+    /**
+     * @param prefetchPages max number of pages to prefetch when starting to traverse a relationship chain of a dense node,
+     * or {@code 0} to disable prefetching.
+     * @param prefetchStatistics where to report the outcome of prefetching, only used if prefetching is enabled.
+     */
+    RecordRelationshipTraversalCursor(
+            RelationshipStore relationshipStore,
+            RelationshipGroupStore groupStore,
+            RelationshipGroupDegreesStore groupDegreesStore,
+            CursorContext cursorContext,
+            StoreCursors storeCursors,
+            int prefetchPages,
+            RelationshipChainPrefetchStatistics prefetchStatistics) {
         super(relationshipStore, cursorContext);
         this.storeCursors = storeCursors;
         this.group = new RecordRelationshipGroupCursor(
                 relationshipStore, groupStore, groupDegreesStore, loadMode, cursorContext, storeCursors);
+        this.prefetcher = prefetchPages > 0
+                ? new RelationshipChainPrefetcher(relationshipStore, cursorContext, prefetchStatistics, prefetchPages)
+                : null;
     }
 
     void init(RecordNodeCursor nodeCursor, RelationshipSelection selection) {
@@ -88,6 +111,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
             return;
         }
 
+        completeExpand();
         this.selection = selection;
         if (isDense) {
             // The reference points to a relationship group record
@@ -154,6 +178,9 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
 
             relationshipFull(this, next, pageCursor);
             computeNext();
+            if (prefetcher != null) {
+                prefetchChain();
+            }
             if (tracer != null) {
                 tracer.onRelationship(entityReference());
             }
@@ -220,6 +247,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
                     if (selection.test(group.getType(), INCOMING)) {
                         next = group.incomingRawId();
                         ensureCursor();
+                        chainStarted(INCOMING);
                     }
                     groupState = GroupState.OUTGOING;
                     break;
@@ -228,6 +256,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
                     if (selection.test(group.getType(), OUTGOING)) {
                         ensureCursor();
                         next = group.outgoingRawId();
+                        chainStarted(OUTGOING);
                     }
                     groupState = GroupState.LOOP;
                     break;
@@ -236,6 +265,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
                     if (selection.test(group.getType(), LOOP)) {
                         ensureCursor();
                         next = group.loopsRawId();
+                        chainStarted(LOOP);
                     }
                     groupState = GroupState.INCOMING;
                     break;
@@ -246,6 +276,30 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         }
     }
 
+    private void chainStarted(RelationshipDirection direction) {
+        if (prefetcher != null && next != NO_ID) {
+            chainHead = true;
+            chainDirection = direction;
+        }
+    }
+
+    /*
+     * Called for every relationship read. When the first relationship of a dense node's chain has been read
+     * the degree of the chain is known, either from the degrees store or from the record itself, as well as
+     * the direction in which the chain runs, which is what the prefetcher needs.
+     */
+    private void prefetchChain() {
+        prefetcher.visited(getId());
+        if (chainHead) {
+            chainHead = false;
+            long degree = group.externalDegree(chainDirection);
+            if (degree < 0) {
+                degree = isFirstInChain(originNodeReference) ? getPrevRel(originNodeReference) : 1;
+            }
+            prefetcher.prefetch(getId(), next, degree);
+        }
+    }
+
     private void ensureCursor() {
         if (pageCursor == null) {
             pageCursor = storeCursors.readCursor(RecordCursorTypes.RELATIONSHIP_CURSOR);
@@ -301,11 +355,20 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         setId(next = NO_ID);
         groupState = GroupState.NONE;
         selection = null;
+        completeExpand();
+    }
+
+    private void completeExpand() {
+        if (prefetcher != null) {
+            chainHead = false;
+            prefetcher.expandCompleted();
+        }
     }
 
     @Override
     public void close() {
         group.close();
+        completeExpand();
         pageCursor = null; // Cursor owned by StoreCursors cache so not closed here
     }
 
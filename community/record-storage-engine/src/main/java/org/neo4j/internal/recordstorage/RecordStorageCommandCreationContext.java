@@ -105,6 +105,7 @@ class RecordStorageCommandCreationContext implements CommandCreationContext {
                 dynamicAllocatorProvider.allocator(StoreType.PROPERTY_ARRAY),
                 propertyTraverser,
                 transactionSequenceProvider,
+                neoStores.getPropertyStore().compressDynamicValues(),
                 cursorContext);
     }
 
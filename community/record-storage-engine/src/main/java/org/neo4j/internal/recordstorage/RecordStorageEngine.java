@@ -50,10 +50,12 @@ import org.neo4j.internal.batchimport.Configuration;
 import org.neo4j.internal.counts.CountsBuilder;
 import org.neo4j.internal.counts.CountsStoreProvider;
 import org.neo4j.internal.counts.DegreeStoreProvider;
+import org.neo4j.internal.counts.DegreesRebuildCheckpoint;
 import org.neo4j.internal.counts.DegreesRebuildFromStore;
 import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.internal.diagnostics.DiagnosticsLogger;
 import org.neo4j.internal.diagnostics.DiagnosticsManager;
+import org.neo4j.internal.helpers.NamedThreadFactory;
 import org.neo4j.internal.id.IdGeneratorFactory;
 import org.neo4j.internal.id.IdType;
 import org.neo4j.internal.id.SchemaIdType;
@@ -84,6 +86,7 @@ import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.KernelVersionRepository;
 import org.neo4j.kernel.impl.locking.LockManager;
 import org.neo4j.kernel.impl.store.CountsComputer;
+import org.neo4j.kernel.impl.store.CountsRebuildCheckpoint;
 import org.neo4j.kernel.impl.store.MetaDataStore;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.RecordStore;
@@ -136,6 +139,7 @@ import org.neo4j.util.VisibleForTesting;
 public class RecordStorageEngine implements StorageEngine, Lifecycle {
     private static final String STORAGE_ENGINE_START_TAG = "storageEngineStart";
     private static final String SCHEMA_CACHE_START_TAG = "schemaCacheStart";
+    private static final String LABEL_BITMAP_CACHE_POPULATION_TAG = "labelBitmapCachePopulation";
     private static final String TOKENS_INIT_TAG = "tokensInitialisation";
 
     private final NeoStores neoStores;
@@ -162,6 +166,12 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle {
     private final CountsStore countsStore;
     private final RelationshipGroupDegreesStore groupDegreesStore;
     private final int denseNodeThreshold;
+    private final int denseChainPrefetchPages;
+    private final RelationshipChainPrefetchStatistics relationshipChainPrefetchStatistics =
+            new RelationshipChainPrefetchStatistics();
+    private final LabelBitmapCache labelBitmapCache;
+    private volatile boolean stopLabelBitmapCachePopulation;
+    private Thread labelBitmapCachePopulation;
     private final IdGeneratorUpdatesWorkSync idGeneratorWorkSyncs;
     private final Map<TransactionApplicationMode, TransactionApplierFactoryChain> applierChains =
             new EnumMap<>(TransactionApplicationMode.class);
@@ -236,6 +246,13 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle {
             cacheAccess = new BridgingCacheAccess(schemaCache, schemaState, tokenHolders);
 
             denseNodeThreshold = config.get(GraphDatabaseSettings.dense_node_threshold);
+            denseChainPrefetchPages = config.get(GraphDatabaseInternalSettings.dense_chain_prefetch_pages);
+            long labelBitmapCacheMaxMemory = config.get(GraphDatabaseInternalSettings.label_bitmap_cache_max_memory);
+            // The bitmaps reflect the latest committed state, which is not what readers of a multi-versioned store see
+            labelBitmapCache = labelBitmapCacheMaxMemory > 0 && !multiVersion
+                    ? new LabelBitmapCache(
+                            labelBitmapCacheMaxMemory, internalLogProvider.getLog(LabelBitmapCache.class))
+                    : null;
 
             countsStore = openCountsStore(
                     pageCache,
@@ -306,6 +323,9 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle {
             // Counts store application
             appliers.add(new CountsStoreTransactionApplierFactory(countsStore, groupDegreesStore));
         }
+        if (labelBitmapCache != null && mode.needsAuxiliaryStores()) {
+            appliers.add(new LabelBitmapCacheTransactionApplier.Factory(labelBitmapCache, neoStores.getNodeStore()));
+        }
         if (mode.needsAuxiliaryStores()) {
             // Schema index application
             appliers.add(new IndexTransactionApplierFactory(mode, indexUpdateListener));
@@ -336,7 +356,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle {
                         contextFactory,
                         pageCacheTracer,
                         getOpenOptions(),
-                        new RecordCountsBuilder(internalLogProvider, pageCache, contextFactory, layout),
+                        new RecordCountsBuilder(internalLogProvider, pageCache, fs, contextFactory, layout),
                         false,
                         versionStorage);
     }
@@ -368,7 +388,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle {
                                 databaseLayout,
                                 contextFactory,
                                 internalLogProvider,
-                                Configuration.DEFAULT),
+                                Configuration.DEFAULT,
+                                fs,
+                                DegreesRebuildCheckpoint.checkpointFileFor(layout.relationshipGroupDegreesStore()),
+                                config.get(GraphDatabaseInternalSettings.degrees_rebuild_checkpoint_interval)),
                         getOpenOptions(),
                         false,
                         versionStorage);
@@ -386,7 +409,15 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle {
 
     @Override
     public RecordStorageReader newReader() {
-        return new RecordStorageReader(tokenHolders, neoStores, countsStore, groupDegreesStore, schemaCache);
+        return new RecordStorageReader(
+                tokenHolders,
+                neoStores,
+                countsStore,
+                groupDegreesStore,
+                schemaCache,
+                denseChainPrefetchPages,
+                relationshipChainPrefetchStatistics,
+                labelBitmapCache);
     }
 
     @Override
@@ -599,6 +630,33 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle {
             countsStore.start(cursorContext, otherMemoryTracker);
             groupDegreesStore.start(cursorContext, otherMemoryTracker);
         }
+        if (labelBitmapCache != null && !labelBitmapCache.isReady()) {
+            stopLabelBitmapCachePopulation = false;
+            labelBitmapCachePopulation =
+                    NamedThreadFactory.daemon("LabelBitmapCachePopulation").newThread(this::populateLabelBitmapCache);
+            labelBitmapCachePopulation.start();
+        }
+    }
+
+    /**
+     * Populates the label bitmap cache, which is started in the background since it scans the whole node store.
+     * Label checks fall through to the store until it has completed.
+     */
+    private void populateLabelBitmapCache() {
+        try (var cursorContext = contextFactory.create(LABEL_BITMAP_CACHE_POPULATION_TAG);
+                var storeCursors = new CachedStoreCursors(neoStores, cursorContext)) {
+            labelBitmapCache.populate(neoStores.getNodeStore(), storeCursors, () -> stopLabelBitmapCachePopulation);
+        } catch (RuntimeException e) {
+            log.warn("Failed to populate the label bitmap cache, label checks will be answered by the store", e);
+        }
+    }
+
+    private void awaitLabelBitmapCachePopulationStopped() throws InterruptedException {
+        if (labelBitmapCachePopulation != null) {
+            stopLabelBitmapCachePopulation = true;
+            labelBitmapCachePopulation.join();
+            labelBitmapCachePopulation = null;
+        }
     }
 
     @VisibleForTesting
@@ -610,13 +668,19 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle {
     }
 
     @Override
-    public void stop() throws Exception {}
+    public void stop() throws Exception {
+        awaitLabelBitmapCachePopulationStopped();
+    }
 
     @Override
     public void shutdown() {
         if (!closed) {
             try {
-                executeAll(countsStore::close, groupDegreesStore::close, neoStores::close);
+                executeAll(
+                        this::awaitLabelBitmapCachePopulationStopped,
+                        countsStore::close,
+                        groupDegreesStore::close,
+                        neoStores::close);
             } catch (Throwable e) {
                 throw new RuntimeException(e);
             } finally {
@@ -702,6 +766,21 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle {
         return groupDegreesStore;
     }
 
+    /**
+     * @return statistics about relationship chain prefetching, see {@link GraphDatabaseInternalSettings#dense_chain_prefetch_pages}.
+     */
+    public RelationshipChainPrefetchStatistics relationshipChainPrefetchStatistics() {
+        return relationshipChainPrefetchStatistics;
+    }
+
+    /**
+     * @return the label bitmap cache, or {@code null} if it's not enabled, see
+     * {@link GraphDatabaseInternalSettings#label_bitmap_cache_max_memory}.
+     */
+    public LabelBitmapCache labelBitmapCache() {
+        return labelBitmapCache;
+    }
+
     @Override
     public MetaDataStore metadataProvider() {
         return neoStores.getMetaDataStore();
@@ -751,15 +830,18 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle {
     private class RecordCountsBuilder implements CountsBuilder {
         private final InternalLog log;
         private final PageCache pageCache;
+        private final FileSystemAbstraction fs;
         private final CursorContextFactory contextFactory;
         private final RecordDatabaseLayout layout;
 
         public RecordCountsBuilder(
                 InternalLogProvider internalLogProvider,
                 PageCache pageCache,
+                FileSystemAbstraction fs,
                 CursorContextFactory contextFactory,
                 RecordDatabaseLayout layout) {
             this.pageCache = pageCache;
+            this.fs = fs;
             this.contextFactory = contextFactory;
             this.layout = layout;
             log = internalLogProvider.getLog(MetaDataStore.class);
@@ -768,7 +850,16 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle {
         @Override
         public void initialize(CountsUpdater updater, CursorContext cursorContext, MemoryTracker memoryTracker) {
             log.warn("Missing counts store, rebuilding it.");
-            new CountsComputer(neoStores, pageCache, contextFactory, layout, memoryTracker, log)
+            new CountsComputer(
+                            neoStores,
+                            pageCache,
+                            contextFactory,
+                            layout,
+                            memoryTracker,
+                            log,
+                            fs,
+                            CountsRebuildCheckpoint.checkpointFileFor(layout.countStore()),
+                            config.get(GraphDatabaseInternalSettings.counts_rebuild_checkpoint_interval))
                     .initialize(updater, cursorContext, memoryTracker);
             log.warn("Counts store rebuild completed.");
         }
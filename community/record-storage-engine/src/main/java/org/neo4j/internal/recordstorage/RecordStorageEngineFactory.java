@@ -49,6 +49,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
@@ -56,6 +57,7 @@ import java.util.stream.Collectors;
 import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.annotations.service.ServiceProvider;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.consistency.checker.EntityBasedMemoryLimiter;
 import org.neo4j.consistency.checker.RecordStorageConsistencyChecker;
 import org.neo4j.consistency.checking.ByteArrayBitsManipulator;
@@ -79,6 +81,8 @@ import org.neo4j.internal.batchimport.input.Input;
 import org.neo4j.internal.batchimport.input.LenientStoreInput;
 import org.neo4j.internal.batchimport.staging.ExecutionMonitor;
 import org.neo4j.internal.batchimport.staging.ExecutionMonitors;
+import org.neo4j.internal.batchimport.staging.MultiExecutionMonitor;
+import org.neo4j.internal.batchimport.staging.ProfilingExecutionMonitor;
 import org.neo4j.internal.batchimport.staging.SpectrumExecutionMonitor;
 import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.internal.helpers.progress.ProgressMonitorFactory;
@@ -719,6 +723,11 @@ public class RecordStorageEngineFactory implements StorageEngineFactory {
                         ? new SpectrumExecutionMonitor(progressOutput)
                         : ExecutionMonitors.defaultVisible(progressOutput, System.err)
                 : ExecutionMonitor.INVISIBLE;
+        Path profileFile = dbConfig.get(GraphDatabaseInternalSettings.batch_import_profile_file);
+        if (profileFile != null) {
+            executionMonitor =
+                    new MultiExecutionMonitor(executionMonitor, new ProfilingExecutionMonitor(fileSystem, profileFile));
+        }
         return BatchImporterFactory.withHighestPriority()
                 .instantiate(
                         databaseLayout,
@@ -774,6 +783,41 @@ public class RecordStorageEngineFactory implements StorageEngineFactory {
                 readBehaviour);
     }
 
+    @Override
+    public OptionalDouble averagePagesTouchedPerNode(
+            FileSystemAbstraction fs,
+            DatabaseLayout layout,
+            Config config,
+            PageCache pageCache,
+            PageCacheTracer pageCacheTracer,
+            CursorContextFactory contextFactory,
+            LogTailMetadata logTailMetadata,
+            int maxSampledNodes) {
+        StoreFactory factory = new StoreFactory(
+                formatSpecificDatabaseLayout(layout),
+                config,
+                new ScanOnOpenReadOnlyIdGeneratorFactory(),
+                pageCache,
+                pageCacheTracer,
+                fs,
+                NullLogProvider.getInstance(),
+                contextFactory,
+                true,
+                logTailMetadata);
+        try (var cursorContext = contextFactory.create("averagePagesTouchedPerNode");
+                NeoStores stores = factory.openNeoStores(
+                        StoreType.NODE,
+                        StoreType.NODE_LABEL,
+                        StoreType.PROPERTY,
+                        StoreType.PROPERTY_STRING,
+                        StoreType.PROPERTY_ARRAY,
+                        StoreType.RELATIONSHIP,
+                        StoreType.RELATIONSHIP_GROUP);
+                var storeCursors = new CachedStoreCursors(stores, cursorContext)) {
+            return new NodeLocalitySampler(stores, storeCursors).averagePagesTouchedPerNode(maxSampledNodes);
+        }
+    }
+
     @Override
     public IncrementalBatchImporter incrementalBatchImporter(
             DatabaseLayout databaseLayout,
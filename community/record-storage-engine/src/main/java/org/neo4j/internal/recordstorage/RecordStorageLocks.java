@@ -82,6 +82,18 @@ class RecordStorageLocks implements StorageLocks {
         locker.acquireExclusive(lockTracer, ResourceType.NODE, ids);
     }
 
+    @Override
+    public boolean tryExclusiveNodeLock(long id) {
+        if (!locker.tryExclusiveLock(ResourceType.NODE_RELATIONSHIP_GROUP_DELETE, id)) {
+            return false;
+        }
+        if (!locker.tryExclusiveLock(ResourceType.NODE, id)) {
+            locker.releaseExclusive(ResourceType.NODE_RELATIONSHIP_GROUP_DELETE, id);
+            return false;
+        }
+        return true;
+    }
+
     @Override
     public void releaseExclusiveNodeLock(long... ids) {
         locker.releaseExclusive(ResourceType.NODE, ids);
@@ -67,6 +67,9 @@ public class RecordStorageReader implements StorageReader {
     private final CountsStore counts;
     private final RelationshipGroupDegreesStore groupDegreesStore;
     private final SchemaCache schemaCache;
+    private final int denseChainPrefetchPages;
+    private final RelationshipChainPrefetchStatistics relationshipChainPrefetchStatistics;
+    private final LabelBitmapCache labelBitmapCache;
 
     private boolean closed;
 
@@ -76,6 +79,18 @@ public class RecordStorageReader implements StorageReader {
             CountsStore counts,
             RelationshipGroupDegreesStore groupDegreesStore,
             SchemaCache schemaCache) {
+        this(tokenHolders, neoStores, counts, groupDegreesStore, schemaCache, 0, null, null);
+    }
+
+    RecordStorageReader(
+            TokenHolders tokenHolders,
+            NeoStores neoStores,
+            CountsStore counts,
+            RelationshipGroupDegreesStore groupDegreesStore,
+            SchemaCache schemaCache,
+            int denseChainPrefetchPages,
+            RelationshipChainPrefetchStatistics relationshipChainPrefetchStatistics,
+            LabelBitmapCache labelBitmapCache) {
         this.tokenHolders = tokenHolders;
         this.nodeStore = neoStores.getNodeStore();
         this.relationshipStore = neoStores.getRelationshipStore();
@@ -84,6 +99,9 @@ public class RecordStorageReader implements StorageReader {
         this.counts = counts;
         this.groupDegreesStore = groupDegreesStore;
         this.schemaCache = schemaCache;
+        this.denseChainPrefetchPages = denseChainPrefetchPages;
+        this.relationshipChainPrefetchStatistics = relationshipChainPrefetchStatistics;
+        this.labelBitmapCache = labelBitmapCache;
     }
 
     /**
@@ -332,14 +350,26 @@ public class RecordStorageReader implements StorageReader {
     @Override
     public RecordNodeCursor allocateNodeCursor(CursorContext cursorContext, StoreCursors storeCursors) {
         return new RecordNodeCursor(
-                nodeStore, relationshipStore, relationshipGroupStore, groupDegreesStore, cursorContext, storeCursors);
+                nodeStore,
+                relationshipStore,
+                relationshipGroupStore,
+                groupDegreesStore,
+                cursorContext,
+                storeCursors,
+                labelBitmapCache);
     }
 
     @Override
     public RecordRelationshipTraversalCursor allocateRelationshipTraversalCursor(
             CursorContext cursorContext, StoreCursors storeCursors) {
         return new RecordRelationshipTraversalCursor(
-                relationshipStore, relationshipGroupStore, groupDegreesStore, cursorContext, storeCursors);
+                relationshipStore,
+                relationshipGroupStore,
+                groupDegreesStore,
+                cursorContext,
+                storeCursors,
+                denseChainPrefetchPages,
+                relationshipChainPrefetchStatistics);
     }
 
     @Override
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about relationship chain prefetching done by {@link RecordRelationshipTraversalCursor relationship traversal cursors}
+ * when {@link org.neo4j.configuration.GraphDatabaseInternalSettings#dense_chain_prefetch_pages} is enabled.
+ * Only expands, i.e. traversals of a single node, which actually issued a prefetch are counted.
+ */
+public class RelationshipChainPrefetchStatistics {
+    private final LongAdder expands = new LongAdder();
+    private final LongAdder pagesPrefetched = new LongAdder();
+    private final LongAdder faultsSaved = new LongAdder();
+
+    void expandCompleted(long pagesPrefetched, long faultsSaved) {
+        this.expands.increment();
+        this.pagesPrefetched.add(pagesPrefetched);
+        this.faultsSaved.add(faultsSaved);
+    }
+
+    /**
+     * @return number of expands which issued a prefetch.
+     */
+    public long expands() {
+        return expands.sum();
+    }
+
+    /**
+     * @return number of pages which were faulted in by prefetching, i.e. pages which were not already in the page cache.
+     */
+    public long pagesPrefetched() {
+        return pagesPrefetched.sum();
+    }
+
+    /**
+     * @return number of page faults the traversals didn't have to do themselves because the pages they visited were
+     * already prefetched. Per expand this is at most the number of pages faulted in by the prefetching.
+     */
+    public long faultsSaved() {
+        return faultsSaved.sum();
+    }
+
+    /**
+     * @return average number of page faults saved per expand which issued a prefetch.
+     */
+    public double faultsSavedPerExpand() {
+        long expandCount = expands.sum();
+        return expandCount == 0 ? 0 : (double) faultsSaved.sum() / expandCount;
+    }
+}
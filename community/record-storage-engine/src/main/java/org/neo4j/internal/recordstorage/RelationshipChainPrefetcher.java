@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import static org.neo4j.kernel.impl.store.RecordPageLocationCalculator.pageIdForRecord;
+import static org.neo4j.kernel.impl.store.record.AbstractBaseRecord.NO_ID;
+
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+
+/**
+ * Faults in relationship store pages ahead of a {@link RecordRelationshipTraversalCursor} walking a long relationship chain.
+ * <p>
+ * Which records a chain consists of can only be known by reading the chain, so the pages are selected speculatively:
+ * starting at the page of the second record in the chain and continuing in the direction the chain is observed to run,
+ * covering as many pages as the degree of the chain suggests, capped at a configured maximum. Chains are built by
+ * linking in new relationships at the head and relationship ids are mostly handed out in increasing order,
+ * so most chains run towards lower ids. The selected range is loaded with a single
+ * {@link RelationshipStore#touchPages(long, int, CursorContext) touch}, which uses vectored page faults where the
+ * page cache supports it.
+ * <p>
+ * Pages of the prefetched ranges are remembered until the traversal of the current node completes. Each such page
+ * the traversal later visits is a page fault the traversal didn't have to do itself, as long as the prefetch actually
+ * faulted that many pages. Faults are observed through the {@link PageCursorTracer} of the cursor context,
+ * so nothing is counted when page cache tracing is disabled.
+ */
+class RelationshipChainPrefetcher {
+    private final RelationshipStore relationshipStore;
+    private final CursorContext cursorContext;
+    private final RelationshipChainPrefetchStatistics statistics;
+    private final int maxPages;
+    private final int recordsPerPage;
+    private final MutableLongSet prefetchedPages = new LongHashSet();
+    private boolean prefetched;
+    private long expandPagesPrefetched;
+    private long expandPagesVisited;
+
+    RelationshipChainPrefetcher(
+            RelationshipStore relationshipStore,
+            CursorContext cursorContext,
+            RelationshipChainPrefetchStatistics statistics,
+            int maxPages) {
+        this.relationshipStore = relationshipStore;
+        this.cursorContext = cursorContext;
+        this.statistics = statistics;
+        this.maxPages = maxPages;
+        this.recordsPerPage = relationshipStore.getRecordsPerPage();
+    }
+
+    /**
+     * Prefetches the pages of a chain whose first record has just been read.
+     *
+     * @param headId id of the first relationship in the chain.
+     * @param nextId id of the second relationship in the chain, or {@code -1} if there is none.
+     * @param degree number of relationships in the chain.
+     */
+    void prefetch(long headId, long nextId, long degree) {
+        if (nextId == NO_ID || degree <= 1) {
+            return;
+        }
+        long nextPage = pageIdForRecord(nextId, recordsPerPage);
+        int pages = (int) Math.min(maxPages, degree - 1);
+        long fromPage;
+        int count;
+        if (nextId < headId) {
+            fromPage = Math.max(0, nextPage - pages + 1);
+            count = (int) (nextPage - fromPage + 1);
+        } else {
+            fromPage = nextPage;
+            count = pages;
+        }
+
+        PageCursorTracer tracer = cursorContext.getCursorTracer();
+        long faultsBefore = tracer.faults();
+        int touched = relationshipStore.touchPages(fromPage, count, cursorContext);
+        expandPagesPrefetched += tracer.faults() - faultsBefore;
+        prefetched = true;
+
+        for (long pageId = fromPage; pageId < fromPage + touched; pageId++) {
+            prefetchedPages.add(pageId);
+        }
+        // The traversal cursor already has the head page
+        prefetchedPages.remove(pageIdForRecord(headId, recordsPerPage));
+    }
+
+    /**
+     * Called for every relationship the traversal reads.
+     */
+    void visited(long relationshipId) {
+        if (!prefetchedPages.isEmpty() && prefetchedPages.remove(pageIdForRecord(relationshipId, recordsPerPage))) {
+            expandPagesVisited++;
+        }
+    }
+
+    /**
+     * Called when the traversal of a node completes, reports the outcome of the prefetching to the statistics.
+     */
+    void expandCompleted() {
+        if (prefetched) {
+            statistics.expandCompleted(expandPagesPrefetched, Math.min(expandPagesVisited, expandPagesPrefetched));
+            prefetched = false;
+            expandPagesPrefetched = 0;
+            expandPagesVisited = 0;
+            prefetchedPages.clear();
+        }
+    }
+}
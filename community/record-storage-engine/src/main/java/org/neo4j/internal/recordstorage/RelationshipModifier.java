@@ -20,6 +20,7 @@
 package org.neo4j.internal.recordstorage;
 
 import static org.neo4j.collection.trackable.HeapTrackingCollections.newLongObjectMap;
+import static org.neo4j.internal.recordstorage.RelationshipCreator.NO_CONNECT_TO_DENSE_MONITOR;
 import static org.neo4j.internal.recordstorage.RelationshipCreator.NodeDataLookup.DIR_IN;
 import static org.neo4j.internal.recordstorage.RelationshipCreator.NodeDataLookup.DIR_LOOP;
 import static org.neo4j.internal.recordstorage.RelationshipCreator.NodeDataLookup.DIR_OUT;
@@ -466,22 +467,64 @@ public class RelationshipModifier {
             if (currentDegree + byNode.creations().size() >= denseNodeThreshold) {
                 // The current length plus our additions in this transaction is above threshold, it will be converted so
                 // we need to lock all the relationships
-                // Since it is sparse and locked we can trust this chain read to be stable
-                // find all id's and lock them as we will create new chains based on type and direction
-                MutableLongList ids = LongLists.mutable.withInitialCapacity(currentDegree);
-                do {
-                    ids.add(nextRel);
-                    nextRel =
-                            relRecords.getOrLoad(nextRel, null).forReadingData().getNextRel(nodeId);
-                } while (!isNull(nextRel));
-
-                locks.acquireExclusive(lockTracer, RELATIONSHIP, ids.toSortedArray());
+                lockRelationshipChain(nodeId, nextRel, currentDegree, relRecords);
                 return true;
             }
         }
         return false;
     }
 
+    private void lockRelationshipChain(
+            long nodeId, long firstRel, int degree, RecordAccess<RelationshipRecord, Void> relRecords) {
+        // Since it is sparse and locked we can trust this chain read to be stable
+        // find all id's and lock them as we will create new chains based on type and direction
+        MutableLongList ids = LongLists.mutable.withInitialCapacity(degree);
+        long nextRel = firstRel;
+        do {
+            ids.add(nextRel);
+            nextRel = relRecords.getOrLoad(nextRel, null).forReadingData().getNextRel(nodeId);
+        } while (!isNull(nextRel));
+
+        locks.acquireExclusive(lockTracer, RELATIONSHIP, ids.toSortedArray());
+    }
+
+    /**
+     * Converts a sparse node into dense representation regardless of how its degree compares to the dense node
+     * threshold, without changing any of its relationships logically. Takes the same locks as when a node is
+     * converted because relationships are added to it.
+     *
+     * @param nodeId the node to convert.
+     * @return {@code true} if the node was converted, or {@code false} if it was already dense or has no relationships.
+     */
+    public boolean convertToDense(long nodeId, RecordAccessSet recordChanges, DegreeUpdater groupDegreesUpdater) {
+        locks.acquireExclusive(lockTracer, NODE, nodeId);
+        RecordProxy<NodeRecord, Void> nodeProxy = recordChanges.getNodeRecords().getOrLoad(nodeId, null);
+        NodeRecord node = nodeProxy.forReadingLinkage();
+        long firstRel = node.getNextRel();
+        if (node.isDense() || isNull(firstRel)) {
+            return false;
+        }
+
+        locks.acquireExclusive(lockTracer, RELATIONSHIP_GROUP, nodeId);
+        RecordAccess<RelationshipRecord, Void> relRecords = recordChanges.getRelRecords();
+        RelationshipRecord rel = relRecords.getOrLoad(firstRel, null).forReadingData();
+        if (!rel.isFirstInChain(nodeId)) {
+            throw new IllegalStateException("Expected node " + rel + " to be first in chain for node " + nodeId);
+        }
+        lockRelationshipChain(nodeId, firstRel, relCount(nodeId, rel), relRecords);
+
+        try (HeapTrackingLongObjectHashMap<NodeContext> contexts = newLongObjectMap(memoryTracker)) {
+            creator.convertNodeToDenseNode(
+                    nodeProxy,
+                    relRecords.getOrLoad(firstRel, null).forChangingLinkage(),
+                    relRecords,
+                    groupDegreesUpdater,
+                    new MappedNodeDataLookup(contexts, relGroupGetter, recordChanges, memoryTracker),
+                    NO_CONNECT_TO_DENSE_MONITOR);
+        }
+        return true;
+    }
+
     private RecordProxy<RelationshipRecord, Void> insertionPointFromDeletion(
             RelationshipBatch deletions, RecordAccess<RelationshipRecord, Void> relRecords) {
         return deletions.isEmpty() ? null : relRecords.getOrLoad(deletions.first(), null, ALWAYS);
@@ -347,6 +347,15 @@ public class TransactionRecordState implements RecordState {
         relationshipModifier.modifyRelationships(modifications, recordChangeSet, groupDegreesUpdater);
     }
 
+    /**
+     * Converts a sparse node into dense representation.
+     *
+     * @param nodeId The id of the node to convert.
+     */
+    void nodeConvertToDense(long nodeId) {
+        relationshipModifier.convertToDense(nodeId, recordChangeSet, groupDegreesUpdater);
+    }
+
     private static void addFiltered(Collection<StorageCommand> target, Mode mode, Command[]... commands) {
         for (Command[] c : commands) {
             for (Command command : c) {
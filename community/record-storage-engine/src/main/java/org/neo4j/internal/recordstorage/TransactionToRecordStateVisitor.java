@@ -172,6 +172,11 @@ class TransactionToRecordStateVisitor extends TxStateVisitor.Adapter {
         recordState.upgrade(kernelUpgrade);
     }
 
+    @Override
+    public void visitDenseNodeConversion(long id) {
+        recordState.nodeConvertToDense(id);
+    }
+
     private void visitAddedUniquenessConstraint(UniquenessConstraintDescriptor uniqueConstraint, long constraintId)
             throws KernelException {
         IndexDescriptor indexRule =
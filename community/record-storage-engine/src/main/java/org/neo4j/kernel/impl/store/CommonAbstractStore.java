@@ -342,6 +342,23 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord, HEA
         return pagedFile.getLastPageId();
     }
 
+    /**
+     * Makes sure that the given continuous range of pages is loaded into the page cache, faulting in pages which are not
+     * already loaded in as few IO operations as possible. See {@link PagedFile#touch(long, int, CursorContext)}.
+     *
+     * @param pageId first page to load.
+     * @param count number of pages to load.
+     * @param cursorContext underlying page cursor context.
+     * @return number of pages touched, which is less than {@code count} if the end of the store was reached.
+     */
+    public int touchPages(long pageId, int count, CursorContext cursorContext) {
+        try {
+            return pagedFile.touch(pageId, count, cursorContext);
+        } catch (IOException e) {
+            throw new UnderlyingStorageException(e);
+        }
+    }
+
     /**
      * Read raw record data. Should <strong>ONLY</strong> be used in tests or tools.
      */
@@ -22,6 +22,9 @@ package org.neo4j.kernel.impl.store;
 import static org.neo4j.internal.batchimport.cache.NumberArrayFactories.NO_MONITOR;
 import static org.neo4j.internal.batchimport.staging.ExecutionSupervisors.superviseDynamicExecution;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.function.Function;
 import org.neo4j.counts.CountsUpdater;
 import org.neo4j.internal.batchimport.Configuration;
@@ -33,6 +36,7 @@ import org.neo4j.internal.batchimport.cache.NumberArrayFactory;
 import org.neo4j.internal.counts.CountsBuilder;
 import org.neo4j.internal.helpers.progress.ProgressListener;
 import org.neo4j.internal.helpers.progress.ProgressMonitorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContext;
@@ -53,6 +57,9 @@ public class CountsComputer implements CountsBuilder {
     private final NumberArrayFactory numberArrayFactory;
     private final CursorContextFactory contextFactory;
     private final MemoryTracker memoryTracker;
+    private final FileSystemAbstraction fs;
+    private final Path checkpointFile;
+    private final long checkpointInterval;
 
     public CountsComputer(
             NeoStores stores,
@@ -61,6 +68,26 @@ public class CountsComputer implements CountsBuilder {
             DatabaseLayout databaseLayout,
             MemoryTracker memoryTracker,
             InternalLog log) {
+        this(stores, pageCache, contextFactory, databaseLayout, memoryTracker, log, null, null, 0);
+    }
+
+    /**
+     * @param fs file system to keep the checkpoint file on.
+     * @param checkpointFile file to keep the counts of completed relationship ranges in, see
+     * {@link CountsRebuildCheckpoint}, or {@code null} to not checkpoint.
+     * @param checkpointInterval number of relationship records counted between each checkpoint, or {@code 0}
+     * to not checkpoint.
+     */
+    public CountsComputer(
+            NeoStores stores,
+            PageCache pageCache,
+            CursorContextFactory contextFactory,
+            DatabaseLayout databaseLayout,
+            MemoryTracker memoryTracker,
+            InternalLog log,
+            FileSystemAbstraction fs,
+            Path checkpointFile,
+            long checkpointInterval) {
         this(
                 stores,
                 stores.getMetaDataStore().getLastCommittedTransactionId(),
@@ -68,7 +95,10 @@ public class CountsComputer implements CountsBuilder {
                 contextFactory,
                 databaseLayout,
                 memoryTracker,
-                log);
+                log,
+                fs,
+                checkpointFile,
+                checkpointInterval);
     }
 
     public CountsComputer(
@@ -79,6 +109,30 @@ public class CountsComputer implements CountsBuilder {
             DatabaseLayout databaseLayout,
             MemoryTracker memoryTracker,
             InternalLog log) {
+        this(
+                stores,
+                lastCommittedTransactionId,
+                pageCache,
+                contextFactory,
+                databaseLayout,
+                memoryTracker,
+                log,
+                null,
+                null,
+                0);
+    }
+
+    public CountsComputer(
+            NeoStores stores,
+            long lastCommittedTransactionId,
+            PageCache pageCache,
+            CursorContextFactory contextFactory,
+            DatabaseLayout databaseLayout,
+            MemoryTracker memoryTracker,
+            InternalLog log,
+            FileSystemAbstraction fs,
+            Path checkpointFile,
+            long checkpointInterval) {
         this(
                 stores,
                 lastCommittedTransactionId,
@@ -96,7 +150,10 @@ public class CountsComputer implements CountsBuilder {
                         databaseLayout.getDatabaseName()),
                 ProgressMonitorFactory.NONE,
                 contextFactory,
-                memoryTracker);
+                memoryTracker,
+                fs,
+                checkpointFile,
+                checkpointInterval);
     }
 
     public CountsComputer(
@@ -110,6 +167,36 @@ public class CountsComputer implements CountsBuilder {
             ProgressMonitorFactory progressMonitorFactory,
             CursorContextFactory contextFactory,
             MemoryTracker memoryTracker) {
+        this(
+                stores,
+                lastCommittedTransactionId,
+                nodes,
+                relationships,
+                highLabelId,
+                highRelationshipTypeId,
+                numberArrayFactory,
+                progressMonitorFactory,
+                contextFactory,
+                memoryTracker,
+                null,
+                null,
+                0);
+    }
+
+    public CountsComputer(
+            NeoStores stores,
+            long lastCommittedTransactionId,
+            NodeStore nodes,
+            RelationshipStore relationships,
+            int highLabelId,
+            int highRelationshipTypeId,
+            NumberArrayFactory numberArrayFactory,
+            ProgressMonitorFactory progressMonitorFactory,
+            CursorContextFactory contextFactory,
+            MemoryTracker memoryTracker,
+            FileSystemAbstraction fs,
+            Path checkpointFile,
+            long checkpointInterval) {
         this.neoStores = stores;
         this.lastCommittedTransactionId = lastCommittedTransactionId;
         this.nodes = nodes;
@@ -120,6 +207,9 @@ public class CountsComputer implements CountsBuilder {
         this.progressMonitorFactory = progressMonitorFactory;
         this.contextFactory = contextFactory;
         this.memoryTracker = memoryTracker;
+        this.fs = fs;
+        this.checkpointFile = checkpointFile;
+        this.checkpointInterval = checkpointInterval;
     }
 
     @Override
@@ -157,18 +247,73 @@ public class CountsComputer implements CountsBuilder {
                     contextFactory,
                     storeCursorsFunction));
             // Count relationships
-            superviseDynamicExecution(new RelationshipCountsStage(
-                    configuration,
-                    cache,
-                    relationships,
-                    highLabelId,
-                    highRelationshipTypeId,
-                    countsUpdater,
-                    numberArrayFactory,
-                    progress,
-                    contextFactory,
-                    storeCursorsFunction,
-                    memoryTracker));
+            if (checkpointFile != null && checkpointInterval > 0) {
+                populateRelationshipCountsInRanges(countsUpdater, progress, cache, configuration, storeCursorsFunction);
+            } else {
+                superviseDynamicExecution(new RelationshipCountsStage(
+                        configuration,
+                        cache,
+                        relationships,
+                        highLabelId,
+                        highRelationshipTypeId,
+                        countsUpdater,
+                        numberArrayFactory,
+                        progress,
+                        contextFactory,
+                        storeCursorsFunction,
+                        memoryTracker));
+            }
+        }
+    }
+
+    /**
+     * Counts relationships one id range at a time, checkpointing the counts of each completed range so that
+     * a rebuild that gets interrupted only needs to count the ranges that weren't completed. Node counts and the
+     * {@link NodeLabelsCache} that relationship counting needs are cheap in comparison and always computed.
+     */
+    private void populateRelationshipCountsInRanges(
+            CountsUpdater countsUpdater,
+            ProgressListener progress,
+            NodeLabelsCache cache,
+            Configuration configuration,
+            Function<CursorContext, StoreCursors> storeCursorsFunction) {
+        long lowId = relationships.getNumberOfReservedLowIds();
+        long highId = relationships.getIdGenerator().getHighId();
+        try (var checkpoint = CountsRebuildCheckpoint.open(
+                fs,
+                checkpointFile,
+                checkpointInterval,
+                lastCommittedTransactionId,
+                nodes.getIdGenerator().getHighId(),
+                highId)) {
+            int range = 0;
+            for (long fromId = lowId; fromId < highId; fromId += checkpointInterval, range++) {
+                long toId = Math.min(highId, fromId + checkpointInterval);
+                if (checkpoint.replay(range, countsUpdater)) {
+                    progress.add(toId - fromId);
+                    continue;
+                }
+                var rangeCounts = new CountsRebuildCheckpoint.RangeCounts();
+                superviseDynamicExecution(new RelationshipCountsStage(
+                        configuration,
+                        cache,
+                        relationships,
+                        fromId,
+                        toId,
+                        highLabelId,
+                        highRelationshipTypeId,
+                        rangeCounts,
+                        numberArrayFactory,
+                        progress,
+                        contextFactory,
+                        storeCursorsFunction,
+                        memoryTracker));
+                checkpoint.completed(range, rangeCounts);
+                checkpoint.replay(range, countsUpdater);
+            }
+            checkpoint.delete();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
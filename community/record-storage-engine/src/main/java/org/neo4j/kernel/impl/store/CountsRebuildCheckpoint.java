@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import static java.lang.Math.toIntExact;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.neo4j.counts.CountsUpdater;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+
+/**
+ * Keeps the relationship counts of completed relationship id ranges while {@link CountsComputer} rebuilds the counts
+ * store, so that a rebuild which gets interrupted can skip the ranges it has already counted when started again.
+ * <p>
+ * The file starts with a header describing the store it was written for. A file written for another store state,
+ * i.e. where the last committed transaction or any of the high ids differ, is discarded. Each completed range is
+ * appended as an entry of its own and forced before its counts are handed on to the counts store. An entry ends
+ * with its range index so that an entry which was only partly written when the rebuild was interrupted is ignored.
+ */
+public class CountsRebuildCheckpoint implements AutoCloseable {
+    private static final long MAGIC = 0x436F756E74735243L;
+    private static final int HEADER_SIZE = 6 * Long.BYTES;
+    private static final int COUNT_SIZE = 3 * Integer.BYTES + Long.BYTES;
+
+    private final FileSystemAbstraction fs;
+    private final Path file;
+    private final long rangeSize;
+    private final MutableIntObjectMap<RangeCounts> completedRanges = IntObjectMaps.mutable.empty();
+    private final StoreChannel channel;
+
+    private CountsRebuildCheckpoint(FileSystemAbstraction fs, Path file, long rangeSize, StoreChannel channel) {
+        this.fs = fs;
+        this.file = file;
+        this.rangeSize = rangeSize;
+        this.channel = channel;
+    }
+
+    /**
+     * @return the checkpoint file to use when rebuilding the given counts store.
+     */
+    public static Path checkpointFileFor(Path countsStore) {
+        return countsStore.resolveSibling(countsStore.getFileName() + ".rebuild");
+    }
+
+    /**
+     * Opens the checkpoint file, creating it if it doesn't exist and reading the ranges completed by a previous
+     * rebuild of the same store state if it does.
+     *
+     * @param rangeSize number of relationship ids in each range.
+     * @param lastCommittedTxId last committed transaction id of the store being counted.
+     * @param highNodeId high node id of the store being counted.
+     * @param highRelationshipId high relationship id of the store being counted.
+     */
+    public static CountsRebuildCheckpoint open(
+            FileSystemAbstraction fs,
+            Path file,
+            long rangeSize,
+            long lastCommittedTxId,
+            long highNodeId,
+            long highRelationshipId)
+            throws IOException {
+        if (rangeSize <= 0) {
+            throw new IllegalArgumentException("Invalid range size " + rangeSize);
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putLong(MAGIC)
+                .putLong(lastCommittedTxId)
+                .putLong(highNodeId)
+                .putLong(highRelationshipId)
+                .putLong(rangeSize)
+                .putLong(0)
+                .flip();
+
+        StoreChannel channel = fs.write(file);
+        var checkpoint = new CountsRebuildCheckpoint(fs, file, rangeSize, channel);
+        try {
+            long end = checkpoint.readCompletedRanges(header);
+            if (end == 0) {
+                channel.truncate(0);
+                channel.writeAll(header, 0);
+                end = HEADER_SIZE;
+            } else {
+                // Cut off whatever trails the last complete entry, so that new entries are appended after it
+                channel.truncate(end);
+            }
+            channel.force(false);
+            channel.position(end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return checkpoint;
+    }
+
+    /**
+     * @return the number of relationship ids in each range.
+     */
+    public long rangeSize() {
+        return rangeSize;
+    }
+
+    /**
+     * @return number of ranges completed so far, by this or a previous rebuild.
+     */
+    public int numberOfCompletedRanges() {
+        return completedRanges.size();
+    }
+
+    /**
+     * Applies the counts of a range that was completed previously to the given updater.
+     *
+     * @return {@code true} if the range was completed and its counts applied, otherwise {@code false} and the
+     * range needs to be counted.
+     */
+    public boolean replay(int range, CountsUpdater updater) {
+        RangeCounts counts = completedRanges.get(range);
+        if (counts == null) {
+            return false;
+        }
+        counts.applyTo(updater);
+        return true;
+    }
+
+    /**
+     * Durably records the counts of a range as completed. Should be called before the counts are applied anywhere
+     * else, so that they're never applied twice.
+     */
+    public void completed(int range, RangeCounts counts) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(2 * Integer.BYTES + Integer.BYTES + counts.size() * COUNT_SIZE);
+        entry.putInt(range).putInt(counts.size());
+        counts.counts.forEach((key, count) -> entry.putInt(key.startLabelId)
+                .putInt(key.typeId)
+                .putInt(key.endLabelId)
+                .putLong(count[0]));
+        entry.putInt(range).flip();
+        channel.writeAll(entry);
+        channel.force(false);
+        completedRanges.put(range, counts);
+    }
+
+    /**
+     * Closes and deletes the checkpoint file, to be called when all ranges have been counted.
+     */
+    public void delete() throws IOException {
+        close();
+        fs.deleteFile(file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return position after the last complete entry, or {@code 0} if the file doesn't match the given header.
+     */
+    private long readCompletedRanges(ByteBuffer expectedHeader) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            return 0;
+        }
+        ByteBuffer data = ByteBuffer.allocate(toIntExact(size));
+        channel.readAll(data);
+        data.flip();
+        if (!data.slice(0, HEADER_SIZE).equals(expectedHeader)) {
+            return 0;
+        }
+        data.position(HEADER_SIZE);
+        long end = HEADER_SIZE;
+        while (data.remaining() >= 2 * Integer.BYTES) {
+            int range = data.getInt();
+            int numberOfCounts = data.getInt();
+            if (numberOfCounts < 0 || data.remaining() < (long) numberOfCounts * COUNT_SIZE + Integer.BYTES) {
+                break;
+            }
+            RangeCounts counts = new RangeCounts();
+            for (int i = 0; i < numberOfCounts; i++) {
+                counts.incrementRelationshipCount(data.getInt(), data.getInt(), data.getInt(), data.getLong());
+            }
+            if (data.getInt() != range) {
+                break;
+            }
+            completedRanges.put(range, counts);
+            end = data.position();
+        }
+        return end;
+    }
+
+    /**
+     * Relationship counts of a single range, collected from the counting of that range.
+     */
+    public static class RangeCounts implements CountsUpdater {
+        private final Map<RelationshipCountsKey, long[]> counts = new HashMap<>();
+
+        @Override
+        public void incrementNodeCount(int labelId, long delta) {
+            throw new UnsupportedOperationException("Only relationship counts are counted in ranges");
+        }
+
+        @Override
+        public synchronized void incrementRelationshipCount(int startLabelId, int typeId, int endLabelId, long delta) {
+            counts.computeIfAbsent(new RelationshipCountsKey(startLabelId, typeId, endLabelId), k -> new long[1])[0] +=
+                    delta;
+        }
+
+        @Override
+        public void close() {}
+
+        int size() {
+            return counts.size();
+        }
+
+        void applyTo(CountsUpdater updater) {
+            counts.forEach((key, count) ->
+                    updater.incrementRelationshipCount(key.startLabelId, key.typeId, key.endLabelId, count[0]));
+        }
+    }
+
+    private record RelationshipCountsKey(int startLabelId, int typeId, int endLabelId) {}
+}
@@ -31,6 +31,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetTime;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Collection;
 import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.configuration.Config;
@@ -214,16 +215,30 @@ public class DynamicArrayStore extends AbstractDynamicStore {
             DynamicRecordAllocator recordAllocator,
             CursorContext cursorContext,
             MemoryTracker memoryTracker) {
+        allocateFromNumbers(target, array, recordAllocator, false, cursorContext, memoryTracker);
+    }
+
+    private static void allocateFromNumbers(
+            Collection<DynamicRecord> target,
+            Object array,
+            DynamicRecordAllocator recordAllocator,
+            boolean compress,
+            CursorContext cursorContext,
+            MemoryTracker memoryTracker) {
         byte[] bytes = encodeFromNumbers(array, 0);
-        allocateRecordsFromBytes(target, bytes, recordAllocator, cursorContext, memoryTracker);
+        allocateFromBytes(target, bytes, recordAllocator, compress, cursorContext, memoryTracker);
     }
 
-    private static void allocateFromCompositeType(
+    private static void allocateFromBytes(
             Collection<DynamicRecord> target,
             byte[] bytes,
             DynamicRecordAllocator recordAllocator,
+            boolean compress,
             CursorContext cursorContext,
             MemoryTracker memoryTracker) {
+        if (compress) {
+            bytes = DynamicValueCompression.compress(bytes, recordAllocator.getRecordDataSize());
+        }
         allocateRecordsFromBytes(target, bytes, recordAllocator, cursorContext, memoryTracker);
     }
 
@@ -231,6 +246,7 @@ public class DynamicArrayStore extends AbstractDynamicStore {
             Collection<DynamicRecord> target,
             String[] array,
             DynamicRecordAllocator recordAllocator,
+            boolean compress,
             CursorContext cursorContext,
             MemoryTracker memoryTracker) {
         byte[][] stringsAsBytes = new byte[array.length][];
@@ -251,7 +267,7 @@ public class DynamicArrayStore extends AbstractDynamicStore {
                 buffer.putInt(stringAsBytes.length);
                 buffer.put(stringAsBytes);
             }
-            allocateRecordsFromBytes(target, buffer.array(), recordAllocator, cursorContext, memoryTracker);
+            allocateFromBytes(target, buffer.array(), recordAllocator, compress, cursorContext, memoryTracker);
         }
     }
 
@@ -261,70 +277,95 @@ public class DynamicArrayStore extends AbstractDynamicStore {
             DynamicRecordAllocator recordAllocator,
             CursorContext cursorContext,
             MemoryTracker memoryTracker) {
+        allocateRecords(target, array, recordAllocator, false, cursorContext, memoryTracker);
+    }
+
+    /**
+     * @param compress whether to store the array compressed if that saves records, see {@link DynamicValueCompression}.
+     */
+    public static void allocateRecords(
+            Collection<DynamicRecord> target,
+            Object array,
+            DynamicRecordAllocator recordAllocator,
+            boolean compress,
+            CursorContext cursorContext,
+            MemoryTracker memoryTracker) {
         if (!array.getClass().isArray()) {
             throw new IllegalArgumentException(array + " not an array");
         }
 
         Class<?> type = array.getClass().getComponentType();
         if (type.equals(String.class)) {
-            allocateFromString(target, (String[]) array, recordAllocator, cursorContext, memoryTracker);
+            allocateFromString(target, (String[]) array, recordAllocator, compress, cursorContext, memoryTracker);
         } else if (type.equals(PointValue.class)) {
-            allocateFromCompositeType(
+            allocateFromBytes(
                     target,
                     GeometryType.encodePointArray((PointValue[]) array),
                     recordAllocator,
+                    compress,
                     cursorContext,
                     memoryTracker);
         } else if (type.equals(LocalDate.class)) {
-            allocateFromCompositeType(
+            allocateFromBytes(
                     target,
                     TemporalType.encodeDateArray((LocalDate[]) array),
                     recordAllocator,
+                    compress,
                     cursorContext,
                     memoryTracker);
         } else if (type.equals(LocalTime.class)) {
-            allocateFromCompositeType(
+            allocateFromBytes(
                     target,
                     TemporalType.encodeLocalTimeArray((LocalTime[]) array),
                     recordAllocator,
+                    compress,
                     cursorContext,
                     memoryTracker);
         } else if (type.equals(LocalDateTime.class)) {
-            allocateFromCompositeType(
+            allocateFromBytes(
                     target,
                     TemporalType.encodeLocalDateTimeArray((LocalDateTime[]) array),
                     recordAllocator,
+                    compress,
                     cursorContext,
                     memoryTracker);
         } else if (type.equals(OffsetTime.class)) {
-            allocateFromCompositeType(
+            allocateFromBytes(
                     target,
                     TemporalType.encodeTimeArray((OffsetTime[]) array),
                     recordAllocator,
+                    compress,
                     cursorContext,
                     memoryTracker);
         } else if (type.equals(ZonedDateTime.class)) {
-            allocateFromCompositeType(
+            allocateFromBytes(
                     target,
                     TemporalType.encodeDateTimeArray((ZonedDateTime[]) array),
                     recordAllocator,
+                    compress,
                     cursorContext,
                     memoryTracker);
         } else if (type.equals(DurationValue.class)) {
-            allocateFromCompositeType(
+            allocateFromBytes(
                     target,
                     TemporalType.encodeDurationArray((DurationValue[]) array),
                     recordAllocator,
+                    compress,
                     cursorContext,
                     memoryTracker);
         } else {
-            allocateFromNumbers(target, array, recordAllocator, cursorContext, memoryTracker);
+            allocateFromNumbers(target, array, recordAllocator, compress, cursorContext, memoryTracker);
         }
     }
 
     public static ArrayValue getRightArray(byte[] header, byte[] bArray) {
         byte typeId = header[0];
-        if (typeId == PropertyType.STRING.intValue()) {
+        if (typeId == DynamicValueCompression.COMPRESSED) {
+            byte[] bytes = DynamicValueCompression.decompress(header, bArray);
+            byte[] uncompressedHeader = PropertyType.ARRAY.readDynamicRecordHeader(bytes);
+            return getRightArray(
+                    uncompressedHeader, Arrays.copyOfRange(bytes, uncompressedHeader.length, bytes.length));
+        } else if (typeId == PropertyType.STRING.intValue()) {
             ByteBuffer headerBuffer = ByteBuffer.wrap(header, 1 /*skip the type*/, header.length - 1);
             int arrayLength = headerBuffer.getInt();
             String[] result = new String[arrayLength];
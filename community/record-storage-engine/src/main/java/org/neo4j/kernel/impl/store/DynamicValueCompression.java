@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.neo4j.kernel.impl.store.format.RecordStorageCapability;
+
+/**
+ * Optional compression of string and array property values stored in dynamic records. A compressed value is stored as:
+ * <pre>
+ *  0: marker              (1 byte)   0xFF, which is neither a valid UTF-8 byte nor a valid array item type
+ *  1: uncompressed length (4 bytes)
+ *  5: deflated bytes of the value as they would have been stored uncompressed
+ * </pre>
+ * A value is only stored compressed when that saves at least one dynamic record, since reading it otherwise
+ * would cost decompression without saving any I/O. Nested values, like the arrays inside temporal and geometry
+ * arrays, are never compressed on their own. Values are only compressed in stores whose format has
+ * {@link RecordStorageCapability#COMPRESSED_DYNAMIC_VALUES}, so that versions which don't know about the marker
+ * can't open such stores.
+ * <p>
+ * Each thread reuses its own {@link Deflater} and {@link Inflater}, since allocating them is costly compared to
+ * compressing a single value.
+ */
+public final class DynamicValueCompression {
+    public static final byte COMPRESSED = (byte) 0xFF;
+    public static final int HEADER_SIZE = 5;
+
+    private static final ThreadLocal<Deflater> DEFLATER =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private DynamicValueCompression() {}
+
+    /**
+     * @param bytes the bytes of a string or array value, as they would have been stored uncompressed.
+     * @param recordDataSize number of data bytes in each dynamic record the value will be stored in.
+     * @return the compressed form of the value if it needs fewer dynamic records than {@code bytes}, otherwise {@code bytes}.
+     */
+    public static byte[] compress(byte[] bytes, int recordDataSize) {
+        int records = numberOfRecords(bytes.length, recordDataSize);
+        int maxCompressedLength = (records - 1) * recordDataSize - HEADER_SIZE;
+        if (maxCompressedLength <= 0) {
+            return bytes;
+        }
+
+        byte[] compressed = new byte[HEADER_SIZE + maxCompressedLength];
+        Deflater deflater = DEFLATER.get();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            int length = deflater.deflate(compressed, HEADER_SIZE, maxCompressedLength);
+            if (!deflater.finished()) {
+                // It didn't fit in fewer records than the uncompressed value
+                return bytes;
+            }
+            ByteBuffer.wrap(compressed).put(COMPRESSED).putInt(bytes.length);
+            return length == maxCompressedLength ? compressed : Arrays.copyOf(compressed, HEADER_SIZE + length);
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    public static boolean isCompressed(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == COMPRESSED;
+    }
+
+    public static boolean isCompressed(ByteBuffer buffer) {
+        return buffer.limit() > 0 && buffer.get(0) == COMPRESSED;
+    }
+
+    /**
+     * @param bytes a compressed value, including its header.
+     * @return the bytes of the value as they would have been stored uncompressed.
+     */
+    public static byte[] decompress(byte[] bytes) {
+        return decompress(bytes, 0, bytes.length);
+    }
+
+    /**
+     * @param buffer a heap buffer positioned at the start of a compressed value, including its header.
+     * @return a buffer with the bytes of the value as they would have been stored uncompressed.
+     */
+    public static ByteBuffer decompress(ByteBuffer buffer) {
+        return ByteBuffer.wrap(
+                decompress(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()));
+    }
+
+    /**
+     * Decompresses a value whose header has been read separately from its data, like from
+     * {@link PropertyType#readDynamicRecordHeader(byte[])}.
+     */
+    public static byte[] decompress(byte[] header, byte[] data) {
+        return decompress(uncompressedLength(header, 0), data, 0, data.length);
+    }
+
+    private static byte[] decompress(byte[] bytes, int offset, int length) {
+        if (length < HEADER_SIZE || bytes[offset] != COMPRESSED) {
+            throw new InvalidRecordException("Dynamic value of length " + length + " isn't compressed");
+        }
+        return decompress(uncompressedLength(bytes, offset), bytes, offset + HEADER_SIZE, length - HEADER_SIZE);
+    }
+
+    private static byte[] decompress(int uncompressedLength, byte[] bytes, int offset, int length) {
+        if (uncompressedLength < 0) {
+            throw new InvalidRecordException("Invalid uncompressed length " + uncompressedLength + " of dynamic value");
+        }
+        byte[] result = new byte[uncompressedLength];
+        Inflater inflater = INFLATER.get();
+        try {
+            inflater.setInput(bytes, offset, length);
+            int inflated = 0;
+            while (inflated < uncompressedLength && !inflater.finished()) {
+                int read = inflater.inflate(result, inflated, uncompressedLength - inflated);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += read;
+            }
+            if (inflated != uncompressedLength) {
+                throw new InvalidRecordException("Compressed dynamic value is truncated, expected " + uncompressedLength
+                        + " bytes but got " + inflated);
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new InvalidRecordException("Unable to decompress dynamic value", e);
+        } finally {
+            inflater.reset();
+        }
+    }
+
+    private static int uncompressedLength(byte[] bytes, int offset) {
+        return ByteBuffer.wrap(bytes, offset + 1, HEADER_SIZE - 1).getInt();
+    }
+
+    private static int numberOfRecords(int length, int recordDataSize) {
+        return Math.max(1, (length + recordDataSize - 1) / recordDataSize);
+    }
+}
@@ -71,11 +71,11 @@ public class MetaDataStore extends CommonAbstractStore<MetaDataRecord, NoStoreHe
     // if you ever wonder what this is, it is just a random 8 byte prime number
     private static final long LEGACY_STORE_VERSION_VALUE = 0xcf1bbcdcb7a56463L;
 
-    // MetaDataStore always big-endian and never multi-versioned, so we can read store version regardless of endianness
-    // of other stores
+    // MetaDataStore always big-endian and never multi-versioned or checksummed, so we can read store version regardless
+    // of endianness and page layout of other stores
     private static final ImmutableSet<OpenOption> REQUIRED_OPTIONS = immutable.of(PageCacheOpenOptions.BIG_ENDIAN);
     private static final ImmutableSet<OpenOption> FORBIDDEN_OPTIONS =
-            immutable.of(PageCacheOpenOptions.MULTI_VERSIONED);
+            immutable.of(PageCacheOpenOptions.MULTI_VERSIONED, PageCacheOpenOptions.CHECKSUMMED);
 
     // Positions of meta-data records
     // Metadata store is split into fixed 8 byte slots.
@@ -37,6 +37,7 @@ import org.eclipse.collections.api.set.ImmutableSet;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.internal.id.IdGeneratorFactory;
 import org.neo4j.internal.recordstorage.InconsistentDataReadException;
@@ -48,6 +49,7 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.RecordStorageCapability;
 import org.neo4j.kernel.impl.store.format.standard.StandardFormatSettings;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
@@ -150,6 +152,12 @@ import org.neo4j.values.utils.TemporalValueWriterAdapter;
  *            days in next long block
  *            seconds in next long block
  * </pre>
+ * <h2>dynamic values</h2>
+ * Strings and arrays that don't fit in the property blocks are stored in the {@link DynamicStringStore} and
+ * {@link DynamicArrayStore}, referenced from the block. If
+ * {@link GraphDatabaseInternalSettings#compress_dynamic_property_values} is enabled, and the store format has
+ * {@link RecordStorageCapability#COMPRESSED_DYNAMIC_VALUES}, such values may be stored compressed,
+ * as described in {@link DynamicValueCompression}.
  */
 public class PropertyStore extends CommonAbstractStore<PropertyRecord, NoStoreHeader> {
     public static final String TYPE_DESCRIPTOR = "PropertyStore";
@@ -157,6 +165,7 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord, NoStoreHe
     private final DynamicStringStore stringStore;
     private final PropertyKeyTokenStore propertyKeyTokenStore;
     private final DynamicArrayStore arrayStore;
+    private final boolean compressDynamicValues;
 
     public PropertyStore(
             FileSystemAbstraction fileSystem,
@@ -193,6 +202,22 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord, NoStoreHe
         this.stringStore = stringPropertyStore;
         this.propertyKeyTokenStore = propertyKeyTokenStore;
         this.arrayStore = arrayPropertyStore;
+        boolean compress = configuration.get(GraphDatabaseInternalSettings.compress_dynamic_property_values);
+        this.compressDynamicValues =
+                compress && recordFormats.hasCapability(RecordStorageCapability.COMPRESSED_DYNAMIC_VALUES);
+        if (compress && !compressDynamicValues) {
+            logProvider
+                    .getLog(getClass())
+                    .warn("Property values will not be compressed since store format " + recordFormats
+                            + " doesn't support compressed values");
+        }
+    }
+
+    /**
+     * @return whether new string and array values should be stored compressed when that saves dynamic records.
+     */
+    public boolean compressDynamicValues() {
+        return compressDynamicValues;
     }
 
     public DynamicStringStore getStringStore() {
@@ -327,9 +352,10 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord, NoStoreHe
             Collection<DynamicRecord> target,
             Object array,
             DynamicRecordAllocator allocator,
+            boolean compress,
             CursorContext cursorContext,
             MemoryTracker memoryTracker) {
-        DynamicArrayStore.allocateRecords(target, array, allocator, cursorContext, memoryTracker);
+        DynamicArrayStore.allocateRecords(target, array, allocator, compress, cursorContext, memoryTracker);
     }
 
     public static void encodeValue(
@@ -340,6 +366,22 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord, NoStoreHe
             DynamicRecordAllocator arrayAllocator,
             CursorContext cursorContext,
             MemoryTracker memoryTracker) {
+        encodeValue(block, keyId, value, stringAllocator, arrayAllocator, false, cursorContext, memoryTracker);
+    }
+
+    /**
+     * @param compressDynamicValues whether to store string and array values that end up in dynamic records compressed,
+     * see {@link DynamicValueCompression}.
+     */
+    public static void encodeValue(
+            PropertyBlock block,
+            int keyId,
+            Value value,
+            DynamicRecordAllocator stringAllocator,
+            DynamicRecordAllocator arrayAllocator,
+            boolean compressDynamicValues,
+            CursorContext cursorContext,
+            MemoryTracker memoryTracker) {
         if (value instanceof ArrayValue) {
             Object asObject = value.asObject();
 
@@ -350,7 +392,8 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord, NoStoreHe
 
             // Fall back to dynamic array store
             List<DynamicRecord> arrayRecords = newArrayList(memoryTracker);
-            allocateArrayRecords(arrayRecords, asObject, arrayAllocator, cursorContext, memoryTracker);
+            allocateArrayRecords(
+                    arrayRecords, asObject, arrayAllocator, compressDynamicValues, cursorContext, memoryTracker);
             setSingleBlockValue(
                     block,
                     keyId,
@@ -361,7 +404,8 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord, NoStoreHe
             }
             block.setValueRecords(arrayRecords);
         } else {
-            value.writeTo(new PropertyBlockValueWriter(block, keyId, stringAllocator, cursorContext, memoryTracker));
+            value.writeTo(new PropertyBlockValueWriter(
+                    block, keyId, stringAllocator, compressDynamicValues, cursorContext, memoryTracker));
         }
     }
 
@@ -423,6 +467,7 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord, NoStoreHe
         private final PropertyBlock block;
         private final int keyId;
         private final DynamicRecordAllocator stringAllocator;
+        private final boolean compress;
         private final CursorContext cursorContext;
         private final MemoryTracker memoryTracker;
 
@@ -430,11 +475,13 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord, NoStoreHe
                 PropertyBlock block,
                 int keyId,
                 DynamicRecordAllocator stringAllocator,
+                boolean compress,
                 CursorContext cursorContext,
                 MemoryTracker memoryTracker) {
             this.block = block;
             this.keyId = keyId;
             this.stringAllocator = stringAllocator;
+            this.compress = compress;
             this.cursorContext = cursorContext;
             this.memoryTracker = memoryTracker;
         }
@@ -500,6 +547,9 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord, NoStoreHe
 
             // Fall back to dynamic string store
             byte[] encodedString = encodeString(value);
+            if (compress) {
+                encodedString = DynamicValueCompression.compress(encodedString, stringAllocator.getRecordDataSize());
+            }
             List<DynamicRecord> valueRecords =
                     newArrayList(encodedString.length / stringAllocator.getRecordDataSize() + 1, memoryTracker);
             allocateStringRecords(valueRecords, encodedString, stringAllocator, cursorContext, memoryTracker);
@@ -602,7 +652,9 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord, NoStoreHe
         AbstractDynamicStore.HeavyRecordData source =
                 stringStore.readFullByteArray(dynamicRecords, PropertyType.STRING, storeCursors);
         // A string doesn't have a header in the data array
-        return Values.utf8Value(source.data());
+        byte[] data = source.data();
+        return Values.utf8Value(
+                DynamicValueCompression.isCompressed(data) ? DynamicValueCompression.decompress(data) : data);
     }
 
     Value getArrayFor(PropertyBlock propertyBlock, StoreCursors storeCursors) {
@@ -635,6 +687,9 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord, NoStoreHe
         if (buffer.limit() <= 0) {
             throw new IllegalStateException("Given buffer is empty");
         }
+        if (DynamicValueCompression.isCompressed(buffer)) {
+            buffer = DynamicValueCompression.decompress(buffer);
+        }
 
         byte typeId = buffer.get();
         if (typeId == PropertyType.STRING.intValue()) {
@@ -121,7 +121,9 @@ public enum PropertyType {
         @Override
         public byte[] readDynamicRecordHeader(byte[] recordBytes) {
             byte itemType = recordBytes[0];
-            if (itemType == STRING.byteValue()) {
+            if (itemType == DynamicValueCompression.COMPRESSED) {
+                return headOf(recordBytes, DynamicValueCompression.HEADER_SIZE);
+            } else if (itemType == STRING.byteValue()) {
                 return headOf(recordBytes, DynamicArrayStore.STRING_HEADER_SIZE);
             } else if (itemType <= DOUBLE.byteValue()) {
                 return headOf(recordBytes, DynamicArrayStore.NUMBER_HEADER_SIZE);
@@ -42,6 +42,7 @@ public class PropertyValueRecordSizeCalculator implements PropertySizeCalculator
     private final int propertyRecordSize;
     private final int stringRecordSize;
     private final int arrayRecordSize;
+    private final boolean compressDynamicValues;
 
     public PropertyValueRecordSizeCalculator(PropertyStore propertyStore) {
         this(
@@ -49,7 +50,8 @@ public class PropertyValueRecordSizeCalculator implements PropertySizeCalculator
                 propertyStore.getStringStore().getRecordSize(),
                 propertyStore.getStringStore().getRecordDataSize(),
                 propertyStore.getArrayStore().getRecordSize(),
-                propertyStore.getArrayStore().getRecordDataSize());
+                propertyStore.getArrayStore().getRecordDataSize(),
+                propertyStore.compressDynamicValues());
     }
 
     public PropertyValueRecordSizeCalculator(
@@ -58,6 +60,17 @@ public class PropertyValueRecordSizeCalculator implements PropertySizeCalculator
             int stringRecordDataSize,
             int arrayRecordSize,
             int arrayRecordDataSize) {
+        this(propertyRecordSize, stringRecordSize, stringRecordDataSize, arrayRecordSize, arrayRecordDataSize, false);
+    }
+
+    public PropertyValueRecordSizeCalculator(
+            int propertyRecordSize,
+            int stringRecordSize,
+            int stringRecordDataSize,
+            int arrayRecordSize,
+            int arrayRecordDataSize,
+            boolean compressDynamicValues) {
+        this.compressDynamicValues = compressDynamicValues;
         this.propertyRecordSize = propertyRecordSize;
         this.stringRecordSize = stringRecordSize;
         this.arrayRecordSize = arrayRecordSize;
@@ -80,6 +93,7 @@ public class PropertyValueRecordSizeCalculator implements PropertySizeCalculator
                     value,
                     stringRecordCounter,
                     arrayRecordCounter,
+                    compressDynamicValues,
                     cursorContext,
                     memoryTracker);
             if (block.getValueBlocks().length > freeBlocksInCurrentRecord) {
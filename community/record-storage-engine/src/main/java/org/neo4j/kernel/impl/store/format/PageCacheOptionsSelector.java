@@ -39,6 +39,9 @@ public class PageCacheOptionsSelector {
         if (recordFormats.hasCapability(RecordStorageCapability.MULTI_VERSIONED)) {
             options.add(PageCacheOpenOptions.MULTI_VERSIONED);
         }
+        if (recordFormats.hasCapability(RecordStorageCapability.PAGE_CHECKSUMS)) {
+            options.add(PageCacheOpenOptions.CHECKSUMMED);
+        }
         return options.toImmutable();
     }
 }
@@ -43,11 +43,14 @@ import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.kernel.impl.store.LegacyMetadataHandler;
 import org.neo4j.kernel.impl.store.MetaDataStore;
 import org.neo4j.kernel.impl.store.format.aligned.PageAligned;
+import org.neo4j.kernel.impl.store.format.aligned.PageAlignedChecksummedV5_17;
 import org.neo4j.kernel.impl.store.format.aligned.PageAlignedV4_3;
 import org.neo4j.kernel.impl.store.format.aligned.PageAlignedV5_0;
+import org.neo4j.kernel.impl.store.format.aligned.PageAlignedV5_17;
 import org.neo4j.kernel.impl.store.format.standard.Standard;
 import org.neo4j.kernel.impl.store.format.standard.StandardV4_3;
 import org.neo4j.kernel.impl.store.format.standard.StandardV5_0;
+import org.neo4j.kernel.impl.store.format.standard.StandardV5_17;
 import org.neo4j.logging.InternalLogProvider;
 import org.neo4j.service.Services;
 import org.neo4j.storageengine.api.StoreId;
@@ -69,8 +72,11 @@ public class RecordFormatSelector {
     private static final List<RecordFormats> KNOWN_FORMATS = asList(
             StandardV4_3.RECORD_FORMATS,
             StandardV5_0.RECORD_FORMATS,
+            StandardV5_17.RECORD_FORMATS,
             PageAlignedV4_3.RECORD_FORMATS,
-            PageAlignedV5_0.RECORD_FORMATS);
+            PageAlignedV5_0.RECORD_FORMATS,
+            PageAlignedV5_17.RECORD_FORMATS,
+            PageAlignedChecksummedV5_17.RECORD_FORMATS);
 
     private RecordFormatSelector() {
         throw new AssertionError("Not for instantiation!");
@@ -47,7 +47,17 @@ public enum RecordStorageCapability implements Capability {
     /**
      * Store supports mvcc
      */
-    MULTI_VERSIONED(CapabilityType.FORMAT, CapabilityType.STORE);
+    MULTI_VERSIONED(CapabilityType.FORMAT, CapabilityType.STORE),
+
+    /**
+     * Store pages carry a checksum of their contents
+     */
+    PAGE_CHECKSUMS(CapabilityType.FORMAT, CapabilityType.STORE),
+
+    /**
+     * String and array property values in dynamic records may be stored compressed
+     */
+    COMPRESSED_DYNAMIC_VALUES(true, CapabilityType.FORMAT, CapabilityType.STORE);
 
     private final CapabilityType[] types;
     private final boolean additive;
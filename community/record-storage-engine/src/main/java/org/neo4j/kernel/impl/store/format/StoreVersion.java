@@ -25,9 +25,12 @@ package org.neo4j.kernel.impl.store.format;
 public enum StoreVersion {
     STANDARD_V4_3(FormatFamily.STANDARD, 0, 1, "4.3.0", true),
     STANDARD_V5_0(FormatFamily.STANDARD, 1, 1, "5.0.0", false),
+    STANDARD_V5_17(FormatFamily.STANDARD, 1, 2, "5.17.0", false),
 
     ALIGNED_V4_3(FormatFamily.ALIGNED, 0, 1, "4.3.0", true),
     ALIGNED_V5_0(FormatFamily.ALIGNED, 1, 1, "5.0.0", false),
+    ALIGNED_V5_17(FormatFamily.ALIGNED, 1, 2, "5.17.0", false),
+    ALIGNED_CHECKSUMMED_V5_17(FormatFamily.ALIGNED_CHECKSUMMED, 1, 1, "5.17.0", false),
 
     MULTIVERSION(FormatFamily.MULTIVERSION, 1, 1, "5.0.0", false),
 
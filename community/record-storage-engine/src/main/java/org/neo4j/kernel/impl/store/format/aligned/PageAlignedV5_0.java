@@ -26,6 +26,7 @@ import org.neo4j.kernel.impl.store.format.FormatFamily;
 import org.neo4j.kernel.impl.store.format.RecordFormat;
 import org.neo4j.kernel.impl.store.format.RecordFormatFamilyCapability;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.StoreVersion;
 import org.neo4j.kernel.impl.store.format.standard.DynamicRecordFormat;
 import org.neo4j.kernel.impl.store.format.standard.LabelTokenRecordFormat;
 import org.neo4j.kernel.impl.store.format.standard.NodeRecordFormat;
@@ -45,6 +46,7 @@ import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.store.record.SchemaRecord;
+import org.neo4j.storageengine.api.format.Capability;
 
 /**
  * Record format, very similar to {@link Standard}, only more machine friendly.
@@ -64,6 +66,10 @@ public class PageAlignedV5_0 extends BaseRecordFormats {
         super(ALIGNED_V5_0, new RecordFormatFamilyCapability(FormatFamily.ALIGNED));
     }
 
+    protected PageAlignedV5_0(StoreVersion storeVersion, Capability... capabilities) {
+        super(storeVersion, capabilities);
+    }
+
     @Override
     public RecordFormat<NodeRecord> node() {
         return new NodeRecordFormat(true);
@@ -34,6 +34,7 @@ import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.store.record.SchemaRecord;
+import org.neo4j.storageengine.api.format.Capability;
 
 public class StandardV5_0 extends BaseRecordFormats {
     public static final RecordFormats RECORD_FORMATS = new StandardV5_0();
@@ -43,6 +44,10 @@ public class StandardV5_0 extends BaseRecordFormats {
         super(StoreVersion.STANDARD_V5_0, new RecordFormatFamilyCapability(FormatFamily.STANDARD));
     }
 
+    protected StandardV5_0(StoreVersion storeVersion, Capability... capabilities) {
+        super(storeVersion, capabilities);
+    }
+
     @Override
     public RecordFormat<NodeRecord> node() {
         return new NodeRecordFormat();
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.format.standard;
+
+import org.neo4j.kernel.impl.store.DynamicValueCompression;
+import org.neo4j.kernel.impl.store.format.FormatFamily;
+import org.neo4j.kernel.impl.store.format.RecordFormatFamilyCapability;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.RecordStorageCapability;
+import org.neo4j.kernel.impl.store.format.StoreVersion;
+
+/**
+ * Same records as {@link StandardV5_0}, but string and array property values in dynamic records may be stored
+ * compressed, see {@link DynamicValueCompression}. It's a version of its own so that versions which can't
+ * decompress such values refuse to open the store.
+ */
+public class StandardV5_17 extends StandardV5_0 {
+    public static final RecordFormats RECORD_FORMATS = new StandardV5_17();
+
+    private StandardV5_17() {
+        super(
+                StoreVersion.STANDARD_V5_17,
+                new RecordFormatFamilyCapability(FormatFamily.STANDARD),
+                RecordStorageCapability.COMPRESSED_DYNAMIC_VALUES);
+    }
+
+    @Override
+    public boolean formatUnderDevelopment() {
+        return true;
+    }
+}
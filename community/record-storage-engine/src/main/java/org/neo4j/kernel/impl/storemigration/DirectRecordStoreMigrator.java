@@ -102,7 +102,7 @@ class DirectRecordStoreMigrator {
                         .openNeoStores(storesToOpen);
                 NeoStores toStores = new StoreFactory(
                                 toDirectoryStructure,
-                                withPersistedStoreHeadersAsConfigFrom(fromStores, storesToOpen),
+                                withPersistedStoreHeadersAsConfigFrom(config, fromStores, storesToOpen),
                                 new DefaultIdGeneratorFactory(
                                         fs, immediate(), pageCacheTracer, toDirectoryStructure.getDatabaseName()),
                                 pageCache,
@@ -153,11 +153,12 @@ class DirectRecordStoreMigrator {
      * data which fits into one record must fit into the other as to not needing additional blocks
      * in the dynamic record chain.
      *
+     * @param config {@link Config} to set the dynamic record data sizes in.
      * @param legacyStores {@link NeoStores} to read dynamic record data sizes from.
      * @param types array of {@link StoreType} which we know that legacy stores have opened.
      * @return a {@link Config} which mimics dynamic record data sizes from the {@code legacyStores}.
      */
-    private Config withPersistedStoreHeadersAsConfigFrom(NeoStores legacyStores, StoreType[] types) {
+    static Config withPersistedStoreHeadersAsConfigFrom(Config config, NeoStores legacyStores, StoreType[] types) {
         if (contains(types, StoreType.RELATIONSHIP_GROUP)) {
             config.set(
                     GraphDatabaseSettings.dense_node_threshold,
@@ -0,0 +1,457 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storemigration;
+
+import static java.lang.String.format;
+import static org.eclipse.collections.impl.factory.Sets.immutable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.helpers.Format.duration;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.LENIENT_CHECK;
+import static org.neo4j.kernel.impl.storemigration.DirectRecordStoreMigrator.withPersistedStoreHeadersAsConfigFrom;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.helpers.Exceptions;
+import org.neo4j.internal.helpers.progress.ProgressListener;
+import org.neo4j.internal.helpers.progress.ProgressMonitorFactory;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.internal.id.ScanOnOpenReadOnlyIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.RecordStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.StoreType;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.RecordFormat;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.transaction.log.LogTailLogVersionsMetadata;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.storageengine.util.IdUpdateListener;
+
+/**
+ * Migrates a {@link NeoStores} record by record, like {@link DirectRecordStoreMigrator}, but copies all stores
+ * concurrently. Each store is split into partitions of consecutive record ids and a number of workers copy the
+ * partitions of all the stores in parallel, the first partition of every store before the second partition of any
+ * store and so on, so that all stores make progress at the same time.
+ * <p>
+ * Records are copied as-is, keeping their ids, which means that this can only be used between formats where records
+ * are the same, see {@link #canMigrate(RecordFormats, RecordFormats)}, e.g. where only the layout of the records in
+ * the store files differ. The stores are copied into a directory of their own, together with a
+ * {@link RecordStoreMigrationCheckpoint checkpoint} of the partitions that have been completed. A migration which
+ * fails, or gets interrupted, continues with the partitions that weren't completed when started again.
+ */
+class ParallelRecordStoreMigrator {
+    static final String MIGRATION_DIRECTORY = "migrate-parallel";
+    static final String CHECKPOINT_FILE_NAME = "migration.checkpoint";
+    private static final String PARALLEL_STORE_MIGRATOR_TAG = "parallelStoreMigrator";
+
+    private final PageCache pageCache;
+    private final FileSystemAbstraction fs;
+    private final Config config;
+    private final CursorContextFactory contextFactory;
+    private final PageCacheTracer pageCacheTracer;
+    private final JobScheduler jobScheduler;
+    private final InternalLog log;
+    private final int numberOfThreads;
+    private final long partitionSize;
+    private final Monitor monitor;
+
+    ParallelRecordStoreMigrator(
+            PageCache pageCache,
+            FileSystemAbstraction fs,
+            Config config,
+            CursorContextFactory contextFactory,
+            PageCacheTracer pageCacheTracer,
+            JobScheduler jobScheduler,
+            InternalLog log,
+            int numberOfThreads,
+            long partitionSize,
+            Monitor monitor) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads " + numberOfThreads);
+        }
+        if (partitionSize < 1) {
+            throw new IllegalArgumentException("Invalid partition size " + partitionSize);
+        }
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.config = config;
+        this.contextFactory = contextFactory;
+        this.pageCacheTracer = pageCacheTracer;
+        this.jobScheduler = jobScheduler;
+        this.log = log;
+        this.numberOfThreads = numberOfThreads;
+        this.partitionSize = partitionSize;
+        this.monitor = monitor;
+    }
+
+    /**
+     * @return whether records can be copied as-is between the two formats, i.e. whether every store has the
+     * same record format in both of them, not taking into account how records are laid out in the pages.
+     */
+    static boolean canMigrate(RecordFormats from, RecordFormats to) {
+        return sameRecords(from.node(), to.node())
+                && sameRecords(from.relationship(), to.relationship())
+                && sameRecords(from.relationshipGroup(), to.relationshipGroup())
+                && sameRecords(from.property(), to.property())
+                && sameRecords(from.dynamic(), to.dynamic())
+                && sameRecords(from.labelToken(), to.labelToken())
+                && sameRecords(from.propertyKeyToken(), to.propertyKeyToken())
+                && sameRecords(from.relationshipTypeToken(), to.relationshipTypeToken())
+                && sameRecords(from.schema(), to.schema());
+    }
+
+    private static boolean sameRecords(RecordFormat<?> from, RecordFormat<?> to) {
+        return from.getClass() == to.getClass()
+                && from.getRecordHeaderSize() == to.getRecordHeaderSize()
+                && from.getMaxId() == to.getMaxId();
+    }
+
+    /**
+     * Copies all record stores, except the metadata store, from one directory to the other. The target directory
+     * is expected to be kept between attempts of the same migration, it's where the checkpoint file is kept.
+     *
+     * @param lastCommittedTxId last committed transaction id of the store being migrated, a checkpoint from an attempt
+     * of migrating the store at another transaction id is discarded.
+     * @return statistics about the copying of each store.
+     */
+    Map<StoreType, StoreStatistics> migrate(
+            RecordDatabaseLayout fromDirectoryStructure,
+            RecordFormats fromFormat,
+            RecordDatabaseLayout toDirectoryStructure,
+            RecordFormats toFormat,
+            long lastCommittedTxId,
+            ProgressListener progressListener)
+            throws IOException {
+        StoreType[] types = Arrays.stream(StoreType.STORE_TYPES)
+                .filter(type -> type != StoreType.META_DATA)
+                .toArray(StoreType[]::new);
+        fs.mkdirs(toDirectoryStructure.databaseDirectory());
+        Path checkpointFile = toDirectoryStructure.file(CHECKPOINT_FILE_NAME);
+
+        try (var checkpoint = RecordStoreMigrationCheckpoint.open(
+                fs, checkpointFile, partitionSize, lastCommittedTxId, migrationId(fromFormat, toFormat))) {
+            if (checkpoint.numberOfCompletedPartitions() == 0) {
+                // Nothing to continue from, don't let anything that a previous attempt left behind get in the way
+                for (Path file : fs.listFiles(toDirectoryStructure.databaseDirectory())) {
+                    if (!file.equals(checkpointFile)) {
+                        fs.delete(file);
+                    }
+                }
+            } else {
+                log.info(format(
+                        "Continuing store migration from a previous attempt which completed %d partitions",
+                        checkpoint.numberOfCompletedPartitions()));
+            }
+
+            try (NeoStores fromStores = new StoreFactory(
+                                    fromDirectoryStructure,
+                                    config,
+                                    new ScanOnOpenReadOnlyIdGeneratorFactory(),
+                                    pageCache,
+                                    pageCacheTracer,
+                                    fs,
+                                    fromFormat,
+                                    NullLogProvider.getInstance(),
+                                    contextFactory,
+                                    true,
+                                    LogTailLogVersionsMetadata.EMPTY_LOG_TAIL,
+                                    immutable.empty())
+                            .openNeoStores(types);
+                    NeoStores toStores = new StoreFactory(
+                                    toDirectoryStructure,
+                                    withPersistedStoreHeadersAsConfigFrom(config, fromStores, types),
+                                    new DefaultIdGeneratorFactory(
+                                            fs, immediate(), pageCacheTracer, toDirectoryStructure.getDatabaseName()),
+                                    pageCache,
+                                    pageCacheTracer,
+                                    fs,
+                                    toFormat,
+                                    NullLogProvider.getInstance(),
+                                    contextFactory,
+                                    false,
+                                    LogTailLogVersionsMetadata.EMPTY_LOG_TAIL,
+                                    immutable.empty())
+                            .openNeoStores(types);
+                    var cursorContext = contextFactory.create(PARALLEL_STORE_MIGRATOR_TAG)) {
+                toStores.start(cursorContext);
+
+                Map<StoreType, StoreStatistics> statistics = new EnumMap<>(StoreType.class);
+                List<Partition> partitions = new ArrayList<>();
+                var progress =
+                        ProgressMonitorFactory.mapped(progressListener, 100).multipleParts("Parallel store migration");
+                long mostPartitions = 0;
+                for (StoreType type : types) {
+                    RecordStore<AbstractBaseRecord> from = fromStores.getRecordStore(type);
+                    RecordStore<AbstractBaseRecord> to = toStores.getRecordStore(type);
+                    to.getIdGenerator().setHighestPossibleIdInUse(from.getHighestPossibleIdInUse(cursorContext));
+                    long lowId = from.getNumberOfReservedLowIds();
+                    long highId = Math.max(lowId, from.getIdGenerator().getHighId());
+                    var storeStatistics = new StoreStatistics(
+                            type,
+                            (highId - lowId + partitionSize - 1) / partitionSize,
+                            progress.progressForPart(type.name(), highId - lowId));
+                    statistics.put(type, storeStatistics);
+                    mostPartitions = Math.max(mostPartitions, storeStatistics.numberOfPartitions);
+                }
+                try (var completer = progress.build()) {
+                    // Interleave the partitions of the stores so that all of them are copied concurrently
+                    for (long partition = 0; partition < mostPartitions; partition++) {
+                        for (StoreType type : types) {
+                            StoreStatistics storeStatistics = statistics.get(type);
+                            if (partition < storeStatistics.numberOfPartitions) {
+                                RecordStore<AbstractBaseRecord> from = fromStores.getRecordStore(type);
+                                long startId = from.getNumberOfReservedLowIds() + partition * partitionSize;
+                                long endId = Math.min(
+                                        startId + partitionSize,
+                                        from.getIdGenerator().getHighId());
+                                if (checkpoint.isCompleted(type, partition)) {
+                                    storeStatistics.partitionsResumed.increment();
+                                    storeStatistics.progress.add(endId - startId);
+                                } else {
+                                    partitions.add(new Partition(type, partition, startId, endId));
+                                }
+                            }
+                        }
+                    }
+                    copyPartitions(
+                            toDirectoryStructure.getDatabaseName(),
+                            fromStores,
+                            toStores,
+                            partitions,
+                            statistics,
+                            checkpoint);
+                }
+                statistics.values().forEach(storeStatistics -> log.info(storeStatistics.toString()));
+                return statistics;
+            }
+        }
+    }
+
+    private void copyPartitions(
+            String databaseName,
+            NeoStores fromStores,
+            NeoStores toStores,
+            List<Partition> partitions,
+            Map<StoreType, StoreStatistics> statistics,
+            RecordStoreMigrationCheckpoint checkpoint)
+            throws IOException {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        AtomicInteger nextPartition = new AtomicInteger();
+        int numberOfWorkers = Math.min(numberOfThreads, partitions.size());
+        List<JobHandle<Void>> workers = new ArrayList<>(numberOfWorkers);
+        for (int i = 0; i < numberOfWorkers; i++) {
+            workers.add(jobScheduler.schedule(
+                    Group.STORAGE_MAINTENANCE,
+                    JobMonitoringParams.systemJob(databaseName, "Parallel store migration"),
+                    () -> {
+                        try (var cursorContext = contextFactory.create(PARALLEL_STORE_MIGRATOR_TAG);
+                                var toStoreCursors = new CachedStoreCursors(toStores, cursorContext)) {
+                            for (int index = nextPartition.getAndIncrement();
+                                    index < partitions.size();
+                                    index = nextPartition.getAndIncrement()) {
+                                Partition partition = partitions.get(index);
+                                copyPartition(
+                                        fromStores.getRecordStore(partition.type),
+                                        toStores.getRecordStore(partition.type),
+                                        partition,
+                                        statistics.get(partition.type),
+                                        checkpoint,
+                                        cursorContext,
+                                        toStoreCursors);
+                            }
+                        } catch (Throwable e) {
+                            // Have the other workers stop as soon as they're done with their current partition
+                            nextPartition.set(partitions.size());
+                            throw e;
+                        }
+                        return null;
+                    }));
+        }
+
+        Throwable failure = null;
+        for (JobHandle<Void> worker : workers) {
+            try {
+                worker.waitTermination();
+            } catch (ExecutionException e) {
+                failure = Exceptions.chain(failure, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = Exceptions.chain(failure, e);
+            }
+        }
+        if (failure != null) {
+            Exceptions.throwIfInstanceOfOrUnchecked(failure, IOException.class);
+        }
+    }
+
+    private <RECORD extends AbstractBaseRecord> void copyPartition(
+            RecordStore<RECORD> from,
+            RecordStore<RECORD> to,
+            Partition partition,
+            StoreStatistics statistics,
+            RecordStoreMigrationCheckpoint checkpoint,
+            CursorContext cursorContext,
+            StoreCursors toStoreCursors)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        statistics.startNanos.accumulateAndGet(startNanos, Math::min);
+        RECORD record = from.newRecord();
+        long copied = 0;
+        try (var fromCursor = from.openPageCursorForReading(partition.startId, cursorContext);
+                var toCursor = to.openPageCursorForWriting(partition.startId, cursorContext)) {
+            for (long id = partition.startId; id < partition.endId; id++) {
+                from.getRecordByCursor(id, record, LENIENT_CHECK, fromCursor);
+                if (record.inUse()) {
+                    // The ids are rebuilt from the copied stores when they're complete
+                    to.updateRecord(record, IdUpdateListener.IGNORE, toCursor, cursorContext, toStoreCursors);
+                    copied++;
+                }
+            }
+        }
+
+        // The partition is only completed when its records are durable, other workers may be flushing too
+        try (var flushEvent = pageCacheTracer.beginFileFlush()) {
+            to.flush(flushEvent, cursorContext);
+        }
+        checkpoint.completed(partition.type, partition.number);
+
+        statistics.recordsCopied.add(copied);
+        statistics.partitionsCopied.increment();
+        statistics.endNanos.accumulateAndGet(System.nanoTime(), Math::max);
+        statistics.progress.add(partition.endId - partition.startId);
+        monitor.partitionCopied(partition.type, partition.number, copied);
+    }
+
+    private static long migrationId(RecordFormats fromFormat, RecordFormats toFormat) {
+        return Objects.hash(
+                fromFormat.name(),
+                fromFormat.majorVersion(),
+                fromFormat.minorVersion(),
+                toFormat.name(),
+                toFormat.majorVersion(),
+                toFormat.minorVersion());
+    }
+
+    private record Partition(StoreType type, long number, long startId, long endId) {}
+
+    /**
+     * Progress and throughput of the copying of a single store.
+     */
+    static class StoreStatistics {
+        private final StoreType type;
+        private final long numberOfPartitions;
+        private final ProgressListener progress;
+        private final LongAdder recordsCopied = new LongAdder();
+        private final LongAdder partitionsCopied = new LongAdder();
+        private final LongAdder partitionsResumed = new LongAdder();
+        private final AtomicLong startNanos = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong endNanos = new AtomicLong(Long.MIN_VALUE);
+
+        StoreStatistics(StoreType type, long numberOfPartitions, ProgressListener progress) {
+            this.type = type;
+            this.numberOfPartitions = numberOfPartitions;
+            this.progress = progress;
+        }
+
+        long numberOfPartitions() {
+            return numberOfPartitions;
+        }
+
+        long recordsCopied() {
+            return recordsCopied.sum();
+        }
+
+        long partitionsCopied() {
+            return partitionsCopied.sum();
+        }
+
+        long partitionsResumed() {
+            return partitionsResumed.sum();
+        }
+
+        /**
+         * @return time from when the first partition of this store started to be copied until the last one was done.
+         */
+        long elapsedMillis() {
+            long start = startNanos.get();
+            long end = endNanos.get();
+            return end >= start ? TimeUnit.NANOSECONDS.toMillis(end - start) : 0;
+        }
+
+        /**
+         * @return records copied per second while copying this store.
+         */
+        long recordsPerSecond() {
+            long start = startNanos.get();
+            long end = endNanos.get();
+            return end > start ? (long) (recordsCopied() / ((double) (end - start) / TimeUnit.SECONDS.toNanos(1))) : 0;
+        }
+
+        @Override
+        public String toString() {
+            return format(
+                    "Migrated %s store: %d records in %d of %d partitions (%d completed by a previous attempt) in %s, "
+                            + "%d records/s",
+                    type.name(),
+                    recordsCopied(),
+                    partitionsCopied(),
+                    numberOfPartitions,
+                    partitionsResumed(),
+                    duration(elapsedMillis()),
+                    recordsPerSecond());
+        }
+    }
+
+    interface Monitor {
+        Monitor NO_MONITOR = (type, partition, recordsCopied) -> {};
+
+        /**
+         * Called after a partition has been copied and recorded as completed in the checkpoint.
+         */
+        void partitionCopied(StoreType type, long partition, long recordsCopied) throws IOException;
+    }
+}
@@ -45,6 +45,7 @@ import org.apache.commons.lang3.mutable.MutableBoolean;
 import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.counts.CountsStore;
 import org.neo4j.counts.CountsUpdater;
 import org.neo4j.exceptions.KernelException;
@@ -70,6 +71,7 @@ import org.neo4j.internal.counts.CountsBuilder;
 import org.neo4j.internal.counts.CountsStoreProvider;
 import org.neo4j.internal.counts.DegreeStoreProvider;
 import org.neo4j.internal.counts.DegreeUpdater;
+import org.neo4j.internal.counts.DegreesRebuildFromStore;
 import org.neo4j.internal.counts.DegreesRebuilder;
 import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.internal.helpers.progress.ProgressListener;
@@ -95,6 +97,7 @@ import org.neo4j.io.pagecache.impl.muninn.VersionStorage;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
 import org.neo4j.kernel.impl.store.CommonAbstractStore;
+import org.neo4j.kernel.impl.store.CountsComputer;
 import org.neo4j.kernel.impl.store.LegacyMetadataHandler;
 import org.neo4j.kernel.impl.store.MetaDataStore;
 import org.neo4j.kernel.impl.store.NeoStores;
@@ -222,8 +225,18 @@ public class RecordStorageMigrator extends AbstractStoreMigrationParticipant {
             LogPosition lastTxLogPosition = tailMetadata.getLastTransactionLogPosition();
             long checkpointLogVersion = tailMetadata.getCheckpointLogVersion();
 
+            // Formats that store the same records, only laid out differently in the store files, can have their
+            // records copied as-is, which is done for all stores in parallel
+            boolean parallelMigration = formatsHaveDifferentStoreCapabilities
+                    && !need50Migration(oldFormat)
+                    && config.get(GraphDatabaseInternalSettings.parallel_store_migration)
+                    && ParallelRecordStoreMigrator.canMigrate(oldFormat, newFormat);
+
             // The FORMAT capability also includes the format family so this comparison is enough
-            if (formatsHaveDifferentStoreCapabilities) {
+            if (parallelMigration) {
+                migrateWithParallelCopy(
+                        directoryLayout, migrationLayout, lastTxId, progressListener, oldFormat, newFormat);
+            } else if (formatsHaveDifferentStoreCapabilities) {
                 // Some form of migration is required (a fallback/catch-all option)
                 migrateWithBatchImporter(
                         directoryLayout,
@@ -281,8 +294,8 @@ public class RecordStorageMigrator extends AbstractStoreMigrationParticipant {
                         dstStore.flush(databaseFlushEvent, cursorContext);
                     }
                 }
-            } else if (requiresPropertyMigration) {
-                // Migrate schema store when changing format family
+            } else if (requiresPropertyMigration && !parallelMigration) {
+                // Migrate schema store when changing format family, unless it was copied as-is with the other stores
                 schemaStoreMigration.copyFilesInPreparationForMigration(fileSystem, directoryLayout, migrationLayout);
                 migrateSchemaStore(schemaStoreMigration, migrationLayout, newFormat, cursorContext, memoryTracker);
             }
@@ -415,6 +428,149 @@ public class RecordStorageMigrator extends AbstractStoreMigrationParticipant {
         }
     }
 
+    private void migrateWithParallelCopy(
+            RecordDatabaseLayout sourceDirectoryStructure,
+            RecordDatabaseLayout migrationDirectoryStructure,
+            long lastTxId,
+            ProgressListener progressListener,
+            RecordFormats oldFormat,
+            RecordFormats newFormat)
+            throws IOException {
+        // The stores are copied into a directory of their own, which unlike the migration directory is kept
+        // if the migration fails, so that another attempt can continue from the partitions that were completed
+        RecordDatabaseLayout parallelMigrationStructure = RecordDatabaseLayout.ofFlat(
+                sourceDirectoryStructure.file(ParallelRecordStoreMigrator.MIGRATION_DIRECTORY));
+        int numberOfThreads = config.get(GraphDatabaseInternalSettings.parallel_store_migration_threads);
+        if (numberOfThreads == 0) {
+            numberOfThreads = Runtime.getRuntime().availableProcessors();
+        }
+        new ParallelRecordStoreMigrator(
+                        pageCache,
+                        fileSystem,
+                        config,
+                        contextFactory,
+                        pageCacheTracer,
+                        jobScheduler,
+                        logService.getInternalLog(RecordStorageMigrator.class),
+                        numberOfThreads,
+                        config.get(GraphDatabaseInternalSettings.parallel_store_migration_partition_size),
+                        ParallelRecordStoreMigrator.Monitor.NO_MONITOR)
+                .migrate(
+                        sourceDirectoryStructure,
+                        oldFormat,
+                        parallelMigrationStructure,
+                        newFormat,
+                        lastTxId,
+                        progressListener);
+
+        // Forget about the completed partitions before moving the stores, another attempt must start over
+        // if it gets interrupted while moving them
+        fileSystem.deleteFile(parallelMigrationStructure.file(ParallelRecordStoreMigrator.CHECKPOINT_FILE_NAME));
+        fileOperation(
+                MOVE,
+                fileSystem,
+                parallelMigrationStructure,
+                migrationDirectoryStructure,
+                Arrays.stream(RecordDatabaseFile.values())
+                        .filter(RecordDatabaseFile::hasIdFile)
+                        .<DatabaseFile>map(file -> file)
+                        .toList(),
+                true,
+                true,
+                ExistingTargetStrategy.OVERWRITE);
+        fileSystem.deleteRecursively(parallelMigrationStructure.databaseDirectory());
+
+        rebuildIdsAndCounts(migrationDirectoryStructure, newFormat, lastTxId);
+    }
+
+    /**
+     * Builds the id files, counts store and degrees store of stores that have been migrated by copying their records,
+     * which leaves them without any of those.
+     */
+    private void rebuildIdsAndCounts(
+            RecordDatabaseLayout migrationDirectoryStructure, RecordFormats format, long lastTxId) throws IOException {
+        var storesToOpen = Arrays.stream(StoreType.STORE_TYPES)
+                .filter(storeType -> storeType != StoreType.META_DATA)
+                .toArray(StoreType[]::new);
+        var openOptions = PageCacheOptionsSelector.select(format);
+        try (NeoStores stores = createStoreFactory(
+                                migrationDirectoryStructure,
+                                format,
+                                new ScanOnOpenOverwritingIdGeneratorFactory(
+                                        fileSystem, pageCacheTracer, migrationDirectoryStructure.getDatabaseName()))
+                        .openNeoStores(storesToOpen);
+                var cursorContext = contextFactory.create(RECORD_STORAGE_MIGRATION_TAG)) {
+            // Starting the stores finds the free ids among the copied records
+            stores.start(cursorContext);
+
+            var countsComputer = new CountsComputer(
+                    stores,
+                    lastTxId,
+                    pageCache,
+                    contextFactory,
+                    migrationDirectoryStructure,
+                    memoryTracker,
+                    logService.getInternalLog(RecordStorageMigrator.class));
+            try (var countsStore = openCountsStore(
+                            pageCache,
+                            fileSystem,
+                            migrationDirectoryStructure,
+                            logService.getInternalLogProvider(),
+                            immediate(),
+                            countsComputer,
+                            config,
+                            contextFactory,
+                            pageCacheTracer,
+                            openOptions);
+                    var flushEvent = pageCacheTracer.beginFileFlush()) {
+                countsStore.start(cursorContext, memoryTracker);
+                countsStore.checkpoint(flushEvent, cursorContext);
+            }
+
+            var degreesRebuildFromStore = new DegreesRebuildFromStore(
+                    pageCache,
+                    stores,
+                    migrationDirectoryStructure,
+                    contextFactory,
+                    logService.getInternalLogProvider(),
+                    new Configuration.Overridden(defaultConfiguration(), config));
+            var degreesBuilder = new DegreesRebuilder() {
+                @Override
+                public void rebuild(DegreeUpdater updater, CursorContext cursorContext, MemoryTracker memoryTracker) {
+                    degreesRebuildFromStore.rebuild(updater, cursorContext, memoryTracker);
+                }
+
+                @Override
+                public long lastCommittedTxId() {
+                    // The metadata store isn't in the migration directory yet
+                    return lastTxId;
+                }
+            };
+            try (var degreesStore = DegreeStoreProvider.getInstance()
+                            .openDegreesStore(
+                                    pageCache,
+                                    fileSystem,
+                                    migrationDirectoryStructure,
+                                    logService.getInternalLogProvider(),
+                                    immediate(),
+                                    config,
+                                    contextFactory,
+                                    pageCacheTracer,
+                                    degreesBuilder,
+                                    openOptions,
+                                    false,
+                                    VersionStorage.EMPTY_STORAGE);
+                    var flushEvent = pageCacheTracer.beginFileFlush()) {
+                degreesStore.start(cursorContext, memoryTracker);
+                degreesStore.checkpoint(flushEvent, cursorContext);
+            }
+
+            try (var databaseFlushEvent = pageCacheTracer.beginDatabaseFlush()) {
+                stores.flush(databaseFlushEvent, cursorContext);
+            }
+        }
+    }
+
     private static long storeSize(CommonAbstractStore<? extends AbstractBaseRecord, ? extends StoreHeader> store) {
         return store.getIdGenerator().getHighId() * store.getRecordSize();
     }
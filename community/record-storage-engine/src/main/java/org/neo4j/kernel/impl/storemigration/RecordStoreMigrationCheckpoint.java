@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storemigration;
+
+import static java.lang.Math.toIntExact;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.store.StoreType;
+
+/**
+ * Keeps track of the partitions that {@link ParallelRecordStoreMigrator} has completed, so that a migration which
+ * fails can skip the partitions it has already copied when started again.
+ * <p>
+ * The file starts with a header describing the migration it was written for. A file written for another migration,
+ * i.e. where the last committed transaction of the migrated store, the partition size or any of the formats differ,
+ * is discarded. Each completed partition is appended as an entry of its own and forced after the records of that
+ * partition have been flushed. An entry ends with its partition index so that an entry which was only partly written
+ * when the migration was interrupted is ignored.
+ */
+class RecordStoreMigrationCheckpoint implements AutoCloseable {
+    private static final long MAGIC = 0x4D69677261746550L;
+    private static final int HEADER_SIZE = 5 * Long.BYTES;
+    private static final int ENTRY_SIZE = Integer.BYTES + 2 * Long.BYTES;
+
+    private final FileSystemAbstraction fs;
+    private final Path file;
+    private final MutableLongSet[] completedPartitions = new MutableLongSet[StoreType.STORE_TYPES.length];
+    private final StoreChannel channel;
+    private int numberOfCompletedPartitions;
+
+    private RecordStoreMigrationCheckpoint(FileSystemAbstraction fs, Path file, StoreChannel channel) {
+        this.fs = fs;
+        this.file = file;
+        this.channel = channel;
+        for (int i = 0; i < completedPartitions.length; i++) {
+            completedPartitions[i] = LongSets.mutable.empty();
+        }
+    }
+
+    /**
+     * Opens the checkpoint file, creating it if it doesn't exist and reading the partitions completed by a previous
+     * attempt of the same migration if it does.
+     *
+     * @param partitionSize number of record ids in each partition.
+     * @param lastCommittedTxId last committed transaction id of the store being migrated.
+     * @param migrationId identifies the formats migrated between.
+     */
+    static RecordStoreMigrationCheckpoint open(
+            FileSystemAbstraction fs, Path file, long partitionSize, long lastCommittedTxId, long migrationId)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putLong(MAGIC)
+                .putLong(lastCommittedTxId)
+                .putLong(partitionSize)
+                .putLong(migrationId)
+                .putLong(0)
+                .flip();
+
+        StoreChannel channel = fs.write(file);
+        var checkpoint = new RecordStoreMigrationCheckpoint(fs, file, channel);
+        try {
+            long end = checkpoint.readCompletedPartitions(header);
+            if (end == 0) {
+                channel.truncate(0);
+                channel.writeAll(header, 0);
+                end = HEADER_SIZE;
+            } else {
+                // Cut off whatever trails the last complete entry, so that new entries are appended after it
+                channel.truncate(end);
+            }
+            channel.force(false);
+            channel.position(end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return checkpoint;
+    }
+
+    /**
+     * @return number of partitions completed so far, by this or a previous attempt.
+     */
+    synchronized int numberOfCompletedPartitions() {
+        return numberOfCompletedPartitions;
+    }
+
+    /**
+     * @return whether the given partition of the given store has been completed.
+     */
+    synchronized boolean isCompleted(StoreType type, long partition) {
+        return completedPartitions[type.ordinal()].contains(partition);
+    }
+
+    /**
+     * Durably records a partition as completed. Should only be called after the records of the partition have been
+     * flushed.
+     */
+    synchronized void completed(StoreType type, long partition) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE)
+                .putInt(type.ordinal())
+                .putLong(partition)
+                .putLong(partition)
+                .flip();
+        channel.writeAll(entry);
+        channel.force(false);
+        add(type.ordinal(), partition);
+    }
+
+    /**
+     * Closes and deletes the checkpoint file, to be called when the migrated stores have been moved into place.
+     */
+    void delete() throws IOException {
+        close();
+        fs.deleteFile(file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.close();
+        }
+    }
+
+    private void add(int type, long partition) {
+        if (completedPartitions[type].add(partition)) {
+            numberOfCompletedPartitions++;
+        }
+    }
+
+    /**
+     * @return position after the last complete entry, or {@code 0} if the file doesn't match the given header.
+     */
+    private long readCompletedPartitions(ByteBuffer expectedHeader) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            return 0;
+        }
+        ByteBuffer data = ByteBuffer.allocate(toIntExact(size));
+        channel.readAll(data);
+        data.flip();
+        if (!data.slice(0, HEADER_SIZE).equals(expectedHeader)) {
+            return 0;
+        }
+        data.position(HEADER_SIZE);
+        long end = HEADER_SIZE;
+        while (data.remaining() >= ENTRY_SIZE) {
+            int type = data.getInt();
+            long partition = data.getLong();
+            if (data.getLong() != partition || type < 0 || type >= completedPartitions.length) {
+                break;
+            }
+            add(type, partition);
+            end = data.position();
+        }
+        return end;
+    }
+}
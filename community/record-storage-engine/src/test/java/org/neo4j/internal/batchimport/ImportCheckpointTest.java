@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.batchimport.DataStatistics.RelationshipTypeCount;
+import org.neo4j.internal.batchimport.ImportCheckpoint.Stage;
+import org.neo4j.internal.batchimport.ImportCheckpoint.State;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.impl.store.StoreType;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@EphemeralTestDirectoryExtension
+class ImportCheckpointTest {
+    private static final long FINGERPRINT = 123;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private TestDirectory directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.file(ImportCheckpoint.CHECKPOINT_FILE_NAME);
+    }
+
+    @Test
+    void shouldReplayLastCompletedStageAfterReopen() throws IOException {
+        // given
+        try (var checkpoint = ImportCheckpoint.open(fs, file, true, FINGERPRINT)) {
+            assertThat(checkpoint.lastCompleted()).isNull();
+            checkpoint.completed(state(Stage.RELATIONSHIPS_IMPORTED, 10));
+            checkpoint.completed(state(Stage.RELATIONSHIPS_LINKED, 20));
+        }
+
+        // when
+        try (var checkpoint = ImportCheckpoint.open(fs, file, true, FINGERPRINT)) {
+            // then
+            State state = checkpoint.lastCompleted();
+            assertThat(state.stage()).isEqualTo(Stage.RELATIONSHIPS_LINKED);
+            assertThat(state.highIds()).isEqualTo(highIds(20));
+            assertThat(state.temporaryRelationshipGroupHighId()).isEqualTo(21);
+            assertThat(state.dataStatistics().getNodeCount()).isEqualTo(100);
+            assertThat(state.dataStatistics().getPropertyCount()).isEqualTo(200);
+            List<String> types = new ArrayList<>();
+            state.dataStatistics().forEach(type -> types.add(type.getTypeId() + "=" + type.getCount()));
+            assertThat(types).containsExactly("3=30", "1=10");
+        }
+    }
+
+    @Test
+    void shouldDiscardCompletedStagesWhenNotResuming() throws IOException {
+        // given
+        try (var checkpoint = ImportCheckpoint.open(fs, file, true, FINGERPRINT)) {
+            checkpoint.completed(state(Stage.RELATIONSHIPS_IMPORTED, 10));
+        }
+
+        // when
+        try (var checkpoint = ImportCheckpoint.open(fs, file, false, FINGERPRINT)) {
+            // then
+            assertThat(checkpoint.lastCompleted()).isNull();
+        }
+        try (var checkpoint = ImportCheckpoint.open(fs, file, true, FINGERPRINT)) {
+            assertThat(checkpoint.lastCompleted()).isNull();
+        }
+    }
+
+    @Test
+    void shouldIgnorePartlyWrittenStage() throws IOException {
+        // given
+        try (var checkpoint = ImportCheckpoint.open(fs, file, true, FINGERPRINT)) {
+            checkpoint.completed(state(Stage.RELATIONSHIPS_IMPORTED, 10));
+            checkpoint.completed(state(Stage.RELATIONSHIPS_LINKED, 20));
+        }
+        try (var channel = fs.write(file)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        // when
+        try (var checkpoint = ImportCheckpoint.open(fs, file, true, FINGERPRINT)) {
+            // then
+            assertThat(checkpoint.lastCompleted().stage()).isEqualTo(Stage.RELATIONSHIPS_IMPORTED);
+            assertThat(checkpoint.lastCompleted().highIds()).isEqualTo(highIds(10));
+
+            // and when appending after the partly written stage
+            checkpoint.completed(state(Stage.RELATIONSHIPS_LINKED, 30));
+        }
+        try (var checkpoint = ImportCheckpoint.open(fs, file, true, FINGERPRINT)) {
+            assertThat(checkpoint.lastCompleted().stage()).isEqualTo(Stage.RELATIONSHIPS_LINKED);
+            assertThat(checkpoint.lastCompleted().highIds()).isEqualTo(highIds(30));
+        }
+    }
+
+    @Test
+    void shouldRefuseToResumeWithDifferentInput() throws IOException {
+        // given
+        try (var checkpoint = ImportCheckpoint.open(fs, file, true, FINGERPRINT)) {
+            checkpoint.completed(state(Stage.RELATIONSHIPS_IMPORTED, 10));
+        }
+
+        // when/then
+        assertThatThrownBy(() -> ImportCheckpoint.open(fs, file, true, FINGERPRINT + 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("input has changed");
+        try (var checkpoint = ImportCheckpoint.open(fs, file, true, FINGERPRINT)) {
+            assertThat(checkpoint.lastCompleted().stage()).isEqualTo(Stage.RELATIONSHIPS_IMPORTED);
+        }
+        try (var checkpoint = ImportCheckpoint.open(fs, file, false, FINGERPRINT + 1)) {
+            assertThat(checkpoint.lastCompleted()).isNull();
+        }
+    }
+
+    @Test
+    void shouldDeleteCheckpointFile() throws IOException {
+        // given
+        var checkpoint = ImportCheckpoint.open(fs, file, true, FINGERPRINT);
+        checkpoint.completed(state(Stage.RELATIONSHIPS_IMPORTED, 10));
+
+        // when
+        checkpoint.delete();
+
+        // then
+        assertThat(fs.fileExists(file)).isFalse();
+    }
+
+    @Test
+    void shouldTellWhetherStageIsCompleted() {
+        assertThat(Stage.RELATIONSHIPS_IMPORTED.completedBy(null)).isFalse();
+        assertThat(Stage.RELATIONSHIPS_IMPORTED.completedBy(Stage.RELATIONSHIPS_IMPORTED))
+                .isTrue();
+        assertThat(Stage.RELATIONSHIPS_LINKED.completedBy(Stage.RELATIONSHIPS_IMPORTED))
+                .isFalse();
+        assertThat(Stage.RELATIONSHIPS_LINKED.completedBy(Stage.RELATIONSHIP_GROUPS_DEFRAGMENTED))
+                .isTrue();
+    }
+
+    private static State state(Stage stage, long highId) {
+        DataStatistics dataStatistics = new DataStatistics(100, 200, new RelationshipTypeCount[] {
+            new RelationshipTypeCount(3, 30), new RelationshipTypeCount(1, 10)
+        });
+        return new State(stage, dataStatistics, highIds(highId), highId + 1);
+    }
+
+    private static long[] highIds(long highId) {
+        long[] highIds = new long[StoreType.STORE_TYPES.length];
+        for (int i = 0; i < highIds.length; i++) {
+            highIds[i] = highId + i;
+        }
+        return highIds;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.internal.batchimport.ImportLogic.NO_SCHEMA_MONITORING;
+import static org.neo4j.internal.helpers.collection.Iterators.asList;
+import static org.neo4j.internal.recordstorage.SchemaRuleAccess.getSchemaRuleAccess;
+import static org.neo4j.io.pagecache.context.CursorContextFactory.NULL_CONTEXT_FACTORY;
+import static org.neo4j.io.pagecache.tracing.PageCacheTracer.NULL;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+import java.io.IOException;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.common.EntityType;
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.batchimport.cache.idmapping.IdMapper;
+import org.neo4j.internal.batchimport.input.Collector;
+import org.neo4j.internal.batchimport.store.BatchingNeoStores;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexType;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.transaction.log.LogTailLogVersionsMetadata;
+import org.neo4j.logging.internal.NullLogService;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class PropertyIndexPopulationTest {
+    @Inject
+    private PageCache pageCache;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private RecordDatabaseLayout layout;
+
+    private BatchingNeoStores stores;
+    private final IndexImporterFactory importerFactory = mock(IndexImporterFactory.class);
+    private final IndexImporter importer = mock(IndexImporter.class);
+    private final IndexImporter.Writer writer = mock(IndexImporter.Writer.class);
+
+    @BeforeEach
+    void start() throws IOException {
+        stores = BatchingNeoStores.batchingNeoStoresWithExternalPageCache(
+                fs,
+                pageCache,
+                NULL,
+                NULL_CONTEXT_FACTORY,
+                layout,
+                Configuration.DEFAULT,
+                NullLogService.getInstance(),
+                AdditionalInitialIds.EMPTY,
+                LogTailLogVersionsMetadata.EMPTY_LOG_TAIL,
+                Config.defaults(),
+                INSTANCE);
+        stores.createNew();
+        when(importerFactory.getImporter(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(importer);
+        when(importer.writer(anyBoolean())).thenReturn(writer);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        stores.close();
+    }
+
+    @Test
+    void shouldNotChangeSchemaMonitorsWithoutRangeIndexes() throws IOException {
+        try (var population = population(IndexConfig.create().withLabelIndex())) {
+            assertThat(population.isEmpty()).isTrue();
+            assertThat(population.schemaMonitors(NO_SCHEMA_MONITORING)).isSameAs(NO_SCHEMA_MONITORING);
+        }
+    }
+
+    @Test
+    void shouldCreateIndexRuleAndReuseExistingRule() throws IOException {
+        // given
+        var config = IndexConfig.create().withRangeIndex(EntityType.NODE, "Person", "name", "age");
+
+        // when
+        try (var population = population(config)) {
+            population.build();
+        }
+        try (var population = population(config)) {
+            population.build();
+        }
+
+        // then
+        try (var storeCursors = new CachedStoreCursors(stores.getNeoStores(), CursorContext.NULL_CONTEXT)) {
+            var indexes = asList(getSchemaRuleAccess(stores.getNeoStores().getSchemaStore(), stores.getTokenHolders())
+                    .indexesGetAll(storeCursors));
+            assertThat(indexes).hasSize(1);
+            IndexDescriptor index = indexes.get(0);
+            assertThat(index.getIndexType()).isEqualTo(IndexType.RANGE);
+            assertThat(index.schema().getPropertyIds()).hasSize(2);
+        }
+    }
+
+    @Test
+    void shouldIndexAcceptedEntitiesHavingTokenAndAllProperties() throws IOException {
+        // given
+        var config = IndexConfig.create().withRangeIndex(EntityType.NODE, "Person", "name");
+        try (var population = population(config)) {
+            // when
+            try (var nodeImporter = new NodeImporter(
+                    stores,
+                    mock(IdMapper.class),
+                    new DataImporter.Monitor(),
+                    Collector.EMPTY,
+                    NULL_CONTEXT_FACTORY,
+                    INSTANCE,
+                    population.schemaMonitors(NO_SCHEMA_MONITORING).get())) {
+                importNode(nodeImporter, 0, "name", "Alice", "Person");
+                importNode(nodeImporter, 1, "name", "Bob", "Animal");
+                importNode(nodeImporter, 2, "age", 42, "Person");
+                importNode(nodeImporter, 3, "name", "Carol", "Animal", "Person");
+            }
+            population.build();
+
+            // then
+            verify(writer).add(0, new Value[] {Values.stringValue("Alice")});
+            verify(writer).add(3, new Value[] {Values.stringValue("Carol")});
+            verify(writer, never()).add(anyLong(), aryEq(new Value[] {Values.stringValue("Bob")}));
+            verify(writer, never()).add(anyLong(), any(int[].class));
+            verify(importer).close();
+            verify(importer, never()).abort();
+        }
+    }
+
+    @Test
+    void shouldRemoveEntriesOfRemovedEntities() throws Exception {
+        // given
+        var config = IndexConfig.create().withRangeIndex(EntityType.NODE, "Person", "name");
+        try (var population = population(config)) {
+            int label = stores.getTokenHolders().labelTokens().getIdByName("Person");
+            int name = stores.getTokenHolders().propertyKeyTokens().getIdByName("name");
+            int other = stores.getTokenHolders().propertyKeyTokens().getOrCreateId("other");
+            assertThat(population.isIndexed(name)).isTrue();
+            assertThat(population.isIndexed(other)).isFalse();
+
+            // when
+            var properties = new IntObjectHashMap<Value>();
+            properties.put(name, Values.stringValue("Alice"));
+            population.remove(5, new int[] {label}, properties);
+            population.remove(6, new int[] {label + 1}, properties);
+
+            // then
+            verify(writer).remove(5, new Value[] {Values.stringValue("Alice")});
+            verify(writer, never()).remove(6, new Value[] {Values.stringValue("Alice")});
+        }
+    }
+
+    @Test
+    void shouldAbortIndexesWhichAreNotBuilt() throws IOException {
+        // given
+        var config = IndexConfig.create().withRangeIndex(EntityType.RELATIONSHIP, "KNOWS", "since");
+
+        // when
+        try (var population = new PropertyIndexPopulation(
+                EntityType.RELATIONSHIP,
+                configuration(config),
+                stores,
+                importerFactory,
+                NULL_CONTEXT_FACTORY,
+                NULL,
+                INSTANCE,
+                cursorContext -> new CachedStoreCursors(stores.getNeoStores(), cursorContext))) {
+            assertThat(population.isEmpty()).isFalse();
+        }
+
+        // then
+        verify(importer).abort();
+        verify(importer, never()).close();
+    }
+
+    private PropertyIndexPopulation population(IndexConfig indexConfig) {
+        return new PropertyIndexPopulation(
+                EntityType.NODE,
+                configuration(indexConfig),
+                stores,
+                importerFactory,
+                NULL_CONTEXT_FACTORY,
+                NULL,
+                INSTANCE,
+                cursorContext -> new CachedStoreCursors(stores.getNeoStores(), cursorContext));
+    }
+
+    private static Configuration configuration(IndexConfig indexConfig) {
+        return new Configuration.Overridden(Configuration.DEFAULT) {
+            @Override
+            public IndexConfig indexConfig() {
+                return indexConfig;
+            }
+        };
+    }
+
+    private static void importNode(NodeImporter importer, long id, String key, Object value, String... labels) {
+        importer.id(id);
+        importer.labels(labels);
+        importer.property(key, value);
+        importer.endOfEntity();
+    }
+}
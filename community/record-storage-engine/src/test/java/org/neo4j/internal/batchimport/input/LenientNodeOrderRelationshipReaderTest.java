@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.GROUP_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.RELATIONSHIP_CURSOR;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.io.pagecache.context.CursorContextFactory.NULL_CONTEXT_FACTORY;
+import static org.neo4j.io.pagecache.context.FixedVersionContextSupplier.EMPTY_CONTEXT_SUPPLIER;
+import static org.neo4j.kernel.impl.store.format.RecordFormatSelector.defaultFormat;
+import static org.neo4j.kernel.impl.store.record.Record.NO_LABELS_FIELD;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.batchimport.ReadBehaviour;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.log.LogTailLogVersionsMetadata;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.token.TokenHolders;
+import org.neo4j.token.api.NamedToken;
+import org.neo4j.token.api.TokenHolder;
+
+@EphemeralPageCacheExtension
+@EphemeralNeo4jLayoutExtension
+class LenientNodeOrderRelationshipReaderTest {
+    private static final long NULL = NO_NEXT_RELATIONSHIP.longValue();
+
+    @Inject
+    private PageCache pageCache;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private RecordDatabaseLayout databaseLayout;
+
+    private final ReadBehaviour readBehaviour = mock(ReadBehaviour.class);
+    private final TokenHolders tokenHolders = mock(TokenHolders.class);
+    private final Group group = new Group(0, "group", null);
+    private NeoStores neoStores;
+    private CachedStoreCursors storeCursors;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        var pageCacheTracer = PageCacheTracer.NULL;
+        neoStores = new StoreFactory(
+                        databaseLayout,
+                        Config.defaults(),
+                        new DefaultIdGeneratorFactory(
+                                fs, immediate(), pageCacheTracer, databaseLayout.getDatabaseName()),
+                        pageCache,
+                        pageCacheTracer,
+                        fs,
+                        defaultFormat(),
+                        NullLogProvider.getInstance(),
+                        new CursorContextFactory(pageCacheTracer, EMPTY_CONTEXT_SUPPLIER),
+                        false,
+                        LogTailLogVersionsMetadata.EMPTY_LOG_TAIL,
+                        Sets.immutable.empty())
+                .openAllNeoStores();
+        storeCursors = new CachedStoreCursors(neoStores, NULL_CONTEXT);
+
+        TokenHolder typeTokens = mock(TokenHolder.class);
+        when(tokenHolders.relationshipTypeTokens()).thenReturn(typeTokens);
+        when(typeTokens.getTokenById(anyInt())).thenAnswer(invocation -> {
+            int id = invocation.getArgument(0);
+            return new NamedToken("TYPE" + id, id);
+        });
+        when(readBehaviour.shouldIncludeRelationship(any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storeCursors.close();
+        neoStores.close();
+    }
+
+    @Test
+    void shouldVisitRelationshipsFromChainOfStartNode() throws Exception {
+        // given node 0 -> rel 5 (0->1), rel 2 (1->0), rel 7 (0->0) and node 1 -> rel 5, rel 2
+        createNode(0, false, 5);
+        createNode(1, false, 5);
+        createRelationship(5, 0, 1, NULL, 2, NULL, 2);
+        createRelationship(2, 1, 0, 5, NULL, 5, 7);
+        createRelationship(7, 0, 0, 2, NULL, 2, NULL);
+
+        // when
+        List<long[]> node0 = read(0);
+        List<long[]> node1 = read(1);
+
+        // then
+        assertThat(node0).containsExactly(new long[] {0, 1}, new long[] {0, 0});
+        assertThat(node1).containsExactly(new long[] {1, 0});
+    }
+
+    @Test
+    void shouldVisitOutgoingAndLoopChainsOfDenseNode() throws Exception {
+        // given dense node 0 with groups 1 -> 2, where incoming relationships are visited from their start nodes
+        createNode(0, true, 1);
+        createNode(1, false, 4);
+        createGroup(1, 0, 0, 3, 4, NULL, 2);
+        createGroup(2, 1, 0, NULL, NULL, 6, NULL);
+        createRelationship(3, 0, 1, NULL, NULL, NULL, 4);
+        createRelationship(4, 1, 0, 3, NULL, NULL, NULL);
+        createRelationship(6, 0, 0, NULL, NULL, NULL, NULL);
+
+        // when
+        List<long[]> node0 = read(0);
+        List<long[]> node1 = read(1);
+
+        // then
+        assertThat(node0).containsExactly(new long[] {0, 1}, new long[] {0, 0});
+        assertThat(node1).containsExactly(new long[] {1, 0});
+    }
+
+    @Test
+    void shouldReportCircularRelationshipChain() throws Exception {
+        // given
+        createNode(0, false, 3);
+        createRelationship(3, 0, 1, NULL, 3, NULL, NULL);
+
+        // when
+        List<long[]> relationships = read(0);
+
+        // then
+        assertThat(relationships).hasSize(1);
+        verify(readBehaviour)
+                .error(argThat(format -> format.contains("circular relationship chain")), any(Object[].class));
+    }
+
+    @Test
+    void shouldReportRelationshipNotInChainOfNode() throws Exception {
+        // given
+        createNode(0, false, 3);
+        createRelationship(3, 1, 2, NULL, NULL, NULL, NULL);
+
+        // when
+        List<long[]> relationships = read(0);
+
+        // then
+        assertThat(relationships).isEmpty();
+        verify(readBehaviour)
+                .error(argThat(format -> format.contains("broken relationship chain")), any(Object[].class));
+    }
+
+    private List<long[]> read(long nodeId) throws Exception {
+        List<long[]> relationships = new ArrayList<>();
+        try (var reader = new LenientNodeOrderRelationshipReader(
+                readBehaviour,
+                neoStores.getNodeStore(),
+                neoStores.getRelationshipStore(),
+                neoStores.getRelationshipGroupStore(),
+                neoStores.getPropertyStore(),
+                tokenHolders,
+                NULL_CONTEXT_FACTORY,
+                new CachedStoreCursors(neoStores, NULL_CONTEXT),
+                group)) {
+            reader.setChunkRange(nodeId, nodeId + 1);
+            var visitor = new InputEntityVisitor.Adapter() {
+                private long startId;
+                private long endId;
+
+                @Override
+                public boolean startId(Object id, Group group) {
+                    startId = (long) id;
+                    return true;
+                }
+
+                @Override
+                public boolean endId(Object id, Group group) {
+                    endId = (long) id;
+                    return true;
+                }
+
+                @Override
+                public void endOfEntity() {
+                    relationships.add(new long[] {startId, endId});
+                }
+            };
+            while (reader.next(visitor)) {
+                // just visit
+            }
+        }
+        return relationships;
+    }
+
+    private void createNode(long id, boolean dense, long nextRel) {
+        var nodeStore = neoStores.getNodeStore();
+        try (var cursor = storeCursors.writeCursor(NODE_CURSOR)) {
+            nodeStore.updateRecord(
+                    new NodeRecord(id)
+                            .initialize(
+                                    true, NO_NEXT_PROPERTY.longValue(), dense, nextRel, NO_LABELS_FIELD.longValue()),
+                    cursor,
+                    NULL_CONTEXT,
+                    storeCursors);
+        }
+    }
+
+    private void createGroup(
+            long id, int type, long owningNode, long firstOut, long firstIn, long firstLoop, long next) {
+        var groupStore = neoStores.getRelationshipGroupStore();
+        try (var cursor = storeCursors.writeCursor(GROUP_CURSOR)) {
+            groupStore.updateRecord(
+                    new RelationshipGroupRecord(id)
+                            .initialize(true, type, firstOut, firstIn, firstLoop, owningNode, next),
+                    cursor,
+                    NULL_CONTEXT,
+                    storeCursors);
+        }
+    }
+
+    private void createRelationship(
+            long id,
+            long firstNode,
+            long secondNode,
+            long firstPrevRel,
+            long firstNextRel,
+            long secondPrevRel,
+            long secondNextRel) {
+        var relationshipStore = neoStores.getRelationshipStore();
+        RelationshipRecord record = new RelationshipRecord(id);
+        record.initialize(
+                true,
+                NO_NEXT_PROPERTY.longValue(),
+                firstNode,
+                secondNode,
+                0,
+                firstPrevRel,
+                firstNextRel,
+                secondPrevRel,
+                secondNextRel,
+                firstPrevRel == NULL,
+                secondPrevRel == NULL);
+        try (var cursor = storeCursors.writeCursor(RELATIONSHIP_CURSOR)) {
+            relationshipStore.updateRecord(record, cursor, NULL_CONTEXT, storeCursors);
+        }
+    }
+}
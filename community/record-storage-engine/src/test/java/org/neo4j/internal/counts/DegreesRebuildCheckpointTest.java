@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
+import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
+import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@EphemeralTestDirectoryExtension
+class DegreesRebuildCheckpointTest {
+    private static final long RANGE_SIZE = 1_000;
+    private static final long LAST_TX_ID = 42;
+    private static final long HIGH_NODE_ID = 10_000;
+    private static final long HIGH_GROUP_ID = 500;
+    private static final long HIGH_RELATIONSHIP_ID = 3_500;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private TestDirectory directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = DegreesRebuildCheckpoint.checkpointFileFor(directory.file("neostore.relationshipgroupstore.degrees.db"));
+    }
+
+    @Test
+    void shouldReadLatestSnapshotAfterReopen() throws IOException {
+        // given
+        try (var checkpoint = open(LAST_TX_ID)) {
+            checkpoint.completed(1, updater -> updater.increment(1, OUTGOING, 10));
+            checkpoint.completed(2, updater -> {
+                updater.increment(1, OUTGOING, 15);
+                updater.increment(1, LOOP, 3);
+                updater.increment(7, INCOMING, 20);
+            });
+        }
+
+        // when
+        try (var checkpoint = open(LAST_TX_ID)) {
+            // then
+            assertThat(checkpoint.numberOfCompletedRanges()).isEqualTo(2);
+            assertThat(checkpoint.degree(1, OUTGOING)).isEqualTo(15);
+            assertThat(checkpoint.degree(1, INCOMING)).isZero();
+            assertThat(checkpoint.degree(1, LOOP)).isEqualTo(3);
+            assertThat(checkpoint.degree(7, INCOMING)).isEqualTo(20);
+            assertThat(checkpoint.degree(8, OUTGOING)).isZero();
+        }
+    }
+
+    @Test
+    void shouldKeepSnapshotsLargerThanBuffer() throws IOException {
+        // given
+        int numberOfGroups = 100_000;
+        try (var checkpoint = open(LAST_TX_ID)) {
+            checkpoint.completed(3, updater -> {
+                for (long groupId = 0; groupId < numberOfGroups; groupId++) {
+                    updater.increment(groupId, OUTGOING, groupId + 1);
+                }
+            });
+        }
+
+        // when
+        try (var checkpoint = open(LAST_TX_ID)) {
+            // then
+            assertThat(checkpoint.numberOfCompletedRanges()).isEqualTo(3);
+            for (long groupId = 0; groupId < numberOfGroups; groupId++) {
+                assertThat(checkpoint.degree(groupId, OUTGOING)).isEqualTo(groupId + 1);
+            }
+        }
+    }
+
+    @Test
+    void shouldDiscardCheckpointOfOtherStoreState() throws IOException {
+        // given
+        try (var checkpoint = open(LAST_TX_ID)) {
+            checkpoint.completed(1, updater -> updater.increment(1, OUTGOING, 10));
+        }
+
+        // when
+        try (var checkpoint = open(LAST_TX_ID + 1)) {
+            // then
+            assertThat(checkpoint.numberOfCompletedRanges()).isZero();
+            assertThat(checkpoint.degree(1, OUTGOING)).isZero();
+        }
+    }
+
+    @Test
+    void shouldDiscardPartlyWrittenSnapshot() throws IOException {
+        // given
+        try (var checkpoint = open(LAST_TX_ID)) {
+            checkpoint.completed(1, updater -> updater.increment(1, OUTGOING, 10));
+        }
+        try (var channel = fs.write(file)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        // when
+        try (var checkpoint = open(LAST_TX_ID)) {
+            // then
+            assertThat(checkpoint.numberOfCompletedRanges()).isZero();
+            assertThat(checkpoint.degree(1, OUTGOING)).isZero();
+        }
+    }
+
+    @Test
+    void shouldDeleteFile() throws IOException {
+        // given
+        var checkpoint = open(LAST_TX_ID);
+        checkpoint.completed(1, updater -> updater.increment(1, OUTGOING, 10));
+
+        // when
+        checkpoint.delete();
+
+        // then
+        assertThat(fs.fileExists(file)).isFalse();
+    }
+
+    private DegreesRebuildCheckpoint open(long lastCommittedTxId) throws IOException {
+        return DegreesRebuildCheckpoint.open(
+                fs, file, RANGE_SIZE, lastCommittedTxId, HIGH_NODE_ID, HIGH_GROUP_ID, HIGH_RELATIONSHIP_ID);
+    }
+}
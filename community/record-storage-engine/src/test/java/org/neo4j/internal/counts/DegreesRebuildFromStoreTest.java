@@ -32,6 +32,7 @@ import static org.neo4j.internal.recordstorage.RecordStorageEngineTestUtils.open
 import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
 import static org.neo4j.io.pagecache.context.CursorContextFactory.NULL_CONTEXT_FACTORY;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
@@ -164,6 +165,93 @@ class DegreesRebuildFromStoreTest {
         rebuildAndVerify(layout, config, expectedDegrees);
     }
 
+    @Test
+    void shouldRebuildDegreesStoreInCheckpointedRanges() throws Exception {
+        // given
+        int denseThreshold = dense_node_threshold.defaultValue();
+        RecordDatabaseLayout layout = RecordDatabaseLayout.ofFlat(directory.homePath());
+        MutableLongLongMap expectedDegrees = LongLongMaps.mutable.empty();
+        Config config = config(denseThreshold);
+        createDataAndCollectDegrees(
+                layout,
+                config,
+                (groupId, direction, degree) ->
+                        expectedDegrees.put(combinedKeyOnGroupAndDirection(groupId, direction), degree));
+        directory.getFileSystem().deleteFile(layout.relationshipGroupDegreesStore());
+        Path checkpointFile = DegreesRebuildCheckpoint.checkpointFileFor(layout.relationshipGroupDegreesStore());
+
+        // when
+        MutableLongLongMap builtDegrees = LongLongMaps.mutable.empty();
+        try (NeoStores neoStores = openNeoStores(layout, config)) {
+            rebuild(neoStores, layout, checkpointFile, 100, builtDegrees);
+        }
+
+        // then
+        assertThat(builtDegrees).isEqualTo(expectedDegrees);
+        assertThat(directory.getFileSystem().fileExists(checkpointFile)).isFalse();
+    }
+
+    @Test
+    void shouldContinueRebuildAfterCheckpointedRanges() throws Exception {
+        // given
+        int denseThreshold = dense_node_threshold.defaultValue();
+        RecordDatabaseLayout layout = RecordDatabaseLayout.ofFlat(directory.homePath());
+        List<Object[]> degrees = new ArrayList<>();
+        Config config = config(denseThreshold);
+        createDataAndCollectDegrees(
+                layout, config, (groupId, direction, degree) -> degrees.add(new Object[] {groupId, direction, degree}));
+        directory.getFileSystem().deleteFile(layout.relationshipGroupDegreesStore());
+        Path checkpointFile = DegreesRebuildCheckpoint.checkpointFileFor(layout.relationshipGroupDegreesStore());
+        long rangeSize = 100;
+
+        MutableLongLongMap builtDegrees = LongLongMaps.mutable.empty();
+        try (NeoStores neoStores = openNeoStores(layout, config)) {
+            // a checkpoint claiming that all ranges have been gone through, with degrees that differ from the store
+            long highRelationshipId =
+                    neoStores.getRelationshipStore().getIdGenerator().getHighId();
+            try (var checkpoint = DegreesRebuildCheckpoint.open(
+                    directory.getFileSystem(),
+                    checkpointFile,
+                    rangeSize,
+                    neoStores.getMetaDataStore().getLastCommittedTransactionId(),
+                    neoStores.getNodeStore().getIdGenerator().getHighId(),
+                    neoStores.getRelationshipGroupStore().getIdGenerator().getHighId(),
+                    highRelationshipId)) {
+                int numberOfRanges = (int) ((highRelationshipId + rangeSize - 1) / rangeSize);
+                checkpoint.completed(numberOfRanges, updater -> {
+                    for (Object[] degree : degrees) {
+                        updater.increment((long) degree[0], (RelationshipDirection) degree[1], (long) degree[2] + 1000);
+                    }
+                });
+            }
+
+            // when
+            rebuild(neoStores, layout, checkpointFile, rangeSize, builtDegrees);
+        }
+
+        // then the degrees come from the checkpoint and no range was gone through again
+        assertThat(builtDegrees.size()).isEqualTo(degrees.size());
+        for (Object[] degree : degrees) {
+            assertThat(builtDegrees.get(
+                            combinedKeyOnGroupAndDirection((long) degree[0], (RelationshipDirection) degree[1])))
+                    .isEqualTo((long) degree[2] + 1000);
+        }
+        assertThat(directory.getFileSystem().fileExists(checkpointFile)).isFalse();
+    }
+
+    private void createDataAndCollectDegrees(RecordDatabaseLayout layout, Config config, GroupDegreeVisitor visitor)
+            throws Exception {
+        int denseThreshold = dense_node_threshold.defaultValue();
+        try (Lifespan life = new Lifespan()) {
+            RecordStorageEngine storageEngine = openStorageEngine(layout, config);
+            int[] relationshipTypes = createRelationshipTypes(storageEngine);
+            life.add(storageEngine);
+            generateData(storageEngine, denseThreshold, relationshipTypes);
+            storageEngine.relationshipGroupDegreesStore().accept(visitor, NULL_CONTEXT);
+            storageEngine.checkpoint(DatabaseFlushEvent.NULL, NULL_CONTEXT);
+        }
+    }
+
     private void rebuildAndVerify(RecordDatabaseLayout layout, Config config, MutableLongLongMap expectedDegrees) {
         rebuildAndVerifyDirectlyUsingRebuilderDirectly(layout, config, expectedDegrees);
         rebuildAndVerifyByStartingStorageEngine(layout, config, expectedDegrees);
@@ -172,8 +260,15 @@ class DegreesRebuildFromStoreTest {
     private void rebuildAndVerifyDirectlyUsingRebuilderDirectly(
             DatabaseLayout layout, Config config, MutableLongLongMap expectedDegrees) {
         MutableLongLongMap builtExpectedDegrees = LongLongMaps.mutable.empty();
+        try (NeoStores neoStores = openNeoStores(layout, config)) {
+            rebuild(neoStores, layout, null, 0, builtExpectedDegrees);
+        }
+        assertThat(builtExpectedDegrees).isEqualTo(expectedDegrees);
+    }
+
+    private NeoStores openNeoStores(DatabaseLayout layout, Config config) {
         var pageCacheTracer = PageCacheTracer.NULL;
-        try (NeoStores neoStores = new StoreFactory(
+        return new StoreFactory(
                         layout,
                         config,
                         new DefaultIdGeneratorFactory(
@@ -185,28 +280,37 @@ class DegreesRebuildFromStoreTest {
                         NULL_CONTEXT_FACTORY,
                         false,
                         LogTailLogVersionsMetadata.EMPTY_LOG_TAIL)
-                .openAllNeoStores()) {
-            DegreesRebuildFromStore rebuild = new DegreesRebuildFromStore(
-                    pageCache,
-                    neoStores,
-                    layout,
-                    NULL_CONTEXT_FACTORY,
-                    NullLogProvider.getInstance(),
-                    Configuration.withBatchSize(Configuration.DEFAULT, 100));
-            rebuild.rebuild(
-                    new DegreeUpdater() {
-                        @Override
-                        public void increment(long groupId, RelationshipDirection direction, long degree) {
-                            builtExpectedDegrees.put(combinedKeyOnGroupAndDirection(groupId, direction), degree);
-                        }
+                .openAllNeoStores();
+    }
 
-                        @Override
-                        public void close() {}
-                    },
-                    NULL_CONTEXT,
-                    EmptyMemoryTracker.INSTANCE);
-        }
-        assertThat(builtExpectedDegrees).isEqualTo(expectedDegrees);
+    private void rebuild(
+            NeoStores neoStores,
+            DatabaseLayout layout,
+            Path checkpointFile,
+            long checkpointInterval,
+            MutableLongLongMap builtDegrees) {
+        DegreesRebuildFromStore rebuild = new DegreesRebuildFromStore(
+                pageCache,
+                neoStores,
+                layout,
+                NULL_CONTEXT_FACTORY,
+                NullLogProvider.getInstance(),
+                Configuration.withBatchSize(Configuration.DEFAULT, 100),
+                directory.getFileSystem(),
+                checkpointFile,
+                checkpointInterval);
+        rebuild.rebuild(
+                new DegreeUpdater() {
+                    @Override
+                    public void increment(long groupId, RelationshipDirection direction, long degree) {
+                        builtDegrees.put(combinedKeyOnGroupAndDirection(groupId, direction), degree);
+                    }
+
+                    @Override
+                    public void close() {}
+                },
+                NULL_CONTEXT,
+                EmptyMemoryTracker.INSTANCE);
     }
 
     private void rebuildAndVerifyByStartingStorageEngine(
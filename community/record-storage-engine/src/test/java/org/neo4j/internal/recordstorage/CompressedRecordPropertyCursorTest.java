@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.compress_dynamic_property_values;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.impl.store.DynamicAllocatorProvider;
+import org.neo4j.kernel.impl.store.DynamicAllocatorProviders;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StoreType;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.aligned.PageAlignedV5_17;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+class CompressedRecordPropertyCursorTest extends RecordPropertyCursorTest {
+    @Override
+    protected Config config() {
+        return Config.defaults(compress_dynamic_property_values, true);
+    }
+
+    @Override
+    protected RecordFormats getRecordFormats() {
+        return PageAlignedV5_17.RECORD_FORMATS;
+    }
+
+    @Test
+    void shouldStoreCompressibleValuesInFewerRecords() {
+        // given
+        String json = "{\"name\":\"value\",\"tags\":[\"a\",\"b\",\"c\"]},".repeat(50);
+        long[] longs = new long[500];
+        Arrays.fill(longs, Long.MAX_VALUE);
+        String[] strings = new String[50];
+        Arrays.fill(strings, json.substring(0, 200));
+        Value[] values = {Values.stringValue(json), Values.longArray(longs), Values.stringArray(strings)};
+
+        // when
+        long firstPropertyId = storeValuesAsPropertyChain(owner, values);
+
+        // then
+        assertPropertyChain(values, firstPropertyId, createCursor());
+        var allocatorProvider = DynamicAllocatorProviders.nonTransactionalAllocator(neoStores);
+        PropertyStore propertyStore = neoStores.getPropertyStore();
+        try (var storeCursors = new CachedStoreCursors(neoStores, NULL_CONTEXT)) {
+            for (Value value : values) {
+                PropertyBlock compressed = encode(propertyStore, value, true, allocatorProvider);
+                PropertyBlock uncompressed = encode(propertyStore, value, false, allocatorProvider);
+                assertThat(compressed.getValueRecords().size())
+                        .isLessThan(uncompressed.getValueRecords().size());
+                assertThat(propertyStore.getValue(compressed, storeCursors)).isEqualTo(value);
+            }
+        }
+    }
+
+    private static PropertyBlock encode(
+            PropertyStore propertyStore, Value value, boolean compress, DynamicAllocatorProvider allocatorProvider) {
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.encodeValue(
+                block,
+                0,
+                value,
+                allocatorProvider.allocator(StoreType.PROPERTY_STRING),
+                allocatorProvider.allocator(StoreType.PROPERTY_ARRAY),
+                compress,
+                NULL_CONTEXT,
+                INSTANCE);
+        return block;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.id.IdGenerator;
+import org.neo4j.internal.recordstorage.Command.NodeCommand;
+import org.neo4j.kernel.impl.store.NodeLabelsField;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.logging.NullLog;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.test.LatestVersions;
+
+class LabelBitmapCacheTest {
+    private static final LogCommandSerialization LATEST_LOG_SERIALIZATION =
+            RecordStorageCommandReaderFactory.INSTANCE.get(LatestVersions.LATEST_KERNEL_VERSION);
+
+    @Test
+    void shouldNotCoverAnythingBeforePopulated() {
+        // given
+        LabelBitmapCache cache = new LabelBitmapCache(Long.MAX_VALUE, NullLog.getInstance());
+        cache.setLabels(1, new int[] {1});
+
+        // then
+        assertThat(cache.covers(1)).isFalse();
+        assertThat(cache.misses()).isEqualTo(1);
+        assertThat(cache.hits()).isZero();
+    }
+
+    @Test
+    void shouldKeepLabelsSetWhilePopulating() {
+        // given labels set by transactions applied before population has completed
+        LabelBitmapCache cache = new LabelBitmapCache(Long.MAX_VALUE, NullLog.getInstance());
+        cache.setLabels(1, new int[] {1});
+        cache.setLabels(2, new int[] {1, 2});
+        cache.setLabels(2, new int[] {2});
+
+        // when
+        cache.populate(emptyNodeStore(), StoreCursors.NULL, () -> false);
+
+        // then
+        assertThat(cache.isReady()).isTrue();
+        assertThat(cache.covers(1)).isTrue();
+        assertThat(cache.hasLabel(1, 1)).isTrue();
+        assertThat(cache.hasLabel(2, 1)).isFalse();
+        assertThat(cache.hasLabel(2, 2)).isTrue();
+    }
+
+    @Test
+    void shouldNotCoverAnythingIfPopulationIsStopped() {
+        // given
+        LabelBitmapCache cache = new LabelBitmapCache(Long.MAX_VALUE, NullLog.getInstance());
+        NodeStore nodeStore = emptyNodeStore();
+        when(nodeStore.getIdGenerator().getHighId()).thenReturn(10_000L);
+
+        // when
+        cache.populate(nodeStore, StoreCursors.NULL, () -> true);
+
+        // then
+        assertThat(cache.isReady()).isFalse();
+        assertThat(cache.covers(1)).isFalse();
+    }
+
+    @Test
+    void shouldReplaceLabelsOfNode() {
+        // given
+        LabelBitmapCache cache = populatedCache(Long.MAX_VALUE);
+        cache.setLabels(10, new int[] {1, 2});
+        cache.setLabels(11, new int[] {2});
+
+        // when
+        cache.setLabels(10, new int[] {3});
+        cache.setLabels(11, new int[0]);
+
+        // then
+        assertThat(cache.covers(1)).isTrue();
+        assertThat(cache.hasLabel(10, 1)).isFalse();
+        assertThat(cache.hasLabel(10, 2)).isFalse();
+        assertThat(cache.hasLabel(10, 3)).isTrue();
+        assertThat(cache.hasLabel(11, 2)).isFalse();
+        // labels no node has ever had are covered too, since the cache knows about all nodes
+        assertThat(cache.covers(100)).isTrue();
+        assertThat(cache.hasLabel(10, 100)).isFalse();
+    }
+
+    @Test
+    void shouldEvictLargestBitmapWhenOverMemoryLimit() {
+        // given
+        LabelBitmapCache cache = populatedCache(Long.MAX_VALUE);
+        for (long nodeId = 0; nodeId < 1_000; nodeId++) {
+            cache.setLabels(nodeId, nodeId % 10 == 0 ? new int[] {0, 1} : new int[] {0});
+        }
+        long memoryForBoth = cache.usedMemory();
+        LabelBitmapCache limitedCache = populatedCache(memoryForBoth - 1);
+
+        // when
+        for (long nodeId = 0; nodeId < 1_000; nodeId++) {
+            limitedCache.setLabels(nodeId, nodeId % 10 == 0 ? new int[] {0, 1} : new int[] {0});
+        }
+
+        // then
+        assertThat(limitedCache.covers(0)).isFalse();
+        assertThat(limitedCache.covers(1)).isTrue();
+        assertThat(limitedCache.hasLabel(10, 1)).isTrue();
+        assertThat(limitedCache.usedMemory()).isLessThan(memoryForBoth);
+    }
+
+    @Test
+    void shouldUpdateFromNodeCommands() throws Exception {
+        // given
+        LabelBitmapCache cache = populatedCache(Long.MAX_VALUE);
+        NodeRecord unused = new NodeRecord(5);
+        NodeRecord labeled = nodeWithLabels(5, 1, 2);
+        NodeRecord relabeled = nodeWithLabels(5, 2);
+
+        // when/then
+        apply(cache, new NodeCommand(LATEST_LOG_SERIALIZATION, unused, labeled));
+        assertThat(cache.hasLabel(5, 1)).isTrue();
+        assertThat(cache.hasLabel(5, 2)).isTrue();
+
+        apply(cache, new NodeCommand(LATEST_LOG_SERIALIZATION, labeled, relabeled));
+        assertThat(cache.hasLabel(5, 1)).isFalse();
+        assertThat(cache.hasLabel(5, 2)).isTrue();
+
+        apply(cache, new NodeCommand(LATEST_LOG_SERIALIZATION, relabeled, new NodeRecord(5)));
+        assertThat(cache.hasLabel(5, 2)).isFalse();
+    }
+
+    private static void apply(LabelBitmapCache cache, NodeCommand command) throws Exception {
+        try (var applier = new LabelBitmapCacheTransactionApplier(cache, mock(NodeStore.class), StoreCursors.NULL)) {
+            command.handle(applier);
+        }
+    }
+
+    private static NodeRecord nodeWithLabels(long nodeId, int... labels) {
+        NodeRecord node = new NodeRecord(nodeId)
+                .initialize(true, NO_NEXT_PROPERTY.intValue(), false, NO_NEXT_RELATIONSHIP.intValue(), 0);
+        for (int label : labels) {
+            NodeLabelsField.parseLabelsField(node).add(label, null, null, NULL_CONTEXT, StoreCursors.NULL, INSTANCE);
+        }
+        return node;
+    }
+
+    private static LabelBitmapCache populatedCache(long maxMemory) {
+        LabelBitmapCache cache = new LabelBitmapCache(maxMemory, NullLog.getInstance());
+        cache.populate(emptyNodeStore(), StoreCursors.NULL, () -> false);
+        return cache;
+    }
+
+    private static NodeStore emptyNodeStore() {
+        NodeStore nodeStore = mock(NodeStore.class);
+        when(nodeStore.getIdGenerator()).thenReturn(mock(IdGenerator.class));
+        return nodeStore;
+    }
+}
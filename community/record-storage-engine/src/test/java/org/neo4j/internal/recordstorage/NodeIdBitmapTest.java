@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+
+@ExtendWith(RandomExtension.class)
+class NodeIdBitmapTest {
+    @Inject
+    private RandomSupport random;
+
+    @Test
+    void shouldAddAndRemoveIdsLikeASet() {
+        // given
+        NodeIdBitmap bitmap = new NodeIdBitmap();
+        MutableLongSet expected = LongSets.mutable.empty();
+        // a narrow range makes chunks go back and forth between arrays and bitsets
+        long range = random.among(new long[] {100, 20_000, 300_000});
+
+        // when
+        for (int i = 0; i < 100_000; i++) {
+            long id = random.nextLong(range);
+            if (random.nextInt(3) == 0) {
+                assertThat(bitmap.remove(id)).isEqualTo(expected.remove(id));
+            } else {
+                assertThat(bitmap.add(id)).isEqualTo(expected.add(id));
+            }
+        }
+
+        // then
+        assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        for (long id = 0; id < range; id++) {
+            assertThat(bitmap.contains(id)).as("id " + id).isEqualTo(expected.contains(id));
+        }
+    }
+
+    @Test
+    void shouldUseLessMemoryForDenseChunkAsBitset() {
+        // given
+        NodeIdBitmap bitmap = new NodeIdBitmap();
+        for (long id = 0; id < 4096; id++) {
+            bitmap.add(id);
+        }
+        long memoryAsArray = bitmap.memoryUsage();
+
+        // when
+        for (long id = 4096; id < 65536; id++) {
+            bitmap.add(id);
+        }
+
+        // then
+        assertThat(bitmap.cardinality()).isEqualTo(65536);
+        assertThat(bitmap.memoryUsage()).isLessThanOrEqualTo(memoryAsArray + 1024);
+        assertThat(bitmap.contains(65536)).isFalse();
+        assertThat(bitmap.contains(Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void shouldReleaseMemoryWhenEmptied() {
+        // given
+        NodeIdBitmap bitmap = new NodeIdBitmap();
+        long emptyMemory = bitmap.memoryUsage();
+        for (long id = 0; id < 10_000; id++) {
+            bitmap.add(id * 7);
+        }
+        assertThat(bitmap.memoryUsage()).isGreaterThan(emptyMemory);
+
+        // when
+        for (long id = 0; id < 10_000; id++) {
+            assertThat(bitmap.remove(id * 7)).isTrue();
+        }
+
+        // then
+        assertThat(bitmap.cardinality()).isZero();
+        assertThat(bitmap.contains(0)).isFalse();
+        // only the chunk table remains
+        assertThat(bitmap.memoryUsage() - emptyMemory).isLessThan(100);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.GROUP_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.PROPERTY_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.RELATIONSHIP_CURSOR;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.io.pagecache.context.FixedVersionContextSupplier.EMPTY_CONTEXT_SUPPLIER;
+import static org.neo4j.kernel.impl.store.format.RecordFormatSelector.defaultFormat;
+import static org.neo4j.kernel.impl.store.record.Record.NO_LABELS_FIELD;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+import static org.neo4j.kernel.impl.store.record.Record.NO_PREVIOUS_PROPERTY;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.log.LogTailLogVersionsMetadata;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.values.storable.Values;
+
+@EphemeralPageCacheExtension
+@EphemeralNeo4jLayoutExtension
+class NodeLocalitySamplerTest {
+    private static final long NULL = NO_NEXT_RELATIONSHIP.longValue();
+
+    @Inject
+    private PageCache pageCache;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private RecordDatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+    private CachedStoreCursors storeCursors;
+    private long farAwayRelationshipId;
+
+    @BeforeEach
+    void setUp() {
+        var pageCacheTracer = PageCacheTracer.NULL;
+        neoStores = new StoreFactory(
+                        databaseLayout,
+                        Config.defaults(),
+                        new DefaultIdGeneratorFactory(
+                                fs, immediate(), pageCacheTracer, databaseLayout.getDatabaseName()),
+                        pageCache,
+                        pageCacheTracer,
+                        fs,
+                        defaultFormat(),
+                        NullLogProvider.getInstance(),
+                        new CursorContextFactory(pageCacheTracer, EMPTY_CONTEXT_SUPPLIER),
+                        false,
+                        LogTailLogVersionsMetadata.EMPTY_LOG_TAIL,
+                        Sets.immutable.empty())
+                .openAllNeoStores();
+        storeCursors = new CachedStoreCursors(neoStores, NULL_CONTEXT);
+        farAwayRelationshipId = neoStores.getRelationshipStore().getRecordsPerPage() * 3L;
+    }
+
+    @AfterEach
+    void tearDown() {
+        storeCursors.close();
+        neoStores.close();
+    }
+
+    @Test
+    void shouldCountDistinctPagesOfSparseNode() {
+        // given node 0 with a relationship on the first page and one three pages away
+        createNode(0, false, NO_NEXT_PROPERTY.longValue(), 0);
+        createRelationship(0, 0, 1, farAwayRelationshipId, NULL);
+        createRelationship(farAwayRelationshipId, 0, 1, NULL, NULL);
+        // and node 1 with two relationships on the same page and a property record
+        createNode(1, false, 3, 1);
+        createRelationship(1, 1, 0, 2, NULL);
+        createRelationship(2, 1, 0, NULL, NULL);
+        createProperty(3);
+
+        // when
+        NodeLocalitySampler sampler = new NodeLocalitySampler(neoStores, storeCursors);
+
+        // then
+        assertThat(sampler.pagesTouched(0)).isEqualTo(3);
+        assertThat(sampler.pagesTouched(1)).isEqualTo(3);
+        assertThat(sampler.pagesTouched(2)).isEqualTo(0);
+    }
+
+    @Test
+    void shouldCountGroupAndAllChainsOfDenseNode() {
+        // given
+        createNode(0, true, NO_NEXT_PROPERTY.longValue(), 1);
+        createGroup(1, 0, 0, 0, farAwayRelationshipId, NULL);
+        createRelationship(0, 0, 1, NULL, NULL);
+        createRelationship(farAwayRelationshipId, 1, 0, NULL, NULL);
+
+        // when
+        NodeLocalitySampler sampler = new NodeLocalitySampler(neoStores, storeCursors);
+
+        // then node page, group page and two relationship pages
+        assertThat(sampler.pagesTouched(0)).isEqualTo(4);
+    }
+
+    @Test
+    void shouldAverageOverNodesInUse() {
+        // given
+        createNode(0, false, NO_NEXT_PROPERTY.longValue(), 0);
+        createRelationship(0, 0, 1, farAwayRelationshipId, NULL);
+        createRelationship(farAwayRelationshipId, 0, 1, NULL, NULL);
+        createNode(2, false, NO_NEXT_PROPERTY.longValue(), NULL);
+        neoStores.getNodeStore().setHighId(4);
+
+        // when
+        var average = new NodeLocalitySampler(neoStores, storeCursors).averagePagesTouchedPerNode(100);
+
+        // then
+        assertThat(average).isPresent();
+        assertThat(average.getAsDouble()).isCloseTo(2.0, within(0.001));
+    }
+
+    @Test
+    void shouldHandleCircularChain() {
+        // given
+        createNode(0, false, NO_NEXT_PROPERTY.longValue(), 0);
+        createRelationship(0, 0, 1, farAwayRelationshipId, NULL);
+        createRelationship(farAwayRelationshipId, 0, 1, 0, NULL);
+
+        // when
+        NodeLocalitySampler sampler = new NodeLocalitySampler(neoStores, storeCursors);
+
+        // then
+        assertThat(sampler.pagesTouched(0)).isEqualTo(3);
+    }
+
+    private void createNode(long id, boolean dense, long nextProp, long nextRel) {
+        try (var cursor = storeCursors.writeCursor(NODE_CURSOR)) {
+            neoStores
+                    .getNodeStore()
+                    .updateRecord(
+                            new NodeRecord(id).initialize(true, nextProp, dense, nextRel, NO_LABELS_FIELD.longValue()),
+                            cursor,
+                            NULL_CONTEXT,
+                            storeCursors);
+        }
+    }
+
+    private void createGroup(long id, int type, long owningNode, long firstOut, long firstIn, long next) {
+        try (var cursor = storeCursors.writeCursor(GROUP_CURSOR)) {
+            neoStores
+                    .getRelationshipGroupStore()
+                    .updateRecord(
+                            new RelationshipGroupRecord(id)
+                                    .initialize(true, type, firstOut, firstIn, NULL, owningNode, next),
+                            cursor,
+                            NULL_CONTEXT,
+                            storeCursors);
+        }
+    }
+
+    private void createRelationship(long id, long firstNode, long secondNode, long firstNextRel, long secondNextRel) {
+        RelationshipRecord record = new RelationshipRecord(id);
+        record.initialize(
+                true,
+                NO_NEXT_PROPERTY.longValue(),
+                firstNode,
+                secondNode,
+                0,
+                NULL,
+                firstNextRel,
+                NULL,
+                secondNextRel,
+                true,
+                true);
+        try (var cursor = storeCursors.writeCursor(RELATIONSHIP_CURSOR)) {
+            neoStores.getRelationshipStore().updateRecord(record, cursor, NULL_CONTEXT, storeCursors);
+        }
+    }
+
+    private void createProperty(long id) {
+        PropertyRecord record =
+                new PropertyRecord(id).initialize(true, NO_PREVIOUS_PROPERTY.longValue(), NO_NEXT_PROPERTY.longValue());
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.encodeValue(block, 0, Values.intValue(1), null, null, NULL_CONTEXT, INSTANCE);
+        record.addPropertyBlock(block);
+        try (var cursor = storeCursors.writeCursor(PROPERTY_CURSOR)) {
+            neoStores.getPropertyStore().updateRecord(record, cursor, NULL_CONTEXT, storeCursors);
+        }
+    }
+}
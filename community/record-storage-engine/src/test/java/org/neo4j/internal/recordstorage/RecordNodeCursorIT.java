@@ -32,6 +32,7 @@ import java.util.stream.LongStream;
 import org.eclipse.collections.api.set.primitive.LongSet;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
 import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.eclipse.collections.impl.factory.primitive.LongObjectMaps;
 import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -56,7 +57,9 @@ import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.kernel.impl.transaction.log.LogTailLogVersionsMetadata;
+import org.neo4j.logging.NullLog;
 import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.NodeBatch;
 import org.neo4j.test.RandomSupport;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.RandomExtension;
@@ -133,6 +136,42 @@ class RecordNodeCursorIT {
         }
     }
 
+    @RepeatedTest(10)
+    void shouldReturnSameHasLabelWithLabelBitmapCache() {
+        // given
+        var nodeLabels = LongObjectMaps.mutable.<MutableIntSet>empty();
+        for (int i = 0, n = random.nextInt(1, 20); i < n; i++) {
+            var labels = IntSets.mutable.empty();
+            nodeLabels.put(createNodeWithRandomLabels(labels), labels);
+        }
+        var cache = new LabelBitmapCache(Long.MAX_VALUE, NullLog.getInstance());
+        cache.populate(nodeStore, storeCursors, () -> false);
+
+        // then
+        try (RecordNodeCursor nodeCursor = new RecordNodeCursor(
+                nodeStore,
+                neoStores.getRelationshipStore(),
+                neoStores.getRelationshipGroupStore(),
+                null,
+                NULL_CONTEXT,
+                storeCursors,
+                cache)) {
+            nodeLabels.forEachKeyValue((nodeId, labels) -> {
+                nodeCursor.single(nodeId);
+                assertThat(nodeCursor.next()).isTrue();
+                for (int labelId = 0; labelId < HIGH_LABEL_ID; labelId += random.nextInt(1, 100)) {
+                    assertThat(nodeCursor.hasLabel(labelId))
+                            .as("Label " + labelId)
+                            .isEqualTo(labels.contains(labelId));
+                }
+                labels.forEach(
+                        labelId -> assertThat(nodeCursor.hasLabel(labelId)).isTrue());
+            });
+        }
+        assertThat(cache.misses()).isZero();
+        assertThat(cache.hits()).isPositive();
+    }
+
     @RepeatedTest(10)
     void shouldProperlyReturnHasAnyLabel() {
         // given/when
@@ -191,6 +230,44 @@ class RecordNodeCursorIT {
         }
     }
 
+    @Test
+    void shouldReadSameNodesInBatchesAsOneByOne() {
+        // given
+        var nodeLabels = LongObjectMaps.mutable.<MutableIntSet>empty();
+        for (int i = 0, n = random.nextInt(100, 300); i < n; i++) {
+            var labels = IntSets.mutable.empty();
+            nodeLabels.put(createNodeWithRandomLabels(labels, 10), labels);
+        }
+        int[] batchLabels = random.ints(random.nextInt(1, 5), 0, 30).distinct().toArray();
+
+        try (var nodes = new RecordNodeCursor(
+                nodeStore,
+                neoStores.getRelationshipStore(),
+                neoStores.getRelationshipGroupStore(),
+                null,
+                NULL_CONTEXT,
+                storeCursors)) {
+            // when
+            var batch = new NodeBatch(random.nextInt(1, 50), batchLabels);
+            var found = LongSets.mutable.empty();
+            nodes.scan();
+            while (nodes.nextBatch(batch) > 0) {
+                // then
+                for (int i = 0; i < batch.size(); i++) {
+                    long nodeId = batch.id(i);
+                    assertThat(found.add(nodeId)).isTrue();
+                    for (int l = 0; l < batchLabels.length; l++) {
+                        assertThat(batch.hasLabel(i, l))
+                                .isEqualTo(nodeLabels.get(nodeId).contains(batchLabels[l]));
+                    }
+                    assertThat(batch.relationshipsReference(i)).isEqualTo(Record.NO_NEXT_RELATIONSHIP.longValue());
+                }
+                batch.clear();
+            }
+            assertThat(found).isEqualTo(nodeLabels.keySet());
+        }
+    }
+
     @ValueSource(booleans = {true, false})
     @ParameterizedTest
     void shouldCorrectlySupportFastDegreeLookup(boolean dense) {
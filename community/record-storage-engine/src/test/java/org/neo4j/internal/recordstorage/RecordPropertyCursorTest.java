@@ -108,7 +108,7 @@ public class RecordPropertyCursorTest {
                 new DefaultIdGeneratorFactory(fs, immediate(), pageCacheTracer, databaseLayout.getDatabaseName());
         neoStores = new StoreFactory(
                         databaseLayout,
-                        Config.defaults(),
+                        config(),
                         idGeneratorFactory,
                         pageCache,
                         pageCacheTracer,
@@ -130,6 +130,10 @@ public class RecordPropertyCursorTest {
         return defaultFormat();
     }
 
+    protected Config config() {
+        return Config.defaults();
+    }
+
     @AfterEach
     void closeStore() {
         storeCursors.close();
@@ -281,6 +285,41 @@ public class RecordPropertyCursorTest {
         assertThat(valueMapping.isEmpty()).isTrue();
     }
 
+    @Test
+    void shouldStopReadingChainWhenAllSelectedPropertiesFound() {
+        // given
+        Value[] values = createValues(20, 20); // many enough to create multiple records in the chain
+        long firstProp = storeValuesAsPropertyChain(owner, values);
+
+        // and a cycle on the second record, which would be detected if the chain was read further than the first record
+        PropertyStore store = neoStores.getPropertyStore();
+        PropertyRecord firstRecord = getRecord(store, firstProp, NORMAL);
+        long secondProp = firstRecord.getNextProp();
+        PropertyRecord secondRecord = getRecord(store, secondProp, NORMAL);
+        secondRecord.setNextProp(firstProp);
+        try (var cursor = storeCursors.writeCursor(PROPERTY_CURSOR)) {
+            store.updateRecord(secondRecord, cursor, NULL_CONTEXT, storeCursors);
+        }
+        List<Integer> keysInFirstRecord = new ArrayList<>();
+        for (PropertyBlock block : firstRecord) {
+            keysInFirstRecord.add(block.getKeyIndexId());
+        }
+        int[] selectedKeys =
+                keysInFirstRecord.stream().mapToInt(Integer::intValue).toArray();
+
+        // when
+        RecordPropertyCursor cursor = createCursor();
+        cursor.initNodeProperties(longReference(firstProp), PropertySelection.selection(selectedKeys), owner.getId());
+        List<Integer> readKeys = new ArrayList<>();
+        while (cursor.next()) {
+            readKeys.add(cursor.propertyKey());
+            assertThat(cursor.propertyValue()).isEqualTo(values[cursor.propertyKey()]);
+        }
+
+        // then
+        assertThat(readKeys).containsExactlyInAnyOrderElementsOf(keysInFirstRecord);
+    }
+
     protected RecordPropertyCursor createCursor() {
         return new RecordPropertyCursor(neoStores.getPropertyStore(), NULL_CONTEXT, storeCursors, INSTANCE);
     }
@@ -344,6 +383,7 @@ public class RecordPropertyCursorTest {
                     values[i],
                     allocatorProvider.allocator(StoreType.PROPERTY_STRING),
                     allocatorProvider.allocator(StoreType.PROPERTY_ARRAY),
+                    propertyStore.compressDynamicValues(),
                     NULL_CONTEXT,
                     INSTANCE);
             list.add(block);
@@ -19,6 +19,7 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -29,8 +30,12 @@ import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.internal.recordstorage.RecordStorageEngineTestUtils.applyLogicalChanges;
+import static org.neo4j.internal.recordstorage.RecordStorageEngineTestUtils.openSimpleStorageEngine;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
 import static org.neo4j.lock.LockType.EXCLUSIVE;
+import static org.neo4j.test.assertion.Assert.assertEventually;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -41,20 +46,26 @@ import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.exceptions.UnderlyingStorageException;
 import org.neo4j.internal.helpers.collection.Visitor;
+import org.neo4j.internal.id.IdGenerator;
 import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
 import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.lifecycle.Lifespan;
 import org.neo4j.lock.Lock;
 import org.neo4j.lock.LockService;
 import org.neo4j.monitoring.DatabaseHealth;
@@ -207,6 +218,72 @@ class RecordStorageEngineTest {
         }
     }
 
+    @Test
+    void shouldKeepLabelBitmapCacheUpToDate() throws Exception {
+        // given
+        Config config = Config.defaults(GraphDatabaseInternalSettings.label_bitmap_cache_max_memory, mebiBytes(1));
+        long[] nodes = new long[2];
+        try (Lifespan life = new Lifespan()) {
+            RecordStorageEngine engine = openSimpleStorageEngine(fs, pageCache, databaseLayout, config);
+            life.add(engine);
+            awaitLabelBitmapCachePopulated(engine);
+            IdGenerator labelIdGenerator =
+                    engine.testAccessNeoStores().getLabelTokenStore().getIdGenerator();
+            for (int label = 0; label <= 2; label++) {
+                labelIdGenerator.nextId(NULL_CONTEXT);
+            }
+            applyLogicalChanges(engine, (state, tx) -> {
+                IdGenerator idGenerator =
+                        engine.testAccessNeoStores().getNodeStore().getIdGenerator();
+                for (int i = 0; i < nodes.length; i++) {
+                    nodes[i] = idGenerator.nextId(NULL_CONTEXT);
+                    tx.visitCreatedNode(nodes[i]);
+                }
+                tx.visitNodeLabelChanges(nodes[0], LongSets.immutable.of(1, 2), LongSets.immutable.empty());
+                tx.visitNodeLabelChanges(nodes[1], LongSets.immutable.of(2), LongSets.immutable.empty());
+            });
+
+            // when
+            applyLogicalChanges(
+                    engine,
+                    (state, tx) ->
+                            tx.visitNodeLabelChanges(nodes[0], LongSets.immutable.empty(), LongSets.immutable.of(1)));
+
+            // then
+            assertLabels(engine, nodes[0], false, true);
+            assertLabels(engine, nodes[1], false, true);
+            engine.checkpoint(DatabaseFlushEvent.NULL, NULL_CONTEXT);
+        }
+
+        // and when populated from the store in the background on start
+        try (Lifespan life = new Lifespan()) {
+            RecordStorageEngine engine = openSimpleStorageEngine(fs, pageCache, databaseLayout, config);
+            life.add(engine);
+            awaitLabelBitmapCachePopulated(engine);
+
+            // then
+            assertLabels(engine, nodes[0], false, true);
+            assertLabels(engine, nodes[1], false, true);
+        }
+    }
+
+    private static void awaitLabelBitmapCachePopulated(RecordStorageEngine engine) {
+        assertEventually(() -> engine.labelBitmapCache().isReady(), ready -> ready, 1, MINUTES);
+    }
+
+    private static void assertLabels(RecordStorageEngine engine, long nodeId, boolean label1, boolean label2) {
+        long hitsBefore = engine.labelBitmapCache().hits();
+        try (var reader = engine.newReader();
+                var storeCursors = engine.createStorageCursors(NULL_CONTEXT);
+                var nodeCursor = reader.allocateNodeCursor(NULL_CONTEXT, storeCursors)) {
+            nodeCursor.single(nodeId);
+            assertThat(nodeCursor.next()).isTrue();
+            assertThat(nodeCursor.hasLabel(1)).isEqualTo(label1);
+            assertThat(nodeCursor.hasLabel(2)).isEqualTo(label2);
+        }
+        assertThat(engine.labelBitmapCache().hits() - hitsBefore).isEqualTo(2);
+    }
+
     private RecordStorageEngine buildRecordStorageEngine() {
         return recordStorageEngineBuilder().build();
     }
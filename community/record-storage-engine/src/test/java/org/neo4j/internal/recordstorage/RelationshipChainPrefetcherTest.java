@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.GROUP_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.RELATIONSHIP_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordNodeCursor.relationshipsReferenceWithDenseMarker;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.io.pagecache.context.FixedVersionContextSupplier.EMPTY_CONTEXT_SUPPLIER;
+import static org.neo4j.kernel.impl.store.format.RecordFormatSelector.defaultFormat;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+import static org.neo4j.storageengine.api.RelationshipSelection.ALL_RELATIONSHIPS;
+
+import java.io.IOException;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.log.LogTailLogVersionsMetadata;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+
+@EphemeralPageCacheExtension
+@EphemeralNeo4jLayoutExtension
+class RelationshipChainPrefetcherTest {
+    private static final long NULL = NULL_REFERENCE.longValue();
+    private static final long OWNING_NODE = 1;
+    private static final long OTHER_NODE = 2;
+    private static final int TYPE = 0;
+    private static final int CHAIN_LENGTH = 20;
+
+    @Inject
+    private PageCache pageCache;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private RecordDatabaseLayout databaseLayout;
+
+    private final PageCacheTracer pageCacheTracer = new DefaultPageCacheTracer();
+    private final CursorContextFactory contextFactory =
+            new CursorContextFactory(pageCacheTracer, EMPTY_CONTEXT_SUPPLIER);
+    private NeoStores neoStores;
+    private CachedStoreCursors storeCursors;
+
+    @BeforeEach
+    void setUp() {
+        openStores();
+    }
+
+    @AfterEach
+    void tearDown() {
+        closeStores();
+    }
+
+    @Test
+    void shouldSaveFaultsOfDenseChainSpreadOverManyPages() throws IOException {
+        // given
+        long reference = createDenseChainWithOneRelationshipPerPage();
+        RelationshipChainPrefetchStatistics statistics = new RelationshipChainPrefetchStatistics();
+
+        // when
+        MutableLongList relationships = traverse(reference, 100, statistics);
+
+        // then
+        assertThat(relationships.size()).isEqualTo(CHAIN_LENGTH);
+        assertThat(statistics.expands()).isEqualTo(1);
+        assertThat(statistics.pagesPrefetched()).isEqualTo(CHAIN_LENGTH - 1);
+        assertThat(statistics.faultsSaved()).isEqualTo(CHAIN_LENGTH - 1);
+        assertThat(statistics.faultsSavedPerExpand()).isEqualTo(CHAIN_LENGTH - 1);
+    }
+
+    @Test
+    void shouldNotPrefetchMorePagesThanConfigured() throws IOException {
+        // given
+        long reference = createDenseChainWithOneRelationshipPerPage();
+        RelationshipChainPrefetchStatistics statistics = new RelationshipChainPrefetchStatistics();
+
+        // when
+        MutableLongList relationships = traverse(reference, 5, statistics);
+
+        // then
+        assertThat(relationships.size()).isEqualTo(CHAIN_LENGTH);
+        assertThat(statistics.expands()).isEqualTo(1);
+        assertThat(statistics.pagesPrefetched()).isEqualTo(5);
+        assertThat(statistics.faultsSaved()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldReturnSameRelationshipsWithAndWithoutPrefetching() throws IOException {
+        // given
+        long reference = createDenseChainWithOneRelationshipPerPage();
+
+        // when
+        MutableLongList withoutPrefetching = traverse(reference, 0, new RelationshipChainPrefetchStatistics());
+        reopenStores();
+        MutableLongList withPrefetching = traverse(reference, 10, new RelationshipChainPrefetchStatistics());
+
+        // then
+        assertThat(withPrefetching).isEqualTo(withoutPrefetching);
+    }
+
+    @Test
+    void shouldNotPrefetchForSparseNode() throws IOException {
+        // given
+        int recordsPerPage = neoStores.getRelationshipStore().getRecordsPerPage();
+        long head = createChain(recordsPerPage);
+        reopenStores();
+        RelationshipChainPrefetchStatistics statistics = new RelationshipChainPrefetchStatistics();
+
+        // when
+        MutableLongList relationships = traverse(head, 100, statistics);
+
+        // then
+        assertThat(relationships.size()).isEqualTo(CHAIN_LENGTH);
+        assertThat(statistics.expands()).isZero();
+        assertThat(statistics.pagesPrefetched()).isZero();
+    }
+
+    private MutableLongList traverse(
+            long reference, int prefetchPages, RelationshipChainPrefetchStatistics statistics) {
+        MutableLongList relationships = new LongArrayList();
+        try (CursorContext cursorContext = contextFactory.create("traverse");
+                CachedStoreCursors cursors = new CachedStoreCursors(neoStores, cursorContext);
+                RecordRelationshipTraversalCursor cursor = new RecordRelationshipTraversalCursor(
+                        neoStores.getRelationshipStore(),
+                        neoStores.getRelationshipGroupStore(),
+                        null,
+                        cursorContext,
+                        cursors,
+                        prefetchPages,
+                        statistics)) {
+            cursor.init(OWNING_NODE, reference, ALL_RELATIONSHIPS);
+            while (cursor.next()) {
+                relationships.add(cursor.entityReference());
+            }
+        }
+        return relationships;
+    }
+
+    /**
+     * Creates a dense node with a single outgoing chain where every relationship lives on its own page and the chain
+     * runs towards lower ids, like chains do when relationships are added over time.
+     * The stores are reopened so that none of the pages are in the page cache.
+     */
+    private long createDenseChainWithOneRelationshipPerPage() throws IOException {
+        int recordsPerPage = neoStores.getRelationshipStore().getRecordsPerPage();
+        long head = createChain(recordsPerPage);
+        RelationshipGroupStore groupStore = neoStores.getRelationshipGroupStore();
+        long groupId = groupStore.getNumberOfReservedLowIds();
+        try (var groupCursor = storeCursors.writeCursor(GROUP_CURSOR)) {
+            groupStore.updateRecord(
+                    new RelationshipGroupRecord(groupId).initialize(true, TYPE, head, NULL, NULL, OWNING_NODE, NULL),
+                    groupCursor,
+                    NULL_CONTEXT,
+                    storeCursors);
+        }
+        reopenStores();
+        return relationshipsReferenceWithDenseMarker(groupId, true);
+    }
+
+    private long createChain(int idStep) {
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        long head = (long) (CHAIN_LENGTH - 1) * idStep;
+        try (var cursor = storeCursors.writeCursor(RELATIONSHIP_CURSOR)) {
+            for (int i = CHAIN_LENGTH - 1; i >= 0; i--) {
+                long id = (long) i * idStep;
+                long next = i == 0 ? NULL : id - idStep;
+                long prev = i == CHAIN_LENGTH - 1 ? CHAIN_LENGTH : id + idStep;
+                RelationshipRecord record = new RelationshipRecord(id)
+                        .initialize(
+                                true,
+                                NO_NEXT_PROPERTY.intValue(),
+                                OWNING_NODE,
+                                OTHER_NODE,
+                                TYPE,
+                                prev,
+                                next,
+                                NULL,
+                                NULL,
+                                id == head,
+                                true);
+                relationshipStore.updateRecord(record, cursor, NULL_CONTEXT, storeCursors);
+            }
+        }
+        relationshipStore.setHighId(head + 1);
+        return head;
+    }
+
+    private void reopenStores() throws IOException {
+        neoStores.flush(DatabaseFlushEvent.NULL, NULL_CONTEXT);
+        closeStores();
+        openStores();
+    }
+
+    private void openStores() {
+        DefaultIdGeneratorFactory idGeneratorFactory =
+                new DefaultIdGeneratorFactory(fs, immediate(), pageCacheTracer, databaseLayout.getDatabaseName());
+        StoreFactory storeFactory = new StoreFactory(
+                databaseLayout,
+                Config.defaults(),
+                idGeneratorFactory,
+                pageCache,
+                pageCacheTracer,
+                fs,
+                defaultFormat(),
+                NullLogProvider.getInstance(),
+                contextFactory,
+                false,
+                LogTailLogVersionsMetadata.EMPTY_LOG_TAIL,
+                Sets.immutable.empty());
+        neoStores = storeFactory.openAllNeoStores();
+        storeCursors = new CachedStoreCursors(neoStores, NULL_CONTEXT);
+    }
+
+    private void closeStores() {
+        storeCursors.close();
+        neoStores.close();
+    }
+}
@@ -413,6 +413,53 @@ class RelationshipModifierTest {
         assertThat(store.loadNode(node).isDense()).isTrue();
     }
 
+    @Test
+    void shouldConvertSparseNodeToDenseBelowThreshold() {
+        // given
+        long node = createEmptyNode();
+        List<RelationshipData> relationships = generateRelationshipData(
+                DENSE_THRESHOLD / 2, node, randomTypes(3), this::createEmptyNode, RANDOM_DIRECTION);
+        createRelationships(relationships);
+        assertThat(store.loadNode(node).isDense()).isFalse();
+
+        // when
+        boolean converted = convertToDense(node);
+
+        // then
+        assertThat(converted).isTrue();
+        assertThat(store.loadNode(node).isDense()).isTrue();
+        assertThat(readRelationshipsFromStore(node, store)).isEqualTo(asSet(relationships));
+        lockTracking.assertHasLock(NODE, EXCLUSIVE, node);
+        lockTracking.assertHasLock(RELATIONSHIP_GROUP, EXCLUSIVE, node);
+        for (RelationshipData relationship : relationships) {
+            lockTracking.assertHasLock(RELATIONSHIP, EXCLUSIVE, relationship.id());
+        }
+    }
+
+    @Test
+    void shouldNotConvertNodeWithoutRelationshipsOrAlreadyDense() {
+        // given
+        long emptyNode = createEmptyNode();
+        long denseNode = createEmptyNode();
+        createRelationships(
+                generateRelationshipData(DENSE_THRESHOLD * 2, denseNode, type(1), this::createEmptyNode, OUT));
+        assertThat(store.loadNode(denseNode).isDense()).isTrue();
+
+        // when/then
+        assertThat(convertToDense(emptyNode)).isFalse();
+        assertThat(convertToDense(denseNode)).isFalse();
+        assertThat(store.loadNode(emptyNode).isDense()).isFalse();
+    }
+
+    private boolean convertToDense(long node) {
+        RecordAccessSet changes = store.newRecordChanges(NULL_MONITOR, MapRecordStore.Monitor.NULL);
+        boolean converted = modifier.convertToDense(node, changes, groupUpdater);
+        changes.getNodeRecords().changes().forEach(change -> store.write(change.forReadingLinkage()));
+        changes.getRelRecords().changes().forEach(change -> store.write(change.forReadingLinkage()));
+        changes.getRelGroupRecords().changes().forEach(change -> store.write(change.forReadingLinkage()));
+        return converted;
+    }
+
     private static Set<RelationshipData> readRelationshipsFromStore(long node, MapRecordStore store) {
         Set<RelationshipData> relationships = new HashSet<>();
         store.relationshipChainVisitor()
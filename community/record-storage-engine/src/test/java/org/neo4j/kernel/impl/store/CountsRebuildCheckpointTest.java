@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.counts.CountsUpdater;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@EphemeralTestDirectoryExtension
+class CountsRebuildCheckpointTest {
+    private static final long RANGE_SIZE = 1_000;
+    private static final long LAST_TX_ID = 42;
+    private static final long HIGH_NODE_ID = 10_000;
+    private static final long HIGH_RELATIONSHIP_ID = 3_500;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private TestDirectory directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = CountsRebuildCheckpoint.checkpointFileFor(directory.file("neostore.counts.db"));
+    }
+
+    @Test
+    void shouldReplayCompletedRangesAfterReopen() throws IOException {
+        // given
+        try (var checkpoint = open(LAST_TX_ID)) {
+            checkpoint.completed(0, rangeCounts(1, 2, 3, 10));
+            checkpoint.completed(2, rangeCounts(-1, 5, -1, 7));
+        }
+
+        // when
+        try (var checkpoint = open(LAST_TX_ID)) {
+            // then
+            assertThat(checkpoint.numberOfCompletedRanges()).isEqualTo(2);
+            var updater = new RecordingUpdater();
+            assertThat(checkpoint.replay(0, updater)).isTrue();
+            assertThat(checkpoint.replay(1, updater)).isFalse();
+            assertThat(checkpoint.replay(2, updater)).isTrue();
+            assertThat(updater.counts).containsExactly("1:2:3=10", "-1:5:-1=7");
+        }
+    }
+
+    @Test
+    void shouldDiscardCheckpointOfOtherStoreState() throws IOException {
+        // given
+        try (var checkpoint = open(LAST_TX_ID)) {
+            checkpoint.completed(0, rangeCounts(1, 2, 3, 10));
+        }
+
+        // when
+        try (var checkpoint = open(LAST_TX_ID + 1)) {
+            // then
+            assertThat(checkpoint.numberOfCompletedRanges()).isZero();
+            assertThat(checkpoint.replay(0, new RecordingUpdater())).isFalse();
+        }
+    }
+
+    @Test
+    void shouldIgnorePartlyWrittenRange() throws IOException {
+        // given
+        try (var checkpoint = open(LAST_TX_ID)) {
+            checkpoint.completed(0, rangeCounts(1, 2, 3, 10));
+            checkpoint.completed(1, rangeCounts(4, 5, 6, 20));
+        }
+        try (var channel = fs.write(file)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        // when
+        try (var checkpoint = open(LAST_TX_ID)) {
+            checkpoint.completed(1, rangeCounts(4, 5, 6, 30));
+        }
+
+        // then
+        try (var checkpoint = open(LAST_TX_ID)) {
+            var updater = new RecordingUpdater();
+            assertThat(checkpoint.replay(0, updater)).isTrue();
+            assertThat(checkpoint.replay(1, updater)).isTrue();
+            assertThat(updater.counts).containsExactly("1:2:3=10", "4:5:6=30");
+        }
+    }
+
+    @Test
+    void shouldDeleteFile() throws IOException {
+        // given
+        var checkpoint = open(LAST_TX_ID);
+        checkpoint.completed(0, rangeCounts(1, 2, 3, 10));
+
+        // when
+        checkpoint.delete();
+
+        // then
+        assertThat(fs.fileExists(file)).isFalse();
+    }
+
+    @Test
+    void shouldOnlyCountRelationshipsInRanges() {
+        assertThatThrownBy(() -> new CountsRebuildCheckpoint.RangeCounts().incrementNodeCount(1, 1))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private CountsRebuildCheckpoint open(long lastCommittedTxId) throws IOException {
+        return CountsRebuildCheckpoint.open(
+                fs, file, RANGE_SIZE, lastCommittedTxId, HIGH_NODE_ID, HIGH_RELATIONSHIP_ID);
+    }
+
+    private static CountsRebuildCheckpoint.RangeCounts rangeCounts(
+            int startLabelId, int typeId, int endLabelId, long count) {
+        var counts = new CountsRebuildCheckpoint.RangeCounts();
+        // Split in two increments to verify that they're summed up
+        counts.incrementRelationshipCount(startLabelId, typeId, endLabelId, count - 1);
+        counts.incrementRelationshipCount(startLabelId, typeId, endLabelId, 1);
+        return counts;
+    }
+
+    private static class RecordingUpdater implements CountsUpdater {
+        private final List<String> counts = new ArrayList<>();
+
+        @Override
+        public void incrementNodeCount(int labelId, long delta) {
+            counts.add(labelId + "=" + delta);
+        }
+
+        @Override
+        public void incrementRelationshipCount(int startLabelId, int typeId, int endLabelId, long delta) {
+            counts.add(startLabelId + ":" + typeId + ":" + endLabelId + "=" + delta);
+        }
+
+        @Override
+        public void close() {}
+    }
+}
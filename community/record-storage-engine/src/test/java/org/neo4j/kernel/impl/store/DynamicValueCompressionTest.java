@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+
+@ExtendWith(RandomExtension.class)
+class DynamicValueCompressionTest {
+    private static final int RECORD_DATA_SIZE = 120;
+
+    @Inject
+    private RandomSupport random;
+
+    @Test
+    void shouldDecompressToOriginalBytes() {
+        // given
+        byte[] bytes = "{\"key\":\"value\"}".repeat(100).getBytes(UTF_8);
+
+        // when
+        byte[] compressed = DynamicValueCompression.compress(bytes, RECORD_DATA_SIZE);
+
+        // then
+        assertThat(DynamicValueCompression.isCompressed(compressed)).isTrue();
+        assertThat(compressed.length).isLessThan(bytes.length);
+        assertThat(DynamicValueCompression.decompress(compressed)).isEqualTo(bytes);
+        assertThat(DynamicValueCompression.decompress(ByteBuffer.wrap(compressed))
+                        .array())
+                .isEqualTo(bytes);
+        byte[] header = Arrays.copyOf(compressed, DynamicValueCompression.HEADER_SIZE);
+        byte[] data = Arrays.copyOfRange(compressed, DynamicValueCompression.HEADER_SIZE, compressed.length);
+        assertThat(DynamicValueCompression.decompress(header, data)).isEqualTo(bytes);
+    }
+
+    @Test
+    void shouldNotCompressWhenNoRecordsAreSaved() {
+        // given
+        byte[] fitsInOneRecord = "{\"key\":\"value\"}".repeat(5).getBytes(UTF_8);
+        byte[] incompressible = random.nextBytes(new byte[RECORD_DATA_SIZE * 4]);
+
+        // then
+        assertThat(DynamicValueCompression.compress(fitsInOneRecord, RECORD_DATA_SIZE))
+                .isSameAs(fitsInOneRecord);
+        assertThat(DynamicValueCompression.compress(incompressible, RECORD_DATA_SIZE))
+                .isSameAs(incompressible);
+    }
+
+    @Test
+    void shouldOnlySaveRecordsWhenCompressing() {
+        for (int i = 0; i < 100; i++) {
+            // given
+            byte[] bytes = new byte[random.nextInt(1, RECORD_DATA_SIZE * 10)];
+            for (int j = 0; j < bytes.length; j++) {
+                bytes[j] = (byte) random.nextInt('a', 'e');
+            }
+
+            // when
+            byte[] stored = DynamicValueCompression.compress(bytes, RECORD_DATA_SIZE);
+
+            // then
+            if (stored != bytes) {
+                assertThat(records(stored.length)).isLessThan(records(bytes.length));
+                assertThat(DynamicValueCompression.decompress(stored)).isEqualTo(bytes);
+            }
+        }
+    }
+
+    @Test
+    void shouldFailOnTruncatedValue() {
+        // given
+        byte[] compressed = DynamicValueCompression.compress(
+                "{\"key\":\"value\"}".repeat(100).getBytes(UTF_8), RECORD_DATA_SIZE);
+
+        // then
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+        assertThrows(InvalidRecordException.class, () -> DynamicValueCompression.decompress(truncated));
+    }
+
+    private static int records(int length) {
+        return (length + RECORD_DATA_SIZE - 1) / RECORD_DATA_SIZE;
+    }
+}
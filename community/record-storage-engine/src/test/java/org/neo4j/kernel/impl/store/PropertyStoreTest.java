@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.store;
 
 import static org.eclipse.collections.api.factory.Sets.immutable;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
@@ -38,6 +39,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.internal.id.DefaultIdGeneratorFactory;
 import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
 import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
@@ -45,6 +47,8 @@ import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.store.format.RecordFormatSelector;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.aligned.PageAlignedV5_17;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyKeyTokenRecord;
@@ -134,6 +138,38 @@ class PropertyStoreTest {
         }
     }
 
+    @Test
+    void shouldOnlyCompressDynamicValuesOnFormatsSupportingIt() throws IOException {
+        Config config = Config.defaults(GraphDatabaseInternalSettings.compress_dynamic_property_values, true);
+        try (PageCache pageCache = pageCacheExtension.getPageCache(fs)) {
+            assertFalse(compressDynamicValues(pageCache, config, RecordFormatSelector.defaultFormat()));
+            assertTrue(compressDynamicValues(pageCache, config, PageAlignedV5_17.RECORD_FORMATS));
+            assertFalse(compressDynamicValues(pageCache, Config.defaults(), PageAlignedV5_17.RECORD_FORMATS));
+        }
+    }
+
+    private boolean compressDynamicValues(PageCache pageCache, Config config, RecordFormats formats) {
+        var pageCacheTracer = PageCacheTracer.NULL;
+        try (var store = new PropertyStore(
+                fs,
+                storeFile,
+                idFile,
+                config,
+                new DefaultIdGeneratorFactory(fs, immediate(), pageCacheTracer, databaseLayout.getDatabaseName()),
+                pageCache,
+                pageCacheTracer,
+                NullLogProvider.getInstance(),
+                mock(DynamicStringStore.class),
+                mock(PropertyKeyTokenStore.class),
+                mock(DynamicArrayStore.class),
+                formats,
+                false,
+                databaseLayout.getDatabaseName(),
+                immutable.empty())) {
+            return store.compressDynamicValues();
+        }
+    }
+
     private static DynamicRecord dynamicRecord() {
         DynamicRecord dynamicRecord = new DynamicRecord(42);
         dynamicRecord.setType(PropertyType.STRING.intValue());
@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.format.aligned;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.DelegatingPageSwapper;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheOpenOptions;
+import org.neo4j.io.pagecache.PageChecksumMismatchException;
+import org.neo4j.io.pagecache.PageChecksumMismatchHandler;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.EvictionBouncer;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.format.FormatFamily;
+import org.neo4j.kernel.impl.store.format.PageCacheOptionsSelector;
+import org.neo4j.kernel.impl.store.format.RecordFormatSelector;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.RecordStorageCapability;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.OtherThreadExecutor;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+import org.neo4j.test.utils.TestDirectory;
+
+@EphemeralTestDirectoryExtension
+class PageAlignedChecksummedTest {
+    private static final int PAGE_SIZE = 8192;
+    private static final int PAGES = 3;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private TestDirectory directory;
+
+    @Test
+    void shouldSelectChecksummedFormatAndOpenOptions() {
+        // when
+        RecordFormats formats =
+                RecordFormatSelector.findLatestFormatInFamily(PageAlignedChecksummedV5_17.NAME, Config.defaults());
+
+        // then
+        assertThat(formats).isSameAs(PageAlignedChecksummedV5_17.RECORD_FORMATS);
+        assertThat(formats.hasCapability(RecordStorageCapability.PAGE_CHECKSUMS))
+                .isTrue();
+        assertThat(formats.hasCapability(RecordStorageCapability.COMPRESSED_DYNAMIC_VALUES))
+                .isTrue();
+        assertThat(PageCacheOptionsSelector.select(formats)).contains(PageCacheOpenOptions.CHECKSUMMED);
+        assertThat(PageCacheOptionsSelector.select(PageAligned.LATEST_RECORD_FORMATS))
+                .doesNotContain(PageCacheOpenOptions.CHECKSUMMED);
+    }
+
+    @Test
+    void shouldRankChecksummedFamilyAboveAligned() {
+        assertThat(PageAlignedChecksummedV5_17.RECORD_FORMATS.getFormatFamily())
+                .isEqualTo(FormatFamily.ALIGNED_CHECKSUMMED);
+        assertThat(FormatFamily.ALIGNED_CHECKSUMMED.isHigherThan(FormatFamily.ALIGNED))
+                .isTrue();
+        assertThat(FormatFamily.ALIGNED.isHigherThan(FormatFamily.ALIGNED_CHECKSUMMED))
+                .isFalse();
+        assertThat(FormatFamily.HIGH_LIMIT.rank()).isEqualTo(2);
+        assertThat(FormatFamily.MULTIVERSION.rank()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldDetectCorruptedPageOnFault() throws IOException {
+        // given
+        Path file = directory.file("store");
+        var tracer = new DefaultPageCacheTracer();
+        try (JobScheduler jobScheduler = new ThreadPoolJobScheduler();
+                PageCache pageCache = pageCache(jobScheduler, tracer, 1.0)) {
+            try (PagedFile pagedFile = map(pageCache, file)) {
+                assertThat(pagedFile.payloadSize()).isLessThan(PAGE_SIZE);
+                try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                    for (int page = 0; page < PAGES; page++) {
+                        assertThat(cursor.next(page)).isTrue();
+                        for (int offset = 0; offset + Long.BYTES <= pagedFile.payloadSize(); offset += Long.BYTES) {
+                            cursor.putLong(offset, page * 1_000_000L + offset);
+                        }
+                    }
+                }
+                pagedFile.flushAndForce(FileFlushEvent.NULL);
+            }
+        }
+        assertThat(tracer.checksumsComputed()).isEqualTo(PAGES);
+
+        // when
+        corruptByte(file, PAGE_SIZE + PAGE_SIZE / 2);
+        var readTracer = new DefaultPageCacheTracer();
+        try (JobScheduler jobScheduler = new ThreadPoolJobScheduler();
+                PageCache pageCache = pageCache(jobScheduler, readTracer, 1.0);
+                PagedFile pagedFile = map(pageCache, file);
+                PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+            for (int page = 0; page < PAGES; page++) {
+                assertThat(cursor.next(page)).isTrue();
+            }
+        }
+
+        // then
+        assertThat(readTracer.checksumsVerified()).isEqualTo(PAGES);
+        assertThat(readTracer.checksumMismatches()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFailPageFaultOnCorruptedPageWhenConfiguredToFail() throws IOException {
+        // given
+        Path file = directory.file("store");
+        try (JobScheduler jobScheduler = new ThreadPoolJobScheduler();
+                PageCache pageCache = pageCache(jobScheduler, PageCacheTracer.NULL, 1.0);
+                PagedFile pagedFile = map(pageCache, file)) {
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                for (int page = 0; page < PAGES; page++) {
+                    assertThat(cursor.next(page)).isTrue();
+                    cursor.putLong(0, page);
+                }
+            }
+            pagedFile.flushAndForce(FileFlushEvent.NULL);
+        }
+
+        // when
+        corruptByte(file, PAGE_SIZE + PAGE_SIZE / 2);
+        var readTracer = new DefaultPageCacheTracer();
+        try (JobScheduler jobScheduler = new ThreadPoolJobScheduler();
+                PageCache pageCache = pageCache(jobScheduler, readTracer, 1.0, PageChecksumMismatchHandler.FAIL);
+                PagedFile pagedFile = map(pageCache, file);
+                PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+            assertThat(cursor.next(0)).isTrue();
+
+            // then
+            assertThatThrownBy(() -> cursor.next(1))
+                    .isInstanceOf(PageChecksumMismatchException.class)
+                    .hasMessageContaining("page 1 of")
+                    .hasMessageContaining(file.getFileName().toString());
+        }
+        assertThat(readTracer.checksumMismatches()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldWriteChecksumOfWrittenContentWhenPageIsChangedDuringFlush() throws Exception {
+        // given
+        Path file = directory.file("store");
+        Path flushedFile = directory.file("flushed");
+        var flushing = new CountDownLatch(1);
+        var changed = new CountDownLatch(1);
+        var swapperFactory = new SingleFilePageSwapperFactory(fs, PageCacheTracer.NULL, EmptyMemoryTracker.INSTANCE) {
+            @Override
+            public PageSwapper createPageSwapper(
+                    Path path,
+                    int filePageSize,
+                    PageEvictionCallback onEviction,
+                    boolean createIfNotExist,
+                    boolean useDirectIO,
+                    IOController ioController,
+                    EvictionBouncer evictionBouncer,
+                    SwapperSet swappers)
+                    throws IOException {
+                var swapper = super.createPageSwapper(
+                        path,
+                        filePageSize,
+                        onEviction,
+                        createIfNotExist,
+                        useDirectIO,
+                        ioController,
+                        evictionBouncer,
+                        swappers);
+                return new DelegatingPageSwapper(swapper) {
+                    @Override
+                    public long write(
+                            long startFilePageId,
+                            long[] bufferAddresses,
+                            int[] bufferLengths,
+                            int length,
+                            int totalAffectedPages)
+                            throws IOException {
+                        flushing.countDown();
+                        try {
+                            changed.await();
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                        return super.write(startFilePageId, bufferAddresses, bufferLengths, length, totalAffectedPages);
+                    }
+                };
+            }
+        };
+        try (JobScheduler jobScheduler = new ThreadPoolJobScheduler();
+                PageCache pageCache = pageCache(
+                        jobScheduler, swapperFactory, PageCacheTracer.NULL, 1.0, PageChecksumMismatchHandler.IGNORE);
+                PagedFile pagedFile = map(pageCache, file);
+                OtherThreadExecutor flusher = new OtherThreadExecutor("flusher");
+                PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            assertThat(cursor.next()).isTrue();
+            cursor.putLong(0, 1);
+
+            // when a writer changes the page after its checksum could have been computed, but before it's written
+            var flush = flusher.executeDontWait(() -> {
+                pagedFile.flushAndForce(FileFlushEvent.NULL);
+                return null;
+            });
+            flushing.await();
+            cursor.putLong(0, 2);
+            changed.countDown();
+            flush.get();
+            fs.copyFile(file, flushedFile);
+        }
+
+        // then the page that was written should match its checksum
+        try (JobScheduler jobScheduler = new ThreadPoolJobScheduler();
+                PageCache pageCache =
+                        pageCache(jobScheduler, PageCacheTracer.NULL, 1.0, PageChecksumMismatchHandler.FAIL);
+                PagedFile pagedFile = map(pageCache, flushedFile);
+                PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+            assertThat(cursor.next()).isTrue();
+            assertThat(cursor.getLong(0)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldNotVerifyChecksumsWhenVerificationIsDisabled() throws IOException {
+        // given
+        Path file = directory.file("store");
+        try (JobScheduler jobScheduler = new ThreadPoolJobScheduler();
+                PageCache pageCache = pageCache(jobScheduler, PageCacheTracer.NULL, 1.0);
+                PagedFile pagedFile = map(pageCache, file)) {
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                assertThat(cursor.next()).isTrue();
+                cursor.putLong(0, 42);
+            }
+            pagedFile.flushAndForce(FileFlushEvent.NULL);
+        }
+
+        // when
+        var tracer = new DefaultPageCacheTracer();
+        try (JobScheduler jobScheduler = new ThreadPoolJobScheduler();
+                PageCache pageCache = pageCache(jobScheduler, tracer, 0.0);
+                PagedFile pagedFile = map(pageCache, file);
+                PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+            assertThat(cursor.next()).isTrue();
+            assertThat(cursor.getLong(0)).isEqualTo(42);
+        }
+
+        // then
+        assertThat(tracer.checksumsVerified()).isZero();
+    }
+
+    private PageCache pageCache(JobScheduler jobScheduler, PageCacheTracer tracer, double verificationRatio) {
+        return pageCache(jobScheduler, tracer, verificationRatio, PageChecksumMismatchHandler.IGNORE);
+    }
+
+    private PageCache pageCache(
+            JobScheduler jobScheduler,
+            PageCacheTracer tracer,
+            double verificationRatio,
+            PageChecksumMismatchHandler mismatchHandler) {
+        var swapperFactory = new SingleFilePageSwapperFactory(fs, PageCacheTracer.NULL, EmptyMemoryTracker.INSTANCE);
+        return pageCache(jobScheduler, swapperFactory, tracer, verificationRatio, mismatchHandler);
+    }
+
+    private static PageCache pageCache(
+            JobScheduler jobScheduler,
+            PageSwapperFactory swapperFactory,
+            PageCacheTracer tracer,
+            double verificationRatio,
+            PageChecksumMismatchHandler mismatchHandler) {
+        return new MuninnPageCache(
+                swapperFactory,
+                jobScheduler,
+                MuninnPageCache.config(100)
+                        .pageCacheTracer(tracer)
+                        .checksumVerificationRatio(verificationRatio)
+                        .checksumMismatchHandler(mismatchHandler));
+    }
+
+    private static PagedFile map(PageCache pageCache, Path file) throws IOException {
+        return pageCache.map(
+                file,
+                PAGE_SIZE,
+                "neo4j",
+                PageCacheOptionsSelector.select(PageAlignedChecksummedV5_17.RECORD_FORMATS)
+                        .newWith(StandardOpenOption.CREATE));
+    }
+
+    private void corruptByte(Path file, long position) throws IOException {
+        try (var channel = fs.write(file)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, position);
+            buffer.put(0, (byte) (buffer.get(0) + 1));
+            buffer.position(0);
+            channel.writeAll(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storemigration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.eclipse.collections.impl.factory.Sets.immutable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.io.pagecache.context.CursorContextFactory.NULL_CONTEXT_FACTORY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.LENIENT_CHECK;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.helpers.progress.ProgressListener;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.internal.id.IdGeneratorFactory;
+import org.neo4j.internal.id.ScanOnOpenReadOnlyIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.StoreType;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.aligned.PageAligned;
+import org.neo4j.kernel.impl.store.format.aligned.PageAlignedChecksummedV5_17;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.log.LogTailLogVersionsMetadata;
+import org.neo4j.logging.NullLog;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+import org.neo4j.test.utils.TestDirectory;
+
+@EphemeralPageCacheExtension
+class ParallelRecordStoreMigratorTest {
+    private static final int NODES = 1_000;
+    private static final int RELATIONSHIPS = 700;
+    private static final long PARTITION_SIZE = 50;
+    private static final long LAST_TX_ID = 42;
+
+    @Inject
+    private PageCache pageCache;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private TestDirectory directory;
+
+    private final JobScheduler jobScheduler = new ThreadPoolJobScheduler();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jobScheduler.close();
+    }
+
+    @Test
+    void shouldOnlyMigrateBetweenFormatsWithSameRecords() {
+        assertThat(ParallelRecordStoreMigrator.canMigrate(
+                        Standard.LATEST_RECORD_FORMATS, PageAligned.LATEST_RECORD_FORMATS))
+                .isTrue();
+        assertThat(ParallelRecordStoreMigrator.canMigrate(
+                        PageAligned.LATEST_RECORD_FORMATS, PageAlignedChecksummedV5_17.RECORD_FORMATS))
+                .isTrue();
+    }
+
+    @Test
+    void shouldCopyAllRecordsKeepingTheirIds() throws IOException {
+        // given
+        var from = layout("from");
+        var to = layout("to");
+        createStore(from, Standard.LATEST_RECORD_FORMATS);
+
+        // when
+        Map<StoreType, ParallelRecordStoreMigrator.StoreStatistics> statistics = migrator(
+                        4, ParallelRecordStoreMigrator.Monitor.NO_MONITOR)
+                .migrate(
+                        from,
+                        Standard.LATEST_RECORD_FORMATS,
+                        to,
+                        PageAligned.LATEST_RECORD_FORMATS,
+                        LAST_TX_ID,
+                        ProgressListener.NONE);
+
+        // then
+        assertSameRecords(from, Standard.LATEST_RECORD_FORMATS, to, PageAligned.LATEST_RECORD_FORMATS);
+        var nodeStatistics = statistics.get(StoreType.NODE);
+        assertThat(nodeStatistics.numberOfPartitions()).isEqualTo(NODES / PARTITION_SIZE);
+        assertThat(nodeStatistics.partitionsCopied()).isEqualTo(NODES / PARTITION_SIZE);
+        assertThat(nodeStatistics.recordsCopied()).isEqualTo(nodesInUse());
+        assertThat(statistics.get(StoreType.RELATIONSHIP).recordsCopied()).isEqualTo(RELATIONSHIPS);
+    }
+
+    @Test
+    void shouldContinueFromCompletedPartitionsAfterFailure() throws IOException {
+        // given
+        var from = layout("from");
+        var to = layout("to");
+        createStore(from, PageAligned.LATEST_RECORD_FORMATS);
+        var copiedPartitions = new AtomicInteger();
+        ParallelRecordStoreMigrator.Monitor failingMonitor = (type, partition, recordsCopied) -> {
+            if (copiedPartitions.incrementAndGet() == 10) {
+                throw new IOException("Simulated failure");
+            }
+        };
+        assertThatThrownBy(() -> migrator(1, failingMonitor)
+                        .migrate(
+                                from,
+                                PageAligned.LATEST_RECORD_FORMATS,
+                                to,
+                                PageAlignedChecksummedV5_17.RECORD_FORMATS,
+                                LAST_TX_ID,
+                                ProgressListener.NONE))
+                .hasMessageContaining("Simulated failure");
+
+        // when
+        Map<StoreType, ParallelRecordStoreMigrator.StoreStatistics> statistics = migrator(
+                        4, ParallelRecordStoreMigrator.Monitor.NO_MONITOR)
+                .migrate(
+                        from,
+                        PageAligned.LATEST_RECORD_FORMATS,
+                        to,
+                        PageAlignedChecksummedV5_17.RECORD_FORMATS,
+                        LAST_TX_ID,
+                        ProgressListener.NONE);
+
+        // then
+        assertSameRecords(from, PageAligned.LATEST_RECORD_FORMATS, to, PageAlignedChecksummedV5_17.RECORD_FORMATS);
+        long resumed = statistics.values().stream()
+                .mapToLong(ParallelRecordStoreMigrator.StoreStatistics::partitionsResumed)
+                .sum();
+        assertThat(resumed).isEqualTo(10);
+    }
+
+    @Test
+    void shouldStartOverWhenMigratedStoreHasChanged() throws IOException {
+        // given
+        var from = layout("from");
+        var to = layout("to");
+        createStore(from, Standard.LATEST_RECORD_FORMATS);
+        migrator(2, ParallelRecordStoreMigrator.Monitor.NO_MONITOR)
+                .migrate(
+                        from,
+                        Standard.LATEST_RECORD_FORMATS,
+                        to,
+                        PageAligned.LATEST_RECORD_FORMATS,
+                        LAST_TX_ID,
+                        ProgressListener.NONE);
+
+        // when
+        Map<StoreType, ParallelRecordStoreMigrator.StoreStatistics> statistics = migrator(
+                        2, ParallelRecordStoreMigrator.Monitor.NO_MONITOR)
+                .migrate(
+                        from,
+                        Standard.LATEST_RECORD_FORMATS,
+                        to,
+                        PageAligned.LATEST_RECORD_FORMATS,
+                        LAST_TX_ID + 1,
+                        ProgressListener.NONE);
+
+        // then
+        assertThat(statistics.get(StoreType.NODE).partitionsResumed()).isZero();
+        assertThat(statistics.get(StoreType.NODE).partitionsCopied()).isEqualTo(NODES / PARTITION_SIZE);
+        assertSameRecords(from, Standard.LATEST_RECORD_FORMATS, to, PageAligned.LATEST_RECORD_FORMATS);
+    }
+
+    private ParallelRecordStoreMigrator migrator(int threads, ParallelRecordStoreMigrator.Monitor monitor) {
+        return new ParallelRecordStoreMigrator(
+                pageCache,
+                fs,
+                Config.defaults(),
+                NULL_CONTEXT_FACTORY,
+                PageCacheTracer.NULL,
+                jobScheduler,
+                NullLog.getInstance(),
+                threads,
+                PARTITION_SIZE,
+                monitor);
+    }
+
+    private RecordDatabaseLayout layout(String name) {
+        return RecordDatabaseLayout.ofFlat(directory.directory(name));
+    }
+
+    private static boolean nodeInUse(long id) {
+        // Leave gaps of unused records, but have the last one in use
+        return id % 3 != 1;
+    }
+
+    private static long nodesInUse() {
+        long count = 0;
+        for (long id = 0; id < NODES; id++) {
+            count += nodeInUse(id) ? 1 : 0;
+        }
+        return count;
+    }
+
+    private void createStore(RecordDatabaseLayout layout, RecordFormats format) throws IOException {
+        var idGeneratorFactory = new DefaultIdGeneratorFactory(fs, immediate(), PageCacheTracer.NULL, "db");
+        try (NeoStores stores =
+                        storeFactory(layout, format, idGeneratorFactory, false).openAllNeoStores();
+                var cursorContext = NULL_CONTEXT_FACTORY.create("test");
+                var storeCursors = new CachedStoreCursors(stores, cursorContext)) {
+            stores.start(cursorContext);
+            NodeStore nodeStore = stores.getNodeStore();
+            try (var cursor = nodeStore.openPageCursorForWriting(0, cursorContext)) {
+                for (long id = 0; id < NODES; id++) {
+                    var node = new NodeRecord(id)
+                            .initialize(nodeInUse(id), NO_NEXT_PROPERTY.longValue(), false, id % NODES, id % 7);
+                    nodeStore.updateRecord(node, cursor, cursorContext, storeCursors);
+                }
+            }
+            nodeStore.getIdGenerator().setHighestPossibleIdInUse(NODES - 1);
+            RelationshipStore relationshipStore = stores.getRelationshipStore();
+            try (var cursor = relationshipStore.openPageCursorForWriting(0, cursorContext)) {
+                for (long id = 0; id < RELATIONSHIPS; id++) {
+                    var relationship = new RelationshipRecord(id)
+                            .initialize(
+                                    true,
+                                    NO_NEXT_PROPERTY.longValue(),
+                                    id,
+                                    id + 1,
+                                    (int) (id % 5),
+                                    NO_NEXT_RELATIONSHIP.longValue(),
+                                    NO_NEXT_RELATIONSHIP.longValue(),
+                                    NO_NEXT_RELATIONSHIP.longValue(),
+                                    NO_NEXT_RELATIONSHIP.longValue(),
+                                    true,
+                                    true);
+                    relationshipStore.updateRecord(relationship, cursor, cursorContext, storeCursors);
+                }
+            }
+            relationshipStore.getIdGenerator().setHighestPossibleIdInUse(RELATIONSHIPS - 1);
+            stores.flush(DatabaseFlushEvent.NULL, cursorContext);
+        }
+    }
+
+    private void assertSameRecords(
+            RecordDatabaseLayout fromLayout,
+            RecordFormats fromFormat,
+            RecordDatabaseLayout toLayout,
+            RecordFormats toFormat)
+            throws IOException {
+        try (NeoStores from = storeFactory(fromLayout, fromFormat, new ScanOnOpenReadOnlyIdGeneratorFactory(), true)
+                        .openNeoStores(StoreType.NODE, StoreType.RELATIONSHIP);
+                NeoStores to = storeFactory(toLayout, toFormat, new ScanOnOpenReadOnlyIdGeneratorFactory(), true)
+                        .openNeoStores(StoreType.NODE, StoreType.RELATIONSHIP);
+                var cursorContext = NULL_CONTEXT_FACTORY.create("test");
+                var fromNodes = from.getNodeStore().openPageCursorForReading(0, cursorContext);
+                var toNodes = to.getNodeStore().openPageCursorForReading(0, cursorContext);
+                var fromRelationships = from.getRelationshipStore().openPageCursorForReading(0, cursorContext);
+                var toRelationships = to.getRelationshipStore().openPageCursorForReading(0, cursorContext)) {
+            assertThat(to.getNodeStore().getIdGenerator().getHighId()).isEqualTo(NODES);
+            for (long id = 0; id < NODES; id++) {
+                NodeRecord expected =
+                        from.getNodeStore().getRecordByCursor(id, new NodeRecord(id), LENIENT_CHECK, fromNodes);
+                NodeRecord actual = to.getNodeStore().getRecordByCursor(id, new NodeRecord(id), LENIENT_CHECK, toNodes);
+                assertThat(actual).isEqualTo(expected);
+                assertThat(actual.inUse()).isEqualTo(nodeInUse(id));
+            }
+            assertThat(to.getRelationshipStore().getIdGenerator().getHighId()).isEqualTo(RELATIONSHIPS);
+            for (long id = 0; id < RELATIONSHIPS; id++) {
+                RelationshipRecord expected = from.getRelationshipStore()
+                        .getRecordByCursor(id, new RelationshipRecord(id), LENIENT_CHECK, fromRelationships);
+                RelationshipRecord actual = to.getRelationshipStore()
+                        .getRecordByCursor(id, new RelationshipRecord(id), LENIENT_CHECK, toRelationships);
+                assertThat(actual).isEqualTo(expected);
+            }
+        }
+    }
+
+    private StoreFactory storeFactory(
+            RecordDatabaseLayout layout,
+            RecordFormats format,
+            IdGeneratorFactory idGeneratorFactory,
+            boolean readOnly) {
+        return new StoreFactory(
+                layout,
+                Config.defaults(),
+                idGeneratorFactory,
+                pageCache,
+                PageCacheTracer.NULL,
+                fs,
+                format,
+                NullLogProvider.getInstance(),
+                NULL_CONTEXT_FACTORY,
+                readOnly,
+                LogTailLogVersionsMetadata.EMPTY_LOG_TAIL,
+                immutable.empty());
+    }
+}
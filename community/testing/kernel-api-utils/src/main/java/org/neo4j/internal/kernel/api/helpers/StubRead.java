@@ -66,6 +66,16 @@ public class StubRead implements Read {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void nodeIndexSeekBatch(
+            QueryContext queryContext,
+            IndexReadSession index,
+            NodeValueIndexCursor cursor,
+            IndexQueryConstraints constraints,
+            PropertyIndexQuery.ExactPredicate[]... queries) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public PartitionedScan<NodeValueIndexCursor> nodeIndexSeek(
             IndexReadSession index,